@@ -62,4 +62,6 @@ public class AspspSettings {
     private boolean entryReferenceFromSupported;
     private List<String> supportedTransactionApplicationTypes;
     private StartAuthorisationMode startAuthorisationMode;
+    private long accountDetailsCacheTtlMs;
+    private long balancesCacheTtlMs;
 }
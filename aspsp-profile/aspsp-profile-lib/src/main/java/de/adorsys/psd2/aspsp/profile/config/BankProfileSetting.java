@@ -197,4 +197,14 @@ public class BankProfileSetting {
      * The mode of authorisation from the ASPSP profile service.
      */
     private String startAuthorisationMode;
+
+    /**
+     * Time to live in milliseconds of cached account details, received from ASPSP. 0 disables caching of account details
+     */
+    private long accountDetailsCacheTtlMs;
+
+    /**
+     * Time to live in milliseconds of cached balances, received from ASPSP. 0 disables caching of balances
+     */
+    private long balancesCacheTtlMs;
 }
@@ -27,12 +27,32 @@ import org.springframework.beans.factory.InitializingBean;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static de.adorsys.psd2.xs2a.core.ais.BookingStatus.BOOKED;
 
 @Data
 public class ProfileConfiguration implements InitializingBean {
     private BankProfileSetting setting;
+    // starts with the loading time, so that the settings, loaded after a restart, don't get the version of the old ones
+    private final AtomicLong settingsVersion = new AtomicLong(System.currentTimeMillis());
+
+    /**
+     * Returns the version of the settings, that is changed by every update of the settings, so that remote readers of
+     * the profile can cache them until the version changes
+     *
+     * @return current version of the settings
+     */
+    public long getSettingsVersion() {
+        return settingsVersion.get();
+    }
+
+    /**
+     * Registers an update of the settings, changing their version
+     */
+    public void registerSettingsUpdate() {
+        settingsVersion.incrementAndGet();
+    }
 
     @Override
     public void afterPropertiesSet() {
@@ -66,7 +66,9 @@ public class AspspProfileServiceImpl implements AspspProfileService {
             setting.isDeltaListSupported(),
             setting.isEntryReferenceFromSupported(),
             setting.getSupportedTransactionApplicationTypes(),
-            StartAuthorisationMode.getByValue(setting.getStartAuthorisationMode())
+            StartAuthorisationMode.getByValue(setting.getStartAuthorisationMode()),
+            setting.getAccountDetailsCacheTtlMs(),
+            setting.getBalancesCacheTtlMs()
         );
     }
 
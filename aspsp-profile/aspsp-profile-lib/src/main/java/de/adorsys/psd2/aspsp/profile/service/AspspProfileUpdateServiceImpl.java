@@ -41,6 +41,7 @@ public class AspspProfileUpdateServiceImpl implements AspspProfileUpdateService
     public void updateScaApproaches(List<ScaApproach> scaApproaches) {
         profileConfiguration.getSetting()
             .setScaApproaches(scaApproaches);
+        profileConfiguration.registerSettingsUpdate();
     }
 
     /**
@@ -87,5 +88,8 @@ public class AspspProfileUpdateServiceImpl implements AspspProfileUpdateService
         setting.setEntryReferenceFromSupported(aspspSettings.isEntryReferenceFromSupported());
         setting.setSupportedTransactionApplicationTypes(aspspSettings.getSupportedTransactionApplicationTypes());
         setting.setStartAuthorisationMode(aspspSettings.getStartAuthorisationMode().getValue());
+        setting.setAccountDetailsCacheTtlMs(aspspSettings.getAccountDetailsCacheTtlMs());
+        setting.setBalancesCacheTtlMs(aspspSettings.getBalancesCacheTtlMs());
+        profileConfiguration.registerSettingsUpdate();
     }
 }
@@ -73,6 +73,8 @@ public class AspspProfileServiceTest {
     private static final boolean ENTRY_REFERENCE_FROM_SUPPORTED = true;
     private static final List<String> SUPPORTED_TRANSACTION_APPLICATION_TYPES = Arrays.asList("JSON", "XML");
     private static final StartAuthorisationMode START_AUTHORISATION_MODE = StartAuthorisationMode.AUTO;
+    private static final long ACCOUNT_DETAILS_CACHE_TTL_MS = 5000;
+    private static final long BALANCES_CACHE_TTL_MS = 2000;
 
 
     @InjectMocks
@@ -183,6 +185,12 @@ public class AspspProfileServiceTest {
         Assertions.assertThat(actualResponse.getStartAuthorisationMode()).isEqualTo(START_AUTHORISATION_MODE);
     }
 
+    @Test
+    public void getCacheTtls_success() {
+        Assertions.assertThat(actualResponse.getAccountDetailsCacheTtlMs()).isEqualTo(ACCOUNT_DETAILS_CACHE_TTL_MS);
+        Assertions.assertThat(actualResponse.getBalancesCacheTtlMs()).isEqualTo(BALANCES_CACHE_TTL_MS);
+    }
+
     private BankProfileSetting buildBankProfileSetting() {
         BankProfileSetting setting = new BankProfileSetting();
         setting.setFrequencyPerDay(FREQUENCY_PER_DAY);
@@ -217,6 +225,8 @@ public class AspspProfileServiceTest {
         setting.setEntryReferenceFromSupported(ENTRY_REFERENCE_FROM_SUPPORTED);
         setting.setSupportedTransactionApplicationTypes(SUPPORTED_TRANSACTION_APPLICATION_TYPES);
         setting.setStartAuthorisationMode(START_AUTHORISATION_MODE.getValue());
+        setting.setAccountDetailsCacheTtlMs(ACCOUNT_DETAILS_CACHE_TTL_MS);
+        setting.setBalancesCacheTtlMs(BALANCES_CACHE_TTL_MS);
         return setting;
     }
 
@@ -38,6 +38,7 @@ import java.util.*;
 
 import static de.adorsys.psd2.aspsp.profile.domain.SupportedAccountReferenceField.IBAN;
 import static de.adorsys.psd2.xs2a.core.ais.BookingStatus.*;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -75,6 +76,8 @@ public class AspspProfileUpdateServiceImplTest {
     private static final boolean ENTRY_REFERENCE_FROM_SUPPORTED = true;
     private static final List<String> SUPPORTED_TRANSACTION_APPLICATION_TYPES = Arrays.asList("JSON", "XML");
     private static final StartAuthorisationMode START_AUTHORISATION_MODE = StartAuthorisationMode.AUTO;
+    private static final long ACCOUNT_DETAILS_CACHE_TTL_MS = 5000;
+    private static final long BALANCES_CACHE_TTL_MS = 2000;
 
     @InjectMocks
     private AspspProfileUpdateServiceImpl aspspProfileUpdateService;
@@ -94,6 +97,7 @@ public class AspspProfileUpdateServiceImplTest {
 
         //Then:
         Assertions.assertThat(profileConfiguration.getSetting().getScaApproaches()).isEqualTo(Collections.singletonList(REDIRECT_APPROACH));
+        verify(profileConfiguration).registerSettingsUpdate();
     }
 
     @Test
@@ -104,9 +108,10 @@ public class AspspProfileUpdateServiceImplTest {
                                                                         TRANSACTIONS_WITHOUT_BALANCES_SUPPORTED, SIGNING_BASKET_SUPPORTED, PAYMENT_CANCELLATION_AUTHORIZATION_MANDATED, PIIS_CONSENT_SUPPORTED, REDIRECT_URL_EXPIRATION_TIME_MS,
                                                                         PIS_CANCELLATION_REDIRECT_LINK, NOT_CONFIRMED_CONSENT_EXPIRATION_PERIOD_MS, NOT_CONFIRMED_PAYMENT_EXPIRATION_PERIOD_MS, SUPPORTED_PAYMENT_TYPE_AND_PRODUCT_MATRIX, PAYMENT_CANCELLATION_REDIRECT_URL_EXPIRATION_TIME_MS,
                                                                         AVAILABLE_ACCOUNTS_CONSENT_SUPPORTED, SCA_BY_ONE_TIME_AVAILABLE_CONSENT_REQUIRED, PSU_IN_INITIAL_REQUEST_MANDATED, FORCE_XS2A_BASE_URL, XS2A_BASE_URL, SCA_REDIRECT_FLOW, DELTA_LIST_SUPPORTED, ENTRY_REFERENCE_FROM_SUPPORTED, SUPPORTED_TRANSACTION_APPLICATION_TYPES,
-                                                                        START_AUTHORISATION_MODE));
+                                                                        START_AUTHORISATION_MODE, ACCOUNT_DETAILS_CACHE_TTL_MS, BALANCES_CACHE_TTL_MS));
 
         //Then:
+        verify(profileConfiguration).registerSettingsUpdate();
         BankProfileSetting setting = profileConfiguration.getSetting();
         Assertions.assertThat(setting.getFrequencyPerDay()).isEqualTo(FREQUENCY_PER_DAY);
         Assertions.assertThat(setting.isCombinedServiceIndicator()).isEqualTo(COMBINED_SERVICE_INDICATOR);
@@ -140,6 +145,8 @@ public class AspspProfileUpdateServiceImplTest {
         Assertions.assertThat(setting.isEntryReferenceFromSupported()).isEqualTo(ENTRY_REFERENCE_FROM_SUPPORTED);
         Assertions.assertThat(setting.getSupportedTransactionApplicationTypes()).isEqualTo(SUPPORTED_TRANSACTION_APPLICATION_TYPES);
         Assertions.assertThat(setting.getStartAuthorisationMode()).isEqualTo(START_AUTHORISATION_MODE.getValue());
+        Assertions.assertThat(setting.getAccountDetailsCacheTtlMs()).isEqualTo(ACCOUNT_DETAILS_CACHE_TTL_MS);
+        Assertions.assertThat(setting.getBalancesCacheTtlMs()).isEqualTo(BALANCES_CACHE_TTL_MS);
     }
 
     private static List<SupportedAccountReferenceField> getSupportedAccountReferenceFields() {
@@ -19,26 +19,60 @@ package de.adorsys.psd2.aspsp.profile.service;
 import de.adorsys.psd2.aspsp.profile.config.AspspProfileRemoteUrls;
 import de.adorsys.psd2.aspsp.profile.domain.AspspSettings;
 import de.adorsys.psd2.xs2a.core.profile.ScaApproach;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Reads ASPSP profile from the remote profile service.
+ * <p>
+ * ASPSP settings are read on nearly every XS2A request (e.g. by every link aspect), so they are cached together with
+ * their version (ETag) and revalidated at most every {@code aspsp-profile.settings-refresh-interval-ms}. The profile
+ * service answers the revalidation with 304 and without body as long as the version is unchanged.
+ */
 @Service
 @RequiredArgsConstructor
 public class AspspProfileServiceRemote implements AspspProfileService {
     @Qualifier("aspspProfileRestTemplate")
     private final RestTemplate aspspProfileRestTemplate;
     private final AspspProfileRemoteUrls aspspProfileRemoteUrls;
+    private final AtomicReference<CachedSettings> cachedSettings = new AtomicReference<>();
+
+    @Value("${aspsp-profile.settings-refresh-interval-ms:5000}")
+    private long settingsRefreshIntervalMs;
 
     @Override
     public AspspSettings getAspspSettings() {
-        return aspspProfileRestTemplate.exchange(
-            aspspProfileRemoteUrls.getAspspSettings(), HttpMethod.GET, null, AspspSettings.class).getBody();
+        CachedSettings cached = cachedSettings.get();
+        long now = System.currentTimeMillis();
+        if (cached != null && now < cached.getRefreshAt()) {
+            return cached.getSettings();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        if (cached != null && cached.getETag() != null) {
+            headers.setIfNoneMatch(cached.getETag());
+        }
+        ResponseEntity<AspspSettings> response = aspspProfileRestTemplate.exchange(
+            aspspProfileRemoteUrls.getAspspSettings(), HttpMethod.GET, new HttpEntity<>(headers), AspspSettings.class);
+
+        CachedSettings refreshed = cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED
+                                       ? new CachedSettings(cached.getSettings(), cached.getETag(), now + settingsRefreshIntervalMs)
+                                       : new CachedSettings(response.getBody(), response.getHeaders().getETag(), now + settingsRefreshIntervalMs);
+        cachedSettings.set(refreshed);
+        return refreshed.getSettings();
     }
 
     @Override
@@ -47,4 +81,12 @@ public class AspspProfileServiceRemote implements AspspProfileService {
             aspspProfileRemoteUrls.getScaApproaches(), HttpMethod.GET, null, new ParameterizedTypeReference<List<ScaApproach>>() {
             }).getBody();
     }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class CachedSettings {
+        private final AspspSettings settings;
+        private final String eTag;
+        private final long refreshAt;
+    }
 }
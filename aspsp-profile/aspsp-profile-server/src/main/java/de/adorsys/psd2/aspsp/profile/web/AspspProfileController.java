@@ -16,16 +16,20 @@
 
 package de.adorsys.psd2.aspsp.profile.web;
 
+import de.adorsys.psd2.aspsp.profile.config.ProfileConfiguration;
 import de.adorsys.psd2.aspsp.profile.domain.AspspSettings;
 import de.adorsys.psd2.aspsp.profile.service.AspspProfileService;
 import de.adorsys.psd2.xs2a.core.profile.ScaApproach;
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -38,12 +42,22 @@ import java.util.List;
 public class AspspProfileController {
 
     private final AspspProfileService aspspProfileService;
+    private final ProfileConfiguration profileConfiguration;
 
     @GetMapping
-    @ApiOperation(value = "Reads aspsp specific settings")
-    @ApiResponse(code = 200, message = "Ok", response = AspspSettings.class)
-    public ResponseEntity<AspspSettings> getAspspSettings() {
-        return new ResponseEntity<>(aspspProfileService.getAspspSettings(), HttpStatus.OK);
+    @ApiOperation(value = "Reads aspsp specific settings. The version of the settings is returned as ETag, "
+                              + "the settings are not returned again if their version matches If-None-Match header")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "Ok", response = AspspSettings.class),
+        @ApiResponse(code = 304, message = "Not Modified")})
+    public ResponseEntity<AspspSettings> getAspspSettings(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = "\"" + profileConfiguration.getSettingsVersion() + "\"";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        if (eTag.equals(ifNoneMatch)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+        return new ResponseEntity<>(aspspProfileService.getAspspSettings(), headers, HttpStatus.OK);
     }
 
     @GetMapping(path = "/sca-approaches")
@@ -16,6 +16,7 @@
 
 package de.adorsys.psd2.aspsp.profile.web;
 
+import de.adorsys.psd2.aspsp.profile.config.ProfileConfiguration;
 import de.adorsys.psd2.aspsp.profile.domain.AspspSettings;
 import de.adorsys.psd2.aspsp.profile.domain.MulticurrencyAccountLevel;
 import de.adorsys.psd2.aspsp.profile.domain.SupportedAccountReferenceField;
@@ -25,7 +26,6 @@ import de.adorsys.psd2.xs2a.core.profile.PaymentType;
 import de.adorsys.psd2.xs2a.core.profile.ScaApproach;
 import de.adorsys.psd2.xs2a.core.profile.ScaRedirectFlow;
 import de.adorsys.psd2.xs2a.core.profile.StartAuthorisationMode;
-import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -39,7 +39,7 @@ import java.util.*;
 import static de.adorsys.psd2.aspsp.profile.domain.SupportedAccountReferenceField.IBAN;
 import static de.adorsys.psd2.xs2a.core.ais.BookingStatus.*;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
 public class AspspProfileControllerTest {
@@ -75,38 +75,54 @@ public class AspspProfileControllerTest {
     private static final List<String> SUPPORTED_TRANSACTION_APPLICATION_TYPES = Arrays.asList("JSON", "XML");
     private static final boolean ENTRY_REFERENCE_FROM_SUPPORTED = true;
     private static final StartAuthorisationMode START_AUTHORISATION_MODE = StartAuthorisationMode.AUTO;
+    private static final long SETTINGS_VERSION = 3;
+    private static final String SETTINGS_ETAG = "\"3\"";
 
     @InjectMocks
     private AspspProfileController aspspProfileController;
 
     @Mock
     private AspspProfileService aspspProfileService;
-
-    @Before
-    public void setUpAccountServiceMock() {
-        when(aspspProfileService.getAspspSettings())
-            .thenReturn(buildAspspSettings());
-        when(aspspProfileService.getScaApproaches())
-            .thenReturn(Collections.singletonList(ScaApproach.REDIRECT));
-    }
+    @Mock
+    private ProfileConfiguration profileConfiguration;
 
     @Test
     public void getAspspSettings() {
         //Given:
         HttpStatus expectedStatusCode = HttpStatus.OK;
+        when(aspspProfileService.getAspspSettings())
+            .thenReturn(buildAspspSettings());
+        when(profileConfiguration.getSettingsVersion()).thenReturn(SETTINGS_VERSION);
 
         //When:
-        ResponseEntity<AspspSettings> actualResponse = aspspProfileController.getAspspSettings();
+        ResponseEntity<AspspSettings> actualResponse = aspspProfileController.getAspspSettings(null);
 
         //Then:
         assertThat(actualResponse.getStatusCode()).isEqualTo(expectedStatusCode);
         assertThat(actualResponse.getBody()).isEqualTo(buildAspspSettings());
+        assertThat(actualResponse.getHeaders().getETag()).isEqualTo(SETTINGS_ETAG);
+    }
+
+    @Test
+    public void getAspspSettings_sameVersion_notModified() {
+        //Given:
+        when(profileConfiguration.getSettingsVersion()).thenReturn(SETTINGS_VERSION);
+
+        //When:
+        ResponseEntity<AspspSettings> actualResponse = aspspProfileController.getAspspSettings(SETTINGS_ETAG);
+
+        //Then:
+        assertThat(actualResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(actualResponse.getBody()).isNull();
+        verify(aspspProfileService, never()).getAspspSettings();
     }
 
     @Test
     public void getScaApproach() {
         //Given:
         HttpStatus expectedStatusCode = HttpStatus.OK;
+        when(aspspProfileService.getScaApproaches())
+            .thenReturn(Collections.singletonList(ScaApproach.REDIRECT));
 
         //When:
         ResponseEntity<List<ScaApproach>> actualResponse = aspspProfileController.getScaApproaches();
@@ -149,7 +165,9 @@ public class AspspProfileControllerTest {
             DELTA_LIST_SUPPORTED,
             ENTRY_REFERENCE_FROM_SUPPORTED,
             SUPPORTED_TRANSACTION_APPLICATION_TYPES,
-            START_AUTHORISATION_MODE);
+            START_AUTHORISATION_MODE,
+            0,
+            0);
     }
 
     private static List<SupportedAccountReferenceField> getSupportedAccountReferenceFields() {
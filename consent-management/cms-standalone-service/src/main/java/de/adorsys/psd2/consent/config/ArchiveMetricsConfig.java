@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.config;
+
+import de.adorsys.psd2.consent.service.archive.ArchiveStatistics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the statistics of the archive schedule task as actuator metrics
+ */
+@Configuration
+public class ArchiveMetricsConfig {
+    @Bean
+    public MeterBinder archiveMetrics(ArchiveStatistics archiveStatistics) {
+        return registry -> {
+            FunctionCounter.builder("cms.archive.ais-consents", archiveStatistics, ArchiveStatistics::getArchivedAisConsents)
+                .description("Number of archived AIS consents")
+                .register(registry);
+            FunctionCounter.builder("cms.archive.payments", archiveStatistics, ArchiveStatistics::getArchivedPayments)
+                .description("Number of archived payments")
+                .register(registry);
+            FunctionCounter.builder("cms.archive.failed-batches", archiveStatistics, ArchiveStatistics::getFailedBatches)
+                .description("Number of archive batches rolled back because of an error")
+                .register(registry);
+            Gauge.builder("cms.archive.last-run.duration", archiveStatistics, ArchiveStatistics::getLastRunDurationMs)
+                .description("Duration of the last archive run")
+                .baseUnit(TimeUnit.MILLISECONDS.name().toLowerCase())
+                .register(registry);
+            Gauge.builder("cms.archive.last-run.complete", archiveStatistics, s -> s.isLastRunComplete() ? 1 : 0)
+                .description("Whether the last archive run has archived all eligible records")
+                .register(registry);
+        };
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.config;
+
+import de.adorsys.psd2.consent.config.datasource.ReadYourWritesTracker;
+import de.adorsys.psd2.consent.config.datasource.ReplicaDataSource;
+import de.adorsys.psd2.consent.config.datasource.ReplicaLagMonitor;
+import de.adorsys.psd2.consent.config.datasource.ReplicaRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to the read replicas listed in {@code cms.datasource.replica.instances}, enabled with
+ * {@code cms.datasource.replica.enabled=true}. The primary database is still configured by {@code spring.datasource.*}.
+ * <p>
+ * Connection pools of the primary database and of the replicas are created here and are closed on shutdown.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "cms.datasource.replica.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class ReplicaDataSourceConfig implements DisposableBean {
+    private static final String X_REQUEST_ID_HEADER = "X-Request-ID";
+
+    private final ReplicaDataSourceProperties replicaProperties;
+    private final List<ReplicaDataSource> replicas = new ArrayList<>();
+    private final List<DataSource> connectionPools = new ArrayList<>();
+
+    public ReplicaDataSourceConfig(ReplicaDataSourceProperties replicaProperties) {
+        this.replicaProperties = replicaProperties;
+        for (ReplicaDataSourceProperties.Replica replica : replicaProperties.getInstances()) {
+            DataSource dataSource = DataSourceBuilder.create()
+                                        .url(replica.getUrl())
+                                        .username(replica.getUsername())
+                                        .password(replica.getPassword())
+                                        .build();
+            replicas.add(new ReplicaDataSource(replica.getUrl(), dataSource));
+            connectionPools.add(dataSource);
+        }
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker() {
+        return new ReadYourWritesTracker(replicaProperties.getReadYourWritesPeriodMs());
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor() {
+        return new ReplicaLagMonitor(replicas, replicaProperties.getLagQuery(), replicaProperties.getMaxLagMs());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, ReadYourWritesTracker readYourWritesTracker) {
+        DataSource primary = dataSourceProperties.initializeDataSourceBuilder().build();
+        connectionPools.add(primary);
+        return ReplicaRoutingDataSource.wrap(primary, replicas, readYourWritesTracker);
+    }
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> readYourWritesFilterRegistrationBean(ReadYourWritesTracker readYourWritesTracker) {
+        return new FilterRegistrationBean<>(new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+                readYourWritesTracker.bindRequestId(request.getHeader(X_REQUEST_ID_HEADER));
+                try {
+                    filterChain.doFilter(request, response);
+                } finally {
+                    readYourWritesTracker.unbindRequestId();
+                }
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        for (DataSource connectionPool : connectionPools) {
+            if (connectionPool instanceof Closeable) {
+                try {
+                    ((Closeable) connectionPool).close();
+                } catch (IOException e) {
+                    log.warn("Connection pool could not be closed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.config;
+
+import de.adorsys.psd2.consent.config.datasource.ReplicaLagMonitor;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "cms.datasource.replica")
+public class ReplicaDataSourceProperties {
+    private boolean enabled;
+    private long maxLagMs = 1000;
+    private long readYourWritesPeriodMs = 10000;
+    private String lagQuery = ReplicaLagMonitor.POSTGRES_LAG_QUERY;
+    private List<Replica> instances = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.config;
+
+import de.adorsys.psd2.consent.service.retention.RetentionPolicy;
+import de.adorsys.psd2.consent.service.retention.RetentionStatistics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Exposes the statistics of the retention schedule task as actuator metrics
+ */
+@Configuration
+public class RetentionMetricsConfig {
+    @Bean
+    public MeterBinder retentionMetrics(RetentionStatistics retentionStatistics, List<RetentionPolicy> retentionPolicies) {
+        return registry -> {
+            for (RetentionPolicy policy : retentionPolicies) {
+                String policyName = policy.getName();
+                FunctionCounter.builder("cms.retention.purged", retentionStatistics, s -> s.getPurgedRecords(policyName))
+                    .description("Number of records purged by the retention policy")
+                    .tag("policy", policyName)
+                    .register(registry);
+            }
+            FunctionCounter.builder("cms.retention.failed-batches", retentionStatistics, RetentionStatistics::getFailedBatches)
+                .description("Number of retention batches rolled back because of an error")
+                .register(registry);
+        };
+    }
+}
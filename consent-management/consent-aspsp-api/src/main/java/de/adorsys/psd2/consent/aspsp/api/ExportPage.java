@@ -0,0 +1,86 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.aspsp.api;
+
+import lombok.Value;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * One page of an export result, ordered by the internal record identifier.
+ *
+ * @param <T> type of exported objects
+ */
+@Value
+public class ExportPage<T> {
+    @NotNull
+    private List<T> items;
+
+    /**
+     * Opaque cursor, which should be passed to the next export call to get the following page.
+     * Is <code>null</code> if this page is the last one.
+     */
+    @Nullable
+    private String nextCursor;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Returns one page of already loaded export result. The cursor of such pages is the position of the first item on the
+     * next page.
+     *
+     * @param items    all exported objects
+     * @param cursor   cursor of the previous page, <code>null</code> for the first page
+     * @param pageSize maximum number of objects on the page
+     * @param <T>      type of exported objects
+     * @return page of exported objects with the cursor of the next page
+     * @throws InvalidExportParameterException if the cursor is malformed or the page size is not positive
+     */
+    public static <T> ExportPage<T> fromCollection(@NotNull Collection<T> items, @Nullable String cursor, int pageSize) {
+        if (pageSize < 1) {
+            throw new InvalidExportParameterException("Page size must be positive, but was " + pageSize);
+        }
+        int from = parseOffset(cursor);
+        List<T> allItems = new ArrayList<>(items);
+        int to = (int) Math.min((long) from + pageSize, allItems.size());
+        List<T> pageItems = from < allItems.size()
+                                ? new ArrayList<>(allItems.subList(from, to))
+                                : new ArrayList<>();
+        return new ExportPage<>(pageItems, to < allItems.size() ? String.valueOf(to) : null);
+    }
+
+    private static int parseOffset(@Nullable String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0;
+        }
+        try {
+            int offset = Integer.parseInt(cursor);
+            if (offset >= 0) {
+                return offset;
+            }
+        } catch (NumberFormatException e) {
+            throw new InvalidExportParameterException("Malformed export cursor: " + cursor, e);
+        }
+        throw new InvalidExportParameterException("Malformed export cursor: " + cursor);
+    }
+}
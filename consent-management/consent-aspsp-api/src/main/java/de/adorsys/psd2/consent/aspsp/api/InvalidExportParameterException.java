@@ -0,0 +1,30 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.aspsp.api;
+
+/**
+ * Thrown by export services if the paging parameters of an export request, i.e. the cursor or the page size, are invalid.
+ */
+public class InvalidExportParameterException extends IllegalArgumentException {
+    public InvalidExportParameterException(String message) {
+        super(message);
+    }
+
+    public InvalidExportParameterException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
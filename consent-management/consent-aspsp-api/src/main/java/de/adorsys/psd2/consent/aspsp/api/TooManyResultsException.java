@@ -16,5 +16,16 @@
 
 package de.adorsys.psd2.consent.aspsp.api;
 
+/**
+ * Thrown by export services if the number of records matching the given criteria exceeds the configured limit.
+ * The request should either be narrowed down or be performed with pagination or streaming.
+ */
 public class TooManyResultsException extends RuntimeException {
+    public TooManyResultsException() {
+        super();
+    }
+
+    public TooManyResultsException(String message) {
+        super(message);
+    }
 }
@@ -17,6 +17,8 @@
 package de.adorsys.psd2.consent.aspsp.api.piis;
 
 
+import de.adorsys.psd2.consent.aspsp.api.ExportPage;
+import de.adorsys.psd2.consent.aspsp.api.InvalidExportParameterException;
 import de.adorsys.psd2.consent.aspsp.api.TooManyResultsException;
 import de.adorsys.psd2.xs2a.core.piis.PiisConsent;
 import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
@@ -25,6 +27,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.stream.Stream;
 
 
 @NotNull
@@ -85,4 +88,133 @@ public interface CmsAspspPiisFundsExportService {
                                                       @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
                                                       @Nullable String instanceId);
 
+    /**
+     * Returns one page of consents by given criteria, see {@link #exportConsentsByTpp}.
+     * CMS orders pages by the internal record identifier, so that the result stays stable while records are added.
+     * The default implementation pages the result of the list method.
+     *
+     * @param tppAuthorisationNumber Mandatory TPP ID
+     * @param createDateFrom         Optional starting creation date criteria
+     * @param createDateTo           Optional ending creation date criteria
+     * @param psuIdData              Optional Psu information criteria
+     * @param instanceId             Optional id of particular service instance
+     * @param cursor                 Optional cursor from the previous page, <code>null</code> for the first page
+     * @param pageSize               Maximum number of consents on the page
+     * @return Page of consents with the cursor for the next page
+     * @throws TooManyResultsException         If the page size exceeds the limit configured in CMS
+     * @throws InvalidExportParameterException If the cursor is malformed or the page size is not positive
+     */
+    default ExportPage<PiisConsent> exportConsentsByTpp(String tppAuthorisationNumber,
+                                                        @Nullable LocalDate createDateFrom,
+                                                        @Nullable LocalDate createDateTo,
+                                                        @Nullable PsuIdData psuIdData,
+                                                        @Nullable String instanceId,
+                                                        @Nullable String cursor, int pageSize) {
+        return ExportPage.fromCollection(exportConsentsByTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId), cursor, pageSize);
+    }
+
+    /**
+     * Returns all consents by given criteria, see {@link #exportConsentsByTpp}, as a lazily populated stream.
+     * The default implementation streams the result of the list method, CMS reads consents from the database in pages
+     * while the stream is consumed. The stream doesn't hold any resources, so it doesn't need to be closed.
+     *
+     * @param tppAuthorisationNumber Mandatory TPP ID
+     * @param createDateFrom         Optional starting creation date criteria
+     * @param createDateTo           Optional ending creation date criteria
+     * @param psuIdData              Optional Psu information criteria
+     * @param instanceId             Optional id of particular service instance
+     * @return Stream of consents by given criteria
+     * @throws TooManyResultsException If more consents match the criteria than the stream limit configured in CMS allows
+     */
+    default Stream<PiisConsent> streamConsentsByTpp(String tppAuthorisationNumber,
+                                                    @Nullable LocalDate createDateFrom,
+                                                    @Nullable LocalDate createDateTo,
+                                                    @Nullable PsuIdData psuIdData,
+                                                    @Nullable String instanceId) {
+        return exportConsentsByTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId).stream();
+    }
+
+    /**
+     * Returns one page of consents by given criteria, see {@link #exportConsentsByPsu}.
+     * CMS orders pages by the internal record identifier, so that the result stays stable while records are added.
+     * The default implementation pages the result of the list method.
+     *
+     * @param psuIdData      Mandatory Psu information criteria
+     * @param createDateFrom Optional starting creation date criteria
+     * @param createDateTo   Optional ending creation date criteria
+     * @param instanceId     Optional id of particular service instance
+     * @param cursor         Optional cursor from the previous page, <code>null</code> for the first page
+     * @param pageSize       Maximum number of consents on the page
+     * @return Page of consents with the cursor for the next page
+     * @throws TooManyResultsException         If the page size exceeds the limit configured in CMS
+     * @throws InvalidExportParameterException If the cursor is malformed or the page size is not positive
+     */
+    default ExportPage<PiisConsent> exportConsentsByPsu(PsuIdData psuIdData,
+                                                        @Nullable LocalDate createDateFrom,
+                                                        @Nullable LocalDate createDateTo,
+                                                        @Nullable String instanceId,
+                                                        @Nullable String cursor, int pageSize) {
+        return ExportPage.fromCollection(exportConsentsByPsu(psuIdData, createDateFrom, createDateTo, instanceId), cursor, pageSize);
+    }
+
+    /**
+     * Returns all consents by given criteria, see {@link #exportConsentsByPsu}, as a lazily populated stream.
+     * The default implementation streams the result of the list method, CMS reads consents from the database in pages
+     * while the stream is consumed. The stream doesn't hold any resources, so it doesn't need to be closed.
+     *
+     * @param psuIdData      Mandatory Psu information criteria
+     * @param createDateFrom Optional starting creation date criteria
+     * @param createDateTo   Optional ending creation date criteria
+     * @param instanceId     Optional id of particular service instance
+     * @return Stream of consents by given criteria
+     * @throws TooManyResultsException If more consents match the criteria than the stream limit configured in CMS allows
+     */
+    default Stream<PiisConsent> streamConsentsByPsu(PsuIdData psuIdData,
+                                                    @Nullable LocalDate createDateFrom,
+                                                    @Nullable LocalDate createDateTo,
+                                                    @Nullable String instanceId) {
+        return exportConsentsByPsu(psuIdData, createDateFrom, createDateTo, instanceId).stream();
+    }
+
+    /**
+     * Returns one page of consents by given criteria, see {@link #exportConsentsByAccountId}.
+     * CMS orders pages by the internal record identifier, so that the result stays stable while records are added.
+     * The default implementation pages the result of the list method.
+     *
+     * @param aspspAccountId Bank specific account identifier
+     * @param createDateFrom Optional starting creation date criteria
+     * @param createDateTo   Optional ending creation date criteria
+     * @param instanceId     Optional id of particular service instance
+     * @param cursor         Optional cursor from the previous page, <code>null</code> for the first page
+     * @param pageSize       Maximum number of consents on the page
+     * @return Page of consents with the cursor for the next page
+     * @throws TooManyResultsException         If the page size exceeds the limit configured in CMS
+     * @throws InvalidExportParameterException If the cursor is malformed or the page size is not positive
+     */
+    default ExportPage<PiisConsent> exportConsentsByAccountId(@NotNull String aspspAccountId,
+                                                              @Nullable LocalDate createDateFrom,
+                                                              @Nullable LocalDate createDateTo,
+                                                              @Nullable String instanceId,
+                                                              @Nullable String cursor, int pageSize) {
+        return ExportPage.fromCollection(exportConsentsByAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId), cursor, pageSize);
+    }
+
+    /**
+     * Returns all consents by given criteria, see {@link #exportConsentsByAccountId}, as a lazily populated stream.
+     * The default implementation streams the result of the list method, CMS reads consents from the database in pages
+     * while the stream is consumed. The stream doesn't hold any resources, so it doesn't need to be closed.
+     *
+     * @param aspspAccountId Bank specific account identifier
+     * @param createDateFrom Optional starting creation date criteria
+     * @param createDateTo   Optional ending creation date criteria
+     * @param instanceId     Optional id of particular service instance
+     * @return Stream of consents by given criteria
+     * @throws TooManyResultsException If more consents match the criteria than the stream limit configured in CMS allows
+     */
+    default Stream<PiisConsent> streamConsentsByAccountId(@NotNull String aspspAccountId,
+                                                          @Nullable LocalDate createDateFrom,
+                                                          @Nullable LocalDate createDateTo,
+                                                          @Nullable String instanceId) {
+        return exportConsentsByAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId).stream();
+    }
 }
@@ -18,6 +18,8 @@ package de.adorsys.psd2.consent.aspsp.api.pis;
 
 
 import de.adorsys.psd2.consent.api.pis.CmsPayment;
+import de.adorsys.psd2.consent.aspsp.api.ExportPage;
+import de.adorsys.psd2.consent.aspsp.api.InvalidExportParameterException;
 import de.adorsys.psd2.consent.aspsp.api.TooManyResultsException;
 import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
 import org.jetbrains.annotations.NotNull;
@@ -25,6 +27,7 @@ import org.jetbrains.annotations.Nullable;
 
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.stream.Stream;
 
 
 @NotNull
@@ -78,4 +81,133 @@ public interface CmsAspspPisExportService {
                                                      @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
                                                      @NotNull String instanceId);
 
+    /**
+     * Returns one page of payments by given criteria, see {@link #exportPaymentsByTpp}.
+     * CMS orders pages by the internal record identifier, so that the result stays stable while records are added.
+     * The default implementation pages the result of the list method.
+     *
+     * @param tppAuthorisationNumber Mandatory TPP ID
+     * @param createDateFrom         Optional starting creation date criteria
+     * @param createDateTo           Optional ending creation date criteria
+     * @param psuIdData              Optional Psu information criteria
+     * @param instanceId             Mandatory id of particular service instance
+     * @param cursor                 Optional cursor from the previous page, <code>null</code> for the first page
+     * @param pageSize               Maximum number of payments on the page
+     * @return Page of payments with the cursor for the next page
+     * @throws TooManyResultsException         If the page size exceeds the limit configured in CMS
+     * @throws InvalidExportParameterException If the cursor is malformed or the page size is not positive
+     */
+    default ExportPage<CmsPayment> exportPaymentsByTpp(String tppAuthorisationNumber,
+                                                       @Nullable LocalDate createDateFrom,
+                                                       @Nullable LocalDate createDateTo,
+                                                       @Nullable PsuIdData psuIdData,
+                                                       @NotNull String instanceId,
+                                                       @Nullable String cursor, int pageSize) {
+        return ExportPage.fromCollection(exportPaymentsByTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId), cursor, pageSize);
+    }
+
+    /**
+     * Returns all payments by given criteria, see {@link #exportPaymentsByTpp}, as a lazily populated stream.
+     * The default implementation streams the result of the list method, CMS reads payments from the database in pages
+     * while the stream is consumed. The stream doesn't hold any resources, so it doesn't need to be closed.
+     *
+     * @param tppAuthorisationNumber Mandatory TPP ID
+     * @param createDateFrom         Optional starting creation date criteria
+     * @param createDateTo           Optional ending creation date criteria
+     * @param psuIdData              Optional Psu information criteria
+     * @param instanceId             Mandatory id of particular service instance
+     * @return Stream of payments by given criteria
+     * @throws TooManyResultsException If more payments match the criteria than the stream limit configured in CMS allows
+     */
+    default Stream<CmsPayment> streamPaymentsByTpp(String tppAuthorisationNumber,
+                                                   @Nullable LocalDate createDateFrom,
+                                                   @Nullable LocalDate createDateTo,
+                                                   @Nullable PsuIdData psuIdData,
+                                                   @NotNull String instanceId) {
+        return exportPaymentsByTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId).stream();
+    }
+
+    /**
+     * Returns one page of payments by given criteria, see {@link #exportPaymentsByPsu}.
+     * CMS orders pages by the internal record identifier, so that the result stays stable while records are added.
+     * The default implementation pages the result of the list method.
+     *
+     * @param psuIdData      Mandatory Psu information criteria
+     * @param createDateFrom Optional starting creation date criteria
+     * @param createDateTo   Optional ending creation date criteria
+     * @param instanceId     Mandatory id of particular service instance
+     * @param cursor         Optional cursor from the previous page, <code>null</code> for the first page
+     * @param pageSize       Maximum number of payments on the page
+     * @return Page of payments with the cursor for the next page
+     * @throws TooManyResultsException         If the page size exceeds the limit configured in CMS
+     * @throws InvalidExportParameterException If the cursor is malformed or the page size is not positive
+     */
+    default ExportPage<CmsPayment> exportPaymentsByPsu(PsuIdData psuIdData,
+                                                       @Nullable LocalDate createDateFrom,
+                                                       @Nullable LocalDate createDateTo,
+                                                       @NotNull String instanceId,
+                                                       @Nullable String cursor, int pageSize) {
+        return ExportPage.fromCollection(exportPaymentsByPsu(psuIdData, createDateFrom, createDateTo, instanceId), cursor, pageSize);
+    }
+
+    /**
+     * Returns all payments by given criteria, see {@link #exportPaymentsByPsu}, as a lazily populated stream.
+     * The default implementation streams the result of the list method, CMS reads payments from the database in pages
+     * while the stream is consumed. The stream doesn't hold any resources, so it doesn't need to be closed.
+     *
+     * @param psuIdData      Mandatory Psu information criteria
+     * @param createDateFrom Optional starting creation date criteria
+     * @param createDateTo   Optional ending creation date criteria
+     * @param instanceId     Mandatory id of particular service instance
+     * @return Stream of payments by given criteria
+     * @throws TooManyResultsException If more payments match the criteria than the stream limit configured in CMS allows
+     */
+    default Stream<CmsPayment> streamPaymentsByPsu(PsuIdData psuIdData,
+                                                   @Nullable LocalDate createDateFrom,
+                                                   @Nullable LocalDate createDateTo,
+                                                   @NotNull String instanceId) {
+        return exportPaymentsByPsu(psuIdData, createDateFrom, createDateTo, instanceId).stream();
+    }
+
+    /**
+     * Returns one page of payments by given criteria, see {@link #exportPaymentsByAccountId}.
+     * CMS orders pages by the internal record identifier, so that the result stays stable while records are added.
+     * The default implementation pages the result of the list method.
+     *
+     * @param aspspAccountId Bank specific account identifier
+     * @param createDateFrom Optional starting creation date criteria
+     * @param createDateTo   Optional ending creation date criteria
+     * @param instanceId     Mandatory id of particular service instance
+     * @param cursor         Optional cursor from the previous page, <code>null</code> for the first page
+     * @param pageSize       Maximum number of payments on the page
+     * @return Page of payments with the cursor for the next page
+     * @throws TooManyResultsException         If the page size exceeds the limit configured in CMS
+     * @throws InvalidExportParameterException If the cursor is malformed or the page size is not positive
+     */
+    default ExportPage<CmsPayment> exportPaymentsByAccountId(@NotNull String aspspAccountId,
+                                                             @Nullable LocalDate createDateFrom,
+                                                             @Nullable LocalDate createDateTo,
+                                                             @NotNull String instanceId,
+                                                             @Nullable String cursor, int pageSize) {
+        return ExportPage.fromCollection(exportPaymentsByAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId), cursor, pageSize);
+    }
+
+    /**
+     * Returns all payments by given criteria, see {@link #exportPaymentsByAccountId}, as a lazily populated stream.
+     * The default implementation streams the result of the list method, CMS reads payments from the database in pages
+     * while the stream is consumed. The stream doesn't hold any resources, so it doesn't need to be closed.
+     *
+     * @param aspspAccountId Bank specific account identifier
+     * @param createDateFrom Optional starting creation date criteria
+     * @param createDateTo   Optional ending creation date criteria
+     * @param instanceId     Mandatory id of particular service instance
+     * @return Stream of payments by given criteria
+     * @throws TooManyResultsException If more payments match the criteria than the stream limit configured in CMS allows
+     */
+    default Stream<CmsPayment> streamPaymentsByAccountId(@NotNull String aspspAccountId,
+                                                         @Nullable LocalDate createDateFrom,
+                                                         @Nullable LocalDate createDateTo,
+                                                         @NotNull String instanceId) {
+        return exportPaymentsByAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId).stream();
+    }
 }
@@ -16,6 +16,7 @@
 
 package de.adorsys.psd2.consent.web.aspsp.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.adorsys.psd2.consent.api.pis.CmsPayment;
 import de.adorsys.psd2.consent.aspsp.api.pis.CmsAspspPisExportService;
 import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
@@ -23,11 +24,14 @@ import io.swagger.annotations.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.Collection;
+import java.util.stream.Stream;
 
 @RestController
 @RequiredArgsConstructor
@@ -37,12 +41,49 @@ public class CmsAspspPisExportController {
     private static final String DEFAULT_SERVICE_INSTANCE_ID = "UNDEFINED";
 
     private final CmsAspspPisExportService cmsAspspPisExportService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping(path = "/tpp/{tpp-id}")
     @ApiOperation(value = "Returns a list of payments by given mandatory TPP ID, optional creation date, PSU ID Data and instance ID")
     @ApiResponses(value = {
         @ApiResponse(code = 200, message = "OK")})
     public ResponseEntity<Collection<CmsPayment>> getPaymentsByTpp(
+        @ApiParam(value = "TPP ID", required = true, example = "12345987")
+        @PathVariable("tpp-id") String tppId,
+        @ApiParam(value = "Creation start date", example = "2010-01-01")
+        @RequestHeader(value = "start-date", required = false)
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+        @ApiParam(value = "Creation end date", example = "2030-01-01")
+        @RequestHeader(value = "end-date", required = false)
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+        @ApiParam(value = "Client ID of the PSU in the ASPSP client interface. Might be mandated in the ASPSP's" +
+                              " documentation. Is not contained if an OAuth2 based authentication was performed in a pre-step or an OAuth2 based SCA was performed in an preceeding AIS service in the same session. ")
+        @RequestHeader(value = "psu-id", required = false) String psuId,
+        @ApiParam(value = "Type of the PSU-ID, needed in scenarios where PSUs have several PSU-IDs as access possibility. ")
+        @RequestHeader(value = "psu-id-type", required = false) String psuIdType,
+        @ApiParam(value = "Might be mandated in the ASPSP's documentation. Only used in a corporate context. ")
+        @RequestHeader(value = "psu-corporate-id", required = false) String psuCorporateId,
+        @ApiParam(value = "Might be mandated in the ASPSP's documentation. Only used in a corporate context. ")
+        @RequestHeader(value = "psu-corporate-id-type", required = false) String psuCorporateIdType,
+        @ApiParam(value = "ID of the particular service instance")
+        @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId,
+        @ApiParam(value = "Cursor of the requested page, as returned in the 'next-cursor' header of the previous page. Is only used together with 'page-size'")
+        @RequestHeader(value = "cursor", required = false) String cursor,
+        @ApiParam(value = "Maximum number of payments on the page. If provided, only one page is returned and the cursor of the next page is returned in the 'next-cursor' header", example = "100")
+        @RequestHeader(value = "page-size", required = false) Integer pageSize) {
+        PsuIdData psuIdData = new PsuIdData(psuId, psuIdType, psuCorporateId, psuCorporateIdType);
+        if (pageSize == null) {
+            Collection<CmsPayment> payments = cmsAspspPisExportService.exportPaymentsByTpp(tppId, start, end, psuIdData, instanceId);
+            return new ResponseEntity<>(payments, HttpStatus.OK);
+        }
+        return ExportResponses.page(cmsAspspPisExportService.exportPaymentsByTpp(tppId, start, end, psuIdData, instanceId, cursor, pageSize));
+    }
+
+    @GetMapping(path = "/tpp/{tpp-id}/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Streams all payments by given mandatory TPP ID, optional creation date, PSU ID Data and instance ID. Fails with 400 if the number of payments exceeds the configured stream limit, otherwise the result is written as JSON array while it is read from the database")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK")})
+    public ResponseEntity<StreamingResponseBody> streamPaymentsByTpp(
         @ApiParam(value = "TPP ID", required = true, example = "12345987")
         @PathVariable("tpp-id") String tppId,
         @ApiParam(value = "Creation start date", example = "2010-01-01")
@@ -63,8 +104,8 @@ public class CmsAspspPisExportController {
         @ApiParam(value = "ID of the particular service instance")
         @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId) {
         PsuIdData psuIdData = new PsuIdData(psuId, psuIdType, psuCorporateId, psuCorporateIdType);
-        Collection<CmsPayment> payments = cmsAspspPisExportService.exportPaymentsByTpp(tppId, start, end, psuIdData, instanceId);
-        return new ResponseEntity<>(payments, HttpStatus.OK);
+        Stream<CmsPayment> payments = cmsAspspPisExportService.streamPaymentsByTpp(tppId, start, end, psuIdData, instanceId);
+        return new ResponseEntity<>(ExportResponses.jsonArray(payments, objectMapper), HttpStatus.OK);
     }
 
     @GetMapping(path = "/psu")
@@ -72,6 +113,39 @@ public class CmsAspspPisExportController {
     @ApiResponses(value = {
         @ApiResponse(code = 200, message = "OK")})
     public ResponseEntity<Collection<CmsPayment>> getPaymentsByPsu(
+        @ApiParam(value = "Creation start date", example = "2010-01-01")
+        @RequestHeader(value = "start-date", required = false)
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+        @ApiParam(value = "Creation end date", example = "2030-01-01")
+        @RequestHeader(value = "end-date", required = false)
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+        @ApiParam(value = "Client ID of the PSU in the ASPSP client interface. Might be mandated in the ASPSP's documentation. Is not contained if an OAuth2 based authentication was performed in a pre-step or an OAuth2 based SCA was performed in an preceeding AIS service in the same session. ")
+        @RequestHeader(value = "psu-id", required = false) String psuId,
+        @ApiParam(value = "Type of the PSU-ID, needed in scenarios where PSUs have several PSU-IDs as access possibility. ")
+        @RequestHeader(value = "psu-id-type", required = false) String psuIdType,
+        @ApiParam(value = "Might be mandated in the ASPSP's documentation. Only used in a corporate context. ")
+        @RequestHeader(value = "psu-corporate-id", required = false) String psuCorporateId,
+        @ApiParam(value = "Might be mandated in the ASPSP's documentation. Only used in a corporate context. ")
+        @RequestHeader(value = "psu-corporate-id-type", required = false) String psuCorporateIdType,
+        @ApiParam(value = "ID of the particular service instance")
+        @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId,
+        @ApiParam(value = "Cursor of the requested page, as returned in the 'next-cursor' header of the previous page. Is only used together with 'page-size'")
+        @RequestHeader(value = "cursor", required = false) String cursor,
+        @ApiParam(value = "Maximum number of payments on the page. If provided, only one page is returned and the cursor of the next page is returned in the 'next-cursor' header", example = "100")
+        @RequestHeader(value = "page-size", required = false) Integer pageSize) {
+        PsuIdData psuIdData = new PsuIdData(psuId, psuIdType, psuCorporateId, psuCorporateIdType);
+        if (pageSize == null) {
+            Collection<CmsPayment> payments = cmsAspspPisExportService.exportPaymentsByPsu(psuIdData, start, end, instanceId);
+            return new ResponseEntity<>(payments, HttpStatus.OK);
+        }
+        return ExportResponses.page(cmsAspspPisExportService.exportPaymentsByPsu(psuIdData, start, end, instanceId, cursor, pageSize));
+    }
+
+    @GetMapping(path = "/psu/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Streams all payments by given mandatory PSU ID Data, optional creation date and instance ID. Fails with 400 if the number of payments exceeds the configured stream limit, otherwise the result is written as JSON array while it is read from the database")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK")})
+    public ResponseEntity<StreamingResponseBody> streamPaymentsByPsu(
         @ApiParam(value = "Creation start date", example = "2010-01-01")
         @RequestHeader(value = "start-date", required = false)
         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
@@ -89,8 +163,8 @@ public class CmsAspspPisExportController {
         @ApiParam(value = "ID of the particular service instance")
         @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId) {
         PsuIdData psuIdData = new PsuIdData(psuId, psuIdType, psuCorporateId, psuCorporateIdType);
-        Collection<CmsPayment> payments = cmsAspspPisExportService.exportPaymentsByPsu(psuIdData, start, end, instanceId);
-        return new ResponseEntity<>(payments, HttpStatus.OK);
+        Stream<CmsPayment> payments = cmsAspspPisExportService.streamPaymentsByPsu(psuIdData, start, end, instanceId);
+        return new ResponseEntity<>(ExportResponses.jsonArray(payments, objectMapper), HttpStatus.OK);
     }
 
     @GetMapping(path = "/account/{account-id}")
@@ -98,6 +172,32 @@ public class CmsAspspPisExportController {
     @ApiResponses(value = {
         @ApiResponse(code = 200, message = "OK")})
     public ResponseEntity<Collection<CmsPayment>> getPaymentsByAccountId(
+        @ApiParam(value = "Bank specific account identifier.", required = true, example = "11111-99999")
+        @PathVariable("account-id") String aspspAccountId,
+        @ApiParam(value = "Creation start date", example = "2010-01-01")
+        @RequestHeader(value = "start-date", required = false)
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
+        @ApiParam(value = "Creation end date", example = "2030-01-01")
+        @RequestHeader(value = "end-date", required = false)
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
+        @ApiParam(value = "ID of the particular service instance")
+        @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId,
+        @ApiParam(value = "Cursor of the requested page, as returned in the 'next-cursor' header of the previous page. Is only used together with 'page-size'")
+        @RequestHeader(value = "cursor", required = false) String cursor,
+        @ApiParam(value = "Maximum number of payments on the page. If provided, only one page is returned and the cursor of the next page is returned in the 'next-cursor' header", example = "100")
+        @RequestHeader(value = "page-size", required = false) Integer pageSize) {
+        if (pageSize == null) {
+            Collection<CmsPayment> payments = cmsAspspPisExportService.exportPaymentsByAccountId(aspspAccountId, start, end, instanceId);
+            return new ResponseEntity<>(payments, HttpStatus.OK);
+        }
+        return ExportResponses.page(cmsAspspPisExportService.exportPaymentsByAccountId(aspspAccountId, start, end, instanceId, cursor, pageSize));
+    }
+
+    @GetMapping(path = "/account/{account-id}/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ApiOperation(value = "Streams all payments by given mandatory aspsp account id, optional creation date and instance ID. Fails with 400 if the number of payments exceeds the configured stream limit, otherwise the result is written as JSON array while it is read from the database")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK")})
+    public ResponseEntity<StreamingResponseBody> streamPaymentsByAccountId(
         @ApiParam(value = "Bank specific account identifier.", required = true, example = "11111-99999")
         @PathVariable("account-id") String aspspAccountId,
         @ApiParam(value = "Creation start date", example = "2010-01-01")
@@ -108,7 +208,7 @@ public class CmsAspspPisExportController {
         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end,
         @ApiParam(value = "ID of the particular service instance")
         @RequestHeader(value = "instance-id", required = false, defaultValue = DEFAULT_SERVICE_INSTANCE_ID) String instanceId) {
-        Collection<CmsPayment> payments = cmsAspspPisExportService.exportPaymentsByAccountId(aspspAccountId, start, end, instanceId);
-        return new ResponseEntity<>(payments, HttpStatus.OK);
+        Stream<CmsPayment> payments = cmsAspspPisExportService.streamPaymentsByAccountId(aspspAccountId, start, end, instanceId);
+        return new ResponseEntity<>(ExportResponses.jsonArray(payments, objectMapper), HttpStatus.OK);
     }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.web.aspsp.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.psd2.consent.aspsp.api.ExportPage;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Builds responses of the paged and streaming export endpoints
+ */
+final class ExportResponses {
+    static final String NEXT_CURSOR_HEADER = "next-cursor";
+
+    private ExportResponses() {
+    }
+
+    /**
+     * Returns items of the page as response body and the cursor of the next page in the {@value #NEXT_CURSOR_HEADER} header
+     *
+     * @param page export page
+     * @param <T>  type of exported objects
+     * @return response with the page items
+     */
+    static <T> ResponseEntity<Collection<T>> page(ExportPage<T> page) {
+        HttpHeaders headers = new HttpHeaders();
+        if (page.hasNext()) {
+            headers.add(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return new ResponseEntity<>(page.getItems(), headers, HttpStatus.OK);
+    }
+
+    /**
+     * Returns response body, which writes the items of the stream as JSON array one by one while the stream is consumed.
+     * The stream is closed after the response has been written.
+     *
+     * @param items        lazily populated stream of exported objects
+     * @param objectMapper mapper to be used for serialisation of the items
+     * @return streaming response body
+     */
+    static StreamingResponseBody jsonArray(Stream<?> items, ObjectMapper objectMapper) {
+        return outputStream -> {
+            try (Stream<?> stream = items) {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+                generator.writeStartArray();
+                Iterator<?> iterator = stream.iterator();
+                while (iterator.hasNext()) {
+                    generator.writeObject(iterator.next());
+                }
+                generator.writeEndArray();
+                generator.flush();
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.web.aspsp.exception;
+
+import de.adorsys.psd2.consent.aspsp.api.InvalidExportParameterException;
+import de.adorsys.psd2.consent.aspsp.api.TooManyResultsException;
+import de.adorsys.psd2.consent.web.aspsp.controller.CmsAspspAisExportController;
+import de.adorsys.psd2.consent.web.aspsp.controller.CmsAspspPiisExportController;
+import de.adorsys.psd2.consent.web.aspsp.controller.CmsAspspPisExportController;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+
+/**
+ * Reports export requests exceeding the configured limit or containing a malformed cursor as client errors,
+ * instead of the generic internal server error of the global exception handler.
+ */
+@Slf4j
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ControllerAdvice(assignableTypes = {CmsAspspAisExportController.class, CmsAspspPisExportController.class,
+    CmsAspspPiisExportController.class})
+public class CmsAspspExportExceptionHandler {
+    @ExceptionHandler(value = {TooManyResultsException.class, InvalidExportParameterException.class})
+    public ResponseEntity<String> badExportRequest(RuntimeException ex) {
+        log.info("Export request rejected: {}", ex.getMessage());
+        return new ResponseEntity<>(ex.getMessage(), BAD_REQUEST);
+    }
+}
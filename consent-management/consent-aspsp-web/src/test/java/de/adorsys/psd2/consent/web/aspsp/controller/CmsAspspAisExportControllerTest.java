@@ -16,7 +16,10 @@
 
 package de.adorsys.psd2.consent.web.aspsp.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import de.adorsys.psd2.consent.api.ais.AisAccountConsent;
+import de.adorsys.psd2.consent.aspsp.api.ExportPage;
 import de.adorsys.psd2.consent.aspsp.api.ais.CmsAspspAisExportService;
 import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
 import org.junit.Before;
@@ -24,19 +27,29 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -52,8 +65,13 @@ public class CmsAspspAisExportControllerTest {
     private static final OffsetDateTime CREATION_DATE_TIME = OffsetDateTime.now();
     private static final OffsetDateTime STATUS_CHANGE_DATE_TIME = OffsetDateTime.now();
 
+    private static final String NEXT_CURSOR = "MTA";
+    private static final int PAGE_SIZE = 1;
+
     @Mock
     private CmsAspspAisExportService cmsAspspAisExportService;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
     @InjectMocks
     private CmsAspspAisExportController cmsAspspAisExportController;
 
@@ -82,7 +100,7 @@ public class CmsAspspAisExportControllerTest {
         ResponseEntity<Collection<AisAccountConsent>> actual =
             cmsAspspAisExportController.getConsentsByTpp(TPP_AUTHORISATION_NUMBER, CREATION_DATE_FROM,
                                                          CREATION_DATE_TO, PSU_ID, null,
-                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID);
+                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, actual.getStatusCode());
@@ -95,7 +113,7 @@ public class CmsAspspAisExportControllerTest {
         ResponseEntity<Collection<AisAccountConsent>> actual =
             cmsAspspAisExportController.getConsentsByTpp(WRONG_TPP_AUTHORISATION_NUMBER, CREATION_DATE_FROM,
                                                          CREATION_DATE_TO, PSU_ID, null,
-                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID);
+                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, actual.getStatusCode());
@@ -110,7 +128,7 @@ public class CmsAspspAisExportControllerTest {
         // When
         ResponseEntity<Collection<AisAccountConsent>> actual =
             cmsAspspAisExportController.getConsentsByPsu(CREATION_DATE_FROM, CREATION_DATE_TO, PSU_ID, null,
-                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID);
+                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, actual.getStatusCode());
@@ -122,13 +140,79 @@ public class CmsAspspAisExportControllerTest {
         // When
         ResponseEntity<Collection<AisAccountConsent>> actual =
             cmsAspspAisExportController.getConsentsByPsu(CREATION_DATE_FROM, CREATION_DATE_TO, WRONG_PSU_ID, null,
-                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID);
+                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, actual.getStatusCode());
         assertEquals(Collections.emptyList(), actual.getBody());
     }
 
+    @Test
+    public void getConsentsByTpp_withPageSize_shouldReturnPageAndNextCursor() {
+        // Given
+        PsuIdData psuIdData = buildPsuIdData(PSU_ID);
+        when(cmsAspspAisExportService.exportConsentsByTpp(TPP_AUTHORISATION_NUMBER, CREATION_DATE_FROM, CREATION_DATE_TO,
+                                                          psuIdData, DEFAULT_SERVICE_INSTANCE_ID, null, PAGE_SIZE))
+            .thenReturn(new ExportPage<>(Collections.singletonList(buildAisAccountConsent()), NEXT_CURSOR));
+
+        // When
+        ResponseEntity<Collection<AisAccountConsent>> actual =
+            cmsAspspAisExportController.getConsentsByTpp(TPP_AUTHORISATION_NUMBER, CREATION_DATE_FROM,
+                                                         CREATION_DATE_TO, PSU_ID, null,
+                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID, null, PAGE_SIZE);
+
+        // Then
+        assertEquals(HttpStatus.OK, actual.getStatusCode());
+        assertEquals(Collections.singletonList(buildAisAccountConsent()), actual.getBody());
+        assertEquals(NEXT_CURSOR, actual.getHeaders().getFirst("next-cursor"));
+        verify(cmsAspspAisExportService, never()).exportConsentsByTpp(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    public void getConsentsByPsu_withPageSize_lastPage_shouldReturnNoNextCursor() {
+        // Given
+        PsuIdData psuIdData = buildPsuIdData(PSU_ID);
+        when(cmsAspspAisExportService.exportConsentsByPsu(psuIdData, CREATION_DATE_FROM, CREATION_DATE_TO,
+                                                          DEFAULT_SERVICE_INSTANCE_ID, NEXT_CURSOR, PAGE_SIZE))
+            .thenReturn(new ExportPage<>(Collections.singletonList(buildAisAccountConsent()), null));
+
+        // When
+        ResponseEntity<Collection<AisAccountConsent>> actual =
+            cmsAspspAisExportController.getConsentsByPsu(CREATION_DATE_FROM, CREATION_DATE_TO, PSU_ID, null,
+                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID, NEXT_CURSOR, PAGE_SIZE);
+
+        // Then
+        assertEquals(HttpStatus.OK, actual.getStatusCode());
+        assertEquals(Collections.singletonList(buildAisAccountConsent()), actual.getBody());
+        assertFalse(actual.getHeaders().containsKey("next-cursor"));
+    }
+
+    @Test
+    public void streamConsentsByTpp_shouldWriteJsonArrayAndCloseStream() throws IOException {
+        // Given
+        PsuIdData psuIdData = buildPsuIdData(PSU_ID);
+        AtomicBoolean closed = new AtomicBoolean();
+        when(cmsAspspAisExportService.streamConsentsByTpp(TPP_AUTHORISATION_NUMBER, CREATION_DATE_FROM, CREATION_DATE_TO,
+                                                          psuIdData, DEFAULT_SERVICE_INSTANCE_ID))
+            .thenReturn(Stream.of(buildAisAccountConsent(), buildAisAccountConsent()).onClose(() -> closed.set(true)));
+
+        // When
+        ResponseEntity<StreamingResponseBody> actual =
+            cmsAspspAisExportController.streamConsentsByTpp(TPP_AUTHORISATION_NUMBER, CREATION_DATE_FROM,
+                                                            CREATION_DATE_TO, PSU_ID, null,
+                                                            null, null, DEFAULT_SERVICE_INSTANCE_ID);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        actual.getBody().writeTo(outputStream);
+
+        // Then
+        assertEquals(HttpStatus.OK, actual.getStatusCode());
+        JsonNode body = objectMapper.readTree(outputStream.toByteArray());
+        assertTrue(body.isArray());
+        assertEquals(2, body.size());
+        assertEquals(EXTERNAL_CONSENT_ID, body.get(0).get("id").asText());
+        assertTrue(closed.get());
+    }
+
     private PsuIdData buildPsuIdData(String id) {
         return new PsuIdData(id, null, null, null);
     }
@@ -138,6 +222,6 @@ public class CmsAspspAisExportControllerTest {
                                      null, false,
                                      null, 0,
                                      null, null,
-                                     false, false, null, null, null, false, Collections.emptyList(), 0, new HashMap<>(), CREATION_DATE_TIME, STATUS_CHANGE_DATE_TIME);
+                                     false, false, null, null, null, false, Collections.emptyList(), 0, new HashMap<>(), CREATION_DATE_TIME, STATUS_CHANGE_DATE_TIME, 0L);
     }
 }
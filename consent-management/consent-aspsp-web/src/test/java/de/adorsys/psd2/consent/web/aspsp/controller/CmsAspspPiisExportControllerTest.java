@@ -89,7 +89,7 @@ public class CmsAspspPiisExportControllerTest {
         ResponseEntity<Collection<PiisConsent>> actual =
             cmsAspspPiisExportController.getConsentsByTpp(TPP_AUTHORISATION_NUMBER, CREATION_DATE_FROM,
                                                           CREATION_DATE_TO, PSU_ID, null,
-                                                          null, null, DEFAULT_SERVICE_INSTANCE_ID);
+                                                          null, null, DEFAULT_SERVICE_INSTANCE_ID, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, actual.getStatusCode());
@@ -102,7 +102,7 @@ public class CmsAspspPiisExportControllerTest {
         ResponseEntity<Collection<PiisConsent>> actual =
             cmsAspspPiisExportController.getConsentsByTpp(WRONG_TPP_AUTHORISATION_NUMBER, CREATION_DATE_FROM,
                                                           CREATION_DATE_TO, PSU_ID, null,
-                                                          null, null, DEFAULT_SERVICE_INSTANCE_ID);
+                                                          null, null, DEFAULT_SERVICE_INSTANCE_ID, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, actual.getStatusCode());
@@ -117,7 +117,7 @@ public class CmsAspspPiisExportControllerTest {
         // When
         ResponseEntity<Collection<PiisConsent>> actual =
             cmsAspspPiisExportController.getConsentsByPsu(CREATION_DATE_FROM, CREATION_DATE_TO, PSU_ID, null,
-                                                          null, null, DEFAULT_SERVICE_INSTANCE_ID);
+                                                          null, null, DEFAULT_SERVICE_INSTANCE_ID, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, actual.getStatusCode());
@@ -129,7 +129,7 @@ public class CmsAspspPiisExportControllerTest {
         // When
         ResponseEntity<Collection<PiisConsent>> actual =
             cmsAspspPiisExportController.getConsentsByPsu(CREATION_DATE_FROM, CREATION_DATE_TO, WRONG_PSU_ID, null,
-                                                          null, null, DEFAULT_SERVICE_INSTANCE_ID);
+                                                          null, null, DEFAULT_SERVICE_INSTANCE_ID, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, actual.getStatusCode());
@@ -144,7 +144,7 @@ public class CmsAspspPiisExportControllerTest {
         // When
         ResponseEntity<Collection<PiisConsent>> actual =
             cmsAspspPiisExportController.getConsentsByAccountId(ASPSP_ACCOUNT_ID, CREATION_DATE_FROM, CREATION_DATE_TO,
-                                                                DEFAULT_SERVICE_INSTANCE_ID);
+                                                                DEFAULT_SERVICE_INSTANCE_ID, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, actual.getStatusCode());
@@ -156,7 +156,7 @@ public class CmsAspspPiisExportControllerTest {
         // When
         ResponseEntity<Collection<PiisConsent>> actual =
             cmsAspspPiisExportController.getConsentsByAccountId(WRONG_ASPSP_ACCOUNT_ID, CREATION_DATE_FROM, CREATION_DATE_TO,
-                                                                DEFAULT_SERVICE_INSTANCE_ID);
+                                                                DEFAULT_SERVICE_INSTANCE_ID, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, actual.getStatusCode());
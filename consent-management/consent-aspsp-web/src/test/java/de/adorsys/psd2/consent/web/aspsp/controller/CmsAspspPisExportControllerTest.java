@@ -88,7 +88,7 @@ public class CmsAspspPisExportControllerTest {
         ResponseEntity<Collection<CmsPayment>> actual =
             cmsAspspPisExportController.getPaymentsByTpp(TPP_AUTHORISATION_NUMBER, CREATION_DATE_FROM,
                                                          CREATION_DATE_TO, PSU_ID, null,
-                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID);
+                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, actual.getStatusCode());
@@ -101,7 +101,7 @@ public class CmsAspspPisExportControllerTest {
         ResponseEntity<Collection<CmsPayment>> actual =
             cmsAspspPisExportController.getPaymentsByTpp(WRONG_TPP_AUTHORISATION_NUMBER, CREATION_DATE_FROM,
                                                          CREATION_DATE_TO, PSU_ID, null,
-                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID);
+                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, actual.getStatusCode());
@@ -116,7 +116,7 @@ public class CmsAspspPisExportControllerTest {
         // When
         ResponseEntity<Collection<CmsPayment>> actual =
             cmsAspspPisExportController.getPaymentsByPsu(CREATION_DATE_FROM, CREATION_DATE_TO, PSU_ID, null,
-                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID);
+                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, actual.getStatusCode());
@@ -128,7 +128,7 @@ public class CmsAspspPisExportControllerTest {
         // When
         ResponseEntity<Collection<CmsPayment>> actual =
             cmsAspspPisExportController.getPaymentsByPsu(CREATION_DATE_FROM, CREATION_DATE_TO, WRONG_PSU_ID, null,
-                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID);
+                                                         null, null, DEFAULT_SERVICE_INSTANCE_ID, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, actual.getStatusCode());
@@ -143,7 +143,7 @@ public class CmsAspspPisExportControllerTest {
         // When
         ResponseEntity<Collection<CmsPayment>> actual =
             cmsAspspPisExportController.getPaymentsByAccountId(ASPSP_ACCOUNT_ID, CREATION_DATE_FROM, CREATION_DATE_TO,
-                                                               DEFAULT_SERVICE_INSTANCE_ID);
+                                                               DEFAULT_SERVICE_INSTANCE_ID, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, actual.getStatusCode());
@@ -155,7 +155,7 @@ public class CmsAspspPisExportControllerTest {
         // When
         ResponseEntity<Collection<CmsPayment>> actual =
             cmsAspspPisExportController.getPaymentsByAccountId(WRONG_ASPSP_ACCOUNT_ID, CREATION_DATE_FROM, CREATION_DATE_TO,
-                                                               DEFAULT_SERVICE_INSTANCE_ID);
+                                                               DEFAULT_SERVICE_INSTANCE_ID, null, null);
 
         // Then
         assertEquals(HttpStatus.OK, actual.getStatusCode());
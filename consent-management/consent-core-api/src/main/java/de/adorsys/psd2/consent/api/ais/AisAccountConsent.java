@@ -54,4 +54,5 @@ public class AisAccountConsent {
     private Map<String, Integer> usageCounterMap;
     private OffsetDateTime creationTimestamp;
     private OffsetDateTime statusChangeTimestamp;
+    private long version;
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.config.datasource;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which requests have recently written to the primary database, identified by their X-Request-ID.
+ * <p>
+ * Reads of such requests are routed to the primary database for {@code cms.datasource.replica.read-your-writes-period-ms}
+ * after the last write, so the data written by the request is visible to it even if replicas haven't caught up yet.
+ * Threads without bound request ID are never pinned to the primary database.
+ */
+public class ReadYourWritesTracker {
+    private static final int PURGE_THRESHOLD = 10_000;
+
+    private final ThreadLocal<String> currentRequestId = new ThreadLocal<>();
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private final long periodMs;
+
+    public ReadYourWritesTracker(long periodMs) {
+        this.periodMs = periodMs;
+    }
+
+    /**
+     * Binds the request ID to the current thread until {@link #unbindRequestId()} is called
+     *
+     * @param requestId value of X-Request-ID header, <code>null</code> if the request has none
+     */
+    public void bindRequestId(@Nullable String requestId) {
+        if (requestId == null) {
+            currentRequestId.remove();
+        } else {
+            currentRequestId.set(requestId);
+        }
+    }
+
+    public void unbindRequestId() {
+        currentRequestId.remove();
+    }
+
+    void recordWrite() {
+        String requestId = currentRequestId.get();
+        if (requestId == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (lastWrites.size() >= PURGE_THRESHOLD) {
+            lastWrites.values().removeIf(writeTime -> isExpired(writeTime, now));
+        }
+        lastWrites.put(requestId, now);
+    }
+
+    boolean isReadYourWritesRequired() {
+        String requestId = currentRequestId.get();
+        if (requestId == null) {
+            return false;
+        }
+
+        Long writeTime = lastWrites.get(requestId);
+        return writeTime != null && !isExpired(writeTime, System.currentTimeMillis());
+    }
+
+    private boolean isExpired(long writeTime, long now) {
+        return now - writeTime >= periodMs;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.config.datasource;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+
+/**
+ * Read replica of the CMS database together with its last known state.
+ * <p>
+ * A replica is not used for reading until the {@link ReplicaLagMonitor} has confirmed that it's reachable and its
+ * replication lag is within the allowed limit.
+ */
+@Slf4j
+public class ReplicaDataSource {
+    @Getter
+    private final String name;
+    @Getter
+    private final DataSource dataSource;
+    private volatile boolean available;
+    private volatile long lagMs = -1;
+
+    public ReplicaDataSource(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Returns replication lag measured by the last check
+     *
+     * @return lag in milliseconds or -1 if the replica could not be checked yet
+     */
+    public long getLagMs() {
+        return lagMs;
+    }
+
+    void updateLag(long lagMs, long maxLagMs) {
+        this.lagMs = lagMs;
+        boolean lagAcceptable = lagMs <= maxLagMs;
+        if (available != lagAcceptable) {
+            log.info("Replica [{}] is {} for reading, replication lag is {} ms", name, lagAcceptable ? "used" : "not used", lagMs);
+        }
+        available = lagAcceptable;
+    }
+
+    void markUnavailable(Exception cause) {
+        if (available) {
+            log.warn("Replica [{}] is not used for reading until the next lag check: {}", name, cause.getMessage());
+        }
+        lagMs = -1;
+        available = false;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.config.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Periodically measures the replication lag of every replica and enables the replica for reading only while the lag is
+ * not greater than {@code cms.datasource.replica.max-lag-ms}.
+ * <p>
+ * The lag is read with a configurable query that has to return the lag in milliseconds as a single number.
+ * A replica that can't be queried is treated as unavailable, so reads fall back to the primary database.
+ */
+@RequiredArgsConstructor
+public class ReplicaLagMonitor {
+    /**
+     * Lag query for PostgreSQL 10 and newer: replica that has replayed everything it received is up to date, even if
+     * there were no new transactions on the primary for a while.
+     */
+    public static final String POSTGRES_LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+                                                        "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 END";
+
+    private final List<ReplicaDataSource> replicas;
+    private final String lagQuery;
+    private final long maxLagMs;
+
+    @Scheduled(fixedDelayString = "${cms.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkReplicas() {
+        replicas.forEach(this::checkReplica);
+    }
+
+    private void checkReplica(ReplicaDataSource replica) {
+        try (Connection connection = replica.getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                throw new SQLException("Lag query returned no result");
+            }
+            replica.updateLag(Math.round(resultSet.getDouble(1)), maxLagMs);
+        } catch (SQLException e) {
+            replica.markUnavailable(e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.config.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Data source that serves connections of read-only transactions ({@code @Transactional(readOnly = true)}) from
+ * available read replicas in round-robin order and all other connections from the primary database.
+ * <p>
+ * The primary database is used for read-only transactions as well, if no replica is available, if the replica fails
+ * to provide a connection or if the current request has recently written data (see {@link ReadYourWritesTracker}).
+ * A write is recorded only when a data changing statement is executed on the primary database, see
+ * {@link WriteRecordingConnection}.
+ * <p>
+ * Transaction managers acquire the connection before the read-only flag of the transaction is exposed, so this data
+ * source has to be wrapped into {@link LazyConnectionDataSourceProxy}, see {@link #wrap(DataSource, List, ReadYourWritesTracker)}.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+    private final DataSource primary;
+    private final List<ReplicaDataSource> replicas;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<ReplicaDataSource> replicas, ReadYourWritesTracker readYourWritesTracker) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    /**
+     * Creates routing data source that acquires the actual connection only when the first statement is executed
+     *
+     * @param primary               primary database, used for all writes
+     * @param replicas              read replicas of the primary database
+     * @param readYourWritesTracker tracker of requests that have written to the primary database
+     * @return data source to be used by the transaction manager
+     */
+    public static DataSource wrap(DataSource primary, List<ReplicaDataSource> replicas, ReadYourWritesTracker readYourWritesTracker) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replicas, readYourWritesTracker));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection getConnection(ConnectionProvider connectionProvider) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return WriteRecordingConnection.wrap(connectionProvider.getConnection(primary), readYourWritesTracker);
+        }
+
+        if (!readYourWritesTracker.isReadYourWritesRequired()) {
+            int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(replicas.size(), 1));
+            for (int i = 0; i < replicas.size(); i++) {
+                ReplicaDataSource replica = replicas.get((start + i) % replicas.size());
+                if (replica.isAvailable()) {
+                    try {
+                        return connectionProvider.getConnection(replica.getDataSource());
+                    } catch (SQLException e) {
+                        replica.markUnavailable(e);
+                    }
+                }
+            }
+        }
+
+        return connectionProvider.getConnection(primary);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionProvider {
+        Connection getConnection(DataSource dataSource) throws SQLException;
+    }
+}
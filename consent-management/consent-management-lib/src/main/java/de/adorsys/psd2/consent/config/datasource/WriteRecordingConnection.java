@@ -0,0 +1,96 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.config.datasource;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Locale;
+
+/**
+ * Wraps connections of the primary database, so that a write is recorded by the {@link ReadYourWritesTracker} only if
+ * a statement, that changes data, is actually executed (e.g. when the persistence context is flushed).
+ * Transactions, that are not marked as read-only but only read data, don't pin their request to the primary database.
+ */
+final class WriteRecordingConnection {
+    private WriteRecordingConnection() {
+    }
+
+    /**
+     * Wraps the connection, so that the given tracker records a write whenever a data changing statement is executed
+     *
+     * @param connection            connection of the primary database
+     * @param readYourWritesTracker tracker of requests that have written to the primary database
+     * @return wrapped connection
+     */
+    static Connection wrap(Connection connection, ReadYourWritesTracker readYourWritesTracker) {
+        return (Connection) Proxy.newProxyInstance(WriteRecordingConnection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                                                   (proxy, method, args) -> {
+                                                       Object result = invoke(connection, method, args);
+                                                       if (result instanceof CallableStatement) {
+                                                           return wrapStatement((Statement) result, CallableStatement.class, (String) args[0], readYourWritesTracker);
+                                                       }
+                                                       if (result instanceof PreparedStatement) {
+                                                           return wrapStatement((Statement) result, PreparedStatement.class, (String) args[0], readYourWritesTracker);
+                                                       }
+                                                       if (result instanceof Statement) {
+                                                           return wrapStatement((Statement) result, Statement.class, null, readYourWritesTracker);
+                                                       }
+                                                       return result;
+                                                   });
+    }
+
+    private static Statement wrapStatement(Statement statement, Class<? extends Statement> statementType, @Nullable String preparedSql,
+                                           ReadYourWritesTracker readYourWritesTracker) {
+        return (Statement) Proxy.newProxyInstance(WriteRecordingConnection.class.getClassLoader(), new Class<?>[]{statementType},
+                                                  (proxy, method, args) -> {
+                                                      Object result = invoke(statement, method, args);
+                                                      if (isWrite(method, args, preparedSql)) {
+                                                          readYourWritesTracker.recordWrite();
+                                                      }
+                                                      return result;
+                                                  });
+    }
+
+    private static boolean isWrite(Method method, Object[] args, @Nullable String preparedSql) {
+        String methodName = method.getName();
+        if (methodName.equals("executeUpdate") || methodName.equals("executeLargeUpdate") || methodName.equals("executeBatch")) {
+            return true;
+        }
+        if (!methodName.equals("execute")) {
+            return false;
+        }
+        String sql = args != null && args.length > 0 && args[0] instanceof String
+                         ? (String) args[0]
+                         : preparedSql;
+        return sql == null || !sql.trim().toLowerCase(Locale.ROOT).startsWith("select");
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -19,12 +19,14 @@ package de.adorsys.psd2.consent.domain;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.util.Currency;
 
 @Data
 @Entity(name = "account_reference")
+@BatchSize(size = 100)
 @ApiModel(description = "Account reference", value = "Account reference")
 public class AccountReferenceEntity {
     @Id
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.domain;
+
+import de.adorsys.psd2.xs2a.core.sca.ScaStatus;
+import lombok.Value;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Redirect of the PSU to the authorisation of a consent or a payment, resolved by the redirect ID with one indexed query.
+ * <p>
+ * Contains only the data needed to check the redirect, so that expired and finalised redirects are rejected without
+ * loading the authorisation and its consent or payment.
+ */
+@Value
+public class AuthorisationRedirect {
+    private final Long authorisationId;
+    private final ScaStatus scaStatus;
+    private final OffsetDateTime expirationTimestamp;
+    private final String tppNokRedirectUri;
+
+    public boolean isExpired() {
+        return expirationTimestamp.isBefore(OffsetDateTime.now());
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.psd2.consent.domain;
+
+/**
+ * Names of Hibernate second-level cache regions of CMS entities.
+ * The same names are used as cache aliases in cms-ehcache.xml and as keys of version stamps in the cache_version table.
+ */
+public final class CacheRegion {
+    public static final String TPP_STOP_LIST = "tpp_stop_list";
+    public static final String CRYPTO_ALGORITHM = "crypto_algorithm";
+
+    private CacheRegion() {
+    }
+}
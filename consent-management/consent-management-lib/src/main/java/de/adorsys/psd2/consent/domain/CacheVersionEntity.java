@@ -0,0 +1,39 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.psd2.consent.domain;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * Version stamp of a second-level cache region, shared by all CMS instances through the database.
+ * Each change of the cached data increments the version, so that other instances evict their copy of the region.
+ */
+@Data
+@NoArgsConstructor
+@Entity(name = "cache_version")
+public class CacheVersionEntity {
+    @Id
+    @Column(name = "region", nullable = false)
+    private String region;
+
+    @Column(name = "version", nullable = false)
+    private long version;
+}
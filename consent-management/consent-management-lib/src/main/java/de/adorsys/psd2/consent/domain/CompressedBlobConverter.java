@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.domain;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Transparently compresses binary payloads before they are stored in the database.
+ * <p>
+ * Compressed values start with a format header followed by gzip data. Values are stored compressed only if that
+ * makes them smaller, otherwise they are stored as they are. Values without the header (e.g. rows written before
+ * compression was introduced) are read unchanged, so existing JSON payloads, that never start with a zero byte,
+ * stay readable.
+ */
+@Converter
+public class CompressedBlobConverter implements AttributeConverter<byte[], byte[]> {
+    private static final byte[] HEADER = {0x00, 'C', 'Z', 0x01};
+    private static final int BUFFER_SIZE = 4096;
+
+    @Override
+    public byte[] convertToDatabaseColumn(byte[] attribute) {
+        if (attribute == null || attribute.length == 0) {
+            return attribute;
+        }
+
+        byte[] compressed = compress(attribute);
+        return compressed.length < attribute.length
+                   ? compressed
+                   : attribute;
+    }
+
+    @Override
+    public byte[] convertToEntityAttribute(byte[] dbData) {
+        if (!isCompressed(dbData)) {
+            return dbData;
+        }
+
+        return decompress(dbData);
+    }
+
+    static boolean isCompressed(byte[] data) {
+        return data != null
+                   && data.length >= HEADER.length
+                   && Arrays.equals(HEADER, Arrays.copyOf(data, HEADER.length));
+    }
+
+    private byte[] compress(byte[] data) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length / 4 + HEADER.length);
+        outputStream.write(HEADER, 0, HEADER.length);
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, BUFFER_SIZE)) {
+            gzipStream.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error on compressing payload", e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private byte[] decompress(byte[] data) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length * 4);
+        try (InputStream gzipStream = new GZIPInputStream(new ByteArrayInputStream(data, HEADER.length, data.length - HEADER.length), BUFFER_SIZE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = gzipStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error on decompressing payload", e);
+        }
+        return outputStream.toByteArray();
+    }
+}
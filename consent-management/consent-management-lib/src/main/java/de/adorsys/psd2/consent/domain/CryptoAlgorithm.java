@@ -18,12 +18,16 @@ package de.adorsys.psd2.consent.domain;
 
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
 @Data
 @Entity(name = "crypto_algorithm")
 @NoArgsConstructor
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegion.CRYPTO_ALGORITHM)
 public class CryptoAlgorithm {
     @Id
     @Column(name = "algorithm_id")
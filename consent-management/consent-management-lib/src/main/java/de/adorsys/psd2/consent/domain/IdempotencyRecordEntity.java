@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.domain;
+
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+@Entity(name = "idempotency_record")
+public class IdempotencyRecordEntity extends InstanceDependableEntity {
+
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "idempotency_record_generator")
+    @SequenceGenerator(name = "idempotency_record_generator", sequenceName = "idempotency_record_id_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "tpp_authorisation_number", nullable = false, updatable = false)
+    private String tppAuthorisationNumber;
+
+    @Column(name = "x_request_id", nullable = false, updatable = false)
+    private String xRequestId;
+
+    @Column(name = "body_digest", nullable = false, updatable = false)
+    private String bodyDigest;
+
+    @Column(name = "status", nullable = false)
+    @Enumerated(value = EnumType.STRING)
+    private IdempotencyStatus status;
+
+    /**
+     * Time, after which the reservation of a request, that is still in progress, is considered to be abandoned
+     */
+    @Column(name = "lock_expiration_timestamp", nullable = false)
+    private OffsetDateTime lockExpirationTimestamp;
+
+    @Column(name = "expiration_timestamp", nullable = false)
+    private OffsetDateTime expirationTimestamp;
+
+    @Lob
+    @Column(name = "response")
+    private byte[] response;
+
+    @Version
+    @Column(name = "version")
+    private long version;
+
+    public boolean isLockExpired(OffsetDateTime now) {
+        return status == IdempotencyStatus.IN_PROGRESS
+                   && lockExpirationTimestamp.isBefore(now);
+    }
+
+    public boolean isExpired(OffsetDateTime now) {
+        return expirationTimestamp.isBefore(now);
+    }
+}
@@ -19,6 +19,7 @@ package de.adorsys.psd2.consent.domain;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.annotations.BatchSize;
 import org.jetbrains.annotations.NotNull;
 
 import javax.persistence.*;
@@ -26,6 +27,7 @@ import javax.persistence.*;
 @Data
 @NoArgsConstructor
 @Entity(name = "psu_data")
+@BatchSize(size = 100)
 public class PsuData extends InstanceDependableEntity {
     @Id
     @Column(name = "id")
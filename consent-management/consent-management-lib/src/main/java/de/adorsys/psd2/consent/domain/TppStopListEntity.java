@@ -18,6 +18,8 @@ package de.adorsys.psd2.consent.domain;
 
 import de.adorsys.psd2.xs2a.core.tpp.TppStatus;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.jetbrains.annotations.Nullable;
 
 import javax.persistence.*;
@@ -29,6 +31,8 @@ import java.util.Optional;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity(name = "tpp_stop_list")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegion.TPP_STOP_LIST)
 public class TppStopListEntity extends InstanceDependableEntity {
 
     @Id
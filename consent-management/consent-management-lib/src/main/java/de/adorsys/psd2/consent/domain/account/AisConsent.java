@@ -25,9 +25,12 @@ import de.adorsys.psd2.xs2a.core.consent.AisConsentRequestType;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import lombok.ToString;
 import org.apache.commons.collections4.CollectionUtils;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.time.LocalDate;
@@ -43,8 +46,28 @@ import java.util.Set;
 @Data
 @ToString(exclude = {"accesses", "authorizations", "usages"})
 @Entity(name = "ais_consent")
+@NamedEntityGraph(name = AisConsent.STATUS_GRAPH,
+    attributeNodes = @NamedAttributeNode("tppInfo"))
+@NamedEntityGraph(name = AisConsent.FULL_GRAPH,
+    attributeNodes = {@NamedAttributeNode("tppInfo"), @NamedAttributeNode("psuDataList")})
+@NamedEntityGraph(name = AisConsent.AUTHORISATION_GRAPH,
+    attributeNodes = {@NamedAttributeNode("tppInfo"), @NamedAttributeNode(value = "authorizations", subgraph = "authorisation")},
+    subgraphs = @NamedSubgraph(name = "authorisation", attributeNodes = @NamedAttributeNode("psuData")))
 @ApiModel(description = "Ais consent entity", value = "AisConsent")
 public class AisConsent extends InstanceDependableEntity {
+    /**
+     * Fetch plan for reading and updating the status of the consent: only TPP info is loaded together with the consent
+     */
+    public static final String STATUS_GRAPH = "AisConsent.status";
+    /**
+     * Fetch plan for mapping the whole consent: TPP info and PSU data are loaded together with the consent
+     */
+    public static final String FULL_GRAPH = "AisConsent.full";
+    /**
+     * Fetch plan for the authorisation flow: TPP info and authorisations with their PSU data are loaded together with the consent
+     */
+    public static final String AUTHORISATION_GRAPH = "AisConsent.authorisation";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ais_consent_generator")
     @SequenceGenerator(name = "ais_consent_generator", sequenceName = "ais_consent_id_seq", allocationSize = 1)
@@ -78,6 +101,7 @@ public class AisConsent extends InstanceDependableEntity {
     @ApiModelProperty(value = "Expiration date for the requested consent. The content is the local ASPSP date in ISODate Format", required = true, example = "2018-05-04")
     private LocalDate expireDate;
 
+    @BatchSize(size = 100)
     @OneToMany(cascade = CascadeType.ALL)
     @JoinTable(name = "ais_consent_psu_data",
         joinColumns = @JoinColumn(name = "ais_consent_id"),
@@ -110,16 +134,19 @@ public class AisConsent extends InstanceDependableEntity {
     @OneToMany(mappedBy = "consent", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<AisConsentUsage> usages = new ArrayList<>();
 
+    @BatchSize(size = 100)
     @ElementCollection
     @CollectionTable(name = "ais_account_access", joinColumns = @JoinColumn(name = "consent_id"))
     @ApiModelProperty(value = "Set of accesses given by psu for this account", required = true)
     private List<TppAccountAccess> accesses = new ArrayList<>();
 
+    @BatchSize(size = 100)
     @ElementCollection
     @CollectionTable(name = "ais_aspsp_account_access", joinColumns = @JoinColumn(name = "consent_id"))
     @ApiModelProperty(value = "Set of aspsp account accesses given by aspsp for this account", required = true)
     private List<AspspAccountAccess> aspspAccountAccesses = new ArrayList<>();
 
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "consent", cascade = CascadeType.PERSIST, orphanRemoval = true)
     @ApiModelProperty(value = "List of authorizations related to the consent", required = true)
     private List<AisConsentAuthorization> authorizations = new ArrayList<>();
@@ -149,6 +176,14 @@ public class AisConsent extends InstanceDependableEntity {
     @Column(name = "status_change_timestamp")
     private OffsetDateTime statusChangeTimestamp;
 
+    /**
+     * Version of the consent, increased on every change of the consent. Used for conditional requests of TPP, therefore
+     * it's not a JPA version and doesn't cause optimistic locking failures on concurrent updates.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @Transient
     private ConsentStatus previousConsentStatus;
 
@@ -159,6 +194,7 @@ public class AisConsent extends InstanceDependableEntity {
 
     @PreUpdate
     public void aisConsentPreUpdate() {
+        version++;
         if (previousConsentStatus != consentStatus) {
             statusChangeTimestamp = OffsetDateTime.now();
         }
@@ -198,10 +234,12 @@ public class AisConsent extends InstanceDependableEntity {
 
     public void addAccountAccess(Set<TppAccountAccess> accountAccesses) {
         accesses = new ArrayList<>(accountAccesses);
+        version++;
     }
 
     public void addAspspAccountAccess(Set<AspspAccountAccess> aspspAccesses) {
         aspspAccountAccesses = new ArrayList<>(aspspAccesses);
+        version++;
     }
 
     public boolean isOneAccessType() {
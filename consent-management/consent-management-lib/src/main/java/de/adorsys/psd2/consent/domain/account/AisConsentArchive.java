@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.domain.account;
+
+import de.adorsys.psd2.consent.domain.InstanceDependableEntity;
+import de.adorsys.psd2.consent.domain.PsuDataEmbeddable;
+import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import lombok.Data;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Archived AIS consent in finalised status.
+ * <p>
+ * The consent is kept as serialised payload, only the attributes used for lookups and exports are stored in columns.
+ * The identifier is taken over from the archived consent.
+ */
+@Data
+@ToString(exclude = "payload")
+@Entity(name = "ais_consent_archive")
+public class AisConsentArchive extends InstanceDependableEntity {
+    @Id
+    private Long id;
+
+    @Column(name = "external_id", nullable = false, updatable = false)
+    private String externalId;
+
+    @Column(name = "consent_status", nullable = false, updatable = false)
+    @Enumerated(value = EnumType.STRING)
+    private ConsentStatus consentStatus;
+
+    @Column(name = "tpp_authorisation_number", updatable = false)
+    private String tppAuthorisationNumber;
+
+    @ElementCollection
+    @CollectionTable(name = "ais_consent_archive_psu_data", joinColumns = @JoinColumn(name = "ais_consent_archive_id"))
+    private List<PsuDataEmbeddable> psuDataList = new ArrayList<>();
+
+    @ElementCollection
+    @CollectionTable(name = "ais_consent_archive_account", joinColumns = @JoinColumn(name = "ais_consent_archive_id"))
+    @Column(name = "aspsp_account_id", nullable = false)
+    private List<String> aspspAccountIds = new ArrayList<>();
+
+    @Column(name = "creation_timestamp", nullable = false, updatable = false)
+    private OffsetDateTime creationTimestamp;
+
+    @Column(name = "status_change_timestamp", updatable = false)
+    private OffsetDateTime statusChangeTimestamp;
+
+    @Column(name = "archive_timestamp", nullable = false, updatable = false)
+    private OffsetDateTime archiveTimestamp;
+
+    @Lob
+    @Column(name = "payload", nullable = false, updatable = false)
+    private byte[] payload;
+}
@@ -16,6 +16,7 @@
 
 package de.adorsys.psd2.consent.domain.event;
 
+import de.adorsys.psd2.consent.domain.CompressedBlobConverter;
 import de.adorsys.psd2.consent.domain.InstanceDependableEntity;
 import de.adorsys.psd2.consent.domain.PsuDataEmbeddable;
 import de.adorsys.psd2.xs2a.core.event.EventOrigin;
@@ -43,6 +44,7 @@ public class EventEntity extends InstanceDependableEntity {
     private String paymentId;
 
     @Lob
+    @Convert(converter = CompressedBlobConverter.class)
     @Column(name = "payload")
     private byte[] payload;
 
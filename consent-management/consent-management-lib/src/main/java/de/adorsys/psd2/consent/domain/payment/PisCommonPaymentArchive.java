@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.domain.payment;
+
+import de.adorsys.psd2.consent.domain.InstanceDependableEntity;
+import de.adorsys.psd2.consent.domain.PsuDataEmbeddable;
+import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
+import de.adorsys.psd2.xs2a.core.profile.PaymentType;
+import lombok.Data;
+import lombok.ToString;
+
+import javax.persistence.*;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Archived payment in finalised status.
+ * <p>
+ * The payment is kept as serialised payload of the type given by {@link #payloadType}, only the attributes used for
+ * lookups and exports are stored in columns. The identifier is taken over from the archived payment.
+ */
+@Data
+@ToString(exclude = "payload")
+@Entity(name = "pis_common_payment_archive")
+public class PisCommonPaymentArchive extends InstanceDependableEntity {
+    @Id
+    private Long id;
+
+    @Column(name = "payment_id", nullable = false, updatable = false)
+    private String paymentId;
+
+    @Column(name = "payment_type", nullable = false, updatable = false)
+    @Enumerated(value = EnumType.STRING)
+    private PaymentType paymentType;
+
+    @Column(name = "transaction_status", nullable = false, updatable = false)
+    @Enumerated(value = EnumType.STRING)
+    private TransactionStatus transactionStatus;
+
+    @Column(name = "tpp_authorisation_number", updatable = false)
+    private String tppAuthorisationNumber;
+
+    @Column(name = "aspsp_account_id", updatable = false)
+    private String aspspAccountId;
+
+    @ElementCollection
+    @CollectionTable(name = "pis_common_payment_archive_psu_data", joinColumns = @JoinColumn(name = "pis_common_payment_archive_id"))
+    private List<PsuDataEmbeddable> psuDataList = new ArrayList<>();
+
+    @Column(name = "creation_timestamp", nullable = false, updatable = false)
+    private OffsetDateTime creationTimestamp;
+
+    @Column(name = "status_change_timestamp", updatable = false)
+    private OffsetDateTime statusChangeTimestamp;
+
+    @Column(name = "archive_timestamp", nullable = false, updatable = false)
+    private OffsetDateTime archiveTimestamp;
+
+    @Column(name = "payload_type", nullable = false, updatable = false)
+    private String payloadType;
+
+    @Lob
+    @Column(name = "payload", nullable = false, updatable = false)
+    private byte[] payload;
+}
@@ -22,6 +22,9 @@ import de.adorsys.psd2.consent.domain.TppInfoEntity;
 import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
 import de.adorsys.psd2.xs2a.core.profile.PaymentType;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.time.OffsetDateTime;
@@ -32,7 +35,33 @@ import java.util.Objects;
 
 @Data
 @Entity(name = "pis_common_payment")
+@NamedEntityGraph(name = PisCommonPaymentData.STATUS_GRAPH,
+    attributeNodes = @NamedAttributeNode("tppInfo"))
+@NamedEntityGraph(name = PisCommonPaymentData.FULL_GRAPH,
+    attributeNodes = {@NamedAttributeNode("tppInfo"), @NamedAttributeNode(value = "payments", subgraph = "payment")},
+    subgraphs = @NamedSubgraph(name = "payment", attributeNodes = {
+        @NamedAttributeNode("debtorAccount"),
+        @NamedAttributeNode("creditorAccount"),
+        @NamedAttributeNode("creditorAddress"),
+        @NamedAttributeNode("remittanceInformationStructured")}))
+@NamedEntityGraph(name = PisCommonPaymentData.AUTHORISATION_GRAPH,
+    attributeNodes = {@NamedAttributeNode("tppInfo"), @NamedAttributeNode(value = "authorizations", subgraph = "authorisation")},
+    subgraphs = @NamedSubgraph(name = "authorisation", attributeNodes = @NamedAttributeNode("psuData")))
 public class PisCommonPaymentData extends InstanceDependableEntity {
+    /**
+     * Fetch plan for reading and updating the status of the payment: only TPP info is loaded together with the payment
+     */
+    public static final String STATUS_GRAPH = "PisCommonPaymentData.status";
+    /**
+     * Fetch plan for mapping the whole payment: TPP info and single payments with their accounts, address and
+     * remittance are loaded together with the payment
+     */
+    public static final String FULL_GRAPH = "PisCommonPaymentData.full";
+    /**
+     * Fetch plan for the authorisation flow: TPP info and authorisations with their PSU data are loaded together with the payment
+     */
+    public static final String AUTHORISATION_GRAPH = "PisCommonPaymentData.authorisation";
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pis_common_payment_generator")
     @SequenceGenerator(name = "pis_common_payment_generator", sequenceName = "pis_common_payment_id_seq", allocationSize = 1)
@@ -52,10 +81,13 @@ public class PisCommonPaymentData extends InstanceDependableEntity {
     @Enumerated(value = EnumType.STRING)
     private TransactionStatus transactionStatus;
 
-    @Lob
-    @Column(name = "payment")
-    private byte[] payment;
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "payload_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private PisCommonPaymentPayload payload;
 
+    @BatchSize(size = 100)
     @OneToMany(cascade = CascadeType.ALL)
     @JoinTable(name = "pis_common_payment_psu_data",
         joinColumns = @JoinColumn(name = "pis_common_payment_id"),
@@ -66,11 +98,13 @@ public class PisCommonPaymentData extends InstanceDependableEntity {
     @JoinColumn(name = "tpp_info_id", nullable = false)
     private TppInfoEntity tppInfo;
 
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "paymentData",
         cascade = CascadeType.ALL,
         orphanRemoval = true)
     private List<PisAuthorization> authorizations = new ArrayList<>();
 
+    @BatchSize(size = 100)
     @OneToMany(mappedBy = "paymentData",
         cascade = CascadeType.ALL,
         orphanRemoval = true)
@@ -110,6 +144,25 @@ public class PisCommonPaymentData extends InstanceDependableEntity {
         }
     }
 
+    /**
+     * Returns payment data of the common payment, the payload is loaded on first access only
+     *
+     * @return payment data or <code>null</code> if the payment has no payment data
+     */
+    public byte[] getPayment() {
+        return payload == null
+                   ? null
+                   : payload.getPayment();
+    }
+
+    public void setPayment(byte[] payment) {
+        if (payload == null) {
+            payload = new PisCommonPaymentPayload(payment);
+        } else {
+            payload.setPayment(payment);
+        }
+    }
+
     public boolean isConfirmationExpired(long expirationPeriodMs) {
         if (isNotConfirmed()) {
             return creationTimestamp.plus(expirationPeriodMs, ChronoUnit.MILLIS)
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.domain.payment;
+
+import de.adorsys.psd2.consent.domain.CompressedBlobConverter;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+
+import javax.persistence.*;
+
+/**
+ * Payment data of a common payment, kept in a separate table so that status and authorisation reads of the payment
+ * don't load the (possibly large) payment blob
+ */
+@Data
+@NoArgsConstructor
+@Entity(name = "pis_common_payment_payload")
+@BatchSize(size = 100)
+public class PisCommonPaymentPayload {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pis_common_payment_payload_generator")
+    @SequenceGenerator(name = "pis_common_payment_payload_generator", sequenceName = "pis_common_payment_id_seq", allocationSize = 1)
+    private Long id;
+
+    @Lob
+    @Convert(converter = CompressedBlobConverter.class)
+    @Column(name = "payment")
+    @ToString.Exclude
+    private byte[] payment;
+
+    public PisCommonPaymentPayload(byte[] payment) {
+        this.payment = payment;
+    }
+}
@@ -17,7 +17,22 @@
 package de.adorsys.psd2.consent.repository;
 
 import de.adorsys.psd2.consent.domain.account.AisConsentAction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
 
 public interface AisConsentActionRepository extends CrudRepository<AisConsentAction, Long> {
+    @Query("select a.id from ais_consent_action a where a.requestDate < :purgeBefore order by a.id")
+    List<Long> findIdsForPurge(@Param("purgeBefore") LocalDate purgeBefore, Pageable pageable);
+
+    long countByRequestDateBefore(LocalDate purgeBefore);
+
+    @Modifying
+    @Query("delete from ais_consent_action a where a.id in :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
 }
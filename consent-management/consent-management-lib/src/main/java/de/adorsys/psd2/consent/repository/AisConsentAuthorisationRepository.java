@@ -16,9 +16,14 @@
 
 package de.adorsys.psd2.consent.repository;
 
+import de.adorsys.psd2.consent.domain.AuthorisationRedirect;
 import de.adorsys.psd2.consent.domain.account.AisConsentAuthorization;
+import de.adorsys.psd2.xs2a.core.sca.ScaStatus;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
@@ -26,4 +31,13 @@ public interface AisConsentAuthorisationRepository
     extends CrudRepository<AisConsentAuthorization, Long>, JpaSpecificationExecutor<AisConsentAuthorization> {
 
     Optional<AisConsentAuthorization> findByExternalId(String externalId);
+
+    @Query("select new de.adorsys.psd2.consent.domain.AuthorisationRedirect(a.id, a.scaStatus, a.redirectUrlExpirationTimestamp, t.nokRedirectUri) " +
+               "from ais_consent_authorization a join a.consent c left join c.tppInfo t " +
+               "where a.externalId = :redirectId and a.instanceId = :instanceId")
+    Optional<AuthorisationRedirect> findRedirect(@Param("redirectId") String redirectId, @Param("instanceId") String instanceId);
+
+    @Modifying
+    @Query("update ais_consent_authorization a set a.scaStatus = :scaStatus where a.id = :id")
+    int updateScaStatus(@Param("id") Long id, @Param("scaStatus") ScaStatus scaStatus);
 }
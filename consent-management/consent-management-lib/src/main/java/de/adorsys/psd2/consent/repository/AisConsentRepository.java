@@ -18,37 +18,40 @@ package de.adorsys.psd2.consent.repository;
 
 import de.adorsys.psd2.consent.domain.account.AisConsent;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import static org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH;
+
 public interface AisConsentRepository extends CrudRepository<AisConsent, Long>, JpaSpecificationExecutor<AisConsent> {
     List<AisConsent> findByConsentStatusIn(Set<ConsentStatus> statuses);
 
     Optional<AisConsent> findByExternalId(String externalId);
 
-    @Query(
-        "select distinct c from ais_consent c " +
-            "join c.psuDataList psuList " +
-            "where psuList.psuId in :psuIds " +
-            "and c.tppInfo.authorisationNumber = :authorisationNumber " +
-            "and c.tppInfo.authorityId = :authorityId " +
-            "and c.instanceId = :instanceId " +
-            "and c.consentStatus in :consentStatuses " +
-            "and c.externalId <> :newConsentId"
-    )
-    List<AisConsent> findOldConsentsByNewConsentParams(@Param("psuIds") Set<String> psuIds,
-                                                       @Param("authorisationNumber") String tppAuthorisationNumber,
-                                                       @Param("authorityId") String tppAuthorityId,
-                                                       @Param("instanceId") String instanceId,
-                                                       @Param("newConsentId") String newConsentId,
-                                                       @Param("consentStatuses") Set<ConsentStatus> consentStatuses);
+    @EntityGraph(AisConsent.STATUS_GRAPH)
+    Optional<AisConsent> findForStatusByExternalId(String externalId);
+
+    // duplicates caused by the fetched collection are removed in memory, not by SQL DISTINCT
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @EntityGraph(AisConsent.FULL_GRAPH)
+    Optional<AisConsent> findDistinctForFullReadByExternalId(String externalId);
+
+    // duplicates caused by the fetched collection are removed in memory, not by SQL DISTINCT
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @EntityGraph(AisConsent.AUTHORISATION_GRAPH)
+    Optional<AisConsent> findDistinctForAuthorisationByExternalId(String externalId);
 
     @Query(
         "select distinct c from ais_consent c " +
@@ -60,4 +63,14 @@ public interface AisConsentRepository extends CrudRepository<AisConsent, Long>,
     )
     List<AisConsent> findUsedNonRecurringConsents(@Param("consentStatuses") Set<ConsentStatus> consentStatuses,
                                                   @Param("currentDate") LocalDate currentDate);
+
+    @Query(
+        "select c.id from ais_consent c " +
+            "where c.consentStatus in :consentStatuses " +
+            "and coalesce(c.statusChangeTimestamp, c.creationTimestamp) < :archiveBefore " +
+            "order by c.id"
+    )
+    List<Long> findIdsForArchival(@Param("consentStatuses") Set<ConsentStatus> consentStatuses,
+                                  @Param("archiveBefore") OffsetDateTime archiveBefore,
+                                  Pageable pageable);
 }
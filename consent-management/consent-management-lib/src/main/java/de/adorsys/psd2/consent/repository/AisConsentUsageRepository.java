@@ -18,11 +18,16 @@ package de.adorsys.psd2.consent.repository;
 
 import de.adorsys.psd2.consent.domain.account.AisConsent;
 import de.adorsys.psd2.consent.domain.account.AisConsentUsage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import javax.persistence.LockModeType;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,4 +37,15 @@ public interface AisConsentUsageRepository extends CrudRepository<AisConsentUsag
 
     @Lock(value = LockModeType.OPTIMISTIC)
     List<AisConsentUsage> findReadByConsentAndUsageDate(AisConsent aisConsent, LocalDate usageDate);
+
+    List<AisConsentUsage> findByConsentInAndUsageDate(Collection<AisConsent> consents, LocalDate usageDate);
+
+    @Query("select u.id from ais_consent_usage u where u.usageDate < :purgeBefore order by u.id")
+    List<Long> findIdsForPurge(@Param("purgeBefore") LocalDate purgeBefore, Pageable pageable);
+
+    long countByUsageDateBefore(LocalDate purgeBefore);
+
+    @Modifying
+    @Query("delete from ais_consent_usage u where u.id in :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
 }
@@ -17,10 +17,44 @@
 package de.adorsys.psd2.consent.repository;
 
 import de.adorsys.psd2.consent.domain.AspspConsentDataEntity;
+import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface AspspConsentDataRepository extends CrudRepository<AspspConsentDataEntity, String> {
+    String FINISHED_CONSENT_CONDITION =
+        "exists (select c.id from ais_consent c where c.externalId = d.consentId " +
+            "and c.consentStatus in :consentStatuses " +
+            "and coalesce(c.statusChangeTimestamp, c.creationTimestamp) < :purgeBefore) " +
+            "or exists (select p.id from pis_common_payment p where p.paymentId = d.consentId " +
+            "and p.transactionStatus in :transactionStatuses " +
+            "and coalesce(p.statusChangeTimestamp, p.creationTimestamp) < :purgeBefore) " +
+            "or exists (select ca.id from ais_consent_archive ca where ca.externalId = d.consentId) " +
+            "or exists (select pa.id from pis_common_payment_archive pa where pa.paymentId = d.consentId)";
+
     Optional<AspspConsentDataEntity> findByConsentId(String externalConsentId);
+
+    @Query("select d.consentId from aspsp_consent_data d where " + FINISHED_CONSENT_CONDITION + " order by d.consentId")
+    List<String> findConsentIdsForPurge(@Param("consentStatuses") Set<ConsentStatus> consentStatuses,
+                                        @Param("transactionStatuses") Set<TransactionStatus> transactionStatuses,
+                                        @Param("purgeBefore") OffsetDateTime purgeBefore,
+                                        Pageable pageable);
+
+    @Query("select count(d) from aspsp_consent_data d where " + FINISHED_CONSENT_CONDITION)
+    long countForPurge(@Param("consentStatuses") Set<ConsentStatus> consentStatuses,
+                       @Param("transactionStatuses") Set<TransactionStatus> transactionStatuses,
+                       @Param("purgeBefore") OffsetDateTime purgeBefore);
+
+    @Modifying
+    @Query("delete from aspsp_consent_data d where d.consentId in :consentIds")
+    int deleteByConsentIds(@Param("consentIds") List<String> consentIds);
 }
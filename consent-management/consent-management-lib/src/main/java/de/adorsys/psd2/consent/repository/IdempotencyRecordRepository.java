@@ -0,0 +1,39 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.repository;
+
+import de.adorsys.psd2.consent.domain.IdempotencyRecordEntity;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends CrudRepository<IdempotencyRecordEntity, Long> {
+
+    // read-write transaction, so the record is read from the primary database even if read replicas are configured
+    @Transactional
+    Optional<IdempotencyRecordEntity> findByTppAuthorisationNumberAndXRequestIdAndBodyDigestAndInstanceId(@NotNull String tppAuthorisationNumber, @NotNull String xRequestId, @NotNull String bodyDigest, @NotNull String instanceId);
+
+    @Modifying
+    @Query("delete from idempotency_record r where r.expirationTimestamp < :now")
+    int deleteExpired(@Param("now") OffsetDateTime now);
+}
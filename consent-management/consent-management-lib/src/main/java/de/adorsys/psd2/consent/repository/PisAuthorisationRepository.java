@@ -17,14 +17,58 @@
 package de.adorsys.psd2.consent.repository;
 
 import de.adorsys.psd2.consent.api.CmsAuthorisationType;
+import de.adorsys.psd2.consent.domain.AuthorisationRedirect;
 import de.adorsys.psd2.consent.domain.payment.PisAuthorization;
+import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
+import de.adorsys.psd2.xs2a.core.sca.ScaStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface PisAuthorisationRepository extends CrudRepository<PisAuthorization, Long>, JpaSpecificationExecutor<PisAuthorization> {
+    String FINISHED_PAYMENT_CONDITION =
+        "a.paymentData.transactionStatus in :transactionStatuses " +
+            "and coalesce(a.paymentData.statusChangeTimestamp, a.paymentData.creationTimestamp) < :purgeBefore";
+
     Optional<PisAuthorization> findByExternalId(String externalId);
 
     Optional<PisAuthorization> findByExternalIdAndAuthorizationType(String externalId, CmsAuthorisationType authorizationType);
+
+    @Query("select new de.adorsys.psd2.consent.domain.AuthorisationRedirect(a.id, a.scaStatus, a.redirectUrlExpirationTimestamp, t.nokRedirectUri) " +
+               "from pis_consent_authorization a left join a.paymentData p left join p.tppInfo t " +
+               "where a.externalId = :redirectId and a.instanceId = :instanceId")
+    Optional<AuthorisationRedirect> findRedirect(@Param("redirectId") String redirectId, @Param("instanceId") String instanceId);
+
+    @Modifying
+    @Query("update pis_consent_authorization a set a.scaStatus = :scaStatus where a.id = :id")
+    int updateScaStatus(@Param("id") Long id, @Param("scaStatus") ScaStatus scaStatus);
+
+    @Query("select a.id from pis_consent_authorization a where " + FINISHED_PAYMENT_CONDITION + " order by a.id")
+    List<Long> findIdsForPurge(@Param("transactionStatuses") Set<TransactionStatus> transactionStatuses,
+                               @Param("purgeBefore") OffsetDateTime purgeBefore,
+                               Pageable pageable);
+
+    @Query("select count(a) from pis_consent_authorization a where " + FINISHED_PAYMENT_CONDITION)
+    long countForPurge(@Param("transactionStatuses") Set<TransactionStatus> transactionStatuses,
+                       @Param("purgeBefore") OffsetDateTime purgeBefore);
+
+    @Query("select a.psuData.id from pis_consent_authorization a where a.id in :ids")
+    List<Long> findPsuDataIdsByIds(@Param("ids") List<Long> ids);
+
+    // element collections are not removed by bulk delete of their owner
+    @Modifying
+    @Query(value = "delete from pis_available_sca_method where authorisation_id in :ids", nativeQuery = true)
+    int deleteAvailableScaMethodsByAuthorisationIds(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("delete from pis_consent_authorization a where a.id in :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
 }
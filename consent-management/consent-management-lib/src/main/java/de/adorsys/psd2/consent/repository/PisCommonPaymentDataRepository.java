@@ -18,17 +18,49 @@ package de.adorsys.psd2.consent.repository;
 
 import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
 import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import static org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH;
+
 public interface PisCommonPaymentDataRepository extends CrudRepository<PisCommonPaymentData, Long>, JpaSpecificationExecutor<PisCommonPaymentData> {
     Optional<PisCommonPaymentData> findByPaymentIdAndTransactionStatusIn(String paymentId, List<TransactionStatus> status);// todo method should be changed to  findByPaymentIdAndTransactionStatus https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/534
 
     Optional<PisCommonPaymentData> findByPaymentId(String paymentId);
 
+    @EntityGraph(PisCommonPaymentData.STATUS_GRAPH)
+    Optional<PisCommonPaymentData> findForStatusByPaymentId(String paymentId);
+
+    // duplicates caused by the fetched collection are removed in memory, not by SQL DISTINCT
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @EntityGraph(PisCommonPaymentData.FULL_GRAPH)
+    Optional<PisCommonPaymentData> findDistinctForFullReadByPaymentId(String paymentId);
+
+    // duplicates caused by the fetched collection are removed in memory, not by SQL DISTINCT
+    @QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    @EntityGraph(PisCommonPaymentData.AUTHORISATION_GRAPH)
+    Optional<PisCommonPaymentData> findDistinctForAuthorisationByPaymentId(String paymentId);
+
     List<PisCommonPaymentData> findByTransactionStatusIn(Set<TransactionStatus> statuses);
+
+    @Query(
+        "select p.id from pis_common_payment p " +
+            "where p.transactionStatus in :transactionStatuses " +
+            "and coalesce(p.statusChangeTimestamp, p.creationTimestamp) < :archiveBefore " +
+            "order by p.id"
+    )
+    List<Long> findIdsForArchival(@Param("transactionStatuses") Set<TransactionStatus> transactionStatuses,
+                                  @Param("archiveBefore") OffsetDateTime archiveBefore,
+                                  Pageable pageable);
 }
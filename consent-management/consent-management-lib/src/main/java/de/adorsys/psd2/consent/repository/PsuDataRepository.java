@@ -17,8 +17,22 @@
 package de.adorsys.psd2.consent.repository;
 
 import de.adorsys.psd2.consent.domain.PsuData;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
-public interface PsuDataRepository extends CrudRepository<PsuData, Long> {
+import java.util.List;
 
+public interface PsuDataRepository extends CrudRepository<PsuData, Long> {
+    // PSU data of an authorisation may be shared with its consent or payment, so only rows without any reference are removed
+    @Modifying
+    @Query(value = "delete from psu_data where psu_data.id in :ids " +
+                       "and not exists (select 1 from ais_consent_authorization a where a.psu_id = psu_data.id) " +
+                       "and not exists (select 1 from pis_consent_authorization a where a.psu_id = psu_data.id) " +
+                       "and not exists (select 1 from piis_consent c where c.psu_id = psu_data.id) " +
+                       "and not exists (select 1 from ais_consent_psu_data c where c.psu_data_id = psu_data.id) " +
+                       "and not exists (select 1 from pis_common_payment_psu_data c where c.psu_data_id = psu_data.id)",
+        nativeQuery = true)
+    int deleteUnreferencedByIds(@Param("ids") List<Long> ids);
 }
@@ -19,14 +19,19 @@ package de.adorsys.psd2.consent.repository;
 import de.adorsys.psd2.consent.domain.TppStopListEntity;
 import de.adorsys.psd2.xs2a.core.tpp.TppStatus;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
+import javax.persistence.QueryHint;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static org.hibernate.annotations.QueryHints.CACHEABLE;
+
 public interface TppStopListRepository extends CrudRepository<TppStopListEntity, Long> {
 
+    @QueryHints(@QueryHint(name = CACHEABLE, value = "true"))
     Optional<TppStopListEntity> findByTppAuthorisationNumberAndNationalAuthorityIdAndInstanceId(@NotNull String tppAuthorisationNumber, @NotNull String nationalAuthorityId, @NotNull String instanceId);
 
     List<TppStopListEntity> findAllByStatusAndBlockingExpirationTimestampLessThanEqual(@NotNull TppStatus tppStatus, @NotNull OffsetDateTime dateTimeToCompare);
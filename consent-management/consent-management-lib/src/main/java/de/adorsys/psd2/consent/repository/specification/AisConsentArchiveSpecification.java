@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.repository.specification;
+
+import de.adorsys.psd2.consent.domain.account.AisConsentArchive;
+import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.domain.Specifications;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.criteria.Join;
+import java.time.LocalDate;
+
+import static de.adorsys.psd2.consent.repository.specification.EntityAttribute.ASPSP_ACCOUNT_IDS_ATTRIBUTE;
+
+/**
+ * Export criteria of {@link AisConsentSpecification} applied to archived AIS consents
+ */
+@Service
+public class AisConsentArchiveSpecification extends GenericSpecification {
+
+    /**
+     * Returns specification for AisConsentArchive entity for filtering data by TPP authorisation number, creation date, PSU ID data and instance ID.
+     *
+     * @param tppAuthorisationNumber mandatory TPP authorisation number
+     * @param createDateFrom         optional creation date that limits results to AIS consents created after this date(inclusive)
+     * @param createDateTo           optional creation date that limits results to AIS consents created before this date(inclusive)
+     * @param psuIdData              optional PSU ID data
+     * @param instanceId             optional instance ID
+     * @return specification for AisConsentArchive entity
+     */
+    public Specification<AisConsentArchive> byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(@NotNull String tppAuthorisationNumber,
+                                                                                              @Nullable LocalDate createDateFrom,
+                                                                                              @Nullable LocalDate createDateTo,
+                                                                                              @Nullable PsuIdData psuIdData,
+                                                                                              @Nullable String instanceId) {
+        return Specifications.<AisConsentArchive>where(byOwnTppAuthorisationNumber(tppAuthorisationNumber))
+                   .and(byCreationTimestamp(createDateFrom, createDateTo))
+                   .and(byPsuIdDataInList(psuIdData))
+                   .and(byInstanceId(instanceId));
+    }
+
+    /**
+     * Returns specification for AisConsentArchive entity for filtering data by PSU ID Data, creation date and instance ID.
+     *
+     * @param psuIdData      mandatory PSU ID data
+     * @param createDateFrom optional creation date that limits resulting data to AIS consents created after this date(inclusive)
+     * @param createDateTo   optional creation date that limits resulting data to AIS consents created before this date(inclusive)
+     * @param instanceId     optional instance ID
+     * @return specification for AisConsentArchive entity
+     */
+    public Specification<AisConsentArchive> byPsuIdDataAndCreationPeriodAndInstanceId(@NotNull PsuIdData psuIdData,
+                                                                                      @Nullable LocalDate createDateFrom,
+                                                                                      @Nullable LocalDate createDateTo,
+                                                                                      @Nullable String instanceId) {
+        return Specifications.<AisConsentArchive>where(byPsuIdDataInList(psuIdData))
+                   .and(byCreationTimestamp(createDateFrom, createDateTo))
+                   .and(byInstanceId(instanceId));
+    }
+
+    /**
+     * Returns specification for AisConsentArchive entity for filtering data by ASPSP account ID, creation date and instance ID.
+     *
+     * @param aspspAccountId Bank specific account identifier
+     * @param createDateFrom optional creation date that limits resulting data to AIS consents created after this date(inclusive)
+     * @param createDateTo   optional creation date that limits resulting data to AIS consents created before this date(inclusive)
+     * @param instanceId     optional instance ID
+     * @return specification for AisConsentArchive entity
+     */
+    public Specification<AisConsentArchive> byAspspAccountIdAndCreationPeriodAndInstanceId(@NotNull String aspspAccountId,
+                                                                                           @Nullable LocalDate createDateFrom,
+                                                                                           @Nullable LocalDate createDateTo,
+                                                                                           @Nullable String instanceId) {
+        return Specifications.<AisConsentArchive>where(byAspspAccountIdInAspspAccountIds(aspspAccountId))
+                   .and(byCreationTimestamp(createDateFrom, createDateTo))
+                   .and(byInstanceId(instanceId));
+    }
+
+    private Specification<AisConsentArchive> byAspspAccountIdInAspspAccountIds(@NotNull String aspspAccountId) {
+        return (root, query, cb) -> {
+            Join<AisConsentArchive, String> aspspAccountIdJoin = root.join(ASPSP_ACCOUNT_IDS_ATTRIBUTE);
+            query.distinct(true);
+            return cb.equal(aspspAccountIdJoin, aspspAccountId);
+        };
+    }
+}
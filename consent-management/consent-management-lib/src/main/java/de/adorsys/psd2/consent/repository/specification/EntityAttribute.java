@@ -17,6 +17,7 @@
 package de.adorsys.psd2.consent.repository.specification;
 
 public class EntityAttribute {
+    public static final String ID_ATTRIBUTE = "id";
     public static final String INSTANCE_ID_ATTRIBUTE = "instanceId";
     public static final String AUTHORISATION_EXTERNAL_ID_ATTRIBUTE = "externalId";
     public static final String CONSENT_EXTERNAL_ID_ATTRIBUTE = "externalId";
@@ -26,6 +27,7 @@ public class EntityAttribute {
     public static final String PAYMENT_ID_ATTRIBUTE = "paymentId";
     public static final String TIMESTAMP_ID_ATTRIBUTE = "timestamp";
     public static final String CREATION_TIMESTAMP_ATTRIBUTE = "creationTimestamp";
+    public static final String CONSENT_STATUS_ATTRIBUTE = "consentStatus";
 
     public static final String PSU_ID_ATTRIBUTE = "psuId";
     public static final String PSU_ID_TYPE_ATTRIBUTE = "psuIdType";
@@ -35,12 +37,14 @@ public class EntityAttribute {
     public static final String TPP_INFO_ATTRIBUTE = "tppInfo";
     public static final String TPP_INFO_AUTHORISATION_NUMBER_ATTRIBUTE = "authorisationNumber";
     public static final String TPP_INFO_AUTHORITY_ID_ATTRIBUTE = "authorityId";
+    public static final String TPP_AUTHORISATION_NUMBER_ATTRIBUTE = "tppAuthorisationNumber";
 
     public static final String ASPSP_ACCOUNT_ACCESSES_ATTRIBUTE = "aspspAccountAccesses";
     public static final String ACCOUNTS_ATTRIBUTE = "accounts";
     public static final String ACCOUNT_ATTRIBUTE = "account";
     public static final String CURRENCY_ATTRIBUTE = "currency";
     public static final String ASPSP_ACCOUNT_ID_ATTRIBUTE = "aspspAccountId";
+    public static final String ASPSP_ACCOUNT_IDS_ATTRIBUTE = "aspspAccountIds";
 
     private EntityAttribute() {
     }
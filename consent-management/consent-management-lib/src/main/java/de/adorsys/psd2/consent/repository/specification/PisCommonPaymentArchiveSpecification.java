@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.repository.specification;
+
+import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentArchive;
+import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.domain.Specifications;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+
+/**
+ * Export criteria of {@link PisCommonPaymentDataSpecification} applied to archived payments
+ */
+@Service
+public class PisCommonPaymentArchiveSpecification extends GenericSpecification {
+
+    /**
+     * Returns specification for PisCommonPaymentArchive entity for filtering payments by TPP authorisation number, creation date, PSU ID data and instance ID.
+     *
+     * @param tppAuthorisationNumber mandatory TPP authorisation number
+     * @param createDateFrom         optional creation date that limits results to payments created after this date(inclusive)
+     * @param createDateTo           optional creation date that limits results to payments created before this date(inclusive)
+     * @param psuIdData              optional PSU ID data
+     * @param instanceId             optional instance ID
+     * @return resulting specification for PisCommonPaymentArchive entity
+     */
+    public Specification<PisCommonPaymentArchive> byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(@NotNull String tppAuthorisationNumber,
+                                                                                                    @Nullable LocalDate createDateFrom,
+                                                                                                    @Nullable LocalDate createDateTo,
+                                                                                                    @Nullable PsuIdData psuIdData,
+                                                                                                    @Nullable String instanceId) {
+        return Specifications.<PisCommonPaymentArchive>where(byOwnTppAuthorisationNumber(tppAuthorisationNumber))
+                   .and(byCreationTimestamp(createDateFrom, createDateTo))
+                   .and(byPsuIdDataInList(psuIdData))
+                   .and(byInstanceId(instanceId));
+    }
+
+    /**
+     * Returns specification for PisCommonPaymentArchive entity for filtering payments by PSU ID Data, creation date and instance ID.
+     *
+     * @param psuIdData      mandatory PSU ID data
+     * @param createDateFrom optional creation date that limits resulting data to payments created after this date(inclusive)
+     * @param createDateTo   optional creation date that limits resulting data to payments created before this date(inclusive)
+     * @param instanceId     optional instance ID
+     * @return resulting specification for PisCommonPaymentArchive entity
+     */
+    public Specification<PisCommonPaymentArchive> byPsuIdDataAndCreationPeriodAndInstanceId(@NotNull PsuIdData psuIdData,
+                                                                                            @Nullable LocalDate createDateFrom,
+                                                                                            @Nullable LocalDate createDateTo,
+                                                                                            @Nullable String instanceId) {
+        return Specifications.<PisCommonPaymentArchive>where(byPsuIdDataInList(psuIdData))
+                   .and(byCreationTimestamp(createDateFrom, createDateTo))
+                   .and(byInstanceId(instanceId));
+    }
+
+    /**
+     * Returns specification for PisCommonPaymentArchive entity for filtering payments by aspsp account id, creation date and instance ID.
+     *
+     * @param aspspAccountId Bank specific account identifier
+     * @param createDateFrom optional creation date that limits resulting data to payments created after this date(inclusive)
+     * @param createDateTo   optional creation date that limits resulting data to payments created before this date(inclusive)
+     * @param instanceId     optional instance ID
+     * @return resulting specification for PisCommonPaymentArchive entity
+     */
+    public Specification<PisCommonPaymentArchive> byAspspAccountIdAndCreationPeriodAndInstanceId(@NotNull String aspspAccountId,
+                                                                                                 @Nullable LocalDate createDateFrom,
+                                                                                                 @Nullable LocalDate createDateTo,
+                                                                                                 @Nullable String instanceId) {
+        return Specifications.<PisCommonPaymentArchive>where(byAspspAccountId(aspspAccountId))
+                   .and(byCreationTimestamp(createDateFrom, createDateTo))
+                   .and(byInstanceId(instanceId));
+    }
+}
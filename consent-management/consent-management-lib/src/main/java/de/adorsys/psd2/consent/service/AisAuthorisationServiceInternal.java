@@ -73,7 +73,7 @@ public class AisAuthorisationServiceInternal implements AisConsentAuthorisationS
     @Override
     @Transactional
     public Optional<CreateAisConsentAuthorizationResponse> createAuthorizationWithResponse(String consentId, AisConsentAuthorizationRequest request) {
-        return aisConsentRepository.findByExternalId(consentId)
+        return aisConsentRepository.findDistinctForAuthorisationByExternalId(consentId)
                    .filter(con -> !con.getConsentStatus().isFinalisedStatus())
                    .map(aisConsent -> {
                        closePreviousAuthorisationsByPsu(aisConsent.getAuthorizations(), request.getPsuData());
@@ -92,7 +92,7 @@ public class AisAuthorisationServiceInternal implements AisConsentAuthorisationS
      */
     @Override
     public Optional<AisConsentAuthorizationResponse> getAccountConsentAuthorizationById(String authorizationId, String consentId) {
-        boolean consentPresent = aisConsentRepository.findByExternalId(consentId)
+        boolean consentPresent = aisConsentRepository.findForStatusByExternalId(consentId)
                                      .filter(c -> !c.getConsentStatus().isFinalisedStatus())
                                      .isPresent();
 
@@ -114,7 +114,7 @@ public class AisAuthorisationServiceInternal implements AisConsentAuthorisationS
      */
     @Override
     public Optional<List<String>> getAuthorisationsByConsentId(String consentId) {
-        return aisConsentRepository.findByExternalId(consentId)
+        return aisConsentRepository.findDistinctForAuthorisationByExternalId(consentId)
                    .map(cst -> cst.getAuthorizations().stream()
                                    .map(AisConsentAuthorization::getExternalId)
                                    .collect(Collectors.toList()));
@@ -123,7 +123,7 @@ public class AisAuthorisationServiceInternal implements AisConsentAuthorisationS
     @Override
     @Transactional
     public Optional<ScaStatus> getAuthorisationScaStatus(String consentId, String authorisationId) {
-        Optional<AisConsent> consentOptional = aisConsentRepository.findByExternalId(consentId);
+        Optional<AisConsent> consentOptional = aisConsentRepository.findDistinctForAuthorisationByExternalId(consentId);
         if (!consentOptional.isPresent()) {
             log.info("Consent ID: [{}], Authorisation ID: [{}]. Get authorisation SCA status failed, because consent is not found",
                      consentId, authorisationId);
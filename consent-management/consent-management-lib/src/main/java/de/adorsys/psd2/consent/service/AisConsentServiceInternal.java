@@ -21,10 +21,9 @@ import de.adorsys.psd2.consent.api.ActionStatus;
 import de.adorsys.psd2.consent.api.ais.AisAccountAccessInfo;
 import de.adorsys.psd2.consent.api.ais.AisAccountConsent;
 import de.adorsys.psd2.consent.api.ais.AisConsentActionRequest;
+import de.adorsys.psd2.consent.api.ais.AisConsentStatusVersionResponse;
 import de.adorsys.psd2.consent.api.ais.CreateAisConsentRequest;
 import de.adorsys.psd2.consent.api.service.AisConsentService;
-import de.adorsys.psd2.consent.domain.PsuData;
-import de.adorsys.psd2.consent.domain.TppInfoEntity;
 import de.adorsys.psd2.consent.domain.account.AisConsent;
 import de.adorsys.psd2.consent.domain.account.AisConsentAction;
 import de.adorsys.psd2.consent.domain.account.AspspAccountAccessHolder;
@@ -34,7 +33,6 @@ import de.adorsys.psd2.consent.repository.AisConsentRepository;
 import de.adorsys.psd2.consent.service.mapper.AisConsentMapper;
 import de.adorsys.psd2.consent.service.mapper.PsuDataMapper;
 import de.adorsys.psd2.consent.service.mapper.TppInfoMapper;
-import de.adorsys.psd2.consent.service.psu.CmsPsuService;
 import de.adorsys.psd2.xs2a.core.ais.AccountAccessType;
 import de.adorsys.psd2.xs2a.core.consent.AisConsentRequestType;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
@@ -48,7 +46,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 import static de.adorsys.psd2.xs2a.core.consent.ConsentStatus.*;
 
@@ -65,7 +62,7 @@ public class AisConsentServiceInternal implements AisConsentService {
     private final AspspProfileService aspspProfileService;
     private final AisConsentConfirmationExpirationService aisConsentConfirmationExpirationService;
     private final TppInfoMapper tppInfoMapper;
-    private final CmsPsuService cmsPsuService;
+    private final AisConsentTerminationExecutor aisConsentTerminationExecutor;
     private final AisConsentUsageService aisConsentUsageService;
 
     /**
@@ -103,7 +100,7 @@ public class AisConsentServiceInternal implements AisConsentService {
     @Override
     @Transactional
     public Optional<ConsentStatus> getConsentStatusById(String consentId) {
-        Optional<AisConsent> optionalConsentStatus = aisConsentRepository.findByExternalId(consentId);
+        Optional<AisConsent> optionalConsentStatus = aisConsentRepository.findForStatusByExternalId(consentId);
         if (optionalConsentStatus.isPresent()) {
             return optionalConsentStatus.map(aisConsentConfirmationExpirationService::checkAndUpdateOnConfirmationExpiration)
                        .map(this::checkAndUpdateOnExpiration)
@@ -114,6 +111,26 @@ public class AisConsentServiceInternal implements AisConsentService {
         }
     }
 
+    /**
+     * Read status and version of consent by id. Only TPP info is loaded together with the consent.
+     *
+     * @param consentId id of consent
+     * @return status, version and TPP of the consent
+     */
+    @Override
+    @Transactional
+    public Optional<AisConsentStatusVersionResponse> getConsentStatusVersionById(String consentId) {
+        Optional<AisConsent> optionalConsent = aisConsentRepository.findForStatusByExternalId(consentId);
+        if (!optionalConsent.isPresent()) {
+            log.info("Consent ID: [{}]. Get consent status and version failed, because consent is not found", consentId);
+            return Optional.empty();
+        }
+
+        return optionalConsent.map(aisConsentConfirmationExpirationService::checkAndUpdateOnConfirmationExpiration)
+                   .map(this::checkAndUpdateOnExpiration)
+                   .map(consentMapper::mapToAisConsentStatusVersionResponse);
+    }
+
     /**
      * Update consent status by id
      *
@@ -142,7 +159,7 @@ public class AisConsentServiceInternal implements AisConsentService {
     @Override
     @Transactional
     public Optional<AisAccountConsent> getAisAccountConsentById(String consentId) {
-        return aisConsentRepository.findByExternalId(consentId)
+        return aisConsentRepository.findDistinctForFullReadByExternalId(consentId)
                    .map(aisConsentConfirmationExpirationService::checkAndUpdateOnConfirmationExpiration)
                    .map(this::checkAndUpdateOnExpiration)
                    .map(consentMapper::mapToAisAccountConsent);
@@ -157,7 +174,7 @@ public class AisConsentServiceInternal implements AisConsentService {
     @Override
     @Transactional
     public Optional<AisAccountConsent> getInitialAisAccountConsentById(String consentId) {
-        return aisConsentRepository.findByExternalId(consentId)
+        return aisConsentRepository.findDistinctForFullReadByExternalId(consentId)
                    .map(this::checkAndUpdateOnExpiration)
                    .map(consentMapper::mapToInitialAisAccountConsent);
     }
@@ -181,31 +198,13 @@ public class AisConsentServiceInternal implements AisConsentService {
             throw new IllegalArgumentException("Wrong consent data");
         }
 
-        List<PsuData> psuDataList = newConsent.getPsuDataList();
-        Set<String> psuIds = psuDataList.stream()
-                                 .filter(Objects::nonNull)
-                                 .map(PsuData::getPsuId)
-                                 .collect(Collectors.toSet());
-        TppInfoEntity tppInfo = newConsent.getTppInfo();
-
-        List<AisConsent> oldConsents = aisConsentRepository.findOldConsentsByNewConsentParams(psuIds,
-                                                                                              tppInfo.getAuthorisationNumber(),
-                                                                                              tppInfo.getAuthorityId(),
-                                                                                              newConsent.getInstanceId(),
-                                                                                              newConsent.getExternalId(),
-                                                                                              EnumSet.of(RECEIVED, PARTIALLY_AUTHORISED, VALID));
-
-        List<AisConsent> oldConsentsWithExactPsuDataLists = oldConsents.stream()
-                                                                .filter(c -> cmsPsuService.isPsuDataListEqual(c.getPsuDataList(), psuDataList))
-                                                                .collect(Collectors.toList());
-
-        if (oldConsentsWithExactPsuDataLists.isEmpty()) {
+        int terminatedConsents = aisConsentTerminationExecutor.terminateOldConsents(newConsent);
+        if (terminatedConsents == 0) {
             log.info("Consent ID: [{}]. Cannot find old consents, because consent hasn't exact psu data lists as old consents", newConsentId);
             return false;
         }
 
-        oldConsentsWithExactPsuDataLists.forEach(c -> c.setConsentStatus(TERMINATED_BY_TPP));
-        aisConsentRepository.saveAll(oldConsentsWithExactPsuDataLists);
+        log.info("Consent ID: [{}]. Terminated {} old consents", newConsentId, terminatedConsents);
         return true;
     }
 
@@ -19,6 +19,7 @@ package de.adorsys.psd2.consent.service;
 import de.adorsys.psd2.consent.api.ais.AisAccountAccessInfo;
 import de.adorsys.psd2.consent.api.ais.AisAccountConsent;
 import de.adorsys.psd2.consent.api.ais.AisConsentActionRequest;
+import de.adorsys.psd2.consent.api.ais.AisConsentStatusVersionResponse;
 import de.adorsys.psd2.consent.api.ais.CreateAisConsentRequest;
 import de.adorsys.psd2.consent.api.service.AisConsentService;
 import de.adorsys.psd2.consent.api.service.AisConsentServiceEncrypted;
@@ -55,6 +56,13 @@ public class AisConsentServiceInternalEncrypted implements AisConsentServiceEncr
                    .flatMap(aisConsentService::getConsentStatusById);
     }
 
+    @Override
+    @Transactional
+    public Optional<AisConsentStatusVersionResponse> getConsentStatusVersionById(String encryptedConsentId) {
+        return securityDataService.decryptId(encryptedConsentId)
+                   .flatMap(aisConsentService::getConsentStatusVersionById);
+    }
+
     @Override
     @Transactional
     public boolean updateConsentStatusById(String encryptedConsentId, ConsentStatus status) {
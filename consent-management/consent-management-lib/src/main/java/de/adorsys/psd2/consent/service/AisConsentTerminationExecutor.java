@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.service;
+
+import de.adorsys.psd2.consent.domain.PsuData;
+import de.adorsys.psd2.consent.domain.TppInfoEntity;
+import de.adorsys.psd2.consent.domain.account.AisConsent;
+import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.collections4.ListUtils;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.*;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static de.adorsys.psd2.consent.repository.specification.EntityAttribute.*;
+import static de.adorsys.psd2.xs2a.core.consent.ConsentStatus.*;
+
+/**
+ * Terminates old AIS consents of the same PSUs and TPP, once a new consent has been given.
+ * <p>
+ * Old consents with exactly the same PSU data as the new one are selected by a single aggregate query, driven by the
+ * identifiers of the PSUs, and are terminated by bulk updates, so that neither the old consents nor their PSU data are
+ * loaded into the persistence context.
+ */
+@Component
+@RequiredArgsConstructor
+public class AisConsentTerminationExecutor {
+    private static final Set<ConsentStatus> OLD_CONSENT_STATUSES = EnumSet.of(RECEIVED, PARTIALLY_AUTHORISED, VALID);
+    private static final int UPDATE_CHUNK_SIZE = 1000;
+
+    private final EntityManager entityManager;
+
+    /**
+     * Terminates old consents in status RECEIVED, PARTIALLY_AUTHORISED or VALID given to the same TPP by exactly the same
+     * PSUs as the new consent
+     *
+     * @param newConsent new consent with non-empty PSU data list and TPP info
+     * @return number of terminated consents
+     */
+    public int terminateOldConsents(@NotNull AisConsent newConsent) {
+        List<PsuData> psuDataList = newConsent.getPsuDataList();
+        if (psuDataList.stream().anyMatch(psu -> psu == null || psu.isEmpty())) {
+            return 0;
+        }
+
+        List<Long> oldConsentIds = findOldConsentIds(newConsent);
+        int terminated = 0;
+        OffsetDateTime now = OffsetDateTime.now();
+        for (List<Long> chunk : ListUtils.partition(oldConsentIds, UPDATE_CHUNK_SIZE)) {
+            terminated += entityManager.createQuery("update ais_consent c " +
+                                                        "set c.consentStatus = :status, c.statusChangeTimestamp = :now, c.version = c.version + 1 " +
+                                                        "where c.id in :ids")
+                              .setParameter("status", TERMINATED_BY_TPP)
+                              .setParameter("now", now)
+                              .setParameter("ids", chunk)
+                              .executeUpdate();
+        }
+        return terminated;
+    }
+
+    private List<Long> findOldConsentIds(AisConsent newConsent) {
+        List<PsuData> psuDataList = newConsent.getPsuDataList();
+        Set<String> psuIds = psuDataList.stream()
+                                 .map(PsuData::getPsuId)
+                                 .collect(Collectors.toSet());
+        TppInfoEntity tppInfo = newConsent.getTppInfo();
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<AisConsent> consent = query.from(AisConsent.class);
+        Join<AisConsent, PsuData> psuData = consent.join(PSU_DATA_LIST_ATTRIBUTE);
+
+        Subquery<Long> consentsOfPsus = query.subquery(Long.class);
+        Root<AisConsent> consentOfPsu = consentsOfPsus.from(AisConsent.class);
+        consentsOfPsus.select(consentOfPsu.get(ID_ATTRIBUTE))
+            .where(consentOfPsu.join(PSU_DATA_LIST_ATTRIBUTE).get(PSU_ID_ATTRIBUTE).in(psuIds));
+
+        Path<TppInfoEntity> tpp = consent.get(TPP_INFO_ATTRIBUTE);
+        List<Predicate> psuMatches = new ArrayList<>();
+        // same number of PSUs as the new consent, each PSU of the new consent is among PSUs of the old consent
+        psuMatches.add(cb.equal(cb.count(psuData), (long) psuDataList.size()));
+        for (PsuData psu : psuDataList) {
+            Expression<Integer> matches = cb.<Integer>selectCase()
+                                              .when(contentEquals(cb, psuData, psu), 1)
+                                              .otherwise(0);
+            psuMatches.add(cb.greaterThan(cb.sum(matches), 0));
+        }
+
+        query.select(consent.get(ID_ATTRIBUTE))
+            .where(consent.get(ID_ATTRIBUTE).in(consentsOfPsus),
+                   cb.equal(tpp.get(TPP_INFO_AUTHORISATION_NUMBER_ATTRIBUTE), tppInfo.getAuthorisationNumber()),
+                   cb.equal(tpp.get(TPP_INFO_AUTHORITY_ID_ATTRIBUTE), tppInfo.getAuthorityId()),
+                   cb.equal(consent.get(INSTANCE_ID_ATTRIBUTE), newConsent.getInstanceId()),
+                   consent.get(CONSENT_STATUS_ATTRIBUTE).in(OLD_CONSENT_STATUSES),
+                   cb.notEqual(consent.get(CONSENT_EXTERNAL_ID_ATTRIBUTE), newConsent.getExternalId()))
+            .groupBy(consent.get(ID_ATTRIBUTE))
+            .having(psuMatches.toArray(new Predicate[0]));
+
+        return entityManager.createQuery(query)
+                   .getResultList();
+    }
+
+    /**
+     * Null-safe equivalent of {@link PsuData#contentEquals(PsuData)}
+     */
+    private Predicate contentEquals(CriteriaBuilder cb, Path<PsuData> psuData, PsuData psu) {
+        return cb.and(equalOrNull(cb, psuData.get(PSU_ID_ATTRIBUTE), psu.getPsuId()),
+                      equalOrNull(cb, psuData.get(PSU_ID_TYPE_ATTRIBUTE), psu.getPsuIdType()),
+                      equalOrNull(cb, psuData.get(PSU_CORPORATE_ID_ATTRIBUTE), psu.getPsuCorporateId()),
+                      equalOrNull(cb, psuData.get(PSU_CORPORATE_ID_TYPE_ATTRIBUTE), psu.getPsuCorporateIdType()));
+    }
+
+    private Predicate equalOrNull(CriteriaBuilder cb, Path<String> attribute, String value) {
+        return value == null
+                   ? cb.isNull(attribute)
+                   : cb.equal(attribute, value);
+    }
+}
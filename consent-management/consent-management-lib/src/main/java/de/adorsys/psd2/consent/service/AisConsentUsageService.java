@@ -24,6 +24,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -56,6 +58,27 @@ public class AisConsentUsageService {
                                              u -> Math.max(aisConsent.getAllowedFrequencyPerDay() - u.getUsage(), 0)));
     }
 
+    /**
+     * Returns usage counter maps of all given consents with one query, without locking the usages.
+     * Is intended for read-only bulk operations like exports, where the usages are not modified afterwards.
+     *
+     * @param aisConsents consents, for which usage counters should be calculated
+     * @return usage counter maps by consent ID, consents without usages for today are mapped to an empty map
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Map<String, Integer>> getUsageCounterMaps(Collection<AisConsent> aisConsents) {
+        Map<Long, Map<String, Integer>> usageCounterMaps = new HashMap<>();
+        aisConsents.forEach(c -> usageCounterMaps.put(c.getId(), new HashMap<>()));
+        if (aisConsents.isEmpty()) {
+            return usageCounterMaps;
+        }
+
+        aisConsentUsageRepository.findByConsentInAndUsageDate(aisConsents, LocalDate.now())
+            .forEach(u -> usageCounterMaps.computeIfAbsent(u.getConsent().getId(), id -> new HashMap<>())
+                              .put(u.getRequestUri(), Math.max(u.getConsent().getAllowedFrequencyPerDay() - u.getUsage(), 0)));
+        return usageCounterMaps;
+    }
+
     private AisConsentUsage getUsage(AisConsent aisConsent, String requestUri) {
         return aisConsentUsageRepository.findWriteByConsentAndUsageDateAndRequestUri(aisConsent, LocalDate.now(), requestUri)
                    .orElseGet(() -> {
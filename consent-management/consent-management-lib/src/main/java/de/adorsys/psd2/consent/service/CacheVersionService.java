@@ -0,0 +1,61 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.psd2.consent.service;
+
+import de.adorsys.psd2.consent.repository.CacheVersionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Keeps version stamps of the second-level cache regions, so that changes made by one CMS instance become visible
+ * on other instances within the poll interval of {@link de.adorsys.psd2.consent.service.scheduler.CacheInvalidationScheduleTask}
+ * instead of the time to live of the cached entries.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CacheVersionService {
+    private final CacheVersionRepository cacheVersionRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Increments the version stamp of the given cache region. Should be called within the transaction, that changes
+     * the cached data, so that the new version becomes visible to other instances together with the data itself.
+     * Does nothing if the second-level cache is disabled.
+     *
+     * @param region name of the changed cache region, one of {@link de.adorsys.psd2.consent.domain.CacheRegion}
+     */
+    public void registerChange(String region) {
+        if (isSecondLevelCacheEnabled() && cacheVersionRepository.incrementVersion(region) == 0) {
+            log.warn("Cache region [{}] has no version stamp, changes won't be propagated to other CMS instances", region);
+        }
+    }
+
+    /**
+     * Checks whether Hibernate second-level cache is enabled for CMS entities
+     *
+     * @return <code>true</code> if the second-level cache is enabled, <code>false</code> otherwise
+     */
+    public boolean isSecondLevelCacheEnabled() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                   .getSessionFactoryOptions()
+                   .isSecondLevelCacheEnabled();
+    }
+}
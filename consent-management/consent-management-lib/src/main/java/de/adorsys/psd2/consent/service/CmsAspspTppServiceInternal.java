@@ -17,6 +17,7 @@
 package de.adorsys.psd2.consent.service;
 
 import de.adorsys.psd2.consent.aspsp.api.tpp.CmsAspspTppService;
+import de.adorsys.psd2.consent.domain.CacheRegion;
 import de.adorsys.psd2.consent.domain.TppInfoEntity;
 import de.adorsys.psd2.consent.domain.TppStopListEntity;
 import de.adorsys.psd2.consent.repository.TppInfoRepository;
@@ -41,6 +42,7 @@ public class CmsAspspTppServiceInternal implements CmsAspspTppService {
     private final TppStopListMapper tppStopListMapper;
     private final TppInfoRepository tppInfoRepository;
     private final TppInfoMapper tppInfoMapper;
+    private final CacheVersionService cacheVersionService;
 
     @NotNull
     @Override
@@ -64,6 +66,7 @@ public class CmsAspspTppServiceInternal implements CmsAspspTppService {
         entityToBeBlocked.block(lockPeriod);
 
         stopListRepository.save(entityToBeBlocked);
+        cacheVersionService.registerChange(CacheRegion.TPP_STOP_LIST);
         return true;
     }
 
@@ -77,6 +80,7 @@ public class CmsAspspTppServiceInternal implements CmsAspspTppService {
             entityToBeUnblocked.unblock();
 
             stopListRepository.save(entityToBeUnblocked);
+            cacheVersionService.registerChange(CacheRegion.TPP_STOP_LIST);
         }
         return true;
     }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service;
+
+import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Statuses of consents and payments, that are not changed anymore, as used by archival and retention of CMS data
+ */
+public final class FinalisedStatuses {
+    public static final Set<ConsentStatus> CONSENT_STATUSES = Collections.unmodifiableSet(
+        Arrays.stream(ConsentStatus.values())
+            .filter(ConsentStatus::isFinalisedStatus)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(ConsentStatus.class))));
+    public static final Set<TransactionStatus> TRANSACTION_STATUSES = Collections.unmodifiableSet(
+        Arrays.stream(TransactionStatus.values())
+            .filter(TransactionStatus::isFinalisedStatus)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(TransactionStatus.class))));
+
+    private FinalisedStatuses() {
+    }
+}
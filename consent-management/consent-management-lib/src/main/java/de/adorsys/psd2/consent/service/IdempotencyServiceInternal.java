@@ -0,0 +1,165 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service;
+
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyKey;
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyReservation;
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyStatus;
+import de.adorsys.psd2.consent.api.idempotency.IdempotentResponse;
+import de.adorsys.psd2.consent.api.service.IdempotencyService;
+import de.adorsys.psd2.consent.domain.IdempotencyRecordEntity;
+import de.adorsys.psd2.consent.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+/**
+ * Stores the records of idempotent requests.
+ * <p>
+ * Concurrent reservations of the same request are resolved by the unique constraint of the record and by optimistic
+ * locking, so exactly one caller gets the request reserved. A reservation is considered to be abandoned after
+ * {@code cms.idempotency.lock-timeout-seconds}, records expire {@code cms.idempotency.ttl-seconds} after their
+ * reservation or completion and are removed by {@link de.adorsys.psd2.consent.service.scheduler.IdempotencyScheduleTask}.
+ */
+@Slf4j
+@Service
+public class IdempotencyServiceInternal implements IdempotencyService {
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final JsonConverterService jsonConverterService;
+    private final Duration lockTimeout;
+    private final Duration ttl;
+
+    @Value("${cms.service.instance-id:UNDEFINED}")
+    private String serviceInstanceId;
+
+    public IdempotencyServiceInternal(IdempotencyRecordRepository idempotencyRecordRepository, JsonConverterService jsonConverterService,
+                                      @Value("${cms.idempotency.lock-timeout-seconds:60}") long lockTimeoutSeconds,
+                                      @Value("${cms.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.jsonConverterService = jsonConverterService;
+        this.lockTimeout = Duration.ofSeconds(lockTimeoutSeconds);
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    @Override
+    public IdempotencyReservation reserve(IdempotencyKey idempotencyKey) {
+        Optional<IdempotencyRecordEntity> existingRecord = findRecord(idempotencyKey);
+        if (!existingRecord.isPresent()) {
+            try {
+                idempotencyRecordRepository.save(newRecord(idempotencyKey));
+                return IdempotencyReservation.reserved();
+            } catch (DataIntegrityViolationException e) {
+                // the same request has been reserved concurrently
+                existingRecord = findRecord(idempotencyKey);
+                if (!existingRecord.isPresent()) {
+                    return IdempotencyReservation.inProgress();
+                }
+            }
+        }
+
+        IdempotencyRecordEntity record = existingRecord.get();
+        OffsetDateTime now = OffsetDateTime.now();
+        if (record.isExpired(now) || record.isLockExpired(now)) {
+            return takeOver(record, now);
+        }
+
+        if (record.getStatus() == IdempotencyStatus.COMPLETED) {
+            return Optional.ofNullable(record.getResponse())
+                       .flatMap(response -> jsonConverterService.toObject(response, IdempotentResponse.class))
+                       .map(IdempotencyReservation::completed)
+                       .orElseGet(() -> takeOver(record, now));
+        }
+
+        return IdempotencyReservation.inProgress();
+    }
+
+    @Override
+    public boolean complete(IdempotencyKey idempotencyKey, IdempotentResponse response) {
+        Optional<IdempotencyRecordEntity> recordOptional = findRecord(idempotencyKey);
+        Optional<byte[]> responseBytes = jsonConverterService.toJsonBytes(response);
+        if (!recordOptional.isPresent() || !responseBytes.isPresent()) {
+            log.info("X-Request-ID: [{}]. Idempotent request can't be completed, because its reservation is not found", idempotencyKey.getXRequestId());
+            return false;
+        }
+
+        IdempotencyRecordEntity record = recordOptional.get();
+        record.setStatus(IdempotencyStatus.COMPLETED);
+        record.setResponse(responseBytes.get());
+        record.setExpirationTimestamp(OffsetDateTime.now().plus(ttl));
+        try {
+            idempotencyRecordRepository.save(record);
+            return true;
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.info("X-Request-ID: [{}]. Idempotent request can't be completed, because it has been taken over by another request", idempotencyKey.getXRequestId());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean release(IdempotencyKey idempotencyKey) {
+        Optional<IdempotencyRecordEntity> recordOptional = findRecord(idempotencyKey)
+                                                               .filter(r -> r.getStatus() == IdempotencyStatus.IN_PROGRESS);
+        if (!recordOptional.isPresent()) {
+            return false;
+        }
+
+        try {
+            idempotencyRecordRepository.delete(recordOptional.get());
+            return true;
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return false;
+        }
+    }
+
+    private Optional<IdempotencyRecordEntity> findRecord(IdempotencyKey idempotencyKey) {
+        return idempotencyRecordRepository.findByTppAuthorisationNumberAndXRequestIdAndBodyDigestAndInstanceId(idempotencyKey.getTppId(), idempotencyKey.getXRequestId(),
+                                                                                                              idempotencyKey.getBodyDigest(), serviceInstanceId);
+    }
+
+    private IdempotencyReservation takeOver(IdempotencyRecordEntity record, OffsetDateTime now) {
+        record.setStatus(IdempotencyStatus.IN_PROGRESS);
+        record.setResponse(null);
+        record.setLockExpirationTimestamp(now.plus(lockTimeout));
+        record.setExpirationTimestamp(now.plus(ttl));
+        try {
+            idempotencyRecordRepository.save(record);
+            return IdempotencyReservation.reserved();
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // the record has been taken over concurrently
+            return IdempotencyReservation.inProgress();
+        }
+    }
+
+    private IdempotencyRecordEntity newRecord(IdempotencyKey idempotencyKey) {
+        OffsetDateTime now = OffsetDateTime.now();
+        IdempotencyRecordEntity record = new IdempotencyRecordEntity();
+        record.setTppAuthorisationNumber(idempotencyKey.getTppId());
+        record.setXRequestId(idempotencyKey.getXRequestId());
+        record.setBodyDigest(idempotencyKey.getBodyDigest());
+        record.setInstanceId(serviceInstanceId);
+        record.setStatus(IdempotencyStatus.IN_PROGRESS);
+        record.setLockExpirationTimestamp(now.plus(lockTimeout));
+        record.setExpirationTimestamp(now.plus(ttl));
+        return record;
+    }
+}
@@ -102,7 +102,7 @@ public class PisCommonPaymentServiceInternal implements PisCommonPaymentService
     @Override
     @Transactional
     public Optional<TransactionStatus> getPisCommonPaymentStatusById(String paymentId) {
-        return pisCommonPaymentDataRepository.findByPaymentId(paymentId)
+        return pisCommonPaymentDataRepository.findForStatusByPaymentId(paymentId)
                    .map(pisCommonPaymentConfirmationExpirationService::checkAndUpdatePaymentDataOnConfirmationExpiration)
                    .map(PisCommonPaymentData::getTransactionStatus);
     }
@@ -116,7 +116,7 @@ public class PisCommonPaymentServiceInternal implements PisCommonPaymentService
     @Override
     @Transactional
     public Optional<PisCommonPaymentResponse> getCommonPaymentById(String paymentId) {
-        return pisCommonPaymentDataRepository.findByPaymentId(paymentId)
+        return pisCommonPaymentDataRepository.findDistinctForFullReadByPaymentId(paymentId)
                    .map(pisCommonPaymentConfirmationExpirationService::checkAndUpdatePaymentDataOnConfirmationExpiration)
                    .flatMap(pisCommonPaymentMapper::mapToPisCommonPaymentResponse);
     }
@@ -131,7 +131,7 @@ public class PisCommonPaymentServiceInternal implements PisCommonPaymentService
     @Override
     @Transactional
     public Optional<Boolean> updateCommonPaymentStatusById(String paymentId, TransactionStatus status) {
-        return pisCommonPaymentDataRepository.findByPaymentId(paymentId)
+        return pisCommonPaymentDataRepository.findForStatusByPaymentId(paymentId)
                    .map(pisCommonPaymentConfirmationExpirationService::checkAndUpdatePaymentDataOnConfirmationExpiration)
                    .filter(pm -> !pm.getTransactionStatus().isFinalisedStatus())
                    .map(pmt -> setStatusAndSaveCommonPaymentData(pmt, status))
@@ -394,7 +394,7 @@ public class PisCommonPaymentServiceInternal implements PisCommonPaymentService
                                                                .filter(CollectionUtils::isNotEmpty)
                                                                .map(list -> list.get(0).getPaymentData());
         if (!commonPaymentData.isPresent()) {
-            commonPaymentData = pisCommonPaymentDataRepository.findByPaymentId(paymentId);
+            commonPaymentData = pisCommonPaymentDataRepository.findDistinctForAuthorisationByPaymentId(paymentId);
         }
 
         return commonPaymentData;
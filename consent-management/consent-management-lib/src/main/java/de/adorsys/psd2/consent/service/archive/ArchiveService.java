@@ -0,0 +1,146 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.archive;
+
+import de.adorsys.psd2.consent.api.ais.AisAccountConsent;
+import de.adorsys.psd2.consent.api.pis.CmsPayment;
+import de.adorsys.psd2.consent.domain.account.AisConsent;
+import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
+import de.adorsys.psd2.consent.repository.AisConsentArchiveRepository;
+import de.adorsys.psd2.consent.repository.AisConsentRepository;
+import de.adorsys.psd2.consent.repository.PisCommonPaymentArchiveRepository;
+import de.adorsys.psd2.consent.repository.PisCommonPaymentDataRepository;
+import de.adorsys.psd2.consent.service.FinalisedStatuses;
+import de.adorsys.psd2.consent.service.mapper.AisConsentMapper;
+import de.adorsys.psd2.consent.service.mapper.ArchiveMapper;
+import de.adorsys.psd2.consent.service.mapper.CmsPsuPisMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.time.OffsetDateTime;
+import java.util.*;
+
+/**
+ * Moves AIS consents and payments in finalised status to the archive tables and reads them from there.
+ * <p>
+ * Records are archived in batches, every batch is archived in its own transaction: the archived copies are inserted
+ * and the records are removed with all their dependent records (authorisations, usages, PSU data, TPP info, payment
+ * data). As archived records do not match the archival criteria anymore, an interrupted archival is simply continued
+ * by the next batch.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ArchiveService {
+    private final EntityManager entityManager;
+    private final AisConsentRepository aisConsentRepository;
+    private final AisConsentArchiveRepository aisConsentArchiveRepository;
+    private final PisCommonPaymentDataRepository pisCommonPaymentDataRepository;
+    private final PisCommonPaymentArchiveRepository pisCommonPaymentArchiveRepository;
+    private final AisConsentMapper aisConsentMapper;
+    private final CmsPsuPisMapper cmsPsuPisMapper;
+    private final ArchiveMapper archiveMapper;
+
+    /**
+     * Archives one batch of AIS consents in finalised status, which have not been changed since given date-time
+     *
+     * @param changedBefore date-time of the last status change (or creation), before which consents are archived
+     * @param batchSize     maximum number of consents to archive
+     * @return number of archived consents, is less than the batch size if there are no more consents to archive
+     */
+    @Transactional
+    public int archiveAisConsents(@NotNull OffsetDateTime changedBefore, int batchSize) {
+        List<Long> ids = aisConsentRepository.findIdsForArchival(FinalisedStatuses.CONSENT_STATUSES, changedBefore, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<AisConsent> consents = new ArrayList<>();
+        aisConsentRepository.findAllById(ids).forEach(consents::add);
+        List<AisAccountConsent> accountConsents = aisConsentMapper.mapToAisAccountConsentList(consents);
+
+        OffsetDateTime archiveTimestamp = OffsetDateTime.now();
+        for (int i = 0; i < consents.size(); i++) {
+            entityManager.persist(archiveMapper.mapToAisConsentArchive(consents.get(i), accountConsents.get(i), archiveTimestamp));
+        }
+        // authorisations are removed as orphans, usages, PSU data and TPP info by cascade
+        aisConsentRepository.deleteAll(consents);
+
+        log.info("Archived {} AIS consents in finalised status changed before {}", consents.size(), changedBefore);
+        return consents.size();
+    }
+
+    /**
+     * Archives one batch of payments in finalised status, which have not been changed since given date-time
+     *
+     * @param changedBefore date-time of the last status change (or creation), before which payments are archived
+     * @param batchSize     maximum number of payments to archive
+     * @return number of archived payments, is less than the batch size if there are no more payments to archive
+     */
+    @Transactional
+    public int archivePayments(@NotNull OffsetDateTime changedBefore, int batchSize) {
+        List<Long> ids = pisCommonPaymentDataRepository.findIdsForArchival(FinalisedStatuses.TRANSACTION_STATUSES, changedBefore, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<PisCommonPaymentData> payments = new ArrayList<>();
+        pisCommonPaymentDataRepository.findAllById(ids).forEach(payments::add);
+        List<CmsPayment> cmsPayments = cmsPsuPisMapper.mapPaymentDataToCmsPayments(payments);
+
+        OffsetDateTime archiveTimestamp = OffsetDateTime.now();
+        for (int i = 0; i < payments.size(); i++) {
+            entityManager.persist(archiveMapper.mapToPisCommonPaymentArchive(payments.get(i), cmsPayments.get(i), archiveTimestamp));
+        }
+        // authorisations, payment data, PSU data and TPP info are removed by cascade
+        pisCommonPaymentDataRepository.deleteAll(payments);
+
+        log.info("Archived {} payments in finalised status changed before {}", payments.size(), changedBefore);
+        return payments.size();
+    }
+
+    /**
+     * Reads archived AIS consent
+     *
+     * @param consentId  external ID of the consent
+     * @param instanceId ID of particular service instance
+     * @return archived AIS consent, if the consent with given ID has been archived
+     */
+    @Transactional(readOnly = true)
+    public Optional<AisAccountConsent> getAisConsent(@NotNull String consentId, @NotNull String instanceId) {
+        return aisConsentArchiveRepository.findByExternalIdAndInstanceId(consentId, instanceId)
+                   .flatMap(archiveMapper::mapToAisAccountConsent);
+    }
+
+    /**
+     * Reads archived payment
+     *
+     * @param paymentId  external ID of the payment
+     * @param instanceId ID of particular service instance
+     * @return archived payment, if the payment with given ID has been archived
+     */
+    @Transactional(readOnly = true)
+    public Optional<CmsPayment> getPayment(@NotNull String paymentId, @NotNull String instanceId) {
+        return pisCommonPaymentArchiveRepository.findByPaymentIdAndInstanceId(paymentId, instanceId)
+                   .flatMap(archiveMapper::mapToCmsPayment);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.archive;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of the archival of AIS consents and payments since the start of the application, e.g. to be published as
+ * metrics
+ */
+@Component
+public class ArchiveStatistics {
+    private final AtomicLong archivedAisConsents = new AtomicLong();
+    private final AtomicLong archivedPayments = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    private volatile OffsetDateTime lastRunFinish;
+    private volatile long lastRunDurationMs;
+    private volatile boolean lastRunComplete;
+
+    public void recordArchivedAisConsents(int count) {
+        archivedAisConsents.addAndGet(count);
+    }
+
+    public void recordArchivedPayments(int count) {
+        archivedPayments.addAndGet(count);
+    }
+
+    public void recordFailedBatch() {
+        failedBatches.incrementAndGet();
+    }
+
+    /**
+     * Records finished archival run
+     *
+     * @param start    start of the run
+     * @param finish   end of the run
+     * @param complete <code>false</code> if records eligible for archival have been left for the next run
+     */
+    public void recordRun(OffsetDateTime start, OffsetDateTime finish, boolean complete) {
+        lastRunDurationMs = Duration.between(start, finish).toMillis();
+        lastRunComplete = complete;
+        lastRunFinish = finish;
+    }
+
+    public long getArchivedAisConsents() {
+        return archivedAisConsents.get();
+    }
+
+    public long getArchivedPayments() {
+        return archivedPayments.get();
+    }
+
+    public long getFailedBatches() {
+        return failedBatches.get();
+    }
+
+    @Nullable
+    public OffsetDateTime getLastRunFinish() {
+        return lastRunFinish;
+    }
+
+    public long getLastRunDurationMs() {
+        return lastRunDurationMs;
+    }
+
+    public boolean isLastRunComplete() {
+        return lastRunComplete;
+    }
+}
@@ -17,71 +17,98 @@
 package de.adorsys.psd2.consent.service.aspsp;
 
 import de.adorsys.psd2.consent.api.ais.AisAccountConsent;
+import de.adorsys.psd2.consent.aspsp.api.ExportPage;
 import de.adorsys.psd2.consent.aspsp.api.ais.CmsAspspAisExportService;
-import de.adorsys.psd2.consent.repository.AisConsentRepository;
+import de.adorsys.psd2.consent.domain.account.AisConsent;
+import de.adorsys.psd2.consent.domain.account.AisConsentArchive;
+import de.adorsys.psd2.consent.repository.specification.AisConsentArchiveSpecification;
 import de.adorsys.psd2.consent.repository.specification.AisConsentSpecification;
 import de.adorsys.psd2.consent.service.mapper.AisConsentMapper;
+import de.adorsys.psd2.consent.service.mapper.ArchiveMapper;
 import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.stream.Collectors;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CmsAspspAisExportServiceInternal implements CmsAspspAisExportService {
     private final AisConsentSpecification aisConsentSpecification;
-    private final AisConsentRepository aisConsentRepository;
     private final AisConsentMapper aisConsentMapper;
+    private final ExportQueryExecutor exportQueryExecutor;
+    private final AisConsentArchiveSpecification aisConsentArchiveSpecification;
+    private final ArchiveMapper archiveMapper;
 
     @Override
     public Collection<AisAccountConsent> exportConsentsByTpp(String tppAuthorisationNumber,
                                                              @Nullable LocalDate createDateFrom,
                                                              @Nullable LocalDate createDateTo,
                                                              @Nullable PsuIdData psuIdData, @NotNull String instanceId) {
-        if (StringUtils.isBlank(tppAuthorisationNumber) || StringUtils.isBlank(instanceId)) {
-            log.info("TPP ID: [{}], InstanceId: [{}]. Export Consents by TPP: Some of these two values are empty", tppAuthorisationNumber, instanceId);
-            return Collections.emptyList();
-        }
+        return byTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId)
+                   .map(this::findAll)
+                   .orElseGet(Collections::emptyList);
+    }
 
-        return aisConsentRepository.findAll(aisConsentSpecification.byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(
-            tppAuthorisationNumber,
-            createDateFrom,
-            createDateTo,
-            psuIdData,
-            instanceId
-        ))
-                   .stream()
-                   .map(aisConsentMapper::mapToAisAccountConsent)
-                   .collect(Collectors.toList());
+    @Override
+    public ExportPage<AisAccountConsent> exportConsentsByTpp(String tppAuthorisationNumber,
+                                                             @Nullable LocalDate createDateFrom,
+                                                             @Nullable LocalDate createDateTo,
+                                                             @Nullable PsuIdData psuIdData, @NotNull String instanceId,
+                                                             @Nullable String cursor, int pageSize) {
+        return byTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId)
+                   .map(s -> findPage(s, cursor, pageSize))
+                   .orElseGet(() -> new ExportPage<>(Collections.emptyList(), null));
+    }
+
+    @Override
+    public Stream<AisAccountConsent> streamConsentsByTpp(String tppAuthorisationNumber,
+                                                         @Nullable LocalDate createDateFrom,
+                                                         @Nullable LocalDate createDateTo,
+                                                         @Nullable PsuIdData psuIdData, @NotNull String instanceId) {
+        return byTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId)
+                   .map(this::stream)
+                   .orElseGet(Stream::empty);
     }
 
     @Override
     public Collection<AisAccountConsent> exportConsentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom,
                                                              @Nullable LocalDate createDateTo,
                                                              @NotNull String instanceId) {
-        if (psuIdData == null || psuIdData.isEmpty() || StringUtils.isBlank(instanceId)) {
-            log.info("InstanceId: [{}]. Export consents by Psu failed, psuIdData or instanceId is empty or null.",
-                     instanceId);
-            return Collections.emptyList();
-        }
+        return byPsu(psuIdData, createDateFrom, createDateTo, instanceId)
+                   .map(this::findAll)
+                   .orElseGet(Collections::emptyList);
+    }
+
+    @Override
+    public ExportPage<AisAccountConsent> exportConsentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom,
+                                                             @Nullable LocalDate createDateTo,
+                                                             @NotNull String instanceId,
+                                                             @Nullable String cursor, int pageSize) {
+        return byPsu(psuIdData, createDateFrom, createDateTo, instanceId)
+                   .map(s -> findPage(s, cursor, pageSize))
+                   .orElseGet(() -> new ExportPage<>(Collections.emptyList(), null));
+    }
 
-        return aisConsentRepository.findAll(aisConsentSpecification.byPsuIdDataAndCreationPeriodAndInstanceId(psuIdData,
-                                                                                                              createDateFrom,
-                                                                                                              createDateTo,
-                                                                                                              instanceId
-        ))
-                   .stream()
-                   .map(aisConsentMapper::mapToAisAccountConsent)
-                   .collect(Collectors.toList());
+    @Override
+    public Stream<AisAccountConsent> streamConsentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom,
+                                                         @Nullable LocalDate createDateTo,
+                                                         @NotNull String instanceId) {
+        return byPsu(psuIdData, createDateFrom, createDateTo, instanceId)
+                   .map(this::stream)
+                   .orElseGet(Stream::empty);
     }
 
     @Override
@@ -89,20 +116,91 @@ public class CmsAspspAisExportServiceInternal implements CmsAspspAisExportServic
                                                                    @Nullable LocalDate createDateFrom,
                                                                    @Nullable LocalDate createDateTo,
                                                                    @NotNull String instanceId) {
+        return byAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId)
+                   .map(this::findAll)
+                   .orElseGet(Collections::emptyList);
+    }
+
+    @Override
+    public ExportPage<AisAccountConsent> exportConsentsByAccountId(@NotNull String aspspAccountId,
+                                                                   @Nullable LocalDate createDateFrom,
+                                                                   @Nullable LocalDate createDateTo,
+                                                                   @NotNull String instanceId,
+                                                                   @Nullable String cursor, int pageSize) {
+        return byAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId)
+                   .map(s -> findPage(s, cursor, pageSize))
+                   .orElseGet(() -> new ExportPage<>(Collections.emptyList(), null));
+    }
+
+    @Override
+    public Stream<AisAccountConsent> streamConsentsByAccountId(@NotNull String aspspAccountId,
+                                                               @Nullable LocalDate createDateFrom,
+                                                               @Nullable LocalDate createDateTo,
+                                                               @NotNull String instanceId) {
+        return byAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId)
+                   .map(this::stream)
+                   .orElseGet(Stream::empty);
+    }
 
+    private Optional<List<ExportSource<?, AisAccountConsent>>> byTpp(String tppAuthorisationNumber,
+                                                                     @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                                                     @Nullable PsuIdData psuIdData, String instanceId) {
+        if (StringUtils.isBlank(tppAuthorisationNumber) || StringUtils.isBlank(instanceId)) {
+            log.info("TPP ID: [{}], InstanceId: [{}]. Export Consents by TPP: Some of these two values are empty", tppAuthorisationNumber, instanceId);
+            return Optional.empty();
+        }
+
+        return Optional.of(sources(
+            aisConsentSpecification.byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId),
+            aisConsentArchiveSpecification.byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId)
+        ));
+    }
+
+    private Optional<List<ExportSource<?, AisAccountConsent>>> byPsu(PsuIdData psuIdData,
+                                                                     @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                                                     String instanceId) {
+        if (psuIdData == null || psuIdData.isEmpty() || StringUtils.isBlank(instanceId)) {
+            log.info("InstanceId: [{}]. Export consents by Psu failed, psuIdData or instanceId is empty or null.",
+                     instanceId);
+            return Optional.empty();
+        }
+
+        return Optional.of(sources(
+            aisConsentSpecification.byPsuIdDataAndCreationPeriodAndInstanceId(psuIdData, createDateFrom, createDateTo, instanceId),
+            aisConsentArchiveSpecification.byPsuIdDataAndCreationPeriodAndInstanceId(psuIdData, createDateFrom, createDateTo, instanceId)
+        ));
+    }
+
+    private Optional<List<ExportSource<?, AisAccountConsent>>> byAccountId(String aspspAccountId,
+                                                                           @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                                                           String instanceId) {
         if (StringUtils.isBlank(instanceId)) {
             log.info("InstanceId: [{}], aspspAccountId: [{}]. Export consents by accountId failed, instanceId is empty or null.",
                      instanceId, aspspAccountId);
-            return Collections.emptyList();
+            return Optional.empty();
         }
 
-        return aisConsentRepository.findAll(aisConsentSpecification.byAspspAccountIdAndCreationPeriodAndInstanceId(aspspAccountId,
-                                                                                                                   createDateFrom,
-                                                                                                                   createDateTo,
-                                                                                                                   instanceId
-        ))
-                   .stream()
-                   .map(aisConsentMapper::mapToAisAccountConsent)
-                   .collect(Collectors.toList());
+        return Optional.of(sources(
+            aisConsentSpecification.byAspspAccountIdAndCreationPeriodAndInstanceId(aspspAccountId, createDateFrom, createDateTo, instanceId),
+            aisConsentArchiveSpecification.byAspspAccountIdAndCreationPeriodAndInstanceId(aspspAccountId, createDateFrom, createDateTo, instanceId)
+        ));
+    }
+
+    private List<ExportSource<?, AisAccountConsent>> sources(Specification<AisConsent> specification,
+                                                             Specification<AisConsentArchive> archiveSpecification) {
+        return Arrays.asList(new ExportSource<>(AisConsent.class, specification, aisConsentMapper::mapToAisAccountConsentList),
+                             new ExportSource<>(AisConsentArchive.class, archiveSpecification, archiveMapper::mapToAisAccountConsentList));
+    }
+
+    private Collection<AisAccountConsent> findAll(List<ExportSource<?, AisAccountConsent>> sources) {
+        return exportQueryExecutor.findAll(sources);
+    }
+
+    private ExportPage<AisAccountConsent> findPage(List<ExportSource<?, AisAccountConsent>> sources, @Nullable String cursor, int pageSize) {
+        return exportQueryExecutor.findPage(sources, cursor, pageSize);
+    }
+
+    private Stream<AisAccountConsent> stream(List<ExportSource<?, AisAccountConsent>> sources) {
+        return exportQueryExecutor.stream(sources);
     }
 }
@@ -16,9 +16,9 @@
 
 package de.adorsys.psd2.consent.service.aspsp;
 
+import de.adorsys.psd2.consent.aspsp.api.ExportPage;
 import de.adorsys.psd2.consent.aspsp.api.piis.CmsAspspPiisFundsExportService;
 import de.adorsys.psd2.consent.domain.piis.PiisConsentEntity;
-import de.adorsys.psd2.consent.repository.PiisConsentRepository;
 import de.adorsys.psd2.consent.repository.specification.PiisConsentEntitySpecification;
 import de.adorsys.psd2.consent.service.mapper.PiisConsentMapper;
 import de.adorsys.psd2.xs2a.core.piis.PiisConsent;
@@ -28,12 +28,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -41,54 +43,159 @@ import java.util.List;
 public class CmsAspspPiisFundsExportServiceInternal implements CmsAspspPiisFundsExportService {
     private static final String DEFAULT_SERVICE_INSTANCE_ID = "UNDEFINED";
 
-    private final PiisConsentRepository piisConsentRepository;
     private final PiisConsentEntitySpecification piisConsentEntitySpecification;
     private final PiisConsentMapper piisConsentMapper;
+    private final ExportQueryExecutor exportQueryExecutor;
 
     @Override
     public Collection<PiisConsent> exportConsentsByTpp(String tppAuthorisationNumber,
                                                        @Nullable LocalDate createDateFrom,
-                                                       @Nullable LocalDate createDateTo, @Nullable PsuIdData psuIdData,
+                                                       @Nullable LocalDate createDateTo,
+                                                       @Nullable PsuIdData psuIdData, @Nullable String instanceId) {
+        return byTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId)
+                   .map(this::findAll)
+                   .orElseGet(Collections::emptyList);
+    }
+
+    @Override
+    public ExportPage<PiisConsent> exportConsentsByTpp(String tppAuthorisationNumber,
+                                                       @Nullable LocalDate createDateFrom,
+                                                       @Nullable LocalDate createDateTo,
+                                                       @Nullable PsuIdData psuIdData, @Nullable String instanceId,
+                                                       @Nullable String cursor, int pageSize) {
+        return byTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId)
+                   .map(s -> findPage(s, cursor, pageSize))
+                   .orElseGet(() -> new ExportPage<>(Collections.emptyList(), null));
+    }
+
+    @Override
+    public Stream<PiisConsent> streamConsentsByTpp(String tppAuthorisationNumber,
+                                                   @Nullable LocalDate createDateFrom,
+                                                   @Nullable LocalDate createDateTo,
+                                                   @Nullable PsuIdData psuIdData, @Nullable String instanceId) {
+        return byTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId)
+                   .map(this::stream)
+                   .orElseGet(Stream::empty);
+    }
+
+    @Override
+    public Collection<PiisConsent> exportConsentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom,
+                                                       @Nullable LocalDate createDateTo,
                                                        @Nullable String instanceId) {
+        return byPsu(psuIdData, createDateFrom, createDateTo, instanceId)
+                   .map(this::findAll)
+                   .orElseGet(Collections::emptyList);
+    }
+
+    @Override
+    public ExportPage<PiisConsent> exportConsentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom,
+                                                       @Nullable LocalDate createDateTo,
+                                                       @Nullable String instanceId,
+                                                       @Nullable String cursor, int pageSize) {
+        return byPsu(psuIdData, createDateFrom, createDateTo, instanceId)
+                   .map(s -> findPage(s, cursor, pageSize))
+                   .orElseGet(() -> new ExportPage<>(Collections.emptyList(), null));
+    }
+
+    @Override
+    public Stream<PiisConsent> streamConsentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom,
+                                                   @Nullable LocalDate createDateTo,
+                                                   @Nullable String instanceId) {
+        return byPsu(psuIdData, createDateFrom, createDateTo, instanceId)
+                   .map(this::stream)
+                   .orElseGet(Stream::empty);
+    }
+
+    @Override
+    public Collection<PiisConsent> exportConsentsByAccountId(@NotNull String aspspAccountId,
+                                                             @Nullable LocalDate createDateFrom,
+                                                             @Nullable LocalDate createDateTo,
+                                                             @Nullable String instanceId) {
+        return byAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId)
+                   .map(this::findAll)
+                   .orElseGet(Collections::emptyList);
+    }
+
+    @Override
+    public ExportPage<PiisConsent> exportConsentsByAccountId(@NotNull String aspspAccountId,
+                                                             @Nullable LocalDate createDateFrom,
+                                                             @Nullable LocalDate createDateTo,
+                                                             @Nullable String instanceId,
+                                                             @Nullable String cursor, int pageSize) {
+        return byAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId)
+                   .map(s -> findPage(s, cursor, pageSize))
+                   .orElseGet(() -> new ExportPage<>(Collections.emptyList(), null));
+    }
+
+    @Override
+    public Stream<PiisConsent> streamConsentsByAccountId(@NotNull String aspspAccountId,
+                                                         @Nullable LocalDate createDateFrom,
+                                                         @Nullable LocalDate createDateTo,
+                                                         @Nullable String instanceId) {
+        return byAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId)
+                   .map(this::stream)
+                   .orElseGet(Stream::empty);
+    }
+
+    private Optional<Specification<PiisConsentEntity>> byTpp(String tppAuthorisationNumber,
+                                                             @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                                             @Nullable PsuIdData psuIdData, @Nullable String instanceId) {
         if (StringUtils.isBlank(tppAuthorisationNumber)) {
             log.info("TPP ID: [{}], instanceId: [{}]. Export consents by TPP failed, TPP ID is empty or null.",
                      tppAuthorisationNumber, instanceId);
-            return Collections.emptyList();
+            return Optional.empty();
         }
 
         String actualInstanceId = StringUtils.defaultIfEmpty(instanceId, DEFAULT_SERVICE_INSTANCE_ID);
 
-        List<PiisConsentEntity> piisConsentEntities = piisConsentRepository.findAll(piisConsentEntitySpecification.byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, actualInstanceId));
-        return piisConsentMapper.mapToPiisConsentList(piisConsentEntities);
+        return Optional.ofNullable(piisConsentEntitySpecification.byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(tppAuthorisationNumber,
+                                                                                                                    createDateFrom,
+                                                                                                                    createDateTo,
+                                                                                                                    psuIdData,
+                                                                                                                    actualInstanceId));
     }
 
-    @Override
-    public Collection<PiisConsent> exportConsentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom,
-                                                       @Nullable LocalDate createDateTo, @Nullable String instanceId) {
+    private Optional<Specification<PiisConsentEntity>> byPsu(PsuIdData psuIdData,
+                                                             @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                                             @Nullable String instanceId) {
         if (psuIdData == null || psuIdData.isEmpty()) {
             log.info("InstanceId: [{}]. Export consents by psu failed, psuIdData is empty or null.", instanceId);
-            return Collections.emptyList();
+            return Optional.empty();
         }
 
         String actualInstanceId = StringUtils.defaultIfEmpty(instanceId, DEFAULT_SERVICE_INSTANCE_ID);
 
-        List<PiisConsentEntity> piisConsentEntities = piisConsentRepository.findAll(piisConsentEntitySpecification.byPsuIdDataAndCreationPeriodAndInstanceId(psuIdData, createDateFrom, createDateTo, actualInstanceId));
-        return piisConsentMapper.mapToPiisConsentList(piisConsentEntities);
+        return Optional.ofNullable(piisConsentEntitySpecification.byPsuIdDataAndCreationPeriodAndInstanceId(psuIdData,
+                                                                                                            createDateFrom,
+                                                                                                            createDateTo,
+                                                                                                            actualInstanceId));
     }
 
-    @Override
-    public Collection<PiisConsent> exportConsentsByAccountId(@NotNull String aspspAccountId,
-                                                             @Nullable LocalDate createDateFrom,
-                                                             @Nullable LocalDate createDateTo,
-                                                             @Nullable String instanceId) {
+    private Optional<Specification<PiisConsentEntity>> byAccountId(String aspspAccountId,
+                                                                   @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                                                   @Nullable String instanceId) {
         if (StringUtils.isBlank(aspspAccountId)) {
             log.info("InstanceId: [{}]. Export consents by accountId failed, aspspAccountId is empty or null.", instanceId);
-            return Collections.emptyList();
+            return Optional.empty();
         }
 
         String actualInstanceId = StringUtils.defaultIfEmpty(instanceId, DEFAULT_SERVICE_INSTANCE_ID);
 
-        List<PiisConsentEntity> piisConsentEntities = piisConsentRepository.findAll(piisConsentEntitySpecification.byAspspAccountIdAndCreationPeriodAndInstanceId(aspspAccountId, createDateFrom, createDateTo, actualInstanceId));
-        return piisConsentMapper.mapToPiisConsentList(piisConsentEntities);
+        return Optional.ofNullable(piisConsentEntitySpecification.byAspspAccountIdAndCreationPeriodAndInstanceId(aspspAccountId,
+                                                                                                                 createDateFrom,
+                                                                                                                 createDateTo,
+                                                                                                                 actualInstanceId));
+    }
+
+    private Collection<PiisConsent> findAll(Specification<PiisConsentEntity> specification) {
+        return exportQueryExecutor.findAll(PiisConsentEntity.class, specification, piisConsentMapper::mapToPiisConsentList);
+    }
+
+    private ExportPage<PiisConsent> findPage(Specification<PiisConsentEntity> specification, @Nullable String cursor, int pageSize) {
+        return exportQueryExecutor.findPage(PiisConsentEntity.class, specification, cursor, pageSize, piisConsentMapper::mapToPiisConsentList);
+    }
+
+    private Stream<PiisConsent> stream(Specification<PiisConsentEntity> specification) {
+        return exportQueryExecutor.stream(PiisConsentEntity.class, specification, piisConsentMapper::mapToPiisConsentList);
     }
 }
@@ -17,10 +17,13 @@
 package de.adorsys.psd2.consent.service.aspsp;
 
 import de.adorsys.psd2.consent.api.pis.CmsPayment;
+import de.adorsys.psd2.consent.aspsp.api.ExportPage;
 import de.adorsys.psd2.consent.aspsp.api.pis.CmsAspspPisExportService;
 import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
-import de.adorsys.psd2.consent.repository.PisCommonPaymentDataRepository;
+import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentArchive;
+import de.adorsys.psd2.consent.repository.specification.PisCommonPaymentArchiveSpecification;
 import de.adorsys.psd2.consent.repository.specification.PisCommonPaymentDataSpecification;
+import de.adorsys.psd2.consent.service.mapper.ArchiveMapper;
 import de.adorsys.psd2.consent.service.mapper.CmsPsuPisMapper;
 import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
 import lombok.RequiredArgsConstructor;
@@ -28,55 +31,177 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CmsAspspPisExportServiceInternal implements CmsAspspPisExportService {
     private final PisCommonPaymentDataSpecification pisCommonPaymentDataSpecification;
-    private final PisCommonPaymentDataRepository pisCommonPaymentDataRepository;
     private final CmsPsuPisMapper cmsPsuPisMapper;
+    private final ExportQueryExecutor exportQueryExecutor;
+    private final PisCommonPaymentArchiveSpecification pisCommonPaymentArchiveSpecification;
+    private final ArchiveMapper archiveMapper;
 
+    @Override
+    public Collection<CmsPayment> exportPaymentsByTpp(String tppAuthorisationNumber,
+                                                      @Nullable LocalDate createDateFrom,
+                                                      @Nullable LocalDate createDateTo,
+                                                      @Nullable PsuIdData psuIdData, @NotNull String instanceId) {
+        return byTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId)
+                   .map(this::findAll)
+                   .orElseGet(Collections::emptyList);
+    }
+
+    @Override
+    public ExportPage<CmsPayment> exportPaymentsByTpp(String tppAuthorisationNumber,
+                                                      @Nullable LocalDate createDateFrom,
+                                                      @Nullable LocalDate createDateTo,
+                                                      @Nullable PsuIdData psuIdData, @NotNull String instanceId,
+                                                      @Nullable String cursor, int pageSize) {
+        return byTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId)
+                   .map(s -> findPage(s, cursor, pageSize))
+                   .orElseGet(() -> new ExportPage<>(Collections.emptyList(), null));
+    }
+
+    @Override
+    public Stream<CmsPayment> streamPaymentsByTpp(String tppAuthorisationNumber,
+                                                  @Nullable LocalDate createDateFrom,
+                                                  @Nullable LocalDate createDateTo,
+                                                  @Nullable PsuIdData psuIdData, @NotNull String instanceId) {
+        return byTpp(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId)
+                   .map(this::stream)
+                   .orElseGet(Stream::empty);
+    }
+
+    @Override
+    public Collection<CmsPayment> exportPaymentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom,
+                                                      @Nullable LocalDate createDateTo,
+                                                      @NotNull String instanceId) {
+        return byPsu(psuIdData, createDateFrom, createDateTo, instanceId)
+                   .map(this::findAll)
+                   .orElseGet(Collections::emptyList);
+    }
+
+    @Override
+    public ExportPage<CmsPayment> exportPaymentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom,
+                                                      @Nullable LocalDate createDateTo,
+                                                      @NotNull String instanceId,
+                                                      @Nullable String cursor, int pageSize) {
+        return byPsu(psuIdData, createDateFrom, createDateTo, instanceId)
+                   .map(s -> findPage(s, cursor, pageSize))
+                   .orElseGet(() -> new ExportPage<>(Collections.emptyList(), null));
+    }
 
     @Override
-    public Collection<CmsPayment> exportPaymentsByTpp(String tppAuthorisationNumber, @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo, @Nullable PsuIdData psuIdData, @NotNull String instanceId) {
+    public Stream<CmsPayment> streamPaymentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom,
+                                                  @Nullable LocalDate createDateTo,
+                                                  @NotNull String instanceId) {
+        return byPsu(psuIdData, createDateFrom, createDateTo, instanceId)
+                   .map(this::stream)
+                   .orElseGet(Stream::empty);
+    }
+
+    @Override
+    public Collection<CmsPayment> exportPaymentsByAccountId(@NotNull String aspspAccountId,
+                                                            @Nullable LocalDate createDateFrom,
+                                                            @Nullable LocalDate createDateTo,
+                                                            @NotNull String instanceId) {
+        return byAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId)
+                   .map(this::findAll)
+                   .orElseGet(Collections::emptyList);
+    }
+
+    @Override
+    public ExportPage<CmsPayment> exportPaymentsByAccountId(@NotNull String aspspAccountId,
+                                                            @Nullable LocalDate createDateFrom,
+                                                            @Nullable LocalDate createDateTo,
+                                                            @NotNull String instanceId,
+                                                            @Nullable String cursor, int pageSize) {
+        return byAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId)
+                   .map(s -> findPage(s, cursor, pageSize))
+                   .orElseGet(() -> new ExportPage<>(Collections.emptyList(), null));
+    }
+
+    @Override
+    public Stream<CmsPayment> streamPaymentsByAccountId(@NotNull String aspspAccountId,
+                                                        @Nullable LocalDate createDateFrom,
+                                                        @Nullable LocalDate createDateTo,
+                                                        @NotNull String instanceId) {
+        return byAccountId(aspspAccountId, createDateFrom, createDateTo, instanceId)
+                   .map(this::stream)
+                   .orElseGet(Stream::empty);
+    }
+
+    private Optional<List<ExportSource<?, CmsPayment>>> byTpp(String tppAuthorisationNumber,
+                                                              @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                                              @Nullable PsuIdData psuIdData, String instanceId) {
         if (StringUtils.isBlank(tppAuthorisationNumber) || StringUtils.isBlank(instanceId)) {
             log.info("InstanceId: [{}], TPP ID: [{}]. Export payments by TPP failed, TPP ID or instanceId is empty or null.", instanceId,
                      tppAuthorisationNumber);
-            return Collections.emptyList();
+            return Optional.empty();
         }
 
-        List<PisCommonPaymentData> commonPayments = pisCommonPaymentDataRepository.findAll(pisCommonPaymentDataSpecification.byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId));
-        return cmsPsuPisMapper.mapPaymentDataToCmsPayments(commonPayments);
+        return Optional.of(sources(
+            pisCommonPaymentDataSpecification.byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId),
+            pisCommonPaymentArchiveSpecification.byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(tppAuthorisationNumber, createDateFrom, createDateTo, psuIdData, instanceId)
+        ));
     }
 
-    @Override
-    public Collection<CmsPayment> exportPaymentsByPsu(PsuIdData psuIdData, @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo, @NotNull String instanceId) {
+    private Optional<List<ExportSource<?, CmsPayment>>> byPsu(PsuIdData psuIdData,
+                                                              @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                                              String instanceId) {
         if (psuIdData == null || psuIdData.isEmpty() || StringUtils.isBlank(instanceId)) {
             log.info("InstanceId: [{}]. Export payments by psu failed, psuIdData or instanceId is empty or null.",
                      instanceId);
-            return Collections.emptyList();
+            return Optional.empty();
         }
 
-        List<PisCommonPaymentData> commonPayments = pisCommonPaymentDataRepository.findAll(pisCommonPaymentDataSpecification.byPsuIdDataAndCreationPeriodAndInstanceId(psuIdData, createDateFrom, createDateTo, instanceId));
-        return cmsPsuPisMapper.mapPaymentDataToCmsPayments(commonPayments);
+        return Optional.of(sources(
+            pisCommonPaymentDataSpecification.byPsuIdDataAndCreationPeriodAndInstanceId(psuIdData, createDateFrom, createDateTo, instanceId),
+            pisCommonPaymentArchiveSpecification.byPsuIdDataAndCreationPeriodAndInstanceId(psuIdData, createDateFrom, createDateTo, instanceId)
+        ));
     }
 
-    @Override
-    public Collection<CmsPayment> exportPaymentsByAccountId(@NotNull String aspspAccountId, @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo, @NotNull String instanceId) {
+    private Optional<List<ExportSource<?, CmsPayment>>> byAccountId(String aspspAccountId,
+                                                                    @Nullable LocalDate createDateFrom, @Nullable LocalDate createDateTo,
+                                                                    String instanceId) {
         if (StringUtils.isBlank(aspspAccountId) || StringUtils.isBlank(instanceId)) {
             log.info("InstanceId: [{}], aspspAccountId: [{}]. Export payments by accountId failed, aspspAccountId or instanceId is empty or null.",
                      instanceId, aspspAccountId);
-            return Collections.emptyList();
+            return Optional.empty();
         }
 
-        List<PisCommonPaymentData> commonPayments = pisCommonPaymentDataRepository.findAll(pisCommonPaymentDataSpecification.byAspspAccountIdAndCreationPeriodAndInstanceId(aspspAccountId, createDateFrom, createDateTo, instanceId));
-        return cmsPsuPisMapper.mapPaymentDataToCmsPayments(commonPayments);
+        return Optional.of(sources(
+            pisCommonPaymentDataSpecification.byAspspAccountIdAndCreationPeriodAndInstanceId(aspspAccountId, createDateFrom, createDateTo, instanceId),
+            pisCommonPaymentArchiveSpecification.byAspspAccountIdAndCreationPeriodAndInstanceId(aspspAccountId, createDateFrom, createDateTo, instanceId)
+        ));
+    }
+
+    private List<ExportSource<?, CmsPayment>> sources(Specification<PisCommonPaymentData> specification,
+                                                      Specification<PisCommonPaymentArchive> archiveSpecification) {
+        return Arrays.asList(new ExportSource<>(PisCommonPaymentData.class, specification, cmsPsuPisMapper::mapPaymentDataToCmsPayments),
+                             new ExportSource<>(PisCommonPaymentArchive.class, archiveSpecification, archiveMapper::mapToCmsPaymentList));
+    }
+
+    private Collection<CmsPayment> findAll(List<ExportSource<?, CmsPayment>> sources) {
+        return exportQueryExecutor.findAll(sources);
+    }
+
+    private ExportPage<CmsPayment> findPage(List<ExportSource<?, CmsPayment>> sources, @Nullable String cursor, int pageSize) {
+        return exportQueryExecutor.findPage(sources, cursor, pageSize);
+    }
+
+    private Stream<CmsPayment> stream(List<ExportSource<?, CmsPayment>> sources) {
+        return exportQueryExecutor.stream(sources);
     }
 }
@@ -0,0 +1,368 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.aspsp;
+
+import de.adorsys.psd2.consent.aspsp.api.ExportPage;
+import de.adorsys.psd2.consent.aspsp.api.InvalidExportParameterException;
+import de.adorsys.psd2.consent.aspsp.api.TooManyResultsException;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.collections4.ListUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.*;
+import javax.persistence.metamodel.Attribute;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static de.adorsys.psd2.consent.repository.specification.EntityAttribute.ID_ATTRIBUTE;
+
+/**
+ * Executes export queries of CMS in a bounded way.
+ * <p>
+ * Matching records are selected by their identifiers first, ordered by identifier and limited, so that the database does
+ * not need to materialise the whole result. The entities are then loaded in chunks of
+ * {@code cms.aspsp.export.stream-page-size} (at most 1000) records with their to-one associations fetched in the same query, are mapped
+ * by the given mapper within the read-only transaction and are detached afterwards, so that the persistence context
+ * never holds more than one chunk. Export queries are always executed in a new transaction, so that detaching the chunks
+ * doesn't affect entities of the caller's transaction.
+ */
+@Component
+public class ExportQueryExecutor {
+    private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder CURSOR_DECODER = Base64.getUrlDecoder();
+    private static final String CURSOR_SOURCE_SEPARATOR = ":";
+    private static final int MAX_STREAM_PAGE_SIZE = 1000;
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxResults;
+    private final int streamPageSize;
+    private final long streamMaxResults;
+
+    public ExportQueryExecutor(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                               @Value("${cms.aspsp.export.max-results:10000}") int maxResults,
+                               @Value("${cms.aspsp.export.stream-page-size:100}") int streamPageSize,
+                               @Value("${cms.aspsp.export.stream-max-results:1000000}") long streamMaxResults) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.maxResults = maxResults;
+        this.streamPageSize = Math.max(1, Math.min(streamPageSize, MAX_STREAM_PAGE_SIZE));
+        this.streamMaxResults = streamMaxResults;
+    }
+
+    /**
+     * Returns all records matching given specification
+     *
+     * @param entityClass   type of the exported entity
+     * @param specification export criteria
+     * @param mapper        mapper of one chunk of entities to the exported objects
+     * @param <E>           type of the exported entity
+     * @param <T>           type of the exported objects
+     * @return list of exported objects, ordered by entity identifier
+     * @throws TooManyResultsException if more than {@code cms.aspsp.export.max-results} records match the criteria
+     */
+    public <E, T> List<T> findAll(@NotNull Class<E> entityClass, @NotNull Specification<E> specification,
+                                  @NotNull Function<List<E>, List<T>> mapper) {
+        return findAll(Collections.singletonList(new ExportSource<>(entityClass, specification, mapper)));
+    }
+
+    /**
+     * Returns all records matching the criteria of given sources, records of one source follow the records of the
+     * previous one
+     *
+     * @param sources sources of exported records
+     * @param <T>     type of the exported objects
+     * @return list of exported objects, ordered by source and entity identifier
+     * @throws TooManyResultsException if more than {@code cms.aspsp.export.max-results} records match the criteria
+     */
+    public <T> List<T> findAll(@NotNull List<ExportSource<?, T>> sources) {
+        return transactionTemplate.execute(status -> {
+            List<T> result = new ArrayList<>();
+            for (ExportSource<?, T> source : sources) {
+                int remaining = maxResults - result.size();
+                List<Long> ids = findIds(source, null, remaining + 1);
+                if (ids.size() > remaining) {
+                    throw new TooManyResultsException("Export of " + sources.get(0).getEntityClass().getSimpleName()
+                                                          + " exceeds the limit of " + maxResults + " records");
+                }
+                result.addAll(loadAndMap(source, ids));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Returns one page of records matching given specification
+     *
+     * @param entityClass   type of the exported entity
+     * @param specification export criteria
+     * @param cursor        cursor of the previous page, <code>null</code> for the first page
+     * @param pageSize      maximum number of records on the page
+     * @param mapper        mapper of one chunk of entities to the exported objects
+     * @param <E>           type of the exported entity
+     * @param <T>           type of the exported objects
+     * @return page of exported objects with the cursor of the next page
+     * @throws TooManyResultsException         if the page size exceeds {@code cms.aspsp.export.max-results}
+     * @throws InvalidExportParameterException if the cursor is malformed or the page size is not positive
+     */
+    public <E, T> ExportPage<T> findPage(@NotNull Class<E> entityClass, @NotNull Specification<E> specification,
+                                         @Nullable String cursor, int pageSize,
+                                         @NotNull Function<List<E>, List<T>> mapper) {
+        return findPage(Collections.singletonList(new ExportSource<>(entityClass, specification, mapper)), cursor, pageSize);
+    }
+
+    /**
+     * Returns one page of records matching the criteria of given sources, records of one source follow the records of
+     * the previous one
+     *
+     * @param sources  sources of exported records
+     * @param cursor   cursor of the previous page, <code>null</code> for the first page
+     * @param pageSize maximum number of records on the page
+     * @param <T>      type of the exported objects
+     * @return page of exported objects with the cursor of the next page
+     * @throws TooManyResultsException         if the page size exceeds {@code cms.aspsp.export.max-results}
+     * @throws InvalidExportParameterException if the cursor is malformed or the page size is not positive
+     */
+    public <T> ExportPage<T> findPage(@NotNull List<ExportSource<?, T>> sources, @Nullable String cursor, int pageSize) {
+        if (pageSize < 1) {
+            throw new InvalidExportParameterException("Page size must be positive, but was " + pageSize);
+        }
+        if (pageSize > maxResults) {
+            throw new TooManyResultsException("Page size " + pageSize + " exceeds the limit of " + maxResults + " records");
+        }
+        CursorPosition position = decodeCursor(cursor);
+
+        return transactionTemplate.execute(status -> {
+            List<T> items = new ArrayList<>(pageSize);
+            String nextCursor = null;
+            for (int index = position.sourceIndex; index < sources.size() && nextCursor == null; index++) {
+                ExportSource<?, T> source = sources.get(index);
+                Long afterId = index == position.sourceIndex
+                                   ? position.afterId
+                                   : null;
+                int remaining = pageSize - items.size();
+                // one more record than fits on the page tells whether there is a next page
+                List<Long> ids = findIds(source, afterId, remaining + 1);
+                if (ids.size() > remaining) {
+                    List<Long> pageIds = ids.subList(0, remaining);
+                    items.addAll(loadAndMap(source, pageIds));
+                    nextCursor = encodeCursor(index, pageIds.isEmpty() ? afterId : pageIds.get(pageIds.size() - 1));
+                } else {
+                    items.addAll(loadAndMap(source, ids));
+                }
+            }
+            return new ExportPage<>(items, nextCursor);
+        });
+    }
+
+    /**
+     * Returns all records matching given specification as a lazily populated stream.
+     * <p>
+     * Every chunk of {@code cms.aspsp.export.stream-page-size} records is read in its own read-only transaction once the
+     * previous one has been consumed, so the stream can be consumed outside of the caller's transaction and thread.
+     * The number of matching records is checked against {@code cms.aspsp.export.stream-max-results} before the stream
+     * is returned, so that an oversized export is rejected before any record has been written.
+     *
+     * @param entityClass   type of the exported entity
+     * @param specification export criteria
+     * @param mapper        mapper of one chunk of entities to the exported objects
+     * @param <E>           type of the exported entity
+     * @param <T>           type of the exported objects
+     * @return stream of exported objects, ordered by entity identifier
+     * @throws TooManyResultsException if more than {@code cms.aspsp.export.stream-max-results} records match the criteria
+     */
+    public <E, T> Stream<T> stream(@NotNull Class<E> entityClass, @NotNull Specification<E> specification,
+                                   @NotNull Function<List<E>, List<T>> mapper) {
+        return stream(Collections.singletonList(new ExportSource<>(entityClass, specification, mapper)));
+    }
+
+    /**
+     * Returns all records matching the criteria of given sources as a lazily populated stream, records of one source
+     * follow the records of the previous one.
+     *
+     * @param sources sources of exported records
+     * @param <T>     type of the exported objects
+     * @return stream of exported objects, ordered by source and entity identifier
+     * @throws TooManyResultsException if more than {@code cms.aspsp.export.stream-max-results} records match the criteria
+     * @see #stream(Class, Specification, Function)
+     */
+    public <T> Stream<T> stream(@NotNull List<ExportSource<?, T>> sources) {
+        long count = transactionTemplate.execute(status -> sources.stream()
+                                                               .mapToLong(this::count)
+                                                               .sum());
+        if (count > streamMaxResults) {
+            throw new TooManyResultsException("Export of " + count + " records exceeds the stream limit of " + streamMaxResults + " records");
+        }
+        return sources.stream()
+                   .<Stream<T>>map(this::streamSource)
+                   .reduce(Stream::concat)
+                   .orElseGet(Stream::empty);
+    }
+
+    private <E, T> Stream<T> streamSource(ExportSource<E, T> source) {
+        Iterator<T> iterator = new PagingIterator<>(source);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private <E> long count(ExportSource<E, ?> source) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<E> root = query.from(source.getEntityClass());
+        Optional.ofNullable(source.getSpecification().toPredicate(root, query, criteriaBuilder))
+            .ifPresent(query::where);
+        query.select(criteriaBuilder.countDistinct(root.get(ID_ATTRIBUTE)));
+
+        return entityManager.createQuery(query)
+                   .getSingleResult();
+    }
+
+    private <E> List<Long> findIds(ExportSource<E, ?> source, @Nullable Long afterId, int limit) {
+        return findIds(source.getEntityClass(), source.getSpecification(), afterId, limit);
+    }
+
+    private <E> List<Long> findIds(Class<E> entityClass, Specification<E> specification, @Nullable Long afterId, int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<E> root = query.from(entityClass);
+        Path<Long> id = root.get(ID_ATTRIBUTE);
+
+        List<Predicate> predicates = new ArrayList<>();
+        Optional.ofNullable(specification.toPredicate(root, query, criteriaBuilder))
+            .ifPresent(predicates::add);
+        if (afterId != null) {
+            predicates.add(criteriaBuilder.greaterThan(id, afterId));
+        }
+
+        query.select(id)
+            .distinct(true)
+            .where(predicates.toArray(new Predicate[0]))
+            .orderBy(criteriaBuilder.asc(id));
+
+        return entityManager.createQuery(query)
+                   .setMaxResults(limit)
+                   .getResultList();
+    }
+
+    private <E, T> List<T> loadAndMap(ExportSource<E, T> source, List<Long> ids) {
+        List<T> result = new ArrayList<>(ids.size());
+        for (List<Long> chunk : ListUtils.partition(ids, streamPageSize)) {
+            result.addAll(source.getMapper().apply(findByIds(source.getEntityClass(), chunk)));
+            entityManager.clear();
+        }
+        return result;
+    }
+
+    private <E> List<E> findByIds(Class<E> entityClass, List<Long> ids) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<E> query = criteriaBuilder.createQuery(entityClass);
+        Root<E> root = query.from(entityClass);
+        entityManager.getMetamodel().entity(entityClass).getSingularAttributes().stream()
+            .filter(Attribute::isAssociation)
+            .forEach(attribute -> root.fetch(attribute.getName(), JoinType.LEFT));
+        Path<Long> id = root.get(ID_ATTRIBUTE);
+
+        query.select(root)
+            .where(id.in(ids))
+            .orderBy(criteriaBuilder.asc(id));
+
+        return entityManager.createQuery(query)
+                   .getResultList();
+    }
+
+    private String encodeCursor(int sourceIndex, @Nullable Long afterId) {
+        // cursors of the first source contain only the identifier, as before multiple sources were supported
+        String position = sourceIndex == 0
+                              ? String.valueOf(afterId)
+                              : sourceIndex + CURSOR_SOURCE_SEPARATOR + Optional.ofNullable(afterId).map(String::valueOf).orElse("");
+        return CURSOR_ENCODER.encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private CursorPosition decodeCursor(@Nullable String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return new CursorPosition(0, null);
+        }
+        try {
+            String position = new String(CURSOR_DECODER.decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(CURSOR_SOURCE_SEPARATOR);
+            if (separator < 0) {
+                return new CursorPosition(0, Long.valueOf(position));
+            }
+            String afterId = position.substring(separator + 1);
+            return new CursorPosition(Integer.parseInt(position.substring(0, separator)),
+                                      afterId.isEmpty() ? null : Long.valueOf(afterId));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidExportParameterException("Malformed export cursor: " + cursor, e);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class CursorPosition {
+        private final int sourceIndex;
+        @Nullable
+        private final Long afterId;
+    }
+
+    private class PagingIterator<E, T> implements Iterator<T> {
+        private final ExportSource<E, T> source;
+
+        private Iterator<T> page = Collections.emptyIterator();
+        private Long lastId;
+        private boolean exhausted;
+
+        PagingIterator(ExportSource<E, T> source) {
+            this.source = source;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!page.hasNext() && !exhausted) {
+                page = transactionTemplate.execute(status -> fetchNextPage()).iterator();
+            }
+            return page.hasNext();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.next();
+        }
+
+        private List<T> fetchNextPage() {
+            List<Long> ids = findIds(source, lastId, streamPageSize);
+            exhausted = ids.size() < streamPageSize;
+            if (!ids.isEmpty()) {
+                lastId = ids.get(ids.size() - 1);
+            }
+            return loadAndMap(source, ids);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.aspsp;
+
+import lombok.Value;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Source of exported records for {@link ExportQueryExecutor}, e.g. the table of active records or the archive
+ *
+ * @param <E> type of the exported entity
+ * @param <T> type of the exported objects
+ */
+@Value
+public class ExportSource<E, T> {
+    private Class<E> entityClass;
+    private Specification<E> specification;
+    private Function<List<E>, List<T>> mapper;
+}
@@ -21,6 +21,7 @@ import de.adorsys.psd2.consent.api.ais.AisAccountAccess;
 import de.adorsys.psd2.consent.api.ais.AisAccountConsent;
 import de.adorsys.psd2.consent.api.ais.AisAccountConsentAuthorisation;
 import de.adorsys.psd2.consent.api.ais.AisConsentAuthorizationResponse;
+import de.adorsys.psd2.consent.api.ais.AisConsentStatusVersionResponse;
 import de.adorsys.psd2.consent.domain.account.AisConsent;
 import de.adorsys.psd2.consent.domain.account.AisConsentAuthorization;
 import de.adorsys.psd2.consent.domain.account.AspspAccountAccess;
@@ -29,6 +30,7 @@ import de.adorsys.psd2.consent.service.AisConsentUsageService;
 import de.adorsys.psd2.xs2a.core.ais.AccountAccessType;
 import de.adorsys.psd2.xs2a.core.profile.AccountReference;
 import de.adorsys.psd2.xs2a.core.profile.AccountReferenceSelector;
+import de.adorsys.psd2.xs2a.core.tpp.TppInfo;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.stereotype.Component;
@@ -52,12 +54,29 @@ public class AisConsentMapper {
      * @return mapped AIS consent
      */
     public AisAccountConsent mapToAisAccountConsent(AisConsent consent) {
+        return mapToAisAccountConsent(consent, aisConsentUsageService.getUsageCounterMap(consent));
+    }
+
+    /**
+     * Maps list of AisConsents to AisAccountConsents, see {@link #mapToAisAccountConsent(AisConsent)}.
+     * <p>
+     * Usage counters of all consents are read with one query.
+     *
+     * @param consents AIS consent entities
+     * @return mapped AIS consents in the same order
+     */
+    public List<AisAccountConsent> mapToAisAccountConsentList(List<AisConsent> consents) {
+        Map<Long, Map<String, Integer>> usageCounterMaps = aisConsentUsageService.getUsageCounterMaps(consents);
+        return consents.stream()
+                   .map(c -> mapToAisAccountConsent(c, usageCounterMaps.get(c.getId())))
+                   .collect(Collectors.toList());
+    }
+
+    private AisAccountConsent mapToAisAccountConsent(AisConsent consent, Map<String, Integer> usageCounterMap) {
         AisAccountAccess aisAccountAccess = consent.getAspspAccountAccesses().isEmpty()
                                                 ? mapToAisAccountAccess(consent)
                                                 : mapToAspspAisAccountAccess(consent);
 
-        Map<String, Integer> usageCounterMap = aisConsentUsageService.getUsageCounterMap(consent);
-
         return new AisAccountConsent(
             consent.getExternalId(),
             aisAccountAccess,
@@ -76,7 +95,8 @@ public class AisConsentMapper {
             calculateUsageCounter(usageCounterMap),
             usageCounterMap,
             consent.getCreationTimestamp(),
-            consent.getStatusChangeTimestamp());
+            consent.getStatusChangeTimestamp(),
+            consent.getVersion());
     }
 
     /**
@@ -106,7 +126,28 @@ public class AisConsentMapper {
             calculateUsageCounter(usageCounterMap),
             usageCounterMap,
             consent.getCreationTimestamp(),
-            consent.getStatusChangeTimestamp());
+            consent.getStatusChangeTimestamp(),
+            consent.getVersion());
+    }
+
+    /**
+     * Maps AisConsent to its status and version, reading neither account accesses nor PSU data of the consent.
+     * <p>
+     * TPP of the consent is identified by authorisation number and authority ID only, so TPP roles are not read either.
+     *
+     * @param consent AIS consent entity
+     * @return status, version and TPP of the consent
+     */
+    public AisConsentStatusVersionResponse mapToAisConsentStatusVersionResponse(AisConsent consent) {
+        TppInfo tppInfo = new TppInfo();
+        tppInfo.setAuthorisationNumber(consent.getTppInfo().getAuthorisationNumber());
+        tppInfo.setAuthorityId(consent.getTppInfo().getAuthorityId());
+
+        AisConsentStatusVersionResponse response = new AisConsentStatusVersionResponse();
+        response.setConsentStatus(consent.getConsentStatus());
+        response.setVersion(consent.getVersion());
+        response.setTppInfo(tppInfo);
+        return response;
     }
 
     public AisConsentAuthorizationResponse mapToAisConsentAuthorizationResponse(AisConsentAuthorization aisConsentAuthorization) {
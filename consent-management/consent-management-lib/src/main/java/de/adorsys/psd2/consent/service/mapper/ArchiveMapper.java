@@ -0,0 +1,177 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.mapper;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.psd2.consent.api.ais.AisAccountConsent;
+import de.adorsys.psd2.consent.api.pis.*;
+import de.adorsys.psd2.consent.domain.PsuData;
+import de.adorsys.psd2.consent.domain.PsuDataEmbeddable;
+import de.adorsys.psd2.consent.domain.account.AisConsent;
+import de.adorsys.psd2.consent.domain.account.AisConsentArchive;
+import de.adorsys.psd2.consent.domain.account.AspspAccountAccess;
+import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentArchive;
+import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maps AIS consents and payments to their archived representation and back.
+ * <p>
+ * Archived records keep the mapped consent or payment as JSON payload, so that reading them back does not depend on
+ * the tables of active records. The payload is read leniently, as properties added to the mapped objects later on must
+ * not break reading of records archived before.
+ */
+@Slf4j
+@Component
+public class ArchiveMapper {
+    private static final Map<String, Class<? extends CmsPayment>> PAYMENT_TYPES = new HashMap<>();
+
+    static {
+        for (Class<? extends CmsPayment> paymentType : Arrays.asList(CmsSinglePayment.class, CmsPeriodicPayment.class,
+                                                                     CmsBulkPayment.class, CmsCommonPayment.class)) {
+            PAYMENT_TYPES.put(paymentType.getSimpleName(), paymentType);
+        }
+    }
+
+    private final ObjectMapper objectMapper;
+
+    public ArchiveMapper(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper.copy()
+                                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                                .addMixIn(CmsSinglePayment.class, PaymentProductCreator.class)
+                                .addMixIn(CmsPeriodicPayment.class, PaymentProductCreator.class)
+                                .addMixIn(CmsCommonPayment.class, PaymentProductCreator.class);
+    }
+
+    public AisConsentArchive mapToAisConsentArchive(@NotNull AisConsent consent, @NotNull AisAccountConsent accountConsent,
+                                                    @NotNull OffsetDateTime archiveTimestamp) {
+        AisConsentArchive archive = new AisConsentArchive();
+        archive.setId(consent.getId());
+        archive.setExternalId(consent.getExternalId());
+        archive.setInstanceId(consent.getInstanceId());
+        archive.setConsentStatus(consent.getConsentStatus());
+        archive.setTppAuthorisationNumber(consent.getTppInfo().getAuthorisationNumber());
+        archive.setPsuDataList(mapToPsuDataEmbeddableList(consent.getPsuDataList()));
+        archive.setAspspAccountIds(consent.getAspspAccountAccesses().stream()
+                                       .map(AspspAccountAccess::getAspspAccountId)
+                                       .filter(Objects::nonNull)
+                                       .distinct()
+                                       .collect(Collectors.toList()));
+        archive.setCreationTimestamp(consent.getCreationTimestamp());
+        archive.setStatusChangeTimestamp(consent.getStatusChangeTimestamp());
+        archive.setArchiveTimestamp(archiveTimestamp);
+        archive.setPayload(toPayload(accountConsent));
+        return archive;
+    }
+
+    public Optional<AisAccountConsent> mapToAisAccountConsent(@NotNull AisConsentArchive archive) {
+        return fromPayload(archive.getPayload(), AisAccountConsent.class, archive.getId());
+    }
+
+    public List<AisAccountConsent> mapToAisAccountConsentList(@NotNull List<AisConsentArchive> archives) {
+        return mapList(archives, this::mapToAisAccountConsent);
+    }
+
+    public PisCommonPaymentArchive mapToPisCommonPaymentArchive(@NotNull PisCommonPaymentData paymentData, @NotNull CmsPayment payment,
+                                                                @NotNull OffsetDateTime archiveTimestamp) {
+        PisCommonPaymentArchive archive = new PisCommonPaymentArchive();
+        archive.setId(paymentData.getId());
+        archive.setPaymentId(paymentData.getPaymentId());
+        archive.setInstanceId(paymentData.getInstanceId());
+        archive.setPaymentType(paymentData.getPaymentType());
+        archive.setTransactionStatus(paymentData.getTransactionStatus());
+        archive.setTppAuthorisationNumber(paymentData.getTppInfo().getAuthorisationNumber());
+        archive.setAspspAccountId(paymentData.getAspspAccountId());
+        archive.setPsuDataList(mapToPsuDataEmbeddableList(paymentData.getPsuDataList()));
+        archive.setCreationTimestamp(paymentData.getCreationTimestamp());
+        archive.setStatusChangeTimestamp(paymentData.getStatusChangeTimestamp());
+        archive.setArchiveTimestamp(archiveTimestamp);
+        archive.setPayloadType(payment.getClass().getSimpleName());
+        archive.setPayload(toPayload(payment));
+        return archive;
+    }
+
+    public Optional<CmsPayment> mapToCmsPayment(@NotNull PisCommonPaymentArchive archive) {
+        Class<? extends CmsPayment> paymentType = PAYMENT_TYPES.get(archive.getPayloadType());
+        if (paymentType == null) {
+            log.warn("Archived payment ID: [{}]. Unknown payload type [{}]", archive.getId(), archive.getPayloadType());
+            return Optional.empty();
+        }
+        return fromPayload(archive.getPayload(), paymentType, archive.getId())
+                   .map(CmsPayment.class::cast);
+    }
+
+    public List<CmsPayment> mapToCmsPaymentList(@NotNull List<PisCommonPaymentArchive> archives) {
+        return mapList(archives, this::mapToCmsPayment);
+    }
+
+    private List<PsuDataEmbeddable> mapToPsuDataEmbeddableList(List<PsuData> psuDataList) {
+        return psuDataList.stream()
+                   .map(psu -> new PsuDataEmbeddable(psu.getPsuId(),
+                                                     psu.getPsuIdType(),
+                                                     psu.getPsuCorporateId(),
+                                                     psu.getPsuCorporateIdType()))
+                   .collect(Collectors.toList());
+    }
+
+    private <A, T> List<T> mapList(List<A> archives, Function<A, Optional<T>> mapper) {
+        return archives.stream()
+                   .map(mapper)
+                   .filter(Optional::isPresent)
+                   .map(Optional::get)
+                   .collect(Collectors.toList());
+    }
+
+    private byte[] toPayload(Object object) {
+        try {
+            return objectMapper.writeValueAsBytes(object);
+        } catch (JsonProcessingException e) {
+            // the record must not be removed from the active tables without its archived copy
+            throw new IllegalStateException("Can't convert " + object.getClass().getSimpleName() + " to archive payload", e);
+        }
+    }
+
+    private <T> Optional<T> fromPayload(byte[] payload, Class<T> type, Long archiveId) {
+        try {
+            return Optional.of(objectMapper.readValue(payload, type));
+        } catch (IOException e) {
+            log.warn("Archived record ID: [{}]. Can't read {} from archive payload: {}", archiveId, type.getSimpleName(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Payments are created with their payment product only, the remaining properties are set afterwards
+     */
+    private abstract static class PaymentProductCreator {
+        @JsonCreator
+        PaymentProductCreator(@JsonProperty("paymentProduct") String paymentProduct) {
+        }
+    }
+}
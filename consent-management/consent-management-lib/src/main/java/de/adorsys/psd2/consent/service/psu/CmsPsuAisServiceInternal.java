@@ -20,6 +20,7 @@ package de.adorsys.psd2.consent.service.psu;
 import de.adorsys.psd2.consent.api.CmsAuthorisationType;
 import de.adorsys.psd2.consent.api.ais.AisAccountConsent;
 import de.adorsys.psd2.consent.api.service.AisConsentService;
+import de.adorsys.psd2.consent.domain.AuthorisationRedirect;
 import de.adorsys.psd2.consent.domain.PsuData;
 import de.adorsys.psd2.consent.domain.account.AisConsent;
 import de.adorsys.psd2.consent.domain.account.AisConsentAuthorization;
@@ -33,6 +34,7 @@ import de.adorsys.psd2.consent.repository.AisConsentRepository;
 import de.adorsys.psd2.consent.repository.specification.AisConsentAuthorizationSpecification;
 import de.adorsys.psd2.consent.repository.specification.AisConsentSpecification;
 import de.adorsys.psd2.consent.service.AisConsentUsageService;
+import de.adorsys.psd2.consent.service.archive.ArchiveService;
 import de.adorsys.psd2.consent.service.mapper.AisConsentMapper;
 import de.adorsys.psd2.consent.service.mapper.PsuDataMapper;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
@@ -68,6 +70,9 @@ public class CmsPsuAisServiceInternal implements CmsPsuAisService {
     private final PsuDataMapper psuDataMapper;
     private final AisConsentUsageService aisConsentUsageService;
     private final CmsPsuService cmsPsuService;
+    private final ArchiveService archiveService;
+    private final RejectedRedirectCache rejectedRedirectCache;
+
     @Override
     @Transactional
     public boolean updatePsuDataInConsent(@NotNull PsuIdData psuIdData, @NotNull String authorisationId, @NotNull String instanceId) {
@@ -84,9 +89,13 @@ public class CmsPsuAisServiceInternal implements CmsPsuAisService {
     @Override
     @Transactional
     public @NotNull Optional<AisAccountConsent> getConsent(@NotNull PsuIdData psuIdData, @NotNull String consentId, @NotNull String instanceId) {
-        return aisConsentRepository.findOne(aisConsentSpecification.byConsentIdAndInstanceId(consentId, instanceId))
-                   .map(this::checkAndUpdateOnExpiration)
-                   .map(consentMapper::mapToAisAccountConsent);
+        Optional<AisAccountConsent> consent = aisConsentRepository.findOne(aisConsentSpecification.byConsentIdAndInstanceId(consentId, instanceId))
+                                                  .map(this::checkAndUpdateOnExpiration)
+                                                  .map(consentMapper::mapToAisAccountConsent);
+        if (consent.isPresent()) {
+            return consent;
+        }
+        return archiveService.getAisConsent(consentId, instanceId);
     }
 
     @Override
@@ -146,28 +155,37 @@ public class CmsPsuAisServiceInternal implements CmsPsuAisService {
     @Override
     @Transactional
     public @NotNull Optional<CmsAisConsentResponse> checkRedirectAndGetConsent(@NotNull String redirectId, @NotNull String instanceId) {
-        Optional<AisConsentAuthorization> optionalAuthorisation = aisConsentAuthorisationRepository.findOne(aisConsentAuthorizationSpecification.byExternalIdAndInstanceId(redirectId, instanceId))
-                                                                      .filter(a -> a.getScaStatus().isNotFinalisedStatus());
-
-        if (optionalAuthorisation.isPresent()) {
-            AisConsentAuthorization authorisation = optionalAuthorisation.get();
+        if (rejectedRedirectCache.isRejected(redirectId, instanceId)) {
+            log.info("Authorisation ID [{}]. Check redirect and get consent failed, because authorisation has already been rejected",
+                     redirectId);
+            return Optional.empty();
+        }
 
-            if (authorisation.isNotExpired()) {
-                return createCmsAisConsentResponseFromAisConsent(authorisation.getConsent(), redirectId);
-            } else {
-                log.info("Authorisation ID [{}]. Check redirect and get consent failed, because authorisation is expired",
-                         redirectId);
-            }
+        Optional<AuthorisationRedirect> optionalRedirect = aisConsentAuthorisationRepository.findRedirect(redirectId, instanceId);
+        if (!optionalRedirect.isPresent()) {
+            log.info("Authorisation ID [{}]. Check redirect and get consent failed, because authorisation not found",
+                     redirectId);
+            return Optional.empty();
+        }
 
-            updateAuthorisationOnExpiration(authorisation);
-            String tppNokRedirectUri = authorisation.getConsent().getTppInfo().getNokRedirectUri();
+        AuthorisationRedirect redirect = optionalRedirect.get();
+        if (redirect.getScaStatus().isFinalisedStatus()) {
+            log.info("Authorisation ID [{}]. Check redirect and get consent failed, because authorisation has finalised status",
+                     redirectId);
+            rejectedRedirectCache.reject(redirectId, instanceId);
+            return Optional.empty();
+        }
 
-            return Optional.of(new CmsAisConsentResponse(tppNokRedirectUri));
+        if (redirect.isExpired()) {
+            log.info("Authorisation ID [{}]. Check redirect and get consent failed, because authorisation is expired",
+                     redirectId);
+            aisConsentAuthorisationRepository.updateScaStatus(redirect.getAuthorisationId(), ScaStatus.FAILED);
+            rejectedRedirectCache.reject(redirectId, instanceId);
+            return Optional.of(new CmsAisConsentResponse(redirect.getTppNokRedirectUri()));
         }
 
-        log.info("Authorisation ID [{}]. Check redirect and get consent failed, because authorisation not found or has finalised status",
-                 redirectId);
-        return Optional.empty();
+        return aisConsentAuthorisationRepository.findById(redirect.getAuthorisationId())
+                   .flatMap(authorisation -> createCmsAisConsentResponseFromAisConsent(authorisation.getConsent(), redirectId));
     }
 
     @Override
@@ -286,11 +304,6 @@ public class CmsPsuAisServiceInternal implements CmsPsuAisService {
         return aisConsentAuthorisationRepository.save(authorisation) != null;
     }
 
-    private void updateAuthorisationOnExpiration(AisConsentAuthorization authorisation) {
-        authorisation.setScaStatus(ScaStatus.FAILED);
-        aisConsentAuthorisationRepository.save(authorisation);
-    }
-
     private Optional<CmsAisConsentResponse> createCmsAisConsentResponseFromAisConsent(AisConsent aisConsent, String
                                                                                                                  redirectId) {
         if (aisConsent == null) {
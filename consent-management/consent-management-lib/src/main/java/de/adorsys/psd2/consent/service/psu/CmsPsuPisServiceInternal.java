@@ -19,6 +19,7 @@ package de.adorsys.psd2.consent.service.psu;
 import de.adorsys.psd2.consent.api.pis.CmsPayment;
 import de.adorsys.psd2.consent.api.pis.CmsPaymentResponse;
 import de.adorsys.psd2.consent.api.service.PisCommonPaymentService;
+import de.adorsys.psd2.consent.domain.AuthorisationRedirect;
 import de.adorsys.psd2.consent.domain.PsuData;
 import de.adorsys.psd2.consent.domain.TppInfoEntity;
 import de.adorsys.psd2.consent.domain.payment.PisAuthorization;
@@ -31,6 +32,7 @@ import de.adorsys.psd2.consent.repository.PisPaymentDataRepository;
 import de.adorsys.psd2.consent.repository.specification.PisAuthorisationSpecification;
 import de.adorsys.psd2.consent.repository.specification.PisPaymentDataSpecification;
 import de.adorsys.psd2.consent.service.CommonPaymentDataService;
+import de.adorsys.psd2.consent.service.archive.ArchiveService;
 import de.adorsys.psd2.consent.service.mapper.CmsPsuPisMapper;
 import de.adorsys.psd2.consent.service.mapper.PsuDataMapper;
 import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
@@ -46,6 +48,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -62,6 +65,8 @@ public class CmsPsuPisServiceInternal implements CmsPsuPisService {
     private final PisAuthorisationSpecification pisAuthorisationSpecification;
     private final PisPaymentDataSpecification pisPaymentDataSpecification;
     private final CmsPsuService cmsPsuService;
+    private final ArchiveService archiveService;
+    private final RejectedRedirectCache rejectedRedirectCache;
 
     @Override
     @Transactional
@@ -90,6 +95,13 @@ public class CmsPsuPisServiceInternal implements CmsPsuPisService {
                            .map(cmsPsuPisMapper::mapToCmsPayment);
             }
         }
+
+        Optional<CmsPayment> archivedPayment = archiveService.getPayment(paymentId, instanceId)
+                                                   .filter(payment -> payment.getPsuIdDatas().stream()
+                                                                          .anyMatch(psu -> psu.contentEquals(psuIdData)));
+        if (archivedPayment.isPresent()) {
+            return archivedPayment;
+        }
         log.info("Payment ID: [{}], Instance ID: [{}]. Get payment failed, because given PSU data and PSU data stored in payment are not equal",
                  paymentId, instanceId);
         return Optional.empty();
@@ -98,55 +110,13 @@ public class CmsPsuPisServiceInternal implements CmsPsuPisService {
     @Override
     @Transactional
     public @NotNull Optional<CmsPaymentResponse> checkRedirectAndGetPayment(@NotNull String redirectId, @NotNull String instanceId) {
-        Optional<PisAuthorization> optionalAuthorisation = pisAuthorisationRepository.findOne(pisAuthorisationSpecification.byExternalIdAndInstanceId(redirectId, instanceId))
-                                                               .filter(a -> !a.getScaStatus().isFinalisedStatus());
-
-        if (optionalAuthorisation.isPresent()) {
-            PisAuthorization authorisation = optionalAuthorisation.get();
-
-            if (authorisation.isNotExpired()) {
-                return Optional.of(buildCmsPaymentResponse(authorisation));
-            } else {
-                log.info("Authorisation ID [{}], Instance ID: [{}]. Check redirect and get payment failed, because authorisation expired",
-                         redirectId);
-            }
-
-            changeAuthorisationStatusToFailed(authorisation);
-            String tppNokRedirectUri = authorisation.getPaymentData().getTppInfo().getNokRedirectUri();
-
-            return Optional.of(new CmsPaymentResponse(tppNokRedirectUri));
-        }
-
-        log.info("Authorisation ID [{}], Instance ID: [{}]. Check redirect and get payment failed, because authorisation not found or has finalised status",
-                 redirectId, instanceId);
-        return Optional.empty();
+        return checkRedirect(redirectId, instanceId, this::buildCmsPaymentResponse);
     }
 
     @Override
     @Transactional
     public @NotNull Optional<CmsPaymentResponse> checkRedirectAndGetPaymentForCancellation(@NotNull String redirectId, @NotNull String instanceId) {
-        Optional<PisAuthorization> optionalAuthorisation = pisAuthorisationRepository.findOne(pisAuthorisationSpecification.byExternalIdAndInstanceId(redirectId, instanceId))
-                                                               .filter(a -> !a.getScaStatus().isFinalisedStatus());
-
-        if (!optionalAuthorisation.isPresent()) {
-            log.info("Authorisation ID [{}], Instance ID: [{}]. Check redirect and get payment cancellation failed, because authorisation is not found or has finalised status",
-                     redirectId, instanceId);
-            return Optional.empty();
-        }
-
-        PisAuthorization authorisation = optionalAuthorisation.get();
-
-        if (authorisation.isExpired()) {
-            changeAuthorisationStatusToFailed(authorisation);
-            log.info("Authorisation ID [{}], Instance ID: [{}]. Check redirect and get payment cancellation failed, because authorisation expired",
-                     redirectId, instanceId);
-            return Optional.ofNullable(authorisation.getPaymentData())
-                       .map(PisCommonPaymentData::getTppInfo)
-                       .map(TppInfoEntity::getNokRedirectUri)
-                       .map(CmsPaymentResponse::new);
-        }
-
-        return Optional.of(buildCmsPaymentResponseForCancellation(authorisation));
+        return checkRedirect(redirectId, instanceId, this::buildCmsPaymentResponseForCancellation);
     }
 
     @Override
@@ -293,8 +263,39 @@ public class CmsPsuPisServiceInternal implements CmsPsuPisService {
             null);
     }
 
-    private void changeAuthorisationStatusToFailed(PisAuthorization authorisation) {
-        authorisation.setScaStatus(ScaStatus.FAILED);
-        pisAuthorisationRepository.save(authorisation);
+    private Optional<CmsPaymentResponse> checkRedirect(String redirectId, String instanceId,
+                                                       Function<PisAuthorization, CmsPaymentResponse> responseBuilder) {
+        if (rejectedRedirectCache.isRejected(redirectId, instanceId)) {
+            log.info("Authorisation ID [{}], Instance ID: [{}]. Check redirect and get payment failed, because authorisation has already been rejected",
+                     redirectId, instanceId);
+            return Optional.empty();
+        }
+
+        Optional<AuthorisationRedirect> optionalRedirect = pisAuthorisationRepository.findRedirect(redirectId, instanceId);
+        if (!optionalRedirect.isPresent()) {
+            log.info("Authorisation ID [{}], Instance ID: [{}]. Check redirect and get payment failed, because authorisation not found",
+                     redirectId, instanceId);
+            return Optional.empty();
+        }
+
+        AuthorisationRedirect redirect = optionalRedirect.get();
+        if (redirect.getScaStatus().isFinalisedStatus()) {
+            log.info("Authorisation ID [{}], Instance ID: [{}]. Check redirect and get payment failed, because authorisation has finalised status",
+                     redirectId, instanceId);
+            rejectedRedirectCache.reject(redirectId, instanceId);
+            return Optional.empty();
+        }
+
+        if (redirect.isExpired()) {
+            log.info("Authorisation ID [{}], Instance ID: [{}]. Check redirect and get payment failed, because authorisation expired",
+                     redirectId, instanceId);
+            pisAuthorisationRepository.updateScaStatus(redirect.getAuthorisationId(), ScaStatus.FAILED);
+            rejectedRedirectCache.reject(redirectId, instanceId);
+            return Optional.ofNullable(redirect.getTppNokRedirectUri())
+                       .map(CmsPaymentResponse::new);
+        }
+
+        return pisAuthorisationRepository.findById(redirect.getAuthorisationId())
+                   .map(responseBuilder);
     }
 }
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.service.psu;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Node-local cache of redirect IDs, that have been rejected because their authorisation is expired or finalised.
+ * <p>
+ * Such redirects never become valid again, so repeated landings of the PSU on them are rejected without any database
+ * access. Entries are kept for a short time only to bound the memory used by the cache.
+ */
+@Component
+public class RejectedRedirectCache {
+    private final long timeToLiveMs;
+    private final int maxSize;
+    private final Map<String, Long> expirationTimes = new ConcurrentHashMap<>();
+
+    public RejectedRedirectCache(@Value("${cms.redirect.rejected-cache.ttl-ms:60000}") long timeToLiveMs,
+                                 @Value("${cms.redirect.rejected-cache.max-size:10000}") int maxSize) {
+        this.timeToLiveMs = timeToLiveMs;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Checks whether the redirect has been rejected on this CMS instance recently
+     *
+     * @param redirectId ID of the redirect
+     * @param instanceId ID of the particular service instance
+     * @return <code>true</code> if the redirect is known to be expired or finalised
+     */
+    public boolean isRejected(String redirectId, String instanceId) {
+        String key = buildKey(redirectId, instanceId);
+        Long expirationTime = expirationTimes.get(key);
+        if (expirationTime == null) {
+            return false;
+        }
+
+        if (expirationTime < System.currentTimeMillis()) {
+            expirationTimes.remove(key, expirationTime);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Remembers the redirect as rejected. Should be called only for expired or finalised redirects, as they can't
+     * become valid again.
+     *
+     * @param redirectId ID of the redirect
+     * @param instanceId ID of the particular service instance
+     */
+    public void reject(String redirectId, String instanceId) {
+        if (timeToLiveMs <= 0) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        if (expirationTimes.size() >= maxSize) {
+            expirationTimes.values().removeIf(expirationTime -> expirationTime < now);
+            if (expirationTimes.size() >= maxSize) {
+                expirationTimes.clear();
+            }
+        }
+        expirationTimes.put(buildKey(redirectId, instanceId), now + timeToLiveMs);
+    }
+
+    private String buildKey(String redirectId, String instanceId) {
+        return instanceId + ":" + redirectId;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.retention;
+
+import de.adorsys.psd2.consent.repository.AisConsentActionRepository;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Purges the log of AIS consent actions by the date of the action
+ */
+@Component
+public class AisConsentActionRetentionPolicy implements RetentionPolicy {
+    private final AisConsentActionRepository aisConsentActionRepository;
+    private final int retentionDays;
+
+    public AisConsentActionRetentionPolicy(AisConsentActionRepository aisConsentActionRepository,
+                                           @Value("${cms.retention.ais-consent-action.days:0}") int retentionDays) {
+        this.aisConsentActionRepository = aisConsentActionRepository;
+        this.retentionDays = retentionDays;
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "ais-consent-action";
+    }
+
+    @Override
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countExpired(@NotNull OffsetDateTime purgeBefore) {
+        return aisConsentActionRepository.countByRequestDateBefore(purgeBefore.toLocalDate());
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired(@NotNull OffsetDateTime purgeBefore, int batchSize) {
+        List<Long> ids = aisConsentActionRepository.findIdsForPurge(purgeBefore.toLocalDate(), PageRequest.of(0, batchSize));
+        return ids.isEmpty()
+                   ? 0
+                   : aisConsentActionRepository.deleteByIds(ids);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.retention;
+
+import de.adorsys.psd2.consent.repository.AisConsentUsageRepository;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Purges the daily usage counters of AIS consents by the date of usage.
+ * <p>
+ * Only the counters of the current day are used by the frequency checks, they are always kept, as the policy keeps
+ * records for at least one day.
+ */
+@Component
+public class AisConsentUsageRetentionPolicy implements RetentionPolicy {
+    private final AisConsentUsageRepository aisConsentUsageRepository;
+    private final int retentionDays;
+
+    public AisConsentUsageRetentionPolicy(AisConsentUsageRepository aisConsentUsageRepository,
+                                          @Value("${cms.retention.ais-consent-usage.days:0}") int retentionDays) {
+        this.aisConsentUsageRepository = aisConsentUsageRepository;
+        this.retentionDays = retentionDays;
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "ais-consent-usage";
+    }
+
+    @Override
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countExpired(@NotNull OffsetDateTime purgeBefore) {
+        return aisConsentUsageRepository.countByUsageDateBefore(purgeBefore.toLocalDate());
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired(@NotNull OffsetDateTime purgeBefore, int batchSize) {
+        List<Long> ids = aisConsentUsageRepository.findIdsForPurge(purgeBefore.toLocalDate(), PageRequest.of(0, batchSize));
+        return ids.isEmpty()
+                   ? 0
+                   : aisConsentUsageRepository.deleteByIds(ids);
+    }
+}
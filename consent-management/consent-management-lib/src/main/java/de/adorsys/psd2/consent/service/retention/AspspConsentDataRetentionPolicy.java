@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.retention;
+
+import de.adorsys.psd2.consent.repository.AspspConsentDataRepository;
+import de.adorsys.psd2.consent.service.FinalisedStatuses;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Purges ASPSP consent data of finished consents and payments.
+ * <p>
+ * Consent or payment is finished, if it is in finalised status and its status has not been changed during the
+ * retention period, or if it has been moved to the archive.
+ */
+@Component
+public class AspspConsentDataRetentionPolicy implements RetentionPolicy {
+    private final AspspConsentDataRepository aspspConsentDataRepository;
+    private final int retentionDays;
+
+    public AspspConsentDataRetentionPolicy(AspspConsentDataRepository aspspConsentDataRepository,
+                                           @Value("${cms.retention.aspsp-consent-data.days:0}") int retentionDays) {
+        this.aspspConsentDataRepository = aspspConsentDataRepository;
+        this.retentionDays = retentionDays;
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "aspsp-consent-data";
+    }
+
+    @Override
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countExpired(@NotNull OffsetDateTime purgeBefore) {
+        return aspspConsentDataRepository.countForPurge(FinalisedStatuses.CONSENT_STATUSES, FinalisedStatuses.TRANSACTION_STATUSES, purgeBefore);
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired(@NotNull OffsetDateTime purgeBefore, int batchSize) {
+        List<String> consentIds = aspspConsentDataRepository.findConsentIdsForPurge(FinalisedStatuses.CONSENT_STATUSES, FinalisedStatuses.TRANSACTION_STATUSES,
+                                                                                    purgeBefore, PageRequest.of(0, batchSize));
+        return consentIds.isEmpty()
+                   ? 0
+                   : aspspConsentDataRepository.deleteByConsentIds(consentIds);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.retention;
+
+import de.adorsys.psd2.consent.repository.PisAuthorisationRepository;
+import de.adorsys.psd2.consent.repository.PsuDataRepository;
+import de.adorsys.psd2.consent.service.FinalisedStatuses;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Purges authorisations and cancellation authorisations of payments in finalised status, that has not been changed
+ * during the retention period. PSU data of purged authorisations is removed as well, unless it is shared with the
+ * payment or another authorisation. The payments themselves and their PSU data are kept.
+ */
+@Component
+public class PisAuthorisationRetentionPolicy implements RetentionPolicy {
+    private final PisAuthorisationRepository pisAuthorisationRepository;
+    private final PsuDataRepository psuDataRepository;
+    private final int retentionDays;
+
+    public PisAuthorisationRetentionPolicy(PisAuthorisationRepository pisAuthorisationRepository,
+                                           PsuDataRepository psuDataRepository,
+                                           @Value("${cms.retention.pis-authorisation.days:0}") int retentionDays) {
+        this.pisAuthorisationRepository = pisAuthorisationRepository;
+        this.psuDataRepository = psuDataRepository;
+        this.retentionDays = retentionDays;
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return "pis-authorisation";
+    }
+
+    @Override
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long countExpired(@NotNull OffsetDateTime purgeBefore) {
+        return pisAuthorisationRepository.countForPurge(FinalisedStatuses.TRANSACTION_STATUSES, purgeBefore);
+    }
+
+    @Override
+    @Transactional
+    public int purgeExpired(@NotNull OffsetDateTime purgeBefore, int batchSize) {
+        List<Long> ids = pisAuthorisationRepository.findIdsForPurge(FinalisedStatuses.TRANSACTION_STATUSES, purgeBefore, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        // bulk delete doesn't cascade to PSU data of the authorisations
+        List<Long> psuDataIds = pisAuthorisationRepository.findPsuDataIdsByIds(ids);
+        pisAuthorisationRepository.deleteAvailableScaMethodsByAuthorisationIds(ids);
+        int deleted = pisAuthorisationRepository.deleteByIds(ids);
+        if (!psuDataIds.isEmpty()) {
+            psuDataRepository.deleteUnreferencedByIds(psuDataIds);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.retention;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Retention policy of one kind of CMS records, that are of no use after some time
+ * <p>
+ * Records are purged in batches, every batch is purged in its own transaction. Records matching the policy are
+ * never needed by the CMS anymore, so that an interrupted purge is simply continued by the next batch.
+ */
+public interface RetentionPolicy {
+    /**
+     * @return name of the policy, used in the property names ({@code cms.retention.<name>.days}) and in reports
+     */
+    @NotNull
+    String getName();
+
+    /**
+     * @return number of days the records are kept, {@code 0} if the records are kept forever
+     */
+    int getRetentionDays();
+
+    /**
+     * Counts the records, that would be purged by this policy
+     *
+     * @param purgeBefore records that are older than this date-time are purged
+     * @return number of records to purge
+     */
+    long countExpired(@NotNull OffsetDateTime purgeBefore);
+
+    /**
+     * Purges one batch of records
+     *
+     * @param purgeBefore records that are older than this date-time are purged
+     * @param batchSize   maximum number of records to purge
+     * @return number of purged records, is less than the batch size if there are no more records to purge
+     */
+    int purgeExpired(@NotNull OffsetDateTime purgeBefore, int batchSize);
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.retention;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of the purge of CMS records by retention policies since the start of the application, e.g. to be published
+ * as metrics
+ */
+@Component
+public class RetentionStatistics {
+    private final Map<String, AtomicLong> purgedRecords = new ConcurrentHashMap<>();
+    private final AtomicLong failedBatches = new AtomicLong();
+
+    private volatile Map<String, Long> lastRunReport = Collections.emptyMap();
+    private volatile boolean lastRunDryRun;
+    private volatile OffsetDateTime lastRunFinish;
+
+    public void recordPurged(@NotNull String policyName, int count) {
+        purgedRecords.computeIfAbsent(policyName, n -> new AtomicLong())
+            .addAndGet(count);
+    }
+
+    public void recordFailedBatch() {
+        failedBatches.incrementAndGet();
+    }
+
+    /**
+     * Records finished retention run
+     *
+     * @param report number of purged records by policy name, or number of records to purge in dry run
+     * @param dryRun <code>true</code> if the records have been counted only
+     * @param finish end of the run
+     */
+    public void recordRun(@NotNull Map<String, Long> report, boolean dryRun, @NotNull OffsetDateTime finish) {
+        lastRunReport = Collections.unmodifiableMap(new LinkedHashMap<>(report));
+        lastRunDryRun = dryRun;
+        lastRunFinish = finish;
+    }
+
+    public long getPurgedRecords(@NotNull String policyName) {
+        AtomicLong purged = purgedRecords.get(policyName);
+        return purged == null
+                   ? 0
+                   : purged.get();
+    }
+
+    public long getFailedBatches() {
+        return failedBatches.get();
+    }
+
+    @NotNull
+    public Map<String, Long> getLastRunReport() {
+        return lastRunReport;
+    }
+
+    public boolean isLastRunDryRun() {
+        return lastRunDryRun;
+    }
+
+    @Nullable
+    public OffsetDateTime getLastRunFinish() {
+        return lastRunFinish;
+    }
+}
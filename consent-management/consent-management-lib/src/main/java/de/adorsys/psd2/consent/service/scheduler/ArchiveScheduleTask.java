@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.scheduler;
+
+import de.adorsys.psd2.consent.service.archive.ArchiveService;
+import de.adorsys.psd2.consent.service.archive.ArchiveStatistics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.function.IntConsumer;
+import java.util.function.IntSupplier;
+
+/**
+ * Moves AIS consents and payments in finalised status, that have not been changed for
+ * {@code cms.archive.min-age-days} days, to the archive tables.
+ * <p>
+ * Records are archived in batches of {@code cms.archive.batch-size} records, each in its own transaction. At most
+ * {@code cms.archive.max-batches-per-run} batches of consents and of payments are archived per run, the remaining
+ * records are archived by the next runs.
+ */
+@Slf4j
+@Component
+public class ArchiveScheduleTask {
+    private final ArchiveService archiveService;
+    private final ArchiveStatistics archiveStatistics;
+    private final boolean enabled;
+    private final int minAgeDays;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public ArchiveScheduleTask(ArchiveService archiveService, ArchiveStatistics archiveStatistics,
+                               @Value("${cms.archive.enabled:false}") boolean enabled,
+                               @Value("${cms.archive.min-age-days:90}") int minAgeDays,
+                               @Value("${cms.archive.batch-size:500}") int batchSize,
+                               @Value("${cms.archive.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.archiveService = archiveService;
+        this.archiveStatistics = archiveStatistics;
+        this.enabled = enabled;
+        this.minAgeDays = minAgeDays;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(cron = "${archive.cron.expression:0 0 2 * * *}")
+    public void archiveFinalisedConsentsAndPayments() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Archive schedule task is run!");
+
+        OffsetDateTime start = OffsetDateTime.now();
+        OffsetDateTime changedBefore = start.minusDays(minAgeDays);
+        boolean consentsComplete = archive("AIS consents", () -> archiveService.archiveAisConsents(changedBefore, batchSize),
+                                           archiveStatistics::recordArchivedAisConsents);
+        boolean paymentsComplete = archive("payments", () -> archiveService.archivePayments(changedBefore, batchSize),
+                                           archiveStatistics::recordArchivedPayments);
+        archiveStatistics.recordRun(start, OffsetDateTime.now(), consentsComplete && paymentsComplete);
+    }
+
+    private boolean archive(String records, IntSupplier archiveBatch, IntConsumer archivedCounter) {
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int archived;
+            try {
+                archived = archiveBatch.getAsInt();
+            } catch (RuntimeException e) {
+                // the failed batch has been rolled back, it is retried by the next run
+                log.error("Archival of {} failed: {}", records, e.getMessage(), e);
+                archiveStatistics.recordFailedBatch();
+                return false;
+            }
+
+            archivedCounter.accept(archived);
+            if (archived < batchSize) {
+                return true;
+            }
+        }
+        log.info("Archival of {} stopped after {} batches, the remaining records are archived by the next run", records, maxBatchesPerRun);
+        return false;
+    }
+}
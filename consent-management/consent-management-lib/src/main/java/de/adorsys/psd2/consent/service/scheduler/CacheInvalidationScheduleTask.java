@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018-2018 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.psd2.consent.service.scheduler;
+
+import de.adorsys.psd2.consent.domain.CacheVersionEntity;
+import de.adorsys.psd2.consent.repository.CacheVersionRepository;
+import de.adorsys.psd2.consent.service.CacheVersionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Polls version stamps of the second-level cache regions and evicts the regions, that were changed by any CMS
+ * instance since the previous run. Query cache regions are evicted together with any changed region, as cached
+ * query results may refer to the changed entities.
+ * <p>
+ * Entries of the second-level cache expire after the time to live configured for their region in any case, so data
+ * changed directly in the database without incrementing the version stamp is never served longer than that.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class CacheInvalidationScheduleTask {
+    private final CacheVersionRepository cacheVersionRepository;
+    private final CacheVersionService cacheVersionService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final Map<String, Long> knownVersions = new ConcurrentHashMap<>();
+
+    @Scheduled(fixedDelayString = "${cms.cache.invalidation.poll-interval-ms:10000}")
+    public void evictChangedRegions() {
+        if (!cacheVersionService.isSecondLevelCacheEnabled()) {
+            return;
+        }
+
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        boolean regionEvicted = false;
+
+        for (CacheVersionEntity cacheVersion : cacheVersionRepository.findAll()) {
+            Long knownVersion = knownVersions.put(cacheVersion.getRegion(), cacheVersion.getVersion());
+
+            if (!Objects.equals(knownVersion, cacheVersion.getVersion())) {
+                log.debug("Cache region [{}] has been changed, version: {}", cacheVersion.getRegion(), cacheVersion.getVersion());
+                cache.evictRegion(cacheVersion.getRegion());
+                regionEvicted = true;
+            }
+        }
+
+        if (regionEvicted) {
+            cache.evictQueryRegions();
+        }
+    }
+}
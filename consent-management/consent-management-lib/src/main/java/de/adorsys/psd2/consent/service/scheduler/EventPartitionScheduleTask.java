@@ -0,0 +1,212 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.scheduler;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains monthly partitions of the event table in PostgreSQL (see migration 0066): creates the partitions for the
+ * current and {@code cms.event.partitioning.months-ahead} upcoming months and, if
+ * {@code cms.event.partitioning.retention-months} is set, drops whole partitions, that contain only older events.
+ * <p>
+ * Months already covered by another partition, e.g. by the legacy partition with events recorded before partitioning,
+ * are skipped. Events outside all partitions are kept in the default partition, so event writes never fail because of a
+ * missing partition. Such events are moved to the partition of their month, once it is created. Nothing is done, if the
+ * event table is not partitioned.
+ */
+@Slf4j
+@Component
+public class EventPartitionScheduleTask {
+    private static final String EVENT_TABLE = "event";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'_y'yyyy'm'MM");
+    private static final Pattern PARTITION_BOUNDS = Pattern.compile("FROM \\((?:MINVALUE|'([0-9-]{10})[^)]*)\\) TO \\((?:MAXVALUE|'([0-9-]{10})[^)]*)\\)");
+    private static final String FIND_PARTITIONS = "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i " +
+                                                      "JOIN pg_class c ON c.oid = i.inhrelid " +
+                                                      "WHERE i.inhparent = CAST(:parent AS regclass)";
+    private static final String DEFAULT_BOUND = "DEFAULT";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final String schemaPrefix;
+
+    public EventPartitionScheduleTask(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                                      @Value("${cms.event.partitioning.months-ahead:3}") int monthsAhead,
+                                      @Value("${cms.event.partitioning.retention-months:0}") int retentionMonths,
+                                      @Value("${cms.event.partitioning.schema:${spring.jpa.properties.hibernate.default_schema:}}") String schema) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.schemaPrefix = StringUtils.isBlank(schema) ? "" : schema + ".";
+    }
+
+    @Scheduled(cron = "${event-partition.cron.expression:0 30 0 * * *}")
+    public void maintainPartitions() {
+        List<Partition> partitions = findPartitions();
+        if (partitions.isEmpty()) {
+            return;
+        }
+
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        createUpcomingPartitions(currentMonth, partitions);
+
+        if (retentionMonths > 0) {
+            dropExpiredPartitions(currentMonth.minusMonths(retentionMonths), partitions);
+        }
+    }
+
+    private void createUpcomingPartitions(LocalDate currentMonth, List<Partition> partitions) {
+        Optional<Partition> defaultPartition = partitions.stream()
+                                                   .filter(Partition::isDefault)
+                                                   .findFirst();
+        for (int i = 0; i <= monthsAhead; i++) {
+            LocalDate from = currentMonth.plusMonths(i);
+            LocalDate to = from.plusMonths(1);
+            if (partitions.stream().noneMatch(p -> p.overlaps(from, to))) {
+                String partitionName = EVENT_TABLE + from.format(PARTITION_SUFFIX);
+                String createSql = String.format("CREATE TABLE %s%s PARTITION OF %s%s FOR VALUES FROM ('%s') TO ('%s')",
+                                                 schemaPrefix, partitionName, schemaPrefix, EVENT_TABLE, from, to);
+                boolean created = defaultPartition.filter(p -> containsEvents(p, from, to))
+                                      .map(p -> createWithEventsOfDefaultPartition(createSql, partitionName, p, from, to))
+                                      .orElseGet(() -> execute(createSql));
+                if (created) {
+                    log.info("Event partition for {} has been created", from);
+                }
+            }
+        }
+    }
+
+    private boolean containsEvents(Partition partition, LocalDate from, LocalDate to) {
+        String sql = "SELECT COUNT(*) FROM " + schemaPrefix + partition.name + timestampRange(from, to);
+        Number count = (Number) transactionTemplate.execute(status -> entityManager.createNativeQuery(sql).getSingleResult());
+        return count != null && count.longValue() > 0;
+    }
+
+    /**
+     * PostgreSQL rejects a new partition, as long as the default partition contains events of its range, so the default
+     * partition is detached, while the events are moved.
+     */
+    private boolean createWithEventsOfDefaultPartition(String createSql, String partitionName, Partition defaultPartition, LocalDate from, LocalDate to) {
+        String eventTable = schemaPrefix + EVENT_TABLE;
+        String defaultTable = schemaPrefix + defaultPartition.name;
+        return execute("ALTER TABLE " + eventTable + " DETACH PARTITION " + defaultTable,
+                       createSql,
+                       "INSERT INTO " + schemaPrefix + partitionName + " SELECT * FROM " + defaultTable + timestampRange(from, to),
+                       "DELETE FROM " + defaultTable + timestampRange(from, to),
+                       "ALTER TABLE " + eventTable + " ATTACH PARTITION " + defaultTable + " DEFAULT");
+    }
+
+    private String timestampRange(LocalDate from, LocalDate to) {
+        return String.format(" WHERE \"timestamp\" >= '%s' AND \"timestamp\" < '%s'", from, to);
+    }
+
+    private void dropExpiredPartitions(LocalDate retainedFrom, List<Partition> partitions) {
+        partitions.stream()
+            .filter(p -> !p.isDefault() && p.isOlderThan(retainedFrom))
+            .forEach(p -> {
+                if (execute("DROP TABLE " + schemaPrefix + p.name)) {
+                    log.info("Expired event partition {} with events before {} has been dropped", p.name, p.to);
+                }
+            });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Partition> findPartitions() {
+        List<Object[]> rows;
+        try {
+            rows = transactionTemplate.execute(status -> entityManager.createNativeQuery(FIND_PARTITIONS)
+                                                             .setParameter("parent", schemaPrefix + EVENT_TABLE)
+                                                             .getResultList());
+        } catch (RuntimeException e) {
+            log.debug("Event table is not partitioned: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+
+        List<Partition> partitions = new ArrayList<>();
+        for (Object[] row : rows) {
+            Matcher bounds = PARTITION_BOUNDS.matcher(String.valueOf(row[1]));
+            if (DEFAULT_BOUND.equals(row[1])) {
+                partitions.add(new Partition((String) row[0], null, null));
+            } else if (bounds.find()) {
+                partitions.add(new Partition((String) row[0], parseBound(bounds.group(1), LocalDate.MIN), parseBound(bounds.group(2), LocalDate.MAX)));
+            }
+        }
+        return partitions;
+    }
+
+    private LocalDate parseBound(String bound, LocalDate unbounded) {
+        return bound == null ? unbounded : LocalDate.parse(bound);
+    }
+
+    private boolean execute(String... statements) {
+        try {
+            transactionTemplate.execute(status -> {
+                for (String sql : statements) {
+                    entityManager.createNativeQuery(sql).executeUpdate();
+                }
+                return null;
+            });
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Event partition maintenance failed: {}, statements: {}", e.getMessage(), Arrays.toString(statements));
+            return false;
+        }
+    }
+
+    private static class Partition {
+        private final String name;
+        private final LocalDate from;
+        private final LocalDate to;
+
+        private Partition(String name, LocalDate from, LocalDate to) {
+            this.name = name;
+            this.from = from;
+            this.to = to;
+        }
+
+        private boolean isDefault() {
+            return from == null;
+        }
+
+        private boolean overlaps(LocalDate rangeFrom, LocalDate rangeTo) {
+            return !isDefault() && from.isBefore(rangeTo) && rangeFrom.isBefore(to);
+        }
+
+        private boolean isOlderThan(LocalDate date) {
+            return !to.isAfter(date);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.scheduler;
+
+import de.adorsys.psd2.consent.repository.IdempotencyRecordRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.OffsetDateTime;
+
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class IdempotencyScheduleTask {
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Scheduled(cron = "${idempotency.cron.expression:0 */10 * * * *}")
+    @Transactional
+    public void deleteExpiredIdempotencyRecords() {
+        log.info("Idempotency schedule task is run!");
+
+        int deleted = idempotencyRecordRepository.deleteExpired(OffsetDateTime.now());
+        if (deleted > 0) {
+            log.info("Expired idempotency records deleted: {}", deleted);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.scheduler;
+
+import de.adorsys.psd2.consent.service.retention.RetentionPolicy;
+import de.adorsys.psd2.consent.service.retention.RetentionStatistics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Purges CMS records, that are older than the retention period of their {@link RetentionPolicy}.
+ * <p>
+ * The retention period of each policy is set by {@code cms.retention.<policy name>.days}, policies with no retention
+ * period keep their records forever. Records are purged in batches of {@code cms.retention.batch-size} records, each in
+ * its own transaction, with a pause of {@code cms.retention.pause-ms} between the batches to let replicas catch up. In
+ * dry run ({@code cms.retention.dry-run}) the records to purge are only counted.
+ */
+@Slf4j
+@Component
+public class RetentionScheduleTask {
+    private final List<RetentionPolicy> retentionPolicies;
+    private final RetentionStatistics retentionStatistics;
+    private final boolean enabled;
+    private final boolean dryRun;
+    private final int batchSize;
+    private final long pauseMs;
+    private final int maxBatchesPerRun;
+
+    public RetentionScheduleTask(List<RetentionPolicy> retentionPolicies, RetentionStatistics retentionStatistics,
+                                 @Value("${cms.retention.enabled:false}") boolean enabled,
+                                 @Value("${cms.retention.dry-run:true}") boolean dryRun,
+                                 @Value("${cms.retention.batch-size:1000}") int batchSize,
+                                 @Value("${cms.retention.pause-ms:100}") long pauseMs,
+                                 @Value("${cms.retention.max-batches-per-run:1000}") int maxBatchesPerRun) {
+        this.retentionPolicies = retentionPolicies;
+        this.retentionStatistics = retentionStatistics;
+        this.enabled = enabled;
+        this.dryRun = dryRun;
+        this.batchSize = batchSize;
+        this.pauseMs = pauseMs;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(cron = "${retention.cron.expression:0 0 3 * * *}")
+    public void purgeExpiredRecords() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Retention schedule task is run!");
+
+        OffsetDateTime now = OffsetDateTime.now();
+        Map<String, Long> report = new LinkedHashMap<>();
+        for (RetentionPolicy policy : retentionPolicies) {
+            if (policy.getRetentionDays() <= 0) {
+                continue;
+            }
+            OffsetDateTime purgeBefore = now.minusDays(policy.getRetentionDays());
+            report.put(policy.getName(), dryRun
+                                             ? policy.countExpired(purgeBefore)
+                                             : purge(policy, purgeBefore));
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+
+        retentionStatistics.recordRun(report, dryRun, OffsetDateTime.now());
+        if (dryRun) {
+            log.info("Retention dry run finished, records to purge: {}", report);
+        } else {
+            log.info("Retention run finished, purged records: {}", report);
+        }
+    }
+
+    private long purge(RetentionPolicy policy, OffsetDateTime purgeBefore) {
+        long purged = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int purgedInBatch;
+            try {
+                purgedInBatch = policy.purgeExpired(purgeBefore, batchSize);
+            } catch (RuntimeException e) {
+                // the failed batch has been rolled back, it is retried by the next run
+                log.error("Purge of {} failed: {}", policy.getName(), e.getMessage(), e);
+                retentionStatistics.recordFailedBatch();
+                return purged;
+            }
+
+            purged += purgedInBatch;
+            retentionStatistics.recordPurged(policy.getName(), purgedInBatch);
+            if (purgedInBatch < batchSize || !pause()) {
+                return purged;
+            }
+        }
+        log.info("Purge of {} stopped after {} batches, the remaining records are purged by the next run", policy.getName(), maxBatchesPerRun);
+        return purged;
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            log.info("Retention run has been interrupted");
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -16,8 +16,10 @@
 
 package de.adorsys.psd2.consent.service.scheduler;
 
+import de.adorsys.psd2.consent.domain.CacheRegion;
 import de.adorsys.psd2.consent.domain.TppStopListEntity;
 import de.adorsys.psd2.consent.repository.TppStopListRepository;
+import de.adorsys.psd2.consent.service.CacheVersionService;
 import de.adorsys.psd2.xs2a.core.tpp.TppStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -34,6 +36,7 @@ import java.util.stream.Collectors;
 @Component
 public class TppStopListScheduleTask {
     private final TppStopListRepository tppStopListRepository;
+    private final CacheVersionService cacheVersionService;
 
     @Scheduled(cron = "${stoplist.cron.expression}")
     @Transactional
@@ -45,6 +48,7 @@ public class TppStopListScheduleTask {
 
         if (!unblockedTpps.isEmpty()) {
             tppStopListRepository.saveAll(unblockedTpps);
+            cacheVersionService.registerChange(CacheRegion.TPP_STOP_LIST);
         }
     }
 
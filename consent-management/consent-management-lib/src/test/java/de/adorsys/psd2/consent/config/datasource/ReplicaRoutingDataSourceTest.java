@@ -0,0 +1,251 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.config.datasource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+/**
+ * Routes transactions between two in-memory H2 databases, each of them knows its own name.
+ */
+public class ReplicaRoutingDataSourceTest {
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+    private static final String LAG_QUERY = "SELECT lag_ms FROM replica_lag";
+    private static final long MAX_LAG_MS = 1000;
+    private static final String REQUEST_ID = "2f77a125-aa7a-45c0-b414-cea25a116035";
+
+    private JdbcTemplate primaryJdbcTemplate;
+    private JdbcTemplate replicaJdbcTemplate;
+    private ReplicaDataSource replica;
+    private ReadYourWritesTracker readYourWritesTracker;
+    private ReplicaLagMonitor replicaLagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @Before
+    public void setUp() {
+        primaryJdbcTemplate = new JdbcTemplate(buildDatabase(PRIMARY));
+        replicaJdbcTemplate = new JdbcTemplate(buildDatabase(REPLICA));
+        replicaJdbcTemplate.execute("CREATE TABLE replica_lag (lag_ms BIGINT)");
+        replicaJdbcTemplate.update("INSERT INTO replica_lag VALUES (0)");
+
+        replica = new ReplicaDataSource(REPLICA, replicaJdbcTemplate.getDataSource());
+        readYourWritesTracker = new ReadYourWritesTracker(60_000);
+        replicaLagMonitor = new ReplicaLagMonitor(Collections.singletonList(replica), LAG_QUERY, MAX_LAG_MS);
+        initRouting(ReplicaRoutingDataSource.wrap(primaryJdbcTemplate.getDataSource(), Collections.singletonList(replica), readYourWritesTracker));
+    }
+
+    @After
+    public void tearDown() {
+        readYourWritesTracker.unbindRequestId();
+        primaryJdbcTemplate.execute("SHUTDOWN");
+        replicaJdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    public void readOnlyTransaction_replicaWithinLag_shouldUseReplica() {
+        // Given
+        replicaLagMonitor.checkReplicas();
+
+        // Then
+        assertTrue(replica.isAvailable());
+        assertEquals(0, replica.getLagMs());
+        assertEquals(REPLICA, readDatabaseName(readOnlyTransaction));
+    }
+
+    @Test
+    public void readWriteTransaction_shouldUsePrimary() {
+        // Given
+        replicaLagMonitor.checkReplicas();
+
+        // Then
+        assertEquals(PRIMARY, readDatabaseName(readWriteTransaction));
+    }
+
+    @Test
+    public void readOnlyTransaction_replicaNotCheckedYet_shouldUsePrimary() {
+        assertEquals(PRIMARY, readDatabaseName(readOnlyTransaction));
+    }
+
+    @Test
+    public void readOnlyTransaction_replicaLagsBehind_shouldUsePrimary() {
+        // Given
+        replicaJdbcTemplate.update("UPDATE replica_lag SET lag_ms = ?", MAX_LAG_MS + 1);
+        replicaLagMonitor.checkReplicas();
+
+        // Then
+        assertFalse(replica.isAvailable());
+        assertEquals(PRIMARY, readDatabaseName(readOnlyTransaction));
+
+        // When
+        replicaJdbcTemplate.update("UPDATE replica_lag SET lag_ms = ?", MAX_LAG_MS);
+        replicaLagMonitor.checkReplicas();
+
+        // Then
+        assertEquals(REPLICA, readDatabaseName(readOnlyTransaction));
+    }
+
+    @Test
+    public void readOnlyTransaction_lagQueryFails_shouldUsePrimary() {
+        // Given
+        replicaLagMonitor.checkReplicas();
+        replicaJdbcTemplate.execute("DROP TABLE replica_lag");
+
+        // When
+        replicaLagMonitor.checkReplicas();
+
+        // Then
+        assertFalse(replica.isAvailable());
+        assertEquals(-1, replica.getLagMs());
+        assertEquals(PRIMARY, readDatabaseName(readOnlyTransaction));
+    }
+
+    @Test
+    public void readOnlyTransaction_afterWriteOfSameRequest_shouldUsePrimary() {
+        // Given
+        replicaLagMonitor.checkReplicas();
+        readYourWritesTracker.bindRequestId(REQUEST_ID);
+
+        // When
+        readWriteTransaction.execute(status -> jdbcTemplate.update("UPDATE database_name SET name = name"));
+
+        // Then
+        assertEquals(PRIMARY, readDatabaseName(readOnlyTransaction));
+
+        // When
+        readYourWritesTracker.bindRequestId("other request");
+
+        // Then
+        assertEquals(REPLICA, readDatabaseName(readOnlyTransaction));
+    }
+
+    @Test
+    public void readOnlyTransaction_afterReadWriteTransactionWithoutWrites_shouldUseReplica() {
+        // Given
+        replicaLagMonitor.checkReplicas();
+        readYourWritesTracker.bindRequestId(REQUEST_ID);
+
+        // When
+        assertEquals(PRIMARY, readDatabaseName(readWriteTransaction));
+
+        // Then
+        assertEquals(REPLICA, readDatabaseName(readOnlyTransaction));
+    }
+
+    @Test
+    public void readOnlyTransaction_afterBatchUpdateOfSameRequest_shouldUsePrimary() {
+        // Given
+        replicaLagMonitor.checkReplicas();
+        readYourWritesTracker.bindRequestId(REQUEST_ID);
+
+        // When
+        readWriteTransaction.execute(status -> jdbcTemplate.batchUpdate("UPDATE database_name SET name = name"));
+
+        // Then
+        assertEquals(PRIMARY, readDatabaseName(readOnlyTransaction));
+    }
+
+    @Test
+    public void readOnlyTransaction_afterReadYourWritesPeriod_shouldUseReplica() {
+        // Given
+        readYourWritesTracker = new ReadYourWritesTracker(0);
+        initRouting(ReplicaRoutingDataSource.wrap(primaryJdbcTemplate.getDataSource(), Collections.singletonList(replica), readYourWritesTracker));
+        replicaLagMonitor.checkReplicas();
+        readYourWritesTracker.bindRequestId(REQUEST_ID);
+
+        // When
+        readWriteTransaction.execute(status -> jdbcTemplate.update("UPDATE database_name SET name = name"));
+
+        // Then
+        assertEquals(REPLICA, readDatabaseName(readOnlyTransaction));
+    }
+
+    @Test
+    public void readOnlyTransaction_unreachableReplica_shouldUseOtherReplica() {
+        // Given
+        ReplicaDataSource brokenReplica = new ReplicaDataSource("broken", new BrokenDataSource());
+        new ReplicaLagMonitor(Collections.singletonList(brokenReplica), LAG_QUERY, MAX_LAG_MS).checkReplicas();
+        replicaLagMonitor.checkReplicas();
+        initRouting(ReplicaRoutingDataSource.wrap(primaryJdbcTemplate.getDataSource(), Arrays.asList(brokenReplica, replica), readYourWritesTracker));
+
+        // Then
+        assertFalse(brokenReplica.isAvailable());
+        assertEquals(REPLICA, readDatabaseName(readOnlyTransaction));
+        assertEquals(REPLICA, readDatabaseName(readOnlyTransaction));
+    }
+
+    @Test
+    public void readOnlyTransaction_availableReplicaFailsOnConnect_shouldUsePrimaryAndDisableReplica() {
+        // Given
+        ReplicaDataSource closedReplica = new ReplicaDataSource("closed", new BrokenDataSource());
+        closedReplica.updateLag(0, MAX_LAG_MS);
+        initRouting(ReplicaRoutingDataSource.wrap(primaryJdbcTemplate.getDataSource(), Collections.singletonList(closedReplica), readYourWritesTracker));
+
+        // Then
+        assertEquals(PRIMARY, readDatabaseName(readOnlyTransaction));
+        assertFalse(closedReplica.isAvailable());
+    }
+
+    private void initRouting(DataSource routingDataSource) {
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(routingDataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    private String readDatabaseName(TransactionTemplate transactionTemplate) {
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM database_name", String.class));
+    }
+
+    private DataSource buildDatabase(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:cms-" + name + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE database_name (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO database_name VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static class BrokenDataSource extends AbstractDataSource {
+        @Override
+        public Connection getConnection() throws SQLException {
+            throw new SQLException("Connection refused");
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            throw new SQLException("Connection refused");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.domain;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CompressedBlobConverterTest {
+    private static final byte[] JSON_PAYMENT = ("{\"payments\":["
+                                                    + repeat("{\"endToEndIdentification\":\"WBG-123456789\",\"debtorAccount\":{\"iban\":\"DE52500105173911841934\",\"currency\":\"EUR\"},"
+                                                                 + "\"instructedAmount\":{\"currency\":\"EUR\",\"amount\":\"1000.00\"},\"creditorName\":\"WBG\"},", 20)
+                                                    + "]}").getBytes(StandardCharsets.UTF_8);
+
+    private final CompressedBlobConverter converter = new CompressedBlobConverter();
+
+    @Test
+    public void convertToDatabaseColumn_compressibleData_shouldBeCompressed() {
+        // When
+        byte[] actual = converter.convertToDatabaseColumn(JSON_PAYMENT);
+
+        // Then
+        assertTrue(CompressedBlobConverter.isCompressed(actual));
+        assertTrue(actual.length < JSON_PAYMENT.length);
+        assertArrayEquals(JSON_PAYMENT, converter.convertToEntityAttribute(actual));
+    }
+
+    @Test
+    public void convertToDatabaseColumn_incompressibleData_shouldBeStoredUnchanged() {
+        // Given
+        byte[] encrypted = new byte[256];
+        new Random(42).nextBytes(encrypted);
+        encrypted[0] = 1;
+
+        // When
+        byte[] actual = converter.convertToDatabaseColumn(encrypted);
+
+        // Then
+        assertArrayEquals(encrypted, actual);
+        assertArrayEquals(encrypted, converter.convertToEntityAttribute(actual));
+    }
+
+    @Test
+    public void convertToEntityAttribute_uncompressedLegacyData_shouldBeReadUnchanged() {
+        // When
+        byte[] actual = converter.convertToEntityAttribute(JSON_PAYMENT);
+
+        // Then
+        assertArrayEquals(JSON_PAYMENT, actual);
+    }
+
+    @Test
+    public void convert_nullAndEmpty_shouldBePassedThrough() {
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+        assertArrayEquals(new byte[0], converter.convertToDatabaseColumn(new byte[0]));
+        assertArrayEquals(new byte[0], converter.convertToEntityAttribute(new byte[0]));
+    }
+
+    private static String repeat(String value, int times) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.repository;
+
+import de.adorsys.psd2.consent.api.CmsAuthorisationType;
+import de.adorsys.psd2.consent.api.TypeAccess;
+import de.adorsys.psd2.consent.domain.AccountReferenceEntity;
+import de.adorsys.psd2.consent.domain.AuthorisationRedirect;
+import de.adorsys.psd2.consent.domain.PsuData;
+import de.adorsys.psd2.consent.domain.TppInfoEntity;
+import de.adorsys.psd2.consent.domain.account.*;
+import de.adorsys.psd2.consent.domain.payment.*;
+import de.adorsys.psd2.xs2a.core.ais.AccountAccessType;
+import de.adorsys.psd2.xs2a.core.consent.AisConsentRequestType;
+import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
+import de.adorsys.psd2.xs2a.core.profile.AccountReferenceType;
+import de.adorsys.psd2.xs2a.core.profile.PaymentType;
+import de.adorsys.psd2.xs2a.core.profile.ScaApproach;
+import de.adorsys.psd2.xs2a.core.sca.ScaStatus;
+import de.adorsys.psd2.xs2a.core.tpp.TppRole;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.Currency;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Runs the fetch plans of hot CMS reads against in-memory H2 database, the number of executed statements is taken from
+ * Hibernate statistics. Each test touches the same associations as the service using the fetch plan.
+ */
+public class FetchPlanStatementCountTest {
+    private static final String DB_URL = "jdbc:h2:mem:cms-fetch-plan;DB_CLOSE_DELAY=-1";
+    private static final String CONSENT_ID = "consent id";
+    private static final String PAYMENT_ID = "payment id";
+    private static final String AUTHORISATION_ID = "authorisation 1";
+    private static final String NOK_REDIRECT_URI = "nok redirect uri";
+    private static final String DEFAULT_SERVICE_INSTANCE_ID = "UNDEFINED";
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private AisConsentRepository aisConsentRepository;
+    private PisCommonPaymentDataRepository pisCommonPaymentDataRepository;
+    private AisConsentAuthorisationRepository aisConsentAuthorisationRepository;
+    private PisAuthorisationRepository pisAuthorisationRepository;
+
+    @Before
+    public void setUp() {
+        sessionFactory = new MetadataSources(new StandardServiceRegistryBuilder()
+                                                 .applySetting(AvailableSettings.URL, DB_URL)
+                                                 .applySetting(AvailableSettings.DIALECT, H2Dialect.class.getName())
+                                                 .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                                                 .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                                                 .applySetting(AvailableSettings.GENERATE_STATISTICS, true)
+                                                 .build())
+                             .addAnnotatedClass(AisConsent.class)
+                             .addAnnotatedClass(AisConsentUsage.class)
+                             .addAnnotatedClass(AisConsentAuthorization.class)
+                             .addAnnotatedClass(PisCommonPaymentData.class)
+                             .addAnnotatedClass(PisCommonPaymentPayload.class)
+                             .addAnnotatedClass(PisPaymentData.class)
+                             .addAnnotatedClass(PisAuthorization.class)
+                             .addAnnotatedClass(PisAddress.class)
+                             .addAnnotatedClass(PisRemittance.class)
+                             .addAnnotatedClass(PsuData.class)
+                             .addAnnotatedClass(TppInfoEntity.class)
+                             .addAnnotatedClass(AccountReferenceEntity.class)
+                             .buildMetadata()
+                             .buildSessionFactory();
+
+        entityManager = sessionFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        entityManager.persist(buildAisConsent());
+        entityManager.persist(buildPisCommonPaymentData());
+        entityManager.flush();
+        entityManager.clear();
+
+        JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(entityManager);
+        aisConsentRepository = repositoryFactory.getRepository(AisConsentRepository.class);
+        pisCommonPaymentDataRepository = repositoryFactory.getRepository(PisCommonPaymentDataRepository.class);
+        aisConsentAuthorisationRepository = repositoryFactory.getRepository(AisConsentAuthorisationRepository.class);
+        pisAuthorisationRepository = repositoryFactory.getRepository(PisAuthorisationRepository.class);
+        sessionFactory.getStatistics().clear();
+    }
+
+    @After
+    public void tearDown() {
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    @Test
+    public void aisConsent_status_shouldUseOneStatement() {
+        // When
+        AisConsent consent = aisConsentRepository.findForStatusByExternalId(CONSENT_ID).get();
+        consent.isNonReccuringAlreadyUsed();
+        consent.getTppInfo().getAuthorisationNumber();
+
+        // Then
+        assertEquals(ConsentStatus.VALID, consent.getConsentStatus());
+        assertEquals(1, statementCount());
+    }
+
+    @Test
+    public void aisConsent_fullRead_shouldLoadRemainingCollectionsSeparately() {
+        // When
+        AisConsent consent = aisConsentRepository.findDistinctForFullReadByExternalId(CONSENT_ID).get();
+        consent.getTppInfo().getTppRoles().size();
+        consent.getAccesses().size();
+        consent.getAspspAccountAccesses().size();
+        consent.getAuthorizations().forEach(a -> a.getPsuData().getPsuId());
+
+        // Then
+        assertEquals(2, consent.getPsuDataList().size());
+        // consent with TPP and PSU data, TPP roles, accesses, ASPSP accesses, authorisations with their PSU data
+        assertEquals(5, statementCount());
+    }
+
+    @Test
+    public void aisConsent_authorisation_shouldUseOneStatement() {
+        // When
+        AisConsent consent = aisConsentRepository.findDistinctForAuthorisationByExternalId(CONSENT_ID).get();
+        consent.getAuthorizations().forEach(a -> a.getPsuData().getPsuId());
+
+        // Then
+        assertEquals(2, consent.getAuthorizations().size());
+        assertEquals(1, statementCount());
+    }
+
+    @Test
+    public void pisCommonPayment_status_shouldUseOneStatement() {
+        // When
+        PisCommonPaymentData payment = pisCommonPaymentDataRepository.findForStatusByPaymentId(PAYMENT_ID).get();
+        payment.getTppInfo().getAuthorisationNumber();
+
+        // Then
+        assertEquals(TransactionStatus.RCVD, payment.getTransactionStatus());
+        assertEquals(1, statementCount());
+    }
+
+    @Test
+    public void pisCommonPayment_fullRead_shouldLoadPaymentsWithTheirReferencesAtOnce() {
+        // When
+        PisCommonPaymentData payment = pisCommonPaymentDataRepository.findDistinctForFullReadByPaymentId(PAYMENT_ID).get();
+        payment.getTppInfo().getTppRoles().size();
+        payment.getPsuDataList().size();
+        payment.getPayments().forEach(p -> {
+            p.getDebtorAccount().getIban();
+            p.getCreditorAccount().getIban();
+            p.getCreditorAddress().getCity();
+            p.getRemittanceInformationStructured().getReference();
+        });
+
+        // Then
+        assertEquals(2, payment.getPayments().size());
+        // payment with TPP and single payments, TPP roles, PSU data
+        assertEquals(3, statementCount());
+    }
+
+    @Test
+    public void pisCommonPayment_authorisation_shouldUseOneStatement() {
+        // When
+        PisCommonPaymentData payment = pisCommonPaymentDataRepository.findDistinctForAuthorisationByPaymentId(PAYMENT_ID).get();
+        payment.getAuthorizations().forEach(a -> a.getPsuData().getPsuId());
+
+        // Then
+        assertEquals(2, payment.getAuthorizations().size());
+        assertEquals(1, statementCount());
+    }
+
+    @Test
+    public void aisConsentAuthorisation_redirect_shouldUseOneStatement() {
+        // When
+        AuthorisationRedirect redirect = aisConsentAuthorisationRepository.findRedirect(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID).get();
+
+        // Then
+        assertEquals(ScaStatus.RECEIVED, redirect.getScaStatus());
+        assertEquals(NOK_REDIRECT_URI, redirect.getTppNokRedirectUri());
+        assertFalse(redirect.isExpired());
+        assertEquals(1, statementCount());
+        assertEquals(0, sessionFactory.getStatistics().getEntityLoadCount());
+        assertFalse(aisConsentAuthorisationRepository.findRedirect(AUTHORISATION_ID, "other instance").isPresent());
+    }
+
+    @Test
+    public void pisAuthorisation_redirect_shouldUseOneStatement() {
+        // When
+        AuthorisationRedirect redirect = pisAuthorisationRepository.findRedirect(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID).get();
+
+        // Then
+        assertEquals(ScaStatus.RECEIVED, redirect.getScaStatus());
+        assertEquals(NOK_REDIRECT_URI, redirect.getTppNokRedirectUri());
+        assertFalse(redirect.isExpired());
+        assertEquals(1, statementCount());
+        assertEquals(0, sessionFactory.getStatistics().getEntityLoadCount());
+    }
+
+    @Test
+    public void aisConsentAuthorisation_updateScaStatus_shouldUseOneStatement() {
+        // Given
+        Long authorisationId = aisConsentAuthorisationRepository.findRedirect(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID).get().getAuthorisationId();
+        sessionFactory.getStatistics().clear();
+
+        // When
+        aisConsentAuthorisationRepository.updateScaStatus(authorisationId, ScaStatus.FAILED);
+
+        // Then
+        assertEquals(1, statementCount());
+        assertEquals(ScaStatus.FAILED, aisConsentAuthorisationRepository.findRedirect(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID).get().getScaStatus());
+    }
+
+    private long statementCount() {
+        return sessionFactory.getStatistics().getPrepareStatementCount();
+    }
+
+    private AisConsent buildAisConsent() {
+        AisConsent consent = new AisConsent();
+        consent.setExternalId(CONSENT_ID);
+        consent.setRecurringIndicator(true);
+        consent.setRequestDateTime(LocalDateTime.now());
+        consent.setExpireDate(LocalDate.now().plusDays(1));
+        consent.setConsentStatus(ConsentStatus.VALID);
+        consent.setAllowedFrequencyPerDay(4);
+        consent.setTppFrequencyPerDay(4);
+        consent.setAisConsentRequestType(AisConsentRequestType.DEDICATED_ACCOUNTS);
+        consent.setAvailableAccounts(AccountAccessType.ALL_ACCOUNTS);
+        consent.setTppInfo(buildTppInfo());
+        consent.getPsuDataList().add(buildPsuData("psu 1"));
+        consent.getPsuDataList().add(buildPsuData("psu 2"));
+        consent.addAccountAccess(Collections.singleton(new TppAccountAccess("iban", TypeAccess.ACCOUNT, AccountReferenceType.IBAN, Currency.getInstance("EUR"))));
+        consent.addAspspAccountAccess(Collections.singleton(new AspspAccountAccess("iban", TypeAccess.ACCOUNT, AccountReferenceType.IBAN, Currency.getInstance("EUR"), "resource id", "aspsp account id")));
+        for (String authorisationId : new String[]{"authorisation 1", "authorisation 2"}) {
+            AisConsentAuthorization authorisation = new AisConsentAuthorization();
+            authorisation.setExternalId(authorisationId);
+            authorisation.setScaStatus(ScaStatus.RECEIVED);
+            authorisation.setScaApproach(ScaApproach.REDIRECT);
+            authorisation.setRedirectUrlExpirationTimestamp(OffsetDateTime.now().plusMinutes(5));
+            authorisation.setPsuData(buildPsuData(authorisationId));
+            authorisation.setConsent(consent);
+            consent.getAuthorizations().add(authorisation);
+        }
+        return consent;
+    }
+
+    private PisCommonPaymentData buildPisCommonPaymentData() {
+        PisCommonPaymentData commonPayment = new PisCommonPaymentData();
+        commonPayment.setPaymentId(PAYMENT_ID);
+        commonPayment.setPaymentType(PaymentType.BULK);
+        commonPayment.setPaymentProduct("sepa-credit-transfers");
+        commonPayment.setTransactionStatus(TransactionStatus.RCVD);
+        commonPayment.setTppInfo(buildTppInfo());
+        commonPayment.getPsuDataList().add(buildPsuData("psu 1"));
+        for (String paymentId : new String[]{"payment 1", "payment 2"}) {
+            PisPaymentData payment = new PisPaymentData();
+            payment.setPaymentId(paymentId);
+            payment.setCurrency(Currency.getInstance("EUR"));
+            payment.setAmount(BigDecimal.TEN);
+            payment.setCreditorName("creditor");
+            payment.setDebtorAccount(buildAccountReference("debtor " + paymentId));
+            payment.setCreditorAccount(buildAccountReference("creditor " + paymentId));
+            payment.setCreditorAddress(new PisAddress());
+            payment.setRemittanceInformationStructured(new PisRemittance());
+            payment.setPaymentData(commonPayment);
+            commonPayment.getPayments().add(payment);
+        }
+        for (String authorisationId : new String[]{"authorisation 1", "authorisation 2"}) {
+            PisAuthorization authorisation = new PisAuthorization();
+            authorisation.setExternalId(authorisationId);
+            authorisation.setScaStatus(ScaStatus.RECEIVED);
+            authorisation.setScaApproach(ScaApproach.REDIRECT);
+            authorisation.setRedirectUrlExpirationTimestamp(OffsetDateTime.now().plusMinutes(5));
+            authorisation.setAuthorizationType(CmsAuthorisationType.CREATED);
+            authorisation.setPsuData(buildPsuData(authorisationId));
+            authorisation.setPaymentData(commonPayment);
+            commonPayment.getAuthorizations().add(authorisation);
+        }
+        return commonPayment;
+    }
+
+    private TppInfoEntity buildTppInfo() {
+        TppInfoEntity tppInfo = new TppInfoEntity();
+        tppInfo.setAuthorisationNumber("authorisation number");
+        tppInfo.setAuthorityId("authority id");
+        tppInfo.setNokRedirectUri(NOK_REDIRECT_URI);
+        tppInfo.setTppRoles(Collections.singletonList(TppRole.AISP));
+        return tppInfo;
+    }
+
+    private PsuData buildPsuData(String psuId) {
+        return new PsuData(psuId, null, null, null);
+    }
+
+    private AccountReferenceEntity buildAccountReference(String iban) {
+        AccountReferenceEntity account = new AccountReferenceEntity();
+        account.setIban(iban);
+        return account;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.repository;
+
+import de.adorsys.psd2.consent.domain.AccountReferenceEntity;
+import de.adorsys.psd2.consent.domain.PsuData;
+import de.adorsys.psd2.consent.domain.TppInfoEntity;
+import de.adorsys.psd2.consent.domain.payment.*;
+import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
+import de.adorsys.psd2.xs2a.core.profile.PaymentType;
+import de.adorsys.psd2.xs2a.core.tpp.TppRole;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import javax.persistence.EntityManager;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Stores a dataset of bulk payments in in-memory H2 database and checks the size of stored payment blobs and the number
+ * of statements needed to read the payments with and without their payment data.
+ */
+public class PisCommonPaymentPayloadStorageTest {
+    private static final String DB_URL = "jdbc:h2:mem:cms-payment-payload;DB_CLOSE_DELAY=-1";
+    private static final int PAYMENTS_COUNT = 25;
+    private static final int BULK_SIZE = 50;
+    private static final byte[] BULK_PAYMENT = buildBulkPayment();
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private PisCommonPaymentDataRepository pisCommonPaymentDataRepository;
+
+    @Before
+    public void setUp() {
+        sessionFactory = new MetadataSources(new StandardServiceRegistryBuilder()
+                                                 .applySetting(AvailableSettings.URL, DB_URL)
+                                                 .applySetting(AvailableSettings.DIALECT, H2Dialect.class.getName())
+                                                 .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                                                 .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                                                 .applySetting(AvailableSettings.GENERATE_STATISTICS, true)
+                                                 .build())
+                             .addAnnotatedClass(PisCommonPaymentData.class)
+                             .addAnnotatedClass(PisCommonPaymentPayload.class)
+                             .addAnnotatedClass(PisPaymentData.class)
+                             .addAnnotatedClass(PisAuthorization.class)
+                             .addAnnotatedClass(PisAddress.class)
+                             .addAnnotatedClass(PisRemittance.class)
+                             .addAnnotatedClass(PsuData.class)
+                             .addAnnotatedClass(TppInfoEntity.class)
+                             .addAnnotatedClass(AccountReferenceEntity.class)
+                             .buildMetadata()
+                             .buildSessionFactory();
+
+        entityManager = sessionFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        for (int i = 0; i < PAYMENTS_COUNT; i++) {
+            entityManager.persist(buildPisCommonPaymentData("payment " + i));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        pisCommonPaymentDataRepository = new JpaRepositoryFactory(entityManager).getRepository(PisCommonPaymentDataRepository.class);
+        sessionFactory.getStatistics().clear();
+    }
+
+    @After
+    public void tearDown() {
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    @Test
+    public void storedPayload_shouldBeCompressed() {
+        // When
+        long storedBytes = sumOfLengths("select length(payment) from pis_common_payment_payload");
+
+        // Then
+        // JSON of bulk payments is compressed at least five times
+        assertTrue(storedBytes * 5 < (long) BULK_PAYMENT.length * PAYMENTS_COUNT);
+    }
+
+    @Test
+    public void status_shouldNotLoadPayload() {
+        // When
+        PisCommonPaymentData payment = pisCommonPaymentDataRepository.findForStatusByPaymentId("payment 0").get();
+
+        // Then
+        assertEquals(TransactionStatus.RCVD, payment.getTransactionStatus());
+        assertFalse(Hibernate.isInitialized(payment.getPayload()));
+        assertEquals(1, statementCount());
+    }
+
+    @Test
+    public void getPayment_shouldLoadAndDecompressPayload() {
+        // Given
+        PisCommonPaymentData payment = pisCommonPaymentDataRepository.findForStatusByPaymentId("payment 0").get();
+
+        // When
+        byte[] actual = payment.getPayment();
+
+        // Then
+        assertArrayEquals(BULK_PAYMENT, actual);
+        // payment and its payload
+        assertEquals(2, statementCount());
+    }
+
+    @Test
+    public void getPayment_severalPayments_shouldLoadPayloadsInBatch() {
+        // Given
+        List<PisCommonPaymentData> payments = entityManager.createQuery("select p from pis_common_payment p join fetch p.tppInfo", PisCommonPaymentData.class)
+                                                  .getResultList();
+
+        // When
+        payments.forEach(PisCommonPaymentData::getPayment);
+
+        // Then
+        assertEquals(PAYMENTS_COUNT, payments.size());
+        // payments and one batch of payloads
+        assertEquals(2, statementCount());
+    }
+
+    @Test
+    public void getPayment_uncompressedLegacyPayload_shouldBeReadUnchanged() {
+        // Given
+        entityManager.createNativeQuery("update pis_common_payment_payload set payment = ?")
+            .setParameter(1, BULK_PAYMENT)
+            .executeUpdate();
+
+        // When
+        byte[] actual = pisCommonPaymentDataRepository.findByPaymentId("payment 1").get().getPayment();
+
+        // Then
+        assertArrayEquals(BULK_PAYMENT, actual);
+    }
+
+    private long statementCount() {
+        return sessionFactory.getStatistics().getPrepareStatementCount();
+    }
+
+    private long sumOfLengths(String query) {
+        List<?> lengths = entityManager.createNativeQuery(query).getResultList();
+        return lengths.stream()
+                   .mapToLong(length -> ((Number) length).longValue())
+                   .sum();
+    }
+
+    private PisCommonPaymentData buildPisCommonPaymentData(String paymentId) {
+        PisCommonPaymentData commonPayment = new PisCommonPaymentData();
+        commonPayment.setPaymentId(paymentId);
+        commonPayment.setPaymentType(PaymentType.BULK);
+        commonPayment.setPaymentProduct("sepa-credit-transfers");
+        commonPayment.setTransactionStatus(TransactionStatus.RCVD);
+        commonPayment.setPayment(BULK_PAYMENT);
+        TppInfoEntity tppInfo = new TppInfoEntity();
+        tppInfo.setAuthorisationNumber("authorisation number");
+        tppInfo.setAuthorityId("authority id");
+        tppInfo.setTppRoles(Collections.singletonList(TppRole.PISP));
+        commonPayment.setTppInfo(tppInfo);
+        return commonPayment;
+    }
+
+    private static byte[] buildBulkPayment() {
+        StringBuilder json = new StringBuilder("{\"batchBookingPreferred\":false,\"debtorAccount\":{\"iban\":\"DE52500105173911841934\",\"currency\":\"EUR\"},\"payments\":[");
+        for (int i = 0; i < BULK_SIZE; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"endToEndIdentification\":\"WBG-").append(123456789 + i)
+                .append("\",\"instructedAmount\":{\"currency\":\"EUR\",\"amount\":\"").append(100 + i).append(".00\"}")
+                .append(",\"creditorAccount\":{\"iban\":\"DE15500105172295759744\",\"currency\":\"EUR\"}")
+                .append(",\"creditorName\":\"WBG\",\"creditorAddress\":{\"street\":\"Rheinstrasse\",\"buildingNumber\":\"7\",\"city\":\"Nuremberg\",\"postalCode\":\"90431\",\"country\":\"DE\"}")
+                .append(",\"remittanceInformationUnstructured\":\"Ref. Number WBG-").append(i).append("\"}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -103,7 +103,7 @@ public class AisAuthorisationServiceInternalTest {
     public void getAuthorisationScaStatus_success() {
         List<AisConsentAuthorization> authorisations = Collections.singletonList(buildAisConsentAuthorisation(AUTHORISATION_ID, SCA_STATUS));
         AisConsent consent = buildConsentWithAuthorisations(EXTERNAL_CONSENT_ID, authorisations);
-        when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID))
+        when(aisConsentRepository.findDistinctForAuthorisationByExternalId(EXTERNAL_CONSENT_ID))
             .thenReturn(Optional.of(consent));
 
         // When
@@ -116,7 +116,7 @@ public class AisAuthorisationServiceInternalTest {
 
     @Test
     public void getAuthorisationScaStatus_failure_wrongConsentId() {
-        when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID_NOT_EXIST))
+        when(aisConsentRepository.findDistinctForAuthorisationByExternalId(EXTERNAL_CONSENT_ID_NOT_EXIST))
             .thenReturn(Optional.empty());
 
         // When
@@ -130,7 +130,7 @@ public class AisAuthorisationServiceInternalTest {
     public void getAuthorisationScaStatus_failure_wrongAuthorisationId() {
         List<AisConsentAuthorization> authorisations = Collections.singletonList(buildAisConsentAuthorisation(WRONG_AUTHORISATION_ID, SCA_STATUS));
         AisConsent consent = buildConsentWithAuthorisations(EXTERNAL_CONSENT_ID, authorisations);
-        when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID))
+        when(aisConsentRepository.findDistinctForAuthorisationByExternalId(EXTERNAL_CONSENT_ID))
             .thenReturn(Optional.of(consent));
 
         // When
@@ -178,7 +178,7 @@ public class AisAuthorisationServiceInternalTest {
 
         when(aspspProfileService.getAspspSettings()).thenReturn(getAspspSettings());
         when(aisConsentAuthorisationRepository.save(any(AisConsentAuthorization.class))).thenReturn(aisConsentAuthorisation);
-        when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.ofNullable(aisConsent));
+        when(aisConsentRepository.findDistinctForAuthorisationByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.ofNullable(aisConsent));
         when(psuDataMapper.mapToPsuData(PSU_ID_DATA)).thenReturn(PSU_DATA);
         when(cmsPsuService.definePsuDataForAuthorisation(any(), any())).thenReturn(Optional.of(PSU_DATA));
         when(cmsPsuService.enrichPsuData(any(), any())).thenReturn(Collections.singletonList(PSU_DATA));
@@ -20,6 +20,7 @@ import de.adorsys.psd2.consent.api.ActionStatus;
 import de.adorsys.psd2.consent.api.ais.AisAccountAccessInfo;
 import de.adorsys.psd2.consent.api.ais.AisAccountConsent;
 import de.adorsys.psd2.consent.api.ais.AisConsentActionRequest;
+import de.adorsys.psd2.consent.api.ais.AisConsentStatusVersionResponse;
 import de.adorsys.psd2.consent.api.ais.CreateAisConsentRequest;
 import de.adorsys.psd2.consent.api.service.AisConsentService;
 import de.adorsys.psd2.consent.service.security.SecurityDataService;
@@ -155,6 +156,32 @@ public class AisConsentServiceInternalEncryptedTest {
         verify(aisConsentService, never()).getConsentStatusById(any());
     }
 
+    @Test
+    public void getConsentStatusVersionById_success() {
+        // Given
+        AisConsentStatusVersionResponse statusVersion = new AisConsentStatusVersionResponse();
+        when(aisConsentService.getConsentStatusVersionById(DECRYPTED_CONSENT_ID))
+            .thenReturn(Optional.of(statusVersion));
+
+        // When
+        Optional<AisConsentStatusVersionResponse> actual = aisConsentServiceInternalEncrypted.getConsentStatusVersionById(ENCRYPTED_CONSENT_ID);
+
+        // Then
+        assertTrue(actual.isPresent());
+        assertEquals(statusVersion, actual.get());
+        verify(aisConsentService, times(1)).getConsentStatusVersionById(DECRYPTED_CONSENT_ID);
+    }
+
+    @Test
+    public void getConsentStatusVersionById_decryptionFailed() {
+        // When
+        Optional<AisConsentStatusVersionResponse> actual = aisConsentServiceInternalEncrypted.getConsentStatusVersionById(UNDECRYPTABLE_CONSENT_ID);
+
+        // Then
+        assertFalse(actual.isPresent());
+        verify(aisConsentService, never()).getConsentStatusVersionById(any());
+    }
+
     @Test
     public void updateConsentStatusById_success() {
         // When
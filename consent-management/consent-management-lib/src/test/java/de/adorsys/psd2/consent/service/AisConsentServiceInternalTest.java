@@ -23,6 +23,7 @@ import de.adorsys.psd2.consent.api.ActionStatus;
 import de.adorsys.psd2.consent.api.ais.AisAccountAccessInfo;
 import de.adorsys.psd2.consent.api.ais.AisAccountConsent;
 import de.adorsys.psd2.consent.api.ais.AisConsentActionRequest;
+import de.adorsys.psd2.consent.api.ais.AisConsentStatusVersionResponse;
 import de.adorsys.psd2.consent.api.ais.CreateAisConsentRequest;
 import de.adorsys.psd2.consent.domain.PsuData;
 import de.adorsys.psd2.consent.domain.TppInfoEntity;
@@ -37,7 +38,6 @@ import de.adorsys.psd2.consent.service.mapper.AisConsentMapper;
 import de.adorsys.psd2.consent.service.mapper.PsuDataMapper;
 import de.adorsys.psd2.consent.service.mapper.ScaMethodMapper;
 import de.adorsys.psd2.consent.service.mapper.TppInfoMapper;
-import de.adorsys.psd2.consent.service.psu.CmsPsuService;
 import de.adorsys.psd2.consent.service.security.SecurityDataService;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
 import de.adorsys.psd2.xs2a.core.profile.ScaRedirectFlow;
@@ -109,9 +109,7 @@ public class AisConsentServiceInternalTest {
     @Mock
     private PsuData psuDataMocked;
     @Mock
-    private PsuData anotherPsuDataMocked;
-    @Mock
-    private CmsPsuService cmsPsuService;
+    private AisConsentTerminationExecutor aisConsentTerminationExecutor;
     @Mock
     private AisConsentUsageService aisConsentUsageService;
     @Mock
@@ -133,7 +131,7 @@ public class AisConsentServiceInternalTest {
     @Test
     public void shouldReturnAisConsent_whenGetConsentByIdIsCalled() {
         // When
-        when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.ofNullable(aisConsent));
+        when(aisConsentRepository.findDistinctForFullReadByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.ofNullable(aisConsent));
         when(aisConsentConfirmationExpirationService.checkAndUpdateOnConfirmationExpiration(aisConsent)).thenReturn(aisConsent);
         when(consentMapper.mapToAisAccountConsent(aisConsent)).thenReturn(buildSpiAccountConsent());
 
@@ -150,7 +148,7 @@ public class AisConsentServiceInternalTest {
         // When
         ArgumentCaptor<AisConsent> argumentCaptor = ArgumentCaptor.forClass(AisConsent.class);
         AisConsent aisConsent = buildConsent(EXTERNAL_CONSENT_ID, Collections.singletonList(psuDataMocked), LocalDate.now().minusDays(1));
-        when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.ofNullable(aisConsent));
+        when(aisConsentRepository.findDistinctForFullReadByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.ofNullable(aisConsent));
         when(aisConsentConfirmationExpirationService.checkAndUpdateOnConfirmationExpiration(aisConsent)).thenReturn(aisConsent);
         when(consentMapper.mapToAisAccountConsent(aisConsent)).thenReturn(buildSpiAccountConsent());
 
@@ -167,7 +165,7 @@ public class AisConsentServiceInternalTest {
     public void getAisAccountConsentById_checkAndUpdateOnExpirationNotInvoked() {
         // When
         AisConsent aisConsent = buildConsent(EXTERNAL_CONSENT_ID, Collections.singletonList(psuDataMocked), LocalDate.now());
-        when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.ofNullable(aisConsent));
+        when(aisConsentRepository.findDistinctForFullReadByExternalId(EXTERNAL_CONSENT_ID)).thenReturn(Optional.ofNullable(aisConsent));
         when(aisConsentConfirmationExpirationService.checkAndUpdateOnConfirmationExpiration(aisConsent)).thenReturn(aisConsent);
         when(consentMapper.mapToAisAccountConsent(aisConsent)).thenReturn(buildSpiAccountConsent());
 
@@ -184,7 +182,7 @@ public class AisConsentServiceInternalTest {
         // Given
         AisConsent consent = buildUsedNonRecurringConsent();
 
-        when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID))
+        when(aisConsentRepository.findDistinctForFullReadByExternalId(EXTERNAL_CONSENT_ID))
             .thenReturn(Optional.of(consent));
         when(aisConsentConfirmationExpirationService.checkAndUpdateOnConfirmationExpiration(consent))
             .thenReturn(consent);
@@ -353,7 +351,7 @@ public class AisConsentServiceInternalTest {
         boolean result = aisConsentService.findAndTerminateOldConsentsByNewConsentId(EXTERNAL_CONSENT_ID);
 
         assertFalse(result);
-        verify(aisConsentRepository, never()).findOldConsentsByNewConsentParams(any(), any(), any(), any(), any(), any());
+        verify(aisConsentTerminationExecutor, never()).terminateOldConsents(any());
     }
 
     @Test(expected = IllegalArgumentException.class)
@@ -371,21 +369,8 @@ public class AisConsentServiceInternalTest {
     public void findAndTerminateOldConsentsByNewConsentId_success_oldConsentsEmpty() {
         when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID))
             .thenReturn(Optional.of(aisConsentMocked));
-
-        when(aisConsentMocked.getTppInfo())
-            .thenReturn(tppInfoMocked);
-
-        when(tppInfoMocked.getAuthorisationNumber())
-            .thenReturn(AUTHORISATION_NUMBER);
-
-        when(tppInfoMocked.getAuthorityId())
-            .thenReturn(AUTHORISATION_ID);
-
-        when(aisConsentMocked.getInstanceId())
-            .thenReturn(INSTANCE_ID);
-
-        when(aisConsentMocked.getExternalId())
-            .thenReturn(EXTERNAL_CONSENT_ID);
+        when(aisConsentTerminationExecutor.terminateOldConsents(aisConsentMocked))
+            .thenReturn(0);
 
         boolean result = aisConsentService.findAndTerminateOldConsentsByNewConsentId(EXTERNAL_CONSENT_ID);
 
@@ -396,78 +381,14 @@ public class AisConsentServiceInternalTest {
     public void findAndTerminateOldConsentsByNewConsentId_success() {
         when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID))
             .thenReturn(Optional.of(aisConsentMocked));
-
-        when(aisConsentMocked.getTppInfo())
-            .thenReturn(tppInfoMocked);
-
-        List<PsuData> psuDataList = Collections.singletonList(psuDataMocked);
-        when(aisConsentMocked.getPsuDataList())
-            .thenReturn(psuDataList);
-
-        when(psuDataMocked.getPsuId())
-            .thenReturn(PSU_ID);
-
-        when(tppInfoMocked.getAuthorisationNumber())
-            .thenReturn(AUTHORISATION_NUMBER);
-
-        when(tppInfoMocked.getAuthorityId())
-            .thenReturn(AUTHORISATION_ID);
-
-        when(aisConsentMocked.getInstanceId())
-            .thenReturn(INSTANCE_ID);
-
-        when(aisConsentMocked.getExternalId())
-            .thenReturn(EXTERNAL_CONSENT_ID);
-
-        when(cmsPsuService.isPsuDataListEqual(psuDataList, psuDataList))
-            .thenReturn(true);
-
-        AisConsent oldConsent = buildConsent(EXTERNAL_CONSENT_ID_NOT_EXIST);
-        List<AisConsent> oldConsents = Collections.singletonList(oldConsent);
-        when(aisConsentRepository.findOldConsentsByNewConsentParams(Collections.singleton(PSU_ID), AUTHORISATION_NUMBER, AUTHORISATION_ID, INSTANCE_ID, EXTERNAL_CONSENT_ID, EnumSet.of(ConsentStatus.RECEIVED, ConsentStatus.PARTIALLY_AUTHORISED, ConsentStatus.VALID)))
-            .thenReturn(oldConsents);
-
-        when(aisConsentRepository.saveAll(oldConsents)).thenReturn(oldConsents);
+        when(aisConsentTerminationExecutor.terminateOldConsents(aisConsentMocked))
+            .thenReturn(2);
 
         boolean result = aisConsentService.findAndTerminateOldConsentsByNewConsentId(EXTERNAL_CONSENT_ID);
 
         assertTrue(result);
-        assertEquals(ConsentStatus.TERMINATED_BY_TPP, oldConsent.getConsentStatus());
-        verify(aisConsentRepository).saveAll(oldConsents);
-    }
-
-    @Test
-    public void findAndTerminateOldConsentsByNewConsentId_shouldFail_unequalPsuDataLists() {
-        // Given
-        List<PsuData> psuDataList = Collections.singletonList(psuDataMocked);
-        List<PsuData> anotherPsuDataList = Collections.singletonList(psuDataMocked);
-
-        when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID))
-            .thenReturn(Optional.of(aisConsentMocked));
-        when(aisConsentMocked.getTppInfo())
-            .thenReturn(tppInfoMocked);
-        when(aisConsentMocked.getPsuDataList())
-            .thenReturn(psuDataList);
-        when(psuDataMocked.getPsuId())
-            .thenReturn(PSU_ID);
-        when(tppInfoMocked.getAuthorisationNumber())
-            .thenReturn(AUTHORISATION_NUMBER);
-        when(tppInfoMocked.getAuthorityId())
-            .thenReturn(AUTHORISATION_ID);
-        when(aisConsentMocked.getInstanceId())
-            .thenReturn(INSTANCE_ID);
-        when(aisConsentMocked.getExternalId())
-            .thenReturn(EXTERNAL_CONSENT_ID);
-
-        AisConsent oldConsent = buildConsent(EXTERNAL_CONSENT_ID_NOT_EXIST, Collections.singletonList(anotherPsuDataMocked));
-        List<AisConsent> oldConsents = Collections.singletonList(oldConsent);
-
-        // When
-        boolean result = aisConsentService.findAndTerminateOldConsentsByNewConsentId(EXTERNAL_CONSENT_ID);
-
-        // Then
-        assertFalse(result);
-        verify(aisConsentRepository, never()).save(any(AisConsent.class));
+        verify(aisConsentTerminationExecutor).terminateOldConsents(aisConsentMocked);
+        verify(aisConsentRepository, never()).saveAll(any());
     }
 
     @Test
@@ -527,7 +448,7 @@ public class AisConsentServiceInternalTest {
         // Given
         AisConsent consent = buildUsedNonRecurringConsent();
 
-        when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID))
+        when(aisConsentRepository.findForStatusByExternalId(EXTERNAL_CONSENT_ID))
             .thenReturn(Optional.of(consent));
         when(aisConsentConfirmationExpirationService.checkAndUpdateOnConfirmationExpiration(consent))
             .thenReturn(consent);
@@ -545,12 +466,49 @@ public class AisConsentServiceInternalTest {
         assertEquals(ConsentStatus.EXPIRED, consentStatusById.get());
     }
 
+    @Test
+    public void getConsentStatusVersionById_success() {
+        // Given
+        AisConsent consent = buildConsent(EXTERNAL_CONSENT_ID);
+        AisConsentStatusVersionResponse statusVersion = new AisConsentStatusVersionResponse();
+
+        when(aisConsentRepository.findForStatusByExternalId(EXTERNAL_CONSENT_ID))
+            .thenReturn(Optional.of(consent));
+        when(aisConsentConfirmationExpirationService.checkAndUpdateOnConfirmationExpiration(consent))
+            .thenReturn(consent);
+        when(consentMapper.mapToAisConsentStatusVersionResponse(consent))
+            .thenReturn(statusVersion);
+
+        // When
+        Optional<AisConsentStatusVersionResponse> actual = aisConsentService.getConsentStatusVersionById(EXTERNAL_CONSENT_ID);
+
+        // Then
+        assertTrue(actual.isPresent());
+        assertSame(statusVersion, actual.get());
+        verify(aisConsentRepository, never()).findDistinctForFullReadByExternalId(any());
+        verify(consentMapper, never()).mapToAisAccountConsent(any());
+    }
+
+    @Test
+    public void getConsentStatusVersionById_consentNotFound() {
+        // Given
+        when(aisConsentRepository.findForStatusByExternalId(EXTERNAL_CONSENT_ID))
+            .thenReturn(Optional.empty());
+
+        // When
+        Optional<AisConsentStatusVersionResponse> actual = aisConsentService.getConsentStatusVersionById(EXTERNAL_CONSENT_ID);
+
+        // Then
+        assertFalse(actual.isPresent());
+        verify(consentMapper, never()).mapToAisConsentStatusVersionResponse(any());
+    }
+
     @Test
     public void getInitialAisAccountConsentById_withValidUsedNonRecurringConsent_shouldExpireConsent() {
         // Given
         AisConsent consent = buildUsedNonRecurringConsent();
 
-        when(aisConsentRepository.findByExternalId(EXTERNAL_CONSENT_ID))
+        when(aisConsentRepository.findDistinctForFullReadByExternalId(EXTERNAL_CONSENT_ID))
             .thenReturn(Optional.of(consent));
 
         ArgumentCaptor<AisConsent> aisConsentCaptor = ArgumentCaptor.forClass(AisConsent.class);
@@ -603,7 +561,7 @@ public class AisConsentServiceInternalTest {
         return new AspspSettings(1, false, false, null, null,
                                  null, false, null, null, consentLifeTime, 1, false,
                                  false, false, false, false, 1,
-                                 null, 1, 1, null, 1, false, false, false, false, null, ScaRedirectFlow.REDIRECT, false, false, null, StartAuthorisationMode.AUTO);
+                                 null, 1, 1, null, 1, false, false, false, false, null, ScaRedirectFlow.REDIRECT, false, false, null, StartAuthorisationMode.AUTO, 0, 0);
     }
 
     private AisConsent buildConsent(String externalId) {
@@ -663,7 +621,7 @@ public class AisConsentServiceInternalTest {
                                      null, 0,
                                      null, null,
                                      false, false, null, null, null, false, Collections.emptyList(), 0, Collections.emptyMap(), OffsetDateTime.now(),
-                                     OffsetDateTime.now());
+                                     OffsetDateTime.now(), 0L);
 
     }
 
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.service;
+
+import de.adorsys.psd2.consent.domain.AccountReferenceEntity;
+import de.adorsys.psd2.consent.domain.PsuData;
+import de.adorsys.psd2.consent.domain.TppInfoEntity;
+import de.adorsys.psd2.consent.domain.account.AisConsent;
+import de.adorsys.psd2.consent.domain.account.AisConsentAuthorization;
+import de.adorsys.psd2.consent.domain.account.AisConsentUsage;
+import de.adorsys.psd2.xs2a.core.ais.AccountAccessType;
+import de.adorsys.psd2.xs2a.core.consent.AisConsentRequestType;
+import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import de.adorsys.psd2.xs2a.core.tpp.TppRole;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Terminates old consents in in-memory H2 database with a history of consents of the same PSU
+ */
+public class AisConsentTerminationExecutorTest {
+    private static final String DB_URL = "jdbc:h2:mem:cms-consent-termination;DB_CLOSE_DELAY=-1";
+    private static final int HISTORIC_CONSENTS_PER_PSU = 10_000;
+    private static final int FLUSH_SIZE = 500;
+    private static final String INSTANCE_ID = "UNDEFINED";
+    private static final String AUTHORISATION_NUMBER = "authorisation number";
+    private static final String OTHER_AUTHORISATION_NUMBER = "other authorisation number";
+    private static final String PSU_ID = "psu";
+    private static final String OTHER_PSU_ID = "other psu";
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private AisConsentTerminationExecutor aisConsentTerminationExecutor;
+
+    @Before
+    public void setUp() {
+        sessionFactory = new MetadataSources(new StandardServiceRegistryBuilder()
+                                                 .applySetting(AvailableSettings.URL, DB_URL)
+                                                 .applySetting(AvailableSettings.DIALECT, H2Dialect.class.getName())
+                                                 .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                                                 .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                                                 .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, FLUSH_SIZE)
+                                                 .applySetting(AvailableSettings.ORDER_INSERTS, true)
+                                                 .applySetting(AvailableSettings.GENERATE_STATISTICS, true)
+                                                 .build())
+                             .addAnnotatedClass(AisConsent.class)
+                             .addAnnotatedClass(AisConsentUsage.class)
+                             .addAnnotatedClass(AisConsentAuthorization.class)
+                             .addAnnotatedClass(PsuData.class)
+                             .addAnnotatedClass(TppInfoEntity.class)
+                             .addAnnotatedClass(AccountReferenceEntity.class)
+                             .buildMetadata()
+                             .buildSessionFactory();
+
+        entityManager = sessionFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        aisConsentTerminationExecutor = new AisConsentTerminationExecutor(entityManager);
+    }
+
+    @After
+    public void tearDown() {
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    @Test
+    public void terminateOldConsents_historicConsentsOfPsu_shouldTerminateAllInBulk() {
+        // Given
+        for (int i = 0; i < HISTORIC_CONSENTS_PER_PSU; i++) {
+            persist(buildConsent("old " + i, ConsentStatus.VALID, AUTHORISATION_NUMBER, psu(PSU_ID)));
+            persist(buildConsent("old of other psu " + i, ConsentStatus.VALID, AUTHORISATION_NUMBER, psu(OTHER_PSU_ID)));
+        }
+        AisConsent newConsent = persist(buildConsent("new", ConsentStatus.VALID, AUTHORISATION_NUMBER, psu(PSU_ID)));
+        flushAndClear();
+
+        // When
+        int actual = aisConsentTerminationExecutor.terminateOldConsents(newConsent);
+        long statementCount = sessionFactory.getStatistics().getPrepareStatementCount();
+
+        // Then
+        assertEquals(HISTORIC_CONSENTS_PER_PSU, actual);
+        // one select of old consents and one update per chunk of 1000 consents
+        assertEquals(1 + HISTORIC_CONSENTS_PER_PSU / 1000, statementCount);
+        assertEquals(HISTORIC_CONSENTS_PER_PSU, countByStatus(ConsentStatus.TERMINATED_BY_TPP));
+        assertEquals(HISTORIC_CONSENTS_PER_PSU + 1, countByStatus(ConsentStatus.VALID));
+    }
+
+    @Test
+    public void terminateOldConsents_shouldTerminateOnlyConsentsWithExactlyTheSamePsuData() {
+        // Given
+        persist(buildConsent("same psu", ConsentStatus.RECEIVED, AUTHORISATION_NUMBER, psu(PSU_ID)));
+        persist(buildConsent("same psu, partially authorised", ConsentStatus.PARTIALLY_AUTHORISED, AUTHORISATION_NUMBER, psu(PSU_ID)));
+        persist(buildConsent("additional psu", ConsentStatus.VALID, AUTHORISATION_NUMBER, psu(PSU_ID), psu(OTHER_PSU_ID)));
+        persist(buildConsent("other psu id type", ConsentStatus.VALID, AUTHORISATION_NUMBER, new PsuData(PSU_ID, "type", null, null)));
+        persist(buildConsent("other tpp", ConsentStatus.VALID, OTHER_AUTHORISATION_NUMBER, psu(PSU_ID)));
+        persist(buildConsent("expired", ConsentStatus.EXPIRED, AUTHORISATION_NUMBER, psu(PSU_ID)));
+        AisConsent newConsent = persist(buildConsent("new", ConsentStatus.VALID, AUTHORISATION_NUMBER, psu(PSU_ID)));
+        flushAndClear();
+
+        // When
+        int actual = aisConsentTerminationExecutor.terminateOldConsents(newConsent);
+
+        // Then
+        assertEquals(2, actual);
+        assertEquals(Arrays.asList("same psu", "same psu, partially authorised"), externalIdsByStatus(ConsentStatus.TERMINATED_BY_TPP));
+        assertEquals(Collections.singletonList(1L), versionsByStatus(ConsentStatus.TERMINATED_BY_TPP));
+        assertEquals(Collections.singletonList(0L), versionsByStatus(ConsentStatus.VALID));
+    }
+
+    @Test
+    public void terminateOldConsents_severalPsus_shouldMatchPsuDataRegardlessOfOrder() {
+        // Given
+        persist(buildConsent("same psus", ConsentStatus.VALID, AUTHORISATION_NUMBER, psu(OTHER_PSU_ID), psu(PSU_ID)));
+        persist(buildConsent("one of psus", ConsentStatus.VALID, AUTHORISATION_NUMBER, psu(PSU_ID)));
+        persist(buildConsent("one psu twice", ConsentStatus.VALID, AUTHORISATION_NUMBER, psu(PSU_ID), psu(PSU_ID)));
+        AisConsent newConsent = persist(buildConsent("new", ConsentStatus.VALID, AUTHORISATION_NUMBER, psu(PSU_ID), psu(OTHER_PSU_ID)));
+        flushAndClear();
+
+        // When
+        int actual = aisConsentTerminationExecutor.terminateOldConsents(newConsent);
+
+        // Then
+        assertEquals(1, actual);
+        assertEquals(Collections.singletonList("same psus"), externalIdsByStatus(ConsentStatus.TERMINATED_BY_TPP));
+    }
+
+    @Test
+    public void terminateOldConsents_emptyPsuData_shouldTerminateNothing() {
+        // Given
+        persist(buildConsent("empty psu", ConsentStatus.VALID, AUTHORISATION_NUMBER, psu(null)));
+        AisConsent newConsent = persist(buildConsent("new", ConsentStatus.VALID, AUTHORISATION_NUMBER, psu(null)));
+        flushAndClear();
+
+        // When
+        int actual = aisConsentTerminationExecutor.terminateOldConsents(newConsent);
+
+        // Then
+        assertEquals(0, actual);
+        assertEquals(0, sessionFactory.getStatistics().getPrepareStatementCount());
+    }
+
+    private AisConsent persist(AisConsent consent) {
+        entityManager.persist(consent);
+        if (consent.getId() % FLUSH_SIZE == 0) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+        return consent;
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+        sessionFactory.getStatistics().clear();
+    }
+
+    private long countByStatus(ConsentStatus status) {
+        return entityManager.createQuery("select count(c) from ais_consent c where c.consentStatus = :status", Long.class)
+                   .setParameter("status", status)
+                   .getSingleResult();
+    }
+
+    private List<String> externalIdsByStatus(ConsentStatus status) {
+        return entityManager.createQuery("select c.externalId from ais_consent c where c.consentStatus = :status order by c.id", String.class)
+                   .setParameter("status", status)
+                   .getResultList();
+    }
+
+    private List<Long> versionsByStatus(ConsentStatus status) {
+        return entityManager.createQuery("select distinct c.version from ais_consent c where c.consentStatus = :status", Long.class)
+                   .setParameter("status", status)
+                   .getResultList();
+    }
+
+    private AisConsent buildConsent(String externalId, ConsentStatus status, String authorisationNumber, PsuData... psuData) {
+        AisConsent consent = new AisConsent();
+        consent.setExternalId(externalId);
+        consent.setInstanceId(INSTANCE_ID);
+        consent.setRecurringIndicator(true);
+        consent.setRequestDateTime(LocalDateTime.now());
+        consent.setExpireDate(LocalDate.now().plusDays(1));
+        consent.setConsentStatus(status);
+        consent.setAllowedFrequencyPerDay(4);
+        consent.setTppFrequencyPerDay(4);
+        consent.setAisConsentRequestType(AisConsentRequestType.GLOBAL);
+        consent.setAvailableAccounts(AccountAccessType.ALL_ACCOUNTS);
+        TppInfoEntity tppInfo = new TppInfoEntity();
+        tppInfo.setAuthorisationNumber(authorisationNumber);
+        tppInfo.setAuthorityId("authority id");
+        tppInfo.setTppRoles(Collections.singletonList(TppRole.AISP));
+        consent.setTppInfo(tppInfo);
+        consent.getPsuDataList().addAll(Arrays.asList(psuData));
+        return consent;
+    }
+
+    private PsuData psu(String psuId) {
+        return new PsuData(psuId, null, null, null);
+    }
+}
@@ -16,6 +16,7 @@
 
 package de.adorsys.psd2.consent.service;
 
+import de.adorsys.psd2.consent.domain.CacheRegion;
 import de.adorsys.psd2.consent.domain.TppInfoEntity;
 import de.adorsys.psd2.consent.domain.TppStopListEntity;
 import de.adorsys.psd2.consent.repository.TppInfoRepository;
@@ -56,6 +57,8 @@ public class CmsAspspTppServiceInternalTest {
     private TppInfoRepository tppInfoRepository;
     @Mock
     private TppInfoMapper tppInfoMapper;
+    @Mock
+    private CacheVersionService cacheVersionService;
 
     @Mock
     private TppStopListEntity tppStopListEntity;
@@ -105,6 +108,7 @@ public class CmsAspspTppServiceInternalTest {
 
         assertTrue(isBlocked);
         verify(stopListRepository).save(tppStopListEntity);
+        verify(cacheVersionService).registerChange(CacheRegion.TPP_STOP_LIST);
     }
 
     @Test
@@ -132,6 +136,7 @@ public class CmsAspspTppServiceInternalTest {
 
         assertTrue(isUnblocked);
         verify(stopListRepository, never()).save(any(TppStopListEntity.class));
+        verify(cacheVersionService, never()).registerChange(any());
     }
 
     @Test
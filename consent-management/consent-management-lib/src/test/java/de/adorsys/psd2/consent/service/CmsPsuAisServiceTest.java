@@ -20,6 +20,7 @@ import de.adorsys.psd2.consent.api.TypeAccess;
 import de.adorsys.psd2.consent.api.ais.AisAccountAccess;
 import de.adorsys.psd2.consent.api.ais.AisAccountConsent;
 import de.adorsys.psd2.consent.api.service.AisConsentService;
+import de.adorsys.psd2.consent.domain.AuthorisationRedirect;
 import de.adorsys.psd2.consent.domain.PsuData;
 import de.adorsys.psd2.consent.domain.TppInfoEntity;
 import de.adorsys.psd2.consent.domain.account.AisConsent;
@@ -34,10 +35,12 @@ import de.adorsys.psd2.consent.repository.AisConsentRepository;
 import de.adorsys.psd2.consent.repository.PsuDataRepository;
 import de.adorsys.psd2.consent.repository.specification.AisConsentAuthorizationSpecification;
 import de.adorsys.psd2.consent.repository.specification.AisConsentSpecification;
+import de.adorsys.psd2.consent.service.archive.ArchiveService;
 import de.adorsys.psd2.consent.service.mapper.AisConsentMapper;
 import de.adorsys.psd2.consent.service.mapper.PsuDataMapper;
 import de.adorsys.psd2.consent.service.psu.CmsPsuAisServiceInternal;
 import de.adorsys.psd2.consent.service.psu.CmsPsuService;
+import de.adorsys.psd2.consent.service.psu.RejectedRedirectCache;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
 import de.adorsys.psd2.xs2a.core.profile.AccountReference;
 import de.adorsys.psd2.xs2a.core.profile.AccountReferenceSelector;
@@ -95,6 +98,10 @@ public class CmsPsuAisServiceTest {
     private AisConsentUsageService aisConsentUsageService;
     @Mock
     private CmsPsuService cmsPsuService;
+    @Mock
+    private ArchiveService archiveService;
+    @Mock
+    private RejectedRedirectCache rejectedRedirectCache;
 
     private AisConsent aisConsent;
     private List<AisConsent> aisConsents;
@@ -108,6 +115,7 @@ public class CmsPsuAisServiceTest {
     private final String EXTERNAL_CONSENT_ID = "4b112130-6a96-4941-a220-2da8a4af2c65";
     private final String EXTERNAL_CONSENT_ID_NOT_EXIST = "4b112130-6a96-4941-a220-2da8a4af2c63";
     private final String AUTHORISATION_ID = "9304a6a0-8f02-4b79-aeab-00aa7e03a06d";
+    private final Long AUTHORISATION_PK = 42L;
     private final String AUTHORISATION_ID_NOT_EXIST = "248eae68-e4fa-4d43-8b3f-2ae2b584cdd9";
     private static final String FINALISED_CONSENT_ID = "9b112130-6a96-4941-a220-2da8a4af2c65";
     private static final String FINALISED_AUTHORISATION_ID = "6b112130-6a96-4941-a220-2da8a4af2c65";
@@ -193,6 +201,22 @@ public class CmsPsuAisServiceTest {
             .byConsentIdAndInstanceId(EXTERNAL_CONSENT_ID_NOT_EXIST, DEFAULT_SERVICE_INSTANCE_ID);
     }
 
+    @Test
+    public void getConsentSuccess_Archived() {
+        // When
+        when(archiveService.getAisConsent(EXTERNAL_CONSENT_ID_NOT_EXIST, DEFAULT_SERVICE_INSTANCE_ID))
+            .thenReturn(Optional.of(aisAccountConsent));
+
+        // Then
+        Optional<AisAccountConsent> consent = cmsPsuAisService.getConsent(psuIdData, EXTERNAL_CONSENT_ID_NOT_EXIST, DEFAULT_SERVICE_INSTANCE_ID);
+
+        // Assert
+        assertTrue(consent.isPresent());
+        assertEquals(aisAccountConsent, consent.get());
+        verify(archiveService, times(1))
+            .getAisConsent(EXTERNAL_CONSENT_ID_NOT_EXIST, DEFAULT_SERVICE_INSTANCE_ID);
+    }
+
     @Test
     public void updateAuthorisationStatusSuccess() {
         // When
@@ -422,52 +446,69 @@ public class CmsPsuAisServiceTest {
     @Test
     public void getConsentByRedirectId_Fail_AuthorisationNotFound() {
         //When
-        //noinspection unchecked
-        when(aisConsentAuthorisationRepository.findOne(any(Specification.class))).thenReturn(Optional.empty());
+        when(aisConsentAuthorisationRepository.findRedirect(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID)).thenReturn(Optional.empty());
 
         Optional<CmsAisConsentResponse> consentResponseOptional = cmsPsuAisService.checkRedirectAndGetConsent(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
 
         assertFalse(consentResponseOptional.isPresent());
-        verify(aisConsentAuthorizationSpecification, times(1))
-            .byExternalIdAndInstanceId(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+        verify(aisConsentAuthorisationRepository, never()).findById(any());
+        verify(rejectedRedirectCache, never()).reject(any(), any());
     }
 
     @Test
     public void getConsentByRedirectId_Fail_AuthorisationExpire() {
-        //noinspection unchecked
-        when(aisConsentAuthorisationRepository.findOne(any(Specification.class))).thenReturn(Optional.ofNullable(mockAisConsentAuthorization));
-        when(mockAisConsentAuthorization.isNotExpired()).thenReturn(false);
-        when(mockAisConsentAuthorization.getScaStatus()).thenReturn(ScaStatus.RECEIVED);
-        doReturn(mockAisConsentAuthorization).when(aisConsentAuthorisationRepository).save(mockAisConsentAuthorization);
-        when(mockAisConsentAuthorization.getConsent()).thenReturn(aisConsent);
+        when(aisConsentAuthorisationRepository.findRedirect(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID))
+            .thenReturn(Optional.of(buildAuthorisationRedirect(ScaStatus.RECEIVED, OffsetDateTime.now().minusMinutes(1))));
 
         Optional<CmsAisConsentResponse> consentResponseOptional = cmsPsuAisService.checkRedirectAndGetConsent(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
 
         assertTrue(consentResponseOptional.isPresent());
         assertEquals(consentResponseOptional.get(), new CmsAisConsentResponse(TPP_NOK_REDIRECT_URI));
+        verify(aisConsentAuthorisationRepository).updateScaStatus(AUTHORISATION_PK, ScaStatus.FAILED);
+        verify(aisConsentAuthorisationRepository, never()).findById(any());
+        verify(rejectedRedirectCache).reject(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+    }
+
+    @Test
+    public void getConsentByRedirectId_Fail_FinalisedAuthorisation() {
+        when(aisConsentAuthorisationRepository.findRedirect(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID))
+            .thenReturn(Optional.of(buildAuthorisationRedirect(ScaStatus.FINALISED, OffsetDateTime.now().plusMinutes(1))));
+
+        Optional<CmsAisConsentResponse> consentResponseOptional = cmsPsuAisService.checkRedirectAndGetConsent(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+
+        assertFalse(consentResponseOptional.isPresent());
+        verify(aisConsentAuthorisationRepository, never()).updateScaStatus(any(), any());
+        verify(aisConsentAuthorisationRepository, never()).findById(any());
+        verify(rejectedRedirectCache).reject(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+    }
+
+    @Test
+    public void getConsentByRedirectId_Fail_RejectedBefore() {
+        when(rejectedRedirectCache.isRejected(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID)).thenReturn(true);
+
+        Optional<CmsAisConsentResponse> consentResponseOptional = cmsPsuAisService.checkRedirectAndGetConsent(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+
+        assertFalse(consentResponseOptional.isPresent());
+        verifyZeroInteractions(aisConsentAuthorisationRepository);
     }
 
     @Test
     public void getConsentByRedirectId_Fail_NullAisConsent() {
-        //noinspection unchecked
-        when(aisConsentAuthorisationRepository.findOne(any(Specification.class))).thenReturn(Optional.ofNullable(mockAisConsentAuthorization));
-        when(mockAisConsentAuthorization.isNotExpired()).thenReturn(true);
-        when(mockAisConsentAuthorization.getScaStatus()).thenReturn(ScaStatus.RECEIVED);
+        when(aisConsentAuthorisationRepository.findRedirect(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID))
+            .thenReturn(Optional.of(buildAuthorisationRedirect(ScaStatus.RECEIVED, OffsetDateTime.now().plusMinutes(1))));
+        when(aisConsentAuthorisationRepository.findById(AUTHORISATION_PK)).thenReturn(Optional.of(mockAisConsentAuthorization));
         when(mockAisConsentAuthorization.getConsent()).thenReturn(null);
 
         Optional<CmsAisConsentResponse> consentResponseOptional = cmsPsuAisService.checkRedirectAndGetConsent(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
 
         assertFalse(consentResponseOptional.isPresent());
-        verify(aisConsentAuthorizationSpecification, times(1))
-            .byExternalIdAndInstanceId(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
     }
 
     @Test
     public void getConsentByRedirectId_Success() {
-        //noinspection unchecked
-        when(aisConsentAuthorisationRepository.findOne(any(Specification.class))).thenReturn(Optional.ofNullable(mockAisConsentAuthorization));
-        when(mockAisConsentAuthorization.isNotExpired()).thenReturn(true);
-        when(mockAisConsentAuthorization.getScaStatus()).thenReturn(ScaStatus.RECEIVED);
+        when(aisConsentAuthorisationRepository.findRedirect(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID))
+            .thenReturn(Optional.of(buildAuthorisationRedirect(ScaStatus.RECEIVED, OffsetDateTime.now().plusMinutes(1))));
+        when(aisConsentAuthorisationRepository.findById(AUTHORISATION_PK)).thenReturn(Optional.of(mockAisConsentAuthorization));
         when(mockAisConsentAuthorization.getConsent()).thenReturn(aisConsent);
         when(aisConsentMapper.mapToAisAccountConsent(aisConsent)).thenReturn(mockAisAccountConsent);
         when(mockAisAccountConsent.getTppInfo()).thenReturn(tppInfo);
@@ -481,8 +522,8 @@ public class CmsPsuAisServiceTest {
         assertEquals(AUTHORISATION_ID, cmsAisConsentResponse.getAuthorisationId());
         assertEquals(TPP_NOK_REDIRECT_URI, cmsAisConsentResponse.getTppNokRedirectUri());
         assertEquals(TPP_OK_REDIRECT_URI, cmsAisConsentResponse.getTppOkRedirectUri());
-        verify(aisConsentAuthorizationSpecification, times(1))
-            .byExternalIdAndInstanceId(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+        verify(aisConsentAuthorisationRepository, never()).updateScaStatus(any(), any());
+        verify(rejectedRedirectCache, never()).reject(any(), any());
     }
 
     @Test
@@ -668,7 +709,7 @@ public class CmsPsuAisServiceTest {
                                      null, 0,
                                      null, null,
                                      false, false, null, null, null, false, Collections.emptyList(), 0, Collections.emptyMap(), OffsetDateTime.now(),
-                                     OffsetDateTime.now());
+                                     OffsetDateTime.now(), 0L);
     }
 
     private TppInfoEntity buildTppInfoEntity() {
@@ -678,6 +719,10 @@ public class CmsPsuAisServiceTest {
         return tppInfoEntity;
     }
 
+    private AuthorisationRedirect buildAuthorisationRedirect(ScaStatus scaStatus, OffsetDateTime expirationTimestamp) {
+        return new AuthorisationRedirect(AUTHORISATION_PK, scaStatus, expirationTimestamp, TPP_NOK_REDIRECT_URI);
+    }
+
     private TppRedirectUri buildTppRedirectUri() {
         return new TppRedirectUri(TPP_OK_REDIRECT_URI, TPP_NOK_REDIRECT_URI);
     }
@@ -23,6 +23,7 @@ import de.adorsys.psd2.consent.api.pis.CmsPaymentResponse;
 import de.adorsys.psd2.consent.api.pis.CmsSinglePayment;
 import de.adorsys.psd2.consent.api.service.PisCommonPaymentService;
 import de.adorsys.psd2.consent.domain.AccountReferenceEntity;
+import de.adorsys.psd2.consent.domain.AuthorisationRedirect;
 import de.adorsys.psd2.consent.domain.PsuData;
 import de.adorsys.psd2.consent.domain.TppInfoEntity;
 import de.adorsys.psd2.consent.domain.payment.PisAuthorization;
@@ -35,9 +36,11 @@ import de.adorsys.psd2.consent.repository.PisPaymentDataRepository;
 import de.adorsys.psd2.consent.repository.PsuDataRepository;
 import de.adorsys.psd2.consent.repository.specification.PisAuthorisationSpecification;
 import de.adorsys.psd2.consent.repository.specification.PisPaymentDataSpecification;
+import de.adorsys.psd2.consent.service.archive.ArchiveService;
 import de.adorsys.psd2.consent.service.mapper.CmsPsuPisMapper;
 import de.adorsys.psd2.consent.service.mapper.PsuDataMapper;
 import de.adorsys.psd2.consent.service.psu.CmsPsuPisServiceInternal;
+import de.adorsys.psd2.consent.service.psu.RejectedRedirectCache;
 import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
 import de.adorsys.psd2.xs2a.core.profile.PaymentType;
 import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
@@ -73,6 +76,7 @@ public class CmsPsuPisServiceInternalTest {
     private static final String FINALISED_AUTHORISATION_ID = "finalised authorisation id";
     private static final String EXPIRED_AUTHORISATION_ID = "expired authorisation id";
     private static final String TPP_NOK_REDIRECT_URI = "tpp nok redirect uri";
+    private static final Long AUTHORISATION_PK = 42L;
     private final PsuIdData WRONG_PSU_ID_DATA = buildWrongPsuIdData();
     private final PsuIdData PSU_ID_DATA = buildPsuIdData();
     private static final String PAYMENT_ID = "payment id";
@@ -102,6 +106,10 @@ public class CmsPsuPisServiceInternalTest {
     private PisAuthorisationSpecification pisAuthorisationSpecification;
     @Mock
     private PisPaymentDataSpecification pisPaymentDataSpecification;
+    @Mock
+    private ArchiveService archiveService;
+    @Mock
+    private RejectedRedirectCache rejectedRedirectCache;
 
     @Before
     public void setUp() {
@@ -188,6 +196,40 @@ public class CmsPsuPisServiceInternalTest {
             .getPsuDataListByPaymentId(WRONG_PAYMENT_ID);
     }
 
+    @Test
+    public void getPayment_Success_Archived() {
+        // Given
+        CmsSinglePayment archivedPayment = new CmsSinglePayment(PAYMENT_PRODUCT);
+        archivedPayment.setPaymentId(WRONG_PAYMENT_ID);
+        archivedPayment.setPsuIdDatas(Collections.singletonList(PSU_ID_DATA));
+        when(archiveService.getPayment(WRONG_PAYMENT_ID, DEFAULT_SERVICE_INSTANCE_ID))
+            .thenReturn(Optional.of(archivedPayment));
+
+        // When
+        Optional<CmsPayment> actualResult = cmsPsuPisServiceInternal.getPayment(PSU_ID_DATA, WRONG_PAYMENT_ID, DEFAULT_SERVICE_INSTANCE_ID);
+
+        // Then
+        assertTrue(actualResult.isPresent());
+        assertThat(actualResult.get().getPaymentId()).isEqualTo(WRONG_PAYMENT_ID);
+        verify(pisPaymentDataSpecification, never())
+            .byPaymentIdAndInstanceId(WRONG_PAYMENT_ID, DEFAULT_SERVICE_INSTANCE_ID);
+    }
+
+    @Test
+    public void getPayment_Fail_ArchivedWithWrongPsuIdData() {
+        // Given
+        CmsSinglePayment archivedPayment = new CmsSinglePayment(PAYMENT_PRODUCT);
+        archivedPayment.setPsuIdDatas(Collections.singletonList(PSU_ID_DATA));
+        when(archiveService.getPayment(WRONG_PAYMENT_ID, DEFAULT_SERVICE_INSTANCE_ID))
+            .thenReturn(Optional.of(archivedPayment));
+
+        // When
+        Optional<CmsPayment> actualResult = cmsPsuPisServiceInternal.getPayment(WRONG_PSU_ID_DATA, WRONG_PAYMENT_ID, DEFAULT_SERVICE_INSTANCE_ID);
+
+        // Then
+        assertFalse(actualResult.isPresent());
+    }
+
     @Test
     public void getPayment_Fail_WrongPsuIdData() {
         // Given
@@ -342,11 +384,9 @@ public class CmsPsuPisServiceInternalTest {
     @Test
     public void getPaymentByAuthorisationId_Success() {
         //Given
-        when(pisAuthorisationSpecification.byExternalIdAndInstanceId(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID))
-            .thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        PisAuthorization expectedAuthorisation = buildPisAuthorisation();
-        //noinspection unchecked
-        when(pisAuthorisationRepository.findOne(any(Specification.class))).thenReturn(Optional.ofNullable(expectedAuthorisation));
+        when(pisAuthorisationRepository.findRedirect(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID))
+            .thenReturn(Optional.of(buildAuthorisationRedirect(ScaStatus.PSUAUTHENTICATED, OffsetDateTime.now().plusMinutes(1))));
+        when(pisAuthorisationRepository.findById(AUTHORISATION_PK)).thenReturn(Optional.of(buildPisAuthorisation()));
 
         // When
         Optional<CmsPaymentResponse> actualResult = cmsPsuPisServiceInternal.checkRedirectAndGetPayment(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
@@ -354,49 +394,74 @@ public class CmsPsuPisServiceInternalTest {
         // Then
         assertTrue(actualResult.isPresent());
         assertThat(actualResult.get().getAuthorisationId()).isEqualTo(AUTHORISATION_ID);
-        verify(pisAuthorisationSpecification, times(1))
-            .byExternalIdAndInstanceId(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+        verify(pisAuthorisationRepository, never()).updateScaStatus(any(), any());
+        verify(rejectedRedirectCache, never()).reject(any(), any());
     }
 
     @Test
     public void getPaymentByAuthorisationId_Fail_ExpiredRedirectUrl() {
         //Given
-        when(pisAuthorisationSpecification.byExternalIdAndInstanceId(EXPIRED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID))
-            .thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        PisAuthorization expectedAuthorisation = buildExpiredAuthorisation();
-        //noinspection unchecked
-        when(pisAuthorisationRepository.findOne(any(Specification.class))).thenReturn(Optional.ofNullable(expectedAuthorisation));
+        when(pisAuthorisationRepository.findRedirect(EXPIRED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID))
+            .thenReturn(Optional.of(buildAuthorisationRedirect(ScaStatus.RECEIVED, OffsetDateTime.now().minusMinutes(1))));
 
         // When
         Optional<CmsPaymentResponse> actualResult = cmsPsuPisServiceInternal.checkRedirectAndGetPayment(EXPIRED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
 
         // Then
         assertThat(actualResult).isEqualTo(Optional.of(new CmsPaymentResponse(TPP_NOK_REDIRECT_URI)));
-        verify(pisAuthorisationSpecification, times(1))
-            .byExternalIdAndInstanceId(EXPIRED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+        verify(pisAuthorisationRepository).updateScaStatus(AUTHORISATION_PK, ScaStatus.FAILED);
+        verify(pisAuthorisationRepository, never()).findById(any());
+        verify(rejectedRedirectCache).reject(EXPIRED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+    }
+
+    @Test
+    public void getPaymentByAuthorisationId_Fail_FinalisedAuthorisation() {
+        //Given
+        when(pisAuthorisationRepository.findRedirect(FINALISED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID))
+            .thenReturn(Optional.of(buildAuthorisationRedirect(ScaStatus.FINALISED, OffsetDateTime.now().plusMinutes(1))));
+
+        // When
+        Optional<CmsPaymentResponse> actualResult = cmsPsuPisServiceInternal.checkRedirectAndGetPayment(FINALISED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+
+        // Then
+        assertThat(actualResult).isEqualTo(Optional.empty());
+        verify(pisAuthorisationRepository, never()).updateScaStatus(any(), any());
+        verify(pisAuthorisationRepository, never()).findById(any());
+        verify(rejectedRedirectCache).reject(FINALISED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+    }
+
+    @Test
+    public void getPaymentByAuthorisationId_Fail_RejectedBefore() {
+        //Given
+        when(rejectedRedirectCache.isRejected(EXPIRED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID)).thenReturn(true);
+
+        // When
+        Optional<CmsPaymentResponse> actualResult = cmsPsuPisServiceInternal.checkRedirectAndGetPayment(EXPIRED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+
+        // Then
+        assertThat(actualResult).isEqualTo(Optional.empty());
+        verify(pisAuthorisationRepository, never()).findRedirect(any(), any());
     }
 
     @Test
     public void getPaymentByAuthorisationId_Fail_WrongId() {
         // Given
+        when(pisAuthorisationRepository.findRedirect(WRONG_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID)).thenReturn(Optional.empty());
 
         // When
         Optional<CmsPaymentResponse> actualResult = cmsPsuPisServiceInternal.checkRedirectAndGetPayment(WRONG_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
 
         // Then
         assertThat(actualResult).isEqualTo(Optional.empty());
-        verify(pisAuthorisationSpecification, times(1))
-            .byExternalIdAndInstanceId(WRONG_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+        verify(rejectedRedirectCache, never()).reject(any(), any());
     }
 
     @Test
     public void checkRedirectAndGetPaymentForCancellation_Success() {
         //Given
-        when(pisAuthorisationSpecification.byExternalIdAndInstanceId(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID))
-            .thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        PisAuthorization expectedAuthorisation = buildPisAuthorisation();
-        //noinspection unchecked
-        when(pisAuthorisationRepository.findOne(any(Specification.class))).thenReturn(Optional.ofNullable(expectedAuthorisation));
+        when(pisAuthorisationRepository.findRedirect(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID))
+            .thenReturn(Optional.of(buildAuthorisationRedirect(ScaStatus.PSUAUTHENTICATED, OffsetDateTime.now().plusMinutes(1))));
+        when(pisAuthorisationRepository.findById(AUTHORISATION_PK)).thenReturn(Optional.of(buildPisAuthorisation()));
 
         // When
         Optional<CmsPaymentResponse> actualResult = cmsPsuPisServiceInternal.checkRedirectAndGetPaymentForCancellation(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
@@ -404,39 +469,66 @@ public class CmsPsuPisServiceInternalTest {
         // Then
         assertTrue(actualResult.isPresent());
         assertThat(actualResult.get().getAuthorisationId()).isEqualTo(AUTHORISATION_ID);
-        verify(pisAuthorisationSpecification, times(1))
-            .byExternalIdAndInstanceId(AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+        verify(pisAuthorisationRepository, never()).updateScaStatus(any(), any());
+        verify(rejectedRedirectCache, never()).reject(any(), any());
     }
 
     @Test
     public void checkRedirectAndGetPaymentForCancellation_Fail_ExpiredRedirectUrl() {
         //Given
-        when(pisAuthorisationSpecification.byExternalIdAndInstanceId(EXPIRED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID))
-            .thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        PisAuthorization expectedAuthorisation = buildExpiredAuthorisation();
-        //noinspection unchecked
-        when(pisAuthorisationRepository.findOne(any(Specification.class))).thenReturn(Optional.ofNullable(expectedAuthorisation));
+        when(pisAuthorisationRepository.findRedirect(EXPIRED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID))
+            .thenReturn(Optional.of(buildAuthorisationRedirect(ScaStatus.RECEIVED, OffsetDateTime.now().minusMinutes(1))));
 
         // When
         Optional<CmsPaymentResponse> actualResult = cmsPsuPisServiceInternal.checkRedirectAndGetPaymentForCancellation(EXPIRED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
 
         // Then
         assertThat(actualResult).isEqualTo(Optional.of(new CmsPaymentResponse(TPP_NOK_REDIRECT_URI)));
-        verify(pisAuthorisationSpecification, times(1))
-            .byExternalIdAndInstanceId(EXPIRED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+        verify(pisAuthorisationRepository).updateScaStatus(AUTHORISATION_PK, ScaStatus.FAILED);
+        verify(pisAuthorisationRepository, never()).findById(any());
+        verify(rejectedRedirectCache).reject(EXPIRED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+    }
+
+    @Test
+    public void checkRedirectAndGetPaymentForCancellation_Fail_FinalisedAuthorisation() {
+        //Given
+        when(pisAuthorisationRepository.findRedirect(FINALISED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID))
+            .thenReturn(Optional.of(buildAuthorisationRedirect(ScaStatus.FINALISED, OffsetDateTime.now().plusMinutes(1))));
+
+        // When
+        Optional<CmsPaymentResponse> actualResult = cmsPsuPisServiceInternal.checkRedirectAndGetPaymentForCancellation(FINALISED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+
+        // Then
+        assertThat(actualResult).isEqualTo(Optional.empty());
+        verify(pisAuthorisationRepository, never()).updateScaStatus(any(), any());
+        verify(pisAuthorisationRepository, never()).findById(any());
+        verify(rejectedRedirectCache).reject(FINALISED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+    }
+
+    @Test
+    public void checkRedirectAndGetPaymentForCancellation_Fail_RejectedBefore() {
+        //Given
+        when(rejectedRedirectCache.isRejected(EXPIRED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID)).thenReturn(true);
+
+        // When
+        Optional<CmsPaymentResponse> actualResult = cmsPsuPisServiceInternal.checkRedirectAndGetPaymentForCancellation(EXPIRED_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+
+        // Then
+        assertThat(actualResult).isEqualTo(Optional.empty());
+        verify(pisAuthorisationRepository, never()).findRedirect(any(), any());
     }
 
     @Test
     public void checkRedirectAndGetPaymentForCancellation_Fail_WrongId() {
         // Given
+        when(pisAuthorisationRepository.findRedirect(WRONG_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID)).thenReturn(Optional.empty());
 
         // When
         Optional<CmsPaymentResponse> actualResult = cmsPsuPisServiceInternal.checkRedirectAndGetPaymentForCancellation(WRONG_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
 
         // Then
         assertThat(actualResult).isEqualTo(Optional.empty());
-        verify(pisAuthorisationSpecification, times(1))
-            .byExternalIdAndInstanceId(WRONG_AUTHORISATION_ID, DEFAULT_SERVICE_INSTANCE_ID);
+        verify(rejectedRedirectCache, never()).reject(any(), any());
     }
 
     private PsuIdData buildPsuIdData() {
@@ -470,6 +562,10 @@ public class CmsPsuPisServiceInternalTest {
         return pisAuthorisation;
     }
 
+    private AuthorisationRedirect buildAuthorisationRedirect(ScaStatus scaStatus, OffsetDateTime expirationTimestamp) {
+        return new AuthorisationRedirect(AUTHORISATION_PK, scaStatus, expirationTimestamp, TPP_NOK_REDIRECT_URI);
+    }
+
     private PisCommonPaymentData buildPisCommonPaymentData() {
         PisCommonPaymentData pisCommonPaymentData = new PisCommonPaymentData();
         pisCommonPaymentData.setTransactionStatus(TransactionStatus.RCVD);
@@ -590,17 +686,5 @@ public class CmsPsuPisServiceInternalTest {
 
         return pisAuthorisation;
     }
-
-    private PisAuthorization buildExpiredAuthorisation() {
-        PisAuthorization pisAuthorisation = new PisAuthorization();
-        pisAuthorisation.setScaStatus(ScaStatus.RECEIVED);
-        pisAuthorisation.setAuthorizationType(CmsAuthorisationType.CREATED);
-        pisAuthorisation.setPaymentData(buildPisCommonPaymentData());
-        pisAuthorisation.setExternalId(EXPIRED_AUTHORISATION_ID);
-        pisAuthorisation.setPsuData(buildPsuData());
-        pisAuthorisation.setRedirectUrlExpirationTimestamp(OffsetDateTime.parse("2017-12-03T10:15:30+01:00"));
-
-        return pisAuthorisation;
-    }
 }
 
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service;
+
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyKey;
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyReservation;
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyStatus;
+import de.adorsys.psd2.consent.api.idempotency.IdempotentResponse;
+import de.adorsys.psd2.consent.domain.IdempotencyRecordEntity;
+import de.adorsys.psd2.consent.repository.IdempotencyRecordRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IdempotencyServiceInternalTest {
+    private static final String TPP_ID = "Test TppId";
+    private static final String X_REQUEST_ID = "99391c7e-ad88-49ec-a2ad-99ddcb1f7721";
+    private static final String BODY_DIGEST = "SHA-256=47DEQpj8HBSa+/TImW+5JCeuQeRkm5NMpJWZG3hSuFU=";
+    private static final String INSTANCE_ID = null;
+    private static final IdempotencyKey IDEMPOTENCY_KEY = new IdempotencyKey(TPP_ID, X_REQUEST_ID, BODY_DIGEST);
+    private static final byte[] RESPONSE_BYTES = "stored response".getBytes();
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+    @Mock
+    private JsonConverterService jsonConverterService;
+
+    private IdempotencyServiceInternal idempotencyService;
+
+    @Before
+    public void setUp() {
+        idempotencyService = new IdempotencyServiceInternal(idempotencyRecordRepository, jsonConverterService, 60, 86400);
+    }
+
+    @Test
+    public void reserve_newRequest_reserved() {
+        when(idempotencyRecordRepository.findByTppAuthorisationNumberAndXRequestIdAndBodyDigestAndInstanceId(TPP_ID, X_REQUEST_ID, BODY_DIGEST, INSTANCE_ID))
+            .thenReturn(Optional.empty());
+        ArgumentCaptor<IdempotencyRecordEntity> recordCaptor = ArgumentCaptor.forClass(IdempotencyRecordEntity.class);
+
+        IdempotencyReservation reservation = idempotencyService.reserve(IDEMPOTENCY_KEY);
+
+        assertEquals(IdempotencyStatus.RESERVED, reservation.getStatus());
+        verify(idempotencyRecordRepository).save(recordCaptor.capture());
+        IdempotencyRecordEntity record = recordCaptor.getValue();
+        assertEquals(TPP_ID, record.getTppAuthorisationNumber());
+        assertEquals(X_REQUEST_ID, record.getXRequestId());
+        assertEquals(BODY_DIGEST, record.getBodyDigest());
+        assertEquals(IdempotencyStatus.IN_PROGRESS, record.getStatus());
+        assertTrue(record.getLockExpirationTimestamp().isBefore(record.getExpirationTimestamp()));
+    }
+
+    @Test
+    public void reserve_concurrentlyReserved_inProgress() {
+        when(idempotencyRecordRepository.findByTppAuthorisationNumberAndXRequestIdAndBodyDigestAndInstanceId(TPP_ID, X_REQUEST_ID, BODY_DIGEST, INSTANCE_ID))
+            .thenReturn(Optional.empty())
+            .thenReturn(Optional.of(buildRecord(IdempotencyStatus.IN_PROGRESS, OffsetDateTime.now().plusMinutes(1))));
+        when(idempotencyRecordRepository.save(any(IdempotencyRecordEntity.class)))
+            .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        IdempotencyReservation reservation = idempotencyService.reserve(IDEMPOTENCY_KEY);
+
+        assertEquals(IdempotencyStatus.IN_PROGRESS, reservation.getStatus());
+    }
+
+    @Test
+    public void reserve_completedRequest_completedWithResponse() {
+        IdempotencyRecordEntity record = buildRecord(IdempotencyStatus.COMPLETED, OffsetDateTime.now().minusMinutes(1));
+        record.setResponse(RESPONSE_BYTES);
+        IdempotentResponse response = new IdempotentResponse(201, Collections.singletonMap("Location", "/v1/consents/1"), RESPONSE_BYTES);
+        when(idempotencyRecordRepository.findByTppAuthorisationNumberAndXRequestIdAndBodyDigestAndInstanceId(TPP_ID, X_REQUEST_ID, BODY_DIGEST, INSTANCE_ID))
+            .thenReturn(Optional.of(record));
+        when(jsonConverterService.toObject(RESPONSE_BYTES, IdempotentResponse.class))
+            .thenReturn(Optional.of(response));
+
+        IdempotencyReservation reservation = idempotencyService.reserve(IDEMPOTENCY_KEY);
+
+        assertEquals(IdempotencyStatus.COMPLETED, reservation.getStatus());
+        assertEquals(response, reservation.getResponse());
+        verify(idempotencyRecordRepository, never()).save(any(IdempotencyRecordEntity.class));
+    }
+
+    @Test
+    public void reserve_abandonedReservation_takenOver() {
+        IdempotencyRecordEntity record = buildRecord(IdempotencyStatus.IN_PROGRESS, OffsetDateTime.now().minusSeconds(1));
+        when(idempotencyRecordRepository.findByTppAuthorisationNumberAndXRequestIdAndBodyDigestAndInstanceId(TPP_ID, X_REQUEST_ID, BODY_DIGEST, INSTANCE_ID))
+            .thenReturn(Optional.of(record));
+
+        IdempotencyReservation reservation = idempotencyService.reserve(IDEMPOTENCY_KEY);
+
+        assertEquals(IdempotencyStatus.RESERVED, reservation.getStatus());
+        assertTrue(record.getLockExpirationTimestamp().isAfter(OffsetDateTime.now()));
+        verify(idempotencyRecordRepository).save(record);
+    }
+
+    @Test
+    public void reserve_abandonedReservationTakenOverConcurrently_inProgress() {
+        IdempotencyRecordEntity record = buildRecord(IdempotencyStatus.IN_PROGRESS, OffsetDateTime.now().minusSeconds(1));
+        when(idempotencyRecordRepository.findByTppAuthorisationNumberAndXRequestIdAndBodyDigestAndInstanceId(TPP_ID, X_REQUEST_ID, BODY_DIGEST, INSTANCE_ID))
+            .thenReturn(Optional.of(record));
+        when(idempotencyRecordRepository.save(record))
+            .thenThrow(new ObjectOptimisticLockingFailureException(IdempotencyRecordEntity.class, 1L));
+
+        IdempotencyReservation reservation = idempotencyService.reserve(IDEMPOTENCY_KEY);
+
+        assertEquals(IdempotencyStatus.IN_PROGRESS, reservation.getStatus());
+    }
+
+    @Test
+    public void complete_success() {
+        IdempotencyRecordEntity record = buildRecord(IdempotencyStatus.IN_PROGRESS, OffsetDateTime.now().plusMinutes(1));
+        IdempotentResponse response = new IdempotentResponse(201, Collections.emptyMap(), RESPONSE_BYTES);
+        when(idempotencyRecordRepository.findByTppAuthorisationNumberAndXRequestIdAndBodyDigestAndInstanceId(TPP_ID, X_REQUEST_ID, BODY_DIGEST, INSTANCE_ID))
+            .thenReturn(Optional.of(record));
+        when(jsonConverterService.toJsonBytes(response))
+            .thenReturn(Optional.of(RESPONSE_BYTES));
+
+        boolean completed = idempotencyService.complete(IDEMPOTENCY_KEY, response);
+
+        assertTrue(completed);
+        assertEquals(IdempotencyStatus.COMPLETED, record.getStatus());
+        assertArrayEquals(RESPONSE_BYTES, record.getResponse());
+        verify(idempotencyRecordRepository).save(record);
+    }
+
+    @Test
+    public void complete_reservationNotFound_false() {
+        IdempotentResponse response = new IdempotentResponse(201, Collections.emptyMap(), RESPONSE_BYTES);
+        when(idempotencyRecordRepository.findByTppAuthorisationNumberAndXRequestIdAndBodyDigestAndInstanceId(TPP_ID, X_REQUEST_ID, BODY_DIGEST, INSTANCE_ID))
+            .thenReturn(Optional.empty());
+        when(jsonConverterService.toJsonBytes(response))
+            .thenReturn(Optional.of(RESPONSE_BYTES));
+
+        boolean completed = idempotencyService.complete(IDEMPOTENCY_KEY, response);
+
+        assertFalse(completed);
+        verify(idempotencyRecordRepository, never()).save(any(IdempotencyRecordEntity.class));
+    }
+
+    @Test
+    public void release_inProgress_deleted() {
+        IdempotencyRecordEntity record = buildRecord(IdempotencyStatus.IN_PROGRESS, OffsetDateTime.now().plusMinutes(1));
+        when(idempotencyRecordRepository.findByTppAuthorisationNumberAndXRequestIdAndBodyDigestAndInstanceId(TPP_ID, X_REQUEST_ID, BODY_DIGEST, INSTANCE_ID))
+            .thenReturn(Optional.of(record));
+
+        boolean released = idempotencyService.release(IDEMPOTENCY_KEY);
+
+        assertTrue(released);
+        verify(idempotencyRecordRepository).delete(record);
+    }
+
+    @Test
+    public void release_completed_notDeleted() {
+        IdempotencyRecordEntity record = buildRecord(IdempotencyStatus.COMPLETED, OffsetDateTime.now().minusMinutes(1));
+        when(idempotencyRecordRepository.findByTppAuthorisationNumberAndXRequestIdAndBodyDigestAndInstanceId(TPP_ID, X_REQUEST_ID, BODY_DIGEST, INSTANCE_ID))
+            .thenReturn(Optional.of(record));
+
+        boolean released = idempotencyService.release(IDEMPOTENCY_KEY);
+
+        assertFalse(released);
+        verify(idempotencyRecordRepository, never()).delete(any(IdempotencyRecordEntity.class));
+    }
+
+    private IdempotencyRecordEntity buildRecord(IdempotencyStatus status, OffsetDateTime lockExpirationTimestamp) {
+        IdempotencyRecordEntity record = new IdempotencyRecordEntity();
+        record.setTppAuthorisationNumber(TPP_ID);
+        record.setXRequestId(X_REQUEST_ID);
+        record.setBodyDigest(BODY_DIGEST);
+        record.setStatus(status);
+        record.setLockExpirationTimestamp(lockExpirationTimestamp);
+        record.setExpirationTimestamp(OffsetDateTime.now().plusDays(1));
+        return record;
+    }
+}
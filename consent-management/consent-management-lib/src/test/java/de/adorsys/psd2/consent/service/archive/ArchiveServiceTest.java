@@ -0,0 +1,306 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.adorsys.psd2.consent.api.CmsAuthorisationType;
+import de.adorsys.psd2.consent.api.ais.AisAccountConsent;
+import de.adorsys.psd2.consent.api.pis.CmsPayment;
+import de.adorsys.psd2.consent.api.pis.CmsSinglePayment;
+import de.adorsys.psd2.consent.domain.AccountReferenceEntity;
+import de.adorsys.psd2.consent.domain.PsuData;
+import de.adorsys.psd2.consent.domain.TppInfoEntity;
+import de.adorsys.psd2.consent.domain.account.*;
+import de.adorsys.psd2.consent.domain.payment.*;
+import de.adorsys.psd2.consent.repository.AisConsentArchiveRepository;
+import de.adorsys.psd2.consent.repository.AisConsentRepository;
+import de.adorsys.psd2.consent.repository.PisCommonPaymentArchiveRepository;
+import de.adorsys.psd2.consent.repository.PisCommonPaymentDataRepository;
+import de.adorsys.psd2.consent.service.mapper.AisConsentMapper;
+import de.adorsys.psd2.consent.service.mapper.ArchiveMapper;
+import de.adorsys.psd2.consent.service.mapper.CmsPsuPisMapper;
+import de.adorsys.psd2.xs2a.core.ais.AccountAccessType;
+import de.adorsys.psd2.xs2a.core.consent.AisConsentRequestType;
+import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
+import de.adorsys.psd2.xs2a.core.profile.PaymentType;
+import de.adorsys.psd2.xs2a.core.profile.ScaApproach;
+import de.adorsys.psd2.xs2a.core.sca.ScaStatus;
+import de.adorsys.psd2.xs2a.core.tpp.TppRole;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the archival against in-memory H2 database, so that removal of the archived records together with their
+ * dependent records is checked against the real schema constraints.
+ */
+public class ArchiveServiceTest {
+    private static final String DB_URL = "jdbc:h2:mem:cms-archive;DB_CLOSE_DELAY=-1";
+    private static final String INSTANCE_ID = "UNDEFINED";
+    private static final String ARCHIVED_CONSENT_ID = "archived consent";
+    private static final String VALID_CONSENT_ID = "valid consent";
+    private static final String RECENT_CONSENT_ID = "recent consent";
+    private static final String ARCHIVED_PAYMENT_ID = "archived payment";
+    private static final String PENDING_PAYMENT_ID = "pending payment";
+    private static final OffsetDateTime OLD_TIMESTAMP = OffsetDateTime.now().minusYears(1);
+    private static final OffsetDateTime CHANGED_BEFORE = OffsetDateTime.now().minusDays(90);
+    private static final int BATCH_SIZE = 10;
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private AisConsentRepository aisConsentRepository;
+    private PisCommonPaymentDataRepository pisCommonPaymentDataRepository;
+    private ArchiveService archiveService;
+
+    @Before
+    public void setUp() {
+        sessionFactory = new MetadataSources(new StandardServiceRegistryBuilder()
+                                                 .applySetting(AvailableSettings.URL, DB_URL)
+                                                 .applySetting(AvailableSettings.DIALECT, H2Dialect.class.getName())
+                                                 .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                                                 .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                                                 .build())
+                             .addAnnotatedClass(AisConsent.class)
+                             .addAnnotatedClass(AisConsentUsage.class)
+                             .addAnnotatedClass(AisConsentAuthorization.class)
+                             .addAnnotatedClass(AisConsentArchive.class)
+                             .addAnnotatedClass(PisCommonPaymentData.class)
+                             .addAnnotatedClass(PisCommonPaymentPayload.class)
+                             .addAnnotatedClass(PisPaymentData.class)
+                             .addAnnotatedClass(PisAuthorization.class)
+                             .addAnnotatedClass(PisAddress.class)
+                             .addAnnotatedClass(PisRemittance.class)
+                             .addAnnotatedClass(PisCommonPaymentArchive.class)
+                             .addAnnotatedClass(PsuData.class)
+                             .addAnnotatedClass(TppInfoEntity.class)
+                             .addAnnotatedClass(AccountReferenceEntity.class)
+                             .buildMetadata()
+                             .buildSessionFactory();
+
+        entityManager = sessionFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        entityManager.persist(buildAisConsent(ARCHIVED_CONSENT_ID, ConsentStatus.EXPIRED, OLD_TIMESTAMP));
+        entityManager.persist(buildAisConsent(VALID_CONSENT_ID, ConsentStatus.VALID, OLD_TIMESTAMP));
+        entityManager.persist(buildAisConsent(RECENT_CONSENT_ID, ConsentStatus.REVOKED_BY_PSU, OffsetDateTime.now()));
+        entityManager.persist(buildPisCommonPaymentData(ARCHIVED_PAYMENT_ID, TransactionStatus.ACSC));
+        entityManager.persist(buildPisCommonPaymentData(PENDING_PAYMENT_ID, TransactionStatus.RCVD));
+        entityManager.flush();
+        entityManager.clear();
+
+        JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(entityManager);
+        aisConsentRepository = repositoryFactory.getRepository(AisConsentRepository.class);
+        pisCommonPaymentDataRepository = repositoryFactory.getRepository(PisCommonPaymentDataRepository.class);
+
+        archiveService = new ArchiveService(entityManager,
+                                            aisConsentRepository,
+                                            repositoryFactory.getRepository(AisConsentArchiveRepository.class),
+                                            pisCommonPaymentDataRepository,
+                                            repositoryFactory.getRepository(PisCommonPaymentArchiveRepository.class),
+                                            buildAisConsentMapper(),
+                                            buildCmsPsuPisMapper(),
+                                            new ArchiveMapper(new ObjectMapper()
+                                                                  .registerModule(new JavaTimeModule())
+                                                                  .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)));
+    }
+
+    @After
+    public void tearDown() {
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    @Test
+    public void archiveAisConsents_shouldMoveOnlyOldFinalisedConsents() {
+        // When
+        int archived = archiveService.archiveAisConsents(CHANGED_BEFORE, BATCH_SIZE);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        assertEquals(1, archived);
+        assertEquals(2, count("ais_consent"));
+        assertEquals(2, count("ais_consent_authorization"));
+        assertEquals(2, count("ais_consent_usage"));
+        Optional<AisAccountConsent> archivedConsent = archiveService.getAisConsent(ARCHIVED_CONSENT_ID, INSTANCE_ID);
+        assertTrue(archivedConsent.isPresent());
+        assertEquals(ConsentStatus.EXPIRED, archivedConsent.get().getConsentStatus());
+        assertFalse(archiveService.getAisConsent(VALID_CONSENT_ID, INSTANCE_ID).isPresent());
+    }
+
+    @Test
+    public void archiveAisConsents_nothingToArchive_shouldReturnZero() {
+        // Given
+        archiveService.archiveAisConsents(CHANGED_BEFORE, BATCH_SIZE);
+
+        // When
+        int archived = archiveService.archiveAisConsents(CHANGED_BEFORE, BATCH_SIZE);
+
+        // Then
+        assertEquals(0, archived);
+    }
+
+    @Test
+    public void archivePayments_shouldMoveOnlyOldFinalisedPayments() {
+        // When
+        int archived = archiveService.archivePayments(CHANGED_BEFORE, BATCH_SIZE);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        assertEquals(1, archived);
+        assertEquals(1, count("pis_common_payment"));
+        assertEquals(1, count("pis_payment_data"));
+        assertEquals(1, count("pis_consent_authorization"));
+        Optional<CmsPayment> archivedPayment = archiveService.getPayment(ARCHIVED_PAYMENT_ID, INSTANCE_ID);
+        assertTrue(archivedPayment.isPresent());
+        assertEquals(ARCHIVED_PAYMENT_ID, archivedPayment.get().getPaymentId());
+        assertFalse(archiveService.getPayment(PENDING_PAYMENT_ID, INSTANCE_ID).isPresent());
+    }
+
+    private long count(String entityName) {
+        return entityManager.createQuery("select count(e) from " + entityName + " e", Long.class)
+                   .getSingleResult();
+    }
+
+    private AisConsentMapper buildAisConsentMapper() {
+        AisConsentMapper aisConsentMapper = mock(AisConsentMapper.class);
+        when(aisConsentMapper.mapToAisAccountConsentList(anyList()))
+            .thenAnswer(invocation -> invocation.<List<AisConsent>>getArgument(0).stream()
+                                          .map(c -> {
+                                              AisAccountConsent accountConsent = new AisAccountConsent();
+                                              accountConsent.setId(c.getExternalId());
+                                              accountConsent.setConsentStatus(c.getConsentStatus());
+                                              return accountConsent;
+                                          })
+                                          .collect(Collectors.toList()));
+        return aisConsentMapper;
+    }
+
+    private CmsPsuPisMapper buildCmsPsuPisMapper() {
+        CmsPsuPisMapper cmsPsuPisMapper = mock(CmsPsuPisMapper.class);
+        when(cmsPsuPisMapper.mapPaymentDataToCmsPayments(anyList()))
+            .thenAnswer(invocation -> invocation.<List<PisCommonPaymentData>>getArgument(0).stream()
+                                          .map(p -> {
+                                              CmsSinglePayment payment = new CmsSinglePayment(p.getPaymentProduct());
+                                              payment.setPaymentId(p.getPaymentId());
+                                              return payment;
+                                          })
+                                          .collect(Collectors.toList()));
+        return cmsPsuPisMapper;
+    }
+
+    private AisConsent buildAisConsent(String consentId, ConsentStatus consentStatus, OffsetDateTime statusChangeTimestamp) {
+        AisConsent consent = new AisConsent();
+        consent.setExternalId(consentId);
+        consent.setInstanceId(INSTANCE_ID);
+        consent.setRecurringIndicator(true);
+        consent.setRequestDateTime(LocalDateTime.now());
+        consent.setExpireDate(LocalDate.now().plusDays(1));
+        consent.setConsentStatus(consentStatus);
+        consent.setStatusChangeTimestamp(statusChangeTimestamp);
+        consent.setAllowedFrequencyPerDay(4);
+        consent.setTppFrequencyPerDay(4);
+        consent.setAisConsentRequestType(AisConsentRequestType.DEDICATED_ACCOUNTS);
+        consent.setAvailableAccounts(AccountAccessType.ALL_ACCOUNTS);
+        consent.setTppInfo(buildTppInfo());
+        PsuData psuData = new PsuData("psu", null, null, null);
+        consent.getPsuDataList().add(psuData);
+        consent.getUsages().add(new AisConsentUsage(consent, "/v1/accounts"));
+
+        AisConsentAuthorization authorisation = new AisConsentAuthorization();
+        authorisation.setExternalId("authorisation of " + consentId);
+        authorisation.setScaStatus(ScaStatus.FINALISED);
+        authorisation.setScaApproach(ScaApproach.REDIRECT);
+        authorisation.setPsuData(psuData);
+        authorisation.setConsent(consent);
+        consent.getAuthorizations().add(authorisation);
+        return consent;
+    }
+
+    private PisCommonPaymentData buildPisCommonPaymentData(String paymentId, TransactionStatus transactionStatus) {
+        PisCommonPaymentData commonPayment = new PisCommonPaymentData();
+        commonPayment.setPaymentId(paymentId);
+        commonPayment.setInstanceId(INSTANCE_ID);
+        commonPayment.setPaymentType(PaymentType.SINGLE);
+        commonPayment.setPaymentProduct("sepa-credit-transfers");
+        commonPayment.setTransactionStatus(transactionStatus);
+        commonPayment.setStatusChangeTimestamp(OLD_TIMESTAMP);
+        commonPayment.setTppInfo(buildTppInfo());
+        PsuData psuData = new PsuData("psu", null, null, null);
+        commonPayment.getPsuDataList().add(psuData);
+
+        PisPaymentData payment = new PisPaymentData();
+        payment.setPaymentId(paymentId);
+        payment.setCurrency(Currency.getInstance("EUR"));
+        payment.setAmount(BigDecimal.TEN);
+        payment.setCreditorName("creditor");
+        payment.setDebtorAccount(buildAccountReference("debtor"));
+        payment.setCreditorAccount(buildAccountReference("creditor"));
+        payment.setPaymentData(commonPayment);
+        commonPayment.getPayments().add(payment);
+
+        PisAuthorization authorisation = new PisAuthorization();
+        authorisation.setExternalId("authorisation of " + paymentId);
+        authorisation.setScaStatus(ScaStatus.FINALISED);
+        authorisation.setScaApproach(ScaApproach.REDIRECT);
+        authorisation.setAuthorizationType(CmsAuthorisationType.CREATED);
+        authorisation.setPsuData(psuData);
+        authorisation.setPaymentData(commonPayment);
+        commonPayment.getAuthorizations().add(authorisation);
+        return commonPayment;
+    }
+
+    private TppInfoEntity buildTppInfo() {
+        TppInfoEntity tppInfo = new TppInfoEntity();
+        tppInfo.setAuthorisationNumber("authorisation number");
+        tppInfo.setAuthorityId("authority id");
+        tppInfo.setTppRoles(Collections.singletonList(TppRole.AISP));
+        return tppInfo;
+    }
+
+    private AccountReferenceEntity buildAccountReference(String iban) {
+        AccountReferenceEntity account = new AccountReferenceEntity();
+        account.setIban(iban);
+        return account;
+    }
+}
@@ -19,8 +19,10 @@ package de.adorsys.psd2.consent.service.aspsp;
 import de.adorsys.psd2.consent.api.ais.AisAccountConsent;
 import de.adorsys.psd2.consent.domain.PsuData;
 import de.adorsys.psd2.consent.domain.account.AisConsent;
-import de.adorsys.psd2.consent.repository.AisConsentRepository;
+import de.adorsys.psd2.consent.domain.account.AisConsentArchive;
+import de.adorsys.psd2.consent.repository.specification.AisConsentArchiveSpecification;
 import de.adorsys.psd2.consent.repository.specification.AisConsentSpecification;
+import de.adorsys.psd2.consent.service.mapper.ArchiveMapper;
 import de.adorsys.psd2.consent.service.mapper.AisConsentMapper;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
 import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
@@ -29,6 +31,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.data.jpa.domain.Specification;
 
@@ -37,6 +40,7 @@ import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -66,9 +70,13 @@ public class CmsAspspAisExportServiceInternalTest {
     @Mock
     private AisConsentSpecification aisConsentSpecification;
     @Mock
-    private AisConsentRepository aisConsentRepository;
+    private ExportQueryExecutor exportQueryExecutor;
     @Mock
     private AisConsentMapper aisConsentMapper;
+    @Mock
+    private AisConsentArchiveSpecification aisConsentArchiveSpecification;
+    @Mock
+    private ArchiveMapper archiveMapper;
 
     @Before
     public void setUp() {
@@ -76,7 +84,8 @@ public class CmsAspspAisExportServiceInternalTest {
         wrongPsuIdData = buildPsuIdData(WRONG_PSU_ID);
         psuData = buildPsuData();
 
-        when(aisConsentMapper.mapToAisAccountConsent(buildAisConsent())).thenReturn(buildAisAccountConsent());
+        when(aisConsentMapper.mapToAisAccountConsentList(Collections.singletonList(buildAisConsent())))
+            .thenReturn(Collections.singletonList(buildAisAccountConsent()));
     }
 
     @Test
@@ -89,9 +98,8 @@ public class CmsAspspAisExportServiceInternalTest {
             psuIdData,
             DEFAULT_SERVICE_INSTANCE_ID
         )).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        //noinspection unchecked
-        when(aisConsentRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildAisConsent()));
+        when(exportQueryExecutor.findAll(anyList()))
+            .thenAnswer(invocation -> applyMapper(invocation, buildAisConsent()));
         AisAccountConsent expectedConsent = buildAisAccountConsent();
 
         // When
@@ -143,8 +151,8 @@ public class CmsAspspAisExportServiceInternalTest {
             CREATION_DATE_TO,
             DEFAULT_SERVICE_INSTANCE_ID
         )).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        //noinspection unchecked
-        when(aisConsentRepository.findAll(any())).thenReturn(Collections.singletonList(buildAisConsent()));
+        when(exportQueryExecutor.findAll(anyList()))
+            .thenAnswer(invocation -> applyMapper(invocation, buildAisConsent()));
         AisAccountConsent expectedConsent = buildAisAccountConsent();
 
         // When
@@ -209,8 +217,8 @@ public class CmsAspspAisExportServiceInternalTest {
             CREATION_DATE_TO,
             DEFAULT_SERVICE_INSTANCE_ID
         )).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        //noinspection unchecked
-        when(aisConsentRepository.findAll(any())).thenReturn(Collections.singletonList(buildAisConsent()));
+        when(exportQueryExecutor.findAll(anyList()))
+            .thenAnswer(invocation -> applyMapper(invocation, buildAisConsent()));
         AisAccountConsent expectedConsent = buildAisAccountConsent();
 
         // When
@@ -225,6 +233,28 @@ public class CmsAspspAisExportServiceInternalTest {
             .byAspspAccountIdAndCreationPeriodAndInstanceId(ASPSP_ACCOUNT_ID, CREATION_DATE_FROM, CREATION_DATE_TO, DEFAULT_SERVICE_INSTANCE_ID);
     }
 
+    @Test
+    public void exportConsentsByAccountId_archivedConsent() {
+        // Given
+        AisConsentArchive archive = new AisConsentArchive();
+        AisAccountConsent expectedConsent = buildAisAccountConsent();
+        when(exportQueryExecutor.findAll(anyList()))
+            .thenAnswer(invocation -> applyMapper(invocation, 1, archive));
+        when(archiveMapper.mapToAisAccountConsentList(Collections.singletonList(archive)))
+            .thenReturn(Collections.singletonList(expectedConsent));
+
+        // When
+        Collection<AisAccountConsent> consents =
+            cmsAspspAisExportServiceInternal.exportConsentsByAccountId(ASPSP_ACCOUNT_ID, CREATION_DATE_FROM,
+                                                                       CREATION_DATE_TO, DEFAULT_SERVICE_INSTANCE_ID);
+
+        // Then
+        assertTrue(consents.contains(expectedConsent));
+        verify(aisConsentArchiveSpecification, times(1))
+            .byAspspAccountIdAndCreationPeriodAndInstanceId(ASPSP_ACCOUNT_ID, CREATION_DATE_FROM,
+                                                            CREATION_DATE_TO, DEFAULT_SERVICE_INSTANCE_ID);
+    }
+
     @Test
     public void exportConsentsByAccountId_failure_wrongAspspAccountId() {
         // Given
@@ -256,7 +286,7 @@ public class CmsAspspAisExportServiceInternalTest {
                                      null, false,
                                      null, 0,
                                      null, null,
-                                     false, false, null, null, null, false, Collections.emptyList(), 0, Collections.emptyMap(), CREATION_DATE_TIME, STATUS_CHANGE_DATE_TIME);
+                                     false, false, null, null, null, false, Collections.emptyList(), 0, Collections.emptyMap(), CREATION_DATE_TIME, STATUS_CHANGE_DATE_TIME, 0L);
     }
 
     private AisConsent buildAisConsent() {
@@ -269,4 +299,13 @@ public class CmsAspspAisExportServiceInternalTest {
         aisConsent.setCreationTimestamp(OffsetDateTime.of(2018, 10, 10, 10, 10, 10, 10, ZoneOffset.UTC));
         return aisConsent;
     }
+
+    private <E, T> List<T> applyMapper(InvocationOnMock invocation, E entity) {
+        return applyMapper(invocation, 0, entity);
+    }
+
+    private <E, T> List<T> applyMapper(InvocationOnMock invocation, int sourceIndex, E entity) {
+        List<ExportSource<E, T>> sources = invocation.getArgument(0);
+        return sources.get(sourceIndex).getMapper().apply(Collections.singletonList(entity));
+    }
 }
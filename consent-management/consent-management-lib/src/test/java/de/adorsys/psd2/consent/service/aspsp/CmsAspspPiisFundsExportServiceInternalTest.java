@@ -18,7 +18,6 @@ package de.adorsys.psd2.consent.service.aspsp;
 
 import de.adorsys.psd2.consent.domain.PsuData;
 import de.adorsys.psd2.consent.domain.piis.PiisConsentEntity;
-import de.adorsys.psd2.consent.repository.PiisConsentRepository;
 import de.adorsys.psd2.consent.repository.specification.PiisConsentEntitySpecification;
 import de.adorsys.psd2.consent.service.mapper.PiisConsentMapper;
 import de.adorsys.psd2.xs2a.core.piis.PiisConsent;
@@ -28,6 +27,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.data.jpa.domain.Specification;
 
@@ -36,6 +36,8 @@ import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
 
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -61,7 +63,7 @@ public class CmsAspspPiisFundsExportServiceInternalTest {
     @InjectMocks
     private CmsAspspPiisFundsExportServiceInternal cmsAspspPiisFundsExportServiceInternal;
     @Mock
-    private PiisConsentRepository piisConsentRepository;
+    private ExportQueryExecutor exportQueryExecutor;
     @Mock
     private PiisConsentEntitySpecification piisConsentEntitySpecification;
     @Mock
@@ -88,8 +90,8 @@ public class CmsAspspPiisFundsExportServiceInternalTest {
             psuIdData,
             SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
         //noinspection unchecked
-        when(piisConsentRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPiisConsentEntity()));
+        when(exportQueryExecutor.findAll(eq(PiisConsentEntity.class), any(Specification.class), any()))
+            .thenAnswer(invocation -> applyMapper(invocation, buildPiisConsentEntity()));
         PiisConsent expectedConsent = buildPiisConsent();
 
         // When
@@ -114,8 +116,8 @@ public class CmsAspspPiisFundsExportServiceInternalTest {
             psuIdData,
             DEFAULT_SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
         //noinspection unchecked
-        when(piisConsentRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPiisConsentEntity()));
+        when(exportQueryExecutor.findAll(eq(PiisConsentEntity.class), any(Specification.class), any()))
+            .thenAnswer(invocation -> applyMapper(invocation, buildPiisConsentEntity()));
         PiisConsent expectedConsent = buildPiisConsent();
 
         // When
@@ -181,8 +183,8 @@ public class CmsAspspPiisFundsExportServiceInternalTest {
             CREATION_DATE_TO,
             SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
         //noinspection unchecked
-        when(piisConsentRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPiisConsentEntity()));
+        when(exportQueryExecutor.findAll(eq(PiisConsentEntity.class), any(Specification.class), any()))
+            .thenAnswer(invocation -> applyMapper(invocation, buildPiisConsentEntity()));
         PiisConsent expectedConsent = buildPiisConsent();
 
         // When
@@ -206,8 +208,8 @@ public class CmsAspspPiisFundsExportServiceInternalTest {
             CREATION_DATE_TO,
             DEFAULT_SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
         //noinspection unchecked
-        when(piisConsentRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPiisConsentEntity()));
+        when(exportQueryExecutor.findAll(eq(PiisConsentEntity.class), any(Specification.class), any()))
+            .thenAnswer(invocation -> applyMapper(invocation, buildPiisConsentEntity()));
         PiisConsent expectedConsent = buildPiisConsent();
 
         // When
@@ -273,8 +275,8 @@ public class CmsAspspPiisFundsExportServiceInternalTest {
             CREATION_DATE_TO,
             SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
         //noinspection unchecked
-        when(piisConsentRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPiisConsentEntity()));
+        when(exportQueryExecutor.findAll(eq(PiisConsentEntity.class), any(Specification.class), any()))
+            .thenAnswer(invocation -> applyMapper(invocation, buildPiisConsentEntity()));
         PiisConsent expectedConsent = buildPiisConsent();
 
         // When
@@ -298,8 +300,8 @@ public class CmsAspspPiisFundsExportServiceInternalTest {
             CREATION_DATE_TO,
             DEFAULT_SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
         //noinspection unchecked
-        when(piisConsentRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPiisConsentEntity()));
+        when(exportQueryExecutor.findAll(eq(PiisConsentEntity.class), any(Specification.class), any()))
+            .thenAnswer(invocation -> applyMapper(invocation, buildPiisConsentEntity()));
         PiisConsent expectedConsent = buildPiisConsent();
 
         // When
@@ -370,5 +372,8 @@ public class CmsAspspPiisFundsExportServiceInternalTest {
         return new PsuData(PSU_ID, null, null, null);
     }
 
-
+    private <E, T> List<T> applyMapper(InvocationOnMock invocation, E entity) {
+        Function<List<E>, List<T>> mapper = invocation.getArgument(2);
+        return mapper.apply(Collections.singletonList(entity));
+    }
 }
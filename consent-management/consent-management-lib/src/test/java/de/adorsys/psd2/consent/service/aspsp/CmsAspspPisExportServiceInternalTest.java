@@ -19,10 +19,12 @@ package de.adorsys.psd2.consent.service.aspsp;
 import de.adorsys.psd2.consent.api.pis.CmsPayment;
 import de.adorsys.psd2.consent.api.pis.CmsSinglePayment;
 import de.adorsys.psd2.consent.domain.PsuData;
+import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentArchive;
 import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
 import de.adorsys.psd2.consent.domain.payment.PisPaymentData;
-import de.adorsys.psd2.consent.repository.PisCommonPaymentDataRepository;
+import de.adorsys.psd2.consent.repository.specification.PisCommonPaymentArchiveSpecification;
 import de.adorsys.psd2.consent.repository.specification.PisCommonPaymentDataSpecification;
+import de.adorsys.psd2.consent.service.mapper.ArchiveMapper;
 import de.adorsys.psd2.consent.service.mapper.CmsPsuPisMapper;
 import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
 import de.adorsys.psd2.xs2a.core.profile.PaymentType;
@@ -32,6 +34,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.data.jpa.domain.Specification;
 
@@ -72,9 +75,13 @@ public class CmsAspspPisExportServiceInternalTest {
     @Mock
     private PisCommonPaymentDataSpecification pisCommonPaymentDataSpecification;
     @Mock
-    private PisCommonPaymentDataRepository pisCommonPaymentDataRepository;
+    private ExportQueryExecutor exportQueryExecutor;
     @Mock
     private CmsPsuPisMapper cmsPsuPisMapper;
+    @Mock
+    private PisCommonPaymentArchiveSpecification pisCommonPaymentArchiveSpecification;
+    @Mock
+    private ArchiveMapper archiveMapper;
 
     @Before
     public void setUp() {
@@ -93,9 +100,8 @@ public class CmsAspspPisExportServiceInternalTest {
             CREATION_DATE_TO,
             psuIdData,
             DEFAULT_SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        //noinspection unchecked
-        when(pisCommonPaymentDataRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPisCommonPaymentData()));
+        when(exportQueryExecutor.findAll(anyList()))
+            .thenAnswer(invocation -> applyMapper(invocation, buildPisCommonPaymentData()));
         CmsPayment expectedPayment = buildCmsPayment();
 
         // When
@@ -111,6 +117,28 @@ public class CmsAspspPisExportServiceInternalTest {
                                                                CREATION_DATE_TO, psuIdData, DEFAULT_SERVICE_INSTANCE_ID);
     }
 
+    @Test
+    public void exportPaymentsByTpp_archivedPayment() {
+        // Given
+        PisCommonPaymentArchive archive = new PisCommonPaymentArchive();
+        CmsPayment expectedPayment = buildCmsPayment();
+        when(exportQueryExecutor.findAll(anyList()))
+            .thenAnswer(invocation -> applyMapper(invocation, 1, archive));
+        when(archiveMapper.mapToCmsPaymentList(Collections.singletonList(archive)))
+            .thenReturn(Collections.singletonList(expectedPayment));
+
+        // When
+        Collection<CmsPayment> payments =
+            cmsAspspPisExportServiceInternal.exportPaymentsByTpp(TPP_AUTHORISATION_NUMBER, CREATION_DATE_FROM,
+                                                                 CREATION_DATE_TO, psuIdData, DEFAULT_SERVICE_INSTANCE_ID);
+
+        // Then
+        assertTrue(payments.contains(expectedPayment));
+        verify(pisCommonPaymentArchiveSpecification, times(1))
+            .byTppIdAndCreationPeriodAndPsuIdDataAndInstanceId(TPP_AUTHORISATION_NUMBER, CREATION_DATE_FROM,
+                                                               CREATION_DATE_TO, psuIdData, DEFAULT_SERVICE_INSTANCE_ID);
+    }
+
     @Test
     public void exportPaymentsByTpp_failure_wrongTppAuthorisationNumber() {
         // Given
@@ -150,9 +178,8 @@ public class CmsAspspPisExportServiceInternalTest {
             CREATION_DATE_FROM,
             CREATION_DATE_TO,
             DEFAULT_SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        //noinspection unchecked
-        when(pisCommonPaymentDataRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPisCommonPaymentData()));
+        when(exportQueryExecutor.findAll(anyList()))
+            .thenAnswer(invocation -> applyMapper(invocation, buildPisCommonPaymentData()));
         CmsPayment expectedPayment = buildCmsPayment();
 
         // When
@@ -220,9 +247,8 @@ public class CmsAspspPisExportServiceInternalTest {
             CREATION_DATE_FROM,
             CREATION_DATE_TO,
             DEFAULT_SERVICE_INSTANCE_ID)).thenReturn((root, criteriaQuery, criteriaBuilder) -> null);
-        //noinspection unchecked
-        when(pisCommonPaymentDataRepository.findAll(any(Specification.class)))
-            .thenReturn(Collections.singletonList(buildPisCommonPaymentData()));
+        when(exportQueryExecutor.findAll(anyList()))
+            .thenAnswer(invocation -> applyMapper(invocation, buildPisCommonPaymentData()));
         CmsPayment expectedPayment = buildCmsPayment();
 
         // When
@@ -306,4 +332,13 @@ public class CmsAspspPisExportServiceInternalTest {
 
         return Collections.singletonList(pisPaymentData);
     }
+
+    private <E, T> List<T> applyMapper(InvocationOnMock invocation, E entity) {
+        return applyMapper(invocation, 0, entity);
+    }
+
+    private <E, T> List<T> applyMapper(InvocationOnMock invocation, int sourceIndex, E entity) {
+        List<ExportSource<E, T>> sources = invocation.getArgument(0);
+        return sources.get(sourceIndex).getMapper().apply(Collections.singletonList(entity));
+    }
 }
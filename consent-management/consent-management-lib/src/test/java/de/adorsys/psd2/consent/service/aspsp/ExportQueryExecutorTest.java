@@ -0,0 +1,344 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.aspsp;
+
+import de.adorsys.psd2.consent.aspsp.api.ExportPage;
+import de.adorsys.psd2.consent.aspsp.api.InvalidExportParameterException;
+import de.adorsys.psd2.consent.aspsp.api.TooManyResultsException;
+import de.adorsys.psd2.consent.domain.AccountReferenceEntity;
+import de.adorsys.psd2.consent.domain.PsuData;
+import de.adorsys.psd2.consent.domain.TppInfoEntity;
+import de.adorsys.psd2.consent.domain.piis.PiisConsentEntity;
+import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import de.adorsys.psd2.xs2a.core.piis.PiisConsentTppAccessType;
+import de.adorsys.psd2.xs2a.core.tpp.TppRole;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs against in-memory H2 database, the number of executed statements is taken from Hibernate statistics.
+ */
+public class ExportQueryExecutorTest {
+    private static final String DB_URL = "jdbc:h2:mem:cms-export;DB_CLOSE_DELAY=-1";
+    private static final String INSTANCE_ID = "UNDEFINED";
+    private static final String OTHER_INSTANCE_ID = "other instance";
+    private static final int CONSENTS_COUNT = 5;
+    private static final int MAX_RESULTS = 5;
+    private static final int STREAM_PAGE_SIZE = 2;
+    private static final long STREAM_MAX_RESULTS = CONSENTS_COUNT + 1;
+    private static final Specification<PiisConsentEntity> BY_INSTANCE_ID =
+        (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("instanceId"), INSTANCE_ID);
+    private static final Specification<PiisConsentEntity> BY_OTHER_INSTANCE_ID =
+        (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("instanceId"), OTHER_INSTANCE_ID);
+    private static final Function<List<PiisConsentEntity>, List<String>> TO_PSU_IDS =
+        consents -> consents.stream()
+                        .map(c -> c.getPsuData().getPsuId())
+                        .collect(Collectors.toList());
+
+    private SessionFactory sessionFactory;
+    private ExportQueryExecutor exportQueryExecutor;
+
+    @Before
+    public void setUp() {
+        sessionFactory = new MetadataSources(new StandardServiceRegistryBuilder()
+                                                 .applySetting(AvailableSettings.URL, DB_URL)
+                                                 .applySetting(AvailableSettings.DIALECT, H2Dialect.class.getName())
+                                                 .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                                                 .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                                                 .applySetting(AvailableSettings.GENERATE_STATISTICS, true)
+                                                 .build())
+                             .addAnnotatedClass(PiisConsentEntity.class)
+                             .addAnnotatedClass(PsuData.class)
+                             .addAnnotatedClass(TppInfoEntity.class)
+                             .addAnnotatedClass(AccountReferenceEntity.class)
+                             .buildMetadata()
+                             .buildSessionFactory();
+        exportQueryExecutor = buildExportQueryExecutor(MAX_RESULTS);
+
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            for (int i = 0; i < CONSENTS_COUNT; i++) {
+                session.persist(buildPiisConsentEntity("psu " + i, INSTANCE_ID));
+            }
+            session.persist(buildPiisConsentEntity("psu of other instance", OTHER_INSTANCE_ID));
+            session.getTransaction().commit();
+        }
+        sessionFactory.getStatistics().clear();
+    }
+
+    @After
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    public void findAll_withinLimit_shouldReturnAllOrderedById() {
+        // When
+        List<String> actual = exportQueryExecutor.findAll(PiisConsentEntity.class, BY_INSTANCE_ID, TO_PSU_IDS);
+
+        // Then
+        assertEquals(expectedPsuIds(), actual);
+        // ID query and one entity query per chunk of 2, associations are fetched by join
+        assertEquals(1 + 3, sessionFactory.getStatistics().getPrepareStatementCount());
+    }
+
+    @Test(expected = TooManyResultsException.class)
+    public void findAll_overLimit_shouldThrowTooManyResultsException() {
+        // Given
+        exportQueryExecutor = buildExportQueryExecutor(CONSENTS_COUNT - 1);
+
+        // When
+        exportQueryExecutor.findAll(PiisConsentEntity.class, BY_INSTANCE_ID, TO_PSU_IDS);
+    }
+
+    @Test
+    public void findPage_followingCursors_shouldReturnAllPages() {
+        // Given
+        List<String> actual = new ArrayList<>();
+        List<Boolean> hasNext = new ArrayList<>();
+        String cursor = null;
+
+        // When
+        do {
+            ExportPage<String> page = exportQueryExecutor.findPage(PiisConsentEntity.class, BY_INSTANCE_ID, cursor, 2, TO_PSU_IDS);
+            actual.addAll(page.getItems());
+            hasNext.add(page.hasNext());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Then
+        assertEquals(expectedPsuIds(), actual);
+        assertEquals(3, hasNext.size());
+    }
+
+    @Test
+    public void findPage_exactlyOnePage_shouldReturnNoNextCursor() {
+        // When
+        ExportPage<String> actual = exportQueryExecutor.findPage(PiisConsentEntity.class, BY_INSTANCE_ID, null, CONSENTS_COUNT, TO_PSU_IDS);
+
+        // Then
+        assertEquals(expectedPsuIds(), actual.getItems());
+        assertNull(actual.getNextCursor());
+    }
+
+    @Test(expected = TooManyResultsException.class)
+    public void findPage_pageSizeOverLimit_shouldThrowTooManyResultsException() {
+        exportQueryExecutor.findPage(PiisConsentEntity.class, BY_INSTANCE_ID, null, MAX_RESULTS + 1, TO_PSU_IDS);
+    }
+
+    @Test(expected = InvalidExportParameterException.class)
+    public void findPage_malformedCursor_shouldThrowInvalidExportParameterException() {
+        exportQueryExecutor.findPage(PiisConsentEntity.class, BY_INSTANCE_ID, "not a cursor", 2, TO_PSU_IDS);
+    }
+
+    @Test
+    public void stream_overLimit_shouldReadAllRecordsInPages() {
+        // Given
+        exportQueryExecutor = buildExportQueryExecutor(1);
+
+        // When
+        List<String> actual;
+        try (Stream<String> stream = exportQueryExecutor.stream(PiisConsentEntity.class, BY_INSTANCE_ID, TO_PSU_IDS)) {
+            // only the number of records is checked before the stream is consumed
+            assertEquals(1, sessionFactory.getStatistics().getPrepareStatementCount());
+            actual = stream.collect(Collectors.toList());
+        }
+
+        // Then
+        assertEquals(expectedPsuIds(), actual);
+        // count query, ID query and entity query for each of 3 pages
+        assertEquals(1 + 3 * 2, sessionFactory.getStatistics().getPrepareStatementCount());
+    }
+
+    @Test(expected = TooManyResultsException.class)
+    public void stream_overStreamLimit_shouldThrowTooManyResultsException() {
+        // Given
+        exportQueryExecutor = buildExportQueryExecutor(MAX_RESULTS, CONSENTS_COUNT - 1);
+
+        // When
+        exportQueryExecutor.stream(PiisConsentEntity.class, BY_INSTANCE_ID, TO_PSU_IDS);
+    }
+
+    @Test
+    public void findAll_withinCallerTransaction_shouldNotDetachCallerEntities() {
+        // Given
+        JpaTransactionManager transactionManager = new JpaTransactionManager(sessionFactory);
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(sessionFactory);
+
+        // When
+        Boolean callerEntityManaged = new TransactionTemplate(transactionManager).execute(status -> {
+            PiisConsentEntity callerEntity = entityManager.createQuery("select c from piis_consent c", PiisConsentEntity.class)
+                                                 .setMaxResults(1)
+                                                 .getSingleResult();
+            exportQueryExecutor.findAll(PiisConsentEntity.class, BY_INSTANCE_ID, TO_PSU_IDS);
+            return entityManager.contains(callerEntity);
+        });
+
+        // Then
+        assertTrue(callerEntityManaged);
+    }
+
+    @Test
+    public void stream_noMatchingRecords_shouldReturnEmptyStream() {
+        // Given
+        Specification<PiisConsentEntity> nothing = (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("instanceId"), "unknown");
+
+        // When
+        List<String> actual = exportQueryExecutor.stream(PiisConsentEntity.class, nothing, TO_PSU_IDS)
+                                  .collect(Collectors.toList());
+
+        // Then
+        assertEquals(Collections.emptyList(), actual);
+    }
+
+    @Test
+    public void findAll_multipleSources_shouldReturnSourcesInOrder() {
+        // Given
+        exportQueryExecutor = buildExportQueryExecutor(CONSENTS_COUNT + 1);
+
+        // When
+        List<String> actual = exportQueryExecutor.findAll(twoSources());
+
+        // Then
+        assertEquals(expectedPsuIdsOfTwoSources(), actual);
+    }
+
+    @Test(expected = TooManyResultsException.class)
+    public void findAll_multipleSourcesOverLimit_shouldThrowTooManyResultsException() {
+        exportQueryExecutor.findAll(twoSources());
+    }
+
+    @Test
+    public void findPage_multipleSources_shouldContinueWithNextSource() {
+        // Given
+        List<String> actual = new ArrayList<>();
+        List<String> cursors = new ArrayList<>();
+        String cursor = null;
+
+        // When
+        do {
+            ExportPage<String> page = exportQueryExecutor.findPage(twoSources(), cursor, 2);
+            actual.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            cursors.add(cursor);
+        } while (cursor != null);
+
+        // Then
+        assertEquals(expectedPsuIdsOfTwoSources(), actual);
+        assertEquals(3, cursors.size());
+    }
+
+    @Test
+    public void findPage_multipleSourcesFirstSourceExhausted_shouldPointToNextSource() {
+        // When
+        ExportPage<String> firstPage = exportQueryExecutor.findPage(twoSources(), null, CONSENTS_COUNT);
+        ExportPage<String> secondPage = exportQueryExecutor.findPage(twoSources(), firstPage.getNextCursor(), CONSENTS_COUNT);
+
+        // Then
+        assertEquals(expectedPsuIds(), firstPage.getItems());
+        assertNotNull(firstPage.getNextCursor());
+        assertEquals(Collections.singletonList("psu of other instance"), secondPage.getItems());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    @Test
+    public void stream_multipleSources_shouldConcatenateSources() {
+        // Given
+        exportQueryExecutor = buildExportQueryExecutor(1);
+
+        // When
+        List<String> actual;
+        try (Stream<String> stream = exportQueryExecutor.stream(twoSources())) {
+            actual = stream.collect(Collectors.toList());
+        }
+
+        // Then
+        assertEquals(expectedPsuIdsOfTwoSources(), actual);
+    }
+
+    private List<ExportSource<?, String>> twoSources() {
+        return Arrays.asList(new ExportSource<>(PiisConsentEntity.class, BY_INSTANCE_ID, TO_PSU_IDS),
+                             new ExportSource<>(PiisConsentEntity.class, BY_OTHER_INSTANCE_ID, TO_PSU_IDS));
+    }
+
+    private List<String> expectedPsuIdsOfTwoSources() {
+        List<String> psuIds = expectedPsuIds();
+        psuIds.add("psu of other instance");
+        return psuIds;
+    }
+
+    private ExportQueryExecutor buildExportQueryExecutor(int maxResults) {
+        return buildExportQueryExecutor(maxResults, STREAM_MAX_RESULTS);
+    }
+
+    private ExportQueryExecutor buildExportQueryExecutor(int maxResults, long streamMaxResults) {
+        return new ExportQueryExecutor(SharedEntityManagerCreator.createSharedEntityManager(sessionFactory),
+                                       new JpaTransactionManager(sessionFactory), maxResults, STREAM_PAGE_SIZE, streamMaxResults);
+    }
+
+    private List<String> expectedPsuIds() {
+        List<String> psuIds = new ArrayList<>();
+        for (int i = 0; i < CONSENTS_COUNT; i++) {
+            psuIds.add("psu " + i);
+        }
+        return psuIds;
+    }
+
+    private PiisConsentEntity buildPiisConsentEntity(String psuId, String instanceId) {
+        TppInfoEntity tppInfo = new TppInfoEntity();
+        tppInfo.setAuthorisationNumber("authorisation number");
+        tppInfo.setAuthorityId("authority id");
+        tppInfo.setTppRoles(Collections.singletonList(TppRole.PIISP));
+
+        AccountReferenceEntity account = new AccountReferenceEntity();
+        account.setAspspAccountId("aspsp account id");
+
+        PiisConsentEntity consent = new PiisConsentEntity();
+        consent.setExternalId(psuId);
+        consent.setInstanceId(instanceId);
+        consent.setRequestDateTime(OffsetDateTime.now());
+        consent.setConsentStatus(ConsentStatus.VALID);
+        consent.setTppAccessType(PiisConsentTppAccessType.ALL_TPP);
+        consent.setPsuData(new PsuData(psuId, null, null, null));
+        consent.setTppInfo(tppInfo);
+        consent.setAccount(account);
+        return consent;
+    }
+}
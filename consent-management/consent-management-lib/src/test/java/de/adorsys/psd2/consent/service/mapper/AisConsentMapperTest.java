@@ -49,7 +49,7 @@ import java.util.*;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @RunWith(MockitoJUnitRunner.class)
 public class AisConsentMapperTest {
@@ -103,6 +103,24 @@ public class AisConsentMapperTest {
         assertEquals(aisConsent.getStatusChangeTimestamp(), result.getStatusChangeTimestamp());
     }
 
+    @Test
+    public void mapToAisAccountConsentList_shouldReadUsagesOfAllConsentsAtOnce() {
+        // Given
+        AisConsent aisConsent = buildAisConsent();
+        aisConsent.setId(1L);
+        List<AisConsent> aisConsents = Collections.singletonList(aisConsent);
+        AisAccountAccess expectedAccess = buildAisAccountAccessAccountsWithResourceId();
+        when(aisConsentUsageService.getUsageCounterMaps(aisConsents)).thenReturn(Collections.singletonMap(1L, USAGE_COUNTER));
+
+        // When
+        List<AisAccountConsent> result = aisConsentMapper.mapToAisAccountConsentList(aisConsents);
+
+        // Then
+        assertEquals(1, result.size());
+        assertConsentsEquals(expectedAccess, aisConsent, result.get(0));
+        verify(aisConsentUsageService, never()).getUsageCounterMap(any());
+    }
+
     @Test
     public void mapToAisAccountConsent() {
         // Given
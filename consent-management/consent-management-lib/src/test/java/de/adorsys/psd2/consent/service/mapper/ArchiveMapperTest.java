@@ -0,0 +1,239 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.adorsys.psd2.consent.api.ais.AisAccountConsent;
+import de.adorsys.psd2.consent.api.pis.*;
+import de.adorsys.psd2.consent.domain.PsuData;
+import de.adorsys.psd2.consent.domain.TppInfoEntity;
+import de.adorsys.psd2.consent.domain.account.AisConsent;
+import de.adorsys.psd2.consent.domain.account.AisConsentArchive;
+import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentArchive;
+import de.adorsys.psd2.consent.domain.payment.PisCommonPaymentData;
+import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import de.adorsys.psd2.xs2a.core.pis.PisExecutionRule;
+import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
+import de.adorsys.psd2.xs2a.core.profile.PaymentType;
+import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class ArchiveMapperTest {
+    private static final String PAYMENT_ID = "payment id";
+    private static final String CONSENT_ID = "consent id";
+    private static final String PAYMENT_PRODUCT = "sepa-credit-transfers";
+    private static final String INSTANCE_ID = "UNDEFINED";
+    private static final String TPP_AUTHORISATION_NUMBER = "authorisation number";
+    private static final String ASPSP_ACCOUNT_ID = "aspsp account id";
+    private static final PsuIdData PSU_ID_DATA = new PsuIdData("psu id", null, null, null);
+    private static final OffsetDateTime CREATION_TIMESTAMP = OffsetDateTime.of(2019, 1, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime ARCHIVE_TIMESTAMP = OffsetDateTime.of(2019, 6, 1, 2, 0, 0, 0, ZoneOffset.UTC);
+
+    private ArchiveMapper archiveMapper;
+
+    @Before
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        archiveMapper = new ArchiveMapper(objectMapper);
+    }
+
+    @Test
+    public void mapToPisCommonPaymentArchive_singlePayment_shouldBeReadBack() {
+        // Given
+        CmsSinglePayment payment = buildSinglePayment(new CmsSinglePayment(PAYMENT_PRODUCT));
+
+        // When
+        PisCommonPaymentArchive archive = archiveMapper.mapToPisCommonPaymentArchive(buildPisCommonPaymentData(), payment, ARCHIVE_TIMESTAMP);
+        Optional<CmsPayment> actual = archiveMapper.mapToCmsPayment(archive);
+
+        // Then
+        assertEquals(PAYMENT_ID, archive.getPaymentId());
+        assertEquals(TPP_AUTHORISATION_NUMBER, archive.getTppAuthorisationNumber());
+        assertEquals(ASPSP_ACCOUNT_ID, archive.getAspspAccountId());
+        assertEquals("psu id", archive.getPsuDataList().get(0).getPsuId());
+        assertEquals(ARCHIVE_TIMESTAMP, archive.getArchiveTimestamp());
+        assertTrue(actual.isPresent());
+        assertEquals(payment, actual.get());
+        assertEquals(PAYMENT_ID, actual.get().getPaymentId());
+        assertEquals(Collections.singletonList(PSU_ID_DATA), actual.get().getPsuIdDatas());
+    }
+
+    @Test
+    public void mapToPisCommonPaymentArchive_periodicPayment_shouldBeReadBack() {
+        // Given
+        CmsPeriodicPayment payment = buildSinglePayment(new CmsPeriodicPayment(PAYMENT_PRODUCT));
+        payment.setStartDate(LocalDate.of(2019, 2, 1));
+        payment.setEndDate(LocalDate.of(2020, 2, 1));
+        payment.setExecutionRule(PisExecutionRule.FOLLOWING);
+        payment.setFrequency(CmsFrequencyCode.MONTHLY);
+
+        // When
+        PisCommonPaymentArchive archive = archiveMapper.mapToPisCommonPaymentArchive(buildPisCommonPaymentData(), payment, ARCHIVE_TIMESTAMP);
+        Optional<CmsPayment> actual = archiveMapper.mapToCmsPayment(archive);
+
+        // Then
+        assertTrue(actual.isPresent());
+        assertEquals(payment, actual.get());
+        assertEquals(PaymentType.PERIODIC, actual.get().getPaymentType());
+    }
+
+    @Test
+    public void mapToPisCommonPaymentArchive_bulkPayment_shouldBeReadBack() {
+        // Given
+        CmsBulkPayment payment = new CmsBulkPayment();
+        payment.setPaymentId(PAYMENT_ID);
+        payment.setPaymentProduct(PAYMENT_PRODUCT);
+        payment.setBatchBookingPreferred(true);
+        payment.setPaymentStatus(TransactionStatus.ACSC);
+        payment.setPayments(Collections.singletonList(buildSinglePayment(new CmsSinglePayment(PAYMENT_PRODUCT))));
+
+        // When
+        PisCommonPaymentArchive archive = archiveMapper.mapToPisCommonPaymentArchive(buildPisCommonPaymentData(), payment, ARCHIVE_TIMESTAMP);
+        Optional<CmsPayment> actual = archiveMapper.mapToCmsPayment(archive);
+
+        // Then
+        assertTrue(actual.isPresent());
+        assertEquals(payment, actual.get());
+        assertEquals(PAYMENT_ID, actual.get().getPaymentId());
+    }
+
+    @Test
+    public void mapToPisCommonPaymentArchive_commonPayment_shouldBeReadBack() {
+        // Given
+        CmsCommonPayment payment = new CmsCommonPayment(PAYMENT_PRODUCT);
+        payment.setPaymentId(PAYMENT_ID);
+        payment.setPaymentType(PaymentType.SINGLE);
+        payment.setTransactionStatus(TransactionStatus.ACSC);
+        payment.setPaymentData("payment data".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        PisCommonPaymentArchive archive = archiveMapper.mapToPisCommonPaymentArchive(buildPisCommonPaymentData(), payment, ARCHIVE_TIMESTAMP);
+        Optional<CmsPayment> actual = archiveMapper.mapToCmsPayment(archive);
+
+        // Then
+        assertTrue(actual.isPresent());
+        assertEquals(payment, actual.get());
+    }
+
+    @Test
+    public void mapToCmsPayment_unknownPayloadType_shouldReturnEmpty() {
+        // Given
+        PisCommonPaymentArchive archive = archiveMapper.mapToPisCommonPaymentArchive(buildPisCommonPaymentData(),
+                                                                                     buildSinglePayment(new CmsSinglePayment(PAYMENT_PRODUCT)),
+                                                                                     ARCHIVE_TIMESTAMP);
+        archive.setPayloadType("java.lang.Object");
+
+        // When
+        Optional<CmsPayment> actual = archiveMapper.mapToCmsPayment(archive);
+
+        // Then
+        assertFalse(actual.isPresent());
+    }
+
+    @Test
+    public void mapToAisConsentArchive_shouldBeReadBack() {
+        // Given
+        AisAccountConsent accountConsent = new AisAccountConsent();
+        accountConsent.setId(CONSENT_ID);
+        accountConsent.setConsentStatus(ConsentStatus.EXPIRED);
+        accountConsent.setValidUntil(LocalDate.of(2019, 3, 1));
+        accountConsent.setFrequencyPerDay(4);
+        accountConsent.setPsuIdDataList(Collections.singletonList(PSU_ID_DATA));
+        accountConsent.setUsageCounterMap(Collections.singletonMap("/v1/accounts", 2));
+        accountConsent.setCreationTimestamp(CREATION_TIMESTAMP);
+
+        // When
+        AisConsentArchive archive = archiveMapper.mapToAisConsentArchive(buildAisConsent(), accountConsent, ARCHIVE_TIMESTAMP);
+        Optional<AisAccountConsent> actual = archiveMapper.mapToAisAccountConsent(archive);
+
+        // Then
+        assertEquals(CONSENT_ID, archive.getExternalId());
+        assertEquals(ConsentStatus.EXPIRED, archive.getConsentStatus());
+        assertEquals(TPP_AUTHORISATION_NUMBER, archive.getTppAuthorisationNumber());
+        assertTrue(archive.getAspspAccountIds().isEmpty());
+        assertTrue(actual.isPresent());
+        assertEquals(accountConsent, actual.get());
+    }
+
+    @Test
+    public void mapToAisAccountConsent_corruptedPayload_shouldReturnEmpty() {
+        // Given
+        AisConsentArchive archive = new AisConsentArchive();
+        archive.setPayload("{not json".getBytes(StandardCharsets.UTF_8));
+
+        // When
+        Optional<AisAccountConsent> actual = archiveMapper.mapToAisAccountConsent(archive);
+
+        // Then
+        assertFalse(actual.isPresent());
+    }
+
+    private <T extends CmsSinglePayment> T buildSinglePayment(T payment) {
+        payment.setPaymentId(PAYMENT_ID);
+        payment.setPsuIdDatas(Collections.singletonList(PSU_ID_DATA));
+        payment.setEndToEndIdentification("end to end id");
+        payment.setCreditorName("creditor");
+        payment.setPaymentStatus(TransactionStatus.ACSC);
+        payment.setRequestedExecutionDate(LocalDate.of(2019, 1, 2));
+        payment.setCreationTimestamp(CREATION_TIMESTAMP);
+        return payment;
+    }
+
+    private PisCommonPaymentData buildPisCommonPaymentData() {
+        PisCommonPaymentData paymentData = new PisCommonPaymentData();
+        paymentData.setId(1L);
+        paymentData.setPaymentId(PAYMENT_ID);
+        paymentData.setInstanceId(INSTANCE_ID);
+        paymentData.setPaymentType(PaymentType.SINGLE);
+        paymentData.setTransactionStatus(TransactionStatus.ACSC);
+        paymentData.setTppInfo(buildTppInfoEntity());
+        paymentData.setAspspAccountId(ASPSP_ACCOUNT_ID);
+        paymentData.setPsuDataList(Collections.singletonList(new PsuData("psu id", null, null, null)));
+        return paymentData;
+    }
+
+    private AisConsent buildAisConsent() {
+        AisConsent consent = new AisConsent();
+        consent.setId(2L);
+        consent.setExternalId(CONSENT_ID);
+        consent.setInstanceId(INSTANCE_ID);
+        consent.setConsentStatus(ConsentStatus.EXPIRED);
+        consent.setTppInfo(buildTppInfoEntity());
+        consent.setPsuDataList(Collections.singletonList(new PsuData("psu id", null, null, null)));
+        return consent;
+    }
+
+    private TppInfoEntity buildTppInfoEntity() {
+        TppInfoEntity tppInfo = new TppInfoEntity();
+        tppInfo.setAuthorisationNumber(TPP_AUTHORISATION_NUMBER);
+        return tppInfo;
+    }
+}
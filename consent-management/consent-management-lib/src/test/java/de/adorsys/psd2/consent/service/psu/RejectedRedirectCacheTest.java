@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.service.psu;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RejectedRedirectCacheTest {
+    private static final String REDIRECT_ID = "redirect id";
+    private static final String OTHER_REDIRECT_ID = "other redirect id";
+    private static final String INSTANCE_ID = "UNDEFINED";
+    private static final String OTHER_INSTANCE_ID = "other instance";
+
+    @Test
+    public void isRejected_notRejected() {
+        RejectedRedirectCache cache = new RejectedRedirectCache(60000, 10);
+
+        assertFalse(cache.isRejected(REDIRECT_ID, INSTANCE_ID));
+    }
+
+    @Test
+    public void isRejected_rejected() {
+        RejectedRedirectCache cache = new RejectedRedirectCache(60000, 10);
+
+        cache.reject(REDIRECT_ID, INSTANCE_ID);
+
+        assertTrue(cache.isRejected(REDIRECT_ID, INSTANCE_ID));
+        assertFalse(cache.isRejected(REDIRECT_ID, OTHER_INSTANCE_ID));
+        assertFalse(cache.isRejected(OTHER_REDIRECT_ID, INSTANCE_ID));
+    }
+
+    @Test
+    public void isRejected_entryExpired() throws InterruptedException {
+        RejectedRedirectCache cache = new RejectedRedirectCache(1, 10);
+
+        cache.reject(REDIRECT_ID, INSTANCE_ID);
+        Thread.sleep(5);
+
+        assertFalse(cache.isRejected(REDIRECT_ID, INSTANCE_ID));
+    }
+
+    @Test
+    public void reject_cacheDisabled() {
+        RejectedRedirectCache cache = new RejectedRedirectCache(0, 10);
+
+        cache.reject(REDIRECT_ID, INSTANCE_ID);
+
+        assertFalse(cache.isRejected(REDIRECT_ID, INSTANCE_ID));
+    }
+
+    @Test
+    public void reject_maxSizeReached() {
+        RejectedRedirectCache cache = new RejectedRedirectCache(60000, 1);
+
+        cache.reject(REDIRECT_ID, INSTANCE_ID);
+        cache.reject(OTHER_REDIRECT_ID, INSTANCE_ID);
+
+        assertFalse(cache.isRejected(REDIRECT_ID, INSTANCE_ID));
+        assertTrue(cache.isRejected(OTHER_REDIRECT_ID, INSTANCE_ID));
+    }
+}
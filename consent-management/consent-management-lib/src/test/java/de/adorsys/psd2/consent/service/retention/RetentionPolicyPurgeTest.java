@@ -0,0 +1,310 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.retention;
+
+import de.adorsys.psd2.consent.api.ActionStatus;
+import de.adorsys.psd2.consent.api.CmsAuthorisationType;
+import de.adorsys.psd2.consent.domain.AccountReferenceEntity;
+import de.adorsys.psd2.consent.domain.AspspConsentDataEntity;
+import de.adorsys.psd2.consent.domain.PsuData;
+import de.adorsys.psd2.consent.domain.ScaMethod;
+import de.adorsys.psd2.consent.domain.TppInfoEntity;
+import de.adorsys.psd2.consent.domain.account.*;
+import de.adorsys.psd2.consent.domain.payment.*;
+import de.adorsys.psd2.consent.domain.piis.PiisConsentEntity;
+import de.adorsys.psd2.consent.repository.AisConsentActionRepository;
+import de.adorsys.psd2.consent.repository.AisConsentUsageRepository;
+import de.adorsys.psd2.consent.repository.AspspConsentDataRepository;
+import de.adorsys.psd2.consent.repository.PisAuthorisationRepository;
+import de.adorsys.psd2.consent.repository.PsuDataRepository;
+import de.adorsys.psd2.xs2a.core.ais.AccountAccessType;
+import de.adorsys.psd2.xs2a.core.consent.AisConsentRequestType;
+import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import de.adorsys.psd2.xs2a.core.pis.TransactionStatus;
+import de.adorsys.psd2.xs2a.core.profile.PaymentType;
+import de.adorsys.psd2.xs2a.core.profile.ScaApproach;
+import de.adorsys.psd2.xs2a.core.sca.ScaStatus;
+import de.adorsys.psd2.xs2a.core.tpp.TppRole;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Runs the purge queries of the retention policies against in-memory H2 database, so that the bulk deletes are checked
+ * against the real schema constraints.
+ */
+public class RetentionPolicyPurgeTest {
+    private static final String DB_URL = "jdbc:h2:mem:cms-retention;DB_CLOSE_DELAY=-1";
+    private static final String INSTANCE_ID = "UNDEFINED";
+    private static final String FINISHED_CONSENT_ID = "finished consent";
+    private static final String VALID_CONSENT_ID = "valid consent";
+    private static final String FINISHED_PAYMENT_ID = "finished payment";
+    private static final String PENDING_PAYMENT_ID = "pending payment";
+    private static final String ARCHIVED_CONSENT_ID = "archived consent";
+    private static final int RETENTION_DAYS = 30;
+    private static final OffsetDateTime OLD_TIMESTAMP = OffsetDateTime.now().minusYears(1);
+    private static final OffsetDateTime PURGE_BEFORE = OffsetDateTime.now().minusDays(RETENTION_DAYS);
+    private static final int BATCH_SIZE = 10;
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private JpaRepositoryFactory repositoryFactory;
+
+    @Before
+    public void setUp() {
+        sessionFactory = new MetadataSources(new StandardServiceRegistryBuilder()
+                                                 .applySetting(AvailableSettings.URL, DB_URL)
+                                                 .applySetting(AvailableSettings.DIALECT, H2Dialect.class.getName())
+                                                 .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                                                 .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                                                 .build())
+                             .addAnnotatedClass(AisConsent.class)
+                             .addAnnotatedClass(AisConsentUsage.class)
+                             .addAnnotatedClass(AisConsentAuthorization.class)
+                             .addAnnotatedClass(AisConsentAction.class)
+                             .addAnnotatedClass(AisConsentArchive.class)
+                             .addAnnotatedClass(PisCommonPaymentData.class)
+                             .addAnnotatedClass(PisCommonPaymentPayload.class)
+                             .addAnnotatedClass(PisPaymentData.class)
+                             .addAnnotatedClass(PisAuthorization.class)
+                             .addAnnotatedClass(PisAddress.class)
+                             .addAnnotatedClass(PisRemittance.class)
+                             .addAnnotatedClass(PisCommonPaymentArchive.class)
+                             .addAnnotatedClass(AspspConsentDataEntity.class)
+                             .addAnnotatedClass(PiisConsentEntity.class)
+                             .addAnnotatedClass(PsuData.class)
+                             .addAnnotatedClass(TppInfoEntity.class)
+                             .addAnnotatedClass(AccountReferenceEntity.class)
+                             .buildMetadata()
+                             .buildSessionFactory();
+
+        entityManager = sessionFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+
+        AisConsent finishedConsent = buildAisConsent(FINISHED_CONSENT_ID, ConsentStatus.EXPIRED);
+        entityManager.persist(finishedConsent);
+        entityManager.persist(buildAisConsent(VALID_CONSENT_ID, ConsentStatus.VALID));
+        entityManager.persist(buildAisConsentArchive());
+        entityManager.persist(buildPisCommonPaymentData(FINISHED_PAYMENT_ID, TransactionStatus.ACSC));
+        entityManager.persist(buildPisCommonPaymentData(PENDING_PAYMENT_ID, TransactionStatus.RCVD));
+
+        entityManager.persist(buildAisConsentAction(LocalDate.now().minusDays(RETENTION_DAYS + 1)));
+        entityManager.persist(buildAisConsentAction(LocalDate.now()));
+
+        AisConsentUsage oldUsage = new AisConsentUsage(finishedConsent, "/v1/accounts");
+        oldUsage.setUsageDate(LocalDate.now().minusDays(RETENTION_DAYS + 1));
+        entityManager.persist(oldUsage);
+        entityManager.persist(new AisConsentUsage(finishedConsent, "/v1/accounts"));
+
+        for (String consentId : new String[]{FINISHED_CONSENT_ID, VALID_CONSENT_ID, ARCHIVED_CONSENT_ID, FINISHED_PAYMENT_ID, PENDING_PAYMENT_ID}) {
+            AspspConsentDataEntity aspspConsentData = new AspspConsentDataEntity(consentId);
+            aspspConsentData.setData(new byte[]{1});
+            entityManager.persist(aspspConsentData);
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        repositoryFactory = new JpaRepositoryFactory(entityManager);
+    }
+
+    @After
+    public void tearDown() {
+        entityManager.getTransaction().rollback();
+        entityManager.close();
+        sessionFactory.close();
+    }
+
+    @Test
+    public void aisConsentAction_shouldPurgeOldActions() {
+        // Given
+        RetentionPolicy policy = new AisConsentActionRetentionPolicy(repositoryFactory.getRepository(AisConsentActionRepository.class), RETENTION_DAYS);
+
+        // When
+        long expired = policy.countExpired(PURGE_BEFORE);
+        int purged = policy.purgeExpired(PURGE_BEFORE, BATCH_SIZE);
+
+        // Then
+        assertEquals(1, expired);
+        assertEquals(1, purged);
+        assertEquals(1, count("ais_consent_action"));
+    }
+
+    @Test
+    public void aisConsentUsage_shouldPurgeOldUsages() {
+        // Given
+        RetentionPolicy policy = new AisConsentUsageRetentionPolicy(repositoryFactory.getRepository(AisConsentUsageRepository.class), RETENTION_DAYS);
+
+        // When
+        long expired = policy.countExpired(PURGE_BEFORE);
+        int purged = policy.purgeExpired(PURGE_BEFORE, BATCH_SIZE);
+
+        // Then
+        assertEquals(1, expired);
+        assertEquals(1, purged);
+        assertEquals(1, count("ais_consent_usage"));
+    }
+
+    @Test
+    public void aspspConsentData_shouldPurgeDataOfFinishedAndArchivedConsentsAndPayments() {
+        // Given
+        RetentionPolicy policy = new AspspConsentDataRetentionPolicy(repositoryFactory.getRepository(AspspConsentDataRepository.class), RETENTION_DAYS);
+
+        // When
+        long expired = policy.countExpired(PURGE_BEFORE);
+        int purged = policy.purgeExpired(PURGE_BEFORE, BATCH_SIZE);
+
+        // Then
+        assertEquals(3, expired);
+        assertEquals(3, purged);
+        assertEquals(Long.valueOf(2), entityManager.createQuery("select count(d) from aspsp_consent_data d where d.consentId in :ids", Long.class)
+                                          .setParameter("ids", Arrays.asList(VALID_CONSENT_ID, PENDING_PAYMENT_ID))
+                                          .getSingleResult());
+    }
+
+    @Test
+    public void pisAuthorisation_shouldPurgeAuthorisationsOfFinishedPayments() {
+        // Given
+        RetentionPolicy policy = new PisAuthorisationRetentionPolicy(repositoryFactory.getRepository(PisAuthorisationRepository.class),
+                                                                     repositoryFactory.getRepository(PsuDataRepository.class), RETENTION_DAYS);
+
+        // When
+        long expired = policy.countExpired(PURGE_BEFORE);
+        int purged = policy.purgeExpired(PURGE_BEFORE, BATCH_SIZE);
+
+        // Then
+        assertEquals(2, expired);
+        assertEquals(2, purged);
+        assertEquals(2, count("pis_consent_authorization"));
+        assertEquals(2, count("pis_common_payment"));
+        // PSU data of the cancellation authorisation is removed, PSU data shared with the payment is kept
+        assertEquals(3, count("psu_data"));
+    }
+
+    @Test
+    public void purge_batchSize_shouldLimitPurgedRecords() {
+        // Given
+        RetentionPolicy policy = new AspspConsentDataRetentionPolicy(repositoryFactory.getRepository(AspspConsentDataRepository.class), RETENTION_DAYS);
+
+        // When
+        int purged = policy.purgeExpired(PURGE_BEFORE, 2);
+
+        // Then
+        assertEquals(2, purged);
+        assertEquals(1, policy.countExpired(PURGE_BEFORE));
+    }
+
+    private long count(String entityName) {
+        return entityManager.createQuery("select count(e) from " + entityName + " e", Long.class)
+                   .getSingleResult();
+    }
+
+    private AisConsentAction buildAisConsentAction(LocalDate requestDate) {
+        AisConsentAction action = new AisConsentAction();
+        action.setRequestDate(requestDate);
+        action.setTppId("tpp id");
+        action.setActionStatus(ActionStatus.SUCCESS);
+        action.setRequestedConsentId(FINISHED_CONSENT_ID);
+        return action;
+    }
+
+    private AisConsentArchive buildAisConsentArchive() {
+        AisConsentArchive archive = new AisConsentArchive();
+        archive.setId(1000L);
+        archive.setExternalId(ARCHIVED_CONSENT_ID);
+        archive.setInstanceId(INSTANCE_ID);
+        archive.setConsentStatus(ConsentStatus.EXPIRED);
+        archive.setCreationTimestamp(OLD_TIMESTAMP);
+        archive.setArchiveTimestamp(OffsetDateTime.now());
+        archive.setPayload(new byte[]{1});
+        return archive;
+    }
+
+    private AisConsent buildAisConsent(String consentId, ConsentStatus consentStatus) {
+        AisConsent consent = new AisConsent();
+        consent.setExternalId(consentId);
+        consent.setInstanceId(INSTANCE_ID);
+        consent.setRecurringIndicator(true);
+        consent.setRequestDateTime(LocalDateTime.now());
+        consent.setExpireDate(LocalDate.now().plusDays(1));
+        consent.setConsentStatus(consentStatus);
+        consent.setStatusChangeTimestamp(OLD_TIMESTAMP);
+        consent.setAllowedFrequencyPerDay(4);
+        consent.setTppFrequencyPerDay(4);
+        consent.setAisConsentRequestType(AisConsentRequestType.DEDICATED_ACCOUNTS);
+        consent.setAvailableAccounts(AccountAccessType.ALL_ACCOUNTS);
+        consent.setTppInfo(buildTppInfo());
+        return consent;
+    }
+
+    private PisCommonPaymentData buildPisCommonPaymentData(String paymentId, TransactionStatus transactionStatus) {
+        PisCommonPaymentData commonPayment = new PisCommonPaymentData();
+        commonPayment.setPaymentId(paymentId);
+        commonPayment.setInstanceId(INSTANCE_ID);
+        commonPayment.setPaymentType(PaymentType.SINGLE);
+        commonPayment.setPaymentProduct("sepa-credit-transfers");
+        commonPayment.setTransactionStatus(transactionStatus);
+        commonPayment.setStatusChangeTimestamp(OLD_TIMESTAMP);
+        commonPayment.setTppInfo(buildTppInfo());
+        PsuData psuData = new PsuData("psu", null, null, null);
+        commonPayment.getPsuDataList().add(psuData);
+
+        PisAuthorization authorisation = new PisAuthorization();
+        authorisation.setExternalId("authorisation of " + paymentId);
+        authorisation.setScaStatus(ScaStatus.FINALISED);
+        authorisation.setScaApproach(ScaApproach.EMBEDDED);
+        authorisation.setAuthorizationType(CmsAuthorisationType.CREATED);
+        authorisation.setPsuData(psuData);
+        ScaMethod scaMethod = new ScaMethod();
+        scaMethod.setAuthenticationMethodId("sms");
+        authorisation.getAvailableScaMethods().add(scaMethod);
+        authorisation.setPaymentData(commonPayment);
+        commonPayment.getAuthorizations().add(authorisation);
+
+        PisAuthorization cancellationAuthorisation = new PisAuthorization();
+        cancellationAuthorisation.setExternalId("cancellation authorisation of " + paymentId);
+        cancellationAuthorisation.setScaStatus(ScaStatus.FINALISED);
+        cancellationAuthorisation.setScaApproach(ScaApproach.REDIRECT);
+        cancellationAuthorisation.setAuthorizationType(CmsAuthorisationType.CANCELLED);
+        cancellationAuthorisation.setPsuData(new PsuData("cancelling psu", null, null, null));
+        cancellationAuthorisation.setPaymentData(commonPayment);
+        commonPayment.getAuthorizations().add(cancellationAuthorisation);
+        return commonPayment;
+    }
+
+    private TppInfoEntity buildTppInfo() {
+        TppInfoEntity tppInfo = new TppInfoEntity();
+        tppInfo.setAuthorisationNumber("authorisation number");
+        tppInfo.setAuthorityId("authority id");
+        tppInfo.setTppRoles(Collections.singletonList(TppRole.AISP));
+        return tppInfo;
+    }
+}
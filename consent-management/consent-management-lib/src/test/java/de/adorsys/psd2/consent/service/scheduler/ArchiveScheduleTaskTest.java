@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.scheduler;
+
+import de.adorsys.psd2.consent.service.archive.ArchiveService;
+import de.adorsys.psd2.consent.service.archive.ArchiveStatistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.OffsetDateTime;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ArchiveScheduleTaskTest {
+    private static final int MIN_AGE_DAYS = 90;
+    private static final int BATCH_SIZE = 2;
+    private static final int MAX_BATCHES_PER_RUN = 3;
+
+    @Mock
+    private ArchiveService archiveService;
+
+    private ArchiveStatistics archiveStatistics;
+
+    @Before
+    public void setUp() {
+        archiveStatistics = new ArchiveStatistics();
+    }
+
+    @Test
+    public void archive_disabled_shouldNotArchive() {
+        // When
+        buildTask(false).archiveFinalisedConsentsAndPayments();
+
+        // Then
+        verifyZeroInteractions(archiveService);
+        assertNull(archiveStatistics.getLastRunFinish());
+    }
+
+    @Test
+    public void archive_shouldArchiveBatchesUntilLastIncompleteBatch() {
+        // Given
+        when(archiveService.archiveAisConsents(any(OffsetDateTime.class), eq(BATCH_SIZE))).thenReturn(2, 1);
+        when(archiveService.archivePayments(any(OffsetDateTime.class), eq(BATCH_SIZE))).thenReturn(0);
+
+        // When
+        buildTask(true).archiveFinalisedConsentsAndPayments();
+
+        // Then
+        verify(archiveService, times(2)).archiveAisConsents(any(OffsetDateTime.class), eq(BATCH_SIZE));
+        verify(archiveService, times(1)).archivePayments(any(OffsetDateTime.class), eq(BATCH_SIZE));
+        assertEquals(3, archiveStatistics.getArchivedAisConsents());
+        assertEquals(0, archiveStatistics.getArchivedPayments());
+        assertTrue(archiveStatistics.isLastRunComplete());
+        assertNotNull(archiveStatistics.getLastRunFinish());
+    }
+
+    @Test
+    public void archive_maxBatchesReached_shouldStopAndReportIncompleteRun() {
+        // Given
+        when(archiveService.archiveAisConsents(any(OffsetDateTime.class), eq(BATCH_SIZE))).thenReturn(BATCH_SIZE);
+        when(archiveService.archivePayments(any(OffsetDateTime.class), eq(BATCH_SIZE))).thenReturn(0);
+
+        // When
+        buildTask(true).archiveFinalisedConsentsAndPayments();
+
+        // Then
+        verify(archiveService, times(MAX_BATCHES_PER_RUN)).archiveAisConsents(any(OffsetDateTime.class), eq(BATCH_SIZE));
+        assertEquals(MAX_BATCHES_PER_RUN * BATCH_SIZE, archiveStatistics.getArchivedAisConsents());
+        assertFalse(archiveStatistics.isLastRunComplete());
+    }
+
+    @Test
+    public void archive_failedBatch_shouldContinueWithPayments() {
+        // Given
+        when(archiveService.archiveAisConsents(any(OffsetDateTime.class), eq(BATCH_SIZE))).thenThrow(new IllegalStateException("broken consent"));
+        when(archiveService.archivePayments(any(OffsetDateTime.class), eq(BATCH_SIZE))).thenReturn(1);
+
+        // When
+        buildTask(true).archiveFinalisedConsentsAndPayments();
+
+        // Then
+        assertEquals(1, archiveStatistics.getFailedBatches());
+        assertEquals(1, archiveStatistics.getArchivedPayments());
+        assertFalse(archiveStatistics.isLastRunComplete());
+    }
+
+    private ArchiveScheduleTask buildTask(boolean enabled) {
+        return new ArchiveScheduleTask(archiveService, archiveStatistics, enabled, MIN_AGE_DAYS, BATCH_SIZE, MAX_BATCHES_PER_RUN);
+    }
+}
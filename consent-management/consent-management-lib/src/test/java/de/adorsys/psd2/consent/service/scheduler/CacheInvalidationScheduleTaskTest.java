@@ -0,0 +1,195 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.psd2.consent.service.scheduler;
+
+import de.adorsys.psd2.consent.domain.CacheRegion;
+import de.adorsys.psd2.consent.domain.CacheVersionEntity;
+import de.adorsys.psd2.consent.domain.CryptoAlgorithm;
+import de.adorsys.psd2.consent.repository.CacheVersionRepository;
+import de.adorsys.psd2.consent.service.CacheVersionService;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs against in-memory H2 database with Ehcache regions from cms-ehcache-test.xml, that expire after 1 second.
+ * Changes made by another CMS instance are simulated by updating the database directly over a separate connection.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class CacheInvalidationScheduleTaskTest {
+    private static final String DB_URL = "jdbc:h2:mem:cms-cache;DB_CLOSE_DELAY=-1";
+    private static final long TIME_TO_LIVE_MS = 1000;
+    private static final String OLD_PARAMS = "old params";
+    private static final String NEW_PARAMS = "new params";
+
+    @Mock
+    private CacheVersionRepository cacheVersionRepository;
+    @Mock
+    private CacheVersionService cacheVersionService;
+
+    private SessionFactory sessionFactory;
+    private CacheInvalidationScheduleTask cacheInvalidationScheduleTask;
+    private Long cryptoAlgorithmId;
+
+    @Before
+    public void setUp() {
+        sessionFactory = new MetadataSources(new StandardServiceRegistryBuilder()
+                                                 .applySetting(AvailableSettings.URL, DB_URL)
+                                                 .applySetting(AvailableSettings.DIALECT, H2Dialect.class.getName())
+                                                 .applySetting(AvailableSettings.HBM2DDL_AUTO, "create-drop")
+                                                 .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, true)
+                                                 .applySetting(AvailableSettings.USE_QUERY_CACHE, true)
+                                                 .applySetting(AvailableSettings.CACHE_REGION_FACTORY, "jcache")
+                                                 .applySetting("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider")
+                                                 .applySetting("hibernate.javax.cache.uri", "cms-ehcache-test.xml")
+                                                 .applySetting("hibernate.javax.cache.missing_cache_strategy", "fail")
+                                                 .build())
+                             .addAnnotatedClass(CryptoAlgorithm.class)
+                             .buildMetadata()
+                             .buildSessionFactory();
+        sessionFactory.getCache().evictAllRegions();
+        cacheInvalidationScheduleTask = new CacheInvalidationScheduleTask(cacheVersionRepository, cacheVersionService, sessionFactory);
+
+        cryptoAlgorithmId = saveCryptoAlgorithm();
+    }
+
+    @After
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Test
+    public void cachedEntity_changedInDatabase_isNotServedLongerThanTimeToLive() throws Exception {
+        // Given
+        assertEquals(OLD_PARAMS, loadEncryptorParams());
+        updateEncryptorParamsInDatabase(NEW_PARAMS);
+
+        // When
+        String paramsWithinTimeToLive = loadEncryptorParams();
+        Thread.sleep(TIME_TO_LIVE_MS + 200);
+        String paramsAfterTimeToLive = loadEncryptorParams();
+
+        // Then
+        assertEquals(OLD_PARAMS, paramsWithinTimeToLive);
+        assertEquals(NEW_PARAMS, paramsAfterTimeToLive);
+    }
+
+    @Test
+    public void evictChangedRegions_versionChanged_shouldEvictRegion() throws Exception {
+        // Given
+        when(cacheVersionService.isSecondLevelCacheEnabled()).thenReturn(true);
+        when(cacheVersionRepository.findAll())
+            .thenReturn(Collections.singletonList(buildCacheVersion(0)))
+            .thenReturn(Collections.singletonList(buildCacheVersion(1)));
+        cacheInvalidationScheduleTask.evictChangedRegions();
+
+        assertEquals(OLD_PARAMS, loadEncryptorParams());
+        updateEncryptorParamsInDatabase(NEW_PARAMS);
+
+        // When
+        cacheInvalidationScheduleTask.evictChangedRegions();
+
+        // Then
+        assertEquals(NEW_PARAMS, loadEncryptorParams());
+    }
+
+    @Test
+    public void evictChangedRegions_versionNotChanged_shouldKeepRegion() throws Exception {
+        // Given
+        when(cacheVersionService.isSecondLevelCacheEnabled()).thenReturn(true);
+        when(cacheVersionRepository.findAll())
+            .thenReturn(Collections.singletonList(buildCacheVersion(0)));
+        cacheInvalidationScheduleTask.evictChangedRegions();
+
+        assertEquals(OLD_PARAMS, loadEncryptorParams());
+        updateEncryptorParamsInDatabase(NEW_PARAMS);
+
+        // When
+        cacheInvalidationScheduleTask.evictChangedRegions();
+
+        // Then
+        assertEquals(OLD_PARAMS, loadEncryptorParams());
+    }
+
+    @Test
+    public void evictChangedRegions_secondLevelCacheDisabled_shouldNotPollVersions() {
+        // Given
+        when(cacheVersionService.isSecondLevelCacheEnabled()).thenReturn(false);
+
+        // When
+        cacheInvalidationScheduleTask.evictChangedRegions();
+
+        // Then
+        verify(cacheVersionRepository, never()).findAll();
+    }
+
+    private Long saveCryptoAlgorithm() {
+        CryptoAlgorithm cryptoAlgorithm = new CryptoAlgorithm();
+        cryptoAlgorithm.setCryptoProviderId("provider id");
+        cryptoAlgorithm.setAlgorithm("algorithm");
+        cryptoAlgorithm.setVersion("1");
+        cryptoAlgorithm.setSkfAlgorithm("skf algorithm");
+        cryptoAlgorithm.setEncryptorClass("encryptor class");
+        cryptoAlgorithm.setEncryptorParams(OLD_PARAMS);
+
+        try (Session session = sessionFactory.openSession()) {
+            session.beginTransaction();
+            session.persist(cryptoAlgorithm);
+            session.getTransaction().commit();
+        }
+        return cryptoAlgorithm.getId();
+    }
+
+    private String loadEncryptorParams() {
+        try (Session session = sessionFactory.openSession()) {
+            return session.get(CryptoAlgorithm.class, cryptoAlgorithmId).getEncryptorParams();
+        }
+    }
+
+    private void updateEncryptorParamsInDatabase(String encryptorParams) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(DB_URL);
+             PreparedStatement statement = connection.prepareStatement("update crypto_algorithm set encryptor_params = ? where algorithm_id = ?")) {
+            statement.setString(1, encryptorParams);
+            statement.setLong(2, cryptoAlgorithmId);
+            statement.executeUpdate();
+        }
+    }
+
+    private CacheVersionEntity buildCacheVersion(long version) {
+        CacheVersionEntity cacheVersion = new CacheVersionEntity();
+        cacheVersion.setRegion(CacheRegion.CRYPTO_ALGORITHM);
+        cacheVersion.setVersion(version);
+        return cacheVersion;
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.scheduler;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class EventPartitionScheduleTaskTest {
+    private static final LocalDate CURRENT_MONTH = LocalDate.now().withDayOfMonth(1);
+    private static final String SCHEMA = "consent";
+
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private Query partitionQuery;
+    @Mock
+    private Query countQuery;
+    @Mock
+    private Query ddlQuery;
+
+    private List<Object[]> partitions;
+
+    @Before
+    public void setUp() {
+        partitions = new ArrayList<>();
+        partitions.add(new Object[]{"event_default", "DEFAULT"});
+    }
+
+    @Test
+    public void maintainPartitions_tableNotPartitioned_shouldNotCreatePartitions() {
+        // Given
+        when(entityManager.createNativeQuery(startsWith("SELECT"))).thenReturn(partitionQuery);
+        when(partitionQuery.setParameter(anyString(), any())).thenReturn(partitionQuery);
+        when(partitionQuery.getResultList()).thenThrow(new PersistenceException("relation pg_inherits does not exist"));
+
+        // When
+        new EventPartitionScheduleTask(entityManager, transactionManager, 3, 6, SCHEMA).maintainPartitions();
+
+        // Then
+        verify(entityManager, times(1)).createNativeQuery(anyString());
+    }
+
+    @Test
+    public void maintainPartitions_shouldCreateMissingMonthsAfterLegacyPartition() {
+        // Given
+        partitions.add(partition("event_legacy", null, CURRENT_MONTH.plusMonths(1)));
+        partitions.add(partition(partitionName(CURRENT_MONTH.plusMonths(2)), CURRENT_MONTH.plusMonths(2), CURRENT_MONTH.plusMonths(3)));
+        mockPartitions();
+
+        // When
+        new EventPartitionScheduleTask(entityManager, transactionManager, 3, 0, SCHEMA).maintainPartitions();
+
+        // Then
+        assertEquals(Arrays.asList(createStatement(CURRENT_MONTH.plusMonths(1)),
+                                   createStatement(CURRENT_MONTH.plusMonths(3))),
+                     executedStatements(2));
+        verify(partitionQuery).setParameter("parent", "consent.event");
+    }
+
+    @Test
+    public void maintainPartitions_withRetention_shouldDropOnlyFullyExpiredPartitions() {
+        // Given
+        partitions.add(partition("event_legacy", null, CURRENT_MONTH.minusMonths(9)));
+        partitions.add(partition(partitionName(CURRENT_MONTH.minusMonths(7)), CURRENT_MONTH.minusMonths(7), CURRENT_MONTH.minusMonths(6)));
+        partitions.add(partition(partitionName(CURRENT_MONTH.minusMonths(6)), CURRENT_MONTH.minusMonths(6), CURRENT_MONTH.minusMonths(5)));
+        for (int i = 0; i <= 3; i++) {
+            partitions.add(partition(partitionName(CURRENT_MONTH.plusMonths(i)), CURRENT_MONTH.plusMonths(i), CURRENT_MONTH.plusMonths(i + 1)));
+        }
+        mockPartitions();
+
+        // When
+        new EventPartitionScheduleTask(entityManager, transactionManager, 3, 6, SCHEMA).maintainPartitions();
+
+        // Then
+        assertEquals(Arrays.asList("DROP TABLE consent.event_legacy",
+                                   "DROP TABLE consent." + partitionName(CURRENT_MONTH.minusMonths(7))),
+                     executedStatements(2));
+    }
+
+    @Test
+    public void maintainPartitions_failedStatement_shouldContinueWithNextPartition() {
+        // Given
+        mockPartitions();
+        when(ddlQuery.executeUpdate())
+            .thenThrow(new PersistenceException("default partition contains rows of the month"))
+            .thenReturn(0);
+
+        // When
+        new EventPartitionScheduleTask(entityManager, transactionManager, 1, 0, "").maintainPartitions();
+
+        // Then
+        assertEquals(Arrays.asList("CREATE TABLE event" + suffix(CURRENT_MONTH) + " PARTITION OF event FOR VALUES FROM ('" + CURRENT_MONTH + "') TO ('" + CURRENT_MONTH.plusMonths(1) + "')",
+                                   "CREATE TABLE event" + suffix(CURRENT_MONTH.plusMonths(1)) + " PARTITION OF event FOR VALUES FROM ('" + CURRENT_MONTH.plusMonths(1) + "') TO ('" + CURRENT_MONTH.plusMonths(2) + "')"),
+                     executedStatements(2));
+    }
+
+    @Test
+    public void maintainPartitions_defaultPartitionWithEventsOfMonth_shouldMoveEventsToNewPartition() {
+        // Given
+        for (int i = 1; i <= 3; i++) {
+            partitions.add(partition(partitionName(CURRENT_MONTH.plusMonths(i)), CURRENT_MONTH.plusMonths(i), CURRENT_MONTH.plusMonths(i + 1)));
+        }
+        mockPartitions();
+        when(countQuery.getSingleResult()).thenReturn(BigInteger.valueOf(2));
+        String range = " WHERE \"timestamp\" >= '" + CURRENT_MONTH + "' AND \"timestamp\" < '" + CURRENT_MONTH.plusMonths(1) + "'";
+
+        // When
+        new EventPartitionScheduleTask(entityManager, transactionManager, 3, 0, SCHEMA).maintainPartitions();
+
+        // Then
+        verify(entityManager).createNativeQuery("SELECT COUNT(*) FROM consent.event_default" + range);
+        assertEquals(Arrays.asList("ALTER TABLE consent.event DETACH PARTITION consent.event_default",
+                                   createStatement(CURRENT_MONTH),
+                                   "INSERT INTO consent." + partitionName(CURRENT_MONTH) + " SELECT * FROM consent.event_default" + range,
+                                   "DELETE FROM consent.event_default" + range,
+                                   "ALTER TABLE consent.event ATTACH PARTITION consent.event_default DEFAULT"),
+                     executedStatements(5));
+    }
+
+    private void mockPartitions() {
+        when(entityManager.createNativeQuery(startsWith("SELECT"))).thenReturn(partitionQuery);
+        when(partitionQuery.setParameter(anyString(), any())).thenReturn(partitionQuery);
+        when(partitionQuery.getResultList()).thenReturn(partitions);
+        when(entityManager.createNativeQuery(startsWith("CREATE"))).thenReturn(ddlQuery);
+        when(entityManager.createNativeQuery(startsWith("DROP"))).thenReturn(ddlQuery);
+        lenient().when(entityManager.createNativeQuery(startsWith("SELECT COUNT"))).thenReturn(countQuery);
+        lenient().when(countQuery.getSingleResult()).thenReturn(BigInteger.ZERO);
+        lenient().when(entityManager.createNativeQuery(startsWith("ALTER"))).thenReturn(ddlQuery);
+        lenient().when(entityManager.createNativeQuery(startsWith("INSERT"))).thenReturn(ddlQuery);
+        lenient().when(entityManager.createNativeQuery(startsWith("DELETE"))).thenReturn(ddlQuery);
+    }
+
+    private List<String> executedStatements(int count) {
+        ArgumentCaptor<String> sqlCaptor = ArgumentCaptor.forClass(String.class);
+        verify(entityManager, atLeastOnce()).createNativeQuery(sqlCaptor.capture());
+        List<String> statements = sqlCaptor.getAllValues().stream()
+                                      .filter(sql -> !sql.startsWith("SELECT"))
+                                      .collect(Collectors.toList());
+        assertEquals(count, statements.size());
+        return statements;
+    }
+
+    private String createStatement(LocalDate month) {
+        return "CREATE TABLE consent." + partitionName(month) + " PARTITION OF consent.event FOR VALUES FROM ('" + month + "') TO ('" + month.plusMonths(1) + "')";
+    }
+
+    private Object[] partition(String name, LocalDate from, LocalDate to) {
+        String fromBound = from == null ? "MINVALUE" : "'" + from + " 00:00:00'";
+        return new Object[]{name, "FOR VALUES FROM (" + fromBound + ") TO ('" + to + " 00:00:00')"};
+    }
+
+    private String partitionName(LocalDate month) {
+        return "event" + suffix(month);
+    }
+
+    private String suffix(LocalDate month) {
+        return String.format("_y%dm%02d", month.getYear(), month.getMonthValue());
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service.scheduler;
+
+import de.adorsys.psd2.consent.service.retention.RetentionPolicy;
+import de.adorsys.psd2.consent.service.retention.RetentionStatistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class RetentionScheduleTaskTest {
+    private static final String ACTION_POLICY = "ais-consent-action";
+    private static final String USAGE_POLICY = "ais-consent-usage";
+    private static final int BATCH_SIZE = 2;
+    private static final int MAX_BATCHES_PER_RUN = 3;
+
+    @Mock
+    private RetentionPolicy actionPolicy;
+    @Mock
+    private RetentionPolicy usagePolicy;
+
+    private RetentionStatistics retentionStatistics;
+
+    @Before
+    public void setUp() {
+        retentionStatistics = new RetentionStatistics();
+        when(actionPolicy.getName()).thenReturn(ACTION_POLICY);
+        when(actionPolicy.getRetentionDays()).thenReturn(30);
+        when(usagePolicy.getRetentionDays()).thenReturn(0);
+    }
+
+    @Test
+    public void purge_disabled_shouldNotPurge() {
+        // When
+        buildTask(false, false).purgeExpiredRecords();
+
+        // Then
+        verify(actionPolicy, never()).purgeExpired(any(), anyInt());
+        assertNull(retentionStatistics.getLastRunFinish());
+    }
+
+    @Test
+    public void purge_dryRun_shouldOnlyCountRecords() {
+        // Given
+        when(actionPolicy.countExpired(any(OffsetDateTime.class))).thenReturn(5L);
+
+        // When
+        buildTask(true, true).purgeExpiredRecords();
+
+        // Then
+        verify(actionPolicy, never()).purgeExpired(any(), anyInt());
+        assertEquals(Collections.singletonMap(ACTION_POLICY, 5L), retentionStatistics.getLastRunReport());
+        assertTrue(retentionStatistics.isLastRunDryRun());
+        assertEquals(0, retentionStatistics.getPurgedRecords(ACTION_POLICY));
+    }
+
+    @Test
+    public void purge_shouldPurgeBatchesUntilLastIncompleteBatch() {
+        // Given
+        when(actionPolicy.purgeExpired(any(OffsetDateTime.class), eq(BATCH_SIZE))).thenReturn(2, 1);
+
+        // When
+        buildTask(true, false).purgeExpiredRecords();
+
+        // Then
+        verify(actionPolicy, times(2)).purgeExpired(any(OffsetDateTime.class), eq(BATCH_SIZE));
+        verify(usagePolicy, never()).purgeExpired(any(), anyInt());
+        assertEquals(Collections.singletonMap(ACTION_POLICY, 3L), retentionStatistics.getLastRunReport());
+        assertEquals(3, retentionStatistics.getPurgedRecords(ACTION_POLICY));
+        assertFalse(retentionStatistics.isLastRunDryRun());
+    }
+
+    @Test
+    public void purge_shouldUseRetentionPeriodOfPolicy() {
+        // Given
+        OffsetDateTime expectedPurgeBefore = OffsetDateTime.now().minusDays(30);
+
+        // When
+        buildTask(true, false).purgeExpiredRecords();
+
+        // Then
+        verify(actionPolicy).purgeExpired(argThat(purgeBefore -> !purgeBefore.isBefore(expectedPurgeBefore)
+                                                                     && purgeBefore.isBefore(expectedPurgeBefore.plusMinutes(1))),
+                                          eq(BATCH_SIZE));
+    }
+
+    @Test
+    public void purge_maxBatchesReached_shouldStop() {
+        // Given
+        when(actionPolicy.purgeExpired(any(OffsetDateTime.class), eq(BATCH_SIZE))).thenReturn(BATCH_SIZE);
+
+        // When
+        buildTask(true, false).purgeExpiredRecords();
+
+        // Then
+        verify(actionPolicy, times(MAX_BATCHES_PER_RUN)).purgeExpired(any(OffsetDateTime.class), eq(BATCH_SIZE));
+        assertEquals(MAX_BATCHES_PER_RUN * BATCH_SIZE, retentionStatistics.getPurgedRecords(ACTION_POLICY));
+    }
+
+    @Test
+    public void purge_failedBatch_shouldContinueWithNextPolicy() {
+        // Given
+        when(usagePolicy.getName()).thenReturn(USAGE_POLICY);
+        when(usagePolicy.getRetentionDays()).thenReturn(1);
+        when(actionPolicy.purgeExpired(any(OffsetDateTime.class), eq(BATCH_SIZE))).thenThrow(new IllegalStateException("lock timeout"));
+        when(usagePolicy.purgeExpired(any(OffsetDateTime.class), eq(BATCH_SIZE))).thenReturn(1);
+
+        // When
+        buildTask(true, false).purgeExpiredRecords();
+
+        // Then
+        assertEquals(1, retentionStatistics.getFailedBatches());
+        assertEquals(0L, (long) retentionStatistics.getLastRunReport().get(ACTION_POLICY));
+        assertEquals(1L, (long) retentionStatistics.getLastRunReport().get(USAGE_POLICY));
+    }
+
+    private RetentionScheduleTask buildTask(boolean enabled, boolean dryRun) {
+        return new RetentionScheduleTask(Arrays.asList(actionPolicy, usagePolicy), retentionStatistics,
+                                         enabled, dryRun, BATCH_SIZE, 0, MAX_BATCHES_PER_RUN);
+    }
+}
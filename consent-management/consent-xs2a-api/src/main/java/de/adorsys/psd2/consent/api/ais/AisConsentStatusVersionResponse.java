@@ -0,0 +1,38 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.consent.api.ais;
+
+import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import de.adorsys.psd2.xs2a.core.tpp.TppInfo;
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import lombok.Data;
+
+@Data
+@ApiModel(description = "Status and version of AIS consent", value = "AisConsentStatusVersion")
+public class AisConsentStatusVersionResponse {
+
+    @ApiModelProperty(value = "The following code values are permitted 'received', 'valid', 'rejected', 'expired', 'revoked by psu', 'terminated by tpp'.", required = true, example = "VALID")
+    private ConsentStatus consentStatus;
+
+    @ApiModelProperty(value = "Version of the consent, increased on every change of the consent", required = true, example = "3")
+    private long version;
+
+    @ApiModelProperty(value = "TPP of the consent, identified by authorisation number and authority ID only", required = true)
+    private TppInfo tppInfo;
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.api.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotencyReservation {
+    private IdempotencyStatus status;
+    /**
+     * Stored response, present only in {@link IdempotencyStatus#COMPLETED} status
+     */
+    private IdempotentResponse response;
+
+    public static IdempotencyReservation reserved() {
+        return new IdempotencyReservation(IdempotencyStatus.RESERVED, null);
+    }
+
+    public static IdempotencyReservation inProgress() {
+        return new IdempotencyReservation(IdempotencyStatus.IN_PROGRESS, null);
+    }
+
+    public static IdempotencyReservation completed(IdempotentResponse response) {
+        return new IdempotencyReservation(IdempotencyStatus.COMPLETED, response);
+    }
+}
@@ -19,6 +19,7 @@ package de.adorsys.psd2.consent.api.service;
 import de.adorsys.psd2.consent.api.ais.AisAccountAccessInfo;
 import de.adorsys.psd2.consent.api.ais.AisAccountConsent;
 import de.adorsys.psd2.consent.api.ais.AisConsentActionRequest;
+import de.adorsys.psd2.consent.api.ais.AisConsentStatusVersionResponse;
 import de.adorsys.psd2.consent.api.ais.CreateAisConsentRequest;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
 import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
@@ -51,6 +52,14 @@ interface AisConsentServiceBase {
      */
     Optional<ConsentStatus> getConsentStatusById(String consentId);
 
+    /**
+     * Reads status and version of consent by id without reading account accesses, PSU data and other parts of the consent
+     *
+     * @param consentId id of consent
+     * @return status, version and TPP of the consent
+     */
+    Optional<AisConsentStatusVersionResponse> getConsentStatusVersionById(String consentId);
+
     /**
      * Updates consent status by id
      *
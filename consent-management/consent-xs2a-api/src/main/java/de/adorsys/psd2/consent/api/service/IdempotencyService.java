@@ -0,0 +1,51 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.api.service;
+
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyKey;
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyReservation;
+import de.adorsys.psd2.consent.api.idempotency.IdempotentResponse;
+
+public interface IdempotencyService {
+
+    /**
+     * Reserves processing of the request for the caller, unless the same request is already being processed or has
+     * been processed before
+     *
+     * @param idempotencyKey key of the request
+     * @return RESERVED if the caller has to process the request, IN_PROGRESS if the request is being processed by
+     * another caller, COMPLETED with the stored response if the request has been already processed
+     */
+    IdempotencyReservation reserve(IdempotencyKey idempotencyKey);
+
+    /**
+     * Stores the response of the reserved request, so it is replayed to repeated requests until the record expires
+     *
+     * @param idempotencyKey key of the request
+     * @param response       response to be replayed
+     * @return <code>true</code> if the reservation was found and completed, <code>false</code> otherwise
+     */
+    boolean complete(IdempotencyKey idempotencyKey, IdempotentResponse response);
+
+    /**
+     * Removes the reservation of the request, that has not been processed successfully, so it can be repeated
+     *
+     * @param idempotencyKey key of the request
+     * @return <code>true</code> if the reservation was found and removed, <code>false</code> otherwise
+     */
+    boolean release(IdempotencyKey idempotencyKey);
+}
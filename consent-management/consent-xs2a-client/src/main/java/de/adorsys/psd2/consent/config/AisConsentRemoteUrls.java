@@ -60,6 +60,15 @@ public class AisConsentRemoteUrls {
         return consentServiceBaseUrl + "/ais/consent/{consent-id}/status";
     }
 
+    /**
+     * @return AisConsentStatusVersionResponse status, version and TPP of the consent
+     * Method: GET
+     * PathVariable: String consentId
+     */
+    public String getAisConsentStatusVersionById() {
+        return consentServiceBaseUrl + "/ais/consent/{consent-id}/status-version";
+    }
+
     /**
      * @return VOID
      * Method: PUT
@@ -36,6 +36,7 @@ public class ConsentRestConfig {
         RestTemplate rest = new RestTemplate(clientHttpRequestFactory());
         rest.getMessageConverters().removeIf(m -> m.getClass().isAssignableFrom(MappingJackson2XmlHttpMessageConverter.class));
         rest.setErrorHandler(new ConsentRestErrorHandler());
+        rest.getInterceptors().add(new RequestIdForwardingInterceptor());
         return rest;
     }
 
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.config;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+
+/**
+ * Forwards X-Request-ID of the current TPP request to CMS, so that CMS can serve the reads of the request from the
+ * database it has written to.
+ */
+public class RequestIdForwardingInterceptor implements ClientHttpRequestInterceptor {
+    private static final String X_REQUEST_ID_HEADER = "X-Request-ID";
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes instanceof ServletRequestAttributes && !request.getHeaders().containsKey(X_REQUEST_ID_HEADER)) {
+            String requestId = ((ServletRequestAttributes) requestAttributes).getRequest().getHeader(X_REQUEST_ID_HEADER);
+            if (requestId != null) {
+                request.getHeaders().set(X_REQUEST_ID_HEADER, requestId);
+            }
+        }
+        return execution.execute(request, body);
+    }
+}
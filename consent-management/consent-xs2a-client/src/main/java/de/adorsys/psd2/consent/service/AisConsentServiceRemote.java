@@ -55,6 +55,12 @@ public class AisConsentServiceRemote implements AisConsentServiceEncrypted {
         return Optional.ofNullable(response.getConsentStatus());
     }
 
+    @Override
+    public Optional<AisConsentStatusVersionResponse> getConsentStatusVersionById(String consentId) {
+        AisConsentStatusVersionResponse response = consentRestTemplate.getForEntity(remoteAisConsentUrls.getAisConsentStatusVersionById(), AisConsentStatusVersionResponse.class, consentId).getBody();
+        return Optional.ofNullable(response);
+    }
+
     @Override
     public boolean updateConsentStatusById(String consentId, ConsentStatus status) {
         try {
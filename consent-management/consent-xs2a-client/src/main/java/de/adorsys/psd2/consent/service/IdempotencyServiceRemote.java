@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.service;
+
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyKey;
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyReservation;
+import de.adorsys.psd2.consent.api.idempotency.IdempotentResponse;
+import de.adorsys.psd2.consent.api.service.IdempotencyService;
+import de.adorsys.psd2.consent.config.IdempotencyRemoteUrls;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+
+@Service
+@RequiredArgsConstructor
+public class IdempotencyServiceRemote implements IdempotencyService {
+    private static final String TPP_AUTHORISATION_NUMBER_HEADER = "tpp-authorisation-number";
+    private static final String X_REQUEST_ID_HEADER = "x-request-id";
+    private static final String BODY_DIGEST_HEADER = "body-digest";
+
+    @Qualifier("consentRestTemplate")
+    private final RestTemplate consentRestTemplate;
+    private final IdempotencyRemoteUrls idempotencyRemoteUrls;
+
+    @Override
+    public IdempotencyReservation reserve(IdempotencyKey idempotencyKey) {
+        return consentRestTemplate.exchange(idempotencyRemoteUrls.idempotentRequest(), HttpMethod.POST, new HttpEntity<>(buildHeaders(idempotencyKey)), IdempotencyReservation.class)
+                   .getBody();
+    }
+
+    @Override
+    public boolean complete(IdempotencyKey idempotencyKey, IdempotentResponse response) {
+        return consentRestTemplate.exchange(idempotencyRemoteUrls.idempotentRequest(), HttpMethod.PUT, new HttpEntity<>(response, buildHeaders(idempotencyKey)), Boolean.class)
+                   .getBody();
+    }
+
+    @Override
+    public boolean release(IdempotencyKey idempotencyKey) {
+        return consentRestTemplate.exchange(idempotencyRemoteUrls.idempotentRequest(), HttpMethod.DELETE, new HttpEntity<>(buildHeaders(idempotencyKey)), Boolean.class)
+                   .getBody();
+    }
+
+    private MultiValueMap<String, String> buildHeaders(IdempotencyKey idempotencyKey) {
+        MultiValueMap<String, String> headers = new LinkedMultiValueMap<>();
+        headers.add(HttpHeaders.ACCEPT, MediaType.ALL_VALUE);
+        headers.add(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+        headers.add(TPP_AUTHORISATION_NUMBER_HEADER, idempotencyKey.getTppId());
+        headers.add(X_REQUEST_ID_HEADER, idempotencyKey.getXRequestId());
+        headers.add(BODY_DIGEST_HEADER, idempotencyKey.getBodyDigest());
+        return headers;
+    }
+}
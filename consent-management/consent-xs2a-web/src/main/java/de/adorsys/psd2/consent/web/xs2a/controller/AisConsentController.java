@@ -113,6 +113,19 @@ public class AisConsentController {
                    .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    @GetMapping(path = "/{consent-id}/status-version")
+    @ApiOperation(value = "Gets status, version and TPP of the account information consent resource without reading the whole consent.")
+    @ApiResponses(value = {
+        @ApiResponse(code = 200, message = "OK", response = AisConsentStatusVersionResponse.class),
+        @ApiResponse(code = 404, message = "Not Found")})
+    public ResponseEntity<AisConsentStatusVersionResponse> getConsentStatusVersionById(
+        @ApiParam(name = "consent-id", value = "The account consent identification assigned to the created account consent.", example = "bf489af6-a2cb-4b75-b71d-d66d58b934d7")
+        @PathVariable("consent-id") String consentId) {
+        return aisConsentService.getConsentStatusVersionById(consentId)
+                   .map(statusVersion -> new ResponseEntity<>(statusVersion, HttpStatus.OK))
+                   .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
     @PutMapping(path = "/{consent-id}/status/{status}")
     @ApiOperation(value = "Update consent status in the consent identified by given consent id.")
     @ApiResponses(value = {
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.consent.web.xs2a.controller;
+
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyKey;
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyReservation;
+import de.adorsys.psd2.consent.api.idempotency.IdempotentResponse;
+import de.adorsys.psd2.consent.api.service.IdempotencyService;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping(path = "api/v1/idempotency")
+@Api(value = "api/v1/idempotency", tags = "Idempotency", description = "Provides access to the stored responses of idempotent requests")
+public class IdempotencyController {
+    private final IdempotencyService idempotencyService;
+
+    @PostMapping
+    @ApiOperation(value = "Reserves processing of the request, unless the same request is in progress or has been already processed")
+    @ApiResponse(code = 200, message = "OK", response = IdempotencyReservation.class)
+    public ResponseEntity<IdempotencyReservation> reserve(
+        @ApiParam(value = "ID of TPP", example = "12345987")
+        @RequestHeader(value = "tpp-authorisation-number") String tppAuthorisationNumber,
+        @ApiParam(value = "X-Request-ID of the request", example = "99391c7e-ad88-49ec-a2ad-99ddcb1f7721")
+        @RequestHeader(value = "x-request-id") String xRequestId,
+        @ApiParam(value = "Digest of the request body", example = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855")
+        @RequestHeader(value = "body-digest") String bodyDigest) {
+        IdempotencyReservation reservation = idempotencyService.reserve(new IdempotencyKey(tppAuthorisationNumber, xRequestId, bodyDigest));
+        return new ResponseEntity<>(reservation, HttpStatus.OK);
+    }
+
+    @PutMapping
+    @ApiOperation(value = "Stores the response of the reserved request")
+    @ApiResponse(code = 200, message = "OK")
+    public ResponseEntity<Boolean> complete(
+        @ApiParam(value = "ID of TPP", example = "12345987")
+        @RequestHeader(value = "tpp-authorisation-number") String tppAuthorisationNumber,
+        @ApiParam(value = "X-Request-ID of the request", example = "99391c7e-ad88-49ec-a2ad-99ddcb1f7721")
+        @RequestHeader(value = "x-request-id") String xRequestId,
+        @ApiParam(value = "Digest of the request body", example = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855")
+        @RequestHeader(value = "body-digest") String bodyDigest,
+        @RequestBody IdempotentResponse response) {
+        boolean completed = idempotencyService.complete(new IdempotencyKey(tppAuthorisationNumber, xRequestId, bodyDigest), response);
+        return new ResponseEntity<>(completed, HttpStatus.OK);
+    }
+
+    @DeleteMapping
+    @ApiOperation(value = "Removes the reservation of the request, that has not been processed successfully")
+    @ApiResponse(code = 200, message = "OK")
+    public ResponseEntity<Boolean> release(
+        @ApiParam(value = "ID of TPP", example = "12345987")
+        @RequestHeader(value = "tpp-authorisation-number") String tppAuthorisationNumber,
+        @ApiParam(value = "X-Request-ID of the request", example = "99391c7e-ad88-49ec-a2ad-99ddcb1f7721")
+        @RequestHeader(value = "x-request-id") String xRequestId,
+        @ApiParam(value = "Digest of the request body", example = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855")
+        @RequestHeader(value = "body-digest") String bodyDigest) {
+        boolean released = idempotencyService.release(new IdempotencyKey(tppAuthorisationNumber, xRequestId, bodyDigest));
+        return new ResponseEntity<>(released, HttpStatus.OK);
+    }
+}
@@ -20,6 +20,7 @@ package de.adorsys.psd2.consent.web.xs2a.controller;
 import de.adorsys.psd2.consent.api.ais.AisConsentAuthorizationRequest;
 import de.adorsys.psd2.consent.api.ais.AisConsentAuthorizationResponse;
 import de.adorsys.psd2.consent.api.ais.AisConsentStatusResponse;
+import de.adorsys.psd2.consent.api.ais.AisConsentStatusVersionResponse;
 import de.adorsys.psd2.consent.api.ais.CreateAisConsentAuthorizationResponse;
 import de.adorsys.psd2.consent.api.service.AisConsentAuthorisationServiceEncrypted;
 import de.adorsys.psd2.consent.api.service.AisConsentServiceEncrypted;
@@ -106,6 +107,34 @@ public class AisConsentControllerTest {
         assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    @Test
+    public void getConsentStatusVersionById_Success() {
+        //Given:
+        AisConsentStatusVersionResponse statusVersion = new AisConsentStatusVersionResponse();
+        statusVersion.setConsentStatus(ConsentStatus.VALID);
+        statusVersion.setVersion(3);
+        when(aisConsentService.getConsentStatusVersionById(CONSENT_ID)).thenReturn(Optional.of(statusVersion));
+
+        //When:
+        ResponseEntity<AisConsentStatusVersionResponse> responseEntity = aisConsentController.getConsentStatusVersionById(CONSENT_ID);
+
+        //Then:
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getBody()).isEqualTo(statusVersion);
+    }
+
+    @Test
+    public void getConsentStatusVersionById_Fail() {
+        //Given:
+        when(aisConsentService.getConsentStatusVersionById(WRONG_CONSENT_ID)).thenReturn(Optional.empty());
+
+        //When:
+        ResponseEntity<AisConsentStatusVersionResponse> responseEntity = aisConsentController.getConsentStatusVersionById(WRONG_CONSENT_ID);
+
+        //Then:
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
     @Test
     public void updateConsentStatus_Success() {
 
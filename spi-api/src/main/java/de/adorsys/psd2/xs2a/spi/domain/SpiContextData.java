@@ -18,9 +18,13 @@ package de.adorsys.psd2.xs2a.spi.domain;
 
 import de.adorsys.psd2.xs2a.core.tpp.TppInfo;
 import de.adorsys.psd2.xs2a.spi.domain.psu.SpiPsuData;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
 import lombok.Value;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.time.Instant;
 import java.util.UUID;
 
 /**
@@ -28,8 +32,31 @@ import java.util.UUID;
  */
 @Value
 @NotNull
+@AllArgsConstructor
 public class SpiContextData {
     private SpiPsuData psuData;
     private TppInfo tppInfo;
     private UUID xRequestId;
+
+    /**
+     * Point in time, after which XS2A doesn't wait for the response of the SPI call anymore. May be used by SPI to
+     * cancel or limit calls to the core banking system. <code>null</code> if the call has no deadline.
+     */
+    @Nullable
+    @EqualsAndHashCode.Exclude
+    private Instant deadline;
+
+    public SpiContextData(SpiPsuData psuData, TppInfo tppInfo, UUID xRequestId) {
+        this(psuData, tppInfo, xRequestId, null);
+    }
+
+    /**
+     * Creates a copy of this context with the given deadline of the call
+     *
+     * @param deadline point in time, after which XS2A doesn't wait for the response of the SPI call anymore
+     * @return context of the call with the given deadline
+     */
+    public SpiContextData withDeadline(@Nullable Instant deadline) {
+        return new SpiContextData(psuData, tppInfo, xRequestId, deadline);
+    }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.spi.service;
+
+import de.adorsys.psd2.xs2a.core.consent.AspspConsentData;
+import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
+import de.adorsys.psd2.xs2a.spi.domain.authorisation.SpiAuthenticationObject;
+import de.adorsys.psd2.xs2a.spi.domain.authorisation.SpiAuthorisationDecoupledScaResponse;
+import de.adorsys.psd2.xs2a.spi.domain.authorisation.SpiAuthorisationStatus;
+import de.adorsys.psd2.xs2a.spi.domain.authorisation.SpiAuthorizationCodeResult;
+import de.adorsys.psd2.xs2a.spi.domain.psu.SpiPsuData;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponseStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Non-blocking variant of {@link PaymentAuthorisationSpi}, that may be implemented by ASPSP instead of or in addition to it.
+ * If an implementation of this interface is available, XS2A uses it instead of {@link PaymentAuthorisationSpi}.
+ * <p>
+ * The deadline of each call is provided in {@link SpiContextData#getDeadline()}. XS2A doesn't wait for the returned
+ * stage after the deadline and responds to TPP with an error instead.
+ *
+ * @see PaymentAuthorisationSpi
+ */
+public interface AsyncPaymentAuthorisationSpi {
+    /**
+     * Authorises psu and returns current authorisation status. Used only with embedded SCA Approach.
+     *
+     * @param contextData      holder of call's context data (e.g. about PSU and TPP)
+     * @param psuLoginData     ASPSP identifier(s) of the psu, provided by TPP within this request.
+     * @param password         Psu's password
+     * @param businessObject   payment object
+     * @param aspspConsentData Encrypted data that may stored in the consent management system in the consent linked to a request.
+     *                         May be null if consent does not contain such data, or request isn't done from a workflow with a consent
+     * @return stage, completed with success or failure authorization status
+     */
+    @NotNull
+    CompletionStage<SpiResponse<SpiAuthorisationStatus>> authorisePsu(@NotNull SpiContextData contextData, @NotNull SpiPsuData psuLoginData, String password, SpiPayment businessObject, @NotNull AspspConsentData aspspConsentData);
+
+    /**
+     * Returns a list of SCA methods for PSU by its login. Used only with embedded SCA Approach.
+     *
+     * @param contextData      holder of call's context data (e.g. about PSU and TPP)
+     * @param businessObject   payment object
+     * @param aspspConsentData Encrypted data that may stored in the consent management system in the consent linked to a request.
+     *                         May be null if consent does not contain such data, or request isn't done from a workflow with a consent
+     * @return stage, completed with a list of SCA methods applicable for specified PSU
+     */
+    @NotNull
+    CompletionStage<SpiResponse<List<SpiAuthenticationObject>>> requestAvailableScaMethods(@NotNull SpiContextData contextData, SpiPayment businessObject, @NotNull AspspConsentData aspspConsentData);
+
+    /**
+     * Performs strong customer authorisation depending on selected SCA method. Used only with embedded SCA Approach.
+     *
+     * @param contextData            holder of call's context data (e.g. about PSU and TPP)
+     * @param authenticationMethodId Id of a chosen sca method
+     * @param businessObject         payment object
+     * @param aspspConsentData       Encrypted data that may stored in the consent management system in the consent linked to a request.
+     *                               May be null if consent does not contain such data, or request isn't done from a workflow with a consent
+     * @return stage, completed with a positive or negative response. If authentication method is unknown, then empty SpiAuthorizationCodeResult should be returned.
+     */
+    @NotNull
+    CompletionStage<SpiResponse<SpiAuthorizationCodeResult>> requestAuthorisationCode(@NotNull SpiContextData contextData, @NotNull String authenticationMethodId, @NotNull SpiPayment businessObject, @NotNull AspspConsentData aspspConsentData);
+
+    /**
+     * Notifies a decoupled app about starting SCA. Used only with decoupled SCA Approach.
+     *
+     * @param contextData            holder of call's context data (e.g. about PSU and TPP)
+     * @param authorisationId        a unique identifier of authorisation process
+     * @param authenticationMethodId Id of a chosen sca method(for a decoupled SCA method within embedded approach)
+     * @param businessObject         payment object
+     * @param aspspConsentData       Encrypted data that may stored in the consent management system in the consent linked to a request.
+     *                               May be null if consent does not contain such data, or request isn't done from a workflow with a consent
+     * @return stage, completed with a response object, containing a message from ASPSP to PSU, giving him instructions regarding decoupled SCA starting.
+     */
+    @NotNull
+    default CompletionStage<SpiResponse<SpiAuthorisationDecoupledScaResponse>> startScaDecoupled(@NotNull SpiContextData contextData, @NotNull String authorisationId, @Nullable String authenticationMethodId, @NotNull SpiPayment businessObject, @NotNull AspspConsentData aspspConsentData) {
+        return CompletableFuture.completedFuture(SpiResponse.<SpiAuthorisationDecoupledScaResponse>builder().fail(SpiResponseStatus.NOT_SUPPORTED));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.config;
+
+import de.adorsys.psd2.xs2a.web.async.AsyncControllerHandlerAdapter;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuration of the optional asynchronous processing of requests to SPI-bound XS2A endpoints.
+ * The asynchronous processing is disabled by default, in this case requests are processed in the servlet container
+ * thread for the whole SPI and CMS round trip.
+ */
+@Getter
+@Configuration
+public class AsyncRequestProcessingConfig {
+    private static final String THREAD_NAME_PREFIX = "xs2a-async-request-";
+
+    @Value("${xs2a.async-requests.enabled:false}")
+    private boolean enabled;
+
+    @Value("${xs2a.async-requests.pool-size:50}")
+    private int poolSize;
+
+    @Value("${xs2a.async-requests.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${xs2a.async-requests.timeout-ms:60000}")
+    private long timeoutMs;
+
+    /**
+     * Bounded executor for asynchronously processed requests. When both the pool and the queue are full, the request is
+     * processed in the servlet container thread, so the processing degrades to the synchronous one instead of being
+     * rejected.
+     *
+     * @return executor for asynchronously processed requests
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService asyncRequestExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                                                             new LinkedBlockingQueue<>(queueCapacity),
+                                                             new AsyncRequestThreadFactory(),
+                                                             new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Handler adapter for XS2A controllers, that takes precedence over the default one, if the asynchronous processing
+     * is enabled. It reuses argument resolvers, return value handlers and message converters of the default adapter,
+     * so request and response processing, including controller advices, stays the same.
+     *
+     * @param requestMappingHandlerAdapter default handler adapter of the application
+     * @return handler adapter for asynchronously processed requests
+     */
+    @Bean
+    public AsyncControllerHandlerAdapter asyncControllerHandlerAdapter(@Qualifier("requestMappingHandlerAdapter") RequestMappingHandlerAdapter requestMappingHandlerAdapter) {
+        AsyncControllerHandlerAdapter handlerAdapter = new AsyncControllerHandlerAdapter(enabled, timeoutMs,
+                                                                                         new ConcurrentTaskExecutor(asyncRequestExecutor()));
+        handlerAdapter.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        handlerAdapter.setArgumentResolvers(requestMappingHandlerAdapter.getArgumentResolvers());
+        handlerAdapter.setInitBinderArgumentResolvers(requestMappingHandlerAdapter.getInitBinderArgumentResolvers());
+        handlerAdapter.setReturnValueHandlers(requestMappingHandlerAdapter.getReturnValueHandlers());
+        handlerAdapter.setMessageConverters(requestMappingHandlerAdapter.getMessageConverters());
+        handlerAdapter.setWebBindingInitializer(requestMappingHandlerAdapter.getWebBindingInitializer());
+        return handlerAdapter;
+    }
+
+    private static class AsyncRequestThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
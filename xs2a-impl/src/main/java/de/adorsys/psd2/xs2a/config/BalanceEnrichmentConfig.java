@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.config;
+
+import de.adorsys.psd2.xs2a.service.account.BalanceEnrichmentFailurePolicy;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Configuration of the optional parallel balance enrichment for account lists requested with balances.
+ * The enrichment is disabled by default, in this case the SPI is asked for the account list with balances in one call.
+ */
+@Getter
+@Configuration
+public class BalanceEnrichmentConfig {
+    private static final String THREAD_NAME_PREFIX = "xs2a-balance-enrichment-";
+
+    @Value("${xs2a.ais.balance-enrichment.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Whether each balance request has to receive the ASPSP consent data, returned by the previous one. In this case
+     * balances are requested sequentially instead of concurrently.
+     */
+    @Value("${xs2a.ais.balance-enrichment.chain-consent-data:false}")
+    private boolean chainConsentData;
+
+    @Value("${xs2a.ais.balance-enrichment.pool-size:8}")
+    private int poolSize;
+
+    @Value("${xs2a.ais.balance-enrichment.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${xs2a.ais.balance-enrichment.timeout-ms:5000}")
+    private long timeoutMs;
+
+    @Value("${xs2a.ais.balance-enrichment.failure-policy:SKIP_ACCOUNT}")
+    private BalanceEnrichmentFailurePolicy failurePolicy;
+
+    /**
+     * Bounded executor for balance requests. When both the pool and the queue are full, the balance request is rejected
+     * and treated as failed according to the failure policy, so SPI calls are never executed in the request thread.
+     *
+     * @return executor for balance requests
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService balanceEnrichmentExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                                                             new LinkedBlockingQueue<>(queueCapacity),
+                                                             new BalanceEnrichmentThreadFactory(),
+                                                             new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static class BalanceEnrichmentThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, THREAD_NAME_PREFIX + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the optional idempotency of payment initiation and consent creation requests.
+ * The idempotency is disabled by default, in this case every repeated request with the same X-Request-ID is processed
+ * again.
+ */
+@Getter
+@Configuration
+public class IdempotencyConfig {
+    @Value("${xs2a.idempotency.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Maximum time a repeated request waits for the response of the same request, that is still in progress
+     */
+    @Value("${xs2a.idempotency.wait-timeout-ms:30000}")
+    private long waitTimeoutMs;
+
+    @Value("${xs2a.idempotency.poll-interval-ms:200}")
+    private long pollIntervalMs;
+}
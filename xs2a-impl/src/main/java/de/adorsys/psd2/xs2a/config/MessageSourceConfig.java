@@ -23,12 +23,13 @@ import org.springframework.context.support.ReloadableResourceBundleMessageSource
 
 @Configuration
 public class MessageSourceConfig {
+    public static final int MESSAGE_CACHE_SECONDS = 3600;
 
     @Bean
     public MessageSource messageSource() {
         ReloadableResourceBundleMessageSource messageSource = new ReloadableResourceBundleMessageSource();
         messageSource.setBasename("classpath:error_message");
-        messageSource.setCacheSeconds(3600); //reload messages every hour
+        messageSource.setCacheSeconds(MESSAGE_CACHE_SECONDS); //reload messages every hour
         messageSource.setDefaultEncoding("UTF-8");
         return messageSource;
     }
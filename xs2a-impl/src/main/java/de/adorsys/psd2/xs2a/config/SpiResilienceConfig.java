@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Configuration of the resilience layer around SPI calls. The layer is disabled by default: unless
+ * <code>xs2a.spi.resilience.enabled=true</code>, the aspect and the timeout scheduler are not created at all.
+ * <p>
+ * Only calls of asynchronous SPI can be abandoned, once they exceed <code>async-timeout-ms</code>. Synchronous SPI is
+ * called on the request thread, so calls slower than <code>slow-call-threshold-ms</code> are only reported as slow
+ * and counted as failures by the circuit breaker.
+ * <p>
+ * Every setting may be overridden for a single SPI interface or a single SPI method, e.g.
+ * <code>xs2a.spi.resilience.BulkPaymentSpi.max-concurrent-calls=5</code> or
+ * <code>xs2a.spi.resilience.AsyncAccountSpi.requestTransactionsForAccount.async-timeout-ms=20000</code>.
+ */
+@Configuration
+public class SpiResilienceConfig {
+    private static final String PROPERTY_PREFIX = "xs2a.spi.resilience.";
+
+    @Value("${xs2a.spi.resilience.max-concurrent-calls:25}")
+    private int maxConcurrentCalls;
+
+    @Value("${xs2a.spi.resilience.async-timeout-ms:10000}")
+    private long asyncTimeoutMs;
+
+    @Value("${xs2a.spi.resilience.slow-call-threshold-ms:10000}")
+    private long slowCallThresholdMs;
+
+    @Value("${xs2a.spi.resilience.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${xs2a.spi.resilience.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${xs2a.spi.resilience.open-state-duration-ms:30000}")
+    private long openStateDurationMs;
+
+    private final Environment environment;
+
+    public SpiResilienceConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    public int getMaxConcurrentCalls(String spiName, String methodName) {
+        return getProperty(spiName, methodName, "max-concurrent-calls", Integer.class, maxConcurrentCalls);
+    }
+
+    public long getAsyncTimeoutMs(String spiName, String methodName) {
+        return getProperty(spiName, methodName, "async-timeout-ms", Long.class, asyncTimeoutMs);
+    }
+
+    public long getSlowCallThresholdMs(String spiName, String methodName) {
+        return getProperty(spiName, methodName, "slow-call-threshold-ms", Long.class, slowCallThresholdMs);
+    }
+
+    public int getSlidingWindowSize(String spiName, String methodName) {
+        return getProperty(spiName, methodName, "sliding-window-size", Integer.class, slidingWindowSize);
+    }
+
+    public int getFailureRateThreshold(String spiName, String methodName) {
+        return getProperty(spiName, methodName, "failure-rate-threshold", Integer.class, failureRateThreshold);
+    }
+
+    public long getOpenStateDurationMs(String spiName, String methodName) {
+        return getProperty(spiName, methodName, "open-state-duration-ms", Long.class, openStateDurationMs);
+    }
+
+    /**
+     * Scheduler, that completes calls of asynchronous SPI with a fast-fail response, once their timeout is exceeded
+     *
+     * @return scheduler for timeouts of SPI calls
+     */
+    @Bean(destroyMethod = "shutdown")
+    @Conditional(EnabledCondition.class)
+    public ScheduledExecutorService spiTimeoutScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "xs2a-spi-timeout");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private <T> T getProperty(String spiName, String methodName, String setting, Class<T> type, T defaultValue) {
+        T spiValue = environment.getProperty(PROPERTY_PREFIX + spiName + "." + setting, type, defaultValue);
+        return environment.getProperty(PROPERTY_PREFIX + spiName + "." + methodName + "." + setting, type, spiValue);
+    }
+
+    /**
+     * Matches if the resilience layer is enabled with <code>xs2a.spi.resilience.enabled=true</code>
+     */
+    public static class EnabledCondition implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return context.getEnvironment().getProperty(PROPERTY_PREFIX + "enabled", Boolean.class, false);
+        }
+    }
+}
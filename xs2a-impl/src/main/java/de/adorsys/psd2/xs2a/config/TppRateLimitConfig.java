@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the optional rate limiting of AIS and PIIS requests per TPP and per consent.
+ * The rate limiting is disabled by default, in this case requests are limited only by the frequency per day of their
+ * consents.
+ */
+@Getter
+@Configuration
+public class TppRateLimitConfig {
+    @Value("${xs2a.rate-limit.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Maximum number of requests a TPP may send in a burst
+     */
+    @Value("${xs2a.rate-limit.tpp.capacity:100}")
+    private int tppCapacity;
+
+    @Value("${xs2a.rate-limit.tpp.requests-per-second:20}")
+    private double tppRequestsPerSecond;
+
+    /**
+     * Maximum number of requests, that may be sent in a burst with one Consent-ID
+     */
+    @Value("${xs2a.rate-limit.consent.capacity:10}")
+    private int consentCapacity;
+
+    @Value("${xs2a.rate-limit.consent.requests-per-second:1}")
+    private double consentRequestsPerSecond;
+
+    /**
+     * Number of XS2A instances behind the load balancer, the limits above apply to all instances together and are
+     * shared equally among them
+     */
+    @Value("${xs2a.rate-limit.instances:1}")
+    private int instances;
+
+    /**
+     * Maximum number of TPPs and consents tracked by each instance. Beyond it, the ones with full buckets are forgotten
+     * first, then the least recently used ones
+     */
+    @Value("${xs2a.rate-limit.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.config;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the optional streaming of JSON transaction reports.
+ * The streaming is disabled by default, in this case SPI transactions are mapped to XS2A and PSD2 model objects before
+ * being serialised into the response.
+ */
+@Getter
+@Configuration
+public class TransactionsStreamingConfig {
+    @Value("${xs2a.ais.transactions-streaming.enabled:false}")
+    private boolean enabled;
+}
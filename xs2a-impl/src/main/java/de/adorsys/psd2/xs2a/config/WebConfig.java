@@ -16,17 +16,22 @@
 
 package de.adorsys.psd2.xs2a.config;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import de.adorsys.psd2.consent.api.service.TppStopListService;
 import de.adorsys.psd2.xs2a.component.PaymentTypeEnumConverter;
 import de.adorsys.psd2.xs2a.domain.ScaApproachHolder;
 import de.adorsys.psd2.xs2a.service.TppService;
 import de.adorsys.psd2.xs2a.service.discovery.ServiceTypeDiscoveryService;
-import de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorMapperContainer;
+import de.adorsys.psd2.xs2a.service.idempotency.Xs2aIdempotencyService;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceTypeToErrorTypeMapper;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.StaticErrorResponseWriter;
+import de.adorsys.psd2.xs2a.service.ratelimit.TppRateLimiter;
 import de.adorsys.psd2.xs2a.service.validator.tpp.TppInfoHolder;
+import de.adorsys.psd2.xs2a.web.interceptor.InitialDispatchInterceptor;
 import de.adorsys.psd2.xs2a.web.interceptor.RequestValidationInterceptor;
-import de.adorsys.psd2.xs2a.web.interceptor.logging.*;
+import de.adorsys.psd2.xs2a.web.interceptor.idempotency.IdempotencyInterceptor;
+import de.adorsys.psd2.xs2a.web.interceptor.logging.AccessLogInterceptor;
+import de.adorsys.psd2.xs2a.web.interceptor.logging.AccessLogger;
+import de.adorsys.psd2.xs2a.web.interceptor.tpp.TppRateLimitInterceptor;
 import de.adorsys.psd2.xs2a.web.interceptor.tpp.TppStopListInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -36,6 +41,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.format.FormatterRegistry;
 import org.springframework.web.context.annotation.RequestScope;
+import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
@@ -60,9 +66,13 @@ public class WebConfig extends WebMvcConfigurerAdapter {
     private final TppStopListService tppStopListService;
     private final ServiceTypeDiscoveryService serviceTypeDiscoveryService;
     private final ServiceTypeToErrorTypeMapper errorTypeMapper;
-    private final ErrorMapperContainer errorMapperContainer;
-    private final ObjectMapper objectMapper;
+    private final StaticErrorResponseWriter staticErrorResponseWriter;
     private final RequestValidationInterceptor requestValidationInterceptor;
+    private final IdempotencyConfig idempotencyConfig;
+    private final Xs2aIdempotencyService xs2aIdempotencyService;
+    private final TppRateLimitConfig tppRateLimitConfig;
+    private final TppRateLimiter tppRateLimiter;
+    private final AccessLogger accessLogger;
 
     @Override
     public void configurePathMatch(PathMatchConfigurer configurer) {
@@ -71,19 +81,32 @@ public class WebConfig extends WebMvcConfigurerAdapter {
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        // Please, keep this interceptor's order, because it is important, that logging interceptors will be called before the validation ones to log all the requests (even wrong ones).
+        // Please, keep this interceptor's order, because it is important, that the logging interceptor will be called before the validation ones to log all the requests (even wrong ones).
         // The interceptors are executed in the order in which they are declared for preHandle(...) and vice versa for postHandle(...).
-        // Logging interceptors:
-        registry.addInterceptor(new AccountLoggingInterceptor(tppService)).addPathPatterns(ACCOUNTS_PATH);
-        registry.addInterceptor(new ConsentLoggingInterceptor(tppService)).addPathPatterns(CONSENTS_PATH);
-        registry.addInterceptor(new FundsConfirmationLoggingInterceptor(tppService)).addPathPatterns(FUNDS_CONFIRMATION_PATH);
-        registry.addInterceptor(new PaymentLoggingInterceptor(tppService)).addPathPatterns(SINGLE_PAYMENTS_PATH, BULK_PAYMENTS_PATH, PERIODIC_PAYMENTS_PATH);
-        registry.addInterceptor(new SigningBasketLoggingInterceptor(tppService)).addPathPatterns(SIGNING_BASKETS_PATH);
-
-        registry.addInterceptor(new TppStopListInterceptor(errorMapperContainer, tppService, tppStopListService, serviceTypeDiscoveryService, errorTypeMapper, objectMapper))
+        // Logging interceptor:
+        registry.addInterceptor(initialDispatchOnly(new AccessLogInterceptor(tppService, accessLogger))).addPathPatterns(getAllXs2aEndpointPaths());
+
+        // The rate limiter works in memory, so it's called before the interceptors, that access CMS
+        if (tppRateLimitConfig.isEnabled()) {
+            registry.addInterceptor(initialDispatchOnly(new TppRateLimitInterceptor(staticErrorResponseWriter, tppService, tppRateLimiter, serviceTypeDiscoveryService, errorTypeMapper)))
+                .addPathPatterns(ACCOUNTS_PATH, CONSENTS_PATH, FUNDS_CONFIRMATION_PATH);
+        }
+
+        registry.addInterceptor(initialDispatchOnly(new TppStopListInterceptor(staticErrorResponseWriter, tppService, tppStopListService, serviceTypeDiscoveryService, errorTypeMapper)))
             .addPathPatterns(getAllXs2aEndpointPaths());
 
-        registry.addInterceptor(requestValidationInterceptor).addPathPatterns(getAllXs2aEndpointPaths());
+        registry.addInterceptor(initialDispatchOnly(requestValidationInterceptor)).addPathPatterns(getAllXs2aEndpointPaths());
+
+        // Only valid requests are reserved, so the idempotency interceptor has to be called after the validation one
+        if (idempotencyConfig.isEnabled()) {
+            registry.addInterceptor(initialDispatchOnly(new IdempotencyInterceptor(xs2aIdempotencyService, tppService, staticErrorResponseWriter, serviceTypeDiscoveryService, errorTypeMapper)))
+                .addPathPatterns(SINGLE_PAYMENT_INITIATION_PATH, BULK_PAYMENT_INITIATION_PATH, PERIODIC_PAYMENT_INITIATION_PATH, CONSENT_CREATION_PATH);
+        }
+    }
+
+    private HandlerInterceptor initialDispatchOnly(HandlerInterceptor interceptor) {
+        // Requests to asynchronously processed endpoints pass the interceptors twice, see AsyncControllerHandlerAdapter
+        return new InitialDispatchInterceptor(interceptor);
     }
 
     @Bean
@@ -24,6 +24,10 @@ public class Xs2aEndpointPathConstant {
     public static final String BULK_PAYMENTS_PATH = "/v1/bulk-payments/**";
     public static final String PERIODIC_PAYMENTS_PATH = "/v1/periodic-payments/**";
     public static final String SIGNING_BASKETS_PATH = "/v1/signing-baskets/**";
+    public static final String SINGLE_PAYMENT_INITIATION_PATH = "/v1/payments/*";
+    public static final String BULK_PAYMENT_INITIATION_PATH = "/v1/bulk-payments/*";
+    public static final String PERIODIC_PAYMENT_INITIATION_PATH = "/v1/periodic-payments/*";
+    public static final String CONSENT_CREATION_PATH = "/v1/consents";
 
     private Xs2aEndpointPathConstant() {}
 
@@ -16,10 +16,12 @@
 
 package de.adorsys.psd2.xs2a.domain.account;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import de.adorsys.psd2.xs2a.core.profile.AccountReference;
 import de.adorsys.psd2.xs2a.domain.CustomContentTypeProvider;
 import de.adorsys.psd2.xs2a.domain.Links;
 import de.adorsys.psd2.xs2a.domain.Xs2aBalance;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiTransaction;
 import lombok.Data;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.MediaType;
@@ -44,10 +46,22 @@ public class Xs2aTransactionsReport implements CustomContentTypeProvider {
 
     private String responseContentType;
 
+    /**
+     * SPI transactions of the report, that are written to the response without being mapped to the account report.
+     * Only set if the transactions streaming is enabled, the account report contains no transactions in this case.
+     */
+    @JsonIgnore
+    private List<SpiTransaction> spiTransactions;
+
     public boolean isResponseContentTypeJson() {
         return RESPONSE_TYPE_JSON.equals(responseContentType);
     }
 
+    @JsonIgnore
+    public boolean isStreamed() {
+        return spiTransactions != null;
+    }
+
     @Override
     public MediaType getCustomContentType() {
         if (StringUtils.isBlank(responseContentType)) {
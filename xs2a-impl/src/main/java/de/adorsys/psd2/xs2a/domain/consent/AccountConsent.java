@@ -72,6 +72,12 @@ public class AccountConsent {
     @JsonIgnore
     private Map<String, Integer> usageCounterMap = new HashMap<>();
 
+    /**
+     * Version of the consent in CMS, increased on every change of the consent
+     */
+    @JsonIgnore
+    private final long version;
+
     @JsonIgnore
     public boolean isExpired() {
         return consentStatus == ConsentStatus.EXPIRED;
@@ -16,6 +16,7 @@
 
 package de.adorsys.psd2.xs2a.domain.consent;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
 import io.swagger.annotations.ApiModel;
 import lombok.Value;
@@ -25,7 +26,14 @@ import lombok.Value;
 public class ConsentStatusResponse {
     private String consentStatus;
 
-    public ConsentStatusResponse(ConsentStatus consentStatus) {
+    /**
+     * Version of the consent in CMS, increased on every change of the consent
+     */
+    @JsonIgnore
+    private long version;
+
+    public ConsentStatusResponse(ConsentStatus consentStatus, long version) {
         this.consentStatus = consentStatus.getValue();
+        this.version = version;
     }
 }
@@ -19,6 +19,7 @@ package de.adorsys.psd2.xs2a.service;
 
 import de.adorsys.psd2.consent.api.ActionStatus;
 import de.adorsys.psd2.consent.api.TypeAccess;
+import de.adorsys.psd2.xs2a.config.TransactionsStreamingConfig;
 import de.adorsys.psd2.xs2a.core.event.EventType;
 import de.adorsys.psd2.xs2a.core.profile.AccountReference;
 import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
@@ -27,6 +28,9 @@ import de.adorsys.psd2.xs2a.domain.Transactions;
 import de.adorsys.psd2.xs2a.domain.account.*;
 import de.adorsys.psd2.xs2a.domain.consent.AccountConsent;
 import de.adorsys.psd2.xs2a.exception.MessageError;
+import de.adorsys.psd2.xs2a.service.account.AccountDataCache;
+import de.adorsys.psd2.xs2a.service.account.AccountReadCoalescingService;
+import de.adorsys.psd2.xs2a.service.account.BalanceEnrichmentService;
 import de.adorsys.psd2.xs2a.service.consent.AccountReferenceInConsentUpdater;
 import de.adorsys.psd2.xs2a.service.consent.AisConsentDataService;
 import de.adorsys.psd2.xs2a.service.consent.Xs2aAisConsentService;
@@ -37,6 +41,8 @@ import de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorType;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceType;
 import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.*;
 import de.adorsys.psd2.xs2a.service.profile.AspspProfileServiceWrapper;
+import de.adorsys.psd2.xs2a.service.spi.AsyncSpiProvider;
+import de.adorsys.psd2.xs2a.service.spi.SpiDeadlineService;
 import de.adorsys.psd2.xs2a.service.validator.ValidationResult;
 import de.adorsys.psd2.xs2a.service.validator.ValueValidatorService;
 import de.adorsys.psd2.xs2a.service.validator.ais.account.*;
@@ -45,15 +51,16 @@ import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
 import de.adorsys.psd2.xs2a.spi.domain.account.*;
 import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
 import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponseStatus;
-import de.adorsys.psd2.xs2a.spi.service.AccountSpi;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.validation.annotation.Validated;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -67,7 +74,8 @@ import static de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorType.AIS_400;
 @Validated
 @AllArgsConstructor
 public class AccountService {
-    private final AccountSpi accountSpi;
+    private final AsyncSpiProvider asyncSpiProvider;
+    private final SpiDeadlineService spiDeadlineService;
 
     private final Xs2aToSpiAccountReferenceMapper xs2aToSpiAccountReferenceMapper;
     private final SpiToXs2aAccountDetailsMapper accountDetailsMapper;
@@ -94,6 +102,10 @@ public class AccountService {
     private final GetTransactionsReportValidator getTransactionsReportValidator;
     private final GetTransactionDetailsValidator getTransactionDetailsValidator;
     private final RequestProviderService requestProviderService;
+    private final BalanceEnrichmentService balanceEnrichmentService;
+    private final AccountReadCoalescingService accountReadCoalescingService;
+    private final AccountDataCache accountDataCache;
+    private final TransactionsStreamingConfig transactionsStreamingConfig;
 
     /**
      * Gets AccountDetails list based on accounts in provided AIS-consent, depending on withBalance variable and
@@ -124,10 +136,23 @@ public class AccountService {
         }
 
         SpiContextData contextData = getSpiContextData(accountConsent.getPsuIdDataList());
-
-        SpiResponse<List<SpiAccountDetails>> spiResponse = accountSpi.requestAccountList(contextData, withBalance,
-                                                                                         consentMapper.mapToSpiAccountConsent(accountConsent),
-                                                                                         aisConsentDataService.getAspspConsentDataByConsentId(consentId));
+        SpiAccountConsent spiAccountConsent = consentMapper.mapToSpiAccountConsent(accountConsent);
+        boolean enrichWithBalances = withBalance && balanceEnrichmentService.isEnabled();
+        List<AccountReference> balanceAccesses = accountConsent.getAccess().getBalances();
+
+        SpiResponse<List<SpiAccountDetails>> spiResponse = accountReadCoalescingService.read(
+            Arrays.asList("requestAccountList", consentId, withBalance),
+            () -> {
+                SpiResponse<List<SpiAccountDetails>> accountListResponse = spiDeadlineService.awaitResponse(
+                    asyncSpiProvider.getAccountSpi().requestAccountList(contextData, withBalance && !enrichWithBalances,
+                                                                        spiAccountConsent,
+                                                                        aisConsentDataService.getAspspConsentDataByConsentId(consentId)),
+                    contextData);
+
+                return enrichWithBalances && accountListResponse.isSuccessful()
+                           ? balanceEnrichmentService.enrichWithBalances(contextData, accountListResponse, balanceAccesses, spiAccountConsent)
+                           : accountListResponse;
+            });
 
         aisConsentDataService.updateAspspConsentData(spiResponse.getAspspConsentData());
 
@@ -198,26 +223,36 @@ public class AccountService {
                        .build();
         }
 
-        SpiContextData contextData = getSpiContextData(accountConsent.getPsuIdDataList());
+        Optional<SpiAccountDetails> cachedAccountDetails = accountDataCache.getAccountDetails(consentId, requestedAccountReference.get(), withBalance);
+        SpiAccountDetails spiAccountDetails;
+        if (cachedAccountDetails.isPresent()) {
+            spiAccountDetails = cachedAccountDetails.get();
+        } else {
+            SpiContextData contextData = getSpiContextData(accountConsent.getPsuIdDataList());
 
-        SpiResponse<SpiAccountDetails> spiResponse = accountSpi.requestAccountDetailForAccount(contextData, withBalance, requestedAccountReference.get(),
-                                                                                               consentMapper.mapToSpiAccountConsent(accountConsent),
-                                                                                               aisConsentDataService.getAspspConsentDataByConsentId(consentId));
+            SpiResponse<SpiAccountDetails> spiResponse = spiDeadlineService.awaitResponse(
+                asyncSpiProvider.getAccountSpi().requestAccountDetailForAccount(contextData, withBalance, requestedAccountReference.get(),
+                                                                                consentMapper.mapToSpiAccountConsent(accountConsent),
+                                                                                aisConsentDataService.getAspspConsentDataByConsentId(consentId)),
+                contextData);
 
-        aisConsentDataService.updateAspspConsentData(spiResponse.getAspspConsentData());
+            aisConsentDataService.updateAspspConsentData(spiResponse.getAspspConsentData());
 
-        if (spiResponse.hasError()) {
-            return ResponseObject.<Xs2aAccountDetailsHolder>builder()
-                       .fail(spiErrorMapper.mapToErrorHolder(spiResponse, ServiceType.AIS))
-                       .build();
-        }
+            if (spiResponse.hasError()) {
+                return ResponseObject.<Xs2aAccountDetailsHolder>builder()
+                           .fail(spiErrorMapper.mapToErrorHolder(spiResponse, ServiceType.AIS))
+                           .build();
+            }
 
-        SpiAccountDetails spiAccountDetails = spiResponse.getPayload();
+            spiAccountDetails = spiResponse.getPayload();
 
-        if (spiAccountDetails == null) {
-            return ResponseObject.<Xs2aAccountDetailsHolder>builder()
-                       .fail(ErrorType.AIS_404, of(RESOURCE_UNKNOWN_404))
-                       .build();
+            if (spiAccountDetails == null) {
+                return ResponseObject.<Xs2aAccountDetailsHolder>builder()
+                           .fail(ErrorType.AIS_404, of(RESOURCE_UNKNOWN_404))
+                           .build();
+            }
+
+            accountDataCache.putAccountDetails(consentId, requestedAccountReference.get(), withBalance, spiAccountDetails);
         }
 
         Xs2aAccountDetails accountDetails = accountDetailsMapper.mapToXs2aAccountDetails(spiAccountDetails);
@@ -269,27 +304,40 @@ public class AccountService {
                        .build();
         }
 
-        SpiContextData contextData = getSpiContextData(accountConsent.getPsuIdDataList());
+        Optional<List<SpiAccountBalance>> cachedBalances = accountDataCache.getBalances(consentId, requestedAccountReference.get());
+        List<SpiAccountBalance> spiBalances;
+        if (cachedBalances.isPresent()) {
+            spiBalances = cachedBalances.get();
+        } else {
+            SpiContextData contextData = getSpiContextData(accountConsent.getPsuIdDataList());
+
+            SpiResponse<List<SpiAccountBalance>> spiResponse = accountReadCoalescingService.read(
+                Arrays.asList("requestBalancesForAccount", consentId, accountId),
+                () -> spiDeadlineService.awaitResponse(
+                    asyncSpiProvider.getAccountSpi().requestBalancesForAccount(contextData, requestedAccountReference.get(),
+                                                                               consentMapper.mapToSpiAccountConsent(accountConsent),
+                                                                               aisConsentDataService.getAspspConsentDataByConsentId(consentId)),
+                    contextData));
+            aisConsentDataService.updateAspspConsentData(spiResponse.getAspspConsentData());
+
+            if (spiResponse.hasError()) {
+                return ResponseObject.<Xs2aBalancesReport>builder()
+                           .fail(new MessageError(spiErrorMapper.mapToErrorHolder(spiResponse, ServiceType.AIS)))
+                           .build();
+            }
 
-        SpiResponse<List<SpiAccountBalance>> spiResponse = accountSpi.requestBalancesForAccount(contextData, requestedAccountReference.get(),
-                                                                                                consentMapper.mapToSpiAccountConsent(accountConsent),
-                                                                                                aisConsentDataService.getAspspConsentDataByConsentId(consentId));
-        aisConsentDataService.updateAspspConsentData(spiResponse.getAspspConsentData());
+            spiBalances = spiResponse.getPayload();
 
-        if (spiResponse.hasError()) {
-            return ResponseObject.<Xs2aBalancesReport>builder()
-                       .fail(new MessageError(spiErrorMapper.mapToErrorHolder(spiResponse, ServiceType.AIS)))
-                       .build();
-        }
+            if (spiBalances == null) {
+                return ResponseObject.<Xs2aBalancesReport>builder()
+                           .fail(ErrorType.AIS_404, of(RESOURCE_UNKNOWN_404))
+                           .build();
+            }
 
-        if (spiResponse.getPayload() == null) {
-            return ResponseObject.<Xs2aBalancesReport>builder()
-                       .fail(ErrorType.AIS_404, of(RESOURCE_UNKNOWN_404))
-                       .build();
+            accountDataCache.putBalances(consentId, requestedAccountReference.get(), spiBalances);
         }
 
-        Xs2aBalancesReport balancesReport = balanceReportMapper.mapToXs2aBalancesReport(requestedAccountReference.get(),
-                                                                                        spiResponse.getPayload());
+        Xs2aBalancesReport balancesReport = balanceReportMapper.mapToXs2aBalancesReport(requestedAccountReference.get(), spiBalances);
 
         ResponseObject<Xs2aBalancesReport> response =
             ResponseObject.<Xs2aBalancesReport>builder().body(balancesReport).build();
@@ -358,14 +406,19 @@ public class AccountService {
 
         SpiContextData contextData = getSpiContextData(accountConsent.getPsuIdDataList());
 
-        SpiResponse<SpiTransactionReport> spiResponse = accountSpi.requestTransactionsForAccount(
-            contextData,
-            request.getAcceptHeader(),
-            isTransactionsShouldContainBalances, dateFrom, dateToChecked,
-            request.getBookingStatus(),
-            requestedAccountReference.get(),
-            consentMapper.mapToSpiAccountConsent(accountConsent),
-            aisConsentDataService.getAspspConsentDataByConsentId(consentId));
+        SpiResponse<SpiTransactionReport> spiResponse = accountReadCoalescingService.read(
+            Arrays.asList("requestTransactionsForAccount", consentId, accountId, request.getAcceptHeader(),
+                          isTransactionsShouldContainBalances, dateFrom, dateToChecked, request.getBookingStatus()),
+            () -> spiDeadlineService.awaitResponse(
+                asyncSpiProvider.getAccountSpi().requestTransactionsForAccount(
+                    contextData,
+                    request.getAcceptHeader(),
+                    isTransactionsShouldContainBalances, dateFrom, dateToChecked,
+                    request.getBookingStatus(),
+                    requestedAccountReference.get(),
+                    consentMapper.mapToSpiAccountConsent(accountConsent),
+                    aisConsentDataService.getAspspConsentDataByConsentId(consentId)),
+                contextData));
 
         aisConsentDataService.updateAspspConsentData(spiResponse.getAspspConsentData());
 
@@ -389,14 +442,21 @@ public class AccountService {
                        .build();
         }
 
-        Optional<Xs2aAccountReport> report = transactionsToAccountReportMapper.mapToXs2aAccountReport(spiTransactionReport.getTransactions(), spiTransactionReport.getTransactionsRaw());
-
         Xs2aTransactionsReport transactionsReport = new Xs2aTransactionsReport();
-        transactionsReport.setAccountReport(report.orElseGet(() -> new Xs2aAccountReport(Collections.emptyList(),
-                                                                                         Collections.emptyList(), null)));
+        transactionsReport.setResponseContentType(spiTransactionReport.getResponseContentType());
+
+        if (isTransactionsStreamingApplicable(transactionsReport, spiTransactionReport)) {
+            transactionsReport.setSpiTransactions(Optional.ofNullable(spiTransactionReport.getTransactions())
+                                                      .orElseGet(Collections::emptyList));
+            transactionsReport.setAccountReport(new Xs2aAccountReport(Collections.emptyList(), Collections.emptyList(), null));
+        } else {
+            Optional<Xs2aAccountReport> report = transactionsToAccountReportMapper.mapToXs2aAccountReport(spiTransactionReport.getTransactions(), spiTransactionReport.getTransactionsRaw());
+            transactionsReport.setAccountReport(report.orElseGet(() -> new Xs2aAccountReport(Collections.emptyList(),
+                                                                                             Collections.emptyList(), null)));
+        }
+
         transactionsReport.setAccountReference(referenceMapper.mapToXs2aAccountReference(requestedAccountReference.get()));
         transactionsReport.setBalances(balanceMapper.mapToXs2aBalanceList(spiTransactionReport.getBalances()));
-        transactionsReport.setResponseContentType(spiTransactionReport.getResponseContentType());
 
         ResponseObject<Xs2aTransactionsReport> response =
             ResponseObject.<Xs2aTransactionsReport>builder().body(transactionsReport).build();
@@ -449,7 +509,9 @@ public class AccountService {
 
         SpiContextData contextData = getSpiContextData(accountConsent.getPsuIdDataList());
 
-        SpiResponse<SpiTransaction> spiResponse = accountSpi.requestTransactionForAccountByTransactionId(contextData, transactionId, requestedAccountReference.get(), consentMapper.mapToSpiAccountConsent(accountConsent), aisConsentDataService.getAspspConsentDataByConsentId(consentId));
+        SpiResponse<SpiTransaction> spiResponse = spiDeadlineService.awaitResponse(
+            asyncSpiProvider.getAccountSpi().requestTransactionForAccountByTransactionId(contextData, transactionId, requestedAccountReference.get(), consentMapper.mapToSpiAccountConsent(accountConsent), aisConsentDataService.getAspspConsentDataByConsentId(consentId)),
+            contextData);
 
         aisConsentDataService.updateAspspConsentData(spiResponse.getAspspConsentData());
 
@@ -485,6 +547,12 @@ public class AccountService {
         return accountConsent.isOneAccessType() || requestProviderService.isRequestFromTPP();
     }
 
+    private boolean isTransactionsStreamingApplicable(Xs2aTransactionsReport transactionsReport, SpiTransactionReport spiTransactionReport) {
+        return transactionsStreamingConfig.isEnabled()
+                   && transactionsReport.isResponseContentTypeJson()
+                   && ArrayUtils.isEmpty(spiTransactionReport.getTransactionsRaw());
+    }
+
     private ActionStatus createActionStatus(boolean withBalance, TypeAccess access, ResponseObject response) {
         return response.hasError()
                    ? consentMapper.mapActionStatusError(response.getError().getTppMessage().getMessageErrorCode(),
@@ -501,8 +569,9 @@ public class AccountService {
 
     private SpiContextData getSpiContextData(List<PsuIdData> psuIdDataList) {
         //TODO provide correct PSU Data to the SPI https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/701
-        return spiContextDataProvider.provideWithPsuIdData(CollectionUtils.isNotEmpty(psuIdDataList)
-                                                               ? psuIdDataList.get(0)
-                                                               : null);
+        SpiContextData contextData = spiContextDataProvider.provideWithPsuIdData(CollectionUtils.isNotEmpty(psuIdDataList)
+                                                                                     ? psuIdDataList.get(0)
+                                                                                     : null);
+        return spiDeadlineService.withDeadline(contextData);
     }
 }
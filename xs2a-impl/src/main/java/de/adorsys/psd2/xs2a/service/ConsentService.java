@@ -44,6 +44,7 @@ import de.adorsys.psd2.xs2a.service.validator.ValidationResult;
 import de.adorsys.psd2.xs2a.service.validator.ais.CommonConsentObject;
 import de.adorsys.psd2.xs2a.service.validator.ais.consent.*;
 import de.adorsys.psd2.xs2a.service.validator.ais.consent.dto.CreateConsentRequestObject;
+import de.adorsys.psd2.xs2a.service.validator.tpp.AisTppInfoValidator;
 import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
 import de.adorsys.psd2.xs2a.spi.domain.account.SpiAccountConsent;
 import de.adorsys.psd2.xs2a.spi.domain.consent.SpiAisConsentStatusResponse;
@@ -92,6 +93,7 @@ public class ConsentService {
     private final UpdateConsentPsuDataValidator updateConsentPsuDataValidator;
     private final GetConsentAuthorisationsValidator getConsentAuthorisationsValidator;
     private final GetConsentAuthorisationScaStatusValidator getConsentAuthorisationScaStatusValidator;
+    private final AisTppInfoValidator aisTppInfoValidator;
 
     /**
      * Performs create consent operation either by filling the appropriate AccountAccess fields with corresponding
@@ -206,7 +208,7 @@ public class ConsentService {
         ConsentStatus consentStatus = validatedAccountConsent.getConsentStatus();
         if (consentStatus.isFinalisedStatus()) {
             return responseBuilder
-                       .body(new ConsentStatusResponse(consentStatus))
+                       .body(new ConsentStatusResponse(consentStatus, validatedAccountConsent.getVersion()))
                        .build();
         }
 
@@ -220,7 +222,44 @@ public class ConsentService {
         ConsentStatus spiConsentStatus = spiResponse.getPayload().getConsentStatus();
         aisConsentService.updateConsentStatus(consentId, spiConsentStatus);
 
-        return responseBuilder.body(new ConsentStatusResponse(spiConsentStatus)).build();
+        return responseBuilder.body(new ConsentStatusResponse(spiConsentStatus, validatedAccountConsent.getVersion())).build();
+    }
+
+    /**
+     * Gets entity tag of AIS consent in finalised status for conditional requests of TPP, reading only status and
+     * version of the consent. As the status of finalised consents is not requested from ASPSP, the request can be
+     * answered without reading the whole consent, if the entity tag matches.
+     *
+     * @param consentId String representation of AccountConsent identification
+     * @return entity tag of the consent, if the consent exists, belongs to the TPP in request and has finalised status
+     */
+    public Optional<String> getFinalisedConsentETag(String consentId) {
+        return aisConsentService.getAccountConsentStatusVersionById(consentId)
+                   .filter(statusVersion -> statusVersion.getConsentStatus().isFinalisedStatus())
+                   .filter(statusVersion -> aisTppInfoValidator.validateTpp(statusVersion.getTppInfo()).isValid())
+                   .map(statusVersion -> buildConsentETag(statusVersion.getVersion(), statusVersion.getConsentStatus()));
+    }
+
+    /**
+     * Builds entity tag of AIS consent from its version in CMS and its status. Status is part of the entity tag, as
+     * the status requested from ASPSP on read is returned before the version of the updated consent is known.
+     *
+     * @param version       version of the consent in CMS
+     * @param consentStatus status of the consent
+     * @return quoted entity tag
+     */
+    public String buildConsentETag(long version, ConsentStatus consentStatus) {
+        return "\"" + version + "-" + consentStatus + "\"";
+    }
+
+    /**
+     * Records the event of request for AIS consent, answered without reading the consent as it hasn't been modified
+     *
+     * @param consentId String representation of AccountConsent identification
+     * @param eventType type of the request
+     */
+    public void recordNotModifiedConsentRequest(String consentId, EventType eventType) {
+        xs2aEventService.recordAisTppRequest(consentId, eventType);
     }
 
     /**
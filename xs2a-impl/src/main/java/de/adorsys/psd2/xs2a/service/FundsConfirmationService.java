@@ -36,12 +36,13 @@ import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.SpiErrorMapper;
 import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.SpiToXs2aFundsConfirmationMapper;
 import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.Xs2aToSpiFundsConfirmationRequestMapper;
 import de.adorsys.psd2.xs2a.service.profile.AspspProfileServiceWrapper;
+import de.adorsys.psd2.xs2a.service.spi.AsyncSpiProvider;
+import de.adorsys.psd2.xs2a.service.spi.SpiDeadlineService;
 import de.adorsys.psd2.xs2a.service.validator.PiisConsentValidationService;
 import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
 import de.adorsys.psd2.xs2a.spi.domain.fund.SpiFundsConfirmationRequest;
 import de.adorsys.psd2.xs2a.spi.domain.fund.SpiFundsConfirmationResponse;
 import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
-import de.adorsys.psd2.xs2a.spi.service.FundsConfirmationSpi;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.NotNull;
@@ -59,7 +60,8 @@ import static de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorType.PIIS_400;
 @AllArgsConstructor
 public class FundsConfirmationService {
     private final AspspProfileServiceWrapper profileService;
-    private final FundsConfirmationSpi fundsConfirmationSpi;
+    private final AsyncSpiProvider asyncSpiProvider;
+    private final SpiDeadlineService spiDeadlineService;
     private final FundsConfirmationConsentDataService fundsConfirmationConsentDataService;
     private final SpiContextDataProvider spiContextDataProvider;
     private final Xs2aToSpiFundsConfirmationRequestMapper xs2aToSpiFundsConfirmationRequestMapper;
@@ -128,14 +130,16 @@ public class FundsConfirmationService {
                                                      @NotNull FundsConfirmationRequest request,
                                                      @NotNull AspspConsentData aspspConsentData) {
         SpiFundsConfirmationRequest spiRequest = xs2aToSpiFundsConfirmationRequestMapper.mapToSpiFundsConfirmationRequest(request);
-        SpiContextData spiContextData = spiContextDataProvider.provideWithPsuIdData(psuIdData);
-
-        SpiResponse<SpiFundsConfirmationResponse> fundsSufficientCheck = fundsConfirmationSpi.performFundsSufficientCheck(
-            spiContextData,
-            consent,
-            spiRequest,
-            aspspConsentData
-        );
+        SpiContextData spiContextData = spiDeadlineService.withDeadline(spiContextDataProvider.provideWithPsuIdData(psuIdData));
+
+        SpiResponse<SpiFundsConfirmationResponse> fundsSufficientCheck = spiDeadlineService.awaitResponse(
+            asyncSpiProvider.getFundsConfirmationSpi().performFundsSufficientCheck(
+                spiContextData,
+                consent,
+                spiRequest,
+                aspspConsentData
+            ),
+            spiContextData);
 
         if (consent != null) {
             AspspConsentData newAspspConsentData = fundsSufficientCheck.getAspspConsentData();
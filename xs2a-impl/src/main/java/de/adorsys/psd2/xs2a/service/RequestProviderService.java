@@ -21,9 +21,12 @@ import de.adorsys.psd2.xs2a.domain.RequestData;
 import de.adorsys.psd2.xs2a.web.validator.constants.Xs2aHeaderConstant;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 
 import javax.servlet.http.HttpServletRequest;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
@@ -40,6 +43,8 @@ public class RequestProviderService {
     private static final String PSU_ID_TYPE_HEADER = "psu-id-type";
     private static final String PSU_CORPORATE_ID_HEADER = "psu-corporate-id";
     private static final String PSU_CORPORATE_ID_TYPE_HEADER = "psu-corporate-id-type";
+    private static final String WEAK_ETAG_PREFIX = "W/";
+    private static final String ANY_ETAG = "*";
 
     private final HttpServletRequest httpServletRequest;
 
@@ -68,6 +73,34 @@ public class RequestProviderService {
                              getHeader(PSU_CORPORATE_ID_TYPE_HEADER));
     }
 
+    /**
+     * Checks whether the request is conditional, i.e. contains If-None-Match header
+     *
+     * @return <code>true</code> if If-None-Match header is present and not blank
+     */
+    public boolean hasIfNoneMatch() {
+        return StringUtils.isNotBlank(getHeader(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    /**
+     * Checks whether given entity tag is listed in If-None-Match header of the request. Entity tags are compared with
+     * the weak comparison, as If-None-Match is used for GET requests only.
+     *
+     * @param eTag quoted entity tag of the current representation of the resource
+     * @return <code>true</code> if the TPP already has the current representation of the resource
+     */
+    public boolean matchesIfNoneMatch(@NotNull String eTag) {
+        String ifNoneMatch = getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (StringUtils.isBlank(ifNoneMatch)) {
+            return false;
+        }
+
+        String opaqueTag = StringUtils.removeStart(eTag, WEAK_ETAG_PREFIX);
+        return Arrays.stream(ifNoneMatch.split(","))
+                   .map(String::trim)
+                   .anyMatch(tag -> ANY_ETAG.equals(tag) || opaqueTag.equals(StringUtils.removeStart(tag, WEAK_ETAG_PREFIX)));
+    }
+
     private String getHeader(String headerName) {
         return httpServletRequest.getHeader(headerName);
     }
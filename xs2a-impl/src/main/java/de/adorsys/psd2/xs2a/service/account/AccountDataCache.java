@@ -0,0 +1,230 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.account;
+
+import de.adorsys.psd2.xs2a.service.profile.AspspProfileServiceWrapper;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiAccountBalance;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiAccountReference;
+import lombok.Data;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Short-living cache of account details and balances, received from ASPSP.
+ * <p>
+ * Entries are kept per consent, account reference and <code>withBalance</code> flag for the time to live, configured
+ * per endpoint in ASPSP profile, caching of an endpoint is disabled if its time to live is 0. The number of entries is
+ * bounded: once it is exceeded, expired entries and then the least recently used entries are evicted, until 90% of the
+ * maximum is reached. Reads and writes don't lock the cache, only one eviction runs at a time. All entries of a consent
+ * are invalidated as soon as the status or the account access of the consent is changed by XS2A.
+ * <p>
+ * The cache replaces only the call to SPI: consent validation and recording of the consent usage have to be performed
+ * for every request regardless of the cache.
+ */
+@Slf4j
+@Component
+public class AccountDataCache {
+    private static final String ACCOUNT_DETAILS = "accountDetails";
+    private static final String BALANCES = "balances";
+
+    private final AspspProfileServiceWrapper aspspProfileService;
+    private final int maxEntries;
+    private final int entriesAfterEviction;
+    private final Map<CacheKey, CacheEntry> entries = new ConcurrentHashMap<>();
+    private final Lock evictionLock = new ReentrantLock();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public AccountDataCache(AspspProfileServiceWrapper aspspProfileService,
+                            @Value("${xs2a.ais.account-data-cache.max-entries:10000}") int maxEntries) {
+        this.aspspProfileService = aspspProfileService;
+        this.maxEntries = maxEntries;
+        this.entriesAfterEviction = maxEntries - maxEntries / 10;
+    }
+
+    /**
+     * Returns account details, cached for the given consent and account
+     *
+     * @param consentId        String representing an AccountConsent identification
+     * @param accountReference reference to the account
+     * @param withBalance      whether account details contain balances
+     * @return cached account details or empty Optional if there are no valid cached details or the cache is disabled
+     */
+    public Optional<SpiAccountDetails> getAccountDetails(String consentId, SpiAccountReference accountReference, boolean withBalance) {
+        return get(new CacheKey(consentId, ACCOUNT_DETAILS, accountReference, withBalance), aspspProfileService.getAccountDetailsCacheTtlMs())
+                   .map(SpiAccountDetails.class::cast);
+    }
+
+    /**
+     * Caches account details, received from ASPSP, if caching of account details is enabled
+     *
+     * @param consentId        String representing an AccountConsent identification
+     * @param accountReference reference to the account
+     * @param withBalance      whether account details contain balances
+     * @param accountDetails   account details to be cached
+     */
+    public void putAccountDetails(String consentId, SpiAccountReference accountReference, boolean withBalance, SpiAccountDetails accountDetails) {
+        put(new CacheKey(consentId, ACCOUNT_DETAILS, accountReference, withBalance), accountDetails, aspspProfileService.getAccountDetailsCacheTtlMs());
+    }
+
+    /**
+     * Returns balances, cached for the given consent and account
+     *
+     * @param consentId        String representing an AccountConsent identification
+     * @param accountReference reference to the account
+     * @return cached balances or empty Optional if there are no valid cached balances or the cache is disabled
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<List<SpiAccountBalance>> getBalances(String consentId, SpiAccountReference accountReference) {
+        return get(new CacheKey(consentId, BALANCES, accountReference, true), aspspProfileService.getBalancesCacheTtlMs())
+                   .map(value -> (List<SpiAccountBalance>) value);
+    }
+
+    /**
+     * Caches balances, received from ASPSP, if caching of balances is enabled
+     *
+     * @param consentId        String representing an AccountConsent identification
+     * @param accountReference reference to the account
+     * @param balances         balances to be cached
+     */
+    public void putBalances(String consentId, SpiAccountReference accountReference, List<SpiAccountBalance> balances) {
+        put(new CacheKey(consentId, BALANCES, accountReference, true), Collections.unmodifiableList(new ArrayList<>(balances)),
+            aspspProfileService.getBalancesCacheTtlMs());
+    }
+
+    /**
+     * Removes all cached data of the given consent
+     *
+     * @param consentId String representing an AccountConsent identification
+     */
+    public void invalidateConsent(String consentId) {
+        if (entries.keySet().removeIf(key -> key.getConsentId().equals(consentId))) {
+            log.debug("Cached account data of consent {} has been invalidated", consentId);
+        }
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Optional<Object> get(CacheKey key, long ttlMs) {
+        if (ttlMs <= 0) {
+            return Optional.empty();
+        }
+
+        CacheEntry entry = entries.get(key);
+        if (entry != null && entry.isExpired()) {
+            entries.remove(key, entry);
+            entry = null;
+        }
+
+        if (entry == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        entry.touch();
+        hits.increment();
+        return Optional.of(entry.getValue());
+    }
+
+    private void put(CacheKey key, Object value, long ttlMs) {
+        if (ttlMs <= 0 || value == null) {
+            return;
+        }
+
+        CacheEntry entry = new CacheEntry(value, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ttlMs));
+        entries.put(key, entry);
+        if (entries.size() > maxEntries) {
+            evict();
+        }
+    }
+
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            entries.values().removeIf(CacheEntry::isExpired);
+            int excessEntries = entries.size() - entriesAfterEviction;
+            if (excessEntries <= 0) {
+                return;
+            }
+
+            List<Map.Entry<CacheKey, CacheEntry>> leastRecentlyUsedEntries = entries.entrySet().stream()
+                                                                               .sorted(Comparator.comparingLong(entry -> entry.getValue().getLastAccessNanos()))
+                                                                               .limit(excessEntries)
+                                                                               .collect(Collectors.toList());
+            for (Map.Entry<CacheKey, CacheEntry> entry : leastRecentlyUsedEntries) {
+                if (entries.remove(entry.getKey(), entry.getValue())) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @Data
+    private static class CacheKey {
+        private final String consentId;
+        private final String endpoint;
+        private final SpiAccountReference accountReference;
+        private final boolean withBalance;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class CacheEntry {
+        private final Object value;
+        private final long expiresAtNanos;
+        private volatile long lastAccessNanos = System.nanoTime();
+
+        void touch() {
+            lastAccessNanos = System.nanoTime();
+        }
+
+        boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.account;
+
+import de.adorsys.psd2.xs2a.config.AccountReadCoalescingConfig;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical reads of account data, so that they share one in-flight SPI call (single-flight).
+ * <p>
+ * The first request with a given key performs the SPI call on its own thread, requests with the same key arriving
+ * while the call is in flight wait for and receive the same SPI response. The key is removed as soon as the call is
+ * completed, so responses are never reused by later requests. Only the SPI call is shared: validation and recording
+ * of the consent usage (e.g. frequency per day) stay with each request.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AccountReadCoalescingService {
+    private final AccountReadCoalescingConfig accountReadCoalescingConfig;
+    private final Map<List<Object>, CompletableFuture<SpiResponse<?>>> inFlightReads = new ConcurrentHashMap<>();
+
+    /**
+     * Performs the SPI read or joins the identical read, that is currently in flight
+     *
+     * @param key     identity of the read, has to contain all values the SPI response depends on (e.g. consent,
+     *                account, request parameters)
+     * @param spiRead call to SPI, performed if no identical read is in flight
+     * @param <T>     type of SPI response payload
+     * @return response of the SPI call, possibly shared with other requests. The response must not be modified.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> SpiResponse<T> read(List<Object> key, Supplier<SpiResponse<T>> spiRead) {
+        if (!accountReadCoalescingConfig.isEnabled()) {
+            return spiRead.get();
+        }
+
+        CompletableFuture<SpiResponse<?>> ownRead = new CompletableFuture<>();
+        CompletableFuture<SpiResponse<?>> inFlightRead = inFlightReads.putIfAbsent(key, ownRead);
+        if (inFlightRead != null) {
+            log.debug("Joining in-flight SPI read {}", key.get(0));
+            return (SpiResponse<T>) join(inFlightRead);
+        }
+
+        try {
+            SpiResponse<T> response = spiRead.get();
+            ownRead.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            ownRead.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlightReads.remove(key, ownRead);
+        }
+    }
+
+    private SpiResponse<?> join(CompletableFuture<SpiResponse<?>> inFlightRead) {
+        try {
+            return inFlightRead.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.account;
+
+import de.adorsys.psd2.xs2a.config.BalanceEnrichmentConfig;
+import de.adorsys.psd2.xs2a.core.consent.AspspConsentData;
+import de.adorsys.psd2.xs2a.core.error.MessageErrorCode;
+import de.adorsys.psd2.xs2a.core.error.TppMessage;
+import de.adorsys.psd2.xs2a.core.profile.AccountReference;
+import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.Xs2aToSpiAccountReferenceMapper;
+import de.adorsys.psd2.xs2a.service.spi.AsyncSpiProvider;
+import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiAccountBalance;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiAccountConsent;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiAccountReference;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponseStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Enriches the account list with balances by requesting the balances of each account from the SPI.
+ * <p>
+ * By default the balances of all accounts are requested concurrently with the ASPSP consent data of the account list, so
+ * that the latency of the account list is defined by the slowest balance request instead of the sum of all of them.
+ * ASPSP consent data, returned by balance requests, is written back only if it doesn't conflict: if several requests
+ * return different updates, the update of the first account is kept and the conflict is logged. ASPSPs, whose balance
+ * requests depend on the ASPSP consent data of the previous request, have to enable
+ * {@code xs2a.ais.balance-enrichment.chain-consent-data}: then balance requests are executed sequentially and the ASPSP
+ * consent data returned by each request is passed to the next one.
+ * <p>
+ * In both modes balance requests are executed on a bounded executor and awaited up to the configured deadline for the
+ * whole list. Requests, that haven't completed in time, are cancelled and their worker threads are interrupted. Requests,
+ * that are rejected by the executor, are treated as failed. Results are merged in the order of the account list.
+ */
+@Slf4j
+@Service
+public class BalanceEnrichmentService {
+    private final AsyncSpiProvider asyncSpiProvider;
+    private final Xs2aToSpiAccountReferenceMapper xs2aToSpiAccountReferenceMapper;
+    private final BalanceEnrichmentConfig balanceEnrichmentConfig;
+    private final ExecutorService balanceEnrichmentExecutor;
+
+    public BalanceEnrichmentService(AsyncSpiProvider asyncSpiProvider, Xs2aToSpiAccountReferenceMapper xs2aToSpiAccountReferenceMapper,
+                                    BalanceEnrichmentConfig balanceEnrichmentConfig,
+                                    @Qualifier("balanceEnrichmentExecutor") ExecutorService balanceEnrichmentExecutor) {
+        this.asyncSpiProvider = asyncSpiProvider;
+        this.xs2aToSpiAccountReferenceMapper = xs2aToSpiAccountReferenceMapper;
+        this.balanceEnrichmentConfig = balanceEnrichmentConfig;
+        this.balanceEnrichmentExecutor = balanceEnrichmentExecutor;
+    }
+
+    /**
+     * Checks whether balances of account list should be requested by XS2A account by account
+     *
+     * @return <code>true</code> if balance enrichment is enabled, <code>false</code> otherwise
+     */
+    public boolean isEnabled() {
+        return balanceEnrichmentConfig.isEnabled();
+    }
+
+    /**
+     * Requests balances for all accounts of the list, that are allowed by consent and don't have balances yet.
+     * Balance requests are executed concurrently with ASPSP consent data, returned with the account list, and the update
+     * of ASPSP consent data returned by them is passed to the resulting response. If ASPSP consent data has to be chained,
+     * each balance request receives the ASPSP consent data of the previous one and the last one is returned.
+     *
+     * @param contextData         holder of call's context data (e.g. about PSU and TPP)
+     * @param accountListResponse successful response of the account list request
+     * @param balanceAccesses     account references from the consent, that are allowed to be accessed with balances
+     * @param accountConsent      SPI account consent object
+     * @return response with the same account list, enriched with balances, or the error of the failed balance request if
+     * the failure policy requires to fail the whole request
+     */
+    public SpiResponse<List<SpiAccountDetails>> enrichWithBalances(SpiContextData contextData,
+                                                                   SpiResponse<List<SpiAccountDetails>> accountListResponse,
+                                                                   List<AccountReference> balanceAccesses,
+                                                                   SpiAccountConsent accountConsent) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(balanceEnrichmentConfig.getTimeoutMs());
+        List<SpiAccountDetails> accountDetailsList = accountListResponse.getPayload();
+        BalanceEnrichmentResult result = balanceEnrichmentConfig.isChainConsentData()
+                                             ? enrichSequentially(contextData, accountDetailsList, balanceAccesses, accountConsent, accountListResponse.getAspspConsentData(), deadline)
+                                             : enrichConcurrently(contextData, accountDetailsList, balanceAccesses, accountConsent, accountListResponse.getAspspConsentData(), deadline);
+
+        SpiResponse<List<SpiAccountBalance>> failedResponse = result.failedResponse;
+        if (failedResponse != null && balanceEnrichmentConfig.getFailurePolicy() == BalanceEnrichmentFailurePolicy.FAIL_REQUEST) {
+            return SpiResponse.<List<SpiAccountDetails>>builder()
+                       .aspspConsentData(result.aspspConsentData)
+                       .error(failedResponse.getErrors())
+                       .fail(failedResponse.getResponseStatus());
+        }
+
+        return SpiResponse.<List<SpiAccountDetails>>builder()
+                   .payload(accountDetailsList)
+                   .aspspConsentData(result.aspspConsentData)
+                   .success();
+    }
+
+    private BalanceEnrichmentResult enrichSequentially(SpiContextData contextData, List<SpiAccountDetails> accountDetailsList,
+                                                       List<AccountReference> balanceAccesses, SpiAccountConsent accountConsent,
+                                                       AspspConsentData aspspConsentData, long deadline) {
+        BalanceEnrichmentResult result = new BalanceEnrichmentResult(aspspConsentData);
+        for (SpiAccountDetails accountDetails : accountDetailsList) {
+            Optional<SpiAccountReference> accountReference = findAccountReferenceToEnrich(balanceAccesses, accountDetails);
+            if (accountReference.isPresent() && System.nanoTime() - deadline >= 0) {
+                log.info("Balance request for account {} is skipped, deadline of {} ms is exceeded", accountDetails.getResourceId(), balanceEnrichmentConfig.getTimeoutMs());
+                result.merge(accountDetails, buildTechnicalFailure());
+            } else if (accountReference.isPresent()) {
+                AspspConsentData currentAspspConsentData = result.aspspConsentData;
+                BalanceRequest balanceRequest = submit(() -> requestBalances(contextData, accountReference.get(), accountConsent, currentAspspConsentData));
+                result.merge(accountDetails, awaitBalanceResponse(balanceRequest, deadline, accountDetails.getResourceId()));
+            }
+        }
+        return result;
+    }
+
+    private BalanceEnrichmentResult enrichConcurrently(SpiContextData contextData, List<SpiAccountDetails> accountDetailsList,
+                                                       List<AccountReference> balanceAccesses, SpiAccountConsent accountConsent,
+                                                       AspspConsentData aspspConsentData, long deadline) {
+        List<SpiAccountDetails> accountsToEnrich = new ArrayList<>();
+        List<BalanceRequest> balanceRequests = new ArrayList<>();
+        for (SpiAccountDetails accountDetails : accountDetailsList) {
+            Optional<SpiAccountReference> accountReference = findAccountReferenceToEnrich(balanceAccesses, accountDetails);
+            if (accountReference.isPresent()) {
+                accountsToEnrich.add(accountDetails);
+                balanceRequests.add(submit(() -> requestBalances(contextData, accountReference.get(), accountConsent, aspspConsentData)));
+            }
+        }
+
+        BalanceEnrichmentResult result = new BalanceEnrichmentResult(aspspConsentData);
+        for (int i = 0; i < balanceRequests.size(); i++) {
+            SpiAccountDetails accountDetails = accountsToEnrich.get(i);
+            SpiResponse<List<SpiAccountBalance>> balanceResponse = awaitBalanceResponse(balanceRequests.get(i), deadline, accountDetails.getResourceId());
+            result.mergeBalances(accountDetails, balanceResponse);
+            if (!result.mergeConcurrentConsentDataUpdate(aspspConsentData, balanceResponse.getAspspConsentData())) {
+                log.warn("ASPSP consent data, returned by balance request for account {}, conflicts with the update of a previous account and is ignored. " +
+                             "Enable xs2a.ais.balance-enrichment.chain-consent-data, if balance requests depend on each other", accountDetails.getResourceId());
+            }
+        }
+        return result;
+    }
+
+    private CompletionStage<SpiResponse<List<SpiAccountBalance>>> requestBalances(SpiContextData contextData, SpiAccountReference accountReference,
+                                                                                  SpiAccountConsent accountConsent, AspspConsentData aspspConsentData) {
+        return asyncSpiProvider.getAccountSpi().requestBalancesForAccount(contextData, accountReference, accountConsent, aspspConsentData);
+    }
+
+    private BalanceRequest submit(Supplier<CompletionStage<SpiResponse<List<SpiAccountBalance>>>> spiCall) {
+        BalanceRequest balanceRequest = new BalanceRequest(spiCall);
+        try {
+            balanceEnrichmentExecutor.execute(balanceRequest.task);
+        } catch (RejectedExecutionException e) {
+            balanceRequest.response.completeExceptionally(e);
+        }
+        return balanceRequest;
+    }
+
+    private SpiResponse<List<SpiAccountBalance>> awaitBalanceResponse(BalanceRequest balanceRequest, long deadline, String resourceId) {
+        try {
+            return balanceRequest.response.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            balanceRequest.cancel();
+            log.info("Balance request for account {} has not completed within {} ms", resourceId, balanceEnrichmentConfig.getTimeoutMs());
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                log.warn("Balance request for account {} has been rejected: balance enrichment executor is saturated", resourceId);
+            } else {
+                log.info("Balance request for account {} has failed: {}", resourceId, e.getCause().getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            balanceRequest.cancel();
+        }
+        return buildTechnicalFailure();
+    }
+
+    private SpiResponse<List<SpiAccountBalance>> buildTechnicalFailure() {
+        return SpiResponse.<List<SpiAccountBalance>>builder()
+                   .error(new TppMessage(MessageErrorCode.INTERNAL_SERVER_ERROR, "Balances of account couldn't be retrieved"))
+                   .fail(SpiResponseStatus.TECHNICAL_FAILURE);
+    }
+
+    private Optional<SpiAccountReference> findAccountReferenceToEnrich(List<AccountReference> references, SpiAccountDetails accountDetails) {
+        if (CollectionUtils.isNotEmpty(accountDetails.getBalances())) {
+            return Optional.empty();
+        }
+        return CollectionUtils.emptyIfNull(references).stream()
+                   .filter(accountReference -> StringUtils.equals(accountReference.getResourceId(), accountDetails.getResourceId()))
+                   .findFirst()
+                   .map(xs2aToSpiAccountReferenceMapper::mapToSpiAccountReference);
+    }
+
+    /**
+     * Balance request, executed by the executor as {@link FutureTask}, so that cancelling it interrupts the worker thread
+     * of a blocking SPI call. The response stage of an asynchronous SPI is cancelled as well.
+     */
+    private static class BalanceRequest {
+        private final CompletableFuture<SpiResponse<List<SpiAccountBalance>>> response = new CompletableFuture<>();
+        private final AtomicReference<CompletionStage<SpiResponse<List<SpiAccountBalance>>>> spiResponse = new AtomicReference<>();
+        private final FutureTask<Void> task;
+
+        private BalanceRequest(Supplier<CompletionStage<SpiResponse<List<SpiAccountBalance>>>> spiCall) {
+            this.task = new FutureTask<>(() -> {
+                try {
+                    CompletionStage<SpiResponse<List<SpiAccountBalance>>> stage = spiCall.get();
+                    spiResponse.set(stage);
+                    stage.whenComplete((balances, throwable) -> {
+                        if (throwable != null) {
+                            response.completeExceptionally(throwable);
+                        } else {
+                            response.complete(balances);
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    response.completeExceptionally(e);
+                }
+            }, null);
+        }
+
+        private void cancel() {
+            task.cancel(true);
+            response.cancel(false);
+            CompletionStage<SpiResponse<List<SpiAccountBalance>>> stage = spiResponse.get();
+            if (stage != null) {
+                stage.toCompletableFuture().cancel(true);
+            }
+        }
+    }
+
+    private static class BalanceEnrichmentResult {
+        private AspspConsentData aspspConsentData;
+        private SpiResponse<List<SpiAccountBalance>> failedResponse;
+
+        private BalanceEnrichmentResult(AspspConsentData aspspConsentData) {
+            this.aspspConsentData = aspspConsentData;
+        }
+
+        private void merge(SpiAccountDetails accountDetails, SpiResponse<List<SpiAccountBalance>> balanceResponse) {
+            mergeBalances(accountDetails, balanceResponse);
+            if (balanceResponse.getAspspConsentData() != null) {
+                aspspConsentData = balanceResponse.getAspspConsentData();
+            }
+        }
+
+        /**
+         * Takes over the update of ASPSP consent data, returned by one of concurrent balance requests
+         *
+         * @return <code>false</code> if the update conflicts with the update of another request and is ignored
+         */
+        private boolean mergeConcurrentConsentDataUpdate(AspspConsentData initialAspspConsentData, AspspConsentData returnedAspspConsentData) {
+            if (returnedAspspConsentData == null || returnedAspspConsentData.equals(initialAspspConsentData)
+                    || returnedAspspConsentData.equals(aspspConsentData)) {
+                return true;
+            }
+            if (aspspConsentData != null && !aspspConsentData.equals(initialAspspConsentData)) {
+                return false;
+            }
+            aspspConsentData = returnedAspspConsentData;
+            return true;
+        }
+
+        private void mergeBalances(SpiAccountDetails accountDetails, SpiResponse<List<SpiAccountBalance>> balanceResponse) {
+            if (balanceResponse.isSuccessful()) {
+                accountDetails.setBalances(balanceResponse.getPayload());
+            } else if (failedResponse == null) {
+                failedResponse = balanceResponse;
+            }
+        }
+    }
+}
@@ -27,9 +27,11 @@ import de.adorsys.psd2.xs2a.service.consent.PisAspspDataService;
 import de.adorsys.psd2.xs2a.service.context.SpiContextDataProvider;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceType;
 import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.SpiErrorMapper;
+import de.adorsys.psd2.xs2a.service.spi.AsyncSpiProvider;
+import de.adorsys.psd2.xs2a.service.spi.SpiDeadlineService;
+import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
 import de.adorsys.psd2.xs2a.spi.domain.authorisation.SpiAuthorisationDecoupledScaResponse;
 import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
-import de.adorsys.psd2.xs2a.spi.service.PaymentAuthorisationSpi;
 import de.adorsys.psd2.xs2a.spi.service.PaymentCancellationSpi;
 import de.adorsys.psd2.xs2a.spi.service.SpiPayment;
 import lombok.RequiredArgsConstructor;
@@ -40,7 +42,8 @@ import static de.adorsys.psd2.xs2a.core.sca.ScaStatus.SCAMETHODSELECTED;
 @Service
 @RequiredArgsConstructor
 public class PisCommonDecoupledService {
-    private final PaymentAuthorisationSpi paymentAuthorisationSpi;
+    private final AsyncSpiProvider asyncSpiProvider;
+    private final SpiDeadlineService spiDeadlineService;
     private final PaymentCancellationSpi paymentCancellationSpi;
     private final SpiContextDataProvider spiContextDataProvider;
     private final PisAspspDataService pisAspspDataService;
@@ -69,7 +72,10 @@ public class PisCommonDecoupledService {
 
         switch (scaType) {
             case INITIATION:
-                spiResponse = paymentAuthorisationSpi.startScaDecoupled(spiContextDataProvider.provideWithPsuIdData(psuData), request.getAuthorisationId(), authenticationMethodId, payment, aspspConsentData);
+                SpiContextData contextData = spiDeadlineService.withDeadline(spiContextDataProvider.provideWithPsuIdData(psuData));
+                spiResponse = spiDeadlineService.awaitResponse(
+                    asyncSpiProvider.getPaymentAuthorisationSpi().startScaDecoupled(contextData, request.getAuthorisationId(), authenticationMethodId, payment, aspspConsentData),
+                    contextData);
                 break;
             case CANCELLATION:
                 spiResponse = paymentCancellationSpi.startScaDecoupled(spiContextDataProvider.provideWithPsuIdData(psuData), request.getAuthorisationId(), authenticationMethodId, payment, aspspConsentData);
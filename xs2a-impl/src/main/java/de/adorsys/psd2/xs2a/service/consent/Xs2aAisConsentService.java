@@ -28,6 +28,7 @@ import de.adorsys.psd2.xs2a.core.sca.ScaStatus;
 import de.adorsys.psd2.xs2a.core.tpp.TppInfo;
 import de.adorsys.psd2.xs2a.domain.consent.*;
 import de.adorsys.psd2.xs2a.service.ScaApproachResolver;
+import de.adorsys.psd2.xs2a.service.account.AccountDataCache;
 import de.adorsys.psd2.xs2a.service.mapper.consent.Xs2aAisConsentAuthorisationMapper;
 import de.adorsys.psd2.xs2a.service.mapper.consent.Xs2aAisConsentMapper;
 import de.adorsys.psd2.xs2a.service.mapper.consent.Xs2aAuthenticationObjectToCmsScaMethodMapper;
@@ -48,6 +49,7 @@ public class Xs2aAisConsentService {
     private final Xs2aAuthenticationObjectToCmsScaMethodMapper xs2AAuthenticationObjectToCmsScaMethodMapper;
     private final FrequencyPerDateCalculationService frequencyPerDateCalculationService;
     private final ScaApproachResolver scaApproachResolver;
+    private final AccountDataCache accountDataCache;
 
     /**
      * Sends a POST request to CMS to store created AISconsent
@@ -96,6 +98,16 @@ public class Xs2aAisConsentService {
         return aisConsentService.getConsentStatusById(consentId);
     }
 
+    /**
+     * Requests CMS to retrieve status, version and TPP of AIS consent by its identifier, without reading the whole consent
+     *
+     * @param consentId String representation of identifier of stored consent
+     * @return Response containing status, version and TPP of AIS Consent
+     */
+    public Optional<AisConsentStatusVersionResponse> getAccountConsentStatusVersionById(String consentId) {
+        return aisConsentService.getConsentStatusVersionById(consentId);
+    }
+
     /**
      * Requests CMS to find old consents for current TPP and PSU and terminate them.
      *
@@ -107,13 +119,14 @@ public class Xs2aAisConsentService {
     }
 
     /**
-     * Requests CMS to update consent status into provided one
+     * Requests CMS to update consent status into provided one and invalidates account data, cached for the consent
      *
      * @param consentId     String representation of identifier of stored consent
      * @param consentStatus ConsentStatus the consent be changed to
      */
     public void updateConsentStatus(String consentId, ConsentStatus consentStatus) {
         aisConsentService.updateConsentStatusById(consentId, consentStatus);
+        accountDataCache.invalidateConsent(consentId);
     }
 
     /**
@@ -171,7 +184,8 @@ public class Xs2aAisConsentService {
     }
 
     /**
-     * Sends a PUT request to CMS to update AIS account access information by consent ID
+     * Sends a PUT request to CMS to update AIS account access information by consent ID and invalidates account data,
+     * cached for the consent
      *
      * @param consentId            consentId String representation of identifier of stored consent
      * @param aisAccountAccessInfo AIS account access information
@@ -179,6 +193,7 @@ public class Xs2aAisConsentService {
      * @return Response containing AIS Consent
      */
     public Optional<AccountConsent> updateAspspAccountAccess(String consentId, AisAccountAccessInfo aisAccountAccessInfo) {
+        accountDataCache.invalidateConsent(consentId);
         return aisConsentService.updateAspspAccountAccessWithResponse(consentId, aisAccountAccessInfo)
                    .map(aisConsentMapper::mapToAccountConsent);
     }
@@ -17,20 +17,21 @@
 package de.adorsys.psd2.xs2a.service.discovery;
 
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceType;
-import org.springframework.util.AntPathMatcher;
 
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static de.adorsys.psd2.xs2a.config.Xs2aEndpointPathConstant.*;
 import static de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceType.*;
 
 class ServiceTypeDiscovery {
-    private final static AntPathMatcher matcher = new AntPathMatcher();
-    private final static Map<String, ServiceType> pathToServiceType;
+    private static final char PATH_SEPARATOR = '/';
+    private static final String ANY_SUFFIX_PATTERN = "**";
+    private static final PathNode root;
 
     static {
-        pathToServiceType = new HashMap<>();
+        Map<String, ServiceType> pathToServiceType = new LinkedHashMap<>();
         pathToServiceType.put(ACCOUNTS_PATH, AIS);
         pathToServiceType.put(CONSENTS_PATH, AIS);
         pathToServiceType.put(SINGLE_PAYMENTS_PATH, PIS);
@@ -38,23 +39,96 @@ class ServiceTypeDiscovery {
         pathToServiceType.put(BULK_PAYMENTS_PATH, PIS);
         pathToServiceType.put(FUNDS_CONFIRMATION_PATH, PIIS);
         pathToServiceType.put(SIGNING_BASKETS_PATH, SB);
+
+        root = new PathNode(null);
+        pathToServiceType.forEach(ServiceTypeDiscovery::addPattern);
+    }
+
+    private ServiceTypeDiscovery() {
     }
 
     /**
-     * Returns service type by checking incoming path on existing paths patterns matching (each pattern is associated with corresponding service type).
+     * Returns service type by walking the segments of incoming path through the prefix tree, that is built once from
+     * the existing paths patterns (each pattern is associated with corresponding service type).
+     * Like with Ant-style pattern matching, empty path segments are ignored.
      *
      * @param targetPath target path to be checked on pattern matching
      * @return Service Type value
      */
     static ServiceType getServiceType(String targetPath) {
-        for (Map.Entry<String, ServiceType> entry : pathToServiceType.entrySet()) {
-            String pattern = entry.getKey();
+        if (targetPath == null || targetPath.isEmpty() || targetPath.charAt(0) != PATH_SEPARATOR) {
+            throw new IllegalArgumentException("Illegal path: " + targetPath);
+        }
+
+        PathNode node = root;
+        int length = targetPath.length();
+        int segmentStart = 0;
+        while (node.serviceType == null) {
+            while (segmentStart < length && targetPath.charAt(segmentStart) == PATH_SEPARATOR) {
+                segmentStart++;
+            }
+            if (segmentStart == length) {
+                break;
+            }
+            int segmentEnd = targetPath.indexOf(PATH_SEPARATOR, segmentStart);
+            if (segmentEnd < 0) {
+                segmentEnd = length;
+            }
+
+            node = node.getChild(targetPath, segmentStart, segmentEnd - segmentStart);
+            if (node == null) {
+                throw new IllegalArgumentException("Illegal path: " + targetPath);
+            }
+            segmentStart = segmentEnd;
+        }
+
+        if (node.serviceType == null) {
+            throw new IllegalArgumentException("Illegal path: " + targetPath);
+        }
+        return node.serviceType;
+    }
+
+    private static void addPattern(String pattern, ServiceType serviceType) {
+        String[] segments = Arrays.stream(pattern.split(String.valueOf(PATH_SEPARATOR)))
+                                .filter(s -> !s.isEmpty())
+                                .toArray(String[]::new);
+        if (segments.length < 2 || !ANY_SUFFIX_PATTERN.equals(segments[segments.length - 1])) {
+            throw new IllegalStateException("Only patterns with literal segments ending with '/**' are supported: " + pattern);
+        }
+
+        PathNode node = root;
+        for (int i = 0; i < segments.length - 1; i++) {
+            node = node.getOrAddChild(segments[i]);
+        }
+        node.serviceType = serviceType;
+    }
+
+    private static class PathNode {
+        private final String segment;
+        private PathNode[] children = new PathNode[0];
+        private ServiceType serviceType;
+
+        private PathNode(String segment) {
+            this.segment = segment;
+        }
 
-            if (matcher.match(pattern, targetPath)) {
-                return entry.getValue();
+        private PathNode getChild(String path, int offset, int length) {
+            for (PathNode child : children) {
+                if (child.segment.length() == length && path.regionMatches(offset, child.segment, 0, length)) {
+                    return child;
+                }
             }
+            return null;
         }
 
-        throw new IllegalArgumentException("Illegal path: " + targetPath);
+        private PathNode getOrAddChild(String childSegment) {
+            PathNode child = getChild(childSegment, 0, childSegment.length());
+            if (child == null) {
+                child = new PathNode(childSegment);
+                children = Arrays.copyOf(children, children.length + 1);
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
     }
 }
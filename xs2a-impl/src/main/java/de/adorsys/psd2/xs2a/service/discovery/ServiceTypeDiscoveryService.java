@@ -26,15 +26,26 @@ import javax.servlet.http.HttpServletRequest;
 @Service
 @RequiredArgsConstructor
 public class ServiceTypeDiscoveryService {
+    static final String SERVICE_TYPE_ATTRIBUTE = ServiceTypeDiscoveryService.class.getName() + ".SERVICE_TYPE";
+    private static final UrlPathHelper URL_PATH_HELPER = new UrlPathHelper();
+
     private final HttpServletRequest request;
 
     /**
-     * Gets service type from request URI by invoking ServiceTypeDiscovery
+     * Gets service type from request URI by invoking ServiceTypeDiscovery. The result is stored as request attribute,
+     * so the path is resolved only once per request.
      *
      * @return ServiceType value
      */
     public ServiceType getServiceType() {
-        return ServiceTypeDiscovery.getServiceType(new UrlPathHelper().getPathWithinApplication(request));
+        Object cachedServiceType = request.getAttribute(SERVICE_TYPE_ATTRIBUTE);
+        if (cachedServiceType instanceof ServiceType) {
+            return (ServiceType) cachedServiceType;
+        }
+
+        ServiceType serviceType = ServiceTypeDiscovery.getServiceType(URL_PATH_HELPER.getPathWithinApplication(request));
+        request.setAttribute(SERVICE_TYPE_ATTRIBUTE, serviceType);
+        return serviceType;
     }
 }
 
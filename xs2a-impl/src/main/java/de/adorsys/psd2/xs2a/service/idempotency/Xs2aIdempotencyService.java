@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.idempotency;
+
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyKey;
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyReservation;
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyStatus;
+import de.adorsys.psd2.consent.api.idempotency.IdempotentResponse;
+import de.adorsys.psd2.consent.api.service.IdempotencyService;
+import de.adorsys.psd2.xs2a.config.IdempotencyConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Makes payment initiation and consent creation requests idempotent: a request, that is repeated by the TPP with the
+ * same X-Request-ID and the same body, is answered with the stored response of the first request instead of being
+ * processed again.
+ * <p>
+ * The requests are reserved and their responses are stored in CMS, so the repeated request is recognised by any XS2A
+ * instance. A repeated request, that arrives while the first one is still in progress, polls CMS every
+ * {@code xs2a.idempotency.poll-interval-ms} until the response is stored or the first request is released, but not
+ * longer than {@code xs2a.idempotency.wait-timeout-ms}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class Xs2aIdempotencyService {
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    private final IdempotencyService idempotencyService;
+    private final IdempotencyConfig idempotencyConfig;
+
+    /**
+     * Builds the key of the request
+     *
+     * @param tppId      ID of the TPP, that has sent the request
+     * @param xRequestId X-Request-ID of the request
+     * @param body       raw body of the request
+     * @return key of the request
+     */
+    public IdempotencyKey buildKey(String tppId, String xRequestId, byte[] body) {
+        return new IdempotencyKey(tppId, xRequestId, DIGEST_ALGORITHM + "=" + digest(body));
+    }
+
+    /**
+     * Reserves the request, waiting for the same request if it is in progress
+     *
+     * @param idempotencyKey key of the request
+     * @return RESERVED if the request has to be processed, COMPLETED with the response to be replayed or IN_PROGRESS
+     * if the same request has not been finished within the wait timeout
+     */
+    public IdempotencyReservation reserve(IdempotencyKey idempotencyKey) {
+        long deadline = System.currentTimeMillis() + idempotencyConfig.getWaitTimeoutMs();
+        IdempotencyReservation reservation = idempotencyService.reserve(idempotencyKey);
+
+        while (reservation.getStatus() == IdempotencyStatus.IN_PROGRESS
+                   && System.currentTimeMillis() < deadline
+                   && pause()) {
+            reservation = idempotencyService.reserve(idempotencyKey);
+        }
+
+        if (reservation.getStatus() == IdempotencyStatus.IN_PROGRESS) {
+            log.info("X-Request-ID: [{}]. Repeated request has not been processed, because the same request is still in progress", idempotencyKey.getXRequestId());
+        }
+        return reservation;
+    }
+
+    /**
+     * Stores the response of the reserved request. The response has been already produced, so failures are only logged
+     * and the caller is expected to release the reservation instead.
+     *
+     * @param idempotencyKey key of the request
+     * @param response       response of the request
+     * @return <code>true</code> if the response has been stored, <code>false</code> otherwise
+     */
+    public boolean complete(IdempotencyKey idempotencyKey, IdempotentResponse response) {
+        try {
+            if (idempotencyService.complete(idempotencyKey, response)) {
+                return true;
+            }
+            log.warn("X-Request-ID: [{}]. Response of idempotent request couldn't be stored: reservation not found", idempotencyKey.getXRequestId());
+        } catch (RuntimeException e) {
+            log.warn("X-Request-ID: [{}]. Response of idempotent request couldn't be stored: {}", idempotencyKey.getXRequestId(), e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * Releases the reserved request, that has not been processed successfully, so the TPP can repeat it.
+     * Failures are only logged, the reservation expires anyway.
+     *
+     * @param idempotencyKey key of the request
+     */
+    public void release(IdempotencyKey idempotencyKey) {
+        try {
+            idempotencyService.release(idempotencyKey);
+        } catch (RuntimeException e) {
+            log.warn("X-Request-ID: [{}]. Idempotent request couldn't be released: {}", idempotencyKey.getXRequestId(), e.getMessage());
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(idempotencyConfig.getPollIntervalMs());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private String digest(byte[] body) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance(DIGEST_ALGORITHM).digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not supported", e);
+        }
+    }
+}
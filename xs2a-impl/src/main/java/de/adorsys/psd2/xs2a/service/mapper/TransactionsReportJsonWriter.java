@@ -0,0 +1,274 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import de.adorsys.psd2.model.AccountReport;
+import de.adorsys.psd2.model.PurposeCode;
+import de.adorsys.psd2.model.TransactionsResponse200Json;
+import de.adorsys.psd2.xs2a.domain.account.Xs2aTransactionsReport;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiAccountReference;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiExchangeRate;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.psd2.xs2a.spi.domain.common.SpiAmount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Writes JSON transaction reports directly from SPI transactions into the response, without mapping them to XS2A
+ * {@link de.adorsys.psd2.xs2a.domain.Transactions} and PSD2 {@link de.adorsys.psd2.model.TransactionDetails} first.
+ * <p>
+ * The written JSON is the same as the serialised {@link AccountModelMapper#mapToTransactionsResponse200Json} result:
+ * properties are written in the order of the PSD2 model and properties with <code>null</code> values are omitted.
+ * Account reference, balances and links are still mapped by {@link AccountModelMapper}, as they don't grow with the
+ * size of the report.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransactionsReportJsonWriter {
+    private static final Predicate<SpiTransaction> BOOKED_PREDICATE = SpiTransaction::isBookedTransaction;
+    private static final Predicate<SpiTransaction> PENDING_PREDICATE = SpiTransaction::isPendingTransaction;
+
+    private final AccountModelMapper accountModelMapper;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Wraps the streamed transaction report into a response body, that is written by the Jackson message converter
+     *
+     * @param transactionsReport transaction report with SPI transactions
+     * @return response body writing the PSD2 transaction report
+     */
+    public JsonSerializable mapToTransactionsResponseJson(Xs2aTransactionsReport transactionsReport) {
+        return new StreamedTransactionsResponse(transactionsReport);
+    }
+
+    /**
+     * Counts characters of the JSON transaction report without keeping the written JSON in memory
+     *
+     * @param transactionsReport transaction report with SPI transactions
+     * @return number of characters in the JSON transaction report, <code>-1</code> if the report couldn't be written
+     */
+    public long countCharacters(Xs2aTransactionsReport transactionsReport) {
+        CountingWriter countingWriter = new CountingWriter();
+        try {
+            objectMapper.writeValue(countingWriter, mapToTransactionsResponseJson(transactionsReport));
+        } catch (IOException e) {
+            log.error("Can't write transaction report to json: {}", e.getMessage(), e);
+            return -1;
+        }
+        return countingWriter.count;
+    }
+
+    void writeTransactionsResponse(Xs2aTransactionsReport transactionsReport, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        TransactionsResponse200Json response = accountModelMapper.mapToTransactionsResponse200Json(transactionsReport);
+        AccountReport accountReport = response.getTransactions();
+        List<SpiTransaction> transactions = transactionsReport.getSpiTransactions();
+        JsonSerializer<Object> dateSerializer = provider.findValueSerializer(LocalDate.class);
+
+        gen.writeStartObject();
+        writeObjectField("account", response.getAccount(), gen, provider);
+
+        gen.writeObjectFieldStart("transactions");
+        writeTransactionList("booked", transactions, BOOKED_PREDICATE, gen, provider, dateSerializer);
+        writeTransactionList("pending", transactions, PENDING_PREDICATE, gen, provider, dateSerializer);
+        writeObjectField("_links", accountReport.getLinks(), gen, provider);
+        gen.writeEndObject();
+
+        writeObjectField("balances", response.getBalances(), gen, provider);
+        writeObjectField("_links", response.getLinks(), gen, provider);
+        gen.writeEndObject();
+    }
+
+    private void writeTransactionList(String fieldName, List<SpiTransaction> transactions, Predicate<SpiTransaction> predicate,
+                                      JsonGenerator gen, SerializerProvider provider, JsonSerializer<Object> dateSerializer) throws IOException {
+        if (transactions.stream().noneMatch(predicate)) {
+            return;
+        }
+
+        gen.writeArrayFieldStart(fieldName);
+        for (SpiTransaction transaction : transactions) {
+            if (predicate.test(transaction)) {
+                writeTransaction(transaction, gen, provider, dateSerializer);
+            }
+        }
+        gen.writeEndArray();
+    }
+
+    private void writeTransaction(SpiTransaction transaction, JsonGenerator gen, SerializerProvider provider,
+                                  JsonSerializer<Object> dateSerializer) throws IOException {
+        gen.writeStartObject();
+        writeStringField("transactionId", transaction.getTransactionId(), gen);
+        writeStringField("entryReference", transaction.getEntryReference(), gen);
+        writeStringField("endToEndId", transaction.getEndToEndId(), gen);
+        writeStringField("mandateId", transaction.getMandateId(), gen);
+        writeStringField("checkId", transaction.getCheckId(), gen);
+        writeStringField("creditorId", transaction.getCreditorId(), gen);
+        writeDateField("bookingDate", transaction.getBookingDate(), gen, provider, dateSerializer);
+        writeDateField("valueDate", transaction.getValueDate(), gen, provider, dateSerializer);
+        writeAmount(transaction.getSpiAmount(), gen);
+        writeExchangeRates(transaction.getExchangeRate(), gen, provider, dateSerializer);
+        writeStringField("creditorName", transaction.getCreditorName(), gen);
+        writeAccountReference("creditorAccount", transaction.getCreditorAccount(), gen);
+        writeStringField("ultimateCreditor", transaction.getUltimateCreditor(), gen);
+        writeStringField("debtorName", transaction.getDebtorName(), gen);
+        writeAccountReference("debtorAccount", transaction.getDebtorAccount(), gen);
+        writeStringField("ultimateDebtor", transaction.getUltimateDebtor(), gen);
+        writeStringField("remittanceInformationUnstructured", transaction.getRemittanceInformationUnstructured(), gen);
+        writeStringField("remittanceInformationStructured", transaction.getRemittanceInformationStructured(), gen);
+
+        PurposeCode purposeCode = PurposeCode.fromValue(transaction.getPurposeCode());
+        if (purposeCode != null) {
+            gen.writeStringField("purposeCode", purposeCode.toString());
+        }
+
+        writeStringField("bankTransactionCode", transaction.getBankTransactionCodeCode(), gen);
+        writeStringField("proprietaryBankTransactionCode", transaction.getProprietaryBankTransactionCode(), gen);
+        gen.writeEndObject();
+    }
+
+    private void writeAmount(SpiAmount amount, JsonGenerator gen) throws IOException {
+        if (amount == null) {
+            return;
+        }
+
+        gen.writeObjectFieldStart("transactionAmount");
+        if (amount.getCurrency() != null) {
+            gen.writeStringField("currency", amount.getCurrency().getCurrencyCode());
+        }
+        if (amount.getAmount() != null) {
+            gen.writeStringField("amount", amount.getAmount().toString());
+        }
+        gen.writeEndObject();
+    }
+
+    private void writeExchangeRates(List<SpiExchangeRate> exchangeRates, JsonGenerator gen, SerializerProvider provider,
+                                    JsonSerializer<Object> dateSerializer) throws IOException {
+        if (exchangeRates == null) {
+            return;
+        }
+
+        gen.writeArrayFieldStart("currencyExchange");
+        for (SpiExchangeRate exchangeRate : exchangeRates) {
+            gen.writeStartObject();
+            writeStringField("sourceCurrency", exchangeRate.getSourceCurrency(), gen);
+            writeStringField("exchangeRate", exchangeRate.getExchangeRate(), gen);
+            writeStringField("unitCurrency", exchangeRate.getUnitCurrency(), gen);
+            writeStringField("targetCurrency", exchangeRate.getTargetCurrency(), gen);
+            writeDateField("quotationDate", exchangeRate.getQuotationDate(), gen, provider, dateSerializer);
+            writeStringField("contractIdentification", exchangeRate.getContractIdentification(), gen);
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    private void writeAccountReference(String fieldName, SpiAccountReference reference, JsonGenerator gen) throws IOException {
+        if (reference == null) {
+            return;
+        }
+
+        gen.writeObjectFieldStart(fieldName);
+        writeStringField("iban", reference.getIban(), gen);
+        writeStringField("bban", reference.getBban(), gen);
+        writeStringField("pan", reference.getPan(), gen);
+        writeStringField("maskedPan", reference.getMaskedPan(), gen);
+        writeStringField("msisdn", reference.getMsisdn(), gen);
+        if (reference.getCurrency() != null) {
+            gen.writeStringField("currency", reference.getCurrency().getCurrencyCode());
+        }
+        gen.writeEndObject();
+    }
+
+    private void writeStringField(String fieldName, String value, JsonGenerator gen) throws IOException {
+        if (value != null) {
+            gen.writeStringField(fieldName, value);
+        }
+    }
+
+    private void writeDateField(String fieldName, LocalDate value, JsonGenerator gen, SerializerProvider provider,
+                                JsonSerializer<Object> dateSerializer) throws IOException {
+        if (value != null) {
+            gen.writeFieldName(fieldName);
+            dateSerializer.serialize(value, gen, provider);
+        }
+    }
+
+    private void writeObjectField(String fieldName, Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (value != null) {
+            provider.defaultSerializeField(fieldName, value, gen);
+        }
+    }
+
+    private class StreamedTransactionsResponse extends JsonSerializable.Base {
+        private final Xs2aTransactionsReport transactionsReport;
+
+        private StreamedTransactionsResponse(Xs2aTransactionsReport transactionsReport) {
+            this.transactionsReport = transactionsReport;
+        }
+
+        @Override
+        public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            writeTransactionsResponse(transactionsReport, gen, serializers);
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+            serialize(gen, serializers);
+        }
+    }
+
+    private static class CountingWriter extends Writer {
+        private long count;
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void write(int c) {
+            count++;
+        }
+
+        @Override
+        public void flush() {
+            // nothing to flush, written characters are only counted
+        }
+
+        @Override
+        public void close() {
+            // nothing to close, written characters are only counted
+        }
+    }
+}
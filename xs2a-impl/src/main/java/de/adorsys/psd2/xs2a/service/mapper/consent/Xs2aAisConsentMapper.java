@@ -198,7 +198,8 @@ public class Xs2aAisConsentMapper {
                        ac.isMultilevelScaRequired(),
                        mapToAccountConsentAuthorisation(ais.getAccountConsentAuthorizations()),
                        ac.getStatusChangeTimestamp(),
-                       ac.getUsageCounterMap()))
+                       ac.getUsageCounterMap(),
+                       ac.getVersion()))
                    .orElse(null);
     }
 
@@ -220,7 +221,8 @@ public class Xs2aAisConsentMapper {
                        ac.isMultilevelScaRequired(),
                        ac.getAuthorisations(),
                        ac.getStatusChangeTimestamp(),
-                       ac.getUsageCounterMap()))
+                       ac.getUsageCounterMap(),
+                       ac.getVersion()))
                    .orElse(null);
     }
 
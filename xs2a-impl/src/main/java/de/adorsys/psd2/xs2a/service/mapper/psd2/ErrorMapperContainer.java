@@ -45,6 +45,7 @@ public class ErrorMapperContainer {
     private final PIS409ErrorMapper pis409ErrorMapper;
     private final PIS415ErrorMapper pis415ErrorMapper;
     private final PIS500ErrorMapper pis500ErrorMapper;
+    private final PIS503ErrorMapper pis503ErrorMapper;
     private final PISCANC405ErrorMapper pisCanc405ErrorMapper;
 
     private final PIIS400ErrorMapper piis400ErrorMapper;
@@ -56,9 +57,11 @@ public class ErrorMapperContainer {
     private final PIIS415ErrorMapper piis415ErrorMapper;
     private final PIIS429ErrorMapper piis429ErrorMapper;
     private final PIIS500ErrorMapper piis500ErrorMapper;
+    private final PIIS503ErrorMapper piis503ErrorMapper;
 
     private final AIS415ErrorMapper ais415ErrorMapper;
     private final AIS500ErrorMapper ais500ErrorMapper;
+    private final AIS503ErrorMapper ais503ErrorMapper;
 
     private final SB400ErrorMapper sb400ErrorMapper;
     private final SB401ErrorMapper sb401ErrorMapper;
@@ -87,6 +90,7 @@ public class ErrorMapperContainer {
         mapperContainer.put(PIS_409, pis409ErrorMapper);
         mapperContainer.put(PIS_415, pis415ErrorMapper);
         mapperContainer.put(PIS_500, pis500ErrorMapper);
+        mapperContainer.put(PIS_503, pis503ErrorMapper);
         mapperContainer.put(PIS_CANC_405, pisCanc405ErrorMapper);
 
         mapperContainer.put(PIIS_400, piis400ErrorMapper);
@@ -98,6 +102,7 @@ public class ErrorMapperContainer {
         mapperContainer.put(PIIS_415, piis415ErrorMapper);
         mapperContainer.put(PIIS_429, piis429ErrorMapper);
         mapperContainer.put(PIIS_500, piis500ErrorMapper);
+        mapperContainer.put(PIIS_503, piis503ErrorMapper);
 
         mapperContainer.put(AIS_400, ais400ErrorMapper);
         mapperContainer.put(AIS_401, ais401ErrorMapper);
@@ -108,6 +113,7 @@ public class ErrorMapperContainer {
         mapperContainer.put(AIS_415, ais415ErrorMapper);
         mapperContainer.put(AIS_429, ais429ErrorMapper);
         mapperContainer.put(AIS_500, ais500ErrorMapper);
+        mapperContainer.put(AIS_503, ais503ErrorMapper);
 
         mapperContainer.put(SB_400, sb400ErrorMapper);
         mapperContainer.put(SB_401, sb401ErrorMapper);
@@ -26,6 +26,7 @@ public enum ErrorType {
     PIS_409,
     PIS_415,
     PIS_500,
+    PIS_503,
     PIS_CANC_405,
 
     PIIS_400,
@@ -37,6 +38,7 @@ public enum ErrorType {
     PIIS_415,
     PIIS_429,
     PIIS_500,
+    PIIS_503,
 
     AIS_400,
     AIS_401,
@@ -47,6 +49,7 @@ public enum ErrorType {
     AIS_415,
     AIS_429,
     AIS_500,
+    AIS_503,
 
     SB_400,
     SB_401,
@@ -41,6 +41,7 @@ public class ServiceTypeToErrorTypeMapper {
         aisHttpCodeToErrorType.put(415, AIS_415);
         aisHttpCodeToErrorType.put(429, AIS_429);
         aisHttpCodeToErrorType.put(500, AIS_500);
+        aisHttpCodeToErrorType.put(503, AIS_503);
 
         Map<Integer, ErrorType> pisHttpCodeToErrorType = new HashMap<>();
         pisHttpCodeToErrorType.put(400, PIS_400);
@@ -51,6 +52,7 @@ public class ServiceTypeToErrorTypeMapper {
         pisHttpCodeToErrorType.put(409, PIS_409);
         pisHttpCodeToErrorType.put(415, PIS_415);
         pisHttpCodeToErrorType.put(500, PIS_500);
+        pisHttpCodeToErrorType.put(503, PIS_503);
 
         Map<Integer, ErrorType> piisHttpCodeToErrorType = new HashMap<>();
         piisHttpCodeToErrorType.put(400, PIIS_400);
@@ -61,6 +63,8 @@ public class ServiceTypeToErrorTypeMapper {
         piisHttpCodeToErrorType.put(409, PIIS_409);
         piisHttpCodeToErrorType.put(415, PIIS_415);
         piisHttpCodeToErrorType.put(500, PIIS_500);
+        piisHttpCodeToErrorType.put(429, PIIS_429);
+        piisHttpCodeToErrorType.put(503, PIIS_503);
 
         Map<Integer, ErrorType> sbHttpCodeToErrorType = new HashMap<>();
         sbHttpCodeToErrorType.put(400, SB_400);
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.mapper.psd2;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.psd2.xs2a.core.error.MessageErrorCode;
+import de.adorsys.psd2.xs2a.domain.TppMessageInformation;
+import de.adorsys.psd2.xs2a.exception.MessageError;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static de.adorsys.psd2.xs2a.config.MessageSourceConfig.MESSAGE_CACHE_SECONDS;
+
+/**
+ * Writes error responses that don't depend on request data (e.g. blocked TPP certificate or exceeded access frequency)
+ * directly to the servlet response. The body of such error is built with corresponding {@link Psd2ErrorMapper} and
+ * serialised to JSON only once per error type and message error code, so each further rejection only copies
+ * the pre-serialised bytes. Serialised bodies are rebuilt after the cache period of the message source, so that
+ * reloaded message texts are taken over.
+ */
+@Component
+@RequiredArgsConstructor
+public class StaticErrorResponseWriter {
+    private final ErrorMapperContainer errorMapperContainer;
+    private final ObjectMapper objectMapper;
+
+    private final Map<ErrorType, Map<MessageErrorCode, StaticErrorResponse>> errorResponses = new EnumMap<>(ErrorType.class);
+
+    @PostConstruct
+    public void initErrorResponses() {
+        for (ErrorType errorType : ErrorType.values()) {
+            errorResponses.put(errorType, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Writes error with given type and message error code and default message text to the response
+     *
+     * @param response         response to write the error to
+     * @param errorType        type of the error, defines the body model and HTTP status of the response
+     * @param messageErrorCode message error code of the single TPP message in the body
+     * @throws IOException if the body couldn't be written to the response
+     */
+    public void writeErrorResponse(HttpServletResponse response, ErrorType errorType, MessageErrorCode messageErrorCode) throws IOException {
+        Map<MessageErrorCode, StaticErrorResponse> errorResponsesOfType = errorResponses.get(errorType);
+        StaticErrorResponse errorResponse = errorResponsesOfType.get(messageErrorCode);
+        if (errorResponse == null || errorResponse.isExpired()) {
+            errorResponse = buildErrorResponse(errorType, messageErrorCode);
+            errorResponsesOfType.put(messageErrorCode, errorResponse);
+        }
+
+        response.setStatus(errorResponse.status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(errorResponse.body.length);
+        response.getOutputStream().write(errorResponse.body);
+    }
+
+    private StaticErrorResponse buildErrorResponse(ErrorType errorType, MessageErrorCode messageErrorCode) {
+        ErrorMapperContainer.ErrorBody errorBody = errorMapperContainer.getErrorBody(new MessageError(errorType, TppMessageInformation.of(messageErrorCode)));
+        try {
+            return new StaticErrorResponse(errorBody.getStatus().value(), objectMapper.writeValueAsBytes(errorBody.getBody()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error body couldn't be serialised: " + errorType + ", " + messageErrorCode, e);
+        }
+    }
+
+    private static class StaticErrorResponse {
+        private final int status;
+        private final byte[] body;
+        private final long expiresAtNanos;
+
+        private StaticErrorResponse(int status, byte[] body) {
+            this.status = status;
+            this.body = body;
+            this.expiresAtNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(MESSAGE_CACHE_SECONDS);
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos >= 0;
+        }
+    }
+}
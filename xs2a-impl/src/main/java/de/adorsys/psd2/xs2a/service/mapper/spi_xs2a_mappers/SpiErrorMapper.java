@@ -16,24 +16,68 @@
 
 package de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers;
 
+import de.adorsys.psd2.xs2a.core.error.MessageErrorCode;
+import de.adorsys.psd2.xs2a.core.error.TppMessage;
 import de.adorsys.psd2.xs2a.domain.ErrorHolder;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorType;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceType;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceTypeToErrorTypeMapper;
 import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
 import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponseStatus;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static de.adorsys.psd2.xs2a.core.error.MessageErrorCode.ACCESS_EXCEEDED;
+import static de.adorsys.psd2.xs2a.core.error.MessageErrorCode.SERVICE_UNAVAILABLE;
+
 @Component
 @RequiredArgsConstructor
 public class SpiErrorMapper {
+    private static final Set<MessageErrorCode> PROPAGATED_ERROR_CODES = EnumSet.of(SERVICE_UNAVAILABLE, ACCESS_EXCEEDED);
+
     private final SpiResponseStatusToXs2aMessageErrorCodeMapper spiToXs2aMessageErrorCodeMapper;
     private final SpiResponseToServiceAndErrorTypeMapper spiToServiceAndErrorTypeMapper;
+    private final ServiceTypeToErrorTypeMapper serviceTypeToErrorTypeMapper;
 
     public ErrorHolder mapToErrorHolder(SpiResponse<?> spiResponse, ServiceType serviceType) {
+        Optional<ErrorHolder> propagatedErrorHolder = spiResponse.getErrors().stream()
+                                                          .map(TppMessage::getErrorCode)
+                                                          .filter(PROPAGATED_ERROR_CODES::contains)
+                                                          .findFirst()
+                                                          .flatMap(errorCode -> mapToPropagatedErrorHolder(errorCode, spiResponse, serviceType));
+        if (propagatedErrorHolder.isPresent()) {
+            return propagatedErrorHolder.get();
+        }
+
         SpiResponseStatus responseStatus = spiResponse.getResponseStatus();
         return ErrorHolder.builder(spiToXs2aMessageErrorCodeMapper.mapToMessageErrorCode(responseStatus))
                    .errorType(spiToServiceAndErrorTypeMapper.mapToErrorType(responseStatus, serviceType))
                    .messages(spiResponse.getMessages())
                    .build();
     }
+
+    /**
+     * Errors, that signal the overload or unavailability of ASPSP (e.g. fast-fail responses of the SPI resilience
+     * layer), are propagated to TPP with their own HTTP status. Services without a 429 response fall back to 503,
+     * services without both are mapped by the response status.
+     */
+    private Optional<ErrorHolder> mapToPropagatedErrorHolder(MessageErrorCode errorCode, SpiResponse<?> spiResponse, ServiceType serviceType) {
+        MessageErrorCode resultingErrorCode = errorCode;
+        ErrorType errorType = serviceTypeToErrorTypeMapper.mapToErrorType(serviceType, errorCode.getCode());
+        if (errorType == null) {
+            resultingErrorCode = SERVICE_UNAVAILABLE;
+            errorType = serviceTypeToErrorTypeMapper.mapToErrorType(serviceType, SERVICE_UNAVAILABLE.getCode());
+        }
+        if (errorType == null) {
+            return Optional.empty();
+        }
+        return Optional.of(ErrorHolder.builder(resultingErrorCode)
+                               .errorType(errorType)
+                               .messages(spiResponse.getMessages())
+                               .build());
+    }
 }
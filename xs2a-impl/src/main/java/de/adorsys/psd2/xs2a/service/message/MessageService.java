@@ -16,27 +16,77 @@
 
 package de.adorsys.psd2.xs2a.service.message;
 
-import lombok.AllArgsConstructor;
+import de.adorsys.psd2.xs2a.core.error.MessageErrorCode;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSource;
 import org.springframework.context.NoSuchMessageException;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PostConstruct;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static de.adorsys.psd2.xs2a.config.MessageSourceConfig.MESSAGE_CACHE_SECONDS;
 import static java.util.Locale.forLanguageTag;
 
+/**
+ * Provides texts of error messages. As error responses may be produced in large numbers (e.g. on frequency or stop list
+ * rejections), the texts for all message error codes are resolved on startup, so that getting a message is a plain
+ * map lookup without locale resolution or exception handling.
+ * <p>
+ * The resolved texts are kept as long as the message source caches its messages, afterwards they are resolved again,
+ * so that reloaded messages are taken over. Only found texts are kept, codes without message are resolved on every
+ * call, so arbitrary codes can't grow the map.
+ */
 @Slf4j
 @Service
-@AllArgsConstructor
+@RequiredArgsConstructor
 public class MessageService {
+    private static final Locale MESSAGE_LOCALE = forLanguageTag("en");
+    private static final long MESSAGE_CACHE_NANOS = TimeUnit.SECONDS.toNanos(MESSAGE_CACHE_SECONDS);
+
     private final MessageSource messageSource;
+    private final Map<String, String> messages = new ConcurrentHashMap<>();
+    private volatile long messagesExpireAtNanos;
+
+    @PostConstruct
+    public void resolveMessages() {
+        messages.clear();
+        messagesExpireAtNanos = System.nanoTime() + MESSAGE_CACHE_NANOS;
+        for (MessageErrorCode messageErrorCode : MessageErrorCode.values()) {
+            getCachedMessage(messageErrorCode.name());
+        }
+    }
 
     public String getMessage(String code) {
+        if (System.nanoTime() - messagesExpireAtNanos >= 0) {
+            resolveMessages();
+        }
+        return getCachedMessage(code);
+    }
+
+    private String getCachedMessage(String code) {
+        String message = messages.get(code);
+        if (message != null) {
+            return message;
+        }
+
+        message = resolveMessage(code);
+        if (message != null) {
+            messages.put(code, message);
+        }
+        return message;
+    }
+
+    private String resolveMessage(String code) {
         try {
-            return messageSource.getMessage(code, null, forLanguageTag("en"));
+            return messageSource.getMessage(code, null, MESSAGE_LOCALE);
         } catch (NoSuchMessageException e) {
             log.info("Can't get message: {}", e.getMessage());
         }
         return null;
     }
 }
-
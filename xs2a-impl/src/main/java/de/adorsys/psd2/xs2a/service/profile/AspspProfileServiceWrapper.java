@@ -264,6 +264,24 @@ public class AspspProfileServiceWrapper {
         return readAspspSettings().getStartAuthorisationMode();
     }
 
+    /**
+     * Reads time to live of account details, cached by XS2A, from ASPSP profile service
+     *
+     * @return time to live in milliseconds, 0 if account details should not be cached
+     */
+    public long getAccountDetailsCacheTtlMs() {
+        return readAspspSettings().getAccountDetailsCacheTtlMs();
+    }
+
+    /**
+     * Reads time to live of balances, cached by XS2A, from ASPSP profile service
+     *
+     * @return time to live in milliseconds, 0 if balances should not be cached
+     */
+    public long getBalancesCacheTtlMs() {
+        return readAspspSettings().getBalancesCacheTtlMs();
+    }
+
     private AspspSettings readAspspSettings() {
         return aspspProfileService.getAspspSettings();
     }
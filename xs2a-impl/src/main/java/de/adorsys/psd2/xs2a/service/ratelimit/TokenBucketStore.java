@@ -0,0 +1,143 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.ratelimit;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets, one per key.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} with the theoretical arrival time of the next request (generic cell rate
+ * algorithm): a request is permitted if it doesn't arrive earlier than the burst tolerance before that time, in this
+ * case the time is moved forward by the emission interval with compare-and-set. So acquiring a token neither locks
+ * nor allocates, once the bucket of the key has been created. Buckets are kept in a {@link ConcurrentHashMap}, that is
+ * striped internally. If the number of buckets exceeds the maximum, full buckets are removed, as they are equal to new
+ * ones. If that is not enough, e.g. because of many keys, that are used only once and never become full, the least
+ * recently used buckets are removed as well, so the number of buckets never exceeds the maximum.
+ */
+public class TokenBucketStore {
+    /**
+     * Arrival time of a new bucket, that permits a full burst
+     */
+    private static final long FULL_BUCKET = Long.MIN_VALUE;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final int maxBuckets;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param capacity          maximum number of requests in a burst
+     * @param requestsPerSecond sustained rate of requests
+     * @param maxBuckets        maximum number of buckets
+     */
+    public TokenBucketStore(int capacity, double requestsPerSecond, int maxBuckets) {
+        this(capacity, requestsPerSecond, maxBuckets, System::nanoTime);
+    }
+
+    TokenBucketStore(int capacity, double requestsPerSecond, int maxBuckets, LongSupplier nanoClock) {
+        if (capacity < 1 || requestsPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacity and rate of token bucket have to be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond));
+        this.burstToleranceNanos = (capacity - 1) * emissionIntervalNanos;
+        this.maxBuckets = maxBuckets;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes a token from the bucket of the given key
+     *
+     * @param key key of the bucket, e.g. TPP ID
+     * @return <code>0</code> if the token has been taken, otherwise time in nanoseconds until the next token is available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            evictFullBucketsIfNeeded();
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(FULL_BUCKET));
+        }
+
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long arrivalTime = bucket.get();
+            long earliestArrival = Math.max(arrivalTime, now);
+            long permittedAt = earliestArrival - burstToleranceNanos;
+            if (permittedAt > now) {
+                return permittedAt - now;
+            }
+            if (bucket.compareAndSet(arrivalTime, earliestArrival + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Returns the token, that has been taken by {@link #tryAcquire(String)}, to the bucket of the given key, e.g. if
+     * the request has been rejected by another limit afterwards
+     *
+     * @param key key of the bucket, e.g. consent ID
+     */
+    public void release(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.addAndGet(-emissionIntervalNanos);
+        }
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private void evictFullBucketsIfNeeded() {
+        if (buckets.size() < maxBuckets || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = nanoClock.getAsLong();
+            buckets.entrySet().removeIf(e -> e.getValue().get() <= now);
+            evictLeastRecentlyUsedBucketsIfNeeded();
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Removes buckets with the earliest arrival time, as they have been used least recently and would be full first. A
+     * tenth of the buckets is removed at once, so that sorting doesn't happen on every new key.
+     */
+    private void evictLeastRecentlyUsedBucketsIfNeeded() {
+        long[] arrivalTimes = buckets.values().stream()
+                                  .mapToLong(AtomicLong::get)
+                                  .toArray();
+        int retained = Math.max(0, maxBuckets - 1 - maxBuckets / 10);
+        if (arrivalTimes.length <= retained) {
+            return;
+        }
+        Arrays.sort(arrivalTimes);
+        long latestEvictedArrival = arrivalTimes[arrivalTimes.length - retained - 1];
+        buckets.values().removeIf(bucket -> bucket.get() <= latestEvictedArrival);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.ratelimit;
+
+import de.adorsys.psd2.xs2a.config.TppRateLimitConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Service;
+
+/**
+ * Limits the rate of requests per TPP and per consent in memory, so bursts of requests are rejected before they reach
+ * CMS and SPI.
+ * <p>
+ * The configured limits apply to all XS2A instances together, each instance enforces its equal share of them.
+ */
+@Slf4j
+@Service
+public class TppRateLimiter {
+    private final TokenBucketStore tppBuckets;
+    private final TokenBucketStore consentBuckets;
+
+    public TppRateLimiter(TppRateLimitConfig config) {
+        int instances = Math.max(1, config.getInstances());
+        this.tppBuckets = new TokenBucketStore(Math.max(1, config.getTppCapacity() / instances),
+                                               config.getTppRequestsPerSecond() / instances,
+                                               config.getMaxTrackedKeys());
+        this.consentBuckets = new TokenBucketStore(Math.max(1, config.getConsentCapacity() / instances),
+                                                   config.getConsentRequestsPerSecond() / instances,
+                                                   config.getMaxTrackedKeys());
+    }
+
+    /**
+     * Takes a token from the bucket of the consent, if the request is sent with a consent, and from the bucket of the
+     * TPP. A rejected request doesn't take any token, so it doesn't reduce the rate left for other requests.
+     *
+     * @param tppId     authorisation number of the TPP
+     * @param consentId ID of the consent, the request is sent with, may be <code>null</code>
+     * @return <code>0</code> if the request is permitted, otherwise time in nanoseconds after which it may be repeated
+     */
+    public long tryAcquire(String tppId, @Nullable String consentId) {
+        boolean withConsent = StringUtils.isNotBlank(consentId);
+        if (withConsent) {
+            long consentWaitNanos = consentBuckets.tryAcquire(consentId);
+            if (consentWaitNanos > 0) {
+                log.info("TPP ID: [{}], Consent ID: [{}]. Request has been rejected, because the request rate of the consent has been exceeded", tppId, consentId);
+                return consentWaitNanos;
+            }
+        }
+
+        long tppWaitNanos = tppBuckets.tryAcquire(tppId);
+        if (tppWaitNanos > 0) {
+            if (withConsent) {
+                consentBuckets.release(consentId);
+            }
+            log.info("TPP ID: [{}]. Request has been rejected, because the TPP has exceeded its request rate", tppId);
+        }
+        return tppWaitNanos;
+    }
+}
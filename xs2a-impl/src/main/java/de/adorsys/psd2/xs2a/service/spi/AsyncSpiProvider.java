@@ -0,0 +1,98 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi;
+
+import de.adorsys.psd2.xs2a.spi.service.AccountSpi;
+import de.adorsys.psd2.xs2a.spi.service.AsyncAccountSpi;
+import de.adorsys.psd2.xs2a.spi.service.AsyncFundsConfirmationSpi;
+import de.adorsys.psd2.xs2a.spi.service.AsyncPaymentAuthorisationSpi;
+import de.adorsys.psd2.xs2a.spi.service.FundsConfirmationSpi;
+import de.adorsys.psd2.xs2a.spi.service.PaymentAuthorisationSpi;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Provides the SPI implementations to be used by XS2A services in their non-blocking form.
+ * <p>
+ * Asynchronous implementations of ASPSP are preferred. If ASPSP provides only the synchronous SPI, it is exposed via
+ * the corresponding adapter, so that services don't have to distinguish between both variants.
+ */
+@Component
+public class AsyncSpiProvider {
+    private final ObjectProvider<AsyncAccountSpi> asyncAccountSpiProvider;
+    private final ObjectProvider<AccountSpi> accountSpiProvider;
+    private final ObjectProvider<AsyncFundsConfirmationSpi> asyncFundsConfirmationSpiProvider;
+    private final ObjectProvider<FundsConfirmationSpi> fundsConfirmationSpiProvider;
+    private final ObjectProvider<AsyncPaymentAuthorisationSpi> asyncPaymentAuthorisationSpiProvider;
+    private final ObjectProvider<PaymentAuthorisationSpi> paymentAuthorisationSpiProvider;
+
+    private volatile AsyncAccountSpi accountSpi;
+    private volatile AsyncFundsConfirmationSpi fundsConfirmationSpi;
+    private volatile AsyncPaymentAuthorisationSpi paymentAuthorisationSpi;
+
+    public AsyncSpiProvider(ObjectProvider<AsyncAccountSpi> asyncAccountSpiProvider,
+                            ObjectProvider<AccountSpi> accountSpiProvider,
+                            ObjectProvider<AsyncFundsConfirmationSpi> asyncFundsConfirmationSpiProvider,
+                            ObjectProvider<FundsConfirmationSpi> fundsConfirmationSpiProvider,
+                            ObjectProvider<AsyncPaymentAuthorisationSpi> asyncPaymentAuthorisationSpiProvider,
+                            ObjectProvider<PaymentAuthorisationSpi> paymentAuthorisationSpiProvider) {
+        this.asyncAccountSpiProvider = asyncAccountSpiProvider;
+        this.accountSpiProvider = accountSpiProvider;
+        this.asyncFundsConfirmationSpiProvider = asyncFundsConfirmationSpiProvider;
+        this.fundsConfirmationSpiProvider = fundsConfirmationSpiProvider;
+        this.asyncPaymentAuthorisationSpiProvider = asyncPaymentAuthorisationSpiProvider;
+        this.paymentAuthorisationSpiProvider = paymentAuthorisationSpiProvider;
+    }
+
+    /**
+     * Returns the account SPI of ASPSP
+     *
+     * @return asynchronous account SPI, if provided by ASPSP, synchronous account SPI wrapped into adapter otherwise
+     */
+    public AsyncAccountSpi getAccountSpi() {
+        if (accountSpi == null) {
+            accountSpi = asyncAccountSpiProvider.getIfUnique(() -> new SyncAccountSpiAdapter(accountSpiProvider.getObject()));
+        }
+        return accountSpi;
+    }
+
+    /**
+     * Returns the funds confirmation SPI of ASPSP
+     *
+     * @return asynchronous funds confirmation SPI, if provided by ASPSP, synchronous funds confirmation SPI wrapped
+     * into adapter otherwise
+     */
+    public AsyncFundsConfirmationSpi getFundsConfirmationSpi() {
+        if (fundsConfirmationSpi == null) {
+            fundsConfirmationSpi = asyncFundsConfirmationSpiProvider.getIfUnique(() -> new SyncFundsConfirmationSpiAdapter(fundsConfirmationSpiProvider.getObject()));
+        }
+        return fundsConfirmationSpi;
+    }
+
+    /**
+     * Returns the payment authorisation SPI of ASPSP
+     *
+     * @return asynchronous payment authorisation SPI, if provided by ASPSP, synchronous payment authorisation SPI
+     * wrapped into adapter otherwise
+     */
+    public AsyncPaymentAuthorisationSpi getPaymentAuthorisationSpi() {
+        if (paymentAuthorisationSpi == null) {
+            paymentAuthorisationSpi = asyncPaymentAuthorisationSpiProvider.getIfUnique(() -> new SyncPaymentAuthorisationSpiAdapter(paymentAuthorisationSpiProvider.getObject()));
+        }
+        return paymentAuthorisationSpi;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi;
+
+import de.adorsys.psd2.xs2a.core.error.MessageErrorCode;
+import de.adorsys.psd2.xs2a.core.error.TppMessage;
+import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponseStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Sets deadlines of SPI calls and awaits responses of asynchronous SPI calls up to these deadlines.
+ * <p>
+ * An SPI call, that has not completed until its deadline, is answered with a technical failure, so that TPP receives
+ * an error response before the request itself times out.
+ * <p>
+ * Awaiting blocks the calling thread, as services return their responses synchronously. Account, funds confirmation
+ * and payment authorisation SPIs have asynchronous variants, payment initiation and cancellation SPIs are called
+ * synchronously.
+ */
+@Slf4j
+@Service
+public class SpiDeadlineService {
+    private static final String NOT_COMPLETED_IN_TIME_MESSAGE = "SPI call has not completed in time";
+    private static final String FAILED_MESSAGE = "SPI call has failed";
+    private static final String INTERRUPTED_MESSAGE = "SPI call has been interrupted";
+
+    private final long deadlineMs;
+
+    public SpiDeadlineService(@Value("${xs2a.spi.deadline-ms:30000}") long deadlineMs) {
+        this.deadlineMs = deadlineMs;
+    }
+
+    /**
+     * Sets the deadline of the SPI call, that is about to be made, to the given context data
+     *
+     * @param contextData holder of call's context data (e.g. about PSU and TPP)
+     * @return context data with the deadline of the call, or the given context data if deadlines are disabled
+     */
+    public SpiContextData withDeadline(SpiContextData contextData) {
+        if (deadlineMs <= 0) {
+            return contextData;
+        }
+        return contextData.withDeadline(Instant.now().plusMillis(deadlineMs));
+    }
+
+    /**
+     * Awaits the response of the asynchronous SPI call up to the deadline of the call.
+     * Runtime exceptions, completing the call exceptionally, are rethrown, like if they were thrown by synchronous SPI.
+     *
+     * @param responseStage stage of the SPI call
+     * @param contextData   context data of the call, containing its deadline
+     * @param <T>           type of the response payload
+     * @return response of the SPI call, or technical failure if the call has not completed until its deadline or
+     * has failed with a checked exception
+     */
+    public <T> SpiResponse<T> awaitResponse(CompletionStage<SpiResponse<T>> responseStage, SpiContextData contextData) {
+        CompletableFuture<SpiResponse<T>> responseFuture = responseStage.toCompletableFuture();
+        Instant deadline = contextData.getDeadline();
+        try {
+            if (deadline == null) {
+                return responseFuture.get();
+            }
+            long remainingNanos = Duration.between(Instant.now(), deadline).toNanos();
+            return responseFuture.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            responseFuture.cancel(true);
+            log.info("X-Request-ID: [{}]. SPI call has not completed until its deadline {}", contextData.getXRequestId(), deadline);
+            return buildTechnicalFailure(NOT_COMPLETED_IN_TIME_MESSAGE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            log.info("X-Request-ID: [{}]. SPI call has failed: {}", contextData.getXRequestId(), e.getCause().getMessage());
+            return buildTechnicalFailure(FAILED_MESSAGE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            responseFuture.cancel(true);
+            log.info("X-Request-ID: [{}]. Awaiting of SPI call has been interrupted", contextData.getXRequestId());
+            return buildTechnicalFailure(INTERRUPTED_MESSAGE);
+        }
+    }
+
+    private <T> SpiResponse<T> buildTechnicalFailure(String message) {
+        return SpiResponse.<T>builder()
+                   .error(new TppMessage(MessageErrorCode.INTERNAL_SERVER_ERROR, message))
+                   .fail(SpiResponseStatus.TECHNICAL_FAILURE);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi;
+
+import de.adorsys.psd2.xs2a.core.ais.BookingStatus;
+import de.adorsys.psd2.xs2a.core.consent.AspspConsentData;
+import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
+import de.adorsys.psd2.xs2a.spi.domain.account.*;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import de.adorsys.psd2.xs2a.spi.service.AccountSpi;
+import de.adorsys.psd2.xs2a.spi.service.AsyncAccountSpi;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Exposes synchronous {@link AccountSpi} as {@link AsyncAccountSpi}.
+ * <p>
+ * The SPI is called on the calling thread and the returned stage is already completed, so the behaviour of the
+ * synchronous SPI, including thrown exceptions, stays unchanged.
+ */
+@RequiredArgsConstructor
+public class SyncAccountSpiAdapter implements AsyncAccountSpi {
+    private final AccountSpi accountSpi;
+
+    @Override
+    public CompletionStage<SpiResponse<List<SpiAccountDetails>>> requestAccountList(@NotNull SpiContextData contextData, boolean withBalance, @NotNull SpiAccountConsent accountConsent, @NotNull AspspConsentData aspspConsentData) {
+        return CompletableFuture.completedFuture(accountSpi.requestAccountList(contextData, withBalance, accountConsent, aspspConsentData));
+    }
+
+    @Override
+    public CompletionStage<SpiResponse<SpiAccountDetails>> requestAccountDetailForAccount(@NotNull SpiContextData contextData, boolean withBalance, @NotNull SpiAccountReference accountReference, @NotNull SpiAccountConsent accountConsent, @NotNull AspspConsentData aspspConsentData) {
+        return CompletableFuture.completedFuture(accountSpi.requestAccountDetailForAccount(contextData, withBalance, accountReference, accountConsent, aspspConsentData));
+    }
+
+    @Override
+    public CompletionStage<SpiResponse<SpiTransactionReport>> requestTransactionsForAccount(@NotNull SpiContextData contextData, String acceptMediaType, boolean withBalance, @NotNull LocalDate dateFrom, @NotNull LocalDate dateTo, @NotNull BookingStatus bookingStatus, @NotNull SpiAccountReference accountReference, @NotNull SpiAccountConsent accountConsent, @NotNull AspspConsentData aspspConsentData) {
+        return CompletableFuture.completedFuture(accountSpi.requestTransactionsForAccount(contextData, acceptMediaType, withBalance, dateFrom, dateTo, bookingStatus, accountReference, accountConsent, aspspConsentData));
+    }
+
+    @Override
+    public CompletionStage<SpiResponse<SpiTransaction>> requestTransactionForAccountByTransactionId(@NotNull SpiContextData contextData, @NotNull String transactionId, @NotNull SpiAccountReference accountReference, @NotNull SpiAccountConsent accountConsent, @NotNull AspspConsentData aspspConsentData) {
+        return CompletableFuture.completedFuture(accountSpi.requestTransactionForAccountByTransactionId(contextData, transactionId, accountReference, accountConsent, aspspConsentData));
+    }
+
+    @Override
+    public CompletionStage<SpiResponse<List<SpiAccountBalance>>> requestBalancesForAccount(@NotNull SpiContextData contextData, @NotNull SpiAccountReference accountReference, @NotNull SpiAccountConsent accountConsent, @NotNull AspspConsentData aspspConsentData) {
+        return CompletableFuture.completedFuture(accountSpi.requestBalancesForAccount(contextData, accountReference, accountConsent, aspspConsentData));
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi;
+
+import de.adorsys.psd2.xs2a.core.consent.AspspConsentData;
+import de.adorsys.psd2.xs2a.core.piis.PiisConsent;
+import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
+import de.adorsys.psd2.xs2a.spi.domain.fund.SpiFundsConfirmationRequest;
+import de.adorsys.psd2.xs2a.spi.domain.fund.SpiFundsConfirmationResponse;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import de.adorsys.psd2.xs2a.spi.service.AsyncFundsConfirmationSpi;
+import de.adorsys.psd2.xs2a.spi.service.FundsConfirmationSpi;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Exposes synchronous {@link FundsConfirmationSpi} as {@link AsyncFundsConfirmationSpi}.
+ * <p>
+ * The SPI is called on the calling thread and the returned stage is already completed, so the behaviour of the
+ * synchronous SPI, including thrown exceptions, stays unchanged.
+ */
+@RequiredArgsConstructor
+public class SyncFundsConfirmationSpiAdapter implements AsyncFundsConfirmationSpi {
+    private final FundsConfirmationSpi fundsConfirmationSpi;
+
+    @NotNull
+    @Override
+    public CompletionStage<SpiResponse<SpiFundsConfirmationResponse>> performFundsSufficientCheck(@NotNull SpiContextData contextData, @Nullable PiisConsent piisConsent, @NotNull SpiFundsConfirmationRequest spiFundsConfirmationRequest, @NotNull AspspConsentData aspspConsentData) {
+        return CompletableFuture.completedFuture(fundsConfirmationSpi.performFundsSufficientCheck(contextData, piisConsent, spiFundsConfirmationRequest, aspspConsentData));
+    }
+}
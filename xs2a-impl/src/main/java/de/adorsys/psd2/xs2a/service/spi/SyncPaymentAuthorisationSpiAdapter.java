@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi;
+
+import de.adorsys.psd2.xs2a.core.consent.AspspConsentData;
+import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
+import de.adorsys.psd2.xs2a.spi.domain.authorisation.SpiAuthenticationObject;
+import de.adorsys.psd2.xs2a.spi.domain.authorisation.SpiAuthorisationDecoupledScaResponse;
+import de.adorsys.psd2.xs2a.spi.domain.authorisation.SpiAuthorisationStatus;
+import de.adorsys.psd2.xs2a.spi.domain.authorisation.SpiAuthorizationCodeResult;
+import de.adorsys.psd2.xs2a.spi.domain.psu.SpiPsuData;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import de.adorsys.psd2.xs2a.spi.service.AsyncPaymentAuthorisationSpi;
+import de.adorsys.psd2.xs2a.spi.service.PaymentAuthorisationSpi;
+import de.adorsys.psd2.xs2a.spi.service.SpiPayment;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Exposes synchronous {@link PaymentAuthorisationSpi} as {@link AsyncPaymentAuthorisationSpi}.
+ * <p>
+ * The SPI is called on the calling thread and the returned stage is already completed, so the behaviour of the
+ * synchronous SPI, including thrown exceptions, stays unchanged.
+ */
+@RequiredArgsConstructor
+public class SyncPaymentAuthorisationSpiAdapter implements AsyncPaymentAuthorisationSpi {
+    private final PaymentAuthorisationSpi paymentAuthorisationSpi;
+
+    @NotNull
+    @Override
+    public CompletionStage<SpiResponse<SpiAuthorisationStatus>> authorisePsu(@NotNull SpiContextData contextData, @NotNull SpiPsuData psuLoginData, String password, SpiPayment businessObject, @NotNull AspspConsentData aspspConsentData) {
+        return CompletableFuture.completedFuture(paymentAuthorisationSpi.authorisePsu(contextData, psuLoginData, password, businessObject, aspspConsentData));
+    }
+
+    @NotNull
+    @Override
+    public CompletionStage<SpiResponse<List<SpiAuthenticationObject>>> requestAvailableScaMethods(@NotNull SpiContextData contextData, SpiPayment businessObject, @NotNull AspspConsentData aspspConsentData) {
+        return CompletableFuture.completedFuture(paymentAuthorisationSpi.requestAvailableScaMethods(contextData, businessObject, aspspConsentData));
+    }
+
+    @NotNull
+    @Override
+    public CompletionStage<SpiResponse<SpiAuthorizationCodeResult>> requestAuthorisationCode(@NotNull SpiContextData contextData, @NotNull String authenticationMethodId, @NotNull SpiPayment businessObject, @NotNull AspspConsentData aspspConsentData) {
+        return CompletableFuture.completedFuture(paymentAuthorisationSpi.requestAuthorisationCode(contextData, authenticationMethodId, businessObject, aspspConsentData));
+    }
+
+    @NotNull
+    @Override
+    public CompletionStage<SpiResponse<SpiAuthorisationDecoupledScaResponse>> startScaDecoupled(@NotNull SpiContextData contextData, @NotNull String authorisationId, @Nullable String authenticationMethodId, @NotNull SpiPayment businessObject, @NotNull AspspConsentData aspspConsentData) {
+        return CompletableFuture.completedFuture(paymentAuthorisationSpi.startScaDecoupled(contextData, authorisationId, authenticationMethodId, businessObject, aspspConsentData));
+    }
+}
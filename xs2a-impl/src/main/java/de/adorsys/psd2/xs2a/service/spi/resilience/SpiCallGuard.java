@@ -0,0 +1,85 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi.resilience;
+
+import de.adorsys.psd2.xs2a.core.error.MessageErrorCode;
+import lombok.Getter;
+
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkhead, circuit breaker and metrics of one SPI call key
+ */
+public class SpiCallGuard {
+    @Getter
+    private final String name;
+    @Getter
+    private final long asyncTimeoutMs;
+    private final long slowCallThresholdNanos;
+    private final Semaphore bulkhead;
+    @Getter
+    private final SpiCircuitBreaker circuitBreaker;
+    @Getter
+    private final SpiCallMetrics metrics = new SpiCallMetrics();
+
+    public SpiCallGuard(String name, int maxConcurrentCalls, long asyncTimeoutMs, long slowCallThresholdMs, SpiCircuitBreaker circuitBreaker) {
+        this.name = name;
+        this.asyncTimeoutMs = asyncTimeoutMs;
+        this.slowCallThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowCallThresholdMs);
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Tries to acquire a permit of the bulkhead and the permission of the circuit breaker for the call. The permit has
+     * to be released with {@link #release()}, once the call has completed.
+     *
+     * @return empty optional if the call may be made, error code of the fast-fail response otherwise
+     */
+    Optional<MessageErrorCode> tryAcquire() {
+        if (!bulkhead.tryAcquire()) {
+            metrics.recordBulkheadRejection();
+            return Optional.of(MessageErrorCode.ACCESS_EXCEEDED);
+        }
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.release();
+            metrics.recordCircuitBreakerRejection();
+            return Optional.of(MessageErrorCode.SERVICE_UNAVAILABLE);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Records the completed call. Calls slower than the slow call threshold are reported as slow and counted as
+     * failed, even if they have returned a response.
+     *
+     * @param durationNanos duration of the call
+     * @param failed        whether the call has thrown an exception or returned a technical failure
+     * @param timedOut      whether the asynchronous call has been abandoned after its timeout
+     */
+    void onCompletion(long durationNanos, boolean failed, boolean timedOut) {
+        boolean slow = durationNanos > slowCallThresholdNanos;
+        metrics.recordCall(durationNanos, failed || timedOut || slow, timedOut, slow);
+        circuitBreaker.onResult(failed || timedOut || slow);
+    }
+
+    void release() {
+        bulkhead.release();
+    }
+}
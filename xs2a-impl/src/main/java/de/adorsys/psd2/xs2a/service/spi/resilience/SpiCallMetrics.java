@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters of calls of one SPI call key, collected by the SPI resilience layer
+ */
+public class SpiCallMetrics {
+    private final LongAdder successfulCalls = new LongAdder();
+    private final LongAdder failedCalls = new LongAdder();
+    private final LongAdder timedOutCalls = new LongAdder();
+    private final LongAdder slowCalls = new LongAdder();
+    private final LongAdder callsRejectedByBulkhead = new LongAdder();
+    private final LongAdder callsRejectedByCircuitBreaker = new LongAdder();
+    private final LongAdder totalDurationNanos = new LongAdder();
+
+    void recordCall(long durationNanos, boolean failed, boolean timedOut, boolean slow) {
+        if (failed) {
+            failedCalls.increment();
+        } else {
+            successfulCalls.increment();
+        }
+        if (timedOut) {
+            timedOutCalls.increment();
+        }
+        if (slow) {
+            slowCalls.increment();
+        }
+        totalDurationNanos.add(durationNanos);
+    }
+
+    void recordBulkheadRejection() {
+        callsRejectedByBulkhead.increment();
+    }
+
+    void recordCircuitBreakerRejection() {
+        callsRejectedByCircuitBreaker.increment();
+    }
+
+    public long getSuccessfulCalls() {
+        return successfulCalls.sum();
+    }
+
+    /**
+     * @return number of completed calls, that have thrown an exception, returned a technical failure, exceeded their
+     * timeout or the slow call threshold
+     */
+    public long getFailedCalls() {
+        return failedCalls.sum();
+    }
+
+    /**
+     * @return number of asynchronous calls, that have been abandoned after their timeout
+     */
+    public long getTimedOutCalls() {
+        return timedOutCalls.sum();
+    }
+
+    /**
+     * @return number of calls, that have taken longer than the slow call threshold
+     */
+    public long getSlowCalls() {
+        return slowCalls.sum();
+    }
+
+    public long getCallsRejectedByBulkhead() {
+        return callsRejectedByBulkhead.sum();
+    }
+
+    public long getCallsRejectedByCircuitBreaker() {
+        return callsRejectedByCircuitBreaker.sum();
+    }
+
+    /**
+     * @return average duration of completed calls in milliseconds, <code>0</code> if no call has completed yet
+     */
+    public long getAverageDurationMs() {
+        long completedCalls = getSuccessfulCalls() + getFailedCalls();
+        return completedCalls == 0
+                   ? 0
+                   : TimeUnit.NANOSECONDS.toMillis(totalDurationNanos.sum() / completedCalls);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Count-based circuit breaker of one SPI call key.
+ * <p>
+ * The outcomes of the last calls are kept in a sliding window. Once the window is full and the rate of failed calls
+ * reaches the threshold, the circuit opens and calls are rejected for the configured duration. Afterwards a single
+ * trial call is permitted: its success closes the circuit, its failure opens it again.
+ */
+@Slf4j
+public class SpiCircuitBreaker {
+    private final String name;
+    private final int failureRateThreshold;
+    private final long openStateDurationNanos;
+    private final boolean[] outcomes;
+
+    private State state = State.CLOSED;
+    private int position;
+    private int recordedCalls;
+    private int failedCalls;
+    private long openedAt;
+    private boolean trialCallPermitted;
+
+    public SpiCircuitBreaker(String name, int slidingWindowSize, int failureRateThreshold, long openStateDurationMs) {
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openStateDurationNanos = TimeUnit.MILLISECONDS.toNanos(openStateDurationMs);
+        this.outcomes = new boolean[Math.max(1, slidingWindowSize)];
+    }
+
+    /**
+     * Checks whether the call may be made in the current state of the circuit
+     *
+     * @return <code>true</code> if the circuit is closed or the trial call of the half-open circuit is permitted,
+     * <code>false</code> otherwise
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openStateDurationNanos) {
+            transitionTo(State.HALF_OPEN);
+            trialCallPermitted = true;
+        }
+        if (state == State.HALF_OPEN) {
+            boolean permitted = trialCallPermitted;
+            trialCallPermitted = false;
+            return permitted;
+        }
+        return state == State.CLOSED;
+    }
+
+    /**
+     * Records the outcome of the permitted call
+     *
+     * @param failed whether the call has failed
+     */
+    public synchronized void onResult(boolean failed) {
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                open();
+            } else {
+                close();
+            }
+            return;
+        }
+        if (state == State.OPEN) {
+            return;
+        }
+
+        if (recordedCalls == outcomes.length) {
+            if (outcomes[position]) {
+                failedCalls--;
+            }
+        } else {
+            recordedCalls++;
+        }
+        outcomes[position] = failed;
+        if (failed) {
+            failedCalls++;
+        }
+        position = (position + 1) % outcomes.length;
+
+        if (recordedCalls == outcomes.length && failedCalls * 100 >= failureRateThreshold * outcomes.length) {
+            open();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        transitionTo(State.OPEN);
+    }
+
+    private void close() {
+        position = 0;
+        recordedCalls = 0;
+        failedCalls = 0;
+        transitionTo(State.CLOSED);
+    }
+
+    private void transitionTo(State newState) {
+        log.info("Circuit breaker of SPI call {} changes its state from {} to {}", name, state, newState);
+        state = newState;
+    }
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi.resilience;
+
+import de.adorsys.psd2.xs2a.config.SpiResilienceConfig;
+import de.adorsys.psd2.xs2a.core.error.MessageErrorCode;
+import de.adorsys.psd2.xs2a.core.error.TppMessage;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponseStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Resilience layer around all SPI calls, keyed by SPI interface and method.
+ * <p>
+ * Each key has its own bulkhead, limiting the number of concurrent calls, and its own circuit breaker, so that one
+ * slow or failing subsystem of ASPSP (e.g. bulk payments) can't occupy all threads of XS2A. Rejected calls are answered
+ * with a fast-fail SPI response: ACCESS_EXCEEDED (429) if the bulkhead is full, SERVICE_UNAVAILABLE (503) if the
+ * circuit is open.
+ * <p>
+ * Calls of asynchronous SPI, that exceed their timeout, are completed with a SERVICE_UNAVAILABLE response. Calls of
+ * synchronous SPI are not moved to another thread and can't be abandoned, so they are only reported as slow calls,
+ * once they exceed the slow call threshold, and counted as failures by the circuit breaker.
+ * <p>
+ * The aspect is only created if the resilience layer is enabled, otherwise SPI calls are not intercepted at all.
+ */
+@Slf4j
+@Aspect
+@Component
+@Conditional(SpiResilienceConfig.EnabledCondition.class)
+public class SpiResilienceAspect {
+    private static final String SPI_PACKAGE = "de.adorsys.psd2.xs2a.spi.service";
+
+    private final SpiResilienceRegistry spiResilienceRegistry;
+    private final ScheduledExecutorService spiTimeoutScheduler;
+    private final Map<List<Object>, SpiCallGuard> guardsByMethod = new ConcurrentHashMap<>();
+
+    public SpiResilienceAspect(SpiResilienceRegistry spiResilienceRegistry,
+                               @Qualifier("spiTimeoutScheduler") ScheduledExecutorService spiTimeoutScheduler) {
+        this.spiResilienceRegistry = spiResilienceRegistry;
+        this.spiTimeoutScheduler = spiTimeoutScheduler;
+    }
+
+    @Around("execution(de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse de.adorsys.psd2.xs2a.spi.service..*.*(..))")
+    public Object invokeSpi(ProceedingJoinPoint pjp) throws Throwable {
+        SpiCallGuard guard = getGuard(pjp);
+        Optional<MessageErrorCode> rejection = guard.tryAcquire();
+        if (rejection.isPresent()) {
+            return rejectCall(rejection.get(), guard);
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            SpiResponse<?> response = (SpiResponse<?>) pjp.proceed();
+            failed = isTechnicalFailure(response);
+            return response;
+        } finally {
+            guard.onCompletion(System.nanoTime() - start, failed, false);
+            guard.release();
+        }
+    }
+
+    @Around("execution(java.util.concurrent.CompletionStage de.adorsys.psd2.xs2a.spi.service..*.*(..))")
+    public Object invokeAsyncSpi(ProceedingJoinPoint pjp) throws Throwable {
+        SpiCallGuard guard = getGuard(pjp);
+        Optional<MessageErrorCode> rejection = guard.tryAcquire();
+        if (rejection.isPresent()) {
+            return CompletableFuture.completedFuture(rejectCall(rejection.get(), guard));
+        }
+
+        long start = System.nanoTime();
+        CompletionStage<?> responseStage;
+        try {
+            responseStage = (CompletionStage<?>) pjp.proceed();
+        } catch (Throwable e) {
+            guard.onCompletion(System.nanoTime() - start, true, false);
+            guard.release();
+            throw e;
+        }
+
+        // The first of response and timeout finishes the call, so that the permit is released exactly once
+        AtomicBoolean finished = new AtomicBoolean();
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        ScheduledFuture<?> timeout = spiTimeoutScheduler.schedule(() -> {
+            if (finished.compareAndSet(false, true)) {
+                log.info("SPI call {} has exceeded its timeout of {} ms", guard.getName(), guard.getAsyncTimeoutMs());
+                guard.onCompletion(System.nanoTime() - start, true, true);
+                guard.release();
+                result.complete(buildFastFailResponse(MessageErrorCode.SERVICE_UNAVAILABLE));
+            }
+        }, guard.getAsyncTimeoutMs(), TimeUnit.MILLISECONDS);
+
+        responseStage.whenComplete((response, throwable) -> {
+            timeout.cancel(false);
+            if (finished.compareAndSet(false, true)) {
+                guard.onCompletion(System.nanoTime() - start, throwable != null || isTechnicalFailure((SpiResponse<?>) response), false);
+                guard.release();
+                if (throwable == null) {
+                    result.complete(response);
+                } else {
+                    result.completeExceptionally(throwable);
+                }
+            }
+        });
+        return result;
+    }
+
+    private SpiCallGuard getGuard(ProceedingJoinPoint pjp) {
+        Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+        Class<?> targetClass = ClassUtils.getUserClass(pjp.getTarget());
+        return guardsByMethod.computeIfAbsent(Arrays.asList(targetClass, method),
+                                              key -> spiResilienceRegistry.getGuard(getSpiName(targetClass, method), method.getName()));
+    }
+
+    private String getSpiName(Class<?> targetClass, Method method) {
+        return ClassUtils.getAllInterfacesForClassAsSet(targetClass).stream()
+                   .filter(spiInterface -> spiInterface.getName().startsWith(SPI_PACKAGE))
+                   .filter(spiInterface -> Arrays.stream(spiInterface.getMethods())
+                                               .anyMatch(spiMethod -> spiMethod.getName().equals(method.getName())))
+                   .findFirst()
+                   .map(Class::getSimpleName)
+                   .orElseGet(targetClass::getSimpleName);
+    }
+
+    private boolean isTechnicalFailure(SpiResponse<?> response) {
+        return response == null
+                   || response.getResponseStatus() == SpiResponseStatus.TECHNICAL_FAILURE
+                   || response.getErrors().stream()
+                          .anyMatch(error -> error.getErrorCode() == MessageErrorCode.INTERNAL_SERVER_ERROR);
+    }
+
+    private SpiResponse<Object> rejectCall(MessageErrorCode errorCode, SpiCallGuard guard) {
+        log.info("SPI call {} is rejected with {}", guard.getName(), errorCode);
+        return buildFastFailResponse(errorCode);
+    }
+
+    private SpiResponse<Object> buildFastFailResponse(MessageErrorCode errorCode) {
+        String text = errorCode == MessageErrorCode.ACCESS_EXCEEDED
+                          ? "Too many concurrent requests to ASPSP, please try again later"
+                          : "ASPSP is temporarily unavailable, please try again later";
+        return SpiResponse.builder()
+                   .error(new TppMessage(errorCode, text))
+                   .fail(SpiResponseStatus.TECHNICAL_FAILURE);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi.resilience;
+
+import de.adorsys.psd2.xs2a.config.SpiResilienceConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the state of the SPI resilience layer per SPI call key, i.e. per SPI interface and method
+ * (e.g. "BulkPaymentSpi.initiatePayment"), and exposes its metrics.
+ */
+@Component
+@RequiredArgsConstructor
+public class SpiResilienceRegistry {
+    private final SpiResilienceConfig spiResilienceConfig;
+    private final Map<String, SpiCallGuard> guards = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the metrics of all SPI call keys, that have been called so far
+     *
+     * @return metrics by SPI call key, sorted by key
+     */
+    public Map<String, SpiCallMetrics> getMetrics() {
+        Map<String, SpiCallMetrics> metrics = new TreeMap<>();
+        guards.forEach((key, guard) -> metrics.put(key, guard.getMetrics()));
+        return metrics;
+    }
+
+    /**
+     * Returns the current state of the circuit breaker of the SPI call key
+     *
+     * @param key SPI call key, e.g. "AccountSpi.requestAccountList"
+     * @return state of the circuit breaker, empty if the SPI call key has not been called so far
+     */
+    public Optional<SpiCircuitBreaker.State> getCircuitBreakerState(String key) {
+        return Optional.ofNullable(guards.get(key))
+                   .map(guard -> guard.getCircuitBreaker().getState());
+    }
+
+    SpiCallGuard getGuard(String spiName, String methodName) {
+        return guards.computeIfAbsent(spiName + "." + methodName, key -> createGuard(key, spiName, methodName));
+    }
+
+    private SpiCallGuard createGuard(String key, String spiName, String methodName) {
+        SpiCircuitBreaker circuitBreaker = new SpiCircuitBreaker(key,
+                                                                 spiResilienceConfig.getSlidingWindowSize(spiName, methodName),
+                                                                 spiResilienceConfig.getFailureRateThreshold(spiName, methodName),
+                                                                 spiResilienceConfig.getOpenStateDurationMs(spiName, methodName));
+        return new SpiCallGuard(key,
+                                spiResilienceConfig.getMaxConcurrentCalls(spiName, methodName),
+                                spiResilienceConfig.getAsyncTimeoutMs(spiName, methodName),
+                                spiResilienceConfig.getSlowCallThresholdMs(spiName, methodName),
+                                circuitBreaker);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.advice;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyKey;
+import de.adorsys.psd2.consent.api.idempotency.IdempotentResponse;
+import de.adorsys.psd2.xs2a.service.idempotency.Xs2aIdempotencyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import javax.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static de.adorsys.psd2.xs2a.web.interceptor.idempotency.IdempotencyInterceptor.IDEMPOTENCY_KEY_ATTRIBUTE;
+
+/**
+ * Stores successful responses of the requests, that have been reserved by
+ * {@link de.adorsys.psd2.xs2a.web.interceptor.idempotency.IdempotencyInterceptor}, so they are replayed to repeated
+ * requests. Error responses are not stored, such requests are released and processed again when repeated.
+ */
+@Slf4j
+@RequiredArgsConstructor
+@ControllerAdvice(basePackages = "de.adorsys.psd2.xs2a.web.controller")
+public class IdempotentResponseAdvice implements ResponseBodyAdvice<Object> {
+    private final Xs2aIdempotencyService xs2aIdempotencyService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType, Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest) || !(response instanceof ServletServerHttpResponse)) {
+            return body;
+        }
+
+        HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        Object idempotencyKey = servletRequest.getAttribute(IDEMPOTENCY_KEY_ATTRIBUTE);
+        int status = ((ServletServerHttpResponse) response).getServletResponse().getStatus();
+        if (!(idempotencyKey instanceof IdempotencyKey) || !HttpStatus.valueOf(status).is2xxSuccessful()) {
+            return body;
+        }
+
+        try {
+            Map<String, String> headers = response.getHeaders().toSingleValueMap();
+            headers.put(HttpHeaders.CONTENT_TYPE, selectedContentType.toString());
+            if (xs2aIdempotencyService.complete((IdempotencyKey) idempotencyKey, new IdempotentResponse(status, headers, serialise(body)))) {
+                servletRequest.removeAttribute(IDEMPOTENCY_KEY_ATTRIBUTE);
+            }
+            // otherwise the request stays reserved and is released on completion, so repeated requests don't wait for it
+        } catch (JsonProcessingException e) {
+            // the request stays reserved and is released on completion
+            log.warn("Response of idempotent request couldn't be serialised: {}", e.getMessage());
+        }
+        return body;
+    }
+
+    private byte[] serialise(Object body) throws JsonProcessingException {
+        if (body == null) {
+            return null;
+        }
+        if (body instanceof byte[]) {
+            return (byte[]) body;
+        }
+        if (body instanceof String) {
+            return ((String) body).getBytes(StandardCharsets.UTF_8);
+        }
+        return objectMapper.writeValueAsBytes(body);
+    }
+}
@@ -16,13 +16,13 @@
 
 package de.adorsys.psd2.xs2a.web.aspect;
 
-import de.adorsys.psd2.xs2a.core.profile.ScaRedirectFlow;
+import de.adorsys.psd2.aspsp.profile.domain.AspspSettings;
 import de.adorsys.psd2.aspsp.profile.service.AspspProfileService;
+import de.adorsys.psd2.xs2a.core.profile.ScaRedirectFlow;
 import de.adorsys.psd2.xs2a.domain.ResponseObject;
 import de.adorsys.psd2.xs2a.domain.TppMessageInformation;
 import de.adorsys.psd2.xs2a.exception.MessageError;
 import de.adorsys.psd2.xs2a.service.message.MessageService;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.http.ResponseEntity;
@@ -36,10 +36,16 @@ import static org.springframework.hateoas.mvc.ControllerLinkBuilder.linkTo;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public abstract class AbstractLinkAspect<T> {
     private final MessageService messageService;
     private final AspspProfileService aspspProfileService;
+    private final Class<T> controllerClass;
+
+    protected AbstractLinkAspect(MessageService messageService, AspspProfileService aspspProfileService) {
+        this.messageService = messageService;
+        this.aspspProfileService = aspspProfileService;
+        this.controllerClass = resolveControllerClass();
+    }
 
     protected <B> boolean hasError(ResponseEntity<B> target) {
         Optional<B> body = Optional.ofNullable(target.getBody());
@@ -63,14 +69,21 @@ public abstract class AbstractLinkAspect<T> {
                    .build();
     }
 
+    /**
+     * Resolves base URL for the links of current response. ASPSP settings are read only once per call, as with remote
+     * ASPSP profile each read may have to revalidate the cached settings.
+     *
+     * @return XS2A base URL from ASPSP profile if it is forced there, base URL of the current request otherwise
+     */
     String getHttpUrl() {
-        return aspspProfileService.getAspspSettings().isForceXs2aBaseUrl()
-                   ? aspspProfileService.getAspspSettings().getXs2aBaseUrl()
-                   : linkTo(getControllerClass()).toString();
+        AspspSettings aspspSettings = aspspProfileService.getAspspSettings();
+        return aspspSettings.isForceXs2aBaseUrl()
+                   ? aspspSettings.getXs2aBaseUrl()
+                   : linkTo(controllerClass).toString();
     }
 
     @SuppressWarnings("unchecked")
-    private Class<T> getControllerClass() {
+    private Class<T> resolveControllerClass() {
         try {
             String className = ((ParameterizedType) this.getClass().getGenericSuperclass())
                                    .getActualTypeArguments()[0]
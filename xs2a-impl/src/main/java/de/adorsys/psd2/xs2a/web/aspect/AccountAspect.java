@@ -61,7 +61,8 @@ public class AccountAspect extends AbstractLinkAspect<AccountController> {
             Xs2aAccountListHolder body = result.getBody();
             List<Xs2aAccountDetails> accountDetails = body.getAccountDetails();
             Xs2aAccountAccess xs2aAccountAccess = body.getAccountConsent().getAccess();
-            accountDetails.forEach(acc -> acc.setLinks(new AccountDetailsLinks(getHttpUrl(), acc.getResourceId(),
+            String httpUrl = getHttpUrl();
+            accountDetails.forEach(acc -> acc.setLinks(new AccountDetailsLinks(httpUrl, acc.getResourceId(),
                                                                                xs2aAccountAccess)));
             return result;
         }
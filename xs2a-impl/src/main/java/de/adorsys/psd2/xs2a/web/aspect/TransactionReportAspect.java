@@ -19,6 +19,7 @@ package de.adorsys.psd2.xs2a.web.aspect;
 import de.adorsys.psd2.xs2a.component.JsonConverter;
 import de.adorsys.psd2.xs2a.domain.ResponseObject;
 import de.adorsys.psd2.xs2a.domain.account.Xs2aTransactionsReport;
+import de.adorsys.psd2.xs2a.service.mapper.TransactionsReportJsonWriter;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
@@ -30,10 +31,13 @@ import org.springframework.stereotype.Component;
 public class TransactionReportAspect {
     private final int maxNumberOfCharInTransactionJson;
     private final JsonConverter jsonConverter;
+    private final TransactionsReportJsonWriter transactionsReportJsonWriter;
 
-    public TransactionReportAspect(int maxNumberOfCharInTransactionJson, JsonConverter jsonConverter) {
+    public TransactionReportAspect(int maxNumberOfCharInTransactionJson, JsonConverter jsonConverter,
+                                   TransactionsReportJsonWriter transactionsReportJsonWriter) {
         this.maxNumberOfCharInTransactionJson = maxNumberOfCharInTransactionJson;
         this.jsonConverter = jsonConverter;
+        this.transactionsReportJsonWriter = transactionsReportJsonWriter;
     }
 
     @AfterReturning(pointcut = "execution(* de.adorsys.psd2.xs2a.service.AccountService.getTransactionsReportByPeriod(..))", returning = "result", argNames = "result")
@@ -48,6 +52,11 @@ public class TransactionReportAspect {
     }
 
     private boolean isTransactionReportHuge(Xs2aTransactionsReport transactionsReport) {
+        if (transactionsReport.isStreamed()) {
+            // streamed reports have no mapped transactions to be converted, so the written report is counted instead
+            return transactionsReportJsonWriter.countCharacters(transactionsReport) > maxNumberOfCharInTransactionJson;
+        }
+
         String jsonReport = jsonConverter.toJson(transactionsReport)
                                 .orElse("");
 
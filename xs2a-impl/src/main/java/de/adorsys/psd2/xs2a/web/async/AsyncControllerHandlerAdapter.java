@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.async;
+
+import de.adorsys.psd2.xs2a.web.controller.AccountController;
+import de.adorsys.psd2.xs2a.web.controller.ConsentController;
+import de.adorsys.psd2.xs2a.web.controller.FundsConfirmationController;
+import de.adorsys.psd2.xs2a.web.controller.PaymentController;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Handler adapter, that invokes methods of SPI-bound XS2A controllers on a separate executor, so the servlet container
+ * thread is released for the SPI and CMS round trip.
+ * <p>
+ * Controller method arguments are still resolved in the container thread, only the invocation itself is returned to
+ * Spring MVC as a {@link WebAsyncTask}. The returned response entity is written in the async dispatch by the same
+ * return value handlers and response body advices as for synchronous requests. Request attributes, and therefore
+ * request scoped beans like {@link de.adorsys.psd2.xs2a.service.validator.tpp.TppInfoHolder} and
+ * {@link de.adorsys.psd2.xs2a.domain.ScaApproachHolder}, as well as the request itself are bound to the executing
+ * thread by the dispatcher servlet for the time of the invocation, so service aspects work as in the container thread.
+ */
+public class AsyncControllerHandlerAdapter extends RequestMappingHandlerAdapter {
+    private static final Set<Class<?>> ASYNC_CONTROLLERS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+        AccountController.class, ConsentController.class, FundsConfirmationController.class, PaymentController.class)));
+
+    private final boolean enabled;
+    private final long timeoutMs;
+    private final AsyncTaskExecutor executor;
+
+    public AsyncControllerHandlerAdapter(boolean enabled, long timeoutMs, AsyncTaskExecutor executor) {
+        this.enabled = enabled;
+        this.timeoutMs = timeoutMs;
+        this.executor = executor;
+    }
+
+    @Override
+    protected boolean supportsInternal(HandlerMethod handlerMethod) {
+        return enabled && ASYNC_CONTROLLERS.contains(handlerMethod.getBeanType());
+    }
+
+    @Override
+    protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+        return new AsyncInvocableHandlerMethod(handlerMethod);
+    }
+
+    private class AsyncInvocableHandlerMethod extends ServletInvocableHandlerMethod {
+        private AsyncInvocableHandlerMethod(HandlerMethod handlerMethod) {
+            super(handlerMethod);
+        }
+
+        @Override
+        public Object invokeForRequest(NativeWebRequest request, ModelAndViewContainer mavContainer, Object... providedArgs) throws Exception {
+            Object[] args = getMethodArgumentValues(request, mavContainer, providedArgs);
+            return new WebAsyncTask<>(timeoutMs, executor, () -> doInvoke(args));
+        }
+    }
+}
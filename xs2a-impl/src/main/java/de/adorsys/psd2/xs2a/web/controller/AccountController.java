@@ -24,6 +24,7 @@ import de.adorsys.psd2.xs2a.domain.account.*;
 import de.adorsys.psd2.xs2a.service.AccountService;
 import de.adorsys.psd2.xs2a.service.mapper.AccountModelMapper;
 import de.adorsys.psd2.xs2a.service.mapper.ResponseMapper;
+import de.adorsys.psd2.xs2a.service.mapper.TransactionsReportJsonWriter;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ResponseErrorMapper;
 import io.swagger.annotations.Api;
 import lombok.AllArgsConstructor;
@@ -48,6 +49,7 @@ public class AccountController implements AccountApi {
     private final ResponseMapper responseMapper;
     private final AccountModelMapper accountModelMapper;
     private final ResponseErrorMapper responseErrorMapper;
+    private final TransactionsReportJsonWriter transactionsReportJsonWriter;
 
     @Override
     public ResponseEntity getAccountList(UUID xRequestID, String consentID, Boolean withBalance, String digest, String signature, byte[] tpPSignatureCertificate, String psUIPAddress, String psUIPPort, String psUAccept, String psUAcceptCharset, String psUAcceptEncoding, String psUAcceptLanguage, String psUUserAgent, String psUHttpMethod, UUID psUDeviceID, String psUGeoLocation) {
@@ -80,6 +82,8 @@ public class AccountController implements AccountApi {
 
         if (transactionsReport.hasError()) {
             return responseErrorMapper.generateErrorResponse(transactionsReport.getError());
+        } else if (transactionsReport.getBody().isStreamed()) {
+            return responseMapper.ok(transactionsReport, transactionsReportJsonWriter::mapToTransactionsResponseJson);
         } else if (transactionsReport.getBody().isResponseContentTypeJson()) {
             return responseMapper.ok(transactionsReport, accountModelMapper::mapToTransactionsResponse200Json);
         } else {
@@ -18,6 +18,8 @@ package de.adorsys.psd2.xs2a.web.controller;
 
 import de.adorsys.psd2.api.ConsentApi;
 import de.adorsys.psd2.model.Consents;
+import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
+import de.adorsys.psd2.xs2a.core.event.EventType;
 import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
 import de.adorsys.psd2.xs2a.core.sca.ScaStatus;
 import de.adorsys.psd2.xs2a.core.tpp.TppRedirectUri;
@@ -25,6 +27,7 @@ import de.adorsys.psd2.xs2a.domain.ResponseObject;
 import de.adorsys.psd2.xs2a.domain.authorisation.AuthorisationResponse;
 import de.adorsys.psd2.xs2a.domain.consent.*;
 import de.adorsys.psd2.xs2a.service.ConsentService;
+import de.adorsys.psd2.xs2a.service.RequestProviderService;
 import de.adorsys.psd2.xs2a.service.mapper.ResponseMapper;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ResponseErrorMapper;
 import de.adorsys.psd2.xs2a.web.header.ConsentHeadersBuilder;
@@ -40,6 +43,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 @SuppressWarnings("unchecked") // This class implements autogenerated interface without proper return values generated
@@ -55,6 +59,7 @@ public class ConsentController implements ConsentApi {
     private final TppRedirectUriMapper tppRedirectUriMapper;
     private final ResponseErrorMapper responseErrorMapper;
     private final ConsentHeadersBuilder consentHeadersBuilder;
+    private final RequestProviderService requestProviderService;
 
     @Override
     public ResponseEntity createConsent(UUID xRequestID, Consents body, String digest, String signature,
@@ -91,11 +96,23 @@ public class ConsentController implements ConsentApi {
                                            String psUAccept, String psUAcceptCharset, String psUAcceptEncoding,
                                            String psUAcceptLanguage, String psUUserAgent, String psUHttpMethod,
                                            UUID psUDeviceID, String psUGeoLocation) {
+        Optional<String> finalisedConsentETag = getFinalisedConsentETagForConditionalRequest(consentId);
+        if (finalisedConsentETag.filter(requestProviderService::matchesIfNoneMatch).isPresent()) {
+            return buildNotModifiedResponse(consentId, finalisedConsentETag.get(), EventType.GET_AIS_CONSENT_STATUS_REQUEST_RECEIVED);
+        }
 
         ResponseObject<ConsentStatusResponse> accountConsentsStatusByIdResponse = consentService.getAccountConsentsStatusById(consentId);
-        return accountConsentsStatusByIdResponse.hasError()
-                   ? responseErrorMapper.generateErrorResponse(accountConsentsStatusByIdResponse.getError())
-                   : responseMapper.ok(accountConsentsStatusByIdResponse, consentModelMapper::mapToConsentStatusResponse200);
+        if (accountConsentsStatusByIdResponse.hasError()) {
+            return responseErrorMapper.generateErrorResponse(accountConsentsStatusByIdResponse.getError());
+        }
+
+        ConsentStatusResponse consentStatusResponse = accountConsentsStatusByIdResponse.getBody();
+        ConsentStatus consentStatus = ConsentStatus.fromValue(consentStatusResponse.getConsentStatus()).orElse(null);
+        String eTag = consentService.buildConsentETag(consentStatusResponse.getVersion(), consentStatus);
+        ResponseHeaders responseHeaders = consentHeadersBuilder.buildConsentETagHeaders(eTag);
+        return requestProviderService.matchesIfNoneMatch(eTag)
+                   ? responseMapper.notModified(responseHeaders)
+                   : responseMapper.ok(accountConsentsStatusByIdResponse, consentModelMapper::mapToConsentStatusResponse200, responseHeaders);
     }
 
     @Override
@@ -185,10 +202,22 @@ public class ConsentController implements ConsentApi {
                                                 String psUAccept, String psUAcceptCharset, String psUAcceptEncoding,
                                                 String psUAcceptLanguage, String psUUserAgent, String psUHttpMethod,
                                                 UUID psUDeviceID, String psUGeoLocation) {
+        Optional<String> finalisedConsentETag = getFinalisedConsentETagForConditionalRequest(consentId);
+        if (finalisedConsentETag.filter(requestProviderService::matchesIfNoneMatch).isPresent()) {
+            return buildNotModifiedResponse(consentId, finalisedConsentETag.get(), EventType.GET_AIS_CONSENT_REQUEST_RECEIVED);
+        }
+
         ResponseObject<AccountConsent> accountConsentByIdResponse = consentService.getAccountConsentById(consentId);
-        return accountConsentByIdResponse.hasError()
-                   ? responseErrorMapper.generateErrorResponse(accountConsentByIdResponse.getError())
-                   : responseMapper.ok(accountConsentByIdResponse, consentModelMapper::mapToConsentInformationResponse200Json);
+        if (accountConsentByIdResponse.hasError()) {
+            return responseErrorMapper.generateErrorResponse(accountConsentByIdResponse.getError());
+        }
+
+        AccountConsent accountConsent = accountConsentByIdResponse.getBody();
+        String eTag = consentService.buildConsentETag(accountConsent.getVersion(), accountConsent.getConsentStatus());
+        ResponseHeaders responseHeaders = consentHeadersBuilder.buildConsentETagHeaders(eTag);
+        return requestProviderService.matchesIfNoneMatch(eTag)
+                   ? responseMapper.notModified(responseHeaders)
+                   : responseMapper.ok(accountConsentByIdResponse, consentModelMapper::mapToConsentInformationResponse200Json, responseHeaders);
     }
 
     @Override
@@ -201,4 +230,20 @@ public class ConsentController implements ConsentApi {
                    ? responseErrorMapper.generateErrorResponse(response.getError())
                    : responseMapper.delete(response);
     }
+
+    /**
+     * Reads the entity tag of a finalised consent only for conditional requests, so that unconditional polling of a
+     * consent doesn't cost an additional call to CMS. Entity tags of other consents are only known after their status
+     * has been requested from ASPSP by the read of the consent.
+     */
+    private Optional<String> getFinalisedConsentETagForConditionalRequest(String consentId) {
+        return requestProviderService.hasIfNoneMatch()
+                   ? consentService.getFinalisedConsentETag(consentId)
+                   : Optional.empty();
+    }
+
+    private ResponseEntity buildNotModifiedResponse(String consentId, String eTag, EventType eventType) {
+        consentService.recordNotModifiedConsentRequest(consentId, eventType);
+        return responseMapper.notModified(consentHeadersBuilder.buildConsentETagHeaders(eTag));
+    }
 }
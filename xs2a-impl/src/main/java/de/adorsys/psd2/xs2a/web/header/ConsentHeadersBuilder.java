@@ -97,6 +97,18 @@ public class ConsentHeadersBuilder {
         return buildHeadersForExistingAuthorisation(authorisationId);
     }
 
+    /**
+     * Builds response headers for successful get consent and get consent status requests
+     *
+     * @param eTag entity tag of the consent
+     * @return response headers
+     */
+    public ResponseHeaders buildConsentETagHeaders(@NotNull String eTag) {
+        return ResponseHeaders.builder()
+                   .eTag(eTag)
+                   .build();
+    }
+
     private ResponseHeaders buildHeadersForExistingAuthorisation(String authorisationId) {
         ScaApproach authorisationScaApproach = scaApproachResolver.getInitiationScaApproach(authorisationId);
         return buildScaApproachHeader(authorisationScaApproach);
@@ -48,6 +48,11 @@ public class ResponseHeaders {
             return this;
         }
 
+        public ResponseHeadersBuilder eTag(@NotNull String eTag) {
+            this.httpHeaders.setETag(eTag);
+            return this;
+        }
+
         public ResponseHeaders build() {
             return new ResponseHeaders(httpHeaders);
         }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.interceptor;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Decorator of an interceptor, that handles asynchronously processed requests only once.
+ * <p>
+ * The dispatcher servlet invokes {@link HandlerInterceptor#preHandle} again in the async dispatch, that writes the
+ * response of an asynchronously processed request. As requests have been already logged and validated in the initial
+ * dispatch, the decorated interceptor is skipped in the async dispatch. {@link HandlerInterceptor#postHandle} and
+ * {@link HandlerInterceptor#afterCompletion} are invoked only after the response has been written, so they are always
+ * passed to the decorated interceptor.
+ */
+@RequiredArgsConstructor
+public class InitialDispatchInterceptor implements AsyncHandlerInterceptor {
+    private final HandlerInterceptor interceptor;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        return request.getDispatcherType() == DispatcherType.ASYNC
+                   || interceptor.preHandle(request, response, handler);
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) throws Exception {
+        interceptor.postHandle(request, response, handler, modelAndView);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
+        interceptor.afterCompletion(request, response, handler, ex);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (interceptor instanceof AsyncHandlerInterceptor) {
+            ((AsyncHandlerInterceptor) interceptor).afterConcurrentHandlingStarted(request, response, handler);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.interceptor.idempotency;
+
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyKey;
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyReservation;
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyStatus;
+import de.adorsys.psd2.consent.api.idempotency.IdempotentResponse;
+import de.adorsys.psd2.xs2a.service.TppService;
+import de.adorsys.psd2.xs2a.service.discovery.ServiceTypeDiscoveryService;
+import de.adorsys.psd2.xs2a.service.idempotency.Xs2aIdempotencyService;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorType;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceTypeToErrorTypeMapper;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.StaticErrorResponseWriter;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+import static de.adorsys.psd2.xs2a.core.error.MessageErrorCode.SERVICE_UNAVAILABLE;
+
+/**
+ * Answers repeated payment initiation and consent creation requests with the response of the first request.
+ * <p>
+ * A reserved request is marked with the {@link #IDEMPOTENCY_KEY_ATTRIBUTE} request attribute. Its successful response
+ * is stored by {@link de.adorsys.psd2.xs2a.web.advice.IdempotentResponseAdvice}, that removes the attribute, all
+ * requests still marked on completion are released, so the TPP can repeat them.
+ */
+@RequiredArgsConstructor
+public class IdempotencyInterceptor extends HandlerInterceptorAdapter {
+    public static final String IDEMPOTENCY_KEY_ATTRIBUTE = IdempotencyInterceptor.class.getName() + ".idempotencyKey";
+    private static final String X_REQUEST_ID_HEADER = "X-Request-ID";
+
+    private final Xs2aIdempotencyService xs2aIdempotencyService;
+    private final TppService tppService;
+    private final StaticErrorResponseWriter staticErrorResponseWriter;
+    private final ServiceTypeDiscoveryService serviceTypeDiscoveryService;
+    private final ServiceTypeToErrorTypeMapper errorTypeMapper;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        String xRequestId = request.getHeader(X_REQUEST_ID_HEADER);
+        if (!HttpMethod.POST.matches(request.getMethod()) || StringUtils.isBlank(xRequestId)) {
+            return true;
+        }
+
+        IdempotencyKey idempotencyKey = xs2aIdempotencyService.buildKey(tppService.getTppId(), xRequestId, IOUtils.toByteArray(request.getInputStream()));
+        IdempotencyReservation reservation = xs2aIdempotencyService.reserve(idempotencyKey);
+
+        if (reservation.getStatus() == IdempotencyStatus.RESERVED) {
+            request.setAttribute(IDEMPOTENCY_KEY_ATTRIBUTE, idempotencyKey);
+            return true;
+        }
+
+        if (reservation.getStatus() == IdempotencyStatus.COMPLETED) {
+            replayResponse(response, reservation.getResponse(), xRequestId);
+        } else {
+            ErrorType errorType = errorTypeMapper.mapToErrorType(serviceTypeDiscoveryService.getServiceType(), SERVICE_UNAVAILABLE.getCode());
+            staticErrorResponseWriter.writeErrorResponse(response, errorType, SERVICE_UNAVAILABLE);
+        }
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object idempotencyKey = request.getAttribute(IDEMPOTENCY_KEY_ATTRIBUTE);
+        if (idempotencyKey instanceof IdempotencyKey) {
+            request.removeAttribute(IDEMPOTENCY_KEY_ATTRIBUTE);
+            xs2aIdempotencyService.release((IdempotencyKey) idempotencyKey);
+        }
+    }
+
+    private void replayResponse(HttpServletResponse response, IdempotentResponse idempotentResponse, String xRequestId) throws IOException {
+        response.setStatus(idempotentResponse.getStatusCode());
+        if (idempotentResponse.getHeaders() != null) {
+            for (Map.Entry<String, String> header : idempotentResponse.getHeaders().entrySet()) {
+                response.setHeader(header.getKey(), header.getValue());
+            }
+        }
+        response.setHeader(X_REQUEST_ID_HEADER, xRequestId);
+
+        byte[] body = idempotentResponse.getBody();
+        if (body != null) {
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.interceptor.logging;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Fields of XS2A access log entries, the fields are written in the order of their declaration
+ */
+@Getter
+@RequiredArgsConstructor
+public enum AccessLogField {
+    TPP_ID("TPP ID", "tppId", true, true, false, false),
+    TPP_IP("TPP IP", "tppIp", true, false, false, false),
+    X_REQUEST_ID("X-Request-ID", "xRequestId", true, true, false, false),
+    URI("URI", "uri", true, false, false, false),
+    ACCOUNT_ID("Account ID", "accountId", true, false, true, false),
+    CONSENT_ID("Consent ID", "consentId", true, false, true, false),
+    PAYMENT_ID("Payment ID", "paymentId", true, false, true, false),
+    BASKET_ID("Basket ID", "basketId", true, false, true, false),
+    STATUS("Status", "status", false, true, false, true),
+    DURATION_MS("Duration ms", "durationMs", false, true, false, true);
+
+    /**
+     * Name of the field in key/value format
+     */
+    private final String label;
+    /**
+     * Name of the field in JSON format
+     */
+    private final String jsonName;
+    private final boolean request;
+    private final boolean response;
+    /**
+     * Optional fields are omitted, if the request has no such value (e.g. no payment ID in account requests)
+     */
+    private final boolean optional;
+    private final boolean numeric;
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.interceptor.logging;
+
+public enum AccessLogFormat {
+    /**
+     * Human readable entries, e.g. <code>REQUEST - TPP ID: [12345987], X-Request-ID: [99391c7e-...]</code>
+     */
+    KEY_VALUE,
+    /**
+     * One JSON object per entry, e.g. <code>{"type":"REQUEST","tppId":"12345987","xRequestId":"99391c7e-..."}</code>
+     */
+    JSON
+}
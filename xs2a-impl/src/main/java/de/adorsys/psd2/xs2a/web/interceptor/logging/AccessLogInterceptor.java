@@ -1,5 +1,5 @@
 /*
- * Copyright 2018-2018 adorsys GmbH & Co KG
+ * Copyright 2018-2019 adorsys GmbH & Co KG
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,43 +16,43 @@
 
 package de.adorsys.psd2.xs2a.web.interceptor.logging;
 
-import de.adorsys.psd2.xs2a.component.TppLogger;
 import de.adorsys.psd2.xs2a.service.TppService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerMapping;
 import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Logs all TPP requests and responses to XS2A endpoints with {@link AccessLogger}. The TPP ID is resolved once per
+ * request and reused for the response entry.
+ */
 @RequiredArgsConstructor
-@Component
-public class SigningBasketLoggingInterceptor extends HandlerInterceptorAdapter {
+public class AccessLogInterceptor extends HandlerInterceptorAdapter {
+    private static final String TPP_ID_ATTRIBUTE = AccessLogInterceptor.class.getName() + ".tppId";
+    private static final String START_TIME_ATTRIBUTE = AccessLogInterceptor.class.getName() + ".startTime";
+
     private final TppService tppService;
+    private final AccessLogger accessLogger;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        Map<String, String> pathVariables = (Map) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
-
-        TppLogger.logRequest()
-            .withParam("TPP ID", tppService.getTppId())
-            .withParam("TPP IP", request.getRemoteAddr())
-            .withParam("X-Request-ID", request.getHeader("X-Request-ID"))
-            .withParam("URI", request.getRequestURI())
-            .withParam("Basket ID", pathVariables.getOrDefault("basketId", "Not exist in URI"))
-            .perform();
-
+        if (accessLogger.isEnabled()) {
+            String tppId = tppService.getTppId();
+            request.setAttribute(TPP_ID_ATTRIBUTE, tppId);
+            request.setAttribute(START_TIME_ATTRIBUTE, System.nanoTime());
+            accessLogger.logRequest(request, tppId);
+        }
         return true;
     }
 
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
-        TppLogger.logResponse()
-            .withParam("TPP ID", tppService.getTppId())
-            .withParam("X-Request-ID", response.getHeader("X-Request-ID"))
-            .withParam("Status", String.valueOf(response.getStatus()))
-            .perform();
+        Object startTime = request.getAttribute(START_TIME_ATTRIBUTE);
+        if (startTime instanceof Long && accessLogger.isEnabled()) {
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - (Long) startTime);
+            accessLogger.logResponse(response, (String) request.getAttribute(TPP_ID_ATTRIBUTE), durationMs);
+        }
     }
 }
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.interceptor.logging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Writes entries of XS2A access log for all TPP requests and responses to the "access-log" logger.
+ * <p>
+ * Entries are written in {@code xs2a.access-log.format} and contain the fields listed in {@code xs2a.access-log.fields}
+ * (all fields by default). The prefix of each field in the chosen format is built once on startup, so writing an entry
+ * only appends the prefixes and field values to a per-thread buffer. The logger is expected to be configured with an
+ * asynchronous appender, see logback-spring.xml.
+ */
+@Slf4j(topic = "access-log")
+@Component
+public class AccessLogger {
+    private static final String X_REQUEST_ID_HEADER = "X-Request-ID";
+    private static final String CONSENT_ID_HEADER = "Consent-ID";
+    private static final int INITIAL_BUFFER_CAPACITY = 256;
+    private static final int MAX_RETAINED_BUFFER_CAPACITY = 4096;
+    private static final ThreadLocal<StringBuilder> BUFFERS = ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_CAPACITY));
+
+    private final AccessLogFormat format;
+    private final AccessLogField[] requestFields;
+    private final AccessLogField[] responseFields;
+    private final String requestStart;
+    private final String responseStart;
+    private final String[] fieldPrefixes = new String[AccessLogField.values().length];
+    private final String[] fieldSuffixes = new String[AccessLogField.values().length];
+    private final int firstFieldPrefixOffset;
+    private final String end;
+
+    public AccessLogger(@Value("${xs2a.access-log.format:KEY_VALUE}") AccessLogFormat format,
+                        @Value("${xs2a.access-log.fields:}") String[] fields) {
+        this.format = format;
+        Set<AccessLogField> enabledFields = parseFields(fields);
+        this.requestFields = filterFields(enabledFields, AccessLogField::isRequest);
+        this.responseFields = filterFields(enabledFields, AccessLogField::isResponse);
+
+        boolean json = format == AccessLogFormat.JSON;
+        this.requestStart = json ? "{\"type\":\"REQUEST\"" : "REQUEST - ";
+        this.responseStart = json ? "{\"type\":\"RESPONSE\"" : "RESPONSE - ";
+        for (AccessLogField field : AccessLogField.values()) {
+            String quote = field.isNumeric() ? "" : "\"";
+            fieldPrefixes[field.ordinal()] = json
+                                                 ? ",\"" + field.getJsonName() + "\":" + quote
+                                                 : ", " + field.getLabel() + ": [";
+            fieldSuffixes[field.ordinal()] = json ? quote : "]";
+        }
+        // the separator of key/value fields is skipped before the first field, JSON fields always follow the type
+        this.firstFieldPrefixOffset = json ? 0 : 2;
+        this.end = json ? "}" : "";
+    }
+
+    public boolean isEnabled() {
+        return log.isInfoEnabled();
+    }
+
+    /**
+     * Writes access log entry for the request
+     *
+     * @param request TPP request
+     * @param tppId   ID of the TPP, that has sent the request
+     */
+    public void logRequest(HttpServletRequest request, String tppId) {
+        log.info(formatRequest(request, tppId));
+    }
+
+    /**
+     * Writes access log entry for the response
+     *
+     * @param response   response to the TPP request
+     * @param tppId      ID of the TPP, that has sent the request
+     * @param durationMs time in milliseconds between the request has been received and the response has been written
+     */
+    public void logResponse(HttpServletResponse response, String tppId, long durationMs) {
+        log.info(formatResponse(response, tppId, durationMs));
+    }
+
+    String formatRequest(HttpServletRequest request, String tppId) {
+        Map<String, String> pathVariables = getPathVariables(request);
+        StringBuilder entry = startEntry(requestStart);
+        boolean first = true;
+        for (AccessLogField field : requestFields) {
+            if (appendField(entry, field, getRequestValue(field, request, pathVariables, tppId), first)) {
+                first = false;
+            }
+        }
+        return finishEntry(entry);
+    }
+
+    String formatResponse(HttpServletResponse response, String tppId, long durationMs) {
+        StringBuilder entry = startEntry(responseStart);
+        boolean first = true;
+        for (AccessLogField field : responseFields) {
+            boolean appended;
+            if (field == AccessLogField.STATUS) {
+                appended = appendNumericField(entry, field, response.getStatus(), first);
+            } else if (field == AccessLogField.DURATION_MS) {
+                appended = appendNumericField(entry, field, durationMs, first);
+            } else {
+                appended = appendField(entry, field, getResponseValue(field, response, tppId), first);
+            }
+            if (appended) {
+                first = false;
+            }
+        }
+        return finishEntry(entry);
+    }
+
+    private String getRequestValue(AccessLogField field, HttpServletRequest request, Map<String, String> pathVariables, String tppId) {
+        switch (field) {
+            case TPP_ID:
+                return tppId;
+            case TPP_IP:
+                return request.getRemoteAddr();
+            case X_REQUEST_ID:
+                return request.getHeader(X_REQUEST_ID_HEADER);
+            case URI:
+                return request.getRequestURI();
+            case ACCOUNT_ID:
+                return pathVariables.get("account-id");
+            case CONSENT_ID:
+                String consentId = pathVariables.get("consentId");
+                return consentId != null
+                           ? consentId
+                           : request.getHeader(CONSENT_ID_HEADER);
+            case PAYMENT_ID:
+                return pathVariables.get("paymentId");
+            case BASKET_ID:
+                return pathVariables.get("basketId");
+            default:
+                return null;
+        }
+    }
+
+    private String getResponseValue(AccessLogField field, HttpServletResponse response, String tppId) {
+        switch (field) {
+            case TPP_ID:
+                return tppId;
+            case X_REQUEST_ID:
+                return response.getHeader(X_REQUEST_ID_HEADER);
+            default:
+                return null;
+        }
+    }
+
+    private StringBuilder startEntry(String start) {
+        StringBuilder entry = BUFFERS.get();
+        entry.setLength(0);
+        return entry.append(start);
+    }
+
+    private String finishEntry(StringBuilder entry) {
+        String formattedEntry = entry.append(end).toString();
+        if (entry.capacity() > MAX_RETAINED_BUFFER_CAPACITY) {
+            BUFFERS.remove();
+        }
+        return formattedEntry;
+    }
+
+    private boolean appendField(StringBuilder entry, AccessLogField field, String value, boolean first) {
+        if (value == null && field.isOptional()) {
+            return false;
+        }
+        appendPrefix(entry, field, first);
+        appendEscaped(entry, value);
+        entry.append(fieldSuffixes[field.ordinal()]);
+        return true;
+    }
+
+    private boolean appendNumericField(StringBuilder entry, AccessLogField field, long value, boolean first) {
+        appendPrefix(entry, field, first);
+        entry.append(value)
+            .append(fieldSuffixes[field.ordinal()]);
+        return true;
+    }
+
+    private void appendPrefix(StringBuilder entry, AccessLogField field, boolean first) {
+        String prefix = fieldPrefixes[field.ordinal()];
+        entry.append(prefix, first ? firstFieldPrefixOffset : 0, prefix.length());
+    }
+
+    private void appendEscaped(StringBuilder entry, String value) {
+        if (value == null) {
+            entry.append(format == AccessLogFormat.JSON ? "" : "null");
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (format == AccessLogFormat.JSON && (c == '"' || c == '\\')) {
+                entry.append('\\').append(c);
+            } else if (c < ' ') {
+                // line breaks in header values must not start forged log entries
+                if (format == AccessLogFormat.JSON) {
+                    entry.append(String.format("\\u%04x", (int) c));
+                } else {
+                    entry.append(' ');
+                }
+            } else {
+                entry.append(c);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String> getPathVariables(HttpServletRequest request) {
+        Object pathVariables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return pathVariables instanceof Map
+                   ? (Map<String, String>) pathVariables
+                   : Collections.emptyMap();
+    }
+
+    private static Set<AccessLogField> parseFields(String[] fields) {
+        Set<AccessLogField> parsedFields = Arrays.stream(fields)
+                                               .map(String::trim)
+                                               .filter(f -> !f.isEmpty())
+                                               .map(f -> AccessLogField.valueOf(f.toUpperCase().replace('-', '_')))
+                                               .collect(Collectors.toCollection(() -> EnumSet.noneOf(AccessLogField.class)));
+        return parsedFields.isEmpty()
+                   ? EnumSet.allOf(AccessLogField.class)
+                   : parsedFields;
+    }
+
+    private static AccessLogField[] filterFields(Set<AccessLogField> fields, Predicate<AccessLogField> filter) {
+        return fields.stream()
+                   .filter(filter)
+                   .toArray(AccessLogField[]::new);
+    }
+}
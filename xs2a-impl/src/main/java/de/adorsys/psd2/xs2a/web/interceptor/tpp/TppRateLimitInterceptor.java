@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.interceptor.tpp;
+
+import de.adorsys.psd2.xs2a.service.TppService;
+import de.adorsys.psd2.xs2a.service.discovery.ServiceTypeDiscoveryService;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorType;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceTypeToErrorTypeMapper;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.StaticErrorResponseWriter;
+import de.adorsys.psd2.xs2a.service.ratelimit.TppRateLimiter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+
+import static de.adorsys.psd2.xs2a.core.error.MessageErrorCode.ACCESS_EXCEEDED;
+
+/**
+ * Rejects requests of TPPs and consents, that have exceeded their request rate, with ACCESS_EXCEEDED (429) without
+ * accessing CMS or SPI.
+ */
+@RequiredArgsConstructor
+public class TppRateLimitInterceptor extends HandlerInterceptorAdapter {
+    private static final String CONSENT_ID_HEADER = "Consent-ID";
+
+    private final StaticErrorResponseWriter staticErrorResponseWriter;
+    private final TppService tppService;
+    private final TppRateLimiter tppRateLimiter;
+    private final ServiceTypeDiscoveryService serviceTypeDiscoveryService;
+    private final ServiceTypeToErrorTypeMapper errorTypeMapper;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        ErrorType errorType = errorTypeMapper.mapToErrorType(serviceTypeDiscoveryService.getServiceType(), ACCESS_EXCEEDED.getCode());
+        if (errorType == null) {
+            // the service has no error model for this code, so the request is not limited and takes no tokens
+            return true;
+        }
+
+        long waitNanos = tppRateLimiter.tryAcquire(tppService.getTppId(), request.getHeader(CONSENT_ID_HEADER));
+        if (waitNanos == 0) {
+            return true;
+        }
+
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos))));
+        staticErrorResponseWriter.writeErrorResponse(response, errorType, ACCESS_EXCEEDED);
+        return false;
+    }
+}
@@ -16,60 +16,40 @@
 
 package de.adorsys.psd2.xs2a.web.interceptor.tpp;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import de.adorsys.psd2.consent.api.service.TppStopListService;
 import de.adorsys.psd2.xs2a.core.tpp.TppInfo;
 import de.adorsys.psd2.xs2a.core.tpp.TppUniqueParamsHolder;
-import de.adorsys.psd2.xs2a.domain.TppMessageInformation;
-import de.adorsys.psd2.xs2a.exception.MessageError;
 import de.adorsys.psd2.xs2a.service.TppService;
 import de.adorsys.psd2.xs2a.service.discovery.ServiceTypeDiscoveryService;
-import de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorMapperContainer;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorType;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceTypeToErrorTypeMapper;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.StaticErrorResponseWriter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.http.MediaType;
 import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import java.util.Optional;
 
 import static de.adorsys.psd2.xs2a.core.error.MessageErrorCode.CERTIFICATE_BLOCKED;
-import static de.adorsys.psd2.xs2a.domain.TppMessageInformation.of;
 
 @RequiredArgsConstructor
 public class TppStopListInterceptor extends HandlerInterceptorAdapter {
-    private static final String STOP_LIST_ERROR_MESSAGE = "Signature/corporate seal certificate has been blocked by the ASPSP";
-
-    private final ErrorMapperContainer errorMapperContainer;
+    private final StaticErrorResponseWriter staticErrorResponseWriter;
     private final TppService tppService;
     private final TppStopListService tppStopListService;
     private final ServiceTypeDiscoveryService serviceTypeDiscoveryService;
     private final ServiceTypeToErrorTypeMapper errorTypeMapper;
-    private final ObjectMapper objectMapper;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         TppInfo tppInfo = tppService.getTppInfo();
 
         if (tppStopListService.checkIfTppBlocked(new TppUniqueParamsHolder(tppInfo.getAuthorisationNumber(), tppInfo.getAuthorityId()))) {
-            response.getWriter().write(objectMapper.writeValueAsString(createError()));
-            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-            response.setStatus(CERTIFICATE_BLOCKED.getCode());
+            ErrorType errorType = errorTypeMapper.mapToErrorType(serviceTypeDiscoveryService.getServiceType(), CERTIFICATE_BLOCKED.getCode());
+            staticErrorResponseWriter.writeErrorResponse(response, errorType, CERTIFICATE_BLOCKED);
             return false;
         }
 
         return true;
     }
-
-    private Object createError() {
-        MessageError messageError = new MessageError(errorTypeMapper.mapToErrorType(serviceTypeDiscoveryService.getServiceType(), CERTIFICATE_BLOCKED.getCode()), buildErrorTppMessages());
-        return Optional.ofNullable(errorMapperContainer.getErrorBody(messageError))
-                   .map(ErrorMapperContainer.ErrorBody::getBody)
-                   .orElse(null);
-    }
-
-    private TppMessageInformation buildErrorTppMessages() {
-        return of(CERTIFICATE_BLOCKED, STOP_LIST_ERROR_MESSAGE);
-    }
 }
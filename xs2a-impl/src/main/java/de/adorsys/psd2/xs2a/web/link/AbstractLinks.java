@@ -17,9 +17,6 @@
 package de.adorsys.psd2.xs2a.web.link;
 
 import de.adorsys.psd2.xs2a.domain.Links;
-import org.springframework.web.util.UriComponentsBuilder;
-
-import static org.springframework.web.util.UriComponentsBuilder.fromHttpUrl;
 
 class AbstractLinks extends Links {
 
@@ -30,11 +27,8 @@ class AbstractLinks extends Links {
     }
 
     String buildPath(String path, Object... params) {
-        UriComponentsBuilder uriComponentsBuilder = fromHttpUrl(httpUrl);
-        return uriComponentsBuilder
-                   .path(path)
-                   .buildAndExpand(params)
-                   .toUriString();
+        return LinkTemplate.of(path)
+                   .expand(httpUrl, params);
     }
 
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.link;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-split representation of a link path template from {@link de.adorsys.psd2.xs2a.web.aspect.UrlHolder}.
+ * <p>
+ * The template is parsed only once into literal segments and variable positions, so rendering a link is a plain string
+ * concatenation instead of a full {@link org.springframework.web.util.UriComponentsBuilder} parse and expansion.
+ * Like {@code UriComponentsBuilder#buildAndExpand(Object...)} variables are substituted by position and the result is
+ * not encoded.
+ */
+final class LinkTemplate {
+    private static final Map<String, LinkTemplate> TEMPLATES = new ConcurrentHashMap<>();
+
+    private final String[] literals;
+    private final int literalsLength;
+
+    private LinkTemplate(String template) {
+        List<String> parts = new ArrayList<>();
+        int position = 0;
+        int variableStart = template.indexOf('{');
+        while (variableStart >= 0) {
+            int variableEnd = template.indexOf('}', variableStart);
+            if (variableEnd < 0) {
+                throw new IllegalArgumentException("Unclosed variable in link template: " + template);
+            }
+            parts.add(template.substring(position, variableStart));
+            position = variableEnd + 1;
+            variableStart = template.indexOf('{', position);
+        }
+        parts.add(template.substring(position));
+
+        this.literals = parts.toArray(new String[0]);
+        this.literalsLength = parts.stream()
+                                  .mapToInt(String::length)
+                                  .sum();
+    }
+
+    /**
+     * Returns the pre-split template for the given path, parsing it on first use only
+     *
+     * @param template path template with variables in curly braces, e.g. "/v1/consents/{consentId}"
+     * @return pre-split link template
+     */
+    static LinkTemplate of(String template) {
+        LinkTemplate linkTemplate = TEMPLATES.get(template);
+        return linkTemplate != null
+                   ? linkTemplate
+                   : TEMPLATES.computeIfAbsent(template, LinkTemplate::new);
+    }
+
+    /**
+     * Renders the link by appending the expanded template to the given base URL
+     *
+     * @param baseUrl base URL of XS2A, e.g. "https://xs2a.example.com"
+     * @param params  values of template variables in order of their appearance, <code>null</code> is rendered as empty string
+     * @return rendered link
+     */
+    String expand(String baseUrl, Object... params) {
+        int variablesCount = literals.length - 1;
+        if (params.length < variablesCount) {
+            throw new IllegalArgumentException("Not enough variable values available to expand link template");
+        }
+
+        String base = baseUrl.endsWith("/") && literals[0].startsWith("/")
+                          ? baseUrl.substring(0, baseUrl.length() - 1)
+                          : baseUrl;
+
+        StringBuilder link = new StringBuilder(base.length() + literalsLength + variablesCount * 40);
+        link.append(base).append(literals[0]);
+        for (int i = 0; i < variablesCount; i++) {
+            Object param = params[i];
+            if (param != null) {
+                link.append(param);
+            }
+            link.append(literals[i + 1]);
+        }
+        return link.toString();
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.xs2a.web.mapper;
+
+import de.adorsys.psd2.xs2a.core.profile.AccountReference;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+import java.util.Currency;
+
+@Mapper(componentModel = "spring")
+public interface AccountReferenceModelMapper {
+
+    @Mapping(target = "aspspAccountId", ignore = true)
+    @Mapping(target = "resourceId", ignore = true)
+    AccountReference mapToAccountReference(de.adorsys.psd2.model.AccountReference accountReference);
+
+    /**
+     * Maps currency code the same way as Jackson deserialises {@link Currency}: the code is trimmed and blank code is
+     * mapped to <code>null</code>
+     *
+     * @param currency ISO 4217 currency code
+     * @return currency or <code>null</code> if the code is blank
+     * @throws IllegalArgumentException if the code is not a supported ISO 4217 code
+     */
+    default Currency mapToCurrency(String currency) {
+        if (currency == null || currency.trim().isEmpty()) {
+            return null;
+        }
+
+        try {
+            return Currency.getInstance(currency.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid currency code format", e);
+        }
+    }
+}
@@ -17,7 +17,6 @@
 package de.adorsys.psd2.xs2a.web.mapper;
 
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import de.adorsys.psd2.model.*;
 import de.adorsys.psd2.xs2a.core.ais.AccountAccessType;
 import de.adorsys.psd2.xs2a.core.profile.AccountReference;
@@ -36,7 +35,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ConsentModelMapper {
     private final CoreObjectsMapper coreObjectsMapper;
-    private final ObjectMapper objectMapper;
+    private final AccountReferenceModelMapper accountReferenceModelMapper;
     public final AccountModelMapper accountModelMapper;
     private final HrefLinkMapper hrefLinkMapper;
     private final ScaMethodsMapper scaMethodsMapper;
@@ -151,15 +150,11 @@ public class ConsentModelMapper {
     private List<AccountReference> mapToXs2aAccountReferences(List<de.adorsys.psd2.model.AccountReference> references) {
         return Optional.ofNullable(references)
                    .map(ref -> ref.stream()
-                                   .map(this::mapToAccountReference)
+                                   .map(accountReferenceModelMapper::mapToAccountReference)
                                    .collect(Collectors.toList()))
                    .orElseGet(Collections::emptyList);
     }
 
-    private AccountReference mapToAccountReference(Object reference) {
-        return objectMapper.convertValue(reference, AccountReference.class);
-    }
-
     public UpdateConsentPsuDataReq mapToUpdatePsuData(PsuIdData psuData, String consentId, String authorizationId, Map body) {
         UpdateConsentPsuDataReq updatePsuData = new UpdateConsentPsuDataReq();
         updatePsuData.setPsuData(psuData);
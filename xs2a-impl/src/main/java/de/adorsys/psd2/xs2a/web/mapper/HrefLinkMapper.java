@@ -16,45 +16,58 @@
 
 package de.adorsys.psd2.xs2a.web.mapper;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import de.adorsys.psd2.xs2a.domain.Links;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 // TODO Use HrefType instead of HrefLinkMapper https://git.adorsys.de/adorsys/xs2a/aspsp-xs2a/issues/777
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class HrefLinkMapper {
     private static final String HREF = "href";
-    private final ObjectMapper mapper;
 
     /**
      * Maps Links to HrefType Links Map
      *
      * @param links Links model Object, where URI links stored as a string
      * @return Map with link name and href value.
-     * Returned Map with added 'href' to link value.
+     * Returned Map with added 'href' to link value, links with <code>null</code> value are omitted.
      */
     public Map<String, Map<String, String>> mapToLinksMap(Links links) {
         if (links == null) {
             return null;
         }
 
-        Map<String, String> linksMap = mapper.convertValue(links, new TypeReference<Map<String, String>>() {
-        });
-        return linksMap
-                   .entrySet().stream().collect(Collectors.toMap(
-                Map.Entry::getKey,
-                e -> Collections.singletonMap(HREF, e.getValue())
-            ));
+        Map<String, Map<String, String>> linksMap = new HashMap<>();
+        putLink(linksMap, "scaRedirect", links.getScaRedirect());
+        putLink(linksMap, "scaOAuth", links.getScaOAuth());
+        putLink(linksMap, "updatePsuIdentification", links.getUpdatePsuIdentification());
+        putLink(linksMap, "updateProprietaryData", links.getUpdateProprietaryData());
+        putLink(linksMap, "updatePsuAuthentication", links.getUpdatePsuAuthentication());
+        putLink(linksMap, "selectAuthenticationMethod", links.getSelectAuthenticationMethod());
+        putLink(linksMap, "self", links.getSelf());
+        putLink(linksMap, "status", links.getStatus());
+        putLink(linksMap, "account", links.getAccount());
+        putLink(linksMap, "balances", links.getBalances());
+        putLink(linksMap, "transactions", links.getTransactions());
+        putLink(linksMap, "first", links.getFirst());
+        putLink(linksMap, "next", links.getNext());
+        putLink(linksMap, "previous", links.getPrevious());
+        putLink(linksMap, "last", links.getLast());
+        putLink(linksMap, "download", links.getDownload());
+        putLink(linksMap, "startAuthorisation", links.getStartAuthorisation());
+        putLink(linksMap, "startAuthorisationWithPsuIdentification", links.getStartAuthorisationWithPsuIdentification());
+        putLink(linksMap, "startAuthorisationWithPsuAuthentication", links.getStartAuthorisationWithPsuAuthentication());
+        putLink(linksMap, "startAuthorisationWithAuthenticationMethodSelection", links.getStartAuthorisationWithAuthenticationMethodSelection());
+        putLink(linksMap, "startAuthorisationWithTransactionAuthorisation", links.getStartAuthorisationWithTransactionAuthorisation());
+        putLink(linksMap, "scaStatus", links.getScaStatus());
+        putLink(linksMap, "authoriseTransaction", links.getAuthoriseTransaction());
+        return linksMap;
     }
 
     /**
@@ -70,4 +83,10 @@ public class HrefLinkMapper {
                    .map(l -> Collections.singletonMap(name, Collections.singletonMap(HREF, l)))
                    .orElseGet(() -> Collections.singletonMap(name, null));
     }
+
+    private void putLink(Map<String, Map<String, String>> linksMap, String name, String link) {
+        if (link != null) {
+            linksMap.put(name, Collections.singletonMap(HREF, link));
+        }
+    }
 }
@@ -24,6 +24,7 @@ import de.adorsys.psd2.xs2a.core.ais.AccountAccessType;
 import de.adorsys.psd2.xs2a.domain.consent.CreateConsentReq;
 import de.adorsys.psd2.xs2a.domain.consent.Xs2aAccountAccess;
 import de.adorsys.psd2.xs2a.exception.MessageError;
+import de.adorsys.psd2.xs2a.web.mapper.AccountReferenceModelMapper;
 import de.adorsys.psd2.xs2a.web.validator.ErrorBuildingService;
 import de.adorsys.psd2.xs2a.web.validator.body.AbstractBodyValidatorImpl;
 import org.apache.commons.collections4.CollectionUtils;
@@ -40,9 +41,13 @@ import java.util.stream.Stream;
 @Component
 public class AccountAccessValidatorImpl extends AbstractBodyValidatorImpl implements ConsentBodyValidator {
 
+    private AccountReferenceModelMapper accountReferenceModelMapper;
+
     @Autowired
-    public AccountAccessValidatorImpl(ErrorBuildingService errorBuildingService, ObjectMapper objectMapper) {
+    public AccountAccessValidatorImpl(ErrorBuildingService errorBuildingService, ObjectMapper objectMapper,
+                                      AccountReferenceModelMapper accountReferenceModelMapper) {
         super(errorBuildingService, objectMapper);
+        this.accountReferenceModelMapper = accountReferenceModelMapper;
     }
 
     @Override
@@ -188,9 +193,9 @@ public class AccountAccessValidatorImpl extends AbstractBodyValidatorImpl implem
                    .orElse(null);
     }
 
-    private de.adorsys.psd2.xs2a.core.profile.AccountReference mapToAccountReference(Object reference, MessageError messageError) {
+    private de.adorsys.psd2.xs2a.core.profile.AccountReference mapToAccountReference(AccountReference reference, MessageError messageError) {
         try {
-            return objectMapper.convertValue(reference, de.adorsys.psd2.xs2a.core.profile.AccountReference.class);
+            return accountReferenceModelMapper.mapToAccountReference(reference);
         } catch (IllegalArgumentException e) {
             // Happens only during Currency field processing, as other fields are of String type.
             errorBuildingService.enrichMessageError(messageError, "Invalid currency code format");
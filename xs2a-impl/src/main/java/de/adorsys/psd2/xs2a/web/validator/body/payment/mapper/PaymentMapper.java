@@ -28,6 +28,7 @@ import de.adorsys.psd2.xs2a.domain.code.Xs2aFrequencyCode;
 import de.adorsys.psd2.xs2a.domain.pis.BulkPayment;
 import de.adorsys.psd2.xs2a.domain.pis.PeriodicPayment;
 import de.adorsys.psd2.xs2a.domain.pis.SinglePayment;
+import de.adorsys.psd2.xs2a.web.mapper.AccountReferenceModelMapper;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -43,10 +44,12 @@ import java.util.stream.Collectors;
 public class PaymentMapper {
 
     private ObjectMapper objectMapper;
+    private AccountReferenceModelMapper accountReferenceModelMapper;
 
     @Autowired
-    public PaymentMapper(ObjectMapper objectMapper) {
+    public PaymentMapper(ObjectMapper objectMapper, AccountReferenceModelMapper accountReferenceModelMapper) {
         this.objectMapper = objectMapper;
+        this.accountReferenceModelMapper = accountReferenceModelMapper;
     }
 
     public SinglePayment getSinglePayment(Object body) {
@@ -102,8 +105,8 @@ public class PaymentMapper {
         return payment;
     }
 
-    private de.adorsys.psd2.xs2a.core.profile.AccountReference mapToXs2aAccountReference(Object accountReference) { //NOPMD
-        return objectMapper.convertValue(accountReference, AccountReference.class);
+    private AccountReference mapToXs2aAccountReference(de.adorsys.psd2.model.AccountReference accountReference) { //NOPMD
+        return accountReferenceModelMapper.mapToAccountReference(accountReference);
     }
 
     private Optional<PisExecutionRule> mapToPisExecutionRule(ExecutionRule rule) {
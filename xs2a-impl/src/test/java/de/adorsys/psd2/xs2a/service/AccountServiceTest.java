@@ -17,6 +17,8 @@
 package de.adorsys.psd2.xs2a.service;
 
 import de.adorsys.psd2.consent.api.ActionStatus;
+import de.adorsys.psd2.xs2a.config.AccountReadCoalescingConfig;
+import de.adorsys.psd2.xs2a.config.TransactionsStreamingConfig;
 import de.adorsys.psd2.xs2a.core.ais.AccountAccessType;
 import de.adorsys.psd2.xs2a.core.ais.BookingStatus;
 import de.adorsys.psd2.xs2a.core.consent.AisConsentRequestType;
@@ -34,6 +36,9 @@ import de.adorsys.psd2.xs2a.domain.account.*;
 import de.adorsys.psd2.xs2a.domain.consent.AccountConsent;
 import de.adorsys.psd2.xs2a.domain.consent.Xs2aAccountAccess;
 import de.adorsys.psd2.xs2a.exception.MessageError;
+import de.adorsys.psd2.xs2a.service.account.AccountDataCache;
+import de.adorsys.psd2.xs2a.service.account.AccountReadCoalescingService;
+import de.adorsys.psd2.xs2a.service.account.BalanceEnrichmentService;
 import de.adorsys.psd2.xs2a.service.consent.AccountReferenceInConsentUpdater;
 import de.adorsys.psd2.xs2a.service.consent.AisConsentDataService;
 import de.adorsys.psd2.xs2a.service.consent.Xs2aAisConsentService;
@@ -44,6 +49,9 @@ import de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorType;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceType;
 import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.*;
 import de.adorsys.psd2.xs2a.service.profile.AspspProfileServiceWrapper;
+import de.adorsys.psd2.xs2a.service.spi.AsyncSpiProvider;
+import de.adorsys.psd2.xs2a.service.spi.SpiDeadlineService;
+import de.adorsys.psd2.xs2a.service.spi.SyncAccountSpiAdapter;
 import de.adorsys.psd2.xs2a.service.validator.ValidationResult;
 import de.adorsys.psd2.xs2a.service.validator.ValueValidatorService;
 import de.adorsys.psd2.xs2a.service.validator.ais.account.*;
@@ -62,12 +70,14 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 import org.springframework.http.MediaType;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.*;
+import java.util.concurrent.*;
 
 import static de.adorsys.psd2.xs2a.domain.TppMessageInformation.of;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -115,6 +125,13 @@ public class AccountServiceTest {
     @Mock
     private AccountSpi accountSpi;
     @Mock
+    private AsyncSpiProvider asyncSpiProvider;
+    @Spy
+    private SpiDeadlineService spiDeadlineService = new SpiDeadlineService(0);
+    private AccountReadCoalescingConfig accountReadCoalescingConfig = mock(AccountReadCoalescingConfig.class);
+    @Spy
+    private AccountReadCoalescingService accountReadCoalescingService = new AccountReadCoalescingService(accountReadCoalescingConfig);
+    @Mock
     private SpiToXs2aAccountDetailsMapper accountDetailsMapper;
     @Mock
     private SpiToXs2aBalanceMapper balanceMapper;
@@ -172,9 +189,17 @@ public class AccountServiceTest {
     private GetTransactionDetailsValidator getTransactionDetailsValidator;
     @Mock
     private RequestProviderService requestProviderService;
+    @Mock
+    private BalanceEnrichmentService balanceEnrichmentService;
+    @Mock
+    private TransactionsStreamingConfig transactionsStreamingConfig;
+    @Mock
+    private AccountDataCache accountDataCache;
 
     @Before
     public void setUp() {
+        when(asyncSpiProvider.getAccountSpi())
+            .thenReturn(new SyncAccountSpiAdapter(accountSpi));
         doNothing()
             .when(aisConsentDataService).updateAspspConsentData(ASPSP_CONSENT_DATA);
 
@@ -282,6 +307,49 @@ public class AccountServiceTest {
         assertThat(CollectionUtils.isEqualCollection(accountDetailsList, xs2aAccountDetailsList)).isTrue();
     }
 
+    @Test
+    public void getAccountDetailsList_withBalanceEnrichment_shouldRequestBalancesSeparately() {
+        // Given
+        AccountConsent accountConsent = createConsent(CONSENT_ID, createAccountAccess(XS2A_ACCOUNT_REFERENCE));
+
+        when(aisConsentService.getAccountConsentById(CONSENT_ID))
+            .thenReturn(Optional.of(accountConsent));
+
+        when(aisConsentDataService.getAspspConsentDataByConsentId(CONSENT_ID))
+            .thenReturn(ASPSP_CONSENT_DATA);
+
+        List<SpiAccountDetails> spiAccountDetailsList = Collections.singletonList(spiAccountDetails);
+
+        when(consentMapper.mapToSpiAccountConsent(any()))
+            .thenReturn(SPI_ACCOUNT_CONSENT);
+
+        when(balanceEnrichmentService.isEnabled())
+            .thenReturn(true);
+
+        SpiResponse<List<SpiAccountDetails>> accountListResponse = buildSuccessSpiResponse(spiAccountDetailsList);
+        when(accountSpi.requestAccountList(SPI_CONTEXT_DATA, false, SPI_ACCOUNT_CONSENT, ASPSP_CONSENT_DATA))
+            .thenReturn(accountListResponse);
+
+        when(balanceEnrichmentService.enrichWithBalances(SPI_CONTEXT_DATA, accountListResponse, accountConsent.getAccess().getBalances(), SPI_ACCOUNT_CONSENT))
+            .thenReturn(accountListResponse);
+
+        List<Xs2aAccountDetails> xs2aAccountDetailsList = Collections.singletonList(xs2aAccountDetails);
+
+        when(accountDetailsMapper.mapToXs2aAccountDetailsList(spiAccountDetailsList))
+            .thenReturn(xs2aAccountDetailsList);
+
+        when(accountReferenceUpdater.updateAccountReferences(eq(CONSENT_ID), any(), anyList())).thenReturn(Optional.of(accountConsent));
+
+        // When
+        ResponseObject<Xs2aAccountListHolder> actualResponse = accountService.getAccountList(CONSENT_ID, true, REQUEST_URI);
+
+        // Then
+        assertThat(actualResponse.hasError()).isFalse();
+        assertThat(actualResponse.getBody().getAccountDetails()).isEqualTo(xs2aAccountDetailsList);
+        verify(accountSpi, never()).requestAccountList(SPI_CONTEXT_DATA, true, SPI_ACCOUNT_CONSENT, ASPSP_CONSENT_DATA);
+        verify(balanceEnrichmentService).enrichWithBalances(SPI_CONTEXT_DATA, accountListResponse, accountConsent.getAccess().getBalances(), SPI_ACCOUNT_CONSENT);
+    }
+
     @Test
     public void getAccountDetailsList_shouldUpdateAccountReferences() {
         // Given
@@ -469,6 +537,53 @@ public class AccountServiceTest {
         assertThat(body).isEqualTo(xs2aAccountDetails);
     }
 
+    @Test
+    public void getAccountDetails_cachedAccountDetails_shouldNotCallSpiAndLogConsentAction() {
+        // Given
+        AccountConsent accountConsent = createConsent(CONSENT_ID, createAccountAccess(XS2A_ACCOUNT_REFERENCE));
+        when(aisConsentService.getAccountConsentById(CONSENT_ID))
+            .thenReturn(Optional.of(accountConsent));
+        when(xs2aToSpiAccountReferenceMapper.mapToSpiAccountReference(XS2A_ACCOUNT_REFERENCE))
+            .thenReturn(SPI_ACCOUNT_REFERENCE);
+        when(accountDataCache.getAccountDetails(CONSENT_ID, SPI_ACCOUNT_REFERENCE, WITH_BALANCE))
+            .thenReturn(Optional.of(spiAccountDetails));
+        when(accountDetailsMapper.mapToXs2aAccountDetails(spiAccountDetails))
+            .thenReturn(xs2aAccountDetails);
+
+        // When
+        ResponseObject<Xs2aAccountDetailsHolder> actualResponse = accountService.getAccountDetails(CONSENT_ID, ACCOUNT_ID, WITH_BALANCE, REQUEST_URI);
+
+        // Then
+        assertThat(actualResponse.hasError()).isFalse();
+        assertThat(actualResponse.getBody().getAccountDetails()).isEqualTo(xs2aAccountDetails);
+        verify(getAccountDetailsValidator).validate(any(CommonAccountRequestObject.class));
+        verify(accountSpi, never()).requestAccountDetailForAccount(any(), anyBoolean(), any(), any(), any());
+        verify(aisConsentDataService, never()).updateAspspConsentData(any());
+        verify(aisConsentService).consentActionLog(isNull(), eq(CONSENT_ID), eq(ActionStatus.SUCCESS), eq(REQUEST_URI), anyBoolean());
+    }
+
+    @Test
+    public void getAccountDetails_Success_shouldCacheAccountDetails() {
+        // Given
+        AccountConsent accountConsent = createConsent(CONSENT_ID, createAccountAccess(XS2A_ACCOUNT_REFERENCE));
+        when(aisConsentService.getAccountConsentById(CONSENT_ID))
+            .thenReturn(Optional.of(accountConsent));
+        when(aisConsentDataService.getAspspConsentDataByConsentId(CONSENT_ID))
+            .thenReturn(ASPSP_CONSENT_DATA);
+        when(accountSpi.requestAccountDetailForAccount(SPI_CONTEXT_DATA, WITH_BALANCE, SPI_ACCOUNT_REFERENCE, SPI_ACCOUNT_CONSENT, ASPSP_CONSENT_DATA))
+            .thenReturn(buildSuccessSpiResponse(spiAccountDetails));
+        when(xs2aToSpiAccountReferenceMapper.mapToSpiAccountReference(XS2A_ACCOUNT_REFERENCE))
+            .thenReturn(SPI_ACCOUNT_REFERENCE);
+        when(consentMapper.mapToSpiAccountConsent(any()))
+            .thenReturn(SPI_ACCOUNT_CONSENT);
+
+        // When
+        accountService.getAccountDetails(CONSENT_ID, ACCOUNT_ID, WITH_BALANCE, REQUEST_URI);
+
+        // Then
+        verify(accountDataCache).putAccountDetails(CONSENT_ID, SPI_ACCOUNT_REFERENCE, WITH_BALANCE, spiAccountDetails);
+    }
+
     @Test
     public void getAccountDetails_Success_ShouldRecordEvent() {
         AccountConsent accountConsent = createConsent(CONSENT_ID, createAccountAccess(XS2A_ACCOUNT_REFERENCE));
@@ -644,6 +759,73 @@ public class AccountServiceTest {
         assertThat(argumentCaptor.getValue()).isEqualTo(EventType.READ_BALANCE_REQUEST_RECEIVED);
     }
 
+    @Test
+    public void getBalancesReport_cachedBalances_shouldNotCallSpiAndLogConsentAction() {
+        // Given
+        AccountConsent accountConsent = createConsent(CONSENT_ID, createAccountAccess(XS2A_ACCOUNT_REFERENCE));
+        when(aisConsentService.getAccountConsentById(CONSENT_ID))
+            .thenReturn(Optional.of(accountConsent));
+        when(xs2aToSpiAccountReferenceMapper.mapToSpiAccountReference(XS2A_ACCOUNT_REFERENCE))
+            .thenReturn(SPI_ACCOUNT_REFERENCE);
+        when(accountDataCache.getBalances(CONSENT_ID, SPI_ACCOUNT_REFERENCE))
+            .thenReturn(Optional.of(Collections.emptyList()));
+        when(balanceReportMapper.mapToXs2aBalancesReport(SPI_ACCOUNT_REFERENCE, Collections.emptyList()))
+            .thenReturn(xs2aBalancesReport);
+
+        // When
+        ResponseObject<Xs2aBalancesReport> actualResponse = accountService.getBalancesReport(CONSENT_ID, ACCOUNT_ID, REQUEST_URI);
+
+        // Then
+        assertThat(actualResponse.getBody()).isEqualTo(xs2aBalancesReport);
+        verify(accountSpi, never()).requestBalancesForAccount(any(), any(), any(), any());
+        verify(accountDataCache, never()).putBalances(any(), any(), any());
+        verify(aisConsentService).consentActionLog(isNull(), eq(CONSENT_ID), eq(ActionStatus.SUCCESS), eq(REQUEST_URI), anyBoolean());
+    }
+
+    @Test
+    public void getBalancesReport_concurrentIdenticalRequests_shouldShareSpiCallAndLogEachRequest() throws Exception {
+        // Given
+        AccountConsent accountConsent = createConsent(CONSENT_ID, createAccountAccess(XS2A_ACCOUNT_REFERENCE));
+        CountDownLatch spiCallLatch = new CountDownLatch(1);
+
+        when(accountReadCoalescingConfig.isEnabled())
+            .thenReturn(true);
+        when(aisConsentService.getAccountConsentById(CONSENT_ID))
+            .thenReturn(Optional.of(accountConsent));
+        when(aisConsentDataService.getAspspConsentDataByConsentId(CONSENT_ID))
+            .thenReturn(ASPSP_CONSENT_DATA);
+        when(accountSpi.requestBalancesForAccount(SPI_CONTEXT_DATA, SPI_ACCOUNT_REFERENCE, SPI_ACCOUNT_CONSENT, ASPSP_CONSENT_DATA))
+            .thenAnswer(invocation -> {
+                spiCallLatch.await(5, TimeUnit.SECONDS);
+                return buildSuccessSpiResponse(Collections.emptyList());
+            });
+        when(balanceReportMapper.mapToXs2aBalancesReport(SPI_ACCOUNT_REFERENCE, Collections.emptyList()))
+            .thenReturn(xs2aBalancesReport);
+        when(xs2aToSpiAccountReferenceMapper.mapToSpiAccountReference(XS2A_ACCOUNT_REFERENCE))
+            .thenReturn(SPI_ACCOUNT_REFERENCE);
+        when(consentMapper.mapToSpiAccountConsent(any()))
+            .thenReturn(SPI_ACCOUNT_CONSENT);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            // When
+            Future<ResponseObject<Xs2aBalancesReport>> firstResponse = executorService.submit(() -> accountService.getBalancesReport(CONSENT_ID, ACCOUNT_ID, REQUEST_URI));
+            verify(accountSpi, timeout(1000)).requestBalancesForAccount(SPI_CONTEXT_DATA, SPI_ACCOUNT_REFERENCE, SPI_ACCOUNT_CONSENT, ASPSP_CONSENT_DATA);
+            Future<ResponseObject<Xs2aBalancesReport>> secondResponse = executorService.submit(() -> accountService.getBalancesReport(CONSENT_ID, ACCOUNT_ID, REQUEST_URI));
+            verify(accountReadCoalescingService, timeout(1000).times(2)).read(any(), any());
+            Thread.sleep(50);
+            spiCallLatch.countDown();
+
+            // Then
+            assertThat(firstResponse.get(1, TimeUnit.SECONDS).getBody()).isEqualTo(xs2aBalancesReport);
+            assertThat(secondResponse.get(1, TimeUnit.SECONDS).getBody()).isEqualTo(xs2aBalancesReport);
+            verify(accountSpi, times(1)).requestBalancesForAccount(SPI_CONTEXT_DATA, SPI_ACCOUNT_REFERENCE, SPI_ACCOUNT_CONSENT, ASPSP_CONSENT_DATA);
+            verify(aisConsentService, times(2)).consentActionLog(isNull(), eq(CONSENT_ID), eq(ActionStatus.SUCCESS), eq(REQUEST_URI), anyBoolean());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     @Test
     public void getBalancesReport_withInvalidConsent_shouldReturnValidationError() {
         // Given
@@ -787,6 +969,43 @@ public class AccountServiceTest {
         assertThat(CollectionUtils.isEqualCollection(body.getBalances(), Collections.emptyList())).isTrue();
     }
 
+    @Test
+    public void getTransactionsReportByPeriod_withTransactionsStreaming_shouldNotMapTransactions() {
+        AccountConsent accountConsent = createConsent(CONSENT_ID, createAccountAccess(XS2A_ACCOUNT_REFERENCE));
+
+        when(aisConsentService.getAccountConsentById(CONSENT_ID))
+            .thenReturn(Optional.of(accountConsent));
+        when(aspspProfileService.isTransactionsWithoutBalancesSupported())
+            .thenReturn(true);
+        when(aisConsentDataService.getAspspConsentDataByConsentId(CONSENT_ID))
+            .thenReturn(ASPSP_CONSENT_DATA);
+        when(accountSpi.requestTransactionsForAccount(SPI_CONTEXT_DATA, MediaType.APPLICATION_JSON_VALUE, WITH_BALANCE, DATE_FROM, DATE_TO, BOOKING_STATUS, SPI_ACCOUNT_REFERENCE, SPI_ACCOUNT_CONSENT, ASPSP_CONSENT_DATA))
+            .thenReturn(buildSuccessSpiResponse(SPI_TRANSACTION_REPORT));
+        when(referenceMapper.mapToXs2aAccountReference(SPI_ACCOUNT_REFERENCE))
+            .thenReturn(XS2A_ACCOUNT_REFERENCE);
+        when(xs2aToSpiAccountReferenceMapper.mapToSpiAccountReference(XS2A_ACCOUNT_REFERENCE))
+            .thenReturn(SPI_ACCOUNT_REFERENCE);
+        when(balanceMapper.mapToXs2aBalanceList(Collections.emptyList()))
+            .thenReturn(Collections.emptyList());
+        when(consentMapper.mapToSpiAccountConsent(any()))
+            .thenReturn(SPI_ACCOUNT_CONSENT);
+        when(transactionsStreamingConfig.isEnabled())
+            .thenReturn(true);
+
+        ResponseObject<Xs2aTransactionsReport> actualResponse = accountService.getTransactionsReportByPeriod(XS2A_TRANSACTIONS_REPORT_BY_PERIOD_REQUEST);
+
+        assertThat(actualResponse.hasError()).isFalse();
+
+        Xs2aTransactionsReport body = actualResponse.getBody();
+
+        assertThat(body.isStreamed()).isTrue();
+        assertThat(body.getSpiTransactions()).isSameAs(SPI_TRANSACTION_REPORT.getTransactions());
+        assertThat(body.getAccountReport().getBooked()).isEmpty();
+        assertThat(body.getAccountReport().getPending()).isEmpty();
+        assertThat(body.getAccountReference()).isEqualTo(XS2A_ACCOUNT_REFERENCE);
+        verify(transactionsToAccountReportMapper, never()).mapToXs2aAccountReport(any(), any());
+    }
+
     @Test
     public void getTransactionsReportByPeriod_Success_ShouldRecordEvent() {
         AccountConsent accountConsent = createConsent(CONSENT_ID, createAccountAccess(XS2A_ACCOUNT_REFERENCE));
@@ -1119,7 +1338,7 @@ public class AccountServiceTest {
     }
 
     private static AccountConsent createConsent(String id, Xs2aAccountAccess access) {
-        return new AccountConsent(id, access, false, LocalDate.now(), 4, null, ConsentStatus.VALID, false, false, null, createTppInfo(), AisConsentRequestType.GLOBAL, false, Collections.emptyList(), OffsetDateTime.now(), Collections.emptyMap());
+        return new AccountConsent(id, access, false, LocalDate.now(), 4, null, ConsentStatus.VALID, false, false, null, createTppInfo(), AisConsentRequestType.GLOBAL, false, Collections.emptyList(), OffsetDateTime.now(), Collections.emptyMap(), 0L);
     }
 
     private static AccountConsent createConsent(boolean recurringIndicator) {
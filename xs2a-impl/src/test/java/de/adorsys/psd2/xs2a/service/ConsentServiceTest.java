@@ -17,6 +17,7 @@
 
 package de.adorsys.psd2.xs2a.service;
 
+import de.adorsys.psd2.consent.api.ais.AisConsentStatusVersionResponse;
 import de.adorsys.psd2.xs2a.core.ais.AccountAccessType;
 import de.adorsys.psd2.xs2a.core.consent.AisConsentRequestType;
 import de.adorsys.psd2.xs2a.core.consent.AspspConsentData;
@@ -58,6 +59,7 @@ import de.adorsys.psd2.xs2a.service.validator.ValidationResult;
 import de.adorsys.psd2.xs2a.service.validator.ais.CommonConsentObject;
 import de.adorsys.psd2.xs2a.service.validator.ais.consent.*;
 import de.adorsys.psd2.xs2a.service.validator.ais.consent.dto.CreateConsentRequestObject;
+import de.adorsys.psd2.xs2a.service.validator.tpp.AisTppInfoValidator;
 import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
 import de.adorsys.psd2.xs2a.spi.domain.account.SpiAccountConsent;
 import de.adorsys.psd2.xs2a.spi.domain.account.SpiAccountReference;
@@ -114,6 +116,7 @@ public class ConsentServiceTest {
     private static final OffsetDateTime STATUS_CHANGE_TIMESTAMP = OffsetDateTime.MAX;
     private static final MessageError VALIDATION_ERROR =
         new MessageError(ErrorType.AIS_401, TppMessageInformation.of(MessageErrorCode.CONSENT_INVALID));
+    private static final long CONSENT_VERSION = 5;
     private static final SpiContextData SPI_CONTEXT_DATA = new SpiContextData(SPI_PSU_DATA, new TppInfo(), UUID.randomUUID());
     private static final MessageError CONSENT_UNKNOWN_403_ERROR =
         new MessageError(ErrorType.AIS_403, TppMessageInformation.of(MessageErrorCode.CONSENT_UNKNOWN_403));
@@ -179,6 +182,8 @@ public class ConsentServiceTest {
     private GetConsentAuthorisationsValidator getConsentAuthorisationsValidator;
     @Mock
     private GetConsentAuthorisationScaStatusValidator getConsentAuthorisationScaStatusValidator;
+    @Mock
+    private AisTppInfoValidator aisTppInfoValidator;
     private TppInfo tppInfo;
 
     @Before
@@ -546,7 +551,7 @@ public class ConsentServiceTest {
         //When:
         ResponseObject response = consentService.getAccountConsentsStatusById(CONSENT_ID);
         //Then:
-        assertThat(response.getBody()).isEqualTo(new ConsentStatusResponse(ConsentStatus.VALID));
+        assertThat(response.getBody()).isEqualTo(new ConsentStatusResponse(ConsentStatus.VALID, CONSENT_VERSION));
     }
 
     @Test
@@ -554,7 +559,7 @@ public class ConsentServiceTest {
         //When:
         ResponseObject response = consentService.getAccountConsentsStatusById(CONSENT_ID_FINALISED);
         //Then:
-        assertThat(response.getBody()).isEqualTo(new ConsentStatusResponse(ConsentStatus.REJECTED));
+        assertThat(response.getBody()).isEqualTo(new ConsentStatusResponse(ConsentStatus.REJECTED, CONSENT_VERSION));
     }
 
     @Test
@@ -610,6 +615,69 @@ public class ConsentServiceTest {
         assertThat(response.getError()).isEqualTo(CONSENT_UNKNOWN_403_ERROR);
     }
 
+    @Test
+    public void getFinalisedConsentETag_finalisedConsent_shouldReturnETag() {
+        // Given
+        when(aisConsentService.getAccountConsentStatusVersionById(CONSENT_ID_FINALISED))
+            .thenReturn(Optional.of(buildStatusVersion(ConsentStatus.EXPIRED)));
+        when(aisTppInfoValidator.validateTpp(tppInfo))
+            .thenReturn(ValidationResult.valid());
+
+        // When
+        Optional<String> actual = consentService.getFinalisedConsentETag(CONSENT_ID_FINALISED);
+
+        // Then
+        assertThat(actual.orElse(null)).isEqualTo("\"3-EXPIRED\"");
+        verify(aisConsentService, never()).getAccountConsentById(any());
+    }
+
+    @Test
+    public void buildConsentETag_shouldContainVersionAndStatus() {
+        // When
+        String actual = consentService.buildConsentETag(CONSENT_VERSION, ConsentStatus.VALID);
+
+        // Then
+        assertThat(actual).isEqualTo("\"5-VALID\"");
+    }
+
+    @Test
+    public void getFinalisedConsentETag_notFinalisedConsent_shouldReturnEmpty() {
+        // Given
+        when(aisConsentService.getAccountConsentStatusVersionById(CONSENT_ID))
+            .thenReturn(Optional.of(buildStatusVersion(ConsentStatus.VALID)));
+
+        // When
+        Optional<String> actual = consentService.getFinalisedConsentETag(CONSENT_ID);
+
+        // Then
+        assertThat(actual.isPresent()).isFalse();
+        verify(aisTppInfoValidator, never()).validateTpp(any());
+    }
+
+    @Test
+    public void getFinalisedConsentETag_wrongTpp_shouldReturnEmpty() {
+        // Given
+        when(aisConsentService.getAccountConsentStatusVersionById(CONSENT_ID_FINALISED))
+            .thenReturn(Optional.of(buildStatusVersion(ConsentStatus.EXPIRED)));
+        when(aisTppInfoValidator.validateTpp(tppInfo))
+            .thenReturn(ValidationResult.invalid(VALIDATION_ERROR));
+
+        // When
+        Optional<String> actual = consentService.getFinalisedConsentETag(CONSENT_ID_FINALISED);
+
+        // Then
+        assertThat(actual.isPresent()).isFalse();
+    }
+
+    @Test
+    public void recordNotModifiedConsentRequest_shouldRecordEvent() {
+        // When
+        consentService.recordNotModifiedConsentRequest(CONSENT_ID, EventType.GET_AIS_CONSENT_STATUS_REQUEST_RECEIVED);
+
+        // Then
+        verify(xs2aEventService).recordAisTppRequest(CONSENT_ID, EventType.GET_AIS_CONSENT_STATUS_REQUEST_RECEIVED);
+    }
+
     @Test
     public void getAccountConsentsStatusById_withInvalidConsent_shouldReturnValidationError() {
         // Given
@@ -1047,11 +1115,11 @@ public class ConsentServiceTest {
     private AccountConsent getAccountConsent(String consentId, LocalDate validUntil, int usageCounter) {
         Xs2aAccountAccess access = getXs2aAccountAccess(Collections.singletonList(getXs2aReference(CORRECT_IBAN, CURRENCY)), null, null, false, false);
 
-        return new AccountConsent(consentId, access, false, validUntil, 4, null, ConsentStatus.VALID, false, false, null, buildTppInfo(), AisConsentRequestType.GLOBAL, false, Collections.emptyList(), OffsetDateTime.MAX, Collections.singletonMap("/accounts", usageCounter));
+        return new AccountConsent(consentId, access, false, validUntil, 4, null, ConsentStatus.VALID, false, false, null, buildTppInfo(), AisConsentRequestType.GLOBAL, false, Collections.emptyList(), OffsetDateTime.MAX, Collections.singletonMap("/accounts", usageCounter), CONSENT_VERSION);
     }
 
     private AccountConsent getAccountConsentFinalised(String consentId, Xs2aAccountAccess access, boolean withBalance) {
-        return new AccountConsent(consentId, access, false, DATE, 4, null, ConsentStatus.REJECTED, withBalance, false, null, buildTppInfo(), AisConsentRequestType.GLOBAL, false, Collections.emptyList(), STATUS_CHANGE_TIMESTAMP, Collections.emptyMap());
+        return new AccountConsent(consentId, access, false, DATE, 4, null, ConsentStatus.REJECTED, withBalance, false, null, buildTppInfo(), AisConsentRequestType.GLOBAL, false, Collections.emptyList(), STATUS_CHANGE_TIMESTAMP, Collections.emptyMap(), CONSENT_VERSION);
     }
 
     private CreateConsentReq getCreateConsentRequest(Xs2aAccountAccess access) {
@@ -1104,6 +1172,14 @@ public class ConsentServiceTest {
         return request;
     }
 
+    private AisConsentStatusVersionResponse buildStatusVersion(ConsentStatus consentStatus) {
+        AisConsentStatusVersionResponse statusVersion = new AisConsentStatusVersionResponse();
+        statusVersion.setConsentStatus(consentStatus);
+        statusVersion.setVersion(3);
+        statusVersion.setTppInfo(tppInfo);
+        return statusVersion;
+    }
+
     private TppInfo buildTppInfo() {
         TppInfo tppInfo = new TppInfo();
         tppInfo.setAuthorisationNumber(TPP_ID);
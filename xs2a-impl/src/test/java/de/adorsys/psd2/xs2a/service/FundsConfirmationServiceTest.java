@@ -33,6 +33,9 @@ import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.SpiErrorMapper;
 import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.SpiToXs2aFundsConfirmationMapper;
 import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.Xs2aToSpiFundsConfirmationRequestMapper;
 import de.adorsys.psd2.xs2a.service.profile.AspspProfileServiceWrapper;
+import de.adorsys.psd2.xs2a.service.spi.AsyncSpiProvider;
+import de.adorsys.psd2.xs2a.service.spi.SpiDeadlineService;
+import de.adorsys.psd2.xs2a.service.spi.SyncFundsConfirmationSpiAdapter;
 import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
 import de.adorsys.psd2.xs2a.spi.domain.fund.SpiFundsConfirmationRequest;
 import de.adorsys.psd2.xs2a.spi.domain.fund.SpiFundsConfirmationResponse;
@@ -46,6 +49,7 @@ import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.Arrays;
@@ -74,6 +78,10 @@ public class FundsConfirmationServiceTest {
     @Mock
     private FundsConfirmationSpi fundsConfirmationSpi;
     @Mock
+    private AsyncSpiProvider asyncSpiProvider;
+    @Spy
+    private SpiDeadlineService spiDeadlineService = new SpiDeadlineService(0);
+    @Mock
     private SpiContextDataProvider spiContextDataProvider;
     @Mock
     private SpiErrorMapper spiErrorMapper;
@@ -84,6 +92,8 @@ public class FundsConfirmationServiceTest {
 
     @Before
     public void setUp() {
+        when(asyncSpiProvider.getFundsConfirmationSpi())
+            .thenReturn(new SyncFundsConfirmationSpiAdapter(fundsConfirmationSpi));
         when(xs2aToSpiFundsConfirmationRequestMapper.mapToSpiFundsConfirmationRequest(buildFundsConfirmationRequest()))
             .thenReturn(buildSpiFundsConfirmationRequest());
         when(spiContextDataProvider.provideWithPsuIdData(PSU_ID_DATA))
@@ -27,6 +27,7 @@ import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpHeaders;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.Collections;
@@ -82,6 +83,51 @@ public class RequestProviderServiceTest {
         assertFalse(requestProviderService.isRequestFromTPP());
     }
 
+    @Test
+    public void matchesIfNoneMatch() {
+        //Given
+        when(httpServletRequest.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"2-EXPIRED\", W/\"3-EXPIRED\"");
+        //When
+        //Then
+        assertTrue(requestProviderService.matchesIfNoneMatch("\"3-EXPIRED\""));
+        assertTrue(requestProviderService.matchesIfNoneMatch("\"2-EXPIRED\""));
+        assertFalse(requestProviderService.matchesIfNoneMatch("\"4-EXPIRED\""));
+    }
+
+    @Test
+    public void matchesIfNoneMatch_anyEntityTag() {
+        //Given
+        when(httpServletRequest.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("*");
+        //When
+        //Then
+        assertTrue(requestProviderService.matchesIfNoneMatch("\"3-EXPIRED\""));
+    }
+
+    @Test
+    public void matchesIfNoneMatch_noHeader() {
+        //Given
+        //When
+        //Then
+        assertFalse(requestProviderService.matchesIfNoneMatch("\"3-EXPIRED\""));
+    }
+
+    @Test
+    public void hasIfNoneMatch() {
+        //Given
+        when(httpServletRequest.getHeader(HttpHeaders.IF_NONE_MATCH)).thenReturn("\"3-EXPIRED\"");
+        //When
+        //Then
+        assertTrue(requestProviderService.hasIfNoneMatch());
+    }
+
+    @Test
+    public void hasIfNoneMatch_noHeader() {
+        //Given
+        //When
+        //Then
+        assertFalse(requestProviderService.hasIfNoneMatch());
+    }
+
     private PsuIdData buildPsuIdData() {
         return new PsuIdData(HEADERS.get(Xs2aHeaderConstant.PSU_ID),
                              HEADERS.get(Xs2aHeaderConstant.PSU_ID_TYPE),
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.account;
+
+import de.adorsys.psd2.xs2a.service.profile.AspspProfileServiceWrapper;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiAccountBalance;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiAccountDetails;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiAccountReference;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AccountDataCacheTest {
+    private static final String CONSENT_ID = "consent id";
+    private static final String OTHER_CONSENT_ID = "other consent id";
+    private static final SpiAccountReference ACCOUNT_REFERENCE = buildAccountReference("DE89370400440532013000");
+    private static final SpiAccountReference OTHER_ACCOUNT_REFERENCE = buildAccountReference("DE89370400440532013001");
+    private static final long TTL_MS = 60000;
+
+    @Mock
+    private AspspProfileServiceWrapper aspspProfileService;
+    @Mock
+    private SpiAccountDetails accountDetails;
+    @Mock
+    private SpiAccountBalance balance;
+
+    private AccountDataCache accountDataCache;
+
+    @Before
+    public void setUp() {
+        accountDataCache = new AccountDataCache(aspspProfileService, 2);
+    }
+
+    @Test
+    public void getAccountDetails_cachedDetails_shouldReturnDetailsAndCountHit() {
+        // Given
+        when(aspspProfileService.getAccountDetailsCacheTtlMs()).thenReturn(TTL_MS);
+        accountDataCache.putAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, true, accountDetails);
+
+        // When
+        Optional<SpiAccountDetails> cachedDetails = accountDataCache.getAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, true);
+
+        // Then
+        assertEquals(Optional.of(accountDetails), cachedDetails);
+        assertEquals(1, accountDataCache.getHitCount());
+        assertEquals(0, accountDataCache.getMissCount());
+    }
+
+    @Test
+    public void getAccountDetails_differentWithBalanceOrConsent_shouldCountMiss() {
+        // Given
+        when(aspspProfileService.getAccountDetailsCacheTtlMs()).thenReturn(TTL_MS);
+        accountDataCache.putAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, true, accountDetails);
+
+        // Then
+        assertFalse(accountDataCache.getAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, false).isPresent());
+        assertFalse(accountDataCache.getAccountDetails(OTHER_CONSENT_ID, ACCOUNT_REFERENCE, true).isPresent());
+        assertFalse(accountDataCache.getAccountDetails(CONSENT_ID, OTHER_ACCOUNT_REFERENCE, true).isPresent());
+        assertEquals(3, accountDataCache.getMissCount());
+    }
+
+    @Test
+    public void getAccountDetails_cacheDisabled_shouldNotCacheDetails() {
+        // Given
+        when(aspspProfileService.getAccountDetailsCacheTtlMs()).thenReturn(0L);
+        accountDataCache.putAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, true, accountDetails);
+
+        // Then
+        assertFalse(accountDataCache.getAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, true).isPresent());
+        assertEquals(0, accountDataCache.size());
+        assertEquals(0, accountDataCache.getMissCount());
+    }
+
+    @Test
+    public void getBalances_expiredEntry_shouldReturnEmpty() throws InterruptedException {
+        // Given
+        when(aspspProfileService.getBalancesCacheTtlMs()).thenReturn(10L);
+        accountDataCache.putBalances(CONSENT_ID, ACCOUNT_REFERENCE, Collections.singletonList(balance));
+
+        // When
+        Thread.sleep(20);
+
+        // Then
+        assertFalse(accountDataCache.getBalances(CONSENT_ID, ACCOUNT_REFERENCE).isPresent());
+        assertEquals(0, accountDataCache.size());
+    }
+
+    @Test
+    public void getBalances_balancesAndDetailsOfSameAccount_shouldBeCachedSeparately() {
+        // Given
+        when(aspspProfileService.getAccountDetailsCacheTtlMs()).thenReturn(TTL_MS);
+        when(aspspProfileService.getBalancesCacheTtlMs()).thenReturn(TTL_MS);
+        accountDataCache.putAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, true, accountDetails);
+        accountDataCache.putBalances(CONSENT_ID, ACCOUNT_REFERENCE, Collections.singletonList(balance));
+
+        // When
+        Optional<List<SpiAccountBalance>> cachedBalances = accountDataCache.getBalances(CONSENT_ID, ACCOUNT_REFERENCE);
+
+        // Then
+        assertEquals(Optional.of(Collections.singletonList(balance)), cachedBalances);
+        assertEquals(Optional.of(accountDetails), accountDataCache.getAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, true));
+    }
+
+    @Test
+    public void putAccountDetails_maxEntriesExceeded_shouldEvictLeastRecentlyUsedEntry() {
+        // Given
+        when(aspspProfileService.getAccountDetailsCacheTtlMs()).thenReturn(TTL_MS);
+        accountDataCache.putAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, true, accountDetails);
+        accountDataCache.putAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, false, accountDetails);
+        accountDataCache.getAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, true);
+
+        // When
+        accountDataCache.putAccountDetails(CONSENT_ID, OTHER_ACCOUNT_REFERENCE, true, accountDetails);
+
+        // Then
+        assertEquals(2, accountDataCache.size());
+        assertEquals(1, accountDataCache.getEvictionCount());
+        assertTrue(accountDataCache.getAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, true).isPresent());
+        assertFalse(accountDataCache.getAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, false).isPresent());
+    }
+
+    @Test
+    public void putBalances_maxEntriesExceeded_shouldRemoveExpiredEntriesFirst() throws InterruptedException {
+        // Given
+        when(aspspProfileService.getAccountDetailsCacheTtlMs()).thenReturn(TTL_MS);
+        when(aspspProfileService.getBalancesCacheTtlMs()).thenReturn(10L);
+        accountDataCache.putAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, true, accountDetails);
+        accountDataCache.putBalances(CONSENT_ID, ACCOUNT_REFERENCE, Collections.singletonList(balance));
+        Thread.sleep(20);
+
+        // When
+        accountDataCache.putBalances(CONSENT_ID, OTHER_ACCOUNT_REFERENCE, Collections.singletonList(balance));
+
+        // Then
+        assertEquals(2, accountDataCache.size());
+        assertEquals(0, accountDataCache.getEvictionCount());
+        assertTrue(accountDataCache.getAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, true).isPresent());
+    }
+
+    @Test
+    public void invalidateConsent_shouldRemoveOnlyEntriesOfConsent() {
+        // Given
+        when(aspspProfileService.getAccountDetailsCacheTtlMs()).thenReturn(TTL_MS);
+        accountDataCache.putAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, true, accountDetails);
+        accountDataCache.putAccountDetails(OTHER_CONSENT_ID, ACCOUNT_REFERENCE, true, accountDetails);
+
+        // When
+        accountDataCache.invalidateConsent(CONSENT_ID);
+
+        // Then
+        assertFalse(accountDataCache.getAccountDetails(CONSENT_ID, ACCOUNT_REFERENCE, true).isPresent());
+        assertTrue(accountDataCache.getAccountDetails(OTHER_CONSENT_ID, ACCOUNT_REFERENCE, true).isPresent());
+    }
+
+    private static SpiAccountReference buildAccountReference(String iban) {
+        return new SpiAccountReference("resource id", iban, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.account;
+
+import de.adorsys.psd2.xs2a.config.AccountReadCoalescingConfig;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AccountReadCoalescingServiceTest {
+    private static final List<Object> KEY = Arrays.asList("requestBalancesForAccount", "consent id", "account id");
+    private static final List<Object> OTHER_KEY = Arrays.asList("requestBalancesForAccount", "consent id", "other account id");
+
+    @InjectMocks
+    private AccountReadCoalescingService accountReadCoalescingService;
+    @Mock
+    private AccountReadCoalescingConfig accountReadCoalescingConfig;
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+    private final CountDownLatch spiCallLatch = new CountDownLatch(1);
+    private final AtomicInteger spiCalls = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        spiCallLatch.countDown();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void read_disabled_shouldCallSpiForEachRead() {
+        // When
+        accountReadCoalescingService.read(KEY, this::readFromSpi);
+        accountReadCoalescingService.read(KEY, this::readFromSpi);
+
+        // Then
+        assertEquals(2, spiCalls.get());
+    }
+
+    @Test
+    public void read_concurrentIdenticalReads_shouldShareSpiCall() throws Exception {
+        // Given
+        when(accountReadCoalescingConfig.isEnabled()).thenReturn(true);
+
+        // When
+        Future<SpiResponse<List<String>>> firstRead = executorService.submit(() -> accountReadCoalescingService.read(KEY, this::awaitSpiResponse));
+        awaitSpiCalls(1);
+        Future<SpiResponse<List<String>>> secondRead = executorService.submit(() -> accountReadCoalescingService.read(KEY, this::awaitSpiResponse));
+        Thread.sleep(50);
+        spiCallLatch.countDown();
+
+        // Then
+        assertSame(firstRead.get(1, TimeUnit.SECONDS), secondRead.get(1, TimeUnit.SECONDS));
+        assertEquals(1, spiCalls.get());
+    }
+
+    @Test
+    public void read_concurrentReadsWithDifferentKeys_shouldCallSpiForEachRead() throws Exception {
+        // Given
+        when(accountReadCoalescingConfig.isEnabled()).thenReturn(true);
+
+        // When
+        Future<SpiResponse<List<String>>> firstRead = executorService.submit(() -> accountReadCoalescingService.read(KEY, this::awaitSpiResponse));
+        awaitSpiCalls(1);
+        SpiResponse<List<String>> otherRead = accountReadCoalescingService.read(OTHER_KEY, this::readFromSpi);
+        spiCallLatch.countDown();
+
+        // Then
+        assertNotSame(firstRead.get(1, TimeUnit.SECONDS), otherRead);
+        assertEquals(2, spiCalls.get());
+    }
+
+    @Test
+    public void read_sequentialIdenticalReads_shouldNotReuseResponse() {
+        // Given
+        when(accountReadCoalescingConfig.isEnabled()).thenReturn(true);
+
+        // When
+        SpiResponse<List<String>> firstResponse = accountReadCoalescingService.read(KEY, this::readFromSpi);
+        SpiResponse<List<String>> secondResponse = accountReadCoalescingService.read(KEY, this::readFromSpi);
+
+        // Then
+        assertNotSame(firstResponse, secondResponse);
+        assertEquals(2, spiCalls.get());
+    }
+
+    @Test
+    public void read_failedSharedSpiCall_shouldRethrowExceptionToAllReads() throws Exception {
+        // Given
+        when(accountReadCoalescingConfig.isEnabled()).thenReturn(true);
+        Supplier<SpiResponse<List<String>>> failingSpiRead = () -> {
+            awaitSpiResponse();
+            throw new IllegalStateException("SPI failure");
+        };
+
+        // When
+        Future<SpiResponse<List<String>>> firstRead = executorService.submit(() -> accountReadCoalescingService.read(KEY, failingSpiRead));
+        awaitSpiCalls(1);
+        Future<SpiResponse<List<String>>> secondRead = executorService.submit(() -> accountReadCoalescingService.read(KEY, failingSpiRead));
+        Thread.sleep(50);
+        spiCallLatch.countDown();
+
+        // Then
+        assertFailedWith(IllegalStateException.class, firstRead);
+        assertFailedWith(IllegalStateException.class, secondRead);
+        assertEquals(1, spiCalls.get());
+    }
+
+    private SpiResponse<List<String>> readFromSpi() {
+        spiCalls.incrementAndGet();
+        return SpiResponse.<List<String>>builder()
+                   .payload(Collections.singletonList("balance"))
+                   .success();
+    }
+
+    private SpiResponse<List<String>> awaitSpiResponse() {
+        SpiResponse<List<String>> response = readFromSpi();
+        try {
+            spiCallLatch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return response;
+    }
+
+    private void awaitSpiCalls(int expectedCalls) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (spiCalls.get() < expectedCalls && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void assertFailedWith(Class<? extends Throwable> expectedCause, Future<?> future) throws Exception {
+        try {
+            future.get(1, TimeUnit.SECONDS);
+            fail("Exception expected");
+        } catch (ExecutionException e) {
+            assertEquals(expectedCause, e.getCause().getClass());
+        }
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.account;
+
+import de.adorsys.psd2.xs2a.config.BalanceEnrichmentConfig;
+import de.adorsys.psd2.xs2a.core.consent.AspspConsentData;
+import de.adorsys.psd2.xs2a.core.error.MessageErrorCode;
+import de.adorsys.psd2.xs2a.core.error.TppMessage;
+import de.adorsys.psd2.xs2a.core.profile.AccountReference;
+import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.Xs2aToSpiAccountReferenceMapper;
+import de.adorsys.psd2.xs2a.service.spi.AsyncSpiProvider;
+import de.adorsys.psd2.xs2a.service.spi.SyncAccountSpiAdapter;
+import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
+import de.adorsys.psd2.xs2a.spi.domain.account.*;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponseStatus;
+import de.adorsys.psd2.xs2a.spi.service.AccountSpi;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BalanceEnrichmentServiceTest {
+    private static final String RESOURCE_ID_1 = "11111-999999999";
+    private static final String RESOURCE_ID_2 = "22222-999999999";
+    private static final String RESOURCE_ID_3 = "33333-999999999";
+    private static final SpiContextData SPI_CONTEXT_DATA = new SpiContextData(null, null, null);
+    private static final SpiAccountConsent SPI_ACCOUNT_CONSENT = new SpiAccountConsent();
+    private static final AspspConsentData ASPSP_CONSENT_DATA = new AspspConsentData("account list".getBytes(), "consent id");
+    private static final long AWAIT_TIMEOUT_SECONDS = 5;
+
+    @Mock
+    private AccountSpi accountSpi;
+    @Mock
+    private AsyncSpiProvider asyncSpiProvider;
+    @Mock
+    private Xs2aToSpiAccountReferenceMapper xs2aToSpiAccountReferenceMapper;
+    @Mock
+    private BalanceEnrichmentConfig balanceEnrichmentConfig;
+
+    private ExecutorService executorService;
+    private BalanceEnrichmentService balanceEnrichmentService;
+    private CountDownLatch blockedBalanceRequest;
+
+    @Before
+    public void setUp() {
+        executorService = Executors.newFixedThreadPool(3);
+        balanceEnrichmentService = new BalanceEnrichmentService(asyncSpiProvider, xs2aToSpiAccountReferenceMapper, balanceEnrichmentConfig, executorService);
+        blockedBalanceRequest = new CountDownLatch(1);
+
+        lenient().when(asyncSpiProvider.getAccountSpi()).thenReturn(new SyncAccountSpiAdapter(accountSpi));
+        when(balanceEnrichmentConfig.getTimeoutMs()).thenReturn(TimeUnit.SECONDS.toMillis(AWAIT_TIMEOUT_SECONDS));
+        when(xs2aToSpiAccountReferenceMapper.mapToSpiAccountReference(any(AccountReference.class)))
+            .thenAnswer(invocation -> buildSpiAccountReference(invocation.<AccountReference>getArgument(0).getResourceId()));
+    }
+
+    @After
+    public void tearDown() {
+        blockedBalanceRequest.countDown();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void enrichWithBalances_shouldRequestBalancesConcurrently() {
+        // Given
+        AspspConsentData changedConsentData = new AspspConsentData("changed".getBytes(), "consent id");
+        List<SpiAccountDetails> accounts = Arrays.asList(buildSpiAccountDetails(RESOURCE_ID_1), buildSpiAccountDetails(RESOURCE_ID_2), buildSpiAccountDetails(RESOURCE_ID_3));
+        CountDownLatch allRequestsStarted = new CountDownLatch(accounts.size());
+        when(accountSpi.requestBalancesForAccount(eq(SPI_CONTEXT_DATA), any(SpiAccountReference.class), eq(SPI_ACCOUNT_CONSENT), eq(ASPSP_CONSENT_DATA)))
+            .thenAnswer(invocation -> {
+                // completes only if all balance requests are executed at the same time
+                allRequestsStarted.countDown();
+                assertThat(allRequestsStarted.await(AWAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+                return buildBalanceResponse(invocation.<SpiAccountReference>getArgument(1).getResourceId(), changedConsentData);
+            });
+
+        // When
+        SpiResponse<List<SpiAccountDetails>> actual = balanceEnrichmentService.enrichWithBalances(SPI_CONTEXT_DATA, buildAccountListResponse(accounts),
+                                                                                                   buildBalanceAccesses(RESOURCE_ID_1, RESOURCE_ID_2, RESOURCE_ID_3), SPI_ACCOUNT_CONSENT);
+
+        // Then
+        assertThat(actual.isSuccessful()).isTrue();
+        assertThat(actual.getPayload()).isSameAs(accounts);
+        assertThat(actual.getAspspConsentData()).isEqualTo(changedConsentData);
+        for (SpiAccountDetails account : accounts) {
+            assertThat(account.getBalances().get(0).getLastCommittedTransaction()).isEqualTo(account.getResourceId());
+        }
+    }
+
+    @Test
+    public void enrichWithBalances_conflictingConsentDataUpdates_shouldKeepUpdateOfFirstAccount() {
+        // Given
+        List<SpiAccountDetails> accounts = Arrays.asList(buildSpiAccountDetails(RESOURCE_ID_1), buildSpiAccountDetails(RESOURCE_ID_2), buildSpiAccountDetails(RESOURCE_ID_3));
+        AspspConsentData firstConsentData = new AspspConsentData("first".getBytes(), "consent id");
+        AspspConsentData secondConsentData = new AspspConsentData("second".getBytes(), "consent id");
+        when(accountSpi.requestBalancesForAccount(eq(SPI_CONTEXT_DATA), eq(buildSpiAccountReference(RESOURCE_ID_1)), eq(SPI_ACCOUNT_CONSENT), eq(ASPSP_CONSENT_DATA)))
+            .thenReturn(buildBalanceResponse(RESOURCE_ID_1, ASPSP_CONSENT_DATA));
+        when(accountSpi.requestBalancesForAccount(eq(SPI_CONTEXT_DATA), eq(buildSpiAccountReference(RESOURCE_ID_2)), eq(SPI_ACCOUNT_CONSENT), eq(ASPSP_CONSENT_DATA)))
+            .thenReturn(buildBalanceResponse(RESOURCE_ID_2, firstConsentData));
+        when(accountSpi.requestBalancesForAccount(eq(SPI_CONTEXT_DATA), eq(buildSpiAccountReference(RESOURCE_ID_3)), eq(SPI_ACCOUNT_CONSENT), eq(ASPSP_CONSENT_DATA)))
+            .thenReturn(buildBalanceResponse(RESOURCE_ID_3, secondConsentData));
+
+        // When
+        SpiResponse<List<SpiAccountDetails>> actual = balanceEnrichmentService.enrichWithBalances(SPI_CONTEXT_DATA, buildAccountListResponse(accounts),
+                                                                                                   buildBalanceAccesses(RESOURCE_ID_1, RESOURCE_ID_2, RESOURCE_ID_3), SPI_ACCOUNT_CONSENT);
+
+        // Then
+        assertThat(actual.isSuccessful()).isTrue();
+        assertThat(actual.getAspspConsentData()).isEqualTo(firstConsentData);
+        for (SpiAccountDetails account : accounts) {
+            assertThat(account.getBalances()).hasSize(1);
+        }
+    }
+
+    @Test
+    public void enrichWithBalances_chainConsentData_shouldPassAspspConsentDataToNextBalanceRequest() {
+        // Given
+        when(balanceEnrichmentConfig.isChainConsentData()).thenReturn(true);
+        List<SpiAccountDetails> accounts = Arrays.asList(buildSpiAccountDetails(RESOURCE_ID_1), buildSpiAccountDetails(RESOURCE_ID_2));
+        AspspConsentData firstConsentData = new AspspConsentData("first".getBytes(), "consent id");
+        AspspConsentData lastConsentData = new AspspConsentData("last".getBytes(), "consent id");
+        when(accountSpi.requestBalancesForAccount(eq(SPI_CONTEXT_DATA), eq(buildSpiAccountReference(RESOURCE_ID_1)), eq(SPI_ACCOUNT_CONSENT), eq(ASPSP_CONSENT_DATA)))
+            .thenReturn(buildBalanceResponse(RESOURCE_ID_1, firstConsentData));
+        when(accountSpi.requestBalancesForAccount(eq(SPI_CONTEXT_DATA), eq(buildSpiAccountReference(RESOURCE_ID_2)), eq(SPI_ACCOUNT_CONSENT), eq(firstConsentData)))
+            .thenReturn(buildBalanceResponse(RESOURCE_ID_2, lastConsentData));
+
+        // When
+        SpiResponse<List<SpiAccountDetails>> actual = balanceEnrichmentService.enrichWithBalances(SPI_CONTEXT_DATA, buildAccountListResponse(accounts),
+                                                                                                   buildBalanceAccesses(RESOURCE_ID_1, RESOURCE_ID_2), SPI_ACCOUNT_CONSENT);
+
+        // Then
+        assertThat(actual.isSuccessful()).isTrue();
+        assertThat(actual.getAspspConsentData()).isEqualTo(lastConsentData);
+        assertThat(accounts.get(0).getBalances()).hasSize(1);
+        assertThat(accounts.get(1).getBalances()).hasSize(1);
+    }
+
+    @Test
+    public void enrichWithBalances_shouldSkipAccountsWithoutBalanceAccess() {
+        // Given
+        List<SpiAccountDetails> accounts = Arrays.asList(buildSpiAccountDetails(RESOURCE_ID_1), buildSpiAccountDetails(RESOURCE_ID_2));
+        when(accountSpi.requestBalancesForAccount(eq(SPI_CONTEXT_DATA), any(SpiAccountReference.class), eq(SPI_ACCOUNT_CONSENT), eq(ASPSP_CONSENT_DATA)))
+            .thenAnswer(invocation -> buildBalanceResponse(invocation.<SpiAccountReference>getArgument(1).getResourceId(), ASPSP_CONSENT_DATA));
+
+        // When
+        SpiResponse<List<SpiAccountDetails>> actual = balanceEnrichmentService.enrichWithBalances(SPI_CONTEXT_DATA, buildAccountListResponse(accounts),
+                                                                                                   buildBalanceAccesses(RESOURCE_ID_2), SPI_ACCOUNT_CONSENT);
+
+        // Then
+        assertThat(actual.isSuccessful()).isTrue();
+        assertThat(accounts.get(0).getBalances()).isNull();
+        assertThat(accounts.get(1).getBalances()).hasSize(1);
+        verify(accountSpi, times(1)).requestBalancesForAccount(any(), any(), any(), any());
+    }
+
+    @Test
+    public void enrichWithBalances_skipAccountPolicy_shouldReturnAccountsWithoutFailedBalances() {
+        // Given
+        when(balanceEnrichmentConfig.getFailurePolicy()).thenReturn(BalanceEnrichmentFailurePolicy.SKIP_ACCOUNT);
+        List<SpiAccountDetails> accounts = Arrays.asList(buildSpiAccountDetails(RESOURCE_ID_1), buildSpiAccountDetails(RESOURCE_ID_2));
+        stubFailedBalanceRequestForFirstAccount();
+
+        // When
+        SpiResponse<List<SpiAccountDetails>> actual = balanceEnrichmentService.enrichWithBalances(SPI_CONTEXT_DATA, buildAccountListResponse(accounts),
+                                                                                                   buildBalanceAccesses(RESOURCE_ID_1, RESOURCE_ID_2), SPI_ACCOUNT_CONSENT);
+
+        // Then
+        assertThat(actual.isSuccessful()).isTrue();
+        assertThat(accounts.get(0).getBalances()).isNull();
+        assertThat(accounts.get(1).getBalances()).hasSize(1);
+    }
+
+    @Test
+    public void enrichWithBalances_failRequestPolicy_shouldReturnError() {
+        // Given
+        when(balanceEnrichmentConfig.getFailurePolicy()).thenReturn(BalanceEnrichmentFailurePolicy.FAIL_REQUEST);
+        List<SpiAccountDetails> accounts = Arrays.asList(buildSpiAccountDetails(RESOURCE_ID_1), buildSpiAccountDetails(RESOURCE_ID_2));
+        stubFailedBalanceRequestForFirstAccount();
+
+        // When
+        SpiResponse<List<SpiAccountDetails>> actual = balanceEnrichmentService.enrichWithBalances(SPI_CONTEXT_DATA, buildAccountListResponse(accounts),
+                                                                                                   buildBalanceAccesses(RESOURCE_ID_1, RESOURCE_ID_2), SPI_ACCOUNT_CONSENT);
+
+        // Then
+        assertThat(actual.hasError()).isTrue();
+        assertThat(actual.getResponseStatus()).isEqualTo(SpiResponseStatus.LOGICAL_FAILURE);
+        assertThat(actual.getErrors()).extracting(TppMessage::getErrorCode).containsExactly(MessageErrorCode.RESOURCE_UNKNOWN_404);
+    }
+
+    @Test
+    public void enrichWithBalances_chainConsentDataAndDeadlineExceeded_shouldInterruptBalanceRequestAndSkipRemainingAccounts() throws InterruptedException {
+        // Given
+        when(balanceEnrichmentConfig.isChainConsentData()).thenReturn(true);
+        when(balanceEnrichmentConfig.getTimeoutMs()).thenReturn(50L);
+        when(balanceEnrichmentConfig.getFailurePolicy()).thenReturn(BalanceEnrichmentFailurePolicy.FAIL_REQUEST);
+        List<SpiAccountDetails> accounts = Arrays.asList(buildSpiAccountDetails(RESOURCE_ID_1), buildSpiAccountDetails(RESOURCE_ID_2));
+        CountDownLatch balanceRequestInterrupted = new CountDownLatch(1);
+        when(accountSpi.requestBalancesForAccount(eq(SPI_CONTEXT_DATA), eq(buildSpiAccountReference(RESOURCE_ID_1)), eq(SPI_ACCOUNT_CONSENT), eq(ASPSP_CONSENT_DATA)))
+            .thenAnswer(invocation -> {
+                try {
+                    blockedBalanceRequest.await();
+                } catch (InterruptedException e) {
+                    balanceRequestInterrupted.countDown();
+                    throw e;
+                }
+                return buildBalanceResponse(RESOURCE_ID_1, ASPSP_CONSENT_DATA);
+            });
+
+        // When
+        SpiResponse<List<SpiAccountDetails>> actual = balanceEnrichmentService.enrichWithBalances(SPI_CONTEXT_DATA, buildAccountListResponse(accounts),
+                                                                                                   buildBalanceAccesses(RESOURCE_ID_1, RESOURCE_ID_2), SPI_ACCOUNT_CONSENT);
+
+        // Then
+        assertThat(actual.hasError()).isTrue();
+        assertThat(actual.getResponseStatus()).isEqualTo(SpiResponseStatus.TECHNICAL_FAILURE);
+        assertThat(actual.getErrors()).extracting(TppMessage::getErrorCode).containsExactly(MessageErrorCode.INTERNAL_SERVER_ERROR);
+        assertThat(balanceRequestInterrupted.await(AWAIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        verify(accountSpi, never()).requestBalancesForAccount(any(), eq(buildSpiAccountReference(RESOURCE_ID_2)), any(), any());
+    }
+
+    @Test
+    public void enrichWithBalances_executorSaturated_shouldTreatBalanceRequestAsFailed() {
+        // Given
+        when(balanceEnrichmentConfig.getFailurePolicy()).thenReturn(BalanceEnrichmentFailurePolicy.SKIP_ACCOUNT);
+        List<SpiAccountDetails> accounts = Collections.singletonList(buildSpiAccountDetails(RESOURCE_ID_1));
+        executorService.shutdown();
+
+        // When
+        SpiResponse<List<SpiAccountDetails>> actual = balanceEnrichmentService.enrichWithBalances(SPI_CONTEXT_DATA, buildAccountListResponse(accounts),
+                                                                                                   buildBalanceAccesses(RESOURCE_ID_1), SPI_ACCOUNT_CONSENT);
+
+        // Then
+        assertThat(actual.isSuccessful()).isTrue();
+        assertThat(accounts.get(0).getBalances()).isNull();
+        verify(accountSpi, never()).requestBalancesForAccount(any(), any(), any(), any());
+    }
+
+    private void stubFailedBalanceRequestForFirstAccount() {
+        when(accountSpi.requestBalancesForAccount(eq(SPI_CONTEXT_DATA), eq(buildSpiAccountReference(RESOURCE_ID_1)), eq(SPI_ACCOUNT_CONSENT), eq(ASPSP_CONSENT_DATA)))
+            .thenReturn(SpiResponse.<List<SpiAccountBalance>>builder()
+                            .aspspConsentData(ASPSP_CONSENT_DATA)
+                            .error(new TppMessage(MessageErrorCode.RESOURCE_UNKNOWN_404, "Unknown account"))
+                            .fail(SpiResponseStatus.LOGICAL_FAILURE));
+        when(accountSpi.requestBalancesForAccount(eq(SPI_CONTEXT_DATA), eq(buildSpiAccountReference(RESOURCE_ID_2)), eq(SPI_ACCOUNT_CONSENT), eq(ASPSP_CONSENT_DATA)))
+            .thenReturn(buildBalanceResponse(RESOURCE_ID_2, ASPSP_CONSENT_DATA));
+    }
+
+    private SpiResponse<List<SpiAccountBalance>> buildBalanceResponse(String resourceId, AspspConsentData aspspConsentData) {
+        SpiAccountBalance balance = new SpiAccountBalance();
+        balance.setLastCommittedTransaction(resourceId);
+        return SpiResponse.<List<SpiAccountBalance>>builder()
+                   .payload(Collections.singletonList(balance))
+                   .aspspConsentData(aspspConsentData)
+                   .success();
+    }
+
+    private SpiResponse<List<SpiAccountDetails>> buildAccountListResponse(List<SpiAccountDetails> accounts) {
+        return SpiResponse.<List<SpiAccountDetails>>builder()
+                   .payload(accounts)
+                   .aspspConsentData(ASPSP_CONSENT_DATA)
+                   .success();
+    }
+
+    private List<AccountReference> buildBalanceAccesses(String... resourceIds) {
+        return Arrays.stream(resourceIds)
+                   .map(resourceId -> new AccountReference(null, resourceId, null, null, null, null, null, null))
+                   .collect(Collectors.toList());
+    }
+
+    private SpiAccountReference buildSpiAccountReference(String resourceId) {
+        return new SpiAccountReference(null, resourceId, null, null, null, null, null, null);
+    }
+
+    private SpiAccountDetails buildSpiAccountDetails(String resourceId) {
+        return new SpiAccountDetails(null, resourceId, null, null, null, null, null, Currency.getInstance("EUR"), null, null,
+                                     null, null, null, null, null, null, null);
+    }
+}
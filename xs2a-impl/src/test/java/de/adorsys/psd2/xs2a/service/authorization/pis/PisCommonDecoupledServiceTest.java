@@ -29,6 +29,9 @@ import de.adorsys.psd2.xs2a.service.consent.PisAspspDataService;
 import de.adorsys.psd2.xs2a.service.context.SpiContextDataProvider;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceType;
 import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.SpiErrorMapper;
+import de.adorsys.psd2.xs2a.service.spi.AsyncSpiProvider;
+import de.adorsys.psd2.xs2a.service.spi.SpiDeadlineService;
+import de.adorsys.psd2.xs2a.service.spi.SyncPaymentAuthorisationSpiAdapter;
 import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
 import de.adorsys.psd2.xs2a.spi.domain.authorisation.SpiAuthorisationDecoupledScaResponse;
 import de.adorsys.psd2.xs2a.spi.domain.payment.SpiSinglePayment;
@@ -42,6 +45,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.Collections;
@@ -49,6 +53,7 @@ import java.util.UUID;
 
 import static de.adorsys.psd2.xs2a.core.sca.ScaStatus.SCAMETHODSELECTED;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -75,6 +80,10 @@ public class PisCommonDecoupledServiceTest {
     @Mock
     private PaymentAuthorisationSpi paymentAuthorisationSpi;
     @Mock
+    private AsyncSpiProvider asyncSpiProvider;
+    @Spy
+    private SpiDeadlineService spiDeadlineService = new SpiDeadlineService(0);
+    @Mock
     private PaymentCancellationSpi paymentCancellationSpi;
     @Mock
     private SpiContextDataProvider spiContextDataProvider;
@@ -85,6 +94,7 @@ public class PisCommonDecoupledServiceTest {
 
     @Before
     public void init() {
+        lenient().when(asyncSpiProvider.getPaymentAuthorisationSpi()).thenReturn(new SyncPaymentAuthorisationSpiAdapter(paymentAuthorisationSpi));
         when(pisAspspDataService.getAspspConsentData(PAYMENT_ID))
             .thenReturn(ASPSP_CONSENT_DATA);
         when(spiContextDataProvider.provideWithPsuIdData(PSU_DATA))
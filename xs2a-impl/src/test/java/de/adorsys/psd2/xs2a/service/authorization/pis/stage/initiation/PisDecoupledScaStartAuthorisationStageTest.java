@@ -35,6 +35,9 @@ import de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorType;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceType;
 import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.SpiErrorMapper;
 import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.Xs2aToSpiPsuDataMapper;
+import de.adorsys.psd2.xs2a.service.spi.AsyncSpiProvider;
+import de.adorsys.psd2.xs2a.service.spi.SpiDeadlineService;
+import de.adorsys.psd2.xs2a.service.spi.SyncPaymentAuthorisationSpiAdapter;
 import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
 import de.adorsys.psd2.xs2a.spi.domain.authorisation.SpiAuthorisationStatus;
 import de.adorsys.psd2.xs2a.spi.domain.payment.SpiPaymentInfo;
@@ -47,6 +50,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.util.Collections;
@@ -83,6 +87,10 @@ public class PisDecoupledScaStartAuthorisationStageTest {
     @Mock
     private PaymentAuthorisationSpi paymentAuthorisationSpi;
     @Mock
+    private AsyncSpiProvider asyncSpiProvider;
+    @Spy
+    private SpiDeadlineService spiDeadlineService = new SpiDeadlineService(0);
+    @Mock
     private PisAspspDataService pisAspspDataService;
     @Mock
     private PisCommonDecoupledService pisCommonDecoupledService;
@@ -102,6 +110,7 @@ public class PisDecoupledScaStartAuthorisationStageTest {
 
     @Before
     public void setUp() {
+        lenient().when(asyncSpiProvider.getPaymentAuthorisationSpi()).thenReturn(new SyncPaymentAuthorisationSpiAdapter(paymentAuthorisationSpi));
         when(response.getPaymentType())
             .thenReturn(SINGLE_PAYMENT_TYPE);
 
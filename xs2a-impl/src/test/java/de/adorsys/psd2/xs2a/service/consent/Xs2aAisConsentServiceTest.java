@@ -30,6 +30,7 @@ import de.adorsys.psd2.xs2a.core.tpp.TppInfo;
 import de.adorsys.psd2.xs2a.core.tpp.TppRole;
 import de.adorsys.psd2.xs2a.domain.consent.*;
 import de.adorsys.psd2.xs2a.service.ScaApproachResolver;
+import de.adorsys.psd2.xs2a.service.account.AccountDataCache;
 import de.adorsys.psd2.xs2a.service.mapper.consent.Xs2aAisConsentAuthorisationMapper;
 import de.adorsys.psd2.xs2a.service.mapper.consent.Xs2aAisConsentMapper;
 import de.adorsys.psd2.xs2a.service.mapper.consent.Xs2aAuthenticationObjectToCmsScaMethodMapper;
@@ -93,6 +94,8 @@ public class Xs2aAisConsentServiceTest {
     private Xs2aAuthenticationObjectToCmsScaMethodMapper xs2AAuthenticationObjectToCmsScaMethodMapper;
     @Mock
     private ScaApproachResolver scaApproachResolver;
+    @Mock
+    private AccountDataCache accountDataCache;
 
 
     @Test
@@ -130,6 +133,16 @@ public class Xs2aAisConsentServiceTest {
     }
 
 
+    @Test
+    public void updateConsentStatus_shouldInvalidateCachedAccountData() {
+        //When
+        xs2aAisConsentService.updateConsentStatus(CONSENT_ID, ConsentStatus.REVOKED_BY_PSU);
+
+        //Then
+        verify(aisConsentServiceEncrypted).updateConsentStatusById(CONSENT_ID, ConsentStatus.REVOKED_BY_PSU);
+        verify(accountDataCache).invalidateConsent(CONSENT_ID);
+    }
+
     @Test
     public void getAccountConsentById_success() {
         //Given
@@ -456,7 +469,7 @@ public class Xs2aAisConsentServiceTest {
     }
 
     private static AccountConsent createConsent(String id) {
-        return new AccountConsent(id, new Xs2aAccountAccess(null, null, null, null, null), false, LocalDate.now(), 4, LocalDate.now(), ConsentStatus.VALID, false, false, null, null, AisConsentRequestType.GLOBAL, false, Collections.emptyList(), OffsetDateTime.now(), Collections.emptyMap());
+        return new AccountConsent(id, new Xs2aAccountAccess(null, null, null, null, null), false, LocalDate.now(), 4, LocalDate.now(), ConsentStatus.VALID, false, false, null, null, AisConsentRequestType.GLOBAL, false, Collections.emptyList(), OffsetDateTime.now(), Collections.emptyMap(), 0L);
     }
 
     private static CreateAisConsentAuthorizationResponse buildCreateAisConsentAuthorizationResponse() {
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.discovery;
+
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static de.adorsys.psd2.xs2a.config.Xs2aEndpointPathConstant.*;
+import static de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceType.*;
+
+/**
+ * Compares service type resolution through the prefix tree of {@link ServiceTypeDiscovery} with the former iteration
+ * over Ant-style patterns. Not a part of the test suite, run manually with {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceTypeDiscoveryBenchmark {
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+    private static final Map<String, ServiceType> PATH_TO_SERVICE_TYPE = new HashMap<>();
+
+    static {
+        PATH_TO_SERVICE_TYPE.put(ACCOUNTS_PATH, AIS);
+        PATH_TO_SERVICE_TYPE.put(CONSENTS_PATH, AIS);
+        PATH_TO_SERVICE_TYPE.put(SINGLE_PAYMENTS_PATH, PIS);
+        PATH_TO_SERVICE_TYPE.put(PERIODIC_PAYMENTS_PATH, PIS);
+        PATH_TO_SERVICE_TYPE.put(BULK_PAYMENTS_PATH, PIS);
+        PATH_TO_SERVICE_TYPE.put(FUNDS_CONFIRMATION_PATH, PIIS);
+        PATH_TO_SERVICE_TYPE.put(SIGNING_BASKETS_PATH, SB);
+    }
+
+    @Param({"/v1/accounts/3dc3d5b3-7023-4848-9853-f5400a64e80f/transactions",
+        "/v1/periodic-payments/sepa-credit-transfers/1111111111111/authorisations/463318a0-1e33-45d8-8209-e16444b18dda",
+        "/v1/signing-baskets"})
+    private String path;
+
+    @Benchmark
+    public ServiceType antPathMatcher() {
+        for (Map.Entry<String, ServiceType> entry : PATH_TO_SERVICE_TYPE.entrySet()) {
+            if (MATCHER.match(entry.getKey(), path)) {
+                return entry.getValue();
+            }
+        }
+        throw new IllegalArgumentException("Illegal path: " + path);
+    }
+
+    @Benchmark
+    public ServiceType prefixTree() {
+        return ServiceTypeDiscovery.getServiceType(path);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                       .include(ServiceTypeDiscoveryBenchmark.class.getSimpleName())
+                       .build())
+            .run();
+    }
+}
@@ -21,6 +21,7 @@ import org.junit.Test;
 import org.springframework.mock.web.MockHttpServletRequest;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 public class ServiceTypeDiscoveryServiceTest {
     private MockHttpServletRequest request;
@@ -44,4 +45,16 @@ public class ServiceTypeDiscoveryServiceTest {
 
         assertEquals("AIS", result.name());
     }
+
+    @Test
+    public void getServiceType_storedAsRequestAttribute() {
+        request = new MockHttpServletRequest("GET", "/v1/payments/sepa-credit-transfers");
+        cut = new ServiceTypeDiscoveryService(request);
+        ServiceType result = cut.getServiceType();
+
+        assertSame(ServiceType.PIS, request.getAttribute(ServiceTypeDiscoveryService.SERVICE_TYPE_ATTRIBUTE));
+
+        request.setRequestURI("/v1/consents");
+        assertSame(result, cut.getServiceType());
+    }
 }
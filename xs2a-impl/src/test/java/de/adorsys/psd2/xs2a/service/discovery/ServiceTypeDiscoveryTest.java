@@ -0,0 +1,80 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.discovery;
+
+import de.adorsys.psd2.xs2a.config.Xs2aEndpointPathConstant;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceType;
+import org.junit.Test;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class ServiceTypeDiscoveryTest {
+    private static final List<String> MATCHING_PATHS = Arrays.asList(
+        "/v1/accounts", "/v1/accounts/", "/v1/accounts/3dc3d5b3-7023-4848-9853-f5400a64e80f/transactions",
+        "/v1/consents", "/v1/consents/consentId/authorisations/authorisationId",
+        "/v1/payments/sepa-credit-transfers", "/v1/periodic-payments/sepa-credit-transfers/paymentId/status",
+        "/v1/bulk-payments/sepa-credit-transfers", "/v1/funds-confirmations", "/v1/signing-baskets/basketId",
+        "//v1//accounts//accountId"
+    );
+    private static final List<String> ILLEGAL_PATHS = Arrays.asList(
+        "", "/", "/v1", "/v1/", "v1/accounts", "/v1/accountsX", "/v1/account", "/v2/accounts", "/V1/accounts",
+        "/v1/unknown/accounts", "/api/v1/consents"
+    );
+
+    @Test
+    public void getServiceType_success() {
+        assertEquals(ServiceType.AIS, ServiceTypeDiscovery.getServiceType("/v1/accounts/accountId/balances"));
+        assertEquals(ServiceType.AIS, ServiceTypeDiscovery.getServiceType("/v1/consents/consentId/status"));
+        assertEquals(ServiceType.PIS, ServiceTypeDiscovery.getServiceType("/v1/payments/sepa-credit-transfers/paymentId"));
+        assertEquals(ServiceType.PIS, ServiceTypeDiscovery.getServiceType("/v1/periodic-payments/sepa-credit-transfers"));
+        assertEquals(ServiceType.PIS, ServiceTypeDiscovery.getServiceType("/v1/bulk-payments/sepa-credit-transfers"));
+        assertEquals(ServiceType.PIIS, ServiceTypeDiscovery.getServiceType("/v1/funds-confirmations"));
+        assertEquals(ServiceType.SB, ServiceTypeDiscovery.getServiceType("/v1/signing-baskets"));
+    }
+
+    @Test
+    public void getServiceType_sameMatchingAsAntPathMatcher() {
+        AntPathMatcher matcher = new AntPathMatcher();
+        for (String path : MATCHING_PATHS) {
+            boolean matchedByPattern = Arrays.stream(Xs2aEndpointPathConstant.getAllXs2aEndpointPaths())
+                                           .anyMatch(pattern -> matcher.match(pattern, path));
+            assertEquals(path, true, matchedByPattern);
+            ServiceTypeDiscovery.getServiceType(path);
+        }
+        for (String path : ILLEGAL_PATHS) {
+            boolean matchedByPattern = Arrays.stream(Xs2aEndpointPathConstant.getAllXs2aEndpointPaths())
+                                           .anyMatch(pattern -> matcher.match(pattern, path));
+            assertEquals(path, false, matchedByPattern);
+            try {
+                ServiceTypeDiscovery.getServiceType(path);
+                fail("Path should be illegal: " + path);
+            } catch (IllegalArgumentException e) {
+                assertEquals("Illegal path: " + path, e.getMessage());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getServiceType_nullPath_exception() {
+        ServiceTypeDiscovery.getServiceType(null);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.idempotency;
+
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyKey;
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyReservation;
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyStatus;
+import de.adorsys.psd2.consent.api.idempotency.IdempotentResponse;
+import de.adorsys.psd2.consent.api.service.IdempotencyService;
+import de.adorsys.psd2.xs2a.config.IdempotencyConfig;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.web.client.RestClientException;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class Xs2aIdempotencyServiceTest {
+    private static final String TPP_ID = "Test TppId";
+    private static final String X_REQUEST_ID = "99391c7e-ad88-49ec-a2ad-99ddcb1f7721";
+    private static final IdempotencyKey IDEMPOTENCY_KEY = new IdempotencyKey(TPP_ID, X_REQUEST_ID, "SHA-256=digest");
+    private static final IdempotentResponse RESPONSE = new IdempotentResponse(201, Collections.emptyMap(), new byte[0]);
+
+    @InjectMocks
+    private Xs2aIdempotencyService xs2aIdempotencyService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+    @Mock
+    private IdempotencyConfig idempotencyConfig;
+
+    @Test
+    public void buildKey_sameBody_sameDigest() {
+        IdempotencyKey key = xs2aIdempotencyService.buildKey(TPP_ID, X_REQUEST_ID, "{}".getBytes());
+
+        assertEquals(TPP_ID, key.getTppId());
+        assertEquals(X_REQUEST_ID, key.getXRequestId());
+        assertEquals("SHA-256=RBNvo1WzZ4oRRq0W9+hknpT7T8If536DEMBg9hyq/4o=", key.getBodyDigest());
+        assertEquals(key, xs2aIdempotencyService.buildKey(TPP_ID, X_REQUEST_ID, "{}".getBytes()));
+        assertNotEquals(key, xs2aIdempotencyService.buildKey(TPP_ID, X_REQUEST_ID, "{ }".getBytes()));
+    }
+
+    @Test
+    public void reserve_inProgress_waitsForCompletion() {
+        when(idempotencyConfig.getWaitTimeoutMs()).thenReturn(1000L);
+        when(idempotencyConfig.getPollIntervalMs()).thenReturn(1L);
+        IdempotencyReservation completed = IdempotencyReservation.completed(RESPONSE);
+        when(idempotencyService.reserve(IDEMPOTENCY_KEY))
+            .thenReturn(IdempotencyReservation.inProgress())
+            .thenReturn(IdempotencyReservation.inProgress())
+            .thenReturn(completed);
+
+        IdempotencyReservation reservation = xs2aIdempotencyService.reserve(IDEMPOTENCY_KEY);
+
+        assertEquals(completed, reservation);
+        verify(idempotencyService, times(3)).reserve(IDEMPOTENCY_KEY);
+    }
+
+    @Test
+    public void reserve_inProgressLongerThanWaitTimeout_inProgress() {
+        when(idempotencyConfig.getWaitTimeoutMs()).thenReturn(20L);
+        when(idempotencyConfig.getPollIntervalMs()).thenReturn(1L);
+        when(idempotencyService.reserve(IDEMPOTENCY_KEY))
+            .thenReturn(IdempotencyReservation.inProgress());
+
+        IdempotencyReservation reservation = xs2aIdempotencyService.reserve(IDEMPOTENCY_KEY);
+
+        assertEquals(IdempotencyStatus.IN_PROGRESS, reservation.getStatus());
+    }
+
+    @Test
+    public void complete_stored_true() {
+        when(idempotencyService.complete(IDEMPOTENCY_KEY, RESPONSE)).thenReturn(true);
+
+        assertTrue(xs2aIdempotencyService.complete(IDEMPOTENCY_KEY, RESPONSE));
+    }
+
+    @Test
+    public void complete_reservationNotFound_false() {
+        when(idempotencyService.complete(IDEMPOTENCY_KEY, RESPONSE)).thenReturn(false);
+
+        assertFalse(xs2aIdempotencyService.complete(IDEMPOTENCY_KEY, RESPONSE));
+    }
+
+    @Test
+    public void complete_cmsFailure_ignored() {
+        when(idempotencyService.complete(IDEMPOTENCY_KEY, RESPONSE))
+            .thenThrow(new RestClientException("CMS is not available"));
+
+        assertFalse(xs2aIdempotencyService.complete(IDEMPOTENCY_KEY, RESPONSE));
+
+        verify(idempotencyService).complete(IDEMPOTENCY_KEY, RESPONSE);
+    }
+}
@@ -16,7 +16,6 @@
 
 package de.adorsys.psd2.xs2a.service.mapper;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import de.adorsys.psd2.consent.api.pis.proto.PisPaymentInfo;
 import de.adorsys.psd2.model.*;
 import de.adorsys.psd2.xs2a.core.pis.PisDayOfExecution;
@@ -90,7 +89,7 @@ public class PaymentModelMapperTest {
     private StandardPaymentProductsResolver standardPaymentProductsResolver;
 
     @Spy
-    AccountModelMapper accountModelMapper = new AccountModelMapper(amountModelMapper, new HrefLinkMapper(new ObjectMapper()));
+    AccountModelMapper accountModelMapper = new AccountModelMapper(amountModelMapper, new HrefLinkMapper());
 
     @Before
     public void setUp() {
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.psd2.xs2a.config.ObjectMapperConfig;
+import de.adorsys.psd2.xs2a.core.profile.AccountReference;
+import de.adorsys.psd2.xs2a.domain.BalanceType;
+import de.adorsys.psd2.xs2a.domain.Links;
+import de.adorsys.psd2.xs2a.domain.Xs2aAmount;
+import de.adorsys.psd2.xs2a.domain.Xs2aBalance;
+import de.adorsys.psd2.xs2a.domain.account.Xs2aAccountReport;
+import de.adorsys.psd2.xs2a.domain.account.Xs2aTransactionsReport;
+import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.*;
+import de.adorsys.psd2.xs2a.service.validator.ValueValidatorService;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiAccountReference;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiExchangeRate;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.psd2.xs2a.spi.domain.common.SpiAmount;
+import de.adorsys.psd2.xs2a.util.reader.JsonReader;
+import de.adorsys.psd2.xs2a.web.mapper.HrefLinkMapper;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(SpringRunner.class)
+@ContextConfiguration(
+    classes = {TransactionsReportJsonWriter.class, AccountModelMapper.class, AmountModelMapper.class, HrefLinkMapper.class,
+        ObjectMapperConfig.class, SpiTransactionListToXs2aAccountReportMapper.class, SpiToXs2aTransactionMapperImpl.class,
+        SpiToXs2aAmountMapperImpl.class, SpiToXs2aExchangeRateMapperImpl.class, SpiToXs2aAccountReferenceMapperImpl.class,
+        TransactionsReportJsonWriterTest.TestConfiguration.class})
+public class TransactionsReportJsonWriterTest {
+    private static final String SPI_TRANSACTION_JSON_PATH = "json/service/mapper/spi_xs2a_mappers/spi-transactions.json";
+    private static final Currency EUR_CURRENCY = Currency.getInstance("EUR");
+    private static final String IBAN = "DE52500105173911841934";
+    private static final String ACCOUNT_ID = "33333-999999999";
+
+    private JsonReader jsonReader = new JsonReader();
+
+    @Autowired
+    private TransactionsReportJsonWriter transactionsReportJsonWriter;
+    @Autowired
+    private AccountModelMapper accountModelMapper;
+    @Autowired
+    private SpiTransactionListToXs2aAccountReportMapper transactionsToAccountReportMapper;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void mapToTransactionsResponseJson_bookedAndPending_shouldMatchMappedReport() throws Exception {
+        SpiTransaction booked = jsonReader.getObjectFromFile(SPI_TRANSACTION_JSON_PATH, SpiTransaction.class);
+        List<SpiTransaction> transactions = Arrays.asList(booked, buildSparseTransaction(null), booked,
+                                                          buildSparseTransaction(LocalDate.of(2019, 5, 28)));
+
+        assertStreamedReportMatchesMappedReport(transactions, buildBalances(), buildLinks());
+    }
+
+    @Test
+    public void mapToTransactionsResponseJson_bookedOnly_shouldMatchMappedReport() throws Exception {
+        SpiTransaction booked = jsonReader.getObjectFromFile(SPI_TRANSACTION_JSON_PATH, SpiTransaction.class);
+
+        assertStreamedReportMatchesMappedReport(Collections.singletonList(booked), Collections.emptyList(), buildLinks());
+    }
+
+    @Test
+    public void mapToTransactionsResponseJson_pendingOnly_shouldMatchMappedReport() throws Exception {
+        assertStreamedReportMatchesMappedReport(Collections.singletonList(buildSparseTransaction(null)), buildBalances(), null);
+    }
+
+    @Test
+    public void mapToTransactionsResponseJson_noTransactions_shouldMatchMappedReport() throws Exception {
+        assertStreamedReportMatchesMappedReport(Collections.emptyList(), null, null);
+    }
+
+    @Test
+    public void countCharacters_shouldReturnLengthOfWrittenReport() throws Exception {
+        SpiTransaction booked = jsonReader.getObjectFromFile(SPI_TRANSACTION_JSON_PATH, SpiTransaction.class);
+        Xs2aTransactionsReport streamedReport = buildStreamedReport(Arrays.asList(booked, buildSparseTransaction(null)),
+                                                                    buildBalances(), buildLinks());
+
+        long count = transactionsReportJsonWriter.countCharacters(streamedReport);
+
+        String streamedJson = objectMapper.writeValueAsString(transactionsReportJsonWriter.mapToTransactionsResponseJson(streamedReport));
+        assertEquals(streamedJson.length(), count);
+    }
+
+    private void assertStreamedReportMatchesMappedReport(List<SpiTransaction> transactions, List<Xs2aBalance> balances,
+                                                         Links links) throws Exception {
+        Xs2aTransactionsReport mappedReport = buildReport(balances, links);
+        mappedReport.setAccountReport(transactionsToAccountReportMapper.mapToXs2aAccountReport(transactions, null)
+                                          .orElseGet(() -> new Xs2aAccountReport(Collections.emptyList(), Collections.emptyList(), null)));
+        mappedReport.getAccountReport().setLinks(links);
+        Xs2aTransactionsReport streamedReport = buildStreamedReport(transactions, balances, links);
+
+        byte[] mappedJson = objectMapper.writeValueAsBytes(accountModelMapper.mapToTransactionsResponse200Json(mappedReport));
+        byte[] streamedJson = objectMapper.writeValueAsBytes(transactionsReportJsonWriter.mapToTransactionsResponseJson(streamedReport));
+
+        assertEquals(new String(mappedJson, "UTF-8"), new String(streamedJson, "UTF-8"));
+        assertEquals(mappedJson.length, streamedJson.length);
+    }
+
+    private Xs2aTransactionsReport buildStreamedReport(List<SpiTransaction> transactions, List<Xs2aBalance> balances, Links links) {
+        Xs2aTransactionsReport report = buildReport(balances, links);
+        report.setAccountReport(new Xs2aAccountReport(Collections.emptyList(), Collections.emptyList(), null));
+        report.getAccountReport().setLinks(links);
+        report.setSpiTransactions(transactions);
+        return report;
+    }
+
+    private Xs2aTransactionsReport buildReport(List<Xs2aBalance> balances, Links links) {
+        Xs2aTransactionsReport report = new Xs2aTransactionsReport();
+        report.setAccountReference(new AccountReference(ACCOUNT_ID, ACCOUNT_ID, IBAN, null, null, null, null, EUR_CURRENCY));
+        report.setBalances(balances);
+        report.setLinks(links);
+        report.setResponseContentType("application/json");
+        return report;
+    }
+
+    private SpiTransaction buildSparseTransaction(LocalDate bookingDate) {
+        SpiAccountReference creditorAccount = new SpiAccountReference(null, null, IBAN, null, null, null, null, null);
+        List<SpiExchangeRate> exchangeRates = bookingDate == null
+                                                  ? Collections.emptyList()
+                                                  : Collections.singletonList(new SpiExchangeRate("EUR", null, null, "USD", null, null));
+        return new SpiTransaction("tr-\"2\" ü€", null, null, null, null, null, bookingDate, null,
+                                  new SpiAmount(EUR_CURRENCY, new BigDecimal("1E+3")), exchangeRates, null,
+                                  creditorAccount, null, "Debtor \\ name", null, null,
+                                  "line1\nline2", null, "BKDF", null, null);
+    }
+
+    private List<Xs2aBalance> buildBalances() {
+        Xs2aBalance balance = new Xs2aBalance();
+        balance.setBalanceAmount(new Xs2aAmount(EUR_CURRENCY, "1000.00"));
+        balance.setBalanceType(BalanceType.CLOSING_BOOKED);
+        balance.setLastChangeDateTime(LocalDateTime.of(2019, 5, 28, 10, 15, 30));
+        balance.setReferenceDate(LocalDate.of(2019, 5, 28));
+        return Collections.singletonList(balance);
+    }
+
+    private Links buildLinks() {
+        Links links = new Links();
+        links.setAccount("http://localhost/v1/accounts/" + ACCOUNT_ID);
+        links.setDownload("http://localhost/v1/accounts/" + ACCOUNT_ID + "/transactions/download");
+        return links;
+    }
+
+    @Configuration
+    static class TestConfiguration {
+        @Bean
+        public ValueValidatorService valueValidatorService() {
+            return Mockito.mock(ValueValidatorService.class);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.psd2.xs2a.config.ObjectMapperConfig;
+import de.adorsys.psd2.xs2a.domain.account.Xs2aAccountReport;
+import de.adorsys.psd2.xs2a.domain.account.Xs2aTransactionsReport;
+import de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers.*;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiAccountReference;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiExchangeRate;
+import de.adorsys.psd2.xs2a.spi.domain.account.SpiTransaction;
+import de.adorsys.psd2.xs2a.spi.domain.common.SpiAmount;
+import de.adorsys.psd2.xs2a.web.mapper.HrefLinkMapper;
+import org.apache.commons.io.output.NullOutputStream;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures JSON transaction reports written per second with mapping of SPI transactions to XS2A and PSD2 objects and
+ * with {@link TransactionsReportJsonWriter}. Allocated bytes per written report are reported by the GC profiler
+ * as "gc.alloc.rate.norm".
+ * Not a part of the test suite, run manually with {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransactionsReportSerialisationBenchmark {
+    private static final Currency EUR_CURRENCY = Currency.getInstance("EUR");
+    private static final String IBAN = "DE52500105173911841934";
+
+    @Param({"10", "1000"})
+    private int transactionsCount;
+
+    private final ObjectMapper objectMapper = new ObjectMapperConfig().objectMapper();
+    private final AccountModelMapper accountModelMapper = new AccountModelMapper(new AmountModelMapper(null), new HrefLinkMapper());
+    private final TransactionsReportJsonWriter transactionsReportJsonWriter = new TransactionsReportJsonWriter(accountModelMapper, objectMapper);
+    private AnnotationConfigApplicationContext context;
+    private SpiTransactionListToXs2aAccountReportMapper transactionsToAccountReportMapper;
+    private List<SpiTransaction> transactions;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(SpiTransactionListToXs2aAccountReportMapper.class,
+                                                         SpiToXs2aTransactionMapperImpl.class, SpiToXs2aAmountMapperImpl.class,
+                                                         SpiToXs2aExchangeRateMapperImpl.class, SpiToXs2aAccountReferenceMapperImpl.class);
+        transactionsToAccountReportMapper = context.getBean(SpiTransactionListToXs2aAccountReportMapper.class);
+
+        transactions = new ArrayList<>(transactionsCount);
+        for (int i = 0; i < transactionsCount; i++) {
+            transactions.add(buildTransaction(i));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void mappedReport() throws IOException {
+        Xs2aTransactionsReport report = new Xs2aTransactionsReport();
+        report.setAccountReport(transactionsToAccountReportMapper.mapToXs2aAccountReport(transactions, null)
+                                    .orElseGet(() -> new Xs2aAccountReport(Collections.emptyList(), Collections.emptyList(), null)));
+        objectMapper.writeValue(NullOutputStream.NULL_OUTPUT_STREAM, accountModelMapper.mapToTransactionsResponse200Json(report));
+    }
+
+    @Benchmark
+    public void streamedReport() throws IOException {
+        Xs2aTransactionsReport report = new Xs2aTransactionsReport();
+        report.setAccountReport(new Xs2aAccountReport(Collections.emptyList(), Collections.emptyList(), null));
+        report.setSpiTransactions(transactions);
+        objectMapper.writeValue(NullOutputStream.NULL_OUTPUT_STREAM, transactionsReportJsonWriter.mapToTransactionsResponseJson(report));
+    }
+
+    private SpiTransaction buildTransaction(int index) {
+        SpiAccountReference accountReference = new SpiAccountReference(null, null, IBAN, null, null, null, null, EUR_CURRENCY);
+        List<SpiExchangeRate> exchangeRates = Collections.singletonList(
+            new SpiExchangeRate("EUR", "1.12", "EUR", "USD", LocalDate.of(2019, 5, 28), "contractIdentification"));
+        LocalDate bookingDate = index % 2 == 0 ? LocalDate.of(2019, 5, 28) : null;
+
+        return new SpiTransaction("transaction-" + index, "entry-" + index, "endToEnd-" + index, null, null, null,
+                                  bookingDate, LocalDate.of(2019, 5, 28), new SpiAmount(EUR_CURRENCY, new BigDecimal("1.06")),
+                                  exchangeRates, "John Miles", accountReference, "Paul Simpson", "Jan", accountReference,
+                                  "Max", "Ref Number Merchant", null, "BKDF", "PMNT-RCDT-ESCT", null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                       .include(TransactionsReportSerialisationBenchmark.class.getSimpleName())
+                       .addProfiler(GCProfiler.class)
+                       .build())
+            .run();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.mapper.psd2;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.psd2.xs2a.domain.TppMessageInformation;
+import de.adorsys.psd2.xs2a.exception.MessageError;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ais.AIS429ErrorMapper;
+import de.adorsys.psd2.xs2a.service.message.MessageService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static de.adorsys.psd2.xs2a.core.error.MessageErrorCode.ACCESS_EXCEEDED;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Load test for rejections with 429 error: measures error responses per second, built through error mapper and
+ * serialised with Jackson for each rejection, and written from the pre-serialised body of
+ * {@link StaticErrorResponseWriter}. Not a part of the test suite, run manually with {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ErrorResponseBenchmark {
+    private ObjectMapper objectMapper;
+    private AIS429ErrorMapper ais429ErrorMapper;
+    private StaticErrorResponseWriter staticErrorResponseWriter;
+
+    @Setup
+    public void setUp() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("error_message");
+        MessageService messageService = new MessageService(messageSource);
+        messageService.resolveMessages();
+
+        objectMapper = new ObjectMapper();
+        ais429ErrorMapper = new AIS429ErrorMapper();
+        ais429ErrorMapper.messageService = messageService;
+
+        ErrorMapperContainer errorMapperContainer = mock(ErrorMapperContainer.class);
+        when(errorMapperContainer.getErrorBody(any(MessageError.class)))
+            .thenAnswer(invocation -> new ErrorMapperContainer.ErrorBody(ais429ErrorMapper.getMapper().apply(invocation.getArgument(0)),
+                                                                         ais429ErrorMapper.getErrorStatus()));
+        staticErrorResponseWriter = new StaticErrorResponseWriter(errorMapperContainer, objectMapper);
+        staticErrorResponseWriter.initErrorResponses();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse mappedAndSerialisedError() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MessageError messageError = new MessageError(ErrorType.AIS_429, TppMessageInformation.of(ACCESS_EXCEEDED));
+        response.setStatus(ais429ErrorMapper.getErrorStatus().value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(objectMapper.writeValueAsString(ais429ErrorMapper.getMapper().apply(messageError)));
+        return response;
+    }
+
+    @Benchmark
+    public MockHttpServletResponse staticError() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        staticErrorResponseWriter.writeErrorResponse(response, ErrorType.AIS_429, ACCESS_EXCEEDED);
+        return response;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                       .include(ErrorResponseBenchmark.class.getSimpleName())
+                       .build())
+            .run();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.mapper.psd2;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.psd2.model.Error429NGAIS;
+import de.adorsys.psd2.model.MessageCode429AIS;
+import de.adorsys.psd2.model.TppMessage429AIS;
+import de.adorsys.psd2.model.TppMessageCategory;
+import de.adorsys.psd2.xs2a.exception.MessageError;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import static de.adorsys.psd2.xs2a.core.error.MessageErrorCode.ACCESS_EXCEEDED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class StaticErrorResponseWriterTest {
+    private static final String ERROR_TEXT = "The access on the account has been exceeding the consented multiplicity per day";
+    private static final String EXPECTED_BODY = "{\"tppMessages\":[{\"category\":\"ERROR\",\"code\":\"ACCESS_EXCEEDED\",\"path\":null,\"text\":\"" + ERROR_TEXT + "\"}],\"_links\":null}";
+
+    @Mock
+    private ErrorMapperContainer errorMapperContainer;
+    @Captor
+    private ArgumentCaptor<MessageError> messageErrorCaptor;
+
+    private StaticErrorResponseWriter staticErrorResponseWriter;
+
+    @Before
+    public void setUp() {
+        Error429NGAIS errorBody = new Error429NGAIS()
+                                      .tppMessages(Collections.singletonList(new TppMessage429AIS()
+                                                                                 .category(TppMessageCategory.ERROR)
+                                                                                 .code(MessageCode429AIS.EXCEEDED)
+                                                                                 .text(ERROR_TEXT)));
+        when(errorMapperContainer.getErrorBody(any(MessageError.class)))
+            .thenReturn(new ErrorMapperContainer.ErrorBody(errorBody, HttpStatus.TOO_MANY_REQUESTS));
+
+        staticErrorResponseWriter = new StaticErrorResponseWriter(errorMapperContainer, new ObjectMapper());
+        staticErrorResponseWriter.initErrorResponses();
+    }
+
+    @Test
+    public void writeErrorResponse_success() throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        staticErrorResponseWriter.writeErrorResponse(response, ErrorType.AIS_429, ACCESS_EXCEEDED);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        assertEquals(EXPECTED_BODY, response.getContentAsString());
+        assertEquals(EXPECTED_BODY.length(), response.getContentLength());
+
+        verify(errorMapperContainer).getErrorBody(messageErrorCaptor.capture());
+        MessageError messageError = messageErrorCaptor.getValue();
+        assertEquals(ErrorType.AIS_429, messageError.getErrorType());
+        assertEquals(ACCESS_EXCEEDED, messageError.getTppMessage().getMessageErrorCode());
+        assertNull(messageError.getTppMessage().getText());
+    }
+
+    @Test
+    public void writeErrorResponse_bodyIsBuiltOnlyOnce() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            staticErrorResponseWriter.writeErrorResponse(response, ErrorType.AIS_429, ACCESS_EXCEEDED);
+            assertEquals(EXPECTED_BODY, response.getContentAsString());
+        }
+
+        verify(errorMapperContainer, times(1)).getErrorBody(any(MessageError.class));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.mapper.spi_xs2a_mappers;
+
+import de.adorsys.psd2.xs2a.core.error.MessageErrorCode;
+import de.adorsys.psd2.xs2a.core.error.TppMessage;
+import de.adorsys.psd2.xs2a.domain.ErrorHolder;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorType;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceType;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceTypeToErrorTypeMapper;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponseStatus;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = {SpiErrorMapper.class, SpiResponseStatusToXs2aMessageErrorCodeMapper.class,
+    SpiResponseToServiceAndErrorTypeMapper.class, ServiceTypeToErrorTypeMapper.class})
+public class SpiErrorMapperTest {
+
+    @Autowired
+    private SpiErrorMapper spiErrorMapper;
+
+    @Test
+    public void mapToErrorHolder_technicalFailure_shouldMapByResponseStatus() {
+        SpiResponse<Object> spiResponse = buildFailedResponse(MessageErrorCode.INTERNAL_SERVER_ERROR);
+
+        ErrorHolder errorHolder = spiErrorMapper.mapToErrorHolder(spiResponse, ServiceType.AIS);
+
+        assertEquals(MessageErrorCode.INTERNAL_SERVER_ERROR, errorHolder.getErrorCode());
+        assertEquals(ErrorType.AIS_500, errorHolder.getErrorType());
+    }
+
+    @Test
+    public void mapToErrorHolder_accessExceeded_shouldMapTo429() {
+        SpiResponse<Object> spiResponse = buildFailedResponse(MessageErrorCode.ACCESS_EXCEEDED);
+
+        ErrorHolder errorHolder = spiErrorMapper.mapToErrorHolder(spiResponse, ServiceType.AIS);
+
+        assertEquals(MessageErrorCode.ACCESS_EXCEEDED, errorHolder.getErrorCode());
+        assertEquals(ErrorType.AIS_429, errorHolder.getErrorType());
+    }
+
+    @Test
+    public void mapToErrorHolder_accessExceededWithout429_shouldMapTo503() {
+        SpiResponse<Object> spiResponse = buildFailedResponse(MessageErrorCode.ACCESS_EXCEEDED);
+
+        ErrorHolder errorHolder = spiErrorMapper.mapToErrorHolder(spiResponse, ServiceType.PIS);
+
+        assertEquals(MessageErrorCode.SERVICE_UNAVAILABLE, errorHolder.getErrorCode());
+        assertEquals(ErrorType.PIS_503, errorHolder.getErrorType());
+    }
+
+    @Test
+    public void mapToErrorHolder_serviceUnavailable_shouldMapTo503() {
+        SpiResponse<Object> spiResponse = buildFailedResponse(MessageErrorCode.SERVICE_UNAVAILABLE);
+
+        ErrorHolder errorHolder = spiErrorMapper.mapToErrorHolder(spiResponse, ServiceType.PIIS);
+
+        assertEquals(MessageErrorCode.SERVICE_UNAVAILABLE, errorHolder.getErrorCode());
+        assertEquals(ErrorType.PIIS_503, errorHolder.getErrorType());
+    }
+
+    private SpiResponse<Object> buildFailedResponse(MessageErrorCode errorCode) {
+        return SpiResponse.builder()
+                   .error(new TppMessage(errorCode, "error text"))
+                   .fail(SpiResponseStatus.TECHNICAL_FAILURE);
+    }
+}
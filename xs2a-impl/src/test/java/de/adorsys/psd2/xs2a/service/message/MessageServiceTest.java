@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.message;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.context.MessageSource;
+import org.springframework.context.NoSuchMessageException;
+
+import java.util.Locale;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MessageServiceTest {
+    private static final String FORMAT_ERROR_TEXT = "Format of certain request fields are not matching the XS2A requirements.";
+    private static final String UNKNOWN_CODE = "UNKNOWN_CODE";
+
+    @Mock
+    private MessageSource messageSource;
+    private MessageService messageService;
+
+    @Before
+    public void setUp() {
+        when(messageSource.getMessage(any(String.class), isNull(), any(Locale.class)))
+            .thenThrow(new NoSuchMessageException("code"));
+        when(messageSource.getMessage(eq("FORMAT_ERROR"), isNull(), any(Locale.class)))
+            .thenReturn(FORMAT_ERROR_TEXT);
+        messageService = new MessageService(messageSource);
+        messageService.resolveMessages();
+    }
+
+    @Test
+    public void getMessage_success() {
+        assertEquals(FORMAT_ERROR_TEXT, messageService.getMessage("FORMAT_ERROR"));
+    }
+
+    @Test
+    public void getMessage_resolvedOnStartupOnly() {
+        messageService.getMessage("FORMAT_ERROR");
+        messageService.getMessage("FORMAT_ERROR");
+
+        verify(messageSource, times(1)).getMessage(eq("FORMAT_ERROR"), isNull(), any(Locale.class));
+    }
+
+    @Test
+    public void getMessage_unknownCode_notCached() {
+        assertNull(messageService.getMessage(UNKNOWN_CODE));
+        assertNull(messageService.getMessage(UNKNOWN_CODE));
+
+        verify(messageSource, times(2)).getMessage(eq(UNKNOWN_CODE), isNull(), any(Locale.class));
+    }
+
+    @Test
+    public void resolveMessages_reloadedMessage_replacesCachedText() {
+        when(messageSource.getMessage(eq("FORMAT_ERROR"), isNull(), any(Locale.class)))
+            .thenReturn("Reloaded text");
+
+        messageService.resolveMessages();
+
+        assertEquals("Reloaded text", messageService.getMessage("FORMAT_ERROR"));
+    }
+}
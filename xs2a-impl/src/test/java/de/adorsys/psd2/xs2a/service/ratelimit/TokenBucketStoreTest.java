@@ -0,0 +1,146 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.ratelimit;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class TokenBucketStoreTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final String TPP_ID = "Test TppId";
+
+    private final AtomicLong clock = new AtomicLong(1000 * SECOND);
+
+    @Test
+    public void tryAcquire_burstWithinCapacity_permitted() {
+        TokenBucketStore store = new TokenBucketStore(3, 1, 100, clock::get);
+
+        assertEquals(0, store.tryAcquire(TPP_ID));
+        assertEquals(0, store.tryAcquire(TPP_ID));
+        assertEquals(0, store.tryAcquire(TPP_ID));
+    }
+
+    @Test
+    public void tryAcquire_burstExceedsCapacity_rejectedUntilRefill() {
+        TokenBucketStore store = new TokenBucketStore(2, 2, 100, clock::get);
+        store.tryAcquire(TPP_ID);
+        store.tryAcquire(TPP_ID);
+
+        assertEquals(SECOND / 2, store.tryAcquire(TPP_ID));
+
+        clock.addAndGet(SECOND / 2);
+        assertEquals(0, store.tryAcquire(TPP_ID));
+        assertTrue(store.tryAcquire(TPP_ID) > 0);
+    }
+
+    @Test
+    public void tryAcquire_differentKeys_separateBuckets() {
+        TokenBucketStore store = new TokenBucketStore(1, 1, 100, clock::get);
+
+        assertEquals(0, store.tryAcquire(TPP_ID));
+        assertEquals(0, store.tryAcquire("Another TppId"));
+        assertTrue(store.tryAcquire(TPP_ID) > 0);
+    }
+
+    @Test
+    public void tryAcquire_maxBucketsReached_fullBucketsEvicted() {
+        TokenBucketStore store = new TokenBucketStore(1, 1, 2, clock::get);
+        store.tryAcquire("first");
+        store.tryAcquire("second");
+        clock.addAndGet(SECOND);
+
+        assertEquals(0, store.tryAcquire("third"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    public void tryAcquire_maxBucketsReachedWithoutFullBuckets_leastRecentlyUsedEvicted() {
+        TokenBucketStore store = new TokenBucketStore(1, 1, 20, clock::get);
+        for (int i = 0; i < 20; i++) {
+            store.tryAcquire("consent " + i);
+            clock.addAndGet(SECOND / 100);
+        }
+
+        assertEquals(0, store.tryAcquire("new consent"));
+
+        assertEquals(18, store.size());
+        assertTrue(store.tryAcquire("consent 19") > 0);
+        assertTrue(store.tryAcquire("consent 3") > 0);
+        assertEquals(0, store.tryAcquire("consent 0"));
+    }
+
+    @Test
+    public void tryAcquire_manyKeysNeverFull_sizeLimited() {
+        TokenBucketStore store = new TokenBucketStore(10, 1, 100, clock::get);
+
+        for (int i = 0; i < 10_000; i++) {
+            store.tryAcquire("random consent " + i);
+        }
+
+        assertTrue(store.size() <= 100);
+    }
+
+    @Test
+    public void tryAcquire_concurrentRequests_capacityNotExceeded() throws InterruptedException {
+        TokenBucketStore store = new TokenBucketStore(50, 0.001, 100, clock::get);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger permitted = new AtomicInteger();
+
+        for (int i = 0; i < 200; i++) {
+            executorService.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (store.tryAcquire(TPP_ID) == 0) {
+                    permitted.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executorService.shutdown();
+        assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(50, permitted.get());
+    }
+
+    @Test
+    public void release_takenToken_availableAgain() {
+        TokenBucketStore store = new TokenBucketStore(1, 1, 100, clock::get);
+        store.tryAcquire(TPP_ID);
+
+        store.release(TPP_ID);
+
+        assertEquals(0, store.tryAcquire(TPP_ID));
+        assertTrue(store.tryAcquire(TPP_ID) > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_zeroRate_exception() {
+        new TokenBucketStore(1, 0, 100);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.xs2a.service.ratelimit;
+
+import de.adorsys.psd2.xs2a.config.TppRateLimitConfig;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TppRateLimiterTest {
+    private static final String TPP_ID = "Test TppId";
+    private static final String CONSENT_ID = "Test consentId";
+    private static final String OTHER_CONSENT_ID = "Other consentId";
+
+    @Mock
+    private TppRateLimitConfig tppRateLimitConfig;
+
+    private TppRateLimiter tppRateLimiter;
+
+    @Before
+    public void setUp() {
+        when(tppRateLimitConfig.getInstances()).thenReturn(1);
+        when(tppRateLimitConfig.getMaxTrackedKeys()).thenReturn(100);
+        when(tppRateLimitConfig.getTppCapacity()).thenReturn(2);
+        when(tppRateLimitConfig.getTppRequestsPerSecond()).thenReturn(0.001);
+        when(tppRateLimitConfig.getConsentCapacity()).thenReturn(1);
+        when(tppRateLimitConfig.getConsentRequestsPerSecond()).thenReturn(0.001);
+        tppRateLimiter = new TppRateLimiter(tppRateLimitConfig);
+    }
+
+    @Test
+    public void tryAcquire_consentRateExceeded_tppTokenNotTaken() {
+        assertEquals(0, tppRateLimiter.tryAcquire(TPP_ID, CONSENT_ID));
+        assertTrue(tppRateLimiter.tryAcquire(TPP_ID, CONSENT_ID) > 0);
+
+        assertEquals(0, tppRateLimiter.tryAcquire(TPP_ID, OTHER_CONSENT_ID));
+    }
+
+    @Test
+    public void tryAcquire_tppRateExceeded_consentTokenReturned() {
+        assertEquals(0, tppRateLimiter.tryAcquire(TPP_ID, null));
+        assertEquals(0, tppRateLimiter.tryAcquire(TPP_ID, null));
+        assertTrue(tppRateLimiter.tryAcquire(TPP_ID, CONSENT_ID) > 0);
+
+        assertEquals(0, tppRateLimiter.tryAcquire("Another TppId", CONSENT_ID));
+    }
+}
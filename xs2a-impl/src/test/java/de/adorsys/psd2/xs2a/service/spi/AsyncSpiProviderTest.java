@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi;
+
+import de.adorsys.psd2.xs2a.spi.service.AccountSpi;
+import de.adorsys.psd2.xs2a.spi.service.AsyncAccountSpi;
+import de.adorsys.psd2.xs2a.spi.service.AsyncFundsConfirmationSpi;
+import de.adorsys.psd2.xs2a.spi.service.AsyncPaymentAuthorisationSpi;
+import de.adorsys.psd2.xs2a.spi.service.FundsConfirmationSpi;
+import de.adorsys.psd2.xs2a.spi.service.PaymentAuthorisationSpi;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class AsyncSpiProviderTest {
+    private DefaultListableBeanFactory beanFactory;
+    private AsyncSpiProvider asyncSpiProvider;
+
+    @Before
+    public void setUp() {
+        beanFactory = new DefaultListableBeanFactory();
+        asyncSpiProvider = new AsyncSpiProvider(beanFactory.getBeanProvider(AsyncAccountSpi.class),
+                                                beanFactory.getBeanProvider(AccountSpi.class),
+                                                beanFactory.getBeanProvider(AsyncFundsConfirmationSpi.class),
+                                                beanFactory.getBeanProvider(FundsConfirmationSpi.class),
+                                                beanFactory.getBeanProvider(AsyncPaymentAuthorisationSpi.class),
+                                                beanFactory.getBeanProvider(PaymentAuthorisationSpi.class));
+    }
+
+    @Test
+    public void getAccountSpi_asyncSpiAvailable_shouldPreferAsyncSpi() {
+        AsyncAccountSpi asyncAccountSpi = mock(AsyncAccountSpi.class);
+        beanFactory.registerSingleton("asyncAccountSpi", asyncAccountSpi);
+        beanFactory.registerSingleton("accountSpi", mock(AccountSpi.class));
+
+        assertSame(asyncAccountSpi, asyncSpiProvider.getAccountSpi());
+    }
+
+    @Test
+    public void getAccountSpi_onlySyncSpiAvailable_shouldAdaptSyncSpi() {
+        beanFactory.registerSingleton("accountSpi", mock(AccountSpi.class));
+
+        assertTrue(asyncSpiProvider.getAccountSpi() instanceof SyncAccountSpiAdapter);
+    }
+
+    @Test(expected = NoSuchBeanDefinitionException.class)
+    public void getAccountSpi_noSpiAvailable_shouldThrowException() {
+        asyncSpiProvider.getAccountSpi();
+    }
+
+    @Test
+    public void getFundsConfirmationSpi_asyncSpiAvailable_shouldPreferAsyncSpi() {
+        AsyncFundsConfirmationSpi asyncFundsConfirmationSpi = mock(AsyncFundsConfirmationSpi.class);
+        beanFactory.registerSingleton("asyncFundsConfirmationSpi", asyncFundsConfirmationSpi);
+
+        assertSame(asyncFundsConfirmationSpi, asyncSpiProvider.getFundsConfirmationSpi());
+    }
+
+    @Test
+    public void getFundsConfirmationSpi_onlySyncSpiAvailable_shouldAdaptSyncSpi() {
+        beanFactory.registerSingleton("fundsConfirmationSpi", mock(FundsConfirmationSpi.class));
+
+        assertTrue(asyncSpiProvider.getFundsConfirmationSpi() instanceof SyncFundsConfirmationSpiAdapter);
+    }
+
+    @Test
+    public void getPaymentAuthorisationSpi_asyncSpiAvailable_shouldPreferAsyncSpi() {
+        AsyncPaymentAuthorisationSpi asyncPaymentAuthorisationSpi = mock(AsyncPaymentAuthorisationSpi.class);
+        beanFactory.registerSingleton("asyncPaymentAuthorisationSpi", asyncPaymentAuthorisationSpi);
+
+        assertSame(asyncPaymentAuthorisationSpi, asyncSpiProvider.getPaymentAuthorisationSpi());
+    }
+
+    @Test
+    public void getPaymentAuthorisationSpi_onlySyncSpiAvailable_shouldAdaptSyncSpi() {
+        beanFactory.registerSingleton("paymentAuthorisationSpi", mock(PaymentAuthorisationSpi.class));
+
+        assertTrue(asyncSpiProvider.getPaymentAuthorisationSpi() instanceof SyncPaymentAuthorisationSpiAdapter);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi;
+
+import de.adorsys.psd2.xs2a.core.error.MessageErrorCode;
+import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponseStatus;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+public class SpiDeadlineServiceTest {
+    private static final SpiContextData SPI_CONTEXT_DATA = new SpiContextData(null, null, UUID.randomUUID());
+    private static final String PAYLOAD = "payload";
+
+    @Test
+    public void withDeadline_deadlineConfigured_shouldSetDeadline() {
+        SpiDeadlineService spiDeadlineService = new SpiDeadlineService(1000);
+        Instant before = Instant.now();
+
+        SpiContextData actual = spiDeadlineService.withDeadline(SPI_CONTEXT_DATA);
+
+        assertEquals(SPI_CONTEXT_DATA, actual);
+        assertFalse(actual.getDeadline().isBefore(before.plusMillis(1000)));
+    }
+
+    @Test
+    public void withDeadline_deadlineDisabled_shouldReturnSameContext() {
+        SpiDeadlineService spiDeadlineService = new SpiDeadlineService(0);
+
+        SpiContextData actual = spiDeadlineService.withDeadline(SPI_CONTEXT_DATA);
+
+        assertSame(SPI_CONTEXT_DATA, actual);
+        assertNull(actual.getDeadline());
+    }
+
+    @Test
+    public void awaitResponse_completedBeforeDeadline_shouldReturnResponse() {
+        SpiDeadlineService spiDeadlineService = new SpiDeadlineService(1000);
+        SpiContextData contextData = spiDeadlineService.withDeadline(SPI_CONTEXT_DATA);
+        SpiResponse<String> spiResponse = SpiResponse.<String>builder().payload(PAYLOAD).success();
+
+        SpiResponse<String> actual = spiDeadlineService.awaitResponse(CompletableFuture.completedFuture(spiResponse), contextData);
+
+        assertSame(spiResponse, actual);
+    }
+
+    @Test
+    public void awaitResponse_notCompletedUntilDeadline_shouldReturnTechnicalFailure() {
+        SpiDeadlineService spiDeadlineService = new SpiDeadlineService(50);
+        SpiContextData contextData = spiDeadlineService.withDeadline(SPI_CONTEXT_DATA);
+        CompletableFuture<SpiResponse<String>> responseFuture = new CompletableFuture<>();
+
+        SpiResponse<String> actual = spiDeadlineService.awaitResponse(responseFuture, contextData);
+
+        assertTrue(actual.hasError());
+        assertEquals(SpiResponseStatus.TECHNICAL_FAILURE, actual.getResponseStatus());
+        assertEquals(MessageErrorCode.INTERNAL_SERVER_ERROR, actual.getErrors().get(0).getErrorCode());
+        assertEquals("SPI call has not completed in time", actual.getErrors().get(0).getMessageText());
+        assertTrue(responseFuture.isCancelled());
+    }
+
+    @Test
+    public void awaitResponse_completedWithCheckedException_shouldReturnTechnicalFailure() {
+        SpiDeadlineService spiDeadlineService = new SpiDeadlineService(1000);
+        CompletableFuture<SpiResponse<String>> responseFuture = new CompletableFuture<>();
+        responseFuture.completeExceptionally(new IOException("SPI failure"));
+
+        SpiResponse<String> actual = spiDeadlineService.awaitResponse(responseFuture, spiDeadlineService.withDeadline(SPI_CONTEXT_DATA));
+
+        assertTrue(actual.hasError());
+        assertEquals(SpiResponseStatus.TECHNICAL_FAILURE, actual.getResponseStatus());
+        assertEquals(MessageErrorCode.INTERNAL_SERVER_ERROR, actual.getErrors().get(0).getErrorCode());
+        assertEquals("SPI call has failed", actual.getErrors().get(0).getMessageText());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void awaitResponse_completedWithRuntimeException_shouldRethrowException() {
+        SpiDeadlineService spiDeadlineService = new SpiDeadlineService(1000);
+        CompletableFuture<SpiResponse<String>> responseFuture = new CompletableFuture<>();
+        responseFuture.completeExceptionally(new IllegalStateException("SPI failure"));
+
+        spiDeadlineService.awaitResponse(responseFuture, spiDeadlineService.withDeadline(SPI_CONTEXT_DATA));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi.resilience;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SpiCircuitBreakerTest {
+    private static final String NAME = "AccountSpi.requestAccountList";
+
+    @Test
+    public void onResult_failureRateBelowThreshold_shouldStayClosed() {
+        SpiCircuitBreaker circuitBreaker = new SpiCircuitBreaker(NAME, 4, 50, 1000);
+
+        circuitBreaker.onResult(true);
+        circuitBreaker.onResult(false);
+        circuitBreaker.onResult(false);
+        circuitBreaker.onResult(false);
+
+        assertEquals(SpiCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void onResult_failureRateReachesThreshold_shouldOpen() {
+        SpiCircuitBreaker circuitBreaker = new SpiCircuitBreaker(NAME, 4, 50, 1000);
+
+        circuitBreaker.onResult(false);
+        circuitBreaker.onResult(true);
+        circuitBreaker.onResult(false);
+        circuitBreaker.onResult(true);
+
+        assertEquals(SpiCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void onResult_oldFailuresLeaveSlidingWindow_shouldStayClosed() {
+        SpiCircuitBreaker circuitBreaker = new SpiCircuitBreaker(NAME, 4, 75, 1000);
+
+        circuitBreaker.onResult(true);
+        circuitBreaker.onResult(true);
+        circuitBreaker.onResult(false);
+        circuitBreaker.onResult(false);
+        circuitBreaker.onResult(true);
+
+        assertEquals(SpiCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    public void tryAcquirePermission_openStateDurationElapsed_shouldPermitSingleTrialCall() throws InterruptedException {
+        SpiCircuitBreaker circuitBreaker = openCircuitBreaker(50);
+
+        Thread.sleep(60);
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(SpiCircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void onResult_successfulTrialCall_shouldClose() throws InterruptedException {
+        SpiCircuitBreaker circuitBreaker = openCircuitBreaker(50);
+        Thread.sleep(60);
+        circuitBreaker.tryAcquirePermission();
+
+        circuitBreaker.onResult(false);
+
+        assertEquals(SpiCircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void onResult_failedTrialCall_shouldOpenAgain() throws InterruptedException {
+        SpiCircuitBreaker circuitBreaker = openCircuitBreaker(50);
+        Thread.sleep(60);
+        circuitBreaker.tryAcquirePermission();
+
+        circuitBreaker.onResult(true);
+
+        assertEquals(SpiCircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+    }
+
+    private SpiCircuitBreaker openCircuitBreaker(long openStateDurationMs) {
+        SpiCircuitBreaker circuitBreaker = new SpiCircuitBreaker(NAME, 2, 50, openStateDurationMs);
+        circuitBreaker.onResult(true);
+        circuitBreaker.onResult(true);
+        return circuitBreaker;
+    }
+}
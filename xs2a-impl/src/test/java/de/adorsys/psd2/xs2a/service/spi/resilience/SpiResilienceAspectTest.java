@@ -0,0 +1,296 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.service.spi.resilience;
+
+import de.adorsys.psd2.xs2a.config.SpiResilienceConfig;
+import de.adorsys.psd2.xs2a.core.ais.BookingStatus;
+import de.adorsys.psd2.xs2a.core.consent.AspspConsentData;
+import de.adorsys.psd2.xs2a.core.error.MessageErrorCode;
+import de.adorsys.psd2.xs2a.core.error.TppMessage;
+import de.adorsys.psd2.xs2a.spi.domain.SpiContextData;
+import de.adorsys.psd2.xs2a.spi.domain.account.*;
+import de.adorsys.psd2.xs2a.spi.domain.fund.SpiFundsConfirmationRequest;
+import de.adorsys.psd2.xs2a.spi.domain.fund.SpiFundsConfirmationResponse;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponse;
+import de.adorsys.psd2.xs2a.spi.domain.response.SpiResponseStatus;
+import de.adorsys.psd2.xs2a.spi.service.AccountSpi;
+import de.adorsys.psd2.xs2a.spi.service.AsyncFundsConfirmationSpi;
+import de.adorsys.psd2.xs2a.core.piis.PiisConsent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs the resilience layer against slow and failing stub implementations of SPI
+ */
+@RunWith(SpringRunner.class)
+@ContextConfiguration(classes = SpiResilienceAspectTest.TestConfiguration.class)
+@TestPropertySource(properties = {
+    "xs2a.spi.resilience.enabled=true",
+    "xs2a.spi.resilience.AccountSpi.requestAccountList.max-concurrent-calls=2",
+    "xs2a.spi.resilience.AccountSpi.requestBalancesForAccount.sliding-window-size=4",
+    "xs2a.spi.resilience.AccountSpi.requestBalancesForAccount.open-state-duration-ms=100",
+    "xs2a.spi.resilience.AccountSpi.requestTransactionForAccountByTransactionId.slow-call-threshold-ms=20",
+    "xs2a.spi.resilience.AsyncFundsConfirmationSpi.async-timeout-ms=50"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+public class SpiResilienceAspectTest {
+    private static final SpiContextData SPI_CONTEXT_DATA = new SpiContextData(null, null, null);
+    private static final SpiAccountConsent SPI_ACCOUNT_CONSENT = new SpiAccountConsent();
+    private static final SpiAccountReference SPI_ACCOUNT_REFERENCE = new SpiAccountReference(null, null, null, null, null, null, null);
+    private static final AspspConsentData ASPSP_CONSENT_DATA = new AspspConsentData(null, "consent id");
+
+    @Autowired
+    private AccountSpi accountSpi;
+    @Autowired
+    private SlowAccountSpi slowAccountSpi;
+    @Autowired
+    private AsyncFundsConfirmationSpi asyncFundsConfirmationSpi;
+    @Autowired
+    private SpiResilienceRegistry spiResilienceRegistry;
+
+    private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+    @After
+    public void tearDown() {
+        slowAccountSpi.releaseAccountList();
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void invokeSpi_bulkheadFull_shouldRejectOnlyCallsOfSameKey() throws Exception {
+        // Given
+        Future<SpiResponse<List<SpiAccountDetails>>> firstCall = executorService.submit(this::requestAccountList);
+        Future<SpiResponse<List<SpiAccountDetails>>> secondCall = executorService.submit(this::requestAccountList);
+        awaitCalls(() -> slowAccountSpi.getAccountListCalls() == 2);
+
+        // When
+        SpiResponse<List<SpiAccountDetails>> rejectedResponse = requestAccountList();
+        SpiResponse<SpiAccountDetails> otherKeyResponse = accountSpi.requestAccountDetailForAccount(SPI_CONTEXT_DATA, false, SPI_ACCOUNT_REFERENCE, SPI_ACCOUNT_CONSENT, ASPSP_CONSENT_DATA);
+
+        // Then
+        assertFastFailResponse(MessageErrorCode.ACCESS_EXCEEDED, rejectedResponse);
+        assertTrue(otherKeyResponse.isSuccessful());
+        assertEquals(2, slowAccountSpi.getAccountListCalls());
+
+        slowAccountSpi.releaseAccountList();
+        assertTrue(firstCall.get(1, TimeUnit.SECONDS).isSuccessful());
+        assertTrue(secondCall.get(1, TimeUnit.SECONDS).isSuccessful());
+        assertTrue(requestAccountList().isSuccessful());
+
+        SpiCallMetrics metrics = spiResilienceRegistry.getMetrics().get("AccountSpi.requestAccountList");
+        assertEquals(3, metrics.getSuccessfulCalls());
+        assertEquals(1, metrics.getCallsRejectedByBulkhead());
+    }
+
+    @Test
+    public void invokeSpi_failureRateReachesThreshold_shouldOpenCircuitAndCloseAfterSuccessfulTrialCall() throws Exception {
+        // Given
+        for (int i = 0; i < 4; i++) {
+            assertTrue(requestBalances().hasError());
+        }
+        assertEquals(SpiCircuitBreaker.State.OPEN, spiResilienceRegistry.getCircuitBreakerState("AccountSpi.requestBalancesForAccount").get());
+
+        // When
+        SpiResponse<List<SpiAccountBalance>> rejectedResponse = requestBalances();
+
+        // Then
+        assertFastFailResponse(MessageErrorCode.SERVICE_UNAVAILABLE, rejectedResponse);
+        assertEquals(4, slowAccountSpi.getBalanceCalls());
+        assertEquals(1, spiResilienceRegistry.getMetrics().get("AccountSpi.requestBalancesForAccount").getCallsRejectedByCircuitBreaker());
+
+        // When
+        Thread.sleep(150);
+        slowAccountSpi.makeBalancesAvailable();
+
+        // Then
+        assertTrue(requestBalances().isSuccessful());
+        assertEquals(SpiCircuitBreaker.State.CLOSED, spiResilienceRegistry.getCircuitBreakerState("AccountSpi.requestBalancesForAccount").get());
+    }
+
+    @Test
+    public void invokeSpi_slowCall_shouldReturnResponseAndCountSlowCall() {
+        SpiResponse<SpiTransaction> response = accountSpi.requestTransactionForAccountByTransactionId(SPI_CONTEXT_DATA, "transaction id", SPI_ACCOUNT_REFERENCE, SPI_ACCOUNT_CONSENT, ASPSP_CONSENT_DATA);
+
+        assertTrue(response.isSuccessful());
+        SpiCallMetrics metrics = spiResilienceRegistry.getMetrics().get("AccountSpi.requestTransactionForAccountByTransactionId");
+        assertEquals(1, metrics.getSlowCalls());
+        assertEquals(0, metrics.getTimedOutCalls());
+        assertEquals(1, metrics.getFailedCalls());
+    }
+
+    @Test
+    public void invokeAsyncSpi_timeoutExceeded_shouldCompleteWithFastFailResponse() throws Exception {
+        CompletionStage<SpiResponse<SpiFundsConfirmationResponse>> responseStage = asyncFundsConfirmationSpi.performFundsSufficientCheck(SPI_CONTEXT_DATA, null, new SpiFundsConfirmationRequest(), ASPSP_CONSENT_DATA);
+
+        SpiResponse<SpiFundsConfirmationResponse> response = responseStage.toCompletableFuture().get(1, TimeUnit.SECONDS);
+
+        assertFastFailResponse(MessageErrorCode.SERVICE_UNAVAILABLE, response);
+        assertEquals(1, spiResilienceRegistry.getMetrics().get("AsyncFundsConfirmationSpi.performFundsSufficientCheck").getTimedOutCalls());
+    }
+
+    @Test
+    public void resilienceDisabled_shouldNotCreateAspect() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(SpiResilienceConfig.class, SpiResilienceRegistry.class, SpiResilienceAspect.class)) {
+            assertTrue(context.getBeansOfType(SpiResilienceAspect.class).isEmpty());
+            assertFalse(context.containsBean("spiTimeoutScheduler"));
+        }
+    }
+
+    private SpiResponse<List<SpiAccountDetails>> requestAccountList() {
+        return accountSpi.requestAccountList(SPI_CONTEXT_DATA, false, SPI_ACCOUNT_CONSENT, ASPSP_CONSENT_DATA);
+    }
+
+    private SpiResponse<List<SpiAccountBalance>> requestBalances() {
+        return accountSpi.requestBalancesForAccount(SPI_CONTEXT_DATA, SPI_ACCOUNT_REFERENCE, SPI_ACCOUNT_CONSENT, ASPSP_CONSENT_DATA);
+    }
+
+    private void assertFastFailResponse(MessageErrorCode expectedErrorCode, SpiResponse<?> response) {
+        assertEquals(SpiResponseStatus.TECHNICAL_FAILURE, response.getResponseStatus());
+        assertEquals(expectedErrorCode, response.getErrors().get(0).getErrorCode());
+    }
+
+    private void awaitCalls(Callable<Boolean> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (!condition.call() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    @Import({SpiResilienceConfig.class, SpiResilienceRegistry.class, SpiResilienceAspect.class})
+    static class TestConfiguration {
+        @Bean
+        public SlowAccountSpi slowAccountSpi() {
+            return new SlowAccountSpi();
+        }
+
+        @Bean
+        public NeverRespondingFundsConfirmationSpi neverRespondingFundsConfirmationSpi() {
+            return new NeverRespondingFundsConfirmationSpi();
+        }
+    }
+
+    /**
+     * Stub of account SPI: the account list blocks until released, balances fail until made available and the
+     * transaction is returned slowly. State is exposed via public methods only, as the bean is a class-based proxy.
+     */
+    static class SlowAccountSpi implements AccountSpi {
+        private final CountDownLatch accountListLatch = new CountDownLatch(1);
+        private final AtomicInteger accountListCalls = new AtomicInteger();
+        private final AtomicInteger balanceCalls = new AtomicInteger();
+        private volatile boolean balancesAvailable;
+
+        public void releaseAccountList() {
+            accountListLatch.countDown();
+        }
+
+        public int getAccountListCalls() {
+            return accountListCalls.get();
+        }
+
+        public int getBalanceCalls() {
+            return balanceCalls.get();
+        }
+
+        public void makeBalancesAvailable() {
+            balancesAvailable = true;
+        }
+
+        @Override
+        public SpiResponse<List<SpiAccountDetails>> requestAccountList(@NotNull SpiContextData contextData, boolean withBalance, @NotNull SpiAccountConsent accountConsent, @NotNull AspspConsentData aspspConsentData) {
+            accountListCalls.incrementAndGet();
+            try {
+                accountListLatch.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return SpiResponse.<List<SpiAccountDetails>>builder()
+                       .payload(Collections.emptyList())
+                       .success();
+        }
+
+        @Override
+        public SpiResponse<SpiAccountDetails> requestAccountDetailForAccount(@NotNull SpiContextData contextData, boolean withBalance, @NotNull SpiAccountReference accountReference, @NotNull SpiAccountConsent accountConsent, @NotNull AspspConsentData aspspConsentData) {
+            return SpiResponse.<SpiAccountDetails>builder()
+                       .payload(new SpiAccountDetails(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null))
+                       .success();
+        }
+
+        @Override
+        public SpiResponse<SpiTransactionReport> requestTransactionsForAccount(@NotNull SpiContextData contextData, String acceptMediaType, boolean withBalance, @NotNull LocalDate dateFrom, @NotNull LocalDate dateTo, @NotNull BookingStatus bookingStatus, @NotNull SpiAccountReference accountReference, @NotNull SpiAccountConsent accountConsent, @NotNull AspspConsentData aspspConsentData) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public SpiResponse<SpiTransaction> requestTransactionForAccountByTransactionId(@NotNull SpiContextData contextData, @NotNull String transactionId, @NotNull SpiAccountReference accountReference, @NotNull SpiAccountConsent accountConsent, @NotNull AspspConsentData aspspConsentData) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return SpiResponse.<SpiTransaction>builder()
+                       .payload(new SpiTransaction(transactionId, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null))
+                       .success();
+        }
+
+        @Override
+        public SpiResponse<List<SpiAccountBalance>> requestBalancesForAccount(@NotNull SpiContextData contextData, @NotNull SpiAccountReference accountReference, @NotNull SpiAccountConsent accountConsent, @NotNull AspspConsentData aspspConsentData) {
+            balanceCalls.incrementAndGet();
+            if (balancesAvailable) {
+                return SpiResponse.<List<SpiAccountBalance>>builder()
+                           .payload(Collections.emptyList())
+                           .success();
+            }
+            return SpiResponse.<List<SpiAccountBalance>>builder()
+                       .error(new TppMessage(MessageErrorCode.INTERNAL_SERVER_ERROR, "Core banking system is not available"))
+                       .fail(SpiResponseStatus.TECHNICAL_FAILURE);
+        }
+    }
+
+    /**
+     * Stub of asynchronous funds confirmation SPI, that never completes its responses
+     */
+    static class NeverRespondingFundsConfirmationSpi implements AsyncFundsConfirmationSpi {
+        @NotNull
+        @Override
+        public CompletionStage<SpiResponse<SpiFundsConfirmationResponse>> performFundsSufficientCheck(@NotNull SpiContextData contextData, @Nullable PiisConsent piisConsent, @NotNull SpiFundsConfirmationRequest spiFundsConfirmationRequest, @NotNull AspspConsentData aspspConsentData) {
+            return new CompletableFuture<>();
+        }
+    }
+}
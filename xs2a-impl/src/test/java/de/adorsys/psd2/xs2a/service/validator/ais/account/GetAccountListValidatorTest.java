@@ -193,7 +193,7 @@ public class GetAccountListValidatorTest {
         return new AccountConsent("id", xs2aAccountAccess, false, null, 0,
                                   null, null, false, false,
                                   Collections.emptyList(), tppInfo, null, false,
-                                  Collections.emptyList(), null, Collections.emptyMap());
+                                  Collections.emptyList(), null, Collections.emptyMap(), 0L);
     }
 
     private Xs2aAccountAccess buildXs2aAccountAccess() {
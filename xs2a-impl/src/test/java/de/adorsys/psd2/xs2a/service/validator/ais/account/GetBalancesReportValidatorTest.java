@@ -111,6 +111,6 @@ public class GetBalancesReportValidatorTest {
         return new AccountConsent("id", null, false, null, 0,
                                   null, null, false, false,
                                   Collections.emptyList(), tppInfo, null, false,
-                                  Collections.emptyList(), null, Collections.emptyMap());
+                                  Collections.emptyList(), null, Collections.emptyMap(), 0L);
     }
 }
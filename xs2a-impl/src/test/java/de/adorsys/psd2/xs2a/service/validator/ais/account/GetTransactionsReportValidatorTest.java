@@ -300,7 +300,7 @@ public class GetTransactionsReportValidatorTest {
         return new AccountConsent("id", buildXs2aAccountAccess(), false, null, 0,
                                   null, null, false, false,
                                   Collections.emptyList(), tppInfo, null, false,
-                                  Collections.emptyList(), null, Collections.emptyMap());
+                                  Collections.emptyList(), null, Collections.emptyMap(), 0L);
     }
 
     private Xs2aAccountAccess buildXs2aAccountAccess() {
@@ -124,28 +124,28 @@ public class AccountConsentValidatorTest {
         return new AccountConsent("id", null, false, LocalDate.now().plusYears(1), 0,
                                   null, ConsentStatus.VALID, false, false,
                                   Collections.emptyList(), buildTppInfo(), null, false,
-                                  Collections.emptyList(), null, Collections.singletonMap(REQUEST_URI, 10));
+                                  Collections.emptyList(), null, Collections.singletonMap(REQUEST_URI, 10), 0L);
     }
 
     private AccountConsent buildAccountConsentExpired() {
         return new AccountConsent("id", null, false, LocalDate.now().minusDays(1), 0,
                                   null, ConsentStatus.VALID, false, false,
                                   Collections.emptyList(), buildTppInfo(), null, false,
-                                  Collections.emptyList(), null, Collections.singletonMap(REQUEST_URI, 10));
+                                  Collections.emptyList(), null, Collections.singletonMap(REQUEST_URI, 10), 0L);
     }
 
     private AccountConsent buildAccountConsentInvalid() {
         return new AccountConsent("id", null, false, LocalDate.now().plusYears(1), 0,
                                   null, ConsentStatus.RECEIVED, false, false,
                                   Collections.emptyList(), buildTppInfo(), null, false,
-                                  Collections.emptyList(), null, Collections.singletonMap(REQUEST_URI, 10));
+                                  Collections.emptyList(), null, Collections.singletonMap(REQUEST_URI, 10), 0L);
     }
 
     private AccountConsent buildAccountConsentAccessExceeded() {
         return new AccountConsent("id", null, false, LocalDate.now().plusYears(1), 0,
                                   null, ConsentStatus.VALID, false, false,
                                   Collections.emptyList(), buildTppInfo(), null, false,
-                                  Collections.emptyList(), null, Collections.singletonMap(REQUEST_URI, 0));
+                                  Collections.emptyList(), null, Collections.singletonMap(REQUEST_URI, 0), 0L);
     }
 
     private static TppInfo buildTppInfo() {
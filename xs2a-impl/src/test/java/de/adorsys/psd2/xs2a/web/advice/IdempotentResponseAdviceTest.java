@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.xs2a.web.advice;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyKey;
+import de.adorsys.psd2.consent.api.idempotency.IdempotentResponse;
+import de.adorsys.psd2.xs2a.service.idempotency.Xs2aIdempotencyService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static de.adorsys.psd2.xs2a.web.interceptor.idempotency.IdempotencyInterceptor.IDEMPOTENCY_KEY_ATTRIBUTE;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IdempotentResponseAdviceTest {
+    private static final IdempotencyKey IDEMPOTENCY_KEY = new IdempotencyKey("Test TppId", "99391c7e-ad88-49ec-a2ad-99ddcb1f7721", "SHA-256=digest");
+    private static final String RESPONSE_BODY = "{\"consentId\":\"1234\"}";
+
+    @Mock
+    private Xs2aIdempotencyService xs2aIdempotencyService;
+
+    private IdempotentResponseAdvice idempotentResponseAdvice;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Before
+    public void setUp() {
+        idempotentResponseAdvice = new IdempotentResponseAdvice(xs2aIdempotencyService, new ObjectMapper());
+        request = new MockHttpServletRequest("POST", "/v1/consents");
+        request.setAttribute(IDEMPOTENCY_KEY_ATTRIBUTE, IDEMPOTENCY_KEY);
+        response = new MockHttpServletResponse();
+        response.setStatus(201);
+    }
+
+    @Test
+    public void beforeBodyWrite_responseStored_reservationCompleted() {
+        when(xs2aIdempotencyService.complete(eq(IDEMPOTENCY_KEY), any(IdempotentResponse.class))).thenReturn(true);
+
+        Object body = beforeBodyWrite();
+
+        assertEquals(RESPONSE_BODY, body);
+        assertNull(request.getAttribute(IDEMPOTENCY_KEY_ATTRIBUTE));
+    }
+
+    @Test
+    public void beforeBodyWrite_responseNotStored_reservationKeptForRelease() {
+        when(xs2aIdempotencyService.complete(eq(IDEMPOTENCY_KEY), any(IdempotentResponse.class))).thenReturn(false);
+
+        beforeBodyWrite();
+
+        assertEquals(IDEMPOTENCY_KEY, request.getAttribute(IDEMPOTENCY_KEY_ATTRIBUTE));
+    }
+
+    @Test
+    public void beforeBodyWrite_errorResponse_notStored() {
+        response.setStatus(400);
+
+        beforeBodyWrite();
+
+        verify(xs2aIdempotencyService, never()).complete(any(), any());
+        assertEquals(IDEMPOTENCY_KEY, request.getAttribute(IDEMPOTENCY_KEY_ATTRIBUTE));
+    }
+
+    private Object beforeBodyWrite() {
+        return idempotentResponseAdvice.beforeBodyWrite(RESPONSE_BODY, null, MediaType.APPLICATION_JSON, null,
+                                                        new ServletServerHttpRequest(request), new ServletServerHttpResponse(response));
+    }
+}
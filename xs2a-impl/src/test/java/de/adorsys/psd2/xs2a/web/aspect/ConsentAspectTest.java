@@ -83,7 +83,7 @@ public class ConsentAspectTest {
                                                                    .build();
         ResponseObject actualResponse = aspect.invokeCreateAccountConsentAspect(responseObject, new CreateConsentReq(), null, true, null);
 
-        verify(aspspProfileService, times(3)).getAspspSettings();
+        verify(aspspProfileService, times(2)).getAspspSettings();
         verify(createConsentResponse, times(1)).setLinks(any(CreateConsentLinks.class));
 
         assertFalse(actualResponse.hasError());
@@ -112,7 +112,7 @@ public class ConsentAspectTest {
                                                                    .build();
         ResponseObject actualResponse = aspect.invokeCreateConsentPsuDataAspect(responseObject, null, CONSENT_ID, "");
 
-        verify(aspspProfileService, times(2)).getAspspSettings();
+        verify(aspspProfileService, times(1)).getAspspSettings();
         verify(updateConsentPsuDataResponse, times(1)).setLinks(any(UpdateConsentLinks.class));
 
         assertFalse(actualResponse.hasError());
@@ -167,7 +167,7 @@ public class ConsentAspectTest {
                                                                           .build();
         ResponseObject actualResponse = aspect.invokeUpdateConsentPsuDataAspect(responseObject, new UpdateConsentPsuDataReq());
 
-        verify(aspspProfileService, times(2)).getAspspSettings();
+        verify(aspspProfileService, times(1)).getAspspSettings();
         verify(updateConsentPsuDataResponse, times(1)).setLinks(any(UpdateConsentLinks.class));
 
         assertFalse(actualResponse.hasError());
@@ -19,6 +19,7 @@ package de.adorsys.psd2.xs2a.web.aspect;
 import de.adorsys.psd2.xs2a.component.JsonConverter;
 import de.adorsys.psd2.xs2a.domain.ResponseObject;
 import de.adorsys.psd2.xs2a.domain.account.Xs2aTransactionsReport;
+import de.adorsys.psd2.xs2a.service.mapper.TransactionsReportJsonWriter;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -42,6 +43,8 @@ public class TransactionReportAspectTest {
     @Mock
     private JsonConverter jsonConverter;
     @Mock
+    private TransactionsReportJsonWriter transactionsReportJsonWriter;
+    @Mock
     private Xs2aTransactionsReport transactionsReport;
 
     private TransactionReportAspect aspect;
@@ -49,7 +52,7 @@ public class TransactionReportAspectTest {
 
     @Before
     public void setUp() {
-        aspect = new TransactionReportAspect(MAX_NUMBER, jsonConverter);
+        aspect = new TransactionReportAspect(MAX_NUMBER, jsonConverter, transactionsReportJsonWriter);
     }
 
     @Test
@@ -76,6 +79,20 @@ public class TransactionReportAspectTest {
         verify(transactionsReport, times(1)).setTransactionReportHuge(false);
     }
 
+    @Test
+    public void invokeGetTransactionsReportByPeriodAspect_streamedReport_shouldCountWrittenReport() {
+        when(transactionsReport.isStreamed()).thenReturn(true);
+        when(transactionsReportJsonWriter.countCharacters(transactionsReport)).thenReturn((long) HUGE_REPORT.length());
+
+        responseObject = ResponseObject.<Xs2aTransactionsReport>builder()
+                             .body(transactionsReport)
+                             .build();
+        aspect.invokeGetTransactionsReportByPeriodAspect(responseObject);
+
+        verify(transactionsReport, times(1)).setTransactionReportHuge(true);
+        verify(jsonConverter, never()).toJson(any());
+    }
+
     @Test
     public void createPisAuthorizationAspect_withError_shouldAddTextErrorMessage() {
         responseObject = ResponseObject.builder()
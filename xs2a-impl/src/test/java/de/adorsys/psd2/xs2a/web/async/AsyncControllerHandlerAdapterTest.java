@@ -0,0 +1,173 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.async;
+
+import de.adorsys.psd2.model.AccountDetails;
+import de.adorsys.psd2.model.AccountList;
+import de.adorsys.psd2.xs2a.config.AsyncRequestProcessingConfig;
+import de.adorsys.psd2.xs2a.domain.ResponseObject;
+import de.adorsys.psd2.xs2a.domain.account.Xs2aAccountListHolder;
+import de.adorsys.psd2.xs2a.service.AccountService;
+import de.adorsys.psd2.xs2a.service.mapper.AccountModelMapper;
+import de.adorsys.psd2.xs2a.service.mapper.ResponseMapper;
+import de.adorsys.psd2.xs2a.service.mapper.TransactionsReportJsonWriter;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ResponseErrorMapper;
+import de.adorsys.psd2.xs2a.web.controller.AccountController;
+import de.adorsys.psd2.xs2a.web.controller.SigningBasketController;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.web.WebAppConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@RunWith(SpringRunner.class)
+@WebAppConfiguration
+@ContextConfiguration(classes = AsyncControllerHandlerAdapterTest.TestConfiguration.class)
+@TestPropertySource(properties = "xs2a.async-requests.enabled=true")
+public class AsyncControllerHandlerAdapterTest {
+    private static final String CONSENT_ID = "12345";
+    private static final String REQUEST_URI = "/v1/accounts";
+    private static final String RESOURCE_ID = "33333-999999999";
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+    @Autowired
+    private AccountService accountService;
+    @Autowired
+    private AccountModelMapper accountModelMapper;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        reset(accountService, accountModelMapper);
+    }
+
+    @Test
+    public void getAccountList_shouldBeProcessedAsynchronouslyWithBoundRequest() throws Exception {
+        // Given
+        AtomicReference<String> processingThread = new AtomicReference<>();
+        AtomicReference<String> boundRequestUri = new AtomicReference<>();
+        Xs2aAccountListHolder accountListHolder = new Xs2aAccountListHolder(Collections.emptyList(), null);
+        when(accountService.getAccountList(eq(CONSENT_ID), anyBoolean(), any()))
+            .thenAnswer(invocation -> {
+                processingThread.set(Thread.currentThread().getName());
+                HttpServletRequest boundRequest = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+                boundRequestUri.set(boundRequest.getRequestURI());
+                return ResponseObject.<Xs2aAccountListHolder>builder().body(accountListHolder).build();
+            });
+        when(accountModelMapper.mapToAccountList(accountListHolder))
+            .thenReturn(new AccountList().addAccountsItem(new AccountDetails().resourceId(RESOURCE_ID)));
+
+        // When
+        MvcResult mvcResult = mockMvc.perform(get(REQUEST_URI)
+                                                  .header("X-Request-ID", UUID.randomUUID().toString())
+                                                  .header("Consent-ID", CONSENT_ID))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(content().json("{\"accounts\":[{\"resourceId\":\"" + RESOURCE_ID + "\"}]}"));
+        assertTrue(processingThread.get().startsWith("xs2a-async-request-"));
+        assertEquals(REQUEST_URI, boundRequestUri.get());
+        verify(accountService).getAccountList(CONSENT_ID, false, REQUEST_URI);
+    }
+
+    @Test
+    public void supports_asyncControllerWhenEnabled_shouldReturnTrue() throws Exception {
+        AsyncControllerHandlerAdapter handlerAdapter = new AsyncControllerHandlerAdapter(true, 1000, new ConcurrentTaskExecutor());
+
+        assertTrue(handlerAdapter.supports(buildHandlerMethod(AccountController.class)));
+    }
+
+    @Test
+    public void supports_asyncControllerWhenDisabled_shouldReturnFalse() throws Exception {
+        AsyncControllerHandlerAdapter handlerAdapter = new AsyncControllerHandlerAdapter(false, 1000, new ConcurrentTaskExecutor());
+
+        assertFalse(handlerAdapter.supports(buildHandlerMethod(AccountController.class)));
+    }
+
+    @Test
+    public void supports_otherController_shouldReturnFalse() throws Exception {
+        AsyncControllerHandlerAdapter handlerAdapter = new AsyncControllerHandlerAdapter(true, 1000, new ConcurrentTaskExecutor());
+
+        assertFalse(handlerAdapter.supports(buildHandlerMethod(SigningBasketController.class)));
+    }
+
+    private HandlerMethod buildHandlerMethod(Class<?> controllerType) throws NoSuchMethodException {
+        return new HandlerMethod(controllerType.getSimpleName(), mock(org.springframework.beans.factory.BeanFactory.class, invocation -> {
+            if ("getType".equals(invocation.getMethod().getName())) {
+                return controllerType;
+            }
+            return Mockito.RETURNS_DEFAULTS.answer(invocation);
+        }), Object.class.getMethod("toString"));
+    }
+
+    @Configuration
+    @EnableWebMvc
+    @Import(AsyncRequestProcessingConfig.class)
+    static class TestConfiguration {
+        @Bean
+        public AccountService accountService() {
+            return mock(AccountService.class);
+        }
+
+        @Bean
+        public AccountModelMapper accountModelMapper() {
+            return mock(AccountModelMapper.class);
+        }
+
+        @Bean
+        public AccountController accountController(HttpServletRequest request, AccountService accountService,
+                                                   AccountModelMapper accountModelMapper) {
+            return new AccountController(request, accountService, new ResponseMapper(), accountModelMapper,
+                                         mock(ResponseErrorMapper.class), mock(TransactionsReportJsonWriter.class));
+        }
+    }
+}
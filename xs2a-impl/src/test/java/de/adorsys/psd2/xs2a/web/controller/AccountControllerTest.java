@@ -33,12 +33,14 @@ import de.adorsys.psd2.xs2a.exception.MessageError;
 import de.adorsys.psd2.xs2a.service.AccountService;
 import de.adorsys.psd2.xs2a.service.mapper.AccountModelMapper;
 import de.adorsys.psd2.xs2a.service.mapper.ResponseMapper;
+import de.adorsys.psd2.xs2a.service.mapper.TransactionsReportJsonWriter;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorType;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ResponseErrorMapper;
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -53,6 +55,7 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.Currency;
 import java.util.List;
+import java.util.function.Function;
 
 import static de.adorsys.psd2.xs2a.domain.TppMessageInformation.of;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -88,6 +91,8 @@ public class AccountControllerTest {
     private HttpServletRequest request;
     @Mock
     private ResponseErrorMapper responseErrorMapper;
+    @Mock
+    private TransactionsReportJsonWriter transactionsReportJsonWriter;
 
     @Before
     public void setUp() {
@@ -294,6 +299,32 @@ public class AccountControllerTest {
         assertThat(result).isEqualTo(expectedResult);
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void getTransactionList_streamedReport_shouldBeWrittenByJsonWriter() {
+        // Given
+        Xs2aTransactionsReport transactionsReport = new Xs2aTransactionsReport();
+        transactionsReport.setAccountReport(new Xs2aAccountReport(Collections.emptyList(), Collections.emptyList(), null));
+        transactionsReport.setResponseContentType("application/json");
+        transactionsReport.setSpiTransactions(Collections.emptyList());
+        doReturn(ResponseObject.<Xs2aTransactionsReport>builder().body(transactionsReport).build())
+            .when(accountService).getTransactionsReportByPeriod(any(Xs2aTransactionsReportByPeriodRequest.class));
+        ArgumentCaptor<Function> mapperCaptor = ArgumentCaptor.forClass(Function.class);
+
+        // When
+        accountController.getTransactionList(ACCOUNT_ID, "pending",
+                                             null, CONSENT_ID, null, null, "both", false,
+                                             false, null, null, null, null, null,
+                                             null, null, null, null, null,
+                                             null, null, null);
+
+        // Then
+        verify(responseMapper).ok(any(), mapperCaptor.capture());
+        mapperCaptor.getValue().apply(transactionsReport);
+        verify(transactionsReportJsonWriter).mapToTransactionsResponseJson(transactionsReport);
+        verify(accountModelMapper, never()).mapToTransactionsResponse200Json(any());
+    }
+
     @Test
     public void getTransactionDetails_success() throws IOException {
         doReturn(new ResponseEntity<>(createAccountReport(ACCOUNT_REPORT_SOURCE).getBody(), HttpStatus.OK))
@@ -21,6 +21,7 @@ import de.adorsys.psd2.xs2a.core.ais.AccountAccessType;
 import de.adorsys.psd2.xs2a.core.consent.AisConsentRequestType;
 import de.adorsys.psd2.xs2a.core.consent.ConsentStatus;
 import de.adorsys.psd2.xs2a.core.error.MessageErrorCode;
+import de.adorsys.psd2.xs2a.core.event.EventType;
 import de.adorsys.psd2.xs2a.core.profile.ScaApproach;
 import de.adorsys.psd2.xs2a.core.psu.PsuIdData;
 import de.adorsys.psd2.xs2a.core.sca.ScaStatus;
@@ -29,6 +30,7 @@ import de.adorsys.psd2.xs2a.domain.authorisation.AuthorisationResponse;
 import de.adorsys.psd2.xs2a.domain.consent.*;
 import de.adorsys.psd2.xs2a.exception.MessageError;
 import de.adorsys.psd2.xs2a.service.ConsentService;
+import de.adorsys.psd2.xs2a.service.RequestProviderService;
 import de.adorsys.psd2.xs2a.service.mapper.ResponseMapper;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorType;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ResponseErrorMapper;
@@ -50,6 +52,7 @@ import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.Collections;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -75,6 +78,8 @@ public class ConsentControllerTest {
     private static final MessageError MESSAGE_ERROR_AIS_400 = new MessageError(ErrorType.AIS_400, of(MessageErrorCode.CONSENT_UNKNOWN_400));
     private static final MessageError MESSAGE_ERROR_AIS_403 = new MessageError(ErrorType.AIS_403, of(MessageErrorCode.RESOURCE_UNKNOWN_403));
     private static final MessageError MESSAGE_ERROR_AIS_404 = new MessageError(ErrorType.AIS_404, of(MessageErrorCode.RESOURCE_UNKNOWN_404));
+    private static final String ETAG = "\"3-EXPIRED\"";
+    private static final String NOT_FINALISED_ETAG = "\"0-RECEIVED\"";
     private static final ResponseHeaders RESPONSE_HEADERS = ResponseHeaders.builder().aspspScaApproach(ScaApproach.REDIRECT).build();
 
     @InjectMocks
@@ -93,13 +98,15 @@ public class ConsentControllerTest {
     private ResponseErrorMapper responseErrorMapper;
     @Mock
     private ConsentHeadersBuilder consentHeadersBuilder;
+    @Mock
+    private RequestProviderService requestProviderService;
 
     @Before
     public void setUp() {
         when(consentModelMapper.mapToCreateConsentReq(any())).thenReturn(getCreateConsentReq());
         when(consentService.createAccountConsentsWithResponse(any(), eq(PSU_ID_DATA), eq(EXPLICIT_PREFERRED), any())).thenReturn(createXs2aConsentResponse(CONSENT_ID));
         when(consentService.createAccountConsentsWithResponse(any(), eq(PSU_ID_DATA_WRONG), eq(EXPLICIT_PREFERRED), any())).thenReturn(createXs2aConsentResponse(null));
-        when(consentService.getAccountConsentsStatusById(eq(CONSENT_ID))).thenReturn(ResponseObject.<ConsentStatusResponse>builder().body(new ConsentStatusResponse(ConsentStatus.RECEIVED)).build());
+        when(consentService.getAccountConsentsStatusById(eq(CONSENT_ID))).thenReturn(ResponseObject.<ConsentStatusResponse>builder().body(new ConsentStatusResponse(ConsentStatus.RECEIVED, 0)).build());
         when(consentService.getAccountConsentsStatusById(eq(WRONG_CONSENT_ID))).thenReturn(ResponseObject.<ConsentStatusResponse>builder().fail(MESSAGE_ERROR_AIS_404).build());
         when(consentService.getAccountConsentById(eq(CONSENT_ID))).thenReturn(getConsent(CONSENT_ID));
         when(consentService.getAccountConsentById(eq(WRONG_CONSENT_ID))).thenReturn(getConsent(WRONG_CONSENT_ID));
@@ -153,7 +160,7 @@ public class ConsentControllerTest {
 
     @Test
     public void getAccountConsentsStatusById_Success() {
-        doReturn(new ResponseEntity<>(ConsentStatus.RECEIVED, HttpStatus.OK)).when(responseMapper).ok(any(), any());
+        doReturn(new ResponseEntity<>(ConsentStatus.RECEIVED, HttpStatus.OK)).when(responseMapper).ok(any(), any(), any());
         //When:
         ResponseEntity responseEntity = consentController.getConsentStatus(CONSENT_ID, null,
                                                                            null, null, null, null, null, null,
@@ -175,6 +182,122 @@ public class ConsentControllerTest {
         assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    @Test
+    public void getAccountConsentsStatusById_notModified_shouldNotReadConsent() {
+        // Given
+        ResponseHeaders responseHeaders = ResponseHeaders.builder().eTag(ETAG).build();
+        when(requestProviderService.hasIfNoneMatch()).thenReturn(true);
+        when(consentService.getFinalisedConsentETag(CONSENT_ID)).thenReturn(Optional.of(ETAG));
+        when(requestProviderService.matchesIfNoneMatch(ETAG)).thenReturn(true);
+        when(consentHeadersBuilder.buildConsentETagHeaders(ETAG)).thenReturn(responseHeaders);
+        when(responseMapper.notModified(responseHeaders)).thenReturn(new ResponseEntity(HttpStatus.NOT_MODIFIED));
+
+        // When
+        ResponseEntity responseEntity = consentController.getConsentStatus(CONSENT_ID, null,
+                                                                           null, null, null, null, null, null,
+                                                                           null, null, null, null, null,
+                                                                           null, null);
+
+        // Then
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        verify(consentService).recordNotModifiedConsentRequest(CONSENT_ID, EventType.GET_AIS_CONSENT_STATUS_REQUEST_RECEIVED);
+        verify(consentService, never()).getAccountConsentsStatusById(any());
+    }
+
+    @Test
+    public void getAccountConsentsStatusById_modifiedFinalisedConsent_shouldReturnETag() {
+        // Given
+        ResponseHeaders responseHeaders = ResponseHeaders.builder().eTag(ETAG).build();
+        when(requestProviderService.hasIfNoneMatch()).thenReturn(true);
+        when(consentService.getFinalisedConsentETag(CONSENT_ID)).thenReturn(Optional.of(ETAG));
+        when(requestProviderService.matchesIfNoneMatch(ETAG)).thenReturn(false);
+        when(consentService.getAccountConsentsStatusById(CONSENT_ID))
+            .thenReturn(ResponseObject.<ConsentStatusResponse>builder().body(new ConsentStatusResponse(ConsentStatus.EXPIRED, 3)).build());
+        when(consentService.buildConsentETag(3, ConsentStatus.EXPIRED)).thenReturn(ETAG);
+        when(consentHeadersBuilder.buildConsentETagHeaders(ETAG)).thenReturn(responseHeaders);
+        doReturn(new ResponseEntity<>(ConsentStatus.EXPIRED, responseHeaders.getHttpHeaders(), HttpStatus.OK))
+            .when(responseMapper).ok(any(), any(), eq(responseHeaders));
+
+        // When
+        ResponseEntity responseEntity = consentController.getConsentStatus(CONSENT_ID, null,
+                                                                           null, null, null, null, null, null,
+                                                                           null, null, null, null, null,
+                                                                           null, null);
+
+        // Then
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getHeaders().getETag()).isEqualTo(ETAG);
+        verify(consentService).getFinalisedConsentETag(CONSENT_ID);
+        verify(consentService, never()).recordNotModifiedConsentRequest(any(), any());
+    }
+
+    @Test
+    public void getAccountConsentsStatusById_unconditionalFinalisedConsent_shouldReturnETag() {
+        // Given
+        ResponseHeaders responseHeaders = ResponseHeaders.builder().eTag(ETAG).build();
+        when(consentService.getAccountConsentsStatusById(CONSENT_ID))
+            .thenReturn(ResponseObject.<ConsentStatusResponse>builder().body(new ConsentStatusResponse(ConsentStatus.EXPIRED, 3)).build());
+        when(consentService.buildConsentETag(3, ConsentStatus.EXPIRED)).thenReturn(ETAG);
+        when(consentHeadersBuilder.buildConsentETagHeaders(ETAG)).thenReturn(responseHeaders);
+        doReturn(new ResponseEntity<>(ConsentStatus.EXPIRED, responseHeaders.getHttpHeaders(), HttpStatus.OK))
+            .when(responseMapper).ok(any(), any(), eq(responseHeaders));
+
+        // When
+        ResponseEntity responseEntity = consentController.getConsentStatus(CONSENT_ID, null,
+                                                                           null, null, null, null, null, null,
+                                                                           null, null, null, null, null,
+                                                                           null, null);
+
+        // Then
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getHeaders().getETag()).isEqualTo(ETAG);
+        verify(consentService, never()).getFinalisedConsentETag(any());
+    }
+
+    @Test
+    public void getAccountConsentsStatusById_unconditionalNotFinalisedConsent_shouldReturnETag() {
+        // Given
+        ResponseHeaders responseHeaders = ResponseHeaders.builder().eTag(NOT_FINALISED_ETAG).build();
+        when(consentService.buildConsentETag(0, ConsentStatus.RECEIVED)).thenReturn(NOT_FINALISED_ETAG);
+        when(consentHeadersBuilder.buildConsentETagHeaders(NOT_FINALISED_ETAG)).thenReturn(responseHeaders);
+        doReturn(new ResponseEntity<>(ConsentStatus.RECEIVED, responseHeaders.getHttpHeaders(), HttpStatus.OK))
+            .when(responseMapper).ok(any(), any(), eq(responseHeaders));
+
+        // When
+        ResponseEntity responseEntity = consentController.getConsentStatus(CONSENT_ID, null,
+                                                                           null, null, null, null, null, null,
+                                                                           null, null, null, null, null,
+                                                                           null, null);
+
+        // Then
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getHeaders().getETag()).isEqualTo(NOT_FINALISED_ETAG);
+        verify(consentService, never()).getFinalisedConsentETag(any());
+    }
+
+    @Test
+    public void getAccountConsentsStatusById_notModifiedNotFinalisedConsent_shouldReturnNotModifiedAfterRead() {
+        // Given
+        ResponseHeaders responseHeaders = ResponseHeaders.builder().eTag(NOT_FINALISED_ETAG).build();
+        when(requestProviderService.hasIfNoneMatch()).thenReturn(true);
+        when(consentService.getFinalisedConsentETag(CONSENT_ID)).thenReturn(Optional.empty());
+        when(consentService.buildConsentETag(0, ConsentStatus.RECEIVED)).thenReturn(NOT_FINALISED_ETAG);
+        when(requestProviderService.matchesIfNoneMatch(NOT_FINALISED_ETAG)).thenReturn(true);
+        when(consentHeadersBuilder.buildConsentETagHeaders(NOT_FINALISED_ETAG)).thenReturn(responseHeaders);
+        when(responseMapper.notModified(responseHeaders)).thenReturn(new ResponseEntity(HttpStatus.NOT_MODIFIED));
+
+        // When
+        ResponseEntity responseEntity = consentController.getConsentStatus(CONSENT_ID, null,
+                                                                           null, null, null, null, null, null,
+                                                                           null, null, null, null, null,
+                                                                           null, null);
+
+        // Then
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        verify(consentService).getAccountConsentsStatusById(CONSENT_ID);
+        verify(consentService, never()).recordNotModifiedConsentRequest(any(), any());
+    }
+
     @Test
     public void startConsentAuthorisation_Success() {
         // Given
@@ -230,7 +353,7 @@ public class ConsentControllerTest {
     @Test
     public void getAccountConsentsInformationById_Success() {
         doReturn(new ResponseEntity<>(getConsentInformationResponse(CONSENT_ID).getBody(), HttpStatus.OK))
-            .when(responseMapper).ok(any(), any());
+            .when(responseMapper).ok(any(), any(), any());
         //When:
         ResponseEntity responseEntity = consentController.getConsentInformation(CONSENT_ID, null,
                                                                                 null, null, null, null, null, null,
@@ -241,6 +364,50 @@ public class ConsentControllerTest {
         assertThat(responseEntity.getBody()).isExactlyInstanceOf(ConsentInformationResponse200Json.class);
     }
 
+    @Test
+    public void getAccountConsentsInformationById_notModified_shouldNotReadConsent() {
+        // Given
+        ResponseHeaders responseHeaders = ResponseHeaders.builder().eTag(ETAG).build();
+        when(requestProviderService.hasIfNoneMatch()).thenReturn(true);
+        when(consentService.getFinalisedConsentETag(CONSENT_ID)).thenReturn(Optional.of(ETAG));
+        when(requestProviderService.matchesIfNoneMatch(ETAG)).thenReturn(true);
+        when(consentHeadersBuilder.buildConsentETagHeaders(ETAG)).thenReturn(responseHeaders);
+        when(responseMapper.notModified(responseHeaders)).thenReturn(new ResponseEntity(HttpStatus.NOT_MODIFIED));
+
+        // When
+        ResponseEntity responseEntity = consentController.getConsentInformation(CONSENT_ID, null,
+                                                                                null, null, null, null, null, null,
+                                                                                null, null, null, null, null,
+                                                                                null, null);
+
+        // Then
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        verify(consentService).recordNotModifiedConsentRequest(CONSENT_ID, EventType.GET_AIS_CONSENT_REQUEST_RECEIVED);
+        verify(consentService, never()).getAccountConsentById(any());
+    }
+
+    @Test
+    public void getAccountConsentsInformationById_unconditionalNotFinalisedConsent_shouldReturnETag() {
+        // Given
+        String eTag = "\"0-VALID\"";
+        ResponseHeaders responseHeaders = ResponseHeaders.builder().eTag(eTag).build();
+        when(consentService.buildConsentETag(0, ConsentStatus.VALID)).thenReturn(eTag);
+        when(consentHeadersBuilder.buildConsentETagHeaders(eTag)).thenReturn(responseHeaders);
+        doReturn(new ResponseEntity<>(getConsentInformationResponse(CONSENT_ID).getBody(), responseHeaders.getHttpHeaders(), HttpStatus.OK))
+            .when(responseMapper).ok(any(), any(), eq(responseHeaders));
+
+        // When
+        ResponseEntity responseEntity = consentController.getConsentInformation(CONSENT_ID, null,
+                                                                                null, null, null, null, null, null,
+                                                                                null, null, null, null, null,
+                                                                                null, null);
+
+        // Then
+        assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(responseEntity.getHeaders().getETag()).isEqualTo(eTag);
+        verify(consentService, never()).getFinalisedConsentETag(any());
+    }
+
     @Test
     public void getAccountConsentsInformationById_Failure() {
         //When:
@@ -340,7 +507,7 @@ public class ConsentControllerTest {
     private ResponseObject<AccountConsent> getConsent(String consentId) {
         AccountConsent accountConsent = consentId.equals(WRONG_CONSENT_ID)
                                             ? null
-                                            : new AccountConsent(consentId, new Xs2aAccountAccess(null, null, null, null, null), false, LocalDate.now(), 4, LocalDate.now(), ConsentStatus.VALID, false, false, null, null, AisConsentRequestType.GLOBAL, false, Collections.emptyList(), OffsetDateTime.now(), Collections.emptyMap());
+                                            : new AccountConsent(consentId, new Xs2aAccountAccess(null, null, null, null, null), false, LocalDate.now(), 4, LocalDate.now(), ConsentStatus.VALID, false, false, null, null, AisConsentRequestType.GLOBAL, false, Collections.emptyList(), OffsetDateTime.now(), Collections.emptyMap(), 0L);
         return isEmpty(accountConsent)
                    ? ResponseObject.<AccountConsent>builder().fail(MESSAGE_ERROR_AIS_404).build()
                    : ResponseObject.<AccountConsent>builder().body(accountConsent).build();
@@ -35,6 +35,7 @@ public class ConsentHeadersBuilderTest {
     private static final ScaApproach SCA_APPROACH = ScaApproach.REDIRECT;
     private static final String ASPSP_SCA_APPROACH_HEADER = "Aspsp-Sca-Approach";
     private static final String LOCATION_HEADER = "Location";
+    private static final String ETAG = "\"3-EXPIRED\"";
 
     @Mock
     private ScaApproachResolver scaApproachResolver;
@@ -171,4 +172,17 @@ public class ConsentHeadersBuilderTest {
         HttpHeaders actualHttpHeaders = responseHeaders.getHttpHeaders();
         assertEquals(expectedHttpHeaders, actualHttpHeaders);
     }
+
+    @Test
+    public void buildConsentETagHeaders_shouldReturnETag() {
+        // Given
+        HttpHeaders expectedHttpHeaders = new HttpHeaders();
+        expectedHttpHeaders.setETag(ETAG);
+
+        // When
+        ResponseHeaders responseHeaders = consentHeadersBuilder.buildConsentETagHeaders(ETAG);
+
+        // Then
+        assertEquals(expectedHttpHeaders, responseHeaders.getHttpHeaders());
+    }
 }
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.interceptor;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.DispatcherType;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class InitialDispatchInterceptorTest {
+    private static final Object HANDLER = new Object();
+
+    @Mock
+    private AsyncHandlerInterceptor delegate;
+
+    private InitialDispatchInterceptor initialDispatchInterceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Before
+    public void setUp() {
+        initialDispatchInterceptor = new InitialDispatchInterceptor(delegate);
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void preHandle_initialDispatch_shouldDelegate() throws Exception {
+        // Given
+        request.setDispatcherType(DispatcherType.REQUEST);
+        when(delegate.preHandle(request, response, HANDLER)).thenReturn(false);
+
+        // When
+        boolean actual = initialDispatchInterceptor.preHandle(request, response, HANDLER);
+
+        // Then
+        assertFalse(actual);
+        verify(delegate).preHandle(request, response, HANDLER);
+    }
+
+    @Test
+    public void preHandle_asyncDispatch_shouldSkipDelegate() throws Exception {
+        // Given
+        request.setDispatcherType(DispatcherType.ASYNC);
+
+        // When
+        boolean actual = initialDispatchInterceptor.preHandle(request, response, HANDLER);
+
+        // Then
+        assertTrue(actual);
+        verify(delegate, never()).preHandle(any(), any(), any());
+    }
+
+    @Test
+    public void afterCompletion_asyncDispatch_shouldDelegate() throws Exception {
+        // Given
+        request.setDispatcherType(DispatcherType.ASYNC);
+
+        // When
+        initialDispatchInterceptor.afterCompletion(request, response, HANDLER, null);
+
+        // Then
+        verify(delegate).afterCompletion(request, response, HANDLER, null);
+    }
+
+    @Test
+    public void afterConcurrentHandlingStarted_shouldDelegate() throws Exception {
+        // When
+        initialDispatchInterceptor.afterConcurrentHandlingStarted(request, response, HANDLER);
+
+        // Then
+        verify(delegate).afterConcurrentHandlingStarted(request, response, HANDLER);
+    }
+}
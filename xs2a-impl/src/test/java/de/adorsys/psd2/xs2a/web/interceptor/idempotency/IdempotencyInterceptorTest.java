@@ -0,0 +1,148 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.interceptor.idempotency;
+
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyKey;
+import de.adorsys.psd2.consent.api.idempotency.IdempotencyReservation;
+import de.adorsys.psd2.consent.api.idempotency.IdempotentResponse;
+import de.adorsys.psd2.xs2a.service.TppService;
+import de.adorsys.psd2.xs2a.service.discovery.ServiceTypeDiscoveryService;
+import de.adorsys.psd2.xs2a.service.idempotency.Xs2aIdempotencyService;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorType;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceType;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceTypeToErrorTypeMapper;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.StaticErrorResponseWriter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collections;
+
+import static de.adorsys.psd2.xs2a.core.error.MessageErrorCode.SERVICE_UNAVAILABLE;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class IdempotencyInterceptorTest {
+    private static final String TPP_ID = "Test TppId";
+    private static final String X_REQUEST_ID = "99391c7e-ad88-49ec-a2ad-99ddcb1f7721";
+    private static final byte[] REQUEST_BODY = "{\"access\":{}}".getBytes();
+    private static final IdempotencyKey IDEMPOTENCY_KEY = new IdempotencyKey(TPP_ID, X_REQUEST_ID, "SHA-256=digest");
+    private static final String LOCATION = "http://localhost/v1/consents/1234";
+    private static final byte[] RESPONSE_BODY = "{\"consentId\":\"1234\"}".getBytes();
+
+    @InjectMocks
+    private IdempotencyInterceptor idempotencyInterceptor;
+
+    @Mock
+    private Xs2aIdempotencyService xs2aIdempotencyService;
+    @Mock
+    private TppService tppService;
+    @Mock
+    private StaticErrorResponseWriter staticErrorResponseWriter;
+    @Mock
+    private ServiceTypeDiscoveryService serviceTypeDiscoveryService;
+    @Mock
+    private ServiceTypeToErrorTypeMapper errorTypeMapper;
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Before
+    public void setUp() {
+        request = new MockHttpServletRequest("POST", "/v1/consents");
+        request.addHeader("X-Request-ID", X_REQUEST_ID);
+        request.setContent(REQUEST_BODY);
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void preHandle_newRequest_reservedAndProcessed() throws Exception {
+        when(tppService.getTppId()).thenReturn(TPP_ID);
+        when(xs2aIdempotencyService.buildKey(TPP_ID, X_REQUEST_ID, REQUEST_BODY)).thenReturn(IDEMPOTENCY_KEY);
+        when(xs2aIdempotencyService.reserve(IDEMPOTENCY_KEY)).thenReturn(IdempotencyReservation.reserved());
+
+        boolean proceed = idempotencyInterceptor.preHandle(request, response, null);
+
+        assertTrue(proceed);
+        assertEquals(IDEMPOTENCY_KEY, request.getAttribute(IdempotencyInterceptor.IDEMPOTENCY_KEY_ATTRIBUTE));
+    }
+
+    @Test
+    public void preHandle_completedRequest_responseReplayed() throws Exception {
+        IdempotentResponse storedResponse = new IdempotentResponse(201, Collections.singletonMap("Location", LOCATION), RESPONSE_BODY);
+        when(tppService.getTppId()).thenReturn(TPP_ID);
+        when(xs2aIdempotencyService.buildKey(TPP_ID, X_REQUEST_ID, REQUEST_BODY)).thenReturn(IDEMPOTENCY_KEY);
+        when(xs2aIdempotencyService.reserve(IDEMPOTENCY_KEY)).thenReturn(IdempotencyReservation.completed(storedResponse));
+
+        boolean proceed = idempotencyInterceptor.preHandle(request, response, null);
+
+        assertFalse(proceed);
+        assertEquals(201, response.getStatus());
+        assertEquals(LOCATION, response.getHeader("Location"));
+        assertEquals(X_REQUEST_ID, response.getHeader("X-Request-ID"));
+        assertArrayEquals(RESPONSE_BODY, response.getContentAsByteArray());
+        assertNull(request.getAttribute(IdempotencyInterceptor.IDEMPOTENCY_KEY_ATTRIBUTE));
+    }
+
+    @Test
+    public void preHandle_requestStillInProgress_serviceUnavailable() throws Exception {
+        when(tppService.getTppId()).thenReturn(TPP_ID);
+        when(xs2aIdempotencyService.buildKey(TPP_ID, X_REQUEST_ID, REQUEST_BODY)).thenReturn(IDEMPOTENCY_KEY);
+        when(xs2aIdempotencyService.reserve(IDEMPOTENCY_KEY)).thenReturn(IdempotencyReservation.inProgress());
+        when(serviceTypeDiscoveryService.getServiceType()).thenReturn(ServiceType.AIS);
+        when(errorTypeMapper.mapToErrorType(ServiceType.AIS, SERVICE_UNAVAILABLE.getCode())).thenReturn(ErrorType.AIS_503);
+
+        boolean proceed = idempotencyInterceptor.preHandle(request, response, null);
+
+        assertFalse(proceed);
+        verify(staticErrorResponseWriter).writeErrorResponse(response, ErrorType.AIS_503, SERVICE_UNAVAILABLE);
+    }
+
+    @Test
+    public void preHandle_withoutXRequestId_notReserved() throws Exception {
+        request.removeHeader("X-Request-ID");
+
+        boolean proceed = idempotencyInterceptor.preHandle(request, response, null);
+
+        assertTrue(proceed);
+        verify(xs2aIdempotencyService, never()).reserve(any(IdempotencyKey.class));
+    }
+
+    @Test
+    public void afterCompletion_notCompletedRequest_released() {
+        request.setAttribute(IdempotencyInterceptor.IDEMPOTENCY_KEY_ATTRIBUTE, IDEMPOTENCY_KEY);
+
+        idempotencyInterceptor.afterCompletion(request, response, null, null);
+
+        verify(xs2aIdempotencyService).release(IDEMPOTENCY_KEY);
+        assertNull(request.getAttribute(IdempotencyInterceptor.IDEMPOTENCY_KEY_ATTRIBUTE));
+    }
+
+    @Test
+    public void afterCompletion_completedRequest_notReleased() {
+        idempotencyInterceptor.afterCompletion(request, response, null, null);
+
+        verify(xs2aIdempotencyService, never()).release(any(IdempotencyKey.class));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.interceptor.logging;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares formatting of access log entries by {@link AccessLogger} with the former per-endpoint logging interceptors,
+ * that collected the fields into a map and joined them with a stream. Only the formatting is measured, writing by
+ * the appender happens asynchronously. Not a part of the test suite, run manually with {@link #main(String[])}, e.g.
+ * with {@code -prof gc} to see the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccessLogBenchmark {
+    private static final String TPP_ID = "12345987";
+    private static final String PAYMENT_ID = "1111111111111";
+
+    private final AccessLogger keyValueLogger = new AccessLogger(AccessLogFormat.KEY_VALUE, new String[0]);
+    private final AccessLogger jsonLogger = new AccessLogger(AccessLogFormat.JSON, new String[0]);
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/v1/payments/sepa-credit-transfers/" + PAYMENT_ID);
+        request.setRemoteAddr("1.1.1.1");
+        request.addHeader("X-Request-ID", "99391c7e-ad88-49ec-a2ad-99ddcb1f7721");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Collections.singletonMap("paymentId", PAYMENT_ID));
+
+        response = new MockHttpServletResponse();
+        response.setStatus(200);
+        response.setHeader("X-Request-ID", "99391c7e-ad88-49ec-a2ad-99ddcb1f7721");
+    }
+
+    @Benchmark
+    public String joinedMap() {
+        Map<String, String> pathVariables = (Map) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        Map<String, String> requestParams = new LinkedHashMap<>();
+        requestParams.put("TPP ID", TPP_ID);
+        requestParams.put("TPP IP", request.getRemoteAddr());
+        requestParams.put("X-Request-ID", request.getHeader("X-Request-ID"));
+        requestParams.put("URI", request.getRequestURI());
+        requestParams.put("Payment ID", pathVariables.getOrDefault("paymentId", "Not exist in URI"));
+        String requestEntry = "REQUEST" + " - " + join(requestParams);
+
+        Map<String, String> responseParams = new LinkedHashMap<>();
+        responseParams.put("TPP ID", TPP_ID);
+        responseParams.put("X-Request-ID", response.getHeader("X-Request-ID"));
+        responseParams.put("Status", String.valueOf(response.getStatus()));
+        String responseEntry = "RESPONSE" + " - " + join(responseParams);
+
+        return requestEntry + responseEntry;
+    }
+
+    @Benchmark
+    public String accessLoggerKeyValue() {
+        return keyValueLogger.formatRequest(request, TPP_ID) + keyValueLogger.formatResponse(response, TPP_ID, 42);
+    }
+
+    @Benchmark
+    public String accessLoggerJson() {
+        return jsonLogger.formatRequest(request, TPP_ID) + jsonLogger.formatResponse(response, TPP_ID, 42);
+    }
+
+    private static String join(Map<String, String> params) {
+        return params.entrySet()
+                   .stream()
+                   .map(e -> e.getKey() + ": [" + e.getValue() + "]")
+                   .collect(Collectors.joining(", "));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                       .include(AccessLogBenchmark.class.getSimpleName())
+                       .build())
+            .run();
+    }
+}
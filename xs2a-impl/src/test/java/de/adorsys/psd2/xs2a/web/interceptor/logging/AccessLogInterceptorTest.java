@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.interceptor.logging;
+
+import de.adorsys.psd2.xs2a.service.TppService;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AccessLogInterceptorTest {
+    private static final String TPP_ID = "111";
+
+    @InjectMocks
+    private AccessLogInterceptor interceptor;
+    @Mock
+    private TppService tppService;
+    @Mock
+    private AccessLogger accessLogger;
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Before
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/v1/accounts");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void preHandleAndAfterCompletion_tppIdResolvedOnce() {
+        when(accessLogger.isEnabled()).thenReturn(true);
+        when(tppService.getTppId()).thenReturn(TPP_ID);
+
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        verify(tppService, times(1)).getTppId();
+        verify(accessLogger).logRequest(request, TPP_ID);
+        verify(accessLogger).logResponse(eq(response), eq(TPP_ID), anyLong());
+    }
+
+    @Test
+    public void preHandleAndAfterCompletion_loggerDisabled_nothingLogged() {
+        when(accessLogger.isEnabled()).thenReturn(false);
+
+        interceptor.preHandle(request, response, null);
+        interceptor.afterCompletion(request, response, null, null);
+
+        verify(tppService, never()).getTppId();
+        verify(accessLogger, never()).logRequest(any(), any());
+        verify(accessLogger, never()).logResponse(any(), any(), anyLong());
+    }
+}
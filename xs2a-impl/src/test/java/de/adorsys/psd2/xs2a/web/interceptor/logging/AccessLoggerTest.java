@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.interceptor.logging;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class AccessLoggerTest {
+    private static final String TPP_ID = "12345987";
+    private static final String X_REQUEST_ID = "99391c7e-ad88-49ec-a2ad-99ddcb1f7721";
+    private static final String PAYMENT_ID = "1111111111111";
+    private static final String[] ALL_FIELDS = new String[0];
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Before
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/v1/payments/sepa-credit-transfers/" + PAYMENT_ID);
+        request.setRemoteAddr("1.1.1.1");
+        request.addHeader("X-Request-ID", X_REQUEST_ID);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Collections.singletonMap("paymentId", PAYMENT_ID));
+
+        response = new MockHttpServletResponse();
+        response.setStatus(200);
+        response.setHeader("X-Request-ID", X_REQUEST_ID);
+    }
+
+    @Test
+    public void formatRequest_keyValue_allFields() {
+        AccessLogger accessLogger = new AccessLogger(AccessLogFormat.KEY_VALUE, ALL_FIELDS);
+
+        String entry = accessLogger.formatRequest(request, TPP_ID);
+
+        assertEquals("REQUEST - TPP ID: [12345987], TPP IP: [1.1.1.1], X-Request-ID: [99391c7e-ad88-49ec-a2ad-99ddcb1f7721], " +
+                         "URI: [/v1/payments/sepa-credit-transfers/1111111111111], Payment ID: [1111111111111]", entry);
+    }
+
+    @Test
+    public void formatResponse_keyValue_allFields() {
+        AccessLogger accessLogger = new AccessLogger(AccessLogFormat.KEY_VALUE, ALL_FIELDS);
+
+        String entry = accessLogger.formatResponse(response, TPP_ID, 42);
+
+        assertEquals("RESPONSE - TPP ID: [12345987], X-Request-ID: [99391c7e-ad88-49ec-a2ad-99ddcb1f7721], Status: [200], Duration ms: [42]", entry);
+    }
+
+    @Test
+    public void formatRequest_json_selectedFields() {
+        AccessLogger accessLogger = new AccessLogger(AccessLogFormat.JSON, new String[]{"x-request-id", "payment-id", "status"});
+
+        String entry = accessLogger.formatRequest(request, TPP_ID);
+
+        assertEquals("{\"type\":\"REQUEST\",\"xRequestId\":\"99391c7e-ad88-49ec-a2ad-99ddcb1f7721\",\"paymentId\":\"1111111111111\"}", entry);
+    }
+
+    @Test
+    public void formatResponse_json_numericFields() {
+        AccessLogger accessLogger = new AccessLogger(AccessLogFormat.JSON, new String[]{"STATUS", "DURATION_MS"});
+
+        String entry = accessLogger.formatResponse(response, TPP_ID, 42);
+
+        assertEquals("{\"type\":\"RESPONSE\",\"status\":200,\"durationMs\":42}", entry);
+    }
+
+    @Test
+    public void formatRequest_headerWithLineBreakAndQuote_escaped() {
+        request.removeHeader("X-Request-ID");
+        request.addHeader("X-Request-ID", "a\"b\nREQUEST - forged");
+
+        assertEquals("REQUEST - X-Request-ID: [a\"b REQUEST - forged]",
+                     new AccessLogger(AccessLogFormat.KEY_VALUE, new String[]{"X_REQUEST_ID"}).formatRequest(request, TPP_ID));
+        assertEquals("{\"type\":\"REQUEST\",\"xRequestId\":\"a\\\"b\\u000aREQUEST - forged\"}",
+                     new AccessLogger(AccessLogFormat.JSON, new String[]{"X_REQUEST_ID"}).formatRequest(request, TPP_ID));
+    }
+
+    @Test
+    public void formatRequest_consentIdFromHeader() {
+        request.addHeader("Consent-ID", "consent123");
+
+        String entry = new AccessLogger(AccessLogFormat.KEY_VALUE, new String[]{"CONSENT_ID"}).formatRequest(request, TPP_ID);
+
+        assertEquals("REQUEST - Consent ID: [consent123]", entry);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_unknownField_exception() {
+        new AccessLogger(AccessLogFormat.KEY_VALUE, new String[]{"UNKNOWN"});
+    }
+}
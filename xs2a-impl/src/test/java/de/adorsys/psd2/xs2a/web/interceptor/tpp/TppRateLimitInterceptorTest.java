@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.interceptor.tpp;
+
+import de.adorsys.psd2.xs2a.service.TppService;
+import de.adorsys.psd2.xs2a.service.discovery.ServiceTypeDiscoveryService;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorType;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceType;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.ServiceTypeToErrorTypeMapper;
+import de.adorsys.psd2.xs2a.service.mapper.psd2.StaticErrorResponseWriter;
+import de.adorsys.psd2.xs2a.service.ratelimit.TppRateLimiter;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static de.adorsys.psd2.xs2a.core.error.MessageErrorCode.ACCESS_EXCEEDED;
+import static org.junit.Assert.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TppRateLimitInterceptorTest {
+    private static final String TPP_ID = "Test TppId";
+    private static final String CONSENT_ID = "Test consentId";
+
+    @InjectMocks
+    private TppRateLimitInterceptor tppRateLimitInterceptor;
+
+    @Mock
+    private StaticErrorResponseWriter staticErrorResponseWriter;
+    @Mock
+    private TppService tppService;
+    @Mock
+    private TppRateLimiter tppRateLimiter;
+    @Mock
+    private ServiceTypeDiscoveryService serviceTypeDiscoveryService;
+    @Mock
+    private ServiceTypeToErrorTypeMapper errorTypeMapper;
+
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Before
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/v1/accounts");
+        request.addHeader("Consent-ID", CONSENT_ID);
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void preHandle_withinRate_permitted() throws Exception {
+        when(tppService.getTppId()).thenReturn(TPP_ID);
+        when(serviceTypeDiscoveryService.getServiceType()).thenReturn(ServiceType.AIS);
+        when(errorTypeMapper.mapToErrorType(ServiceType.AIS, ACCESS_EXCEEDED.getCode())).thenReturn(ErrorType.AIS_429);
+        when(tppRateLimiter.tryAcquire(TPP_ID, CONSENT_ID)).thenReturn(0L);
+
+        assertTrue(tppRateLimitInterceptor.preHandle(request, response, null));
+        verify(staticErrorResponseWriter, never()).writeErrorResponse(any(), any(), any());
+    }
+
+    @Test
+    public void preHandle_rateExceeded_accessExceeded() throws Exception {
+        when(tppService.getTppId()).thenReturn(TPP_ID);
+        when(tppRateLimiter.tryAcquire(TPP_ID, CONSENT_ID)).thenReturn(TimeUnit.MILLISECONDS.toNanos(2500));
+        when(serviceTypeDiscoveryService.getServiceType()).thenReturn(ServiceType.AIS);
+        when(errorTypeMapper.mapToErrorType(ServiceType.AIS, ACCESS_EXCEEDED.getCode())).thenReturn(ErrorType.AIS_429);
+
+        assertFalse(tppRateLimitInterceptor.preHandle(request, response, null));
+        assertEquals("2", response.getHeader("Retry-After"));
+        verify(staticErrorResponseWriter).writeErrorResponse(response, ErrorType.AIS_429, ACCESS_EXCEEDED);
+    }
+
+    @Test
+    public void preHandle_serviceWithout429_permittedWithoutTakingTokens() throws Exception {
+        when(serviceTypeDiscoveryService.getServiceType()).thenReturn(ServiceType.PIS);
+        when(errorTypeMapper.mapToErrorType(ServiceType.PIS, ACCESS_EXCEEDED.getCode())).thenReturn(null);
+
+        assertTrue(tppRateLimitInterceptor.preHandle(request, response, null));
+        verify(tppRateLimiter, never()).tryAcquire(any(), any());
+        verify(staticErrorResponseWriter, never()).writeErrorResponse(any(), any(), any());
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.link;
+
+import de.adorsys.psd2.xs2a.web.aspect.UrlHolder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.web.util.UriComponentsBuilder.fromHttpUrl;
+
+/**
+ * Measures links rendered per second with {@link org.springframework.web.util.UriComponentsBuilder} and with
+ * pre-split {@link LinkTemplate}. Not a part of the test suite, run manually with {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkRenderingBenchmark {
+    private static final String HTTP_URL = "https://xs2a.example.com";
+    private static final String PAYMENT_SERVICE = "payments";
+    private static final String PAYMENT_PRODUCT = "sepa-credit-transfers";
+    private static final String PAYMENT_ID = "uNzbY8t7Eo8dtRd_ax7Zvjq-Ih2dyZRT8Ldlle8sQXoyIYTuwjkIhYJHRQ_mF4vHs7eCVsi6dQ";
+    private static final String AUTHORISATION_ID = "463318a0-1e33-45d8-8209-e16444b18dda";
+
+    @Benchmark
+    public String uriComponentsBuilder() {
+        return fromHttpUrl(HTTP_URL)
+                   .path(UrlHolder.PIS_AUTHORISATION_LINK_URL)
+                   .buildAndExpand(PAYMENT_SERVICE, PAYMENT_PRODUCT, PAYMENT_ID, AUTHORISATION_ID)
+                   .toUriString();
+    }
+
+    @Benchmark
+    public String linkTemplate() {
+        return LinkTemplate.of(UrlHolder.PIS_AUTHORISATION_LINK_URL)
+                   .expand(HTTP_URL, PAYMENT_SERVICE, PAYMENT_PRODUCT, PAYMENT_ID, AUTHORISATION_ID);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                       .include(LinkRenderingBenchmark.class.getSimpleName())
+                       .build())
+            .run();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.adorsys.psd2.xs2a.web.link;
+
+import de.adorsys.psd2.xs2a.web.aspect.UrlHolder;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.springframework.web.util.UriComponentsBuilder.fromHttpUrl;
+
+public class LinkTemplateTest {
+    private static final String HTTP_URL = "http://url";
+    private static final String PAYMENT_SERVICE = "payments";
+    private static final String PAYMENT_PRODUCT = "sepa-credit-transfers";
+    private static final String PAYMENT_ID = "1111111111111";
+    private static final String AUTHORISATION_ID = "463318a0-1e33-45d8-8209-e16444b18dda";
+
+    @Test
+    public void expand_success() {
+        String link = LinkTemplate.of(UrlHolder.PIS_AUTHORISATION_LINK_URL)
+                          .expand(HTTP_URL, PAYMENT_SERVICE, PAYMENT_PRODUCT, PAYMENT_ID, AUTHORISATION_ID);
+
+        assertEquals("http://url/v1/payments/sepa-credit-transfers/1111111111111/authorisations/463318a0-1e33-45d8-8209-e16444b18dda", link);
+    }
+
+    @Test
+    public void expand_sameAsUriComponentsBuilder() {
+        assertSameAsUriComponentsBuilder(HTTP_URL, UrlHolder.PAYMENT_STATUS_URL, PAYMENT_SERVICE, PAYMENT_PRODUCT, PAYMENT_ID);
+        assertSameAsUriComponentsBuilder(HTTP_URL, UrlHolder.PIS_CANCELLATION_AUTH_LINK_URL, PAYMENT_SERVICE, PAYMENT_PRODUCT, PAYMENT_ID, AUTHORISATION_ID);
+        assertSameAsUriComponentsBuilder(HTTP_URL, UrlHolder.CONSENT_STATUS_URL, "consent id with spaces");
+        assertSameAsUriComponentsBuilder("http://url:8080/xs2a", UrlHolder.ACCOUNT_TRANSACTIONS_DOWNLOAD_URL, "33333-999999999");
+        assertSameAsUriComponentsBuilder("http://url/", UrlHolder.ACCOUNT_LINK_URL, "33333-999999999");
+        assertSameAsUriComponentsBuilder(HTTP_URL, UrlHolder.AIS_AUTHORISATION_URL, "consentId", null);
+    }
+
+    @Test
+    public void of_sameTemplate_sameInstance() {
+        assertSame(LinkTemplate.of(UrlHolder.CONSENT_LINK_URL), LinkTemplate.of(UrlHolder.CONSENT_LINK_URL));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void expand_notEnoughParams_exception() {
+        LinkTemplate.of(UrlHolder.PAYMENT_LINK_URL)
+            .expand(HTTP_URL, PAYMENT_SERVICE, PAYMENT_PRODUCT);
+    }
+
+    private void assertSameAsUriComponentsBuilder(String httpUrl, String path, Object... params) {
+        String expected = fromHttpUrl(httpUrl)
+                              .path(path)
+                              .buildAndExpand(params)
+                              .toUriString();
+
+        assertEquals(expected, LinkTemplate.of(path).expand(httpUrl, params));
+    }
+}
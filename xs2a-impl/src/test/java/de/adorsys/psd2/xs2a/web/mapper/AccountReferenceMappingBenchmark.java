@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.xs2a.web.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.psd2.xs2a.config.ObjectMapperConfig;
+import de.adorsys.psd2.xs2a.core.profile.AccountReference;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures account references mapped per second with {@link ObjectMapper#convertValue} and with
+ * {@link AccountReferenceModelMapper}. Not a part of the test suite, run manually with {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountReferenceMappingBenchmark {
+    private final ObjectMapper objectMapper = new ObjectMapperConfig().objectMapper();
+    private final AccountReferenceModelMapper accountReferenceModelMapper = new AccountReferenceModelMapperImpl();
+    private final de.adorsys.psd2.model.AccountReference reference = new de.adorsys.psd2.model.AccountReference()
+                                                                         .iban("DE89370400440532013000")
+                                                                         .currency("EUR");
+
+    @Benchmark
+    public AccountReference convertValue() {
+        return objectMapper.convertValue(reference, AccountReference.class);
+    }
+
+    @Benchmark
+    public AccountReference directMapper() {
+        return accountReferenceModelMapper.mapToAccountReference(reference);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                       .include(AccountReferenceMappingBenchmark.class.getSimpleName())
+                       .build())
+            .run();
+    }
+}
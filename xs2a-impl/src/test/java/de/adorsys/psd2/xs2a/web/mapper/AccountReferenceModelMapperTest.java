@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.xs2a.web.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.psd2.xs2a.config.ObjectMapperConfig;
+import de.adorsys.psd2.xs2a.core.profile.AccountReference;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Checks that the direct mapping gives the same result as the former conversion with {@link ObjectMapper#convertValue}
+ */
+public class AccountReferenceModelMapperTest {
+    private final AccountReferenceModelMapper mapper = new AccountReferenceModelMapperImpl();
+    private final ObjectMapper objectMapper = new ObjectMapperConfig().objectMapper();
+
+    @Test
+    public void mapToAccountReference_allFields() {
+        de.adorsys.psd2.model.AccountReference reference = new de.adorsys.psd2.model.AccountReference()
+                                                               .iban("DE89370400440532013000")
+                                                               .bban("89370400440532013000")
+                                                               .pan("2356 5746 3217 1234")
+                                                               .maskedPan("2356xxxxxx1234")
+                                                               .msisdn("+49(0)911 360698-0")
+                                                               .currency("EUR");
+
+        assertEquivalent(reference);
+    }
+
+    @Test
+    public void mapToAccountReference_ibanOnly() {
+        assertEquivalent(new de.adorsys.psd2.model.AccountReference().iban("DE89370400440532013000"));
+    }
+
+    @Test
+    public void mapToAccountReference_emptyReference() {
+        assertEquivalent(new de.adorsys.psd2.model.AccountReference());
+    }
+
+    @Test
+    public void mapToAccountReference_blankCurrency() {
+        assertEquivalent(new de.adorsys.psd2.model.AccountReference().iban("DE89370400440532013000").currency(""));
+        assertEquivalent(new de.adorsys.psd2.model.AccountReference().iban("DE89370400440532013000").currency("  "));
+    }
+
+    @Test
+    public void mapToAccountReference_currencyWithSpaces() {
+        assertEquivalent(new de.adorsys.psd2.model.AccountReference().iban("DE89370400440532013000").currency(" EUR "));
+    }
+
+    @Test
+    public void mapToAccountReference_null() {
+        assertNull(mapper.mapToAccountReference(null));
+        assertNull(objectMapper.convertValue(null, AccountReference.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void mapToAccountReference_invalidCurrency() {
+        mapper.mapToAccountReference(new de.adorsys.psd2.model.AccountReference().currency("zzz"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void convertValue_invalidCurrency() {
+        objectMapper.convertValue(new de.adorsys.psd2.model.AccountReference().currency("zzz"), AccountReference.class);
+    }
+
+    private void assertEquivalent(de.adorsys.psd2.model.AccountReference reference) {
+        assertEquals(objectMapper.convertValue(reference, AccountReference.class), mapper.mapToAccountReference(reference));
+    }
+}
@@ -16,13 +16,18 @@
 
 package de.adorsys.psd2.xs2a.web.mapper;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.psd2.xs2a.config.ObjectMapperConfig;
 import de.adorsys.psd2.xs2a.domain.Links;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.Collections;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.*;
 
@@ -35,8 +40,7 @@ public class HrefLinkMapperTest {
 
     @Before
     public void setUp() {
-        ObjectMapper objectMapper = new ObjectMapper();
-        hrefMapper = new HrefLinkMapper(objectMapper);
+        hrefMapper = new HrefLinkMapper();
     }
 
     @Test
@@ -99,4 +103,57 @@ public class HrefLinkMapperTest {
         //Then:
         assertNull(linkMap);
     }
+
+    @Test
+    public void mapToLinksMap_allLinks_shouldBeEquivalentToJsonConversion() throws IllegalAccessException {
+        // Given
+        Links links = new Links();
+        for (Field field : Links.class.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                field.setAccessible(true);
+                field.set(links, LINK_PATH + field.getName());
+            }
+        }
+
+        //When:
+        Map<String, Map<String, String>> linkMap = hrefMapper.mapToLinksMap(links);
+
+        //Then:
+        assertEquals(Links.class.getDeclaredFields().length, linkMap.size());
+        assertEquals(mapToLinksMapWithJsonConversion(links), linkMap);
+    }
+
+    @Test
+    public void mapToLinksMap_someLinks_shouldBeEquivalentToJsonConversion() {
+        // Given
+        Links links = new Links();
+        links.setSelf(LINK_PATH);
+        links.setScaOAuth(LINK_PATH + "oauth");
+        links.setStartAuthorisationWithAuthenticationMethodSelection(LINK_PATH + "authorisations");
+
+        //When:
+        Map<String, Map<String, String>> linkMap = hrefMapper.mapToLinksMap(links);
+
+        //Then:
+        assertEquals(3, linkMap.size());
+        assertEquals(mapToLinksMapWithJsonConversion(links), linkMap);
+    }
+
+    @Test
+    public void mapToLinksMap_noLinks_shouldReturnEmptyMap() {
+        //When:
+        Map<String, Map<String, String>> linkMap = hrefMapper.mapToLinksMap(new Links());
+
+        //Then:
+        assertTrue(linkMap.isEmpty());
+        assertEquals(mapToLinksMapWithJsonConversion(new Links()), linkMap);
+    }
+
+    private Map<String, Map<String, String>> mapToLinksMapWithJsonConversion(Links links) {
+        ObjectMapper objectMapper = new ObjectMapperConfig().objectMapper();
+        Map<String, String> linksMap = objectMapper.convertValue(links, new TypeReference<Map<String, String>>() {
+        });
+        return linksMap.entrySet().stream()
+                   .collect(Collectors.toMap(Map.Entry::getKey, e -> Collections.singletonMap(HREF, e.getValue())));
+    }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.xs2a.web.mapper;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.adorsys.psd2.xs2a.config.ObjectMapperConfig;
+import de.adorsys.psd2.xs2a.domain.Links;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures links objects mapped per second with {@link ObjectMapper#convertValue} and with {@link HrefLinkMapper}.
+ * Not a part of the test suite, run manually with {@link #main(String[])}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinksMappingBenchmark {
+    private static final String PAYMENT_LINK = "https://xs2a.example.com/v1/payments/sepa-credit-transfers/uNzbY8t7Eo8dtRd_ax7Zvjq";
+
+    private final ObjectMapper objectMapper = new ObjectMapperConfig().objectMapper();
+    private final HrefLinkMapper hrefLinkMapper = new HrefLinkMapper();
+    private final Links links = new Links();
+
+    @Setup
+    public void setUp() {
+        links.setSelf(PAYMENT_LINK);
+        links.setStatus(PAYMENT_LINK + "/status");
+        links.setScaStatus(PAYMENT_LINK + "/authorisations/463318a0-1e33-45d8-8209-e16444b18dda");
+        links.setScaRedirect("https://bank.example.com/authorisation/463318a0-1e33-45d8-8209-e16444b18dda");
+    }
+
+    @Benchmark
+    public Map<String, Map<String, String>> convertValue() {
+        Map<String, String> linksMap = objectMapper.convertValue(links, new TypeReference<Map<String, String>>() {
+        });
+        return linksMap.entrySet().stream()
+                   .collect(Collectors.toMap(Map.Entry::getKey, e -> Collections.singletonMap("href", e.getValue())));
+    }
+
+    @Benchmark
+    public Map<String, Map<String, String>> directMapper() {
+        return hrefLinkMapper.mapToLinksMap(links);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                       .include(LinksMappingBenchmark.class.getSimpleName())
+                       .build())
+            .run();
+    }
+}
@@ -26,6 +26,7 @@ import de.adorsys.psd2.xs2a.domain.pis.SinglePayment;
 import de.adorsys.psd2.xs2a.exception.MessageError;
 import de.adorsys.psd2.xs2a.service.mapper.psd2.ErrorType;
 import de.adorsys.psd2.xs2a.util.reader.JsonReader;
+import de.adorsys.psd2.xs2a.web.mapper.AccountReferenceModelMapperImpl;
 import de.adorsys.psd2.xs2a.web.validator.body.payment.mapper.PaymentMapper;
 import de.adorsys.psd2.xs2a.web.validator.header.ErrorBuildingServiceMock;
 import org.junit.Before;
@@ -58,7 +59,7 @@ public class SinglePaymentTypeValidatorImplTest {
         ObjectMapper objectMapper = new ObjectMapper();
         validator = new SinglePaymentTypeValidatorImpl(new ErrorBuildingServiceMock(ErrorType.AIS_400),
                                                        objectMapper,
-                                                       new PaymentMapper(objectMapper));
+                                                       new PaymentMapper(objectMapper, new AccountReferenceModelMapperImpl()));
     }
 
     @Test
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018-2019 adorsys GmbH & Co KG
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package de.adorsys.psd2.starter.config;
+
+import de.adorsys.psd2.xs2a.service.account.AccountDataCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes the statistics of the account data cache as actuator metrics
+ */
+@Configuration
+public class AccountDataCacheMetricsConfig {
+    @Bean
+    public MeterBinder accountDataCacheMetrics(AccountDataCache accountDataCache) {
+        return registry -> {
+            FunctionCounter.builder("xs2a.ais.account-data-cache.hits", accountDataCache, AccountDataCache::getHitCount)
+                .description("Number of account data reads answered from the cache")
+                .register(registry);
+            FunctionCounter.builder("xs2a.ais.account-data-cache.misses", accountDataCache, AccountDataCache::getMissCount)
+                .description("Number of account data reads, that had to be forwarded to SPI")
+                .register(registry);
+            FunctionCounter.builder("xs2a.ais.account-data-cache.evictions", accountDataCache, AccountDataCache::getEvictionCount)
+                .description("Number of cache entries evicted because the maximum number of entries was exceeded")
+                .register(registry);
+            Gauge.builder("xs2a.ais.account-data-cache.size", accountDataCache, AccountDataCache::size)
+                .description("Number of entries in the cache")
+                .register(registry);
+        };
+    }
+}
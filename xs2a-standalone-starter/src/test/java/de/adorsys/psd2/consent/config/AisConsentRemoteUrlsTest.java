@@ -58,6 +58,12 @@ public class AisConsentRemoteUrlsTest {
             aisConsentRemoteUrls.getAisConsentStatusById());
     }
 
+    @Test
+    public void getAisConsentStatusVersionById() {
+        assertEquals("http://base.url/ais/consent/{consent-id}/status-version",
+            aisConsentRemoteUrls.getAisConsentStatusVersionById());
+    }
+
     @Test
     public void updateAisConsentStatus() {
         assertEquals("http://base.url/ais/consent/{consent-id}/status/{status}",
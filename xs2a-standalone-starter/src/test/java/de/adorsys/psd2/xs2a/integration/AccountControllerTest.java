@@ -300,7 +300,7 @@ public class AccountControllerTest {
         Xs2aAccountAccess xs2aAccountAccess = new Xs2aAccountAccess(Collections.emptyList(), Collections.emptyList(), Collections.emptyList(), null, null);
         return new AccountConsent(null, xs2aAccountAccess, false, LocalDate.now().plusDays(1), 10,
                                   null, ConsentStatus.VALID, false, false,
-                                  null, TPP_INFO, null, false, Collections.emptyList(), OffsetDateTime.now(), usageCounter);
+                                  null, TPP_INFO, null, false, Collections.emptyList(), OffsetDateTime.now(), usageCounter, 0L);
     }
 }
 
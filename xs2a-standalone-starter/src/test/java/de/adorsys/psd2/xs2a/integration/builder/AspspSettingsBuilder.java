@@ -96,7 +96,9 @@ public class AspspSettingsBuilder {
             DELTA_LIST_SUPPORTED,
             ENTRY_REFERENCE_FROM_SUPPORTED,
             SUPPORTED_TRANSACTION_APPLICATION_TYPES,
-            START_AUTHORISATION_MODE);
+            START_AUTHORISATION_MODE,
+            0,
+            0);
     }
 
     public static AspspSettings buildAspspSettingsWithForcedXs2aBaseUrl(String xs2aBaseUrl) {
@@ -132,7 +134,9 @@ public class AspspSettingsBuilder {
             DELTA_LIST_SUPPORTED,
             ENTRY_REFERENCE_FROM_SUPPORTED,
             SUPPORTED_TRANSACTION_APPLICATION_TYPES,
-            START_AUTHORISATION_MODE);
+            START_AUTHORISATION_MODE,
+            0,
+            0);
     }
 
     private static List<SupportedAccountReferenceField> getSupportedAccountReferenceFields() {
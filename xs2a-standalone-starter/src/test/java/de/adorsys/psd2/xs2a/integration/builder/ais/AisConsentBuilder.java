@@ -77,7 +77,7 @@ public class AisConsentBuilder {
                             0,
                             Collections.emptyMap(),
                             OffsetDateTime.now(),
-                            OffsetDateTime.now()
+                            OffsetDateTime.now(), 0L
                         )
                    )
                    .orElse(null);